@@ -17,18 +17,34 @@
  */
 package com.b3dgs.lionengine;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Aimed to load resources asynchronously from the main thread, in order to improve transition time between two parts.
  * <p>
  * Add resources to load with {@link #add(Enum, Resource)}, and call {@link #start()} to begin loading in a separate
- * process.
+ * process. Resources are loaded in parallel on a worker pool, so each {@link Resource#load()} must only work on its own
+ * data ({@link com.b3dgs.lionengine.drawable.Image} and {@link com.b3dgs.lionengine.stream.XmlResource} do).
  * </p>
  * <p>
- * Call {@link #await()} where resources must be loaded, and access to them with {@link #get()}.
+ * Loading progress can be followed with {@link #getProgress()}, typically rendered by a loading sequence. Call
+ * {@link #await()} where resources must be loaded, and access to them with {@link #get()}, which are available all
+ * together once every resource has been loaded.
+ * </p>
+ * <p>
+ * A sequence can start loading the resources of the next one, and give the loader to it, which will await it before
+ * its load (see {@link com.b3dgs.lionengine.core.Sequence#setResourceLoader(ResourceLoader)}).
  * </p>
  */
 public class ResourceLoader
@@ -41,22 +57,63 @@ public class ResourceLoader
     private static final String ERROR_NOT_FINISHED = "Resource loader has not finished !";
     /** Error load skipped. */
     private static final String ERROR_SKIPPED = "Resource loader interrupted !";
+    /** Threads name. */
+    private static final String THREAD_NAME = "Resource loader";
 
     /** Handled resources. */
-    final Map<Enum<?>, Resource> resources = new HashMap<Enum<?>, Resource>();
-    /** Done. */
-    final AtomicBoolean done = new AtomicBoolean(false);
+    private final Map<Enum<?>, Resource> resources = new HashMap<Enum<?>, Resource>();
+    /** Running loads. */
+    private final List<Future<?>> running = new ArrayList<Future<?>>();
+    /** Loaded resources number. */
+    private final AtomicInteger loaded = new AtomicInteger();
     /** Started. */
     private final AtomicBoolean started = new AtomicBoolean(false);
-    /** Thread used. */
-    private final ResourceLoaderThread thread;
+    /** Maximum threads number. */
+    private final int threads;
+    /** Resources number. */
+    private volatile int total;
+    /** Loaded resources, published once all are loaded (<code>null</code> before). */
+    private volatile Map<Enum<?>, Resource> done;
 
     /**
-     * Create the resource loader.
+     * Create the loading threads pool.
+     * 
+     * @param threads The threads number.
+     * @return The created pool.
+     */
+    private static ExecutorService createExecutor(int threads)
+    {
+        return Executors.newFixedThreadPool(threads, new ThreadFactory()
+        {
+            @Override
+            public Thread newThread(Runnable runnable)
+            {
+                final Thread thread = new Thread(runnable, THREAD_NAME);
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+
+    /**
+     * Create the resource loader, using as many threads as available processors.
      */
     public ResourceLoader()
     {
-        thread = new ResourceLoaderThread();
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Create the resource loader.
+     * 
+     * @param threads The maximum number of resources loaded in parallel (must be strictly positive).
+     * @throws LionEngineException If invalid argument.
+     */
+    public ResourceLoader(int threads)
+    {
+        Check.superiorStrict(threads, 0);
+
+        this.threads = threads;
     }
 
     /**
@@ -76,7 +133,7 @@ public class ResourceLoader
     }
 
     /**
-     * Start to load resources in a separate thread.
+     * Start to load resources in separate threads.
      * 
      * @throws LionEngineException If loader has already been started.
      */
@@ -86,16 +143,46 @@ public class ResourceLoader
         {
             throw new LionEngineException(ERROR_STARTED);
         }
+        total = resources.size();
+        if (total == 0)
+        {
+            publish();
+        }
+        else
+        {
+            final ExecutorService executor = createExecutor(Math.min(threads, total));
+            for (final Resource resource : resources.values())
+            {
+                running.add(executor.submit(new Runnable()
+                {
+                    @Override
+                    public void run()
+                    {
+                        try
+                        {
+                            resource.load();
+                        }
+                        finally
+                        {
+                            if (loaded.incrementAndGet() == total)
+                            {
+                                publish();
+                            }
+                        }
+                    }
+                }));
+            }
+            executor.shutdown();
+        }
         started.set(true);
-        thread.start();
     }
 
     /**
      * Wait for load to finish. Can be called only if {@link #start()} where performed somewhere before.
      * 
-     * @throws LionEngineException If loading skipped or loader has not been started.
+     * @throws LionEngineException If loading skipped, a resource failed to load or loader has not been started.
      */
-    public synchronized void await()
+    public void await()
     {
         if (!started.get())
         {
@@ -103,28 +190,60 @@ public class ResourceLoader
         }
         try
         {
-            thread.join();
+            for (final Future<?> future : running)
+            {
+                future.get();
+            }
         }
         catch (final InterruptedException exception)
         {
             Thread.currentThread().interrupt();
             throw new LionEngineException(exception, ERROR_SKIPPED);
         }
+        catch (final ExecutionException exception)
+        {
+            throw new LionEngineException(exception.getCause());
+        }
     }
 
     /**
      * Get the loaded resources. Can be called safely after {@link #await()}. Else ensure all resources has been loaded.
      * 
      * @return The loaded resources.
-     * @throws LionEngineException If resources are not fully loaded.
+     * @throws LionEngineException If resources are not fully loaded or a resource failed to load.
      */
-    public synchronized Map<Enum<?>, Resource> get()
+    public Map<Enum<?>, Resource> get()
     {
-        if (!done.get())
+        final Map<Enum<?>, Resource> current = done;
+        if (current == null)
         {
             throw new LionEngineException(ERROR_NOT_FINISHED);
         }
-        return resources;
+        await();
+        return current;
+    }
+
+    /**
+     * Get the loading progress.
+     * 
+     * @return The loading progress percent, from <code>0</code> to <code>100</code>.
+     */
+    public int getProgress()
+    {
+        final int progress;
+        if (done != null)
+        {
+            progress = Constant.HUNDRED;
+        }
+        else if (total == 0)
+        {
+            progress = 0;
+        }
+        else
+        {
+            progress = loaded.get() * Constant.HUNDRED / total;
+        }
+        return progress;
     }
 
     /**
@@ -134,34 +253,14 @@ public class ResourceLoader
      */
     public boolean isFinished()
     {
-        return done.get();
+        return done != null;
     }
 
     /**
-     * Resource loader thread.
+     * Publish the loaded resources all together.
      */
-    private final class ResourceLoaderThread extends Thread
+    void publish()
     {
-        /**
-         * Create the resource loader.
-         */
-        ResourceLoaderThread()
-        {
-            super("Resource loader");
-        }
-
-        /*
-         * Thread
-         */
-
-        @Override
-        public void run()
-        {
-            for (final Resource resource : resources.values())
-            {
-                resource.load();
-            }
-            done.set(true);
-        }
+        done = Collections.unmodifiableMap(new HashMap<Enum<?>, Resource>(resources));
     }
 }
@@ -0,0 +1,152 @@
+/*
+ * Copyright (C) 2013-2016 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.core;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+import com.b3dgs.lionengine.LionEngineException;
+
+/**
+ * Run a filter computation by horizontal bands, in parallel on all available processors.
+ * <p>
+ * The last band is computed by the calling thread, others by a shared pool of daemon threads. Computation is done on
+ * the calling thread only with a single processor, or if there are not enough rows.
+ * </p>
+ */
+final class FilterBands
+{
+    /** Threads number. */
+    private static final int THREADS = Runtime.getRuntime().availableProcessors();
+    /** Minimum rows per band. */
+    private static final int MIN_ROWS = 16;
+    /** Shared executor (<code>null</code> until first parallel run). */
+    private static ExecutorService executor;
+
+    /**
+     * Compute all rows by bands.
+     * 
+     * @param rows The rows number.
+     * @param band The band computation.
+     * @throws LionEngineException If a band computation failed.
+     */
+    static void run(int rows, final Band band)
+    {
+        final int bands = Math.max(1, Math.min(THREADS, rows / MIN_ROWS));
+        if (bands == 1)
+        {
+            band.compute(0, rows);
+        }
+        else
+        {
+            final ExecutorService pool = getExecutor();
+            final Collection<Future<?>> futures = new ArrayList<Future<?>>(bands - 1);
+            final int size = rows / bands;
+            for (int i = 0; i < bands - 1; i++)
+            {
+                final int start = i * size;
+                futures.add(pool.submit(new Runnable()
+                {
+                    @Override
+                    public void run()
+                    {
+                        band.compute(start, start + size);
+                    }
+                }));
+            }
+            band.compute((bands - 1) * size, rows);
+            await(futures);
+        }
+    }
+
+    /**
+     * Wait for bands computation.
+     * 
+     * @param futures The bands computation.
+     * @throws LionEngineException If a band computation failed.
+     */
+    private static void await(Collection<Future<?>> futures)
+    {
+        try
+        {
+            for (final Future<?> future : futures)
+            {
+                future.get();
+            }
+        }
+        catch (final InterruptedException exception)
+        {
+            Thread.currentThread().interrupt();
+            throw new LionEngineException(exception);
+        }
+        catch (final ExecutionException exception)
+        {
+            throw new LionEngineException(exception.getCause());
+        }
+    }
+
+    /**
+     * Get the shared executor, created on first call.
+     * 
+     * @return The shared executor.
+     */
+    private static synchronized ExecutorService getExecutor()
+    {
+        if (executor == null)
+        {
+            executor = Executors.newFixedThreadPool(THREADS - 1, new ThreadFactory()
+            {
+                @Override
+                public Thread newThread(Runnable runnable)
+                {
+                    final Thread thread = new Thread(runnable, FilterBands.class.getSimpleName());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        }
+        return executor;
+    }
+
+    /**
+     * Private constructor.
+     */
+    private FilterBands()
+    {
+        throw new LionEngineException(LionEngineException.ERROR_PRIVATE_CONSTRUCTOR);
+    }
+
+    /**
+     * Band computation.
+     */
+    interface Band
+    {
+        /**
+         * Compute the rows band.
+         * 
+         * @param start The first row.
+         * @param end The last row excluded.
+         */
+        void compute(int start, int end);
+    }
+}
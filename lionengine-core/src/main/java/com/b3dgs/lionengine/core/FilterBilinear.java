@@ -25,9 +25,60 @@ import com.b3dgs.lionengine.util.UtilMath;
 
 /**
  * Bilinear filter implementation.
+ * <p>
+ * Pixels buffers are kept between calls and reused while the source size is unchanged, each filtered image being
+ * created for the caller (the sequence rendering reuses its own). Rows are computed by bands in parallel.
+ * </p>
  */
-public class FilterBilinear implements Filter
+public class FilterBilinear implements Filter, FilterInto
 {
+    /** Filter radius. */
+    private static final int RADIUS = 1;
+    /** Division table size. */
+    private static final int TABLE_SIZE = 2 * RADIUS + 1;
+
+    /**
+     * Create the division table.
+     * 
+     * @return The division table.
+     */
+    private static int[] createDivide()
+    {
+        final int[] divide = new int[Constant.UNSIGNED_BYTE * TABLE_SIZE];
+        for (int i = 0; i < divide.length; i++)
+        {
+            divide[i] = i / TABLE_SIZE;
+        }
+        return divide;
+    }
+
+    /** Division table. */
+    private final int[] divide = createDivide();
+    /** Rows computation. */
+    private final FilterBands.Band band = new FilterBands.Band()
+    {
+        @Override
+        public void compute(int start, int end)
+        {
+            for (int y = start; y < end; y++)
+            {
+                computeRow(y);
+            }
+        }
+    };
+    /** Source pixels, and final result. */
+    private int[] inPixels = new int[0];
+    /** Intermediate pixels. */
+    private int[] outPixels = new int[0];
+    /** Current pass source. */
+    private int[] passIn;
+    /** Current pass destination (transposed). */
+    private int[] passOut;
+    /** Current pass width. */
+    private int passWidth;
+    /** Current pass height. */
+    private int passHeight;
+
     /**
      * Create the filter.
      */
@@ -36,104 +87,135 @@ public class FilterBilinear implements Filter
         super();
     }
 
-    /*
-     * Filter
+    /**
+     * Update buffers if source size changed.
+     * 
+     * @param source The image source.
      */
-
-    @Override
-    public ImageBuffer filter(ImageBuffer source)
+    private void checkBuffers(ImageBuffer source)
     {
         final int width = source.getWidth();
         final int height = source.getHeight();
-
-        final int[] inPixels = new int[width * height];
-        final int[] outPixels = new int[width * height];
-        source.getRgb(0, 0, width, height, inPixels, 0, width);
-
-        compute(inPixels, outPixels, width, height, 1);
-        compute(outPixels, inPixels, height, width, 1);
-
-        final ImageBuffer dest = Graphics.createImageBuffer(width, height, source.getTransparency());
-        dest.setRgb(0, 0, width, height, inPixels, 0, width);
-        return dest;
-    }
-
-    @Override
-    public Transform getTransform(double scaleX, double scaleY)
-    {
-        final Transform transform = Graphics.createTransform();
-        transform.scale(scaleX, scaleY);
-        return transform;
+        if (inPixels.length != width * height)
+        {
+            inPixels = new int[width * height];
+            outPixels = new int[width * height];
+        }
     }
 
     /**
-     * Compute bilinear filtering.
+     * Compute a bilinear pass, by bands. Destination is transposed.
      * 
      * @param in The source pixels.
      * @param out The destination pixels.
      * @param width The image width.
      * @param height The image height.
-     * @param radius The radius used.
      */
-    private static void compute(int[] in, int[] out, int width, int height, int radius)
+    private void compute(int[] in, int[] out, int width, int height)
+    {
+        passIn = in;
+        passOut = out;
+        passWidth = width;
+        passHeight = height;
+        FilterBands.run(height, band);
+    }
+
+    /**
+     * Compute a row of current pass.
+     * 
+     * @param y The row index.
+     */
+    private void computeRow(int y)
     {
-        final int widthMinus1 = width - 1;
-        final int tableSize = 2 * radius + 1;
-        final int[] divide = new int[Constant.UNSIGNED_BYTE * tableSize];
+        final int widthMinus1 = passWidth - 1;
+        final int inIndex = y * passWidth;
+        int outIndex = y;
+        int ta = 0;
+        int tr = 0;
+        int tg = 0;
+        int tb = 0;
 
-        for (int i = 0; i < Constant.UNSIGNED_BYTE * tableSize; i++)
+        for (int i = -RADIUS; i <= RADIUS; i++)
         {
-            divide[i] = i / tableSize;
+            final int rgb = passIn[inIndex + UtilMath.clamp(i, 0, widthMinus1)];
+            ta += rgb >> Constant.BYTE_4 & 0xff;
+            tr += rgb >> Constant.BYTE_3 & 0xff;
+            tg += rgb >> Constant.BYTE_2 & 0xff;
+            tb += rgb & 0xff;
         }
 
-        int inIndex = 0;
-        for (int y = 0; y < height; y++)
+        for (int x = 0; x < passWidth; x++)
         {
-            int outIndex = y;
-            int ta = 0;
-            int tr = 0;
-            int tg = 0;
-            int tb = 0;
-
-            for (int i = -radius; i <= radius; i++)
-            {
-                final int rgb = in[inIndex + UtilMath.clamp(i, 0, width - 1)];
-                ta += rgb >> Constant.BYTE_4 & 0xff;
-                tr += rgb >> Constant.BYTE_3 & 0xff;
-                tg += rgb >> Constant.BYTE_2 & 0xff;
-                tb += rgb & 0xff;
-            }
-
-            for (int x = 0; x < width; x++)
-            {
-                out[outIndex] = divide[ta] << Constant.BYTE_4
+            passOut[outIndex] = divide[ta] << Constant.BYTE_4
                                 | divide[tr] << Constant.BYTE_3
                                 | divide[tg] << Constant.BYTE_2
                                 | divide[tb];
 
-                int i1 = x + radius + 1;
-                if (i1 > widthMinus1)
-                {
-                    i1 = widthMinus1;
-                }
-                int i2 = x - radius;
-                if (i2 < 0)
-                {
-                    i2 = 0;
-                }
-                final int rgb1 = in[inIndex + i1];
-                final int rgb2 = in[inIndex + i2];
-                final int red = 0xff0000;
-                final int green = 0xff00;
-                final int blue = 0xff;
-
-                ta += (rgb1 >> Constant.BYTE_4 & 0xff) - (rgb2 >> Constant.BYTE_4 & 0xff);
-                tr += (rgb1 & red) - (rgb2 & red) >> Constant.BYTE_3;
-                tg += (rgb1 & green) - (rgb2 & green) >> Constant.BYTE_2;
-                tb += (rgb1 & blue) - (rgb2 & blue);
-                outIndex += height;
+            int i1 = x + RADIUS + 1;
+            if (i1 > widthMinus1)
+            {
+                i1 = widthMinus1;
             }
-            inIndex += width;
+            int i2 = x - RADIUS;
+            if (i2 < 0)
+            {
+                i2 = 0;
+            }
+            final int rgb1 = passIn[inIndex + i1];
+            final int rgb2 = passIn[inIndex + i2];
+            final int red = 0xff0000;
+            final int green = 0xff00;
+            final int blue = 0xff;
+
+            ta += (rgb1 >> Constant.BYTE_4 & 0xff) - (rgb2 >> Constant.BYTE_4 & 0xff);
+            tr += (rgb1 & red) - (rgb2 & red) >> Constant.BYTE_3;
+            tg += (rgb1 & green) - (rgb2 & green) >> Constant.BYTE_2;
+            tb += (rgb1 & blue) - (rgb2 & blue);
+            outIndex += passHeight;
         }
     }
+
+    /*
+     * Filter
+     */
+
+    @Override
+    public ImageBuffer filter(ImageBuffer source)
+    {
+        final ImageBuffer dest = createDestination(source);
+        filter(source, dest);
+        return dest;
+    }
+
+    @Override
+    public Transform getTransform(double scaleX, double scaleY)
+    {
+        final Transform transform = Graphics.createTransform();
+        transform.scale(scaleX, scaleY);
+        return transform;
+    }
+
+    /*
+     * FilterInto
+     */
+
+    @Override
+    public ImageBuffer createDestination(ImageBuffer source)
+    {
+        return Graphics.createImageBuffer(source.getWidth(), source.getHeight(), source.getTransparency());
+    }
+
+    @Override
+    public synchronized void filter(ImageBuffer source, ImageBuffer dest)
+    {
+        final int width = source.getWidth();
+        final int height = source.getHeight();
+        checkBuffers(source);
+        source.getRgb(0, 0, width, height, inPixels, 0, width);
+
+        compute(inPixels, outPixels, width, height);
+        compute(outPixels, inPixels, height, width);
+
+        dest.setRgb(0, 0, width, height, inPixels, 0, width);
+    }
 }
@@ -25,8 +25,13 @@ import com.b3dgs.lionengine.util.UtilMath;
 
 /**
  * Blur filter implementation.
+ * <p>
+ * Pixels buffers and kernel are kept between calls and reused while the source size and radius are unchanged, each
+ * filtered image being created for the caller (the sequence rendering reuses its own). Rows are computed by bands in
+ * parallel, edges being handled apart from the inner loop, which does not check edges.
+ * </p>
  */
-public class FilterBlur implements Filter
+public class FilterBlur implements Filter, FilterInto
 {
     /** Clamp edges. */
     public static final int CLAMP_EDGES = 0;
@@ -35,12 +40,131 @@ public class FilterBlur implements Filter
     /** Default radius. */
     private static final float RADIUS_DEFAULT = 1.5F;
 
+    /**
+     * Check the edge value.
+     * 
+     * @param width The image width.
+     * @param x The current horizontal pixel.
+     * @param col The column size.
+     * @param edge The edge flag.
+     * @return The edge offset.
+     */
+    private static int checkEdge(int width, int x, int col, int edge)
+    {
+        int ix = x + col;
+        if (ix < 0)
+        {
+            if (edge == CLAMP_EDGES)
+            {
+                ix = 0;
+            }
+            else
+            {
+                ix = (x + width) % width;
+            }
+        }
+        else if (ix >= width)
+        {
+            if (edge == CLAMP_EDGES)
+            {
+                ix = width - 1;
+            }
+            else
+            {
+                ix = (x + width) % width;
+            }
+        }
+        return ix;
+    }
+
+    /**
+     * Create a blur kernel.
+     * 
+     * @param radius The blur radius.
+     * @return The blur kernel matrix.
+     */
+    private static float[] createKernel(float radius)
+    {
+        final int r = (int) Math.ceil(radius);
+        final int rows = r * 2 + 1;
+        final float[] matrix = new float[rows];
+        final float sigma = radius / 3;
+        final float sigma22 = 2 * sigma * sigma;
+        final float sigmaPi2 = (float) (2 * Math.PI * sigma);
+        final float sqrtSigmaPi2 = (float) Math.sqrt(sigmaPi2);
+        final float radius2 = radius * radius;
+        float total = 0;
+        int index = 0;
+        for (int row = -r; row <= r; row++)
+        {
+            final float distance = row * (float) row;
+            if (distance > radius2)
+            {
+                matrix[index] = 0;
+            }
+            else
+            {
+                matrix[index] = (float) Math.exp(-distance / sigma22) / sqrtSigmaPi2;
+            }
+            total += matrix[index];
+            index++;
+        }
+        for (int i = 0; i < rows; i++)
+        {
+            matrix[i] /= total;
+        }
+        return matrix;
+    }
+
+    /**
+     * Clamp a value to the range 0-255.
+     * 
+     * @param value The value to clamp.
+     * @return The clamped value.
+     */
+    private static int clamp(int value)
+    {
+        return UtilMath.clamp(value, 0, 255);
+    }
+
+    /** Rows computation. */
+    private final FilterBands.Band band = new FilterBands.Band()
+    {
+        @Override
+        public void compute(int start, int end)
+        {
+            for (int y = start; y < end; y++)
+            {
+                computeRow(y);
+            }
+        }
+    };
     /** Current radius. */
     private volatile float radius;
     /** Alpha flag. */
     private volatile boolean alpha;
     /** Edge mode. */
     private volatile int edge;
+    /** Source pixels, and final result. */
+    private int[] inPixels = new int[0];
+    /** Intermediate pixels. */
+    private int[] outPixels = new int[0];
+    /** Kernel radius. */
+    private float kernelRadius;
+    /** Kernel matrix (<code>null</code> until first filter). */
+    private float[] matrix;
+    /** Current pass source. */
+    private int[] passIn;
+    /** Current pass destination (transposed). */
+    private int[] passOut;
+    /** Current pass width. */
+    private int passWidth;
+    /** Current pass height. */
+    private int passHeight;
+    /** Current pass alpha flag. */
+    private boolean passAlpha;
+    /** Current pass edge mode. */
+    private int passEdge;
 
     /**
      * Create the filter.
@@ -84,230 +208,202 @@ public class FilterBlur implements Filter
         this.edge = edge;
     }
 
-    /*
-     * Filter
+    /**
+     * Update buffers and kernel if source size or radius changed.
+     * 
+     * @param source The image source.
+     * @param radius The current radius.
      */
-
-    @Override
-    public ImageBuffer filter(ImageBuffer source)
+    private void checkBuffers(ImageBuffer source, float radius)
     {
         final int width = source.getWidth();
         final int height = source.getHeight();
-
-        final int[] inPixels = new int[width * height];
-        final int[] outPixels = new int[width * height];
-        source.getRgb(0, 0, width, height, inPixels, 0, width);
-
-        final Kernel kernel = createKernel(radius, width, height);
-        compute(kernel, inPixels, outPixels, width, height, alpha, edge);
-        compute(kernel, outPixels, inPixels, height, width, alpha, edge);
-
-        final ImageBuffer dest = Graphics.createImageBuffer(width, height, source.getTransparency());
-        dest.setRgb(0, 0, width, height, inPixels, 0, width);
-        return dest;
-    }
-
-    @Override
-    public Transform getTransform(double scaleX, double scaleY)
-    {
-        final Transform transform = Graphics.createTransform();
-        transform.scale(scaleX, scaleY);
-        return transform;
+        if (inPixels.length != width * height)
+        {
+            inPixels = new int[width * height];
+            outPixels = new int[width * height];
+        }
+        if (matrix == null || Float.compare(kernelRadius, radius) != 0)
+        {
+            matrix = createKernel(radius);
+            kernelRadius = radius;
+        }
     }
 
     /**
-     * Compute blur.
+     * Compute a blur pass, by bands. Destination is transposed.
      * 
-     * @param kernel The kernel used.
      * @param in The source pixels.
      * @param out The destination pixels.
      * @param width The image width.
      * @param height The image height.
-     * @param alpha The alpha flag.
-     * @param edge The edge flag.
      */
-    private static void compute(Kernel kernel, int[] in, int[] out, int width, int height, boolean alpha, int edge)
+    private void compute(int[] in, int[] out, int width, int height)
     {
-        final float[] matrix = kernel.getMatrix();
-        final int cols = kernel.getWidth();
-        final int cols2 = cols / 2;
+        passIn = in;
+        passOut = out;
+        passWidth = width;
+        passHeight = height;
+        FilterBands.run(height, band);
+    }
 
-        for (int y = 0; y < height; y++)
+    /**
+     * Compute a row of current pass.
+     * 
+     * @param y The row index.
+     */
+    private void computeRow(int y)
+    {
+        final int cols2 = matrix.length / 2;
+        final int ioffset = y * passWidth;
+        final int left = Math.min(cols2, passWidth);
+        final int right = Math.max(left, passWidth - cols2);
+        int index = y;
+        for (int x = 0; x < left; x++)
         {
-            int index = y;
-            final int ioffset = y * width;
-            for (int x = 0; x < width; x++)
-            {
-                float r = 0;
-                float g = 0;
-                float b = 0;
-                float a = 0;
-
-                final int moffset = cols2;
-                for (int col = -cols2; col <= cols2; col++)
-                {
-                    final float f = matrix[moffset + col];
-                    if (Double.doubleToRawLongBits(f) != 0L)
-                    {
-                        final int ix = checkEdge(width, x, col, edge);
-                        final int rgb = in[ioffset + ix];
-                        a += f * (rgb >> Constant.BYTE_4 & 0xff);
-                        r += f * (rgb >> Constant.BYTE_3 & 0xff);
-                        g += f * (rgb >> Constant.BYTE_2 & 0xff);
-                        b += f * (rgb & 0xff);
-                    }
-                }
-                final int ia;
-                if (alpha)
-                {
-                    ia = clamp((int) (a + Constant.HALF));
-                }
-                else
-                {
-                    ia = 0xff;
-                }
-                final int ir = clamp((int) (r + 0.5));
-                final int ig = clamp((int) (g + 0.5));
-                final int ib = clamp((int) (b + 0.5));
-                out[index] = ia << Constant.BYTE_4 | ir << Constant.BYTE_3 | ig << Constant.BYTE_2 | ib;
-                index += height;
-            }
+            passOut[index] = computeEdge(ioffset, x);
+            index += passHeight;
+        }
+        for (int x = left; x < right; x++)
+        {
+            passOut[index] = computeInner(ioffset, x);
+            index += passHeight;
+        }
+        for (int x = right; x < passWidth; x++)
+        {
+            passOut[index] = computeEdge(ioffset, x);
+            index += passHeight;
         }
     }
 
     /**
-     * Check the edge value.
+     * Compute an edge pixel, checking edges.
      * 
-     * @param width The image width.
-     * @param x The current horizontal pixel.
-     * @param col The column size.
-     * @param edge The edge flag.
-     * @return The edge offset.
+     * @param ioffset The row offset.
+     * @param x The horizontal location.
+     * @return The blurred pixel.
      */
-    private static int checkEdge(int width, int x, int col, int edge)
+    private int computeEdge(int ioffset, int x)
     {
-        int ix = x + col;
-        if (ix < 0)
+        final int cols2 = matrix.length / 2;
+        float r = 0;
+        float g = 0;
+        float b = 0;
+        float a = 0;
+        for (int col = -cols2; col <= cols2; col++)
         {
-            if (edge == CLAMP_EDGES)
-            {
-                ix = 0;
-            }
-            else
+            final float f = matrix[cols2 + col];
+            if (Double.doubleToRawLongBits(f) != 0L)
             {
-                ix = (x + width) % width;
+                final int rgb = passIn[ioffset + checkEdge(passWidth, x, col, passEdge)];
+                a += f * (rgb >> Constant.BYTE_4 & 0xff);
+                r += f * (rgb >> Constant.BYTE_3 & 0xff);
+                g += f * (rgb >> Constant.BYTE_2 & 0xff);
+                b += f * (rgb & 0xff);
             }
         }
-        else if (ix >= width)
+        return pack(a, r, g, b);
+    }
+
+    /**
+     * Compute an inner pixel, all kernel being inside the row.
+     * 
+     * @param ioffset The row offset.
+     * @param x The horizontal location.
+     * @return The blurred pixel.
+     */
+    private int computeInner(int ioffset, int x)
+    {
+        final int cols2 = matrix.length / 2;
+        final int center = ioffset + x;
+        float r = 0;
+        float g = 0;
+        float b = 0;
+        float a = 0;
+        for (int col = -cols2; col <= cols2; col++)
         {
-            if (edge == CLAMP_EDGES)
-            {
-                ix = width - 1;
-            }
-            else
+            final float f = matrix[cols2 + col];
+            if (Double.doubleToRawLongBits(f) != 0L)
             {
-                ix = (x + width) % width;
+                final int rgb = passIn[center + col];
+                a += f * (rgb >> Constant.BYTE_4 & 0xff);
+                r += f * (rgb >> Constant.BYTE_3 & 0xff);
+                g += f * (rgb >> Constant.BYTE_2 & 0xff);
+                b += f * (rgb & 0xff);
             }
         }
-        return ix;
+        return pack(a, r, g, b);
     }
 
     /**
-     * Create a blur kernel.
+     * Pack the blurred channels.
      * 
-     * @param radius The blur radius.
-     * @param width The image width.
-     * @param height The image height.
-     * @return The blur kernel.
+     * @param a The alpha sum.
+     * @param r The red sum.
+     * @param g The green sum.
+     * @param b The blue sum.
+     * @return The pixel value.
      */
-    private static Kernel createKernel(float radius, int width, int height)
+    private int pack(float a, float r, float g, float b)
     {
-        final int r = (int) Math.ceil(radius);
-        final int rows = r * 2 + 1;
-        final float[] matrix = new float[rows];
-        final float sigma = radius / 3;
-        final float sigma22 = 2 * sigma * sigma;
-        final float sigmaPi2 = (float) (2 * Math.PI * sigma);
-        final float sqrtSigmaPi2 = (float) Math.sqrt(sigmaPi2);
-        final float radius2 = radius * radius;
-        float total = 0;
-        int index = 0;
-        for (int row = -r; row <= r; row++)
+        final int ia;
+        if (passAlpha)
         {
-            final float distance = row * (float) row;
-            if (distance > radius2)
-            {
-                matrix[index] = 0;
-            }
-            else
-            {
-                matrix[index] = (float) Math.exp(-distance / sigma22) / sqrtSigmaPi2;
-            }
-            total += matrix[index];
-            index++;
+            ia = clamp((int) (a + Constant.HALF));
         }
-        for (int i = 0; i < rows; i++)
+        else
         {
-            matrix[i] /= total;
+            ia = 0xff;
         }
+        final int ir = clamp((int) (r + 0.5));
+        final int ig = clamp((int) (g + 0.5));
+        final int ib = clamp((int) (b + 0.5));
+        return ia << Constant.BYTE_4 | ir << Constant.BYTE_3 | ig << Constant.BYTE_2 | ib;
+    }
 
-        final float[] data = new float[width * height];
-        System.arraycopy(matrix, 0, data, 0, rows);
+    /*
+     * Filter
+     */
 
-        return new Kernel(rows, data);
+    @Override
+    public ImageBuffer filter(ImageBuffer source)
+    {
+        final ImageBuffer dest = createDestination(source);
+        filter(source, dest);
+        return dest;
     }
 
-    /**
-     * Clamp a value to the range 0-255.
-     * 
-     * @param value The value to clamp.
-     * @return The clamped value.
-     */
-    private static int clamp(int value)
+    @Override
+    public Transform getTransform(double scaleX, double scaleY)
     {
-        return UtilMath.clamp(value, 0, 255);
+        final Transform transform = Graphics.createTransform();
+        transform.scale(scaleX, scaleY);
+        return transform;
     }
 
-    /**
-     * Local kernel representation.
+    /*
+     * FilterInto
      */
-    private static class Kernel
+
+    @Override
+    public ImageBuffer createDestination(ImageBuffer source)
     {
-        /** Kernel width. */
-        private final int width;
-        /** Kernel matrix. */
-        private final float[] matrix;
+        return Graphics.createImageBuffer(source.getWidth(), source.getHeight(), source.getTransparency());
+    }
 
-        /**
-         * Create the kernel.
-         * 
-         * @param width The kernel width.
-         * @param matrix The kernel matrix.
-         */
-        Kernel(int width, float[] matrix)
-        {
-            this.width = width;
-            this.matrix = matrix;
-        }
+    @Override
+    public synchronized void filter(ImageBuffer source, ImageBuffer dest)
+    {
+        final int width = source.getWidth();
+        final int height = source.getHeight();
+        checkBuffers(source, radius);
+        source.getRgb(0, 0, width, height, inPixels, 0, width);
 
-        /**
-         * Get the matrix width.
-         * 
-         * @return The matrix width.
-         */
-        public int getWidth()
-        {
-            return width;
-        }
+        passAlpha = alpha;
+        passEdge = edge;
+        compute(inPixels, outPixels, width, height);
+        compute(outPixels, inPixels, height, width);
 
-        /**
-         * Get the kernel matrix.
-         * 
-         * @return The kernel matrix.
-         */
-        public float[] getMatrix()
-        {
-            return matrix;
-        }
+        dest.setRgb(0, 0, width, height, inPixels, 0, width);
     }
 }
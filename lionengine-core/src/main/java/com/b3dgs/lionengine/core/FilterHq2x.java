@@ -25,166 +25,205 @@ import com.b3dgs.lionengine.graphic.Transparency;
 /**
  * HQ2X implementation.
  * <p>
+ * Source and destination pixels are kept between calls and reused while the source size is unchanged, each filtered
+ * image being created for the caller (the sequence rendering reuses its own). Rows are computed by bands in parallel,
+ * edges columns being handled apart from the inner loop, which does not clamp.
+ * </p>
+ * <p>
  * This class is Thread-Safe.
  * </p>
  */
-public final class FilterHq2x implements Filter
+public final class FilterHq2x implements Filter, FilterInto
 {
     /** Scale factor. */
     public static final int SCALE = 2;
 
     /**
-     * Create an Hq2x filter.
+     * Check the difference.
+     * 
+     * @param a The color a.
+     * @param b The color b.
+     * @return <code>true</code> if different, <code>false</code> else.
      */
-    public FilterHq2x()
+    private static boolean different(int a, int b)
     {
-        super();
+        return a != b;
     }
 
-    /*
-     * Filter
-     */
-
-    @Override
-    public ImageBuffer filter(ImageBuffer source)
+    /** Source pixels. */
+    private int[] src = new int[0];
+    /** Destination pixels. */
+    private int[] dst = new int[0];
+    /** Source width. */
+    private int width;
+    /** Source height. */
+    private int height;
+    /** Rows computation. */
+    private final FilterBands.Band band = new FilterBands.Band()
     {
-        final int width = source.getWidth();
-        final int height = source.getHeight();
-        final int[] srcData = new int[width * height];
-        source.getRgb(0, 0, width, height, srcData, 0, width);
-
-        final RawScale2x scaler = new RawScale2x(width, height);
-        final ImageBuffer image = Graphics.createImageBuffer(width * SCALE, height * SCALE, Transparency.OPAQUE);
-        image.setRgb(0, 0, width * SCALE, height * SCALE, scaler.getScaledData(srcData), 0, width * SCALE);
-
-        return image;
-    }
+        @Override
+        public void compute(int start, int end)
+        {
+            for (int y = start; y < end; y++)
+            {
+                computeRow(y);
+            }
+        }
+    };
 
-    @Override
-    public Transform getTransform(double scaleX, double scaleY)
+    /**
+     * Create an Hq2x filter.
+     */
+    public FilterHq2x()
     {
-        final Transform transform = Graphics.createTransform();
-        transform.scale(scaleX / SCALE, scaleY / SCALE);
-        return transform;
+        super();
     }
 
     /**
-     * The raw scale implementation.
+     * Update buffers if source size changed.
+     * 
+     * @param source The image source.
      */
-    private static final class RawScale2x
+    private void checkBuffers(ImageBuffer source)
     {
-        /** Width. */
-        private final int width;
-        /** Height. */
-        private final int height;
-
-        /**
-         * Internal constructor.
-         * 
-         * @param dataWidth The data width.
-         * @param dataHeight The data height.
-         */
-        RawScale2x(int dataWidth, int dataHeight)
+        if (source.getWidth() != width || source.getHeight() != height)
         {
-            width = dataWidth;
-            height = dataHeight;
+            width = source.getWidth();
+            height = source.getHeight();
+            src = new int[width * height];
+            dst = new int[src.length * SCALE * SCALE];
         }
+    }
 
-        /**
-         * Check the difference.
-         * 
-         * @param a The color a.
-         * @param b The color b.
-         * @return <code>true</code> if different, <code>false</code> else.
-         */
-        private static boolean different(int a, int b)
+    /**
+     * Compute a source row.
+     * 
+     * @param y The row index.
+     */
+    private void computeRow(int y)
+    {
+        final int above = Math.max(0, y - 1) * width;
+        final int row = y * width;
+        final int below = Math.min(height - 1, y + 1) * width;
+        final int scan = width * SCALE;
+        final int out = y * SCALE * scan;
+
+        computeEdge(above, row, below, out, scan, 0);
+        for (int x = 1; x < width - 1; x++)
         {
-            return a != b;
+            compute(src[above + x],
+                    src[row + x - 1],
+                    src[row + x],
+                    src[row + x + 1],
+                    src[below + x],
+                    out + x * SCALE,
+                    scan);
         }
-
-        /**
-         * Set destination pixel.
-         * 
-         * @param dstImage The image destination.
-         * @param x The location x.
-         * @param y The location y.
-         * @param p The pixel destination value.
-         */
-        private void setDestPixel(int[] dstImage, int x, int y, int p)
+        if (width > 1)
         {
-            dstImage[x + y * width * SCALE] = p;
+            computeEdge(above, row, below, out, scan, width - 1);
         }
+    }
 
-        /**
-         * Get pixel source.
-         * 
-         * @param srcImage The image source.
-         * @param x The location x.
-         * @param y The location y.
-         * @return The pixel value found.
-         */
-        private int getSourcePixel(int[] srcImage, int x, int y)
-        {
-            int x1 = Math.max(0, x);
-            x1 = Math.min(width - 1, x1);
-            int y1 = Math.max(0, y);
-            y1 = Math.min(height - 1, y1);
-
-            return srcImage[x1 + y1 * width];
-        }
+    /**
+     * Compute an edge pixel, clamping horizontal neighbors.
+     * 
+     * @param above The above row offset.
+     * @param row The row offset.
+     * @param below The below row offset.
+     * @param out The destination row offset.
+     * @param scan The destination scan size.
+     * @param x The horizontal location.
+     */
+    private void computeEdge(int above, int row, int below, int out, int scan, int x)
+    {
+        compute(src[above + x],
+                src[row + Math.max(0, x - 1)],
+                src[row + x],
+                src[row + Math.min(width - 1, x + 1)],
+                src[below + x],
+                out + x * SCALE,
+                scan);
+    }
 
-        /**
-         * Process filter.
-         * 
-         * @param srcImage The image source.
-         * @param dstImage The image destination.
-         * @param x The location x.
-         * @param y The location y.
-         */
-        private void process(int[] srcImage, int[] dstImage, int x, int y)
+    /**
+     * Compute the scaled pixels.
+     * 
+     * @param b The above pixel.
+     * @param d The left pixel.
+     * @param e The center pixel.
+     * @param f The right pixel.
+     * @param h The below pixel.
+     * @param index The destination index.
+     * @param scan The destination scan size.
+     */
+    private void compute(int b, int d, int e, int f, int h, int index, int scan)
+    {
+        int e0 = e;
+        int e1 = e;
+        int e2 = e;
+        int e3 = e;
+        if (different(b, h) && different(d, f))
         {
-            final int b = getSourcePixel(srcImage, x, y - 1);
-            final int d = getSourcePixel(srcImage, x - 1, y);
-            final int e = getSourcePixel(srcImage, x, y);
-            final int f = getSourcePixel(srcImage, x + 1, y);
-            final int h = getSourcePixel(srcImage, x, y + 1);
-            int e0 = e;
-            int e1 = e;
-            int e2 = e;
-            int e3 = e;
-            if (RawScale2x.different(b, h) && RawScale2x.different(d, f))
+            if (!different(d, b))
             {
-                e0 = !RawScale2x.different(d, b) ? d : e;
-                e1 = !RawScale2x.different(b, f) ? f : e;
-                e2 = !RawScale2x.different(d, h) ? d : e;
-                e3 = !RawScale2x.different(h, f) ? f : e;
+                e0 = d;
+            }
+            if (!different(b, f))
+            {
+                e1 = f;
+            }
+            if (!different(d, h))
+            {
+                e2 = d;
+            }
+            if (!different(h, f))
+            {
+                e3 = f;
             }
-
-            setDestPixel(dstImage, x * SCALE, y * SCALE, e0);
-            setDestPixel(dstImage, x * SCALE + 1, y * SCALE, e1);
-            setDestPixel(dstImage, x * SCALE, y * SCALE + 1, e2);
-            setDestPixel(dstImage, x * SCALE + 1, y * SCALE + 1, e3);
         }
+        dst[index] = e0;
+        dst[index + 1] = e1;
+        dst[index + scan] = e2;
+        dst[index + scan + 1] = e3;
+    }
 
-        /**
-         * Get the scaled data.
-         * 
-         * @param srcImage The image source.
-         * @return The data array.
-         */
-        public int[] getScaledData(int[] srcImage)
-        {
-            final int[] dstImage = new int[srcImage.length * SCALE * SCALE];
+    /*
+     * Filter
+     */
 
-            for (int y = 0; y < height; y++)
-            {
-                for (int x = 0; x < width; x++)
-                {
-                    process(srcImage, dstImage, x, y);
-                }
-            }
+    @Override
+    public ImageBuffer filter(ImageBuffer source)
+    {
+        final ImageBuffer dest = createDestination(source);
+        filter(source, dest);
+        return dest;
+    }
 
-            return dstImage;
-        }
+    @Override
+    public Transform getTransform(double scaleX, double scaleY)
+    {
+        final Transform transform = Graphics.createTransform();
+        transform.scale(scaleX / SCALE, scaleY / SCALE);
+        return transform;
+    }
+
+    /*
+     * FilterInto
+     */
+
+    @Override
+    public ImageBuffer createDestination(ImageBuffer source)
+    {
+        return Graphics.createImageBuffer(source.getWidth() * SCALE, source.getHeight() * SCALE, Transparency.OPAQUE);
+    }
+
+    @Override
+    public synchronized void filter(ImageBuffer source, ImageBuffer dest)
+    {
+        checkBuffers(source);
+        source.getRgb(0, 0, width, height, src, 0, width);
+        FilterBands.run(height, band);
+        dest.setRgb(0, 0, width * SCALE, height * SCALE, dst, 0, width * SCALE);
     }
 }
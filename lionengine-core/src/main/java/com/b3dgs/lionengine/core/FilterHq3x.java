@@ -25,337 +25,384 @@ import com.b3dgs.lionengine.graphic.Transparency;
 /**
  * HQ3X implementation.
  * <p>
+ * Source and destination pixels are kept between calls and reused while the source size is unchanged, each filtered
+ * image being created for the caller (the sequence rendering reuses its own). Rows are computed by bands in parallel,
+ * edges columns being handled apart from the inner loop, which does not clamp.
+ * </p>
+ * <p>
  * This class is Thread-Safe.
  * </p>
  */
-public final class FilterHq3x implements Filter
+public final class FilterHq3x implements Filter, FilterInto
 {
     /** Scale factor. */
     public static final int SCALE = 3;
 
     /**
-     * Create an Hq3x filter.
+     * Check the difference.
+     * 
+     * @param a The color a.
+     * @param b The color b.
+     * @return <code>true</code> if different, <code>false</code> else.
      */
-    public FilterHq3x()
+    private static boolean different(int a, int b)
     {
-        super();
+        return a != b;
     }
 
-    /*
-     * Filter
+    /**
+     * Compute E0 pixel.
+     * 
+     * @param b The b value.
+     * @param d The d value.
+     * @param e The e value.
+     * @return The computed value.
      */
-
-    @Override
-    public ImageBuffer filter(ImageBuffer source)
+    private static int computeE0(int b, int d, int e)
     {
-        final int width = source.getWidth();
-        final int height = source.getHeight();
-        final int[] srcData = new int[width * height];
-        source.getRgb(0, 0, width, height, srcData, 0, width);
-
-        final RawScale3x scaler = new RawScale3x(width, height);
-        final ImageBuffer image = Graphics.createImageBuffer(width * SCALE, height * SCALE, Transparency.OPAQUE);
-        image.setRgb(0, 0, width * SCALE, height * SCALE, scaler.getScaledData(srcData), 0, width * SCALE);
-        return image;
+        if (!different(d, b))
+        {
+            return d;
+        }
+        return e;
     }
 
-    @Override
-    public Transform getTransform(double scaleX, double scaleY)
+    /**
+     * Compute E1 pixel.
+     * 
+     * @param a The a value.
+     * @param b The b value.
+     * @param c The c value.
+     * @param d The d value.
+     * @param e The e value.
+     * @param f The f value.
+     * @return The computed value.
+     */
+    private static int computeE1(int a, int b, int c, int d, int e, int f)
     {
-        final Transform transform = Graphics.createTransform();
-        transform.scale(scaleX / SCALE, scaleY / SCALE);
-        return transform;
+        if (!different(d, b) && different(e, c)
+            || !different(b, f) && different(e, a))
+        {
+            return b;
+        }
+        return e;
     }
 
     /**
-     * The raw scale implementation.
+     * Compute E2 pixel.
+     * 
+     * @param b The b value.
+     * @param e The e value.
+     * @param f The f value.
+     * @return The computed value.
      */
-    private static final class RawScale3x
+    private static int computeE2(int b, int e, int f)
     {
-        /**
-         * Compute E0 pixel.
-         * 
-         * @param b The b value.
-         * @param d The d value.
-         * @param e The e value.
-         * @return The computed value.
-         */
-        private static int computeE0(int b, int d, int e)
+        if (!different(b, f))
         {
-            if (!RawScale3x.different(d, b))
-            {
-                return d;
-            }
-            return e;
+            return f;
         }
+        return e;
+    }
 
-        /**
-         * Compute E1 pixel.
-         * 
-         * @param a The a value.
-         * @param b The b value.
-         * @param c The c value.
-         * @param d The d value.
-         * @param e The e value.
-         * @param f The f value.
-         * @return The computed value.
-         */
-        private static int computeE1(int a, int b, int c, int d, int e, int f)
+    /**
+     * Compute E3 pixel.
+     * 
+     * @param a The a value.
+     * @param b The b value.
+     * @param d The d value.
+     * @param e The e value.
+     * @param g The g value.
+     * @param h The h value.
+     * @return The computed value.
+     */
+    private static int computeE3(int a, int b, int d, int e, int g, int h)
+    {
+        if (!different(d, b) && different(e, g)
+            || !different(d, h) && different(e, a))
         {
-            if (!RawScale3x.different(d, b) && RawScale3x.different(e, c)
-                || !RawScale3x.different(b, f) && RawScale3x.different(e, a))
-            {
-                return b;
-            }
-            return e;
+            return d;
         }
+        return e;
+    }
 
-        /**
-         * Compute E2 pixel.
-         * 
-         * @param b The b value.
-         * @param e The e value.
-         * @param f The f value.
-         * @return The computed value.
-         */
-        private static int computeE2(int b, int e, int f)
+    /**
+     * Compute E5 pixel.
+     * 
+     * @param b The b value.
+     * @param c The c value.
+     * @param e The e value.
+     * @param f The f value.
+     * @param h The h value.
+     * @param i The i value.
+     * @return The computed value.
+     */
+    private static int computeE5(int b, int c, int e, int f, int h, int i)
+    {
+        if (!different(b, f) && different(e, i)
+            || !different(h, f) && different(e, c))
         {
-            if (!RawScale3x.different(b, f))
-            {
-                return f;
-            }
-            return e;
+            return f;
         }
+        return e;
+    }
 
-        /**
-         * Compute E3 pixel.
-         * 
-         * @param a The a value.
-         * @param b The b value.
-         * @param d The d value.
-         * @param e The e value.
-         * @param g The g value.
-         * @param h The h value.
-         * @return The computed value.
-         */
-        private static int computeE3(int a, int b, int d, int e, int g, int h)
+    /**
+     * Compute E6 pixel.
+     * 
+     * @param d The d value.
+     * @param e The e value.
+     * @param h The h value.
+     * @return The computed value.
+     */
+    private static int computeE6(int d, int e, int h)
+    {
+        if (!different(d, h))
         {
-            if (!RawScale3x.different(d, b) && RawScale3x.different(e, g)
-                || !RawScale3x.different(d, h) && RawScale3x.different(e, a))
-            {
-                return d;
-            }
-            return e;
+            return d;
         }
+        return e;
+    }
 
-        /**
-         * Compute E5 pixel.
-         * 
-         * @param b The b value.
-         * @param c The c value.
-         * @param e The e value.
-         * @param f The f value.
-         * @param h The h value.
-         * @param i The i value.
-         * @return The computed value.
-         */
-        private static int computeE5(int b, int c, int e, int f, int h, int i)
+    /**
+     * Compute E7 pixel.
+     * 
+     * @param d The d value.
+     * @param e The e value.
+     * @param f The f value.
+     * @param g The g value.
+     * @param h The h value.
+     * @param i The i value.
+     * @return The computed value.
+     */
+    private static int computeE7(int d, int e, int f, int g, int h, int i)
+    {
+        if (!different(d, h) && different(e, i)
+            || !different(h, f) && different(e, g))
         {
-            if (!RawScale3x.different(b, f) && RawScale3x.different(e, i)
-                || !RawScale3x.different(h, f) && RawScale3x.different(e, c))
-            {
-                return f;
-            }
-            return e;
+            return h;
         }
+        return e;
+    }
 
-        /**
-         * Compute E6 pixel.
-         * 
-         * @param d The d value.
-         * @param e The e value.
-         * @param h The h value.
-         * @return The computed value.
-         */
-        private static int computeE6(int d, int e, int h)
+    /**
+     * Compute E8 pixel.
+     * 
+     * @param e The e value.
+     * @param f The f value.
+     * @param h The h value.
+     * @return The computed value.
+     */
+    private static int computeE8(int e, int f, int h)
+    {
+        if (!different(h, f))
         {
-            if (!RawScale3x.different(d, h))
-            {
-                return d;
-            }
-            return e;
+            return f;
         }
+        return e;
+    }
 
-        /**
-         * Compute E7 pixel.
-         * 
-         * @param d The d value.
-         * @param e The e value.
-         * @param f The f value.
-         * @param g The g value.
-         * @param h The h value.
-         * @param i The i value.
-         * @return The computed value.
-         */
-        private static int computeE7(int d, int e, int f, int g, int h, int i)
+    /** Source pixels. */
+    private int[] src = new int[0];
+    /** Destination pixels. */
+    private int[] dst = new int[0];
+    /** Source width. */
+    private int width;
+    /** Source height. */
+    private int height;
+    /** Rows computation. */
+    private final FilterBands.Band band = new FilterBands.Band()
+    {
+        @Override
+        public void compute(int start, int end)
         {
-            if (!RawScale3x.different(d, h) && RawScale3x.different(e, i)
-                || !RawScale3x.different(h, f) && RawScale3x.different(e, g))
+            for (int y = start; y < end; y++)
             {
-                return h;
+                computeRow(y);
             }
-            return e;
         }
+    };
 
-        /**
-         * Compute E8 pixel.
-         * 
-         * @param e The e value.
-         * @param f The f value.
-         * @param h The h value.
-         * @return The computed value.
-         */
-        private static int computeE8(int e, int f, int h)
+    /**
+     * Create an Hq3x filter.
+     */
+    public FilterHq3x()
+    {
+        super();
+    }
+
+    /**
+     * Update buffers if source size changed.
+     * 
+     * @param source The image source.
+     */
+    private void checkBuffers(ImageBuffer source)
+    {
+        if (source.getWidth() != width || source.getHeight() != height)
         {
-            if (!RawScale3x.different(h, f))
-            {
-                return f;
-            }
-            return e;
+            width = source.getWidth();
+            height = source.getHeight();
+            src = new int[width * height];
+            dst = new int[src.length * SCALE * SCALE];
         }
+    }
 
-        /** Width. */
-        private final int width;
-        /** Height. */
-        private final int height;
+    /**
+     * Compute a source row.
+     * 
+     * @param y The row index.
+     */
+    private void computeRow(int y)
+    {
+        final int above = Math.max(0, y - 1) * width;
+        final int row = y * width;
+        final int below = Math.min(height - 1, y + 1) * width;
+        final int scan = width * SCALE;
+        final int out = y * SCALE * scan;
 
-        /**
-         * Internal constructor.
-         * 
-         * @param dataWidth The data width.
-         * @param dataHeight The data height.
-         */
-        RawScale3x(int dataWidth, int dataHeight)
+        computeEdge(above, row, below, out, scan, 0);
+        for (int x = 1; x < width - 1; x++)
         {
-            width = dataWidth;
-            height = dataHeight;
+            compute(above + x, row + x, below + x, out + x * SCALE, scan);
         }
-
-        /**
-         * Check the difference.
-         * 
-         * @param a The color a.
-         * @param b The color b.
-         * @return <code>true</code> if different, <code>false</code> else.
-         */
-        private static boolean different(int a, int b)
+        if (width > 1)
         {
-            return a != b;
+            computeEdge(above, row, below, out, scan, width - 1);
         }
+    }
 
-        /**
-         * Set destination pixel.
-         * 
-         * @param dstImage The image destination.
-         * @param x location x.
-         * @param y location y.
-         * @param p pixel destination value.
-         */
-        private void setDestPixel(int[] dstImage, int x, int y, int p)
+    /**
+     * Compute an edge pixel, clamping horizontal neighbors.
+     * 
+     * @param above The above row offset.
+     * @param row The row offset.
+     * @param below The below row offset.
+     * @param out The destination row offset.
+     * @param scan The destination scan size.
+     * @param x The horizontal location.
+     */
+    private void computeEdge(int above, int row, int below, int out, int scan, int x)
+    {
+        final int left = Math.max(0, x - 1);
+        final int right = Math.min(width - 1, x + 1);
+        compute(src[above + left],
+                src[above + x],
+                src[above + right],
+                src[row + left],
+                src[row + x],
+                src[row + right],
+                src[below + left],
+                src[below + x],
+                src[below + right],
+                out + x * SCALE,
+                scan);
+    }
+
+    /**
+     * Compute the scaled pixels of an inner pixel.
+     * 
+     * @param above The above pixel index.
+     * @param center The center pixel index.
+     * @param below The below pixel index.
+     * @param index The destination index.
+     * @param scan The destination scan size.
+     */
+    private void compute(int above, int center, int below, int index, int scan)
+    {
+        compute(src[above - 1],
+                src[above],
+                src[above + 1],
+                src[center - 1],
+                src[center],
+                src[center + 1],
+                src[below - 1],
+                src[below],
+                src[below + 1],
+                index,
+                scan);
+    }
+
+    /**
+     * Compute the scaled pixels.
+     * 
+     * @param a The above left pixel.
+     * @param b The above pixel.
+     * @param c The above right pixel.
+     * @param d The left pixel.
+     * @param e The center pixel.
+     * @param f The right pixel.
+     * @param g The below left pixel.
+     * @param h The below pixel.
+     * @param i The below right pixel.
+     * @param index The destination index.
+     * @param scan The destination scan size.
+     */
+    private void compute(int a, int b, int c, int d, int e, int f, int g, int h, int i, int index, int scan)
+    {
+        final int next = index + scan;
+        final int last = next + scan;
+        if (different(b, h) && different(d, f))
         {
-            dstImage[x + y * width * SCALE] = p;
+            dst[index] = computeE0(b, d, e);
+            dst[index + 1] = computeE1(a, b, c, d, e, f);
+            dst[index + 2] = computeE2(b, e, f);
+            dst[next] = computeE3(a, b, d, e, g, h);
+            dst[next + 1] = e;
+            dst[next + 2] = computeE5(b, c, e, f, h, i);
+            dst[last] = computeE6(d, e, h);
+            dst[last + 1] = computeE7(d, e, f, g, h, i);
+            dst[last + 2] = computeE8(e, f, h);
         }
-
-        /**
-         * Get pixel source.
-         * 
-         * @param srcImage The image source.
-         * @param x The location x.
-         * @param y The location y.
-         * @return The pixel value found.
-         */
-        private int getSourcePixel(int[] srcImage, int x, int y)
+        else
         {
-            int x1 = Math.max(0, x);
-            x1 = Math.min(width - 1, x1);
-            int y1 = Math.max(0, y);
-            y1 = Math.min(height - 1, y1);
-
-            return srcImage[x1 + y1 * width];
+            dst[index] = e;
+            dst[index + 1] = e;
+            dst[index + 2] = e;
+            dst[next] = e;
+            dst[next + 1] = e;
+            dst[next + 2] = e;
+            dst[last] = e;
+            dst[last + 1] = e;
+            dst[last + 2] = e;
         }
+    }
 
-        /**
-         * Process filter.
-         * 
-         * @param srcImage The image source.
-         * @param dstImage The image destination.
-         * @param x The location x.
-         * @param y The location y.
-         */
-        private void process(int[] srcImage, int[] dstImage, int x, int y)
-        {
-            final int a = getSourcePixel(srcImage, x - 1, y - 1);
-            final int b = getSourcePixel(srcImage, x, y - 1);
-            final int c = getSourcePixel(srcImage, x + 1, y - 1);
-            final int d = getSourcePixel(srcImage, x - 1, y);
-            final int e = getSourcePixel(srcImage, x, y);
-            final int f = getSourcePixel(srcImage, x + 1, y);
-            final int g = getSourcePixel(srcImage, x - 1, y + 1);
-            final int h = getSourcePixel(srcImage, x, y + 1);
-            final int i = getSourcePixel(srcImage, x + 1, y + 1);
-            int e0 = e;
-            int e1 = e;
-            int e2 = e;
-            int e3 = e;
-            int e4 = e;
-            int e5 = e;
-            int e6 = e;
-            int e7 = e;
-            int e8 = e;
+    /*
+     * Filter
+     */
 
-            if (RawScale3x.different(b, h) && RawScale3x.different(d, f))
-            {
-                e0 = RawScale3x.computeE0(b, d, e);
-                e1 = RawScale3x.computeE1(a, b, c, d, e, f);
-                e2 = RawScale3x.computeE2(b, e, f);
-                e3 = RawScale3x.computeE3(a, b, d, e, g, h);
-                e4 = e;
-                e5 = RawScale3x.computeE5(b, c, e, f, h, i);
-                e6 = RawScale3x.computeE6(d, e, h);
-                e7 = RawScale3x.computeE7(d, e, f, g, h, i);
-                e8 = RawScale3x.computeE8(e, f, h);
-            }
+    @Override
+    public ImageBuffer filter(ImageBuffer source)
+    {
+        final ImageBuffer dest = createDestination(source);
+        filter(source, dest);
+        return dest;
+    }
 
-            setDestPixel(dstImage, x * SCALE, y * SCALE, e0);
-            setDestPixel(dstImage, x * SCALE + 1, y * SCALE, e1);
-            setDestPixel(dstImage, x * SCALE + 2, y * SCALE, e2);
-            setDestPixel(dstImage, x * SCALE, y * SCALE + 1, e3);
-            setDestPixel(dstImage, x * SCALE + 1, y * SCALE + 1, e4);
-            setDestPixel(dstImage, x * SCALE + 2, y * SCALE + 1, e5);
-            setDestPixel(dstImage, x * SCALE, y * SCALE + 2, e6);
-            setDestPixel(dstImage, x * SCALE + 1, y * SCALE + 2, e7);
-            setDestPixel(dstImage, x * SCALE + 2, y * SCALE + 2, e8);
-        }
+    @Override
+    public Transform getTransform(double scaleX, double scaleY)
+    {
+        final Transform transform = Graphics.createTransform();
+        transform.scale(scaleX / SCALE, scaleY / SCALE);
+        return transform;
+    }
 
-        /**
-         * Get the scaled data.
-         * 
-         * @param srcImage The image source
-         * @return The data array.
-         */
-        public int[] getScaledData(int[] srcImage)
-        {
-            final int[] dstImage = new int[srcImage.length * SCALE * SCALE];
+    /*
+     * FilterInto
+     */
 
-            for (int y = 0; y < height; y++)
-            {
-                for (int x = 0; x < width; x++)
-                {
-                    process(srcImage, dstImage, x, y);
-                }
-            }
+    @Override
+    public ImageBuffer createDestination(ImageBuffer source)
+    {
+        return Graphics.createImageBuffer(source.getWidth() * SCALE, source.getHeight() * SCALE, Transparency.OPAQUE);
+    }
 
-            return dstImage;
-        }
+    @Override
+    public synchronized void filter(ImageBuffer source, ImageBuffer dest)
+    {
+        checkBuffers(source);
+        source.getRgb(0, 0, width, height, src, 0, width);
+        FilterBands.run(height, band);
+        dest.setRgb(0, 0, width * SCALE, height * SCALE, dst, 0, width * SCALE);
     }
 }
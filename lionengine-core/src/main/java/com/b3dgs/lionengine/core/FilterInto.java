@@ -0,0 +1,42 @@
+/*
+ * Copyright (C) 2013-2016 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.core;
+
+import com.b3dgs.lionengine.graphic.ImageBuffer;
+
+/**
+ * Filter able to write into an existing image, so its output can be reused between frames by {@link FilterStage}.
+ */
+interface FilterInto
+{
+    /**
+     * Create an image able to receive the filtered source.
+     * 
+     * @param source The image source.
+     * @return The created destination.
+     */
+    ImageBuffer createDestination(ImageBuffer source);
+
+    /**
+     * Apply the filter to the image source, writing in the destination.
+     * 
+     * @param source The image source.
+     * @param dest The destination, created by {@link #createDestination(ImageBuffer)} for a source of same size.
+     */
+    void filter(ImageBuffer source, ImageBuffer dest);
+}
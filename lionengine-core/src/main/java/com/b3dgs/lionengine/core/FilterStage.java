@@ -0,0 +1,91 @@
+/*
+ * Copyright (C) 2013-2016 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.core;
+
+import com.b3dgs.lionengine.graphic.Filter;
+import com.b3dgs.lionengine.graphic.ImageBuffer;
+import com.b3dgs.lionengine.graphic.Transparency;
+
+/**
+ * Filter stage of the sequence rendering, keeping the filtered image between frames when the filter can write into it
+ * (see {@link FilterInto}). The image is recreated only when the source size changes, and is never given outside of
+ * the rendering.
+ */
+final class FilterStage
+{
+    /** Filter used. */
+    private final Filter filter;
+    /** Filtered image (<code>null</code> until first filter). */
+    private ImageBuffer dest;
+    /** Last source width. */
+    private int width;
+    /** Last source height. */
+    private int height;
+    /** Last source transparency. */
+    private Transparency transparency;
+
+    /**
+     * Create stage.
+     * 
+     * @param filter The filter used.
+     */
+    FilterStage(Filter filter)
+    {
+        this.filter = filter;
+    }
+
+    /**
+     * Filter the source.
+     * 
+     * @param source The image source.
+     * @return The filtered image, valid until next call.
+     */
+    ImageBuffer filter(ImageBuffer source)
+    {
+        if (filter instanceof FilterInto)
+        {
+            final FilterInto into = (FilterInto) filter;
+            if (dest == null
+                || source.getWidth() != width
+                || source.getHeight() != height
+                || source.getTransparency() != transparency)
+            {
+                dispose();
+                dest = into.createDestination(source);
+                width = source.getWidth();
+                height = source.getHeight();
+                transparency = source.getTransparency();
+            }
+            into.filter(source, dest);
+            return dest;
+        }
+        return filter.filter(source);
+    }
+
+    /**
+     * Dispose the filtered image.
+     */
+    void dispose()
+    {
+        if (dest != null)
+        {
+            dest.dispose();
+            dest = null;
+        }
+    }
+}
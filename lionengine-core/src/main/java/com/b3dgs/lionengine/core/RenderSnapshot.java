@@ -0,0 +1,36 @@
+/*
+ * Copyright (C) 2013-2016 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.core;
+
+/**
+ * Render snapshot, required by pipelined sequences (see {@link Sequencable#setPipelined(boolean)}).
+ * <p>
+ * {@link #snapshot()} is called on the update thread once the frame has been updated, before signaling the render
+ * thread. It must copy the state read by rendering (such as locations and displayed frames), typically to the
+ * {@link TripleBuffer#getWrite()} data, before calling {@link TripleBuffer#publish()}.
+ * </p>
+ * 
+ * @see TripleBuffer
+ */
+public interface RenderSnapshot
+{
+    /**
+     * Copy and publish the state read by rendering. Called on the update thread.
+     */
+    void snapshot();
+}
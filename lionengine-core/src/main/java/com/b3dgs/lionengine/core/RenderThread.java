@@ -0,0 +1,138 @@
+/*
+ * Copyright (C) 2013-2016 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.core;
+
+import java.lang.Thread.UncaughtExceptionHandler;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.Verbose;
+
+/**
+ * Dedicated render thread, rendering a frame each time a new one has been signaled. Frames signaled while rendering are
+ * merged, so rendering never delays the signaling thread, and only the latest frame is rendered.
+ */
+final class RenderThread extends Thread implements UncaughtExceptionHandler
+{
+    /** Frame renderer. */
+    private final Runnable renderer;
+    /** Signaled frames count. */
+    private final AtomicLong signaled = new AtomicLong();
+    /** Rendering error, <code>null</code> if none. */
+    private final AtomicReference<Throwable> error = new AtomicReference<Throwable>();
+    /** Running flag. */
+    private volatile boolean running = true;
+
+    /**
+     * Create render thread.
+     * 
+     * @param name The thread name.
+     * @param renderer The frame renderer.
+     */
+    RenderThread(String name, Runnable renderer)
+    {
+        super(name);
+
+        this.renderer = renderer;
+        setDaemon(true);
+        setUncaughtExceptionHandler(this);
+    }
+
+    /**
+     * Signal a new frame to render.
+     * 
+     * @throws LionEngineException If rendering failed.
+     */
+    void signal()
+    {
+        check();
+        signaled.incrementAndGet();
+        LockSupport.unpark(this);
+    }
+
+    /**
+     * Check if rendering failed, and re-throw its exception if has.
+     * 
+     * @throws LionEngineException If rendering failed.
+     */
+    void check()
+    {
+        final Throwable throwable = error.get();
+        if (throwable != null)
+        {
+            if (throwable instanceof LionEngineException)
+            {
+                throw (LionEngineException) throwable;
+            }
+            throw new LionEngineException(throwable);
+        }
+    }
+
+    /**
+     * Stop rendering and wait for thread end.
+     */
+    void terminate()
+    {
+        running = false;
+        LockSupport.unpark(this);
+        try
+        {
+            join();
+        }
+        catch (final InterruptedException exception)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /*
+     * Thread
+     */
+
+    @Override
+    public void run()
+    {
+        long rendered = 0L;
+        while (running)
+        {
+            final long current = signaled.get();
+            if (current == rendered)
+            {
+                LockSupport.park(this);
+            }
+            else
+            {
+                rendered = current;
+                renderer.run();
+            }
+        }
+    }
+
+    /*
+     * UncaughtExceptionHandler
+     */
+
+    @Override
+    public void uncaughtException(Thread thread, Throwable throwable)
+    {
+        error.set(throwable);
+        Verbose.exception(throwable);
+    }
+}
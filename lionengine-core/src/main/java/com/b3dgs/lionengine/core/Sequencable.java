@@ -61,6 +61,25 @@ public interface Sequencable extends Updatable, Renderable
      */
     void setExtrapolated(boolean extrapolated);
 
+    /**
+     * Set the fixed step flag. When enabled, {@link #update(double)} is called at the source rate with a constant
+     * extrapolation, as many times as needed per frame (up to a limit), and rendering receives the remaining time
+     * fraction as interpolation. Extrapolation flag is ignored in this mode.
+     * 
+     * @param fixed <code>true</code> will activate it, <code>false</code> will disable it.
+     */
+    void setFixedStep(boolean fixed);
+
+    /**
+     * Set the pipelined flag, to be set before start. When enabled, rendering is performed on a dedicated thread,
+     * drawing the last updated frame while the next one is updated. Rendering must then only read data published by
+     * {@link RenderSnapshot#snapshot()}, such as with a {@link TripleBuffer}.
+     * 
+     * @param pipelined <code>true</code> will activate it, <code>false</code> will disable it.
+     * @throws LionEngineException If enabled on a sequence not implementing {@link RenderSnapshot}.
+     */
+    void setPipelined(boolean pipelined);
+
     /**
      * Set the new resolution used by the sequence.
      * 
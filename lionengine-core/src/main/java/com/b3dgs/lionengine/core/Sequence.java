@@ -17,7 +17,11 @@
  */
 package com.b3dgs.lionengine.core;
 
+import java.util.concurrent.locks.LockSupport;
+
 import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.ResourceLoader;
 import com.b3dgs.lionengine.Timing;
 import com.b3dgs.lionengine.graphic.Filter;
 import com.b3dgs.lionengine.graphic.Graphic;
@@ -30,6 +34,20 @@ import com.b3dgs.lionengine.graphic.Transparency;
  * screen used, the current configuration, input references ({@link #getInputDevice(Class)}), and it includes
  * a standard game loop ({@link #update(double)} and {@link #render(Graphic)}), synchronized to a specified frame rate.
  * <p>
+ * By default, one update is performed per rendered frame. With {@link #setFixedStep(boolean)}, updates are performed at
+ * the source rate with a constant extrapolation, and {@link #getInterpolation()} gives the fraction of step elapsed
+ * since the last update, allowing rendering between the previous and current states.
+ * </p>
+ * <p>
+ * With {@link #setPipelined(boolean)}, rendering is performed on a dedicated thread, drawing the last frame while the
+ * next one is updated. The sequence must then implement {@link RenderSnapshot}, called after each updated frame to
+ * publish the data read by rendering, typically through a {@link TripleBuffer}.
+ * </p>
+ * <p>
+ * With {@link #setResourceLoader(ResourceLoader)}, resources loaded asynchronously (typically started by the previous
+ * sequence, while it was still running) are awaited before {@link #load()}.
+ * </p>
+ * <p>
  * Here a blank sequence implementation:
  * </p>
  * 
@@ -80,6 +98,14 @@ public abstract class Sequence implements Sequencable, ScreenListener
     private static final long ONE_SECOND_IN_NANO = 1000000000L;
     /** Extrapolation standard. */
     private static final double EXTRP = 1.0;
+    /** Maximum updates per frame in fixed step mode, remaining late time is dropped. */
+    private static final int MAX_FRAME_SKIP = 5;
+    /** Remaining wait time spent in active wait instead of parking, in nano. */
+    private static final long SPIN_NANO = 1000000L;
+    /** Render thread name suffix. */
+    private static final String RENDER_THREAD = " render";
+    /** Missing render snapshot error. */
+    private static final String ERROR_SNAPSHOT = "Pipelined sequence must implement render snapshot: ";
 
     /** Context reference. */
     private final Context context;
@@ -89,6 +115,8 @@ public abstract class Sequence implements Sequencable, ScreenListener
     private final Config config;
     /** Filter graphic. */
     private final Graphic graphic;
+    /** Frame lock, protecting rendering buffers when pipelined. */
+    private final Object frameLock = new Object();
     /** Loop time for desired rate. */
     private final long frameDelay;
     /** Has sync. */
@@ -97,6 +125,8 @@ public abstract class Sequence implements Sequencable, ScreenListener
     private final Resolution output;
     /** Filter reference. */
     private volatile Filter filter = Filter.NO_FILTER;
+    /** Filter rendering stage, keeping the filtered image between frames. */
+    private FilterStage filterStage = new FilterStage(Filter.NO_FILTER);
     /** Rendering width. */
     private int width;
     /** Rendering height. */
@@ -107,6 +137,16 @@ public abstract class Sequence implements Sequencable, ScreenListener
     private boolean isRunning;
     /** Extrapolation flag. */
     private boolean extrapolated;
+    /** Fixed step flag. */
+    private boolean fixedStep;
+    /** Fixed step duration in nano, depending of the source rate. */
+    private long stepDelay;
+    /** Accumulated time not yet consumed by fixed steps, in nano. */
+    private long accumulator;
+    /** Current interpolation value. */
+    private volatile double interpolation = EXTRP;
+    /** Render snapshot, <code>null</code> if not pipelined. */
+    private RenderSnapshot snapshot;
     /** Current frame rate. */
     private int currentFrameRate;
     /** Image buffer. */
@@ -121,6 +161,8 @@ public abstract class Sequence implements Sequencable, ScreenListener
     private Screen screen;
     /** Pending cursor visibility. */
     private Boolean cursorVisibility;
+    /** Resources loader awaited before load (<code>null</code> if none). */
+    private ResourceLoader resourceLoader;
 
     /**
      * Constructor base.
@@ -173,7 +215,24 @@ public abstract class Sequence implements Sequencable, ScreenListener
         {
             this.filter = filter;
         }
-        transform = getTransform(this.filter);
+        synchronized (frameLock)
+        {
+            transform = getTransform(this.filter);
+            filterStage.dispose();
+            filterStage = new FilterStage(this.filter);
+        }
+    }
+
+    /**
+     * Set the resources loader to await before {@link #load()}, so its resources can be used there with
+     * {@link ResourceLoader#get()}. The loader must have been started, usually by a previous sequence giving it as
+     * argument of {@link #end(Class, Object...)}.
+     * 
+     * @param resourceLoader The resources loader (<code>null</code> to not wait).
+     */
+    public final void setResourceLoader(ResourceLoader resourceLoader)
+    {
+        this.resourceLoader = resourceLoader;
     }
 
     /**
@@ -196,6 +255,18 @@ public abstract class Sequence implements Sequencable, ScreenListener
         return height;
     }
 
+    /**
+     * Get the interpolation value, which is the fraction of fixed step elapsed since the last update, between
+     * <code>0.0</code> inclusive and <code>1.0</code> exclusive. Always <code>1.0</code> when fixed step is disabled.
+     * To be used during rendering to blend between previous and current states.
+     * 
+     * @return The interpolation value.
+     */
+    protected final double getInterpolation()
+    {
+        return interpolation;
+    }
+
     /**
      * Get main frame location x.
      * 
@@ -267,12 +338,75 @@ public abstract class Sequence implements Sequencable, ScreenListener
         else
         {
             render(graphic);
-            g.drawImage(filter.filter(buf), transform, 0, 0);
+            g.drawImage(filterStage.filter(buf), transform, 0, 0);
+        }
+    }
+
+    /**
+     * Render a frame to screen.
+     */
+    private void renderFrame()
+    {
+        synchronized (frameLock)
+        {
+            screen.preUpdate();
+            render();
+            screen.update();
+        }
+    }
+
+    /**
+     * Create the render thread if pipelined.
+     * 
+     * @return The started render thread, <code>null</code> if not pipelined.
+     */
+    private RenderThread createRenderThread()
+    {
+        if (snapshot != null)
+        {
+            final RenderThread renderThread = new RenderThread(Engine.NAME + RENDER_THREAD, new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    renderFrame();
+                }
+            });
+            renderThread.start();
+            return renderThread;
         }
+        return null;
     }
 
     /**
-     * Sync frame rate to desired if possible.
+     * Local update routine.
+     * 
+     * @param extrp The extrapolation value used when fixed step is disabled.
+     */
+    private void updateFrame(double extrp)
+    {
+        if (fixedStep && stepDelay > 0L)
+        {
+            int updates = 0;
+            while (isRunning && accumulator >= stepDelay && updates < MAX_FRAME_SKIP)
+            {
+                update(EXTRP);
+                accumulator -= stepDelay;
+                updates++;
+            }
+            accumulator = Math.min(accumulator, stepDelay - 1L);
+            interpolation = accumulator / (double) stepDelay;
+        }
+        else
+        {
+            update(extrp);
+            interpolation = EXTRP;
+        }
+    }
+
+    /**
+     * Sync frame rate to desired if possible. The thread is parked until close to the deadline, and the remaining time
+     * is actively waited for precision.
      * 
      * @param time The update tile.
      */
@@ -280,14 +414,16 @@ public abstract class Sequence implements Sequencable, ScreenListener
     {
         if (sync)
         {
-            final double waitTime = frameDelay - time;
-            if (waitTime > 0.0)
+            final long deadline = System.nanoTime() + frameDelay - time;
+            long remaining = deadline - System.nanoTime();
+            while (remaining > SPIN_NANO)
             {
-                final long prevTime = System.nanoTime();
-                while (System.nanoTime() - prevTime < waitTime)
-                {
-                    Thread.yield();
-                }
+                LockSupport.parkNanos(remaining - SPIN_NANO);
+                remaining = deadline - System.nanoTime();
+            }
+            while (deadline - System.nanoTime() > 0L)
+            {
+                Thread.yield();
             }
         }
     }
@@ -324,48 +460,56 @@ public abstract class Sequence implements Sequencable, ScreenListener
         }
     }
 
-    /*
-     * Sequencable
+    /**
+     * Wait for resources, load the sequence and notify it is loaded.
      */
-
-    @Override
-    public void start(Screen screen)
+    private void initialize()
     {
-        this.screen = screen;
-        screen.addListener(this);
-        if (cursorVisibility != null)
+        nextSequence = null;
+        if (resourceLoader != null)
         {
-            setSystemCursorVisible(cursorVisibility.booleanValue());
+            resourceLoader.await();
         }
-
-        nextSequence = null;
         load();
         setResolution(resolution);
 
         // Prepare sequence to be started
         currentFrameRate = output.getRate();
         screen.requestFocus();
+        onLoaded(EXTRP, screen.getGraphic());
+        accumulator = stepDelay;
+    }
+
+    /**
+     * Main loop, running until sequence end or engine termination.
+     * 
+     * @param renderThread The render thread, <code>null</code> if not pipelined.
+     */
+    private void loop(RenderThread renderThread)
+    {
         final Timing updateFpsTimer = new Timing();
         updateFpsTimer.start();
-
         double extrp = EXTRP;
-        onLoaded(extrp, screen.getGraphic());
-
-        // Main loop
-        isRunning = true;
         while (isRunning)
         {
             final long lastTime = System.nanoTime();
             if (screen.isReady())
             {
-                update(extrp);
-                screen.preUpdate();
-                render();
-                screen.update();
+                updateFrame(extrp);
+                if (renderThread == null)
+                {
+                    renderFrame();
+                }
+                else
+                {
+                    snapshot.snapshot();
+                    renderThread.signal();
+                }
             }
             sync(System.nanoTime() - lastTime);
 
             final long currentTime = Math.max(lastTime + 1, System.nanoTime());
+            accumulator += currentTime - lastTime;
             extrp = computeExtrapolation(lastTime, currentTime);
             computeFrameRate(lastTime, currentTime, updateFpsTimer);
 
@@ -374,6 +518,41 @@ public abstract class Sequence implements Sequencable, ScreenListener
                 isRunning = false;
             }
         }
+    }
+
+    /*
+     * Sequencable
+     */
+
+    @Override
+    public void start(Screen screen)
+    {
+        this.screen = screen;
+        screen.addListener(this);
+        if (cursorVisibility != null)
+        {
+            setSystemCursorVisible(cursorVisibility.booleanValue());
+        }
+        initialize();
+
+        // Main loop
+        final RenderThread renderThread = createRenderThread();
+        isRunning = true;
+        try
+        {
+            loop(renderThread);
+        }
+        finally
+        {
+            if (renderThread != null)
+            {
+                renderThread.terminate();
+            }
+        }
+        if (renderThread != null)
+        {
+            renderThread.check();
+        }
         screen.removeListener(this);
     }
 
@@ -404,6 +583,29 @@ public abstract class Sequence implements Sequencable, ScreenListener
         this.extrapolated = extrapolated;
     }
 
+    @Override
+    public final void setFixedStep(boolean fixed)
+    {
+        fixedStep = fixed;
+    }
+
+    @Override
+    public final void setPipelined(boolean pipelined)
+    {
+        if (!pipelined)
+        {
+            snapshot = null;
+        }
+        else if (this instanceof RenderSnapshot)
+        {
+            snapshot = (RenderSnapshot) this;
+        }
+        else
+        {
+            throw new LionEngineException(ERROR_SNAPSHOT, getClass().getName());
+        }
+    }
+
     @Override
     public final void setResolution(Resolution newSource)
     {
@@ -417,24 +619,37 @@ public abstract class Sequence implements Sequencable, ScreenListener
         width = source.getWidth();
         height = source.getHeight();
 
-        // Standard rendering
-        if (Filter.NO_FILTER.equals(filter)
-            && source.getWidth() == output.getWidth()
-            && source.getHeight() == output.getHeight())
+        // Fixed step follows source rate, output rate if not defined
+        if (source.getRate() > 0)
         {
-            buf = null;
-            transform = null;
-            graphic.setGraphic(null);
-            directRendering = true;
+            stepDelay = ONE_SECOND_IN_NANO / source.getRate();
         }
-        // Scaled rendering
         else
         {
-            buf = Graphics.createImageBuffer(width, height, Transparency.OPAQUE);
-            transform = getTransform(filter);
-            final Graphic gbuf = buf.createGraphic();
-            graphic.setGraphic(gbuf.getGraphic());
-            directRendering = false;
+            stepDelay = frameDelay;
+        }
+
+        synchronized (frameLock)
+        {
+            // Standard rendering
+            if (Filter.NO_FILTER.equals(filter)
+                && source.getWidth() == output.getWidth()
+                && source.getHeight() == output.getHeight())
+            {
+                buf = null;
+                transform = null;
+                graphic.setGraphic(null);
+                directRendering = true;
+            }
+            // Scaled rendering
+            else
+            {
+                buf = Graphics.createImageBuffer(width, height, Transparency.OPAQUE);
+                transform = getTransform(filter);
+                final Graphic gbuf = buf.createGraphic();
+                graphic.setGraphic(gbuf.getGraphic());
+                directRendering = false;
+            }
         }
 
         onResolutionChanged(width, height, config.getSource().getRate());
@@ -0,0 +1,123 @@
+/*
+ * Copyright (C) 2013-2016 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.core;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.LionEngineException;
+
+/**
+ * Lock free triple buffer, allowing a single writer thread to publish data to a single reader thread, without blocking
+ * each other. The writer fills {@link #getWrite()} and calls {@link #publish()}, the reader calls {@link #acquire()}
+ * and reads {@link #getRead()}, which is always the last published data.
+ * <p>
+ * Each side owns one slot, the third being exchanged atomically, so a slot is never written while read. Unread
+ * published data are overwritten by the next publish (latest wins).
+ * </p>
+ * <p>
+ * This class is Thread-Safe for one writer thread and one reader thread.
+ * </p>
+ * 
+ * @param <T> The data type.
+ * @see Sequence#setPipelined(boolean)
+ */
+public final class TripleBuffer<T>
+{
+    /** Slot index mask. */
+    private static final int INDEX = 3;
+    /** Fresh data flag. */
+    private static final int FRESH = 4;
+
+    /** Slots data. */
+    private final Object[] slots;
+    /** Exchanged slot index, with fresh flag. */
+    private final AtomicInteger middle = new AtomicInteger(1);
+    /** Writer slot index. */
+    private int write;
+    /** Reader slot index. */
+    private int read = 2;
+
+    /**
+     * Create triple buffer.
+     * 
+     * @param first The first slot data (must be a distinct instance).
+     * @param second The second slot data (must be a distinct instance).
+     * @param third The third slot data (must be a distinct instance).
+     * @throws LionEngineException If <code>null</code> argument.
+     */
+    public TripleBuffer(T first, T second, T third)
+    {
+        super();
+
+        Check.notNull(first);
+        Check.notNull(second);
+        Check.notNull(third);
+
+        slots = new Object[]
+        {
+            first, second, third
+        };
+    }
+
+    /**
+     * Get the data to write. Must only be called by the writer thread.
+     * 
+     * @return The data to write.
+     */
+    @SuppressWarnings("unchecked")
+    public T getWrite()
+    {
+        return (T) slots[write];
+    }
+
+    /**
+     * Publish the written data, and switch to a free slot for the next write. Must only be called by the writer thread.
+     */
+    public void publish()
+    {
+        write = middle.getAndSet(write | FRESH) & INDEX;
+    }
+
+    /**
+     * Acquire the last published data if any. Must only be called by the reader thread.
+     * 
+     * @return <code>true</code> if new data have been acquired, <code>false</code> if nothing published since last
+     *         acquire (read data are unchanged).
+     */
+    public boolean acquire()
+    {
+        if ((middle.get() & FRESH) == 0)
+        {
+            return false;
+        }
+        read = middle.getAndSet(read) & INDEX;
+        return true;
+    }
+
+    /**
+     * Get the data to read. Must only be called by the reader thread.
+     * 
+     * @return The last acquired data.
+     */
+    @SuppressWarnings("unchecked")
+    public T getRead()
+    {
+        return (T) slots[read];
+    }
+}
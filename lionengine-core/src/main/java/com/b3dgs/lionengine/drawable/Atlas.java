@@ -0,0 +1,363 @@
+/*
+ * Copyright (C) 2013-2016 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.drawable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.Media;
+import com.b3dgs.lionengine.core.Graphics;
+import com.b3dgs.lionengine.geom.Point;
+import com.b3dgs.lionengine.graphic.ImageBuffer;
+import com.b3dgs.lionengine.graphic.Transparency;
+
+/**
+ * Texture atlas, packing many images in a few large pages, in order to share surfaces between sprites and reduce
+ * surface switches when rendering. Images are added by name, then packed once, and sprites are created from their
+ * region with {@link Drawable#loadSprite(Atlas, String)}, {@link Drawable#loadSpriteTiled(Atlas, String, int, int)}
+ * or {@link Drawable#loadSpriteAnimated(Atlas, String, int, int)}.
+ * <p>
+ * Packing uses a skyline bottom left heuristic, images being sorted by decreasing height. An image larger than the page
+ * size has its own page. The layout can be saved to a media with {@link #pack(Media)}, and reused on next pack if all
+ * images names and sizes are unchanged, skipping packing.
+ * </p>
+ * <p>
+ * Added images are copied to pages and can be disposed once packed. Sprites created from a region return the page as
+ * surface, until modified.
+ * </p>
+ * 
+ * @see AtlasConfig
+ */
+public final class Atlas
+{
+    /** Already packed error. */
+    private static final String ERROR_PACKED = "Atlas already packed !";
+    /** Duplicate name error. */
+    private static final String ERROR_DUPLICATE = "Atlas image already added: ";
+    /** Unknown region error. */
+    private static final String ERROR_REGION = "Unknown atlas region: ";
+
+    /**
+     * Check if layout matches the images names and sizes.
+     * 
+     * @param images The images by name.
+     * @param layout The layout to check.
+     * @return <code>true</code> if matching, <code>false</code> else.
+     */
+    private static boolean matches(Map<String, ImageBuffer> images, Map<String, AtlasRegion> layout)
+    {
+        boolean matches = images.size() == layout.size();
+        for (final Map.Entry<String, ImageBuffer> entry : images.entrySet())
+        {
+            final AtlasRegion region = layout.get(entry.getKey());
+            final ImageBuffer image = entry.getValue();
+            matches = matches
+                      && region != null
+                      && region.getWidth() == image.getWidth()
+                      && region.getHeight() == image.getHeight();
+        }
+        return matches;
+    }
+
+    /** Default page width. */
+    private final int pageWidth;
+    /** Default page height. */
+    private final int pageHeight;
+    /** Images to pack by name, in adding order. */
+    private final Map<String, ImageBuffer> images = new LinkedHashMap<String, ImageBuffer>();
+    /** Packed regions by name. */
+    private final Map<String, AtlasRegion> regions = new LinkedHashMap<String, AtlasRegion>();
+    /** Packed pages. */
+    private final List<ImageBuffer> pages = new ArrayList<ImageBuffer>();
+    /** Packed flag. */
+    private boolean packed;
+
+    /**
+     * Create atlas.
+     * 
+     * @param pageWidth The default page width (must be strictly positive).
+     * @param pageHeight The default page height (must be strictly positive).
+     * @throws LionEngineException If invalid arguments.
+     */
+    public Atlas(int pageWidth, int pageHeight)
+    {
+        super();
+
+        Check.superiorStrict(pageWidth, 0);
+        Check.superiorStrict(pageHeight, 0);
+
+        this.pageWidth = pageWidth;
+        this.pageHeight = pageHeight;
+    }
+
+    /**
+     * Add an image to pack.
+     * 
+     * @param name The image name (must not be <code>null</code>).
+     * @param image The image to pack (must not be <code>null</code>).
+     * @throws LionEngineException If invalid arguments, name already added or atlas already packed.
+     */
+    public void add(String name, ImageBuffer image)
+    {
+        Check.notNull(name);
+        Check.notNull(image);
+
+        if (packed)
+        {
+            throw new LionEngineException(ERROR_PACKED);
+        }
+        if (images.containsKey(name))
+        {
+            throw new LionEngineException(ERROR_DUPLICATE, name);
+        }
+        images.put(name, image);
+    }
+
+    /**
+     * Pack added images to pages.
+     * 
+     * @throws LionEngineException If atlas already packed.
+     */
+    public void pack()
+    {
+        if (packed)
+        {
+            throw new LionEngineException(ERROR_PACKED);
+        }
+        regions.putAll(computeLayout());
+        build();
+    }
+
+    /**
+     * Pack added images to pages, using the layout stored in media if it exists and matches the added images. Else
+     * images are packed and the layout is saved to media.
+     * 
+     * @param layout The layout media (must not be <code>null</code>).
+     * @throws LionEngineException If invalid layout or atlas already packed.
+     */
+    public void pack(Media layout)
+    {
+        Check.notNull(layout);
+
+        if (packed)
+        {
+            throw new LionEngineException(ERROR_PACKED);
+        }
+        if (layout.exists())
+        {
+            final Map<String, AtlasRegion> loaded = AtlasConfig.imports(layout);
+            if (matches(images, loaded))
+            {
+                for (final String name : images.keySet())
+                {
+                    regions.put(name, loaded.get(name));
+                }
+            }
+        }
+        if (regions.isEmpty())
+        {
+            regions.putAll(computeLayout());
+            AtlasConfig.exports(layout, regions);
+        }
+        build();
+    }
+
+    /**
+     * Get the region of the packed image.
+     * 
+     * @param name The image name.
+     * @return The image region.
+     * @throws LionEngineException If unknown region.
+     */
+    public AtlasRegion getRegion(String name)
+    {
+        final AtlasRegion region = regions.get(name);
+        if (region == null)
+        {
+            throw new LionEngineException(ERROR_REGION, name);
+        }
+        return region;
+    }
+
+    /**
+     * Get the page surface.
+     * 
+     * @param index The page index.
+     * @return The page surface.
+     * @throws LionEngineException If invalid index.
+     */
+    public ImageBuffer getPage(int index)
+    {
+        Check.superiorOrEqual(index, 0);
+        Check.inferiorStrict(index, pages.size());
+
+        return pages.get(index);
+    }
+
+    /**
+     * Get the number of pages.
+     * 
+     * @return The number of pages.
+     */
+    public int getPagesNumber()
+    {
+        return pages.size();
+    }
+
+    /**
+     * Check if atlas has been packed.
+     * 
+     * @return <code>true</code> if packed, <code>false</code> else.
+     */
+    public boolean isPacked()
+    {
+        return packed;
+    }
+
+    /**
+     * Dispose pages.
+     */
+    public void dispose()
+    {
+        for (final ImageBuffer page : pages)
+        {
+            page.dispose();
+        }
+        pages.clear();
+    }
+
+    /**
+     * Compute the packed layout of added images.
+     * 
+     * @return The regions by name, in adding order.
+     */
+    private Map<String, AtlasRegion> computeLayout()
+    {
+        final List<Map.Entry<String, ImageBuffer>> sorted;
+        sorted = new ArrayList<Map.Entry<String, ImageBuffer>>(images.entrySet());
+        Collections.sort(sorted, new Comparator<Map.Entry<String, ImageBuffer>>()
+        {
+            @Override
+            public int compare(Map.Entry<String, ImageBuffer> a, Map.Entry<String, ImageBuffer> b)
+            {
+                final int height = b.getValue().getHeight() - a.getValue().getHeight();
+                if (height != 0)
+                {
+                    return height;
+                }
+                return b.getValue().getWidth() - a.getValue().getWidth();
+            }
+        });
+
+        final Map<String, AtlasRegion> packedRegions = new LinkedHashMap<String, AtlasRegion>();
+        final List<AtlasPacker> packers = new ArrayList<AtlasPacker>();
+        for (final Map.Entry<String, ImageBuffer> entry : sorted)
+        {
+            final int width = entry.getValue().getWidth();
+            final int height = entry.getValue().getHeight();
+
+            int page = 0;
+            Point location = null;
+            while (location == null)
+            {
+                if (page == packers.size())
+                {
+                    packers.add(new AtlasPacker(Math.max(pageWidth, width), Math.max(pageHeight, height)));
+                }
+                location = packers.get(page).insert(width, height);
+                page++;
+            }
+            packedRegions.put(entry.getKey(),
+                              new AtlasRegion(page - 1, location.getX(), location.getY(), width, height));
+        }
+
+        final Map<String, AtlasRegion> ordered = new LinkedHashMap<String, AtlasRegion>();
+        for (final String name : images.keySet())
+        {
+            ordered.put(name, packedRegions.get(name));
+        }
+        return ordered;
+    }
+
+    /**
+     * Create pages and copy images to their region. Pages are sized to their used area.
+     */
+    private void build()
+    {
+        final List<PageSize> sizes = new ArrayList<PageSize>();
+        int max = 0;
+        for (final Map.Entry<String, AtlasRegion> entry : regions.entrySet())
+        {
+            final AtlasRegion region = entry.getValue();
+            while (sizes.size() <= region.getPage())
+            {
+                sizes.add(new PageSize());
+            }
+            final PageSize size = sizes.get(region.getPage());
+            size.width = Math.max(size.width, region.getX() + region.getWidth());
+            size.height = Math.max(size.height, region.getY() + region.getHeight());
+            size.transparency = Math.max(size.transparency,
+                                         images.get(entry.getKey()).getTransparency().ordinal());
+            max = Math.max(max, region.getWidth() * region.getHeight());
+        }
+        for (final PageSize size : sizes)
+        {
+            pages.add(Graphics.createImageBuffer(size.width, size.height, Transparency.values()[size.transparency]));
+        }
+
+        final int[] rgb = new int[max];
+        for (final Map.Entry<String, AtlasRegion> entry : regions.entrySet())
+        {
+            final AtlasRegion region = entry.getValue();
+            final int width = region.getWidth();
+            final int height = region.getHeight();
+            images.get(entry.getKey()).getRgb(0, 0, width, height, rgb, 0, width);
+            pages.get(region.getPage()).setRgb(region.getX(), region.getY(), width, height, rgb, 0, width);
+        }
+
+        images.clear();
+        packed = true;
+    }
+
+    /**
+     * Page size and transparency, computed from its regions.
+     */
+    private static final class PageSize
+    {
+        /** Page width. */
+        private int width;
+        /** Page height. */
+        private int height;
+        /** Highest transparency ordinal. */
+        private int transparency;
+
+        /**
+         * Create page size.
+         */
+        PageSize()
+        {
+            super();
+        }
+    }
+}
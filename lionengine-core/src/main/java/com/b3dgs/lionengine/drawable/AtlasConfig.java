@@ -0,0 +1,117 @@
+/*
+ * Copyright (C) 2013-2016 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.drawable;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.Constant;
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.Media;
+import com.b3dgs.lionengine.stream.Xml;
+import com.b3dgs.lionengine.stream.XmlNode;
+
+/**
+ * Represents the atlas layout configuration, allowing to skip packing when images are unchanged.
+ * 
+ * @see Atlas
+ */
+public final class AtlasConfig
+{
+    /** Atlas root node. */
+    public static final String NODE_ATLAS = Constant.XML_PREFIX + "atlas";
+    /** Region node. */
+    public static final String NODE_REGION = Constant.XML_PREFIX + "region";
+    /** Region name attribute. */
+    public static final String ATTRIBUTE_NAME = "name";
+    /** Region page attribute. */
+    public static final String ATTRIBUTE_PAGE = "page";
+    /** Region horizontal location attribute. */
+    public static final String ATTRIBUTE_X = "x";
+    /** Region vertical location attribute. */
+    public static final String ATTRIBUTE_Y = "y";
+    /** Region width attribute. */
+    public static final String ATTRIBUTE_WIDTH = "width";
+    /** Region height attribute. */
+    public static final String ATTRIBUTE_HEIGHT = "height";
+
+    /**
+     * Import the atlas layout from configuration media.
+     * 
+     * @param configAtlas The atlas configuration media.
+     * @return The regions by name.
+     * @throws LionEngineException If unable to read data.
+     */
+    public static Map<String, AtlasRegion> imports(Media configAtlas)
+    {
+        Check.notNull(configAtlas);
+
+        final Map<String, AtlasRegion> regions = new HashMap<String, AtlasRegion>();
+        final XmlNode nodeAtlas = Xml.load(configAtlas);
+
+        for (final XmlNode nodeRegion : nodeAtlas.getChildren(NODE_REGION))
+        {
+            final AtlasRegion region = new AtlasRegion(nodeRegion.readInteger(ATTRIBUTE_PAGE),
+                                                       nodeRegion.readInteger(ATTRIBUTE_X),
+                                                       nodeRegion.readInteger(ATTRIBUTE_Y),
+                                                       nodeRegion.readInteger(ATTRIBUTE_WIDTH),
+                                                       nodeRegion.readInteger(ATTRIBUTE_HEIGHT));
+            regions.put(nodeRegion.readString(ATTRIBUTE_NAME), region);
+        }
+
+        return regions;
+    }
+
+    /**
+     * Export the atlas layout to configuration media.
+     * 
+     * @param configAtlas The configuration media output.
+     * @param regions The regions by name.
+     * @throws LionEngineException If error on writing.
+     */
+    public static void exports(Media configAtlas, Map<String, AtlasRegion> regions)
+    {
+        Check.notNull(configAtlas);
+        Check.notNull(regions);
+
+        final XmlNode nodeAtlas = Xml.create(NODE_ATLAS);
+
+        for (final Map.Entry<String, AtlasRegion> entry : regions.entrySet())
+        {
+            final AtlasRegion region = entry.getValue();
+            final XmlNode nodeRegion = nodeAtlas.createChild(NODE_REGION);
+            nodeRegion.writeString(ATTRIBUTE_NAME, entry.getKey());
+            nodeRegion.writeInteger(ATTRIBUTE_PAGE, region.getPage());
+            nodeRegion.writeInteger(ATTRIBUTE_X, region.getX());
+            nodeRegion.writeInteger(ATTRIBUTE_Y, region.getY());
+            nodeRegion.writeInteger(ATTRIBUTE_WIDTH, region.getWidth());
+            nodeRegion.writeInteger(ATTRIBUTE_HEIGHT, region.getHeight());
+        }
+
+        Xml.save(nodeAtlas, configAtlas);
+    }
+
+    /**
+     * Disabled constructor.
+     */
+    private AtlasConfig()
+    {
+        throw new LionEngineException(LionEngineException.ERROR_PRIVATE_CONSTRUCTOR);
+    }
+}
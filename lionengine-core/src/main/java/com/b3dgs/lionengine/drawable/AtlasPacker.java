@@ -0,0 +1,202 @@
+/*
+ * Copyright (C) 2013-2016 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.drawable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.b3dgs.lionengine.geom.Geom;
+import com.b3dgs.lionengine.geom.Point;
+
+/**
+ * Skyline bottom left rectangle packer. The page top border is tracked as a list of horizontal segments, each new
+ * rectangle being placed where its bottom is the lowest (then the narrowest segment), and the skyline raised under it.
+ */
+final class AtlasPacker
+{
+    /** Page width. */
+    private final int width;
+    /** Page height. */
+    private final int height;
+    /** Skyline segments, sorted by horizontal location. */
+    private final List<Segment> skyline = new ArrayList<Segment>();
+
+    /**
+     * Create packer.
+     * 
+     * @param width The page width.
+     * @param height The page height.
+     */
+    AtlasPacker(int width, int height)
+    {
+        super();
+
+        this.width = width;
+        this.height = height;
+        skyline.add(new Segment(0, 0, width));
+    }
+
+    /**
+     * Insert a rectangle.
+     * 
+     * @param w The rectangle width.
+     * @param h The rectangle height.
+     * @return The rectangle location, <code>null</code> if not enough space.
+     */
+    Point insert(int w, int h)
+    {
+        int best = -1;
+        int bestY = 0;
+        int bestBottom = Integer.MAX_VALUE;
+        int bestWidth = Integer.MAX_VALUE;
+        final int n = skyline.size();
+        for (int i = 0; i < n; i++)
+        {
+            final int y = fit(i, w, h);
+            final int bottom = y + h;
+            final int segmentWidth = skyline.get(i).width;
+            if (y > -1 && (bottom < bestBottom || bottom == bestBottom && segmentWidth < bestWidth))
+            {
+                best = i;
+                bestY = y;
+                bestBottom = bottom;
+                bestWidth = segmentWidth;
+            }
+        }
+        if (best < 0)
+        {
+            return null;
+        }
+        final int x = skyline.get(best).x;
+        raise(best, x, bestY + h, w);
+        return Geom.createPoint(x, bestY);
+    }
+
+    /**
+     * Get the vertical location where the rectangle can be placed starting at segment.
+     * 
+     * @param index The starting segment index.
+     * @param w The rectangle width.
+     * @param h The rectangle height.
+     * @return The vertical location, <code>-1</code> if not fitting.
+     */
+    private int fit(int index, int w, int h)
+    {
+        int y = -1;
+        if (skyline.get(index).x + w <= width)
+        {
+            y = 0;
+            int remaining = w;
+            int i = index;
+            while (remaining > 0)
+            {
+                final Segment segment = skyline.get(i);
+                y = Math.max(y, segment.y);
+                remaining -= segment.width;
+                i++;
+            }
+            if (y + h > height)
+            {
+                y = -1;
+            }
+        }
+        return y;
+    }
+
+    /**
+     * Raise the skyline under the placed rectangle.
+     * 
+     * @param index The first segment index under rectangle.
+     * @param x The rectangle horizontal location.
+     * @param y The new skyline height.
+     * @param w The rectangle width.
+     */
+    private void raise(int index, int x, int y, int w)
+    {
+        skyline.add(index, new Segment(x, y, w));
+
+        final int end = x + w;
+        final int next = index + 1;
+        while (next < skyline.size() && skyline.get(next).x < end)
+        {
+            final Segment segment = skyline.get(next);
+            final int segmentEnd = segment.x + segment.width;
+            if (segmentEnd <= end)
+            {
+                skyline.remove(next);
+            }
+            else
+            {
+                segment.width = segmentEnd - end;
+                segment.x = end;
+            }
+        }
+        merge();
+    }
+
+    /**
+     * Merge consecutive segments at same height.
+     */
+    private void merge()
+    {
+        int i = 0;
+        while (i < skyline.size() - 1)
+        {
+            final Segment current = skyline.get(i);
+            final Segment next = skyline.get(i + 1);
+            if (current.y == next.y)
+            {
+                current.width += next.width;
+                skyline.remove(i + 1);
+            }
+            else
+            {
+                i++;
+            }
+        }
+    }
+
+    /**
+     * Skyline segment.
+     */
+    private static final class Segment
+    {
+        /** Horizontal location. */
+        private int x;
+        /** Vertical location. */
+        private final int y;
+        /** Segment width. */
+        private int width;
+
+        /**
+         * Create segment.
+         * 
+         * @param x The horizontal location.
+         * @param y The vertical location.
+         * @param width The segment width.
+         */
+        Segment(int x, int y, int width)
+        {
+            super();
+
+            this.x = x;
+            this.y = y;
+            this.width = width;
+        }
+    }
+}
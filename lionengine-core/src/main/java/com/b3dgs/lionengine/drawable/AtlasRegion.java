@@ -0,0 +1,117 @@
+/*
+ * Copyright (C) 2013-2016 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.drawable;
+
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.LionEngineException;
+
+/**
+ * Represents an image location inside an atlas page.
+ * 
+ * @see Atlas
+ */
+public final class AtlasRegion
+{
+    /** Page index. */
+    private final int page;
+    /** Horizontal location in page. */
+    private final int x;
+    /** Vertical location in page. */
+    private final int y;
+    /** Region width. */
+    private final int width;
+    /** Region height. */
+    private final int height;
+
+    /**
+     * Create region.
+     * 
+     * @param page The page index (must be positive).
+     * @param x The horizontal location in page (must be positive).
+     * @param y The vertical location in page (must be positive).
+     * @param width The region width (must be strictly positive).
+     * @param height The region height (must be strictly positive).
+     * @throws LionEngineException If invalid arguments.
+     */
+    public AtlasRegion(int page, int x, int y, int width, int height)
+    {
+        super();
+
+        Check.superiorOrEqual(page, 0);
+        Check.superiorOrEqual(x, 0);
+        Check.superiorOrEqual(y, 0);
+        Check.superiorStrict(width, 0);
+        Check.superiorStrict(height, 0);
+
+        this.page = page;
+        this.x = x;
+        this.y = y;
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * Get the page index.
+     * 
+     * @return The page index.
+     */
+    public int getPage()
+    {
+        return page;
+    }
+
+    /**
+     * Get the horizontal location in page.
+     * 
+     * @return The horizontal location.
+     */
+    public int getX()
+    {
+        return x;
+    }
+
+    /**
+     * Get the vertical location in page.
+     * 
+     * @return The vertical location.
+     */
+    public int getY()
+    {
+        return y;
+    }
+
+    /**
+     * Get the region width.
+     * 
+     * @return The region width.
+     */
+    public int getWidth()
+    {
+        return width;
+    }
+
+    /**
+     * Get the region height.
+     * 
+     * @return The region height.
+     */
+    public int getHeight()
+    {
+        return height;
+    }
+}
@@ -97,6 +97,23 @@ public final class Drawable
         return new SpriteImpl(surface);
     }
 
+    /**
+     * Load a sprite from a packed atlas region (sharing the atlas page surface). The region is extracted to its own
+     * surface on first modification (stretch, rotate, filter, transparency, alpha).
+     * <p>
+     * {@link Sprite#load()} must not be called as surface has already been loaded.
+     * </p>
+     * 
+     * @param atlas The packed atlas reference.
+     * @param name The image name in atlas.
+     * @return The loaded sprite.
+     * @throws LionEngineException If arguments are invalid.
+     */
+    public static Sprite loadSprite(Atlas atlas, String name)
+    {
+        return new SpriteImpl(atlas, name);
+    }
+
     /**
      * Load an animated sprite from a file, giving horizontal and vertical frames.
      * <p>
@@ -132,6 +149,28 @@ public final class Drawable
         return new SpriteAnimatedImpl(surface, horizontalFrames, verticalFrames);
     }
 
+    /**
+     * Load an animated sprite from a packed atlas region, giving horizontal and vertical frames (sharing the atlas page
+     * surface).
+     * <p>
+     * {@link SpriteAnimated#load()} must not be called as surface has already been loaded.
+     * </p>
+     * 
+     * @param atlas The packed atlas reference.
+     * @param name The image name in atlas.
+     * @param horizontalFrames The number of horizontal frames.
+     * @param verticalFrames The number of vertical frames.
+     * @return The loaded animated sprite.
+     * @throws LionEngineException If arguments are invalid.
+     */
+    public static SpriteAnimated loadSpriteAnimated(Atlas atlas,
+                                                    String name,
+                                                    int horizontalFrames,
+                                                    int verticalFrames)
+    {
+        return new SpriteAnimatedImpl(atlas, name, horizontalFrames, verticalFrames);
+    }
+
     /**
      * Load a tiled sprite from a file, giving tile dimension.
      * <p>
@@ -167,6 +206,24 @@ public final class Drawable
         return new SpriteTiledImpl(surface, tileWidth, tileHeight);
     }
 
+    /**
+     * Load a tiled sprite from a packed atlas region, giving tile dimension (sharing the atlas page surface).
+     * <p>
+     * {@link SpriteTiled#load()} must not be called as surface has already been loaded.
+     * </p>
+     * 
+     * @param atlas The packed atlas reference.
+     * @param name The image name in atlas.
+     * @param tileWidth The tile width.
+     * @param tileHeight The tile height.
+     * @return The loaded tiled sprite.
+     * @throws LionEngineException If arguments are invalid.
+     */
+    public static SpriteTiled loadSpriteTiled(Atlas atlas, String name, int tileWidth, int tileHeight)
+    {
+        return new SpriteTiledImpl(atlas, name, tileWidth, tileHeight);
+    }
+
     /**
      * Load a parallaxed sprite, for parallax effect.
      * <p>
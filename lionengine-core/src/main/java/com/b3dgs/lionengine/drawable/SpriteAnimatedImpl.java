@@ -85,6 +85,27 @@ final class SpriteAnimatedImpl extends SpriteImpl implements SpriteAnimated
         animator = Anim.createAnimator();
     }
 
+    /**
+     * Internal constructor.
+     * 
+     * @param atlas The packed atlas reference.
+     * @param name The image name in atlas.
+     * @param horizontalFrames The number of horizontal frames.
+     * @param verticalFrames The number of vertical frames.
+     * @throws LionEngineException If arguments are invalid.
+     */
+    SpriteAnimatedImpl(Atlas atlas, String name, int horizontalFrames, int verticalFrames)
+    {
+        super(atlas, name);
+
+        Check.superiorStrict(horizontalFrames, 0);
+        Check.superiorStrict(verticalFrames, 0);
+
+        this.horizontalFrames = horizontalFrames;
+        this.verticalFrames = verticalFrames;
+        animator = Anim.createAnimator();
+    }
+
     /*
      * SpriteAnimated
      */
@@ -69,6 +69,12 @@ class SpriteImpl implements Sprite
     private int[][] rgb;
     /** First alpha. */
     private boolean firstAlpha;
+    /** Horizontal offset in surface (atlas region). */
+    private int offsetX;
+    /** Vertical offset in surface (atlas region). */
+    private int offsetY;
+    /** Atlas region flag, surface being shared with other images. */
+    private boolean region;
 
     /**
      * Internal constructor.
@@ -108,6 +114,30 @@ class SpriteImpl implements Sprite
         rgb = null;
     }
 
+    /**
+     * Internal constructor.
+     * 
+     * @param atlas The packed atlas reference.
+     * @param name The image name in atlas.
+     * @throws LionEngineException If atlas is <code>null</code> or unknown region.
+     */
+    SpriteImpl(Atlas atlas, String name)
+    {
+        Check.notNull(atlas);
+
+        final AtlasRegion atlasRegion = atlas.getRegion(name);
+        surface = atlas.getPage(atlasRegion.getPage());
+        media = null;
+
+        width = atlasRegion.getWidth();
+        height = atlasRegion.getHeight();
+        offsetX = atlasRegion.getX();
+        offsetY = atlasRegion.getY();
+        region = true;
+
+        rgb = null;
+    }
+
     /**
      * Render an extract of a surface to a specified destination.
      * 
@@ -122,17 +152,19 @@ class SpriteImpl implements Sprite
      */
     protected final void render(Graphic g, int x, int y, int w, int h, int ox, int oy)
     {
+        final int sx = offsetX + ox * w;
+        final int sy = offsetY + oy * h;
         if (Mirror.HORIZONTAL == mirror)
         {
-            g.drawImage(surface, x, y, x + w, y + h, ox * w + w, oy * h, ox * w, oy * h + h);
+            g.drawImage(surface, x, y, x + w, y + h, sx + w, sy, sx, sy + h);
         }
         else if (Mirror.VERTICAL == mirror)
         {
-            g.drawImage(surface, x, y, x + w, y + h, ox * w, oy * h + h, ox * w + w, oy * h);
+            g.drawImage(surface, x, y, x + w, y + h, sx, sy + h, sx + w, sy);
         }
         else
         {
-            g.drawImage(surface, x, y, x + w, y + h, ox * w, oy * h, ox * w + w, oy * h + h);
+            g.drawImage(surface, x, y, x + w, y + h, sx, sy, sx + w, sy + h);
         }
     }
 
@@ -182,11 +214,22 @@ class SpriteImpl implements Sprite
     }
 
     /**
-     * Backup the original surface before modification only if needed.
+     * Backup the original surface before modification only if needed. An atlas region is first extracted from the
+     * shared surface, in order to never modify other images.
      */
     private void lazySurfaceBackup()
     {
-        if (surfaceOriginal == null)
+        if (region)
+        {
+            final int[] data = surface.getRgb(offsetX, offsetY, width, height, null, 0, width);
+            surfaceOriginal = Graphics.createImageBuffer(width, height, surface.getTransparency());
+            surfaceOriginal.setRgb(0, 0, width, height, data, 0, width);
+            surface = Graphics.getImageBuffer(surfaceOriginal);
+            offsetX = 0;
+            offsetY = 0;
+            region = false;
+        }
+        else if (surfaceOriginal == null)
         {
             surfaceOriginal = Graphics.getImageBuffer(surface);
         }
@@ -71,6 +71,25 @@ final class SpriteTiledImpl extends SpriteImpl implements SpriteTiled
         verticalTiles = getHeight() / tileHeight;
     }
 
+    /**
+     * Internal constructor.
+     * 
+     * @param atlas The packed atlas reference.
+     * @param name The image name in atlas.
+     * @param tileWidth The tile width.
+     * @param tileHeight The tile height.
+     * @throws LionEngineException If arguments are invalid.
+     */
+    SpriteTiledImpl(Atlas atlas, String name, int tileWidth, int tileHeight)
+    {
+        super(atlas, name);
+        Check.superiorStrict(tileWidth, 0);
+        Check.superiorStrict(tileHeight, 0);
+
+        horizontalTiles = getWidth() / tileWidth;
+        verticalTiles = getHeight() / tileHeight;
+    }
+
     /*
      * SpriteTiled
      */
@@ -20,7 +20,7 @@ package com.b3dgs.lionengine.graphic;
 /**
  * List of supported filters.
  * <p>
- * This class is Thread-Safe.
+ * Implementations must be Thread-Safe, and must not keep the returned image, which belongs to the caller.
  * </p>
  */
 public interface Filter
@@ -76,7 +76,7 @@ public interface Filter
      * Apply a filter to the image source.
      * 
      * @param source The image source.
-     * @return The filtered image.
+     * @return The filtered image, owned by the caller (the source itself if not modified).
      */
     ImageBuffer filter(ImageBuffer source);
 
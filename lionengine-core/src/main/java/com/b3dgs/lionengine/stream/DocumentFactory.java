@@ -38,8 +38,11 @@ import com.b3dgs.lionengine.LionEngineException;
  */
 public final class DocumentFactory
 {
+    /** Load builders, one per thread as a builder is not thread safe. */
+    private static final ThreadLocal<DocumentBuilder> DOCUMENT_BUILDERS = new ThreadLocal<DocumentBuilder>();
+
     /** Load factory. */
-    private static DocumentBuilder documentFactory;
+    private static DocumentBuilderFactory documentFactory;
     /** Save factory. */
     private static TransformerFactory transformerFactory;
 
@@ -87,29 +90,47 @@ public final class DocumentFactory
     }
 
     /**
-     * Get the document factory.
+     * Get the document builder of the current thread, created on first call. Allows documents to be loaded in parallel.
      * 
-     * @return The document factory.
+     * @return The document builder.
      * @throws LionEngineException If unable to create builder.
      */
-    private static synchronized DocumentBuilder getDocumentFactory()
+    private static DocumentBuilder getDocumentFactory()
     {
-        if (documentFactory == null)
+        DocumentBuilder builder = DOCUMENT_BUILDERS.get();
+        if (builder == null)
         {
-            final DocumentBuilderFactory documentBuilderFactory = DocumentBuilderFactory.newInstance();
-            documentBuilderFactory.setIgnoringElementContentWhitespace(true);
-            try
+            builder = createDocumentBuilder();
+            DOCUMENT_BUILDERS.set(builder);
+        }
+        return builder;
+    }
+
+    /**
+     * Create a document builder from the shared factory.
+     * 
+     * @return The created document builder.
+     * @throws LionEngineException If unable to create builder.
+     */
+    private static synchronized DocumentBuilder createDocumentBuilder()
+    {
+        try
+        {
+            if (documentFactory == null)
             {
+                final DocumentBuilderFactory documentBuilderFactory = DocumentBuilderFactory.newInstance();
+                documentBuilderFactory.setIgnoringElementContentWhitespace(true);
                 documentBuilderFactory.setFeature(javax.xml.XMLConstants.FEATURE_SECURE_PROCESSING, true);
-                documentFactory = documentBuilderFactory.newDocumentBuilder();
-                documentFactory.setErrorHandler(null);
-            }
-            catch (final ParserConfigurationException exception)
-            {
-                throw new LionEngineException(exception);
+                documentFactory = documentBuilderFactory;
             }
+            final DocumentBuilder builder = documentFactory.newDocumentBuilder();
+            builder.setErrorHandler(null);
+            return builder;
+        }
+        catch (final ParserConfigurationException exception)
+        {
+            throw new LionEngineException(exception);
         }
-        return documentFactory;
     }
 
     /**
@@ -0,0 +1,98 @@
+/*
+ * Copyright (C) 2013-2016 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.stream;
+
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.Media;
+import com.b3dgs.lionengine.Resource;
+
+/**
+ * XML document as a {@link Resource}, allowing it to be parsed by a {@link com.b3dgs.lionengine.ResourceLoader}.
+ */
+public final class XmlResource implements Resource
+{
+    /** Error already loaded. */
+    private static final String ERROR_LOADED = "Xml resource already loaded: ";
+    /** Error not loaded. */
+    private static final String ERROR_NOT_LOADED = "Xml resource not loaded: ";
+
+    /** The XML media. */
+    private final Media media;
+    /** The root node (<code>null</code> until loaded). */
+    private volatile XmlNode root;
+
+    /**
+     * Create the XML resource.
+     * 
+     * @param media The XML media (must not be <code>null</code>).
+     * @throws LionEngineException If invalid media.
+     */
+    public XmlResource(Media media)
+    {
+        Check.notNull(media);
+
+        this.media = media;
+    }
+
+    /**
+     * Get the loaded root node.
+     * 
+     * @return The root node.
+     * @throws LionEngineException If not loaded.
+     */
+    public XmlNode getRoot()
+    {
+        final XmlNode current = root;
+        if (current == null)
+        {
+            throw new LionEngineException(media, ERROR_NOT_LOADED);
+        }
+        return current;
+    }
+
+    /**
+     * Get the XML media.
+     * 
+     * @return The XML media.
+     */
+    public Media getMedia()
+    {
+        return media;
+    }
+
+    /*
+     * Resource
+     */
+
+    @Override
+    public void load()
+    {
+        if (root != null)
+        {
+            throw new LionEngineException(media, ERROR_LOADED);
+        }
+        root = Xml.load(media);
+    }
+
+    @Override
+    public boolean isLoaded()
+    {
+        return root != null;
+    }
+}
@@ -17,6 +17,10 @@
  */
 package com.b3dgs.lionengine;
 
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicReference;
 
 import org.junit.AfterClass;
@@ -41,7 +45,11 @@ public class ResourceLoaderTest
     private static enum Type
     {
         /** Test type. */
-        TEST;
+        TEST,
+        /** Other test type. */
+        OTHER,
+        /** Third test type. */
+        THIRD;
     }
 
     /**
@@ -90,6 +98,69 @@ public class ResourceLoaderTest
         Assert.assertEquals(resourceLoader.get().get(Type.TEST), resource);
     }
 
+    /**
+     * Test the resource loader loading in parallel, with progress.
+     */
+    @Test(timeout = 5000)
+    public void testResourceLoaderParallel()
+    {
+        final Type[] types = Type.values();
+        final CyclicBarrier barrier = new CyclicBarrier(types.length);
+        final ResourceLoader resourceLoader = new ResourceLoader(types.length);
+        for (final Type type : types)
+        {
+            resourceLoader.add(type, new BarrierResource(barrier));
+        }
+        Assert.assertEquals(0, resourceLoader.getProgress());
+
+        resourceLoader.start();
+        resourceLoader.await();
+
+        Assert.assertTrue(resourceLoader.isFinished());
+        Assert.assertEquals(Constant.HUNDRED, resourceLoader.getProgress());
+        Assert.assertEquals(types.length, resourceLoader.get().size());
+        for (final Resource resource : resourceLoader.get().values())
+        {
+            Assert.assertTrue(resource.isLoaded());
+        }
+    }
+
+    /**
+     * Test the resource loader without resource.
+     */
+    @Test
+    public void testResourceLoaderEmpty()
+    {
+        final ResourceLoader resourceLoader = new ResourceLoader(1);
+        resourceLoader.start();
+        resourceLoader.await();
+
+        Assert.assertTrue(resourceLoader.isFinished());
+        Assert.assertEquals(Constant.HUNDRED, resourceLoader.getProgress());
+        Assert.assertTrue(resourceLoader.get().isEmpty());
+    }
+
+    /**
+     * Test the resource loader with a resource failing to load.
+     */
+    @Test(expected = LionEngineException.class)
+    public void testResourceLoaderFailLoad()
+    {
+        final ResourceLoader resourceLoader = new ResourceLoader(1);
+        resourceLoader.add(Type.TEST, Drawable.loadImage(Medias.create("void.png")));
+        resourceLoader.start();
+        resourceLoader.await();
+    }
+
+    /**
+     * Test the resource loader with invalid threads number.
+     */
+    @Test(expected = LionEngineException.class)
+    public void testResourceLoaderFailThreads()
+    {
+        Assert.assertNull(new ResourceLoader(0));
+    }
+
     /**
      * Test the resource loader already started.
      */
@@ -206,4 +277,53 @@ public class ResourceLoaderTest
             return true;
         }
     }
+
+    /**
+     * Resource loaded only when all other resources are loading at the same time.
+     */
+    private static class BarrierResource implements Resource
+    {
+        /** Barrier shared by all resources. */
+        private final CyclicBarrier barrier;
+        /** Loaded flag. */
+        private volatile boolean loaded;
+
+        /**
+         * Create resource.
+         * 
+         * @param barrier The barrier shared by all resources.
+         */
+        BarrierResource(CyclicBarrier barrier)
+        {
+            this.barrier = barrier;
+        }
+
+        @Override
+        public void load()
+        {
+            try
+            {
+                barrier.await(Constant.THOUSAND, TimeUnit.MILLISECONDS);
+                loaded = true;
+            }
+            catch (final InterruptedException exception)
+            {
+                throw new LionEngineException(exception);
+            }
+            catch (final BrokenBarrierException exception)
+            {
+                throw new LionEngineException(exception);
+            }
+            catch (final TimeoutException exception)
+            {
+                throw new LionEngineException(exception);
+            }
+        }
+
+        @Override
+        public boolean isLoaded()
+        {
+            return loaded;
+        }
+    }
 }
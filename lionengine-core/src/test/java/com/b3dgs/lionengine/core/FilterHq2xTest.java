@@ -24,6 +24,7 @@ import org.junit.Test;
 
 import com.b3dgs.lionengine.Media;
 import com.b3dgs.lionengine.graphic.ImageBuffer;
+import com.b3dgs.lionengine.graphic.Transparency;
 import com.b3dgs.lionengine.mock.FactoryGraphicMock;
 
 /**
@@ -91,4 +92,25 @@ public class FilterHq2xTest
         Assert.assertEquals(image.getWidth() * 2, filtered.getWidth());
         Assert.assertEquals(image.getHeight() * 2, filtered.getHeight());
     }
+
+    /**
+     * Test filtered images owned by the caller, not changed by next filter calls.
+     */
+    @Test
+    public void testHq2xOwned()
+    {
+        final ImageBuffer first = Graphics.createImageBuffer(2, 2, Transparency.OPAQUE);
+        first.setRgb(0, 0, 1);
+        final ImageBuffer second = Graphics.createImageBuffer(4, 4, Transparency.OPAQUE);
+        second.setRgb(0, 0, 2);
+        final FilterHq2x hq2x = new FilterHq2x();
+
+        final ImageBuffer filteredFirst = hq2x.filter(first);
+        final ImageBuffer filteredSecond = hq2x.filter(second);
+
+        Assert.assertNotSame(filteredFirst, filteredSecond);
+        Assert.assertEquals(4, filteredFirst.getWidth());
+        Assert.assertEquals(1, filteredFirst.getRgb(0, 0));
+        Assert.assertEquals(2, filteredSecond.getRgb(0, 0));
+    }
 }
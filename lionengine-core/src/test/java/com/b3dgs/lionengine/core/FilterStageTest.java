@@ -0,0 +1,86 @@
+/*
+ * Copyright (C) 2013-2016 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.core;
+
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.b3dgs.lionengine.graphic.Filter;
+import com.b3dgs.lionengine.graphic.ImageBuffer;
+import com.b3dgs.lionengine.graphic.Transparency;
+import com.b3dgs.lionengine.mock.FactoryGraphicMock;
+
+/**
+ * Test the filter stage class.
+ */
+public class FilterStageTest
+{
+    /**
+     * Prepare test.
+     */
+    @BeforeClass
+    public static void setUp()
+    {
+        Graphics.setFactoryGraphic(new FactoryGraphicMock());
+    }
+
+    /**
+     * Clean up test.
+     */
+    @AfterClass
+    public static void cleanUp()
+    {
+        Graphics.setFactoryGraphic(null);
+    }
+
+    /**
+     * Test filtered image reused while the source size is unchanged.
+     */
+    @Test
+    public void testReuse()
+    {
+        final FilterStage stage = new FilterStage(new FilterHq2x());
+        final ImageBuffer source = Graphics.createImageBuffer(4, 4, Transparency.OPAQUE);
+
+        final ImageBuffer filtered = stage.filter(source);
+        source.setRgb(0, 0, 1);
+
+        Assert.assertSame(filtered, stage.filter(source));
+        Assert.assertEquals(1, filtered.getRgb(0, 0));
+
+        final ImageBuffer resized = stage.filter(Graphics.createImageBuffer(2, 2, Transparency.OPAQUE));
+        Assert.assertNotSame(filtered, resized);
+        Assert.assertEquals(4, resized.getWidth());
+
+        stage.dispose();
+    }
+
+    /**
+     * Test filter not writing into an existing image.
+     */
+    @Test
+    public void testNoFilter()
+    {
+        final FilterStage stage = new FilterStage(Filter.NO_FILTER);
+        final ImageBuffer source = Graphics.createImageBuffer(4, 4, Transparency.OPAQUE);
+
+        Assert.assertSame(source, stage.filter(source));
+    }
+}
@@ -33,9 +33,12 @@ import com.b3dgs.lionengine.mock.ScreenMock;
 import com.b3dgs.lionengine.mock.SequenceArgumentsMock;
 import com.b3dgs.lionengine.mock.SequenceFailMock;
 import com.b3dgs.lionengine.mock.SequenceFilterMock;
+import com.b3dgs.lionengine.mock.SequenceFixedStepMock;
 import com.b3dgs.lionengine.mock.SequenceInterruptMock;
 import com.b3dgs.lionengine.mock.SequenceMalformedMock;
 import com.b3dgs.lionengine.mock.SequenceNextFailMock;
+import com.b3dgs.lionengine.mock.SequencePipelinedFailMock;
+import com.b3dgs.lionengine.mock.SequencePipelinedMock;
 import com.b3dgs.lionengine.mock.SequenceSingleMock;
 import com.b3dgs.lionengine.mock.SequenceSlowMock;
 import com.b3dgs.lionengine.test.UtilTests;
@@ -285,6 +288,36 @@ public class LoaderTest
         loader.start(CONFIG, SequenceSlowMock.class).await();
     }
 
+    /**
+     * Test the loader with a fixed step sequence, catching up updates when rendering is slow.
+     */
+    @Test
+    public void testFixedStep()
+    {
+        final Loader loader = new Loader();
+        loader.start(CONFIG, SequenceFixedStepMock.class).await();
+    }
+
+    /**
+     * Test the loader with a pipelined sequence, rendering on its own thread.
+     */
+    @Test
+    public void testPipelined()
+    {
+        final Loader loader = new Loader();
+        loader.start(CONFIG, SequencePipelinedMock.class).await();
+    }
+
+    /**
+     * Test the loader with a pipelined sequence without render snapshot.
+     */
+    @Test(expected = LionEngineException.class)
+    public void testPipelinedNoSnapshot()
+    {
+        final Loader loader = new Loader();
+        loader.start(CONFIG, SequencePipelinedFailMock.class).await();
+    }
+
     /**
      * Test the loader with a sequence that have arguments.
      */
@@ -0,0 +1,116 @@
+/*
+ * Copyright (C) 2013-2016 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.core;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.b3dgs.lionengine.LionEngineException;
+
+/**
+ * Test the triple buffer class.
+ */
+public class TripleBufferTest
+{
+    /** Frames published by writer thread. */
+    private static final int FRAMES = 100000;
+
+    /**
+     * Test the buffer with <code>null</code> slot.
+     */
+    @Test(expected = LionEngineException.class)
+    public void testNull()
+    {
+        Assert.assertNull(new TripleBuffer<int[]>(new int[1], new int[1], null));
+    }
+
+    /**
+     * Test the publish and acquire sequence on a single thread.
+     */
+    @Test
+    public void testPublishAcquire()
+    {
+        final TripleBuffer<int[]> buffer = new TripleBuffer<int[]>(new int[1], new int[1], new int[1]);
+
+        Assert.assertFalse(buffer.acquire());
+
+        buffer.getWrite()[0] = 1;
+        buffer.publish();
+        Assert.assertNotSame(buffer.getWrite(), buffer.getRead());
+        Assert.assertTrue(buffer.acquire());
+        Assert.assertEquals(1, buffer.getRead()[0]);
+        Assert.assertFalse(buffer.acquire());
+        Assert.assertEquals(1, buffer.getRead()[0]);
+
+        buffer.getWrite()[0] = 2;
+        buffer.publish();
+        buffer.getWrite()[0] = 3;
+        buffer.publish();
+        Assert.assertNotSame(buffer.getWrite(), buffer.getRead());
+        Assert.assertTrue(buffer.acquire());
+        Assert.assertEquals(3, buffer.getRead()[0]);
+        Assert.assertNotSame(buffer.getWrite(), buffer.getRead());
+    }
+
+    /**
+     * Test a writer and a reader running concurrently, read data must never be torn and always increasing.
+     * 
+     * @throws InterruptedException If interrupted.
+     */
+    @Test(timeout = 10000L)
+    public void testConcurrent() throws InterruptedException
+    {
+        final TripleBuffer<int[]> buffer = new TripleBuffer<int[]>(new int[2], new int[2], new int[2]);
+        final AtomicReference<String> error = new AtomicReference<String>();
+        final Thread writer = new Thread()
+        {
+            @Override
+            public void run()
+            {
+                for (int i = 1; i <= FRAMES; i++)
+                {
+                    final int[] data = buffer.getWrite();
+                    data[0] = i;
+                    data[1] = -i;
+                    buffer.publish();
+                }
+            }
+        };
+        writer.start();
+
+        int last = 0;
+        while (last < FRAMES && error.get() == null)
+        {
+            if (buffer.acquire())
+            {
+                final int[] data = buffer.getRead();
+                if (data[0] != -data[1] || data[0] <= last)
+                {
+                    error.set(data[0] + " " + data[1] + " after " + last);
+                }
+                last = data[0];
+            }
+        }
+        writer.join();
+
+        Assert.assertNull(error.get());
+        Assert.assertEquals(FRAMES, last);
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright (C) 2013-2016 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.core.it;
+
+import java.util.Locale;
+import java.util.Random;
+
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.b3dgs.lionengine.Verbose;
+import com.b3dgs.lionengine.core.FilterBilinear;
+import com.b3dgs.lionengine.core.FilterBlur;
+import com.b3dgs.lionengine.core.FilterHq2x;
+import com.b3dgs.lionengine.core.FilterHq3x;
+import com.b3dgs.lionengine.core.Graphics;
+import com.b3dgs.lionengine.graphic.Filter;
+import com.b3dgs.lionengine.graphic.ImageBuffer;
+import com.b3dgs.lionengine.graphic.Transparency;
+import com.b3dgs.lionengine.mock.FactoryGraphicMock;
+
+/**
+ * Measure the filters frame time on common sources resolutions.
+ */
+public class FilterIT
+{
+    /** Warm up frames. */
+    private static final int WARMUP = 50;
+    /** Measured frames. */
+    private static final int FRAMES = 100;
+    /** Colors number, low to have similar neighbors. */
+    private static final int COLORS = 4;
+    /** Nano to milli. */
+    private static final double NANO_TO_MILLI = 1000000.0;
+
+    /**
+     * Prepare test.
+     */
+    @BeforeClass
+    public static void setUp()
+    {
+        Graphics.setFactoryGraphic(new FactoryGraphicMock());
+    }
+
+    /**
+     * Clean up test.
+     */
+    @AfterClass
+    public static void cleanUp()
+    {
+        Graphics.setFactoryGraphic(null);
+    }
+
+    /**
+     * Create a source image.
+     * 
+     * @param width The image width.
+     * @param height The image height.
+     * @return The source image.
+     */
+    private static ImageBuffer createSource(int width, int height)
+    {
+        final Random random = new Random(width + height);
+        final ImageBuffer source = Graphics.createImageBuffer(width, height, Transparency.OPAQUE);
+        for (int y = 0; y < height; y++)
+        {
+            for (int x = 0; x < width; x++)
+            {
+                source.setRgb(x, y, random.nextInt(COLORS) * 0x3F3F3F | 0xFF000000);
+            }
+        }
+        return source;
+    }
+
+    /**
+     * Measure the filter frame time.
+     * 
+     * @param filter The filter to measure.
+     * @param width The source width.
+     * @param height The source height.
+     */
+    private static void measure(Filter filter, int width, int height)
+    {
+        final ImageBuffer source = createSource(width, height);
+        long total = 0L;
+        for (int i = 0; i < WARMUP + FRAMES; i++)
+        {
+            final long start = System.nanoTime();
+            Assert.assertNotNull(filter.filter(source));
+            if (i >= WARMUP)
+            {
+                total += System.nanoTime() - start;
+            }
+        }
+        Verbose.info(String.format(Locale.ENGLISH,
+                                   "%s %dx%d: %.3f ms/frame",
+                                   filter.getClass().getSimpleName(),
+                                   Integer.valueOf(width),
+                                   Integer.valueOf(height),
+                                   Double.valueOf(total / NANO_TO_MILLI / FRAMES)));
+    }
+
+    /**
+     * Measure the filter on 320x240 and 640x480 sources.
+     * 
+     * @param filter The filter to measure.
+     */
+    private static void measure(Filter filter)
+    {
+        measure(filter, 320, 240);
+        measure(filter, 640, 480);
+    }
+
+    /**
+     * Measure Hq2x.
+     */
+    @Test
+    public void testHq2x()
+    {
+        measure(new FilterHq2x());
+    }
+
+    /**
+     * Measure Hq3x.
+     */
+    @Test
+    public void testHq3x()
+    {
+        measure(new FilterHq3x());
+    }
+
+    /**
+     * Measure blur.
+     */
+    @Test
+    public void testBlur()
+    {
+        measure(new FilterBlur());
+    }
+
+    /**
+     * Measure bilinear.
+     */
+    @Test
+    public void testBilinear()
+    {
+        measure(new FilterBilinear());
+    }
+}
@@ -0,0 +1,297 @@
+/*
+ * Copyright (C) 2013-2016 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.drawable;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.b3dgs.lionengine.Constant;
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.Media;
+import com.b3dgs.lionengine.core.Graphics;
+import com.b3dgs.lionengine.core.Medias;
+import com.b3dgs.lionengine.graphic.ImageBuffer;
+import com.b3dgs.lionengine.graphic.Transparency;
+import com.b3dgs.lionengine.mock.FactoryGraphicMock;
+import com.b3dgs.lionengine.test.UtilTests;
+
+/**
+ * Test the atlas class.
+ */
+public class AtlasTest
+{
+    /** Layout media. */
+    private static Media layout;
+
+    /**
+     * Prepare test.
+     */
+    @BeforeClass
+    public static void setUp()
+    {
+        Graphics.setFactoryGraphic(new FactoryGraphicMock());
+        Medias.setResourcesDirectory(System.getProperty("java.io.tmpdir"));
+        layout = Medias.create("atlas.xml");
+    }
+
+    /**
+     * Clean up test.
+     */
+    @AfterClass
+    public static void cleanUp()
+    {
+        if (layout.exists())
+        {
+            Assert.assertTrue(layout.getFile().delete());
+        }
+        Medias.setResourcesDirectory(Constant.EMPTY_STRING);
+        Graphics.setFactoryGraphic(null);
+    }
+
+    /**
+     * Create an image filled with color.
+     * 
+     * @param width The image width.
+     * @param height The image height.
+     * @param color The fill color.
+     * @return The created image.
+     */
+    private static ImageBuffer createImage(int width, int height, int color)
+    {
+        final ImageBuffer image = Graphics.createImageBuffer(width, height, Transparency.BITMASK);
+        for (int x = 0; x < width; x++)
+        {
+            for (int y = 0; y < height; y++)
+            {
+                image.setRgb(x, y, color);
+            }
+        }
+        return image;
+    }
+
+    /**
+     * Check if regions are overlapping.
+     * 
+     * @param a The first region.
+     * @param b The second region.
+     * @return <code>true</code> if overlapping, <code>false</code> else.
+     */
+    private static boolean overlaps(AtlasRegion a, AtlasRegion b)
+    {
+        return a.getPage() == b.getPage()
+               && a.getX() < b.getX() + b.getWidth()
+               && b.getX() < a.getX() + a.getWidth()
+               && a.getY() < b.getY() + b.getHeight()
+               && b.getY() < a.getY() + a.getHeight();
+    }
+
+    /**
+     * Test the configuration constructor.
+     * 
+     * @throws Exception If error.
+     */
+    @Test(expected = LionEngineException.class)
+    public void testConfigConstructor() throws Exception
+    {
+        UtilTests.testPrivateConstructor(AtlasConfig.class);
+    }
+
+    /**
+     * Test packing many images, regions must be inside pages, without overlap, and contain their image.
+     */
+    @Test
+    public void testPack()
+    {
+        final Random random = new Random(42);
+        final Atlas atlas = new Atlas(64, 64);
+        final int count = 60;
+        for (int i = 0; i < count; i++)
+        {
+            atlas.add(String.valueOf(i), createImage(1 + random.nextInt(24), 1 + random.nextInt(24), i + 1));
+        }
+        atlas.pack();
+
+        Assert.assertTrue(atlas.isPacked());
+        Assert.assertTrue(atlas.getPagesNumber() > 1);
+
+        for (int i = 0; i < count; i++)
+        {
+            final AtlasRegion region = atlas.getRegion(String.valueOf(i));
+            final ImageBuffer page = atlas.getPage(region.getPage());
+
+            Assert.assertTrue(region.getX() + region.getWidth() <= page.getWidth());
+            Assert.assertTrue(region.getY() + region.getHeight() <= page.getHeight());
+            Assert.assertTrue(page.getWidth() <= 64);
+            Assert.assertTrue(page.getHeight() <= 64);
+            Assert.assertEquals(i + 1, page.getRgb(region.getX(), region.getY()));
+            Assert.assertEquals(i + 1,
+                                page.getRgb(region.getX() + region.getWidth() - 1,
+                                            region.getY() + region.getHeight() - 1));
+            Assert.assertEquals(Transparency.BITMASK, page.getTransparency());
+
+            for (int j = i + 1; j < count; j++)
+            {
+                Assert.assertFalse(overlaps(region, atlas.getRegion(String.valueOf(j))));
+            }
+        }
+        atlas.dispose();
+
+        Assert.assertEquals(0, atlas.getPagesNumber());
+    }
+
+    /**
+     * Test packing an image larger than page size, which has its own page.
+     */
+    @Test
+    public void testOversize()
+    {
+        final Atlas atlas = new Atlas(16, 16);
+        atlas.add("small", createImage(8, 8, 1));
+        atlas.add("large", createImage(40, 10, 2));
+        atlas.pack();
+
+        final AtlasRegion large = atlas.getRegion("large");
+        final AtlasRegion small = atlas.getRegion("small");
+
+        Assert.assertNotEquals(large.getPage(), small.getPage());
+        Assert.assertEquals(40, atlas.getPage(large.getPage()).getWidth());
+        Assert.assertEquals(10, atlas.getPage(large.getPage()).getHeight());
+    }
+
+    /**
+     * Test the layout persistence, reused when matching and packed again when not.
+     */
+    @Test
+    public void testLayout()
+    {
+        final Map<String, AtlasRegion> regions = new HashMap<String, AtlasRegion>();
+        regions.put("a", new AtlasRegion(0, 10, 20, 4, 5));
+        regions.put("b", new AtlasRegion(1, 0, 0, 3, 3));
+        AtlasConfig.exports(layout, regions);
+
+        final Atlas atlas = new Atlas(64, 64);
+        atlas.add("a", createImage(4, 5, 1));
+        atlas.add("b", createImage(3, 3, 2));
+        atlas.pack(layout);
+
+        Assert.assertEquals(2, atlas.getPagesNumber());
+        Assert.assertEquals(10, atlas.getRegion("a").getX());
+        Assert.assertEquals(20, atlas.getRegion("a").getY());
+        Assert.assertEquals(14, atlas.getPage(0).getWidth());
+        Assert.assertEquals(25, atlas.getPage(0).getHeight());
+        Assert.assertEquals(1, atlas.getPage(0).getRgb(10, 20));
+        Assert.assertEquals(2, atlas.getPage(1).getRgb(2, 2));
+
+        final Atlas changed = new Atlas(64, 64);
+        changed.add("a", createImage(4, 6, 1));
+        changed.add("b", createImage(3, 3, 2));
+        changed.pack(layout);
+
+        Assert.assertEquals(1, changed.getPagesNumber());
+
+        final Map<String, AtlasRegion> saved = AtlasConfig.imports(layout);
+        Assert.assertEquals(2, saved.size());
+        Assert.assertEquals(6, saved.get("a").getHeight());
+        Assert.assertEquals(changed.getRegion("b").getX(), saved.get("b").getX());
+        Assert.assertEquals(changed.getRegion("b").getY(), saved.get("b").getY());
+    }
+
+    /**
+     * Test sprites sharing atlas page, extracted on modification.
+     */
+    @Test
+    public void testSprite()
+    {
+        final Atlas atlas = new Atlas(64, 64);
+        atlas.add("sprite", createImage(8, 4, 1));
+        atlas.add("tiled", createImage(16, 8, 2));
+        atlas.add("animated", createImage(12, 6, 3));
+        atlas.pack();
+
+        final Sprite sprite = Drawable.loadSprite(atlas, "sprite");
+        final SpriteTiled tiled = Drawable.loadSpriteTiled(atlas, "tiled", 8, 4);
+        final SpriteAnimated animated = Drawable.loadSpriteAnimated(atlas, "animated", 3, 2);
+        final ImageBuffer page = atlas.getPage(0);
+
+        Assert.assertSame(page, sprite.getSurface());
+        Assert.assertSame(page, tiled.getSurface());
+        Assert.assertSame(page, animated.getSurface());
+        Assert.assertEquals(8, sprite.getWidth());
+        Assert.assertEquals(4, sprite.getHeight());
+        Assert.assertEquals(2, tiled.getTilesHorizontal());
+        Assert.assertEquals(2, tiled.getTilesVertical());
+        Assert.assertEquals(4, animated.getFrameWidth());
+        Assert.assertEquals(3, animated.getFrameHeight());
+
+        final AtlasRegion region = atlas.getRegion("sprite");
+        sprite.setAlpha(0);
+
+        Assert.assertNotSame(page, sprite.getSurface());
+        Assert.assertEquals(8, sprite.getSurface().getWidth());
+        Assert.assertEquals(4, sprite.getSurface().getHeight());
+        Assert.assertEquals(1, page.getRgb(region.getX(), region.getY()));
+    }
+
+    /**
+     * Test adding an image after packing.
+     */
+    @Test(expected = LionEngineException.class)
+    public void testAddPacked()
+    {
+        final Atlas atlas = new Atlas(16, 16);
+        atlas.pack();
+        atlas.add("image", createImage(1, 1, 0));
+    }
+
+    /**
+     * Test adding an image twice.
+     */
+    @Test(expected = LionEngineException.class)
+    public void testAddDuplicate()
+    {
+        final Atlas atlas = new Atlas(16, 16);
+        atlas.add("image", createImage(1, 1, 0));
+        atlas.add("image", createImage(1, 1, 0));
+    }
+
+    /**
+     * Test packing twice.
+     */
+    @Test(expected = LionEngineException.class)
+    public void testPackTwice()
+    {
+        final Atlas atlas = new Atlas(16, 16);
+        atlas.pack();
+        atlas.pack();
+    }
+
+    /**
+     * Test unknown region.
+     */
+    @Test(expected = LionEngineException.class)
+    public void testUnknownRegion()
+    {
+        Assert.assertNull(new Atlas(16, 16).getRegion("unknown"));
+    }
+}
@@ -86,7 +86,10 @@ public class ImageBufferMock implements ImageBuffer
     @Override
     public void setRgb(int startX, int startY, int w, int h, int[] rgbArray, int offset, int scansize)
     {
-        System.arraycopy(rgbArray, 0, rgba, 0, w * h);
+        for (int y = 0; y < h; y++)
+        {
+            System.arraycopy(rgbArray, offset + y * scansize, rgba, startX + (startY + y) * width, w);
+        }
     }
 
     @Override
@@ -98,8 +101,16 @@ public class ImageBufferMock implements ImageBuffer
     @Override
     public int[] getRgb(int startX, int startY, int w, int h, int[] rgbArray, int offset, int scansize)
     {
-        System.arraycopy(rgba, 0, rgbArray, 0, w * h);
-        return rgbArray;
+        int[] data = rgbArray;
+        if (data == null)
+        {
+            data = new int[offset + h * scansize];
+        }
+        for (int y = 0; y < h; y++)
+        {
+            System.arraycopy(rgba, startX + (startY + y) * width, data, offset + y * scansize, w);
+        }
+        return data;
     }
 
     @Override
@@ -0,0 +1,84 @@
+/*
+ * Copyright (C) 2013-2016 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.mock;
+
+import org.junit.Assert;
+
+import com.b3dgs.lionengine.core.Context;
+import com.b3dgs.lionengine.core.Sequence;
+import com.b3dgs.lionengine.graphic.Graphic;
+import com.b3dgs.lionengine.test.UtilTests;
+
+/**
+ * Fixed step sequence mock, with a rendering slower than update rate.
+ */
+public class SequenceFixedStepMock extends Sequence
+{
+    /** Rendering time in milli. */
+    private static final long RENDER_MILLI = 40L;
+    /** Rendered frames before end. */
+    private static final int FRAMES = 5;
+
+    /** Updates count. */
+    private int updates;
+    /** Renders count. */
+    private int renders;
+
+    /**
+     * Constructor.
+     * 
+     * @param context The context reference.
+     */
+    public SequenceFixedStepMock(Context context)
+    {
+        super(context, UtilTests.RESOLUTION_320_240);
+        setFixedStep(true);
+    }
+
+    /*
+     * Sequence
+     */
+
+    @Override
+    public void load()
+    {
+        // Mock
+    }
+
+    @Override
+    public void update(double extrp)
+    {
+        Assert.assertEquals(1.0, extrp, UtilTests.PRECISION);
+        updates++;
+    }
+
+    @Override
+    public void render(Graphic g)
+    {
+        Assert.assertTrue(getInterpolation() >= 0.0);
+        Assert.assertTrue(getInterpolation() < 1.0);
+
+        UtilTests.pause(RENDER_MILLI);
+        renders++;
+        if (renders == FRAMES)
+        {
+            Assert.assertTrue(String.valueOf(updates), updates > renders);
+            end();
+        }
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (C) 2013-2016 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.mock;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+
+import com.b3dgs.lionengine.core.Context;
+import com.b3dgs.lionengine.core.RenderSnapshot;
+import com.b3dgs.lionengine.core.Sequence;
+import com.b3dgs.lionengine.core.TripleBuffer;
+import com.b3dgs.lionengine.graphic.Graphic;
+import com.b3dgs.lionengine.test.UtilTests;
+
+/**
+ * Pipelined sequence mock, publishing frames numbers to render thread.
+ */
+public class SequencePipelinedMock extends Sequence implements RenderSnapshot
+{
+    /** Updated frames before end. */
+    private static final int FRAMES = 10;
+
+    /** Published frames. */
+    private final TripleBuffer<int[]> frames = new TripleBuffer<int[]>(new int[1], new int[1], new int[1]);
+    /** Rendered frames. */
+    private final AtomicInteger rendered = new AtomicInteger();
+    /** Update thread. */
+    private volatile Thread updateThread;
+    /** Updates count. */
+    private int updates;
+
+    /**
+     * Constructor.
+     * 
+     * @param context The context reference.
+     */
+    public SequencePipelinedMock(Context context)
+    {
+        super(context, UtilTests.RESOLUTION_320_240);
+        setPipelined(true);
+    }
+
+    /*
+     * Sequence
+     */
+
+    @Override
+    public void load()
+    {
+        // Mock
+    }
+
+    @Override
+    public void update(double extrp)
+    {
+        updateThread = Thread.currentThread();
+        updates++;
+
+        if (updates == FRAMES)
+        {
+            Assert.assertTrue(rendered.get() > 0);
+            end();
+        }
+    }
+
+    @Override
+    public void render(Graphic g)
+    {
+        Assert.assertNotSame(updateThread, Thread.currentThread());
+        final int last = frames.getRead()[0];
+        if (frames.acquire())
+        {
+            Assert.assertTrue(frames.getRead()[0] > last);
+        }
+        rendered.incrementAndGet();
+    }
+
+    /*
+     * RenderSnapshot
+     */
+
+    @Override
+    public void snapshot()
+    {
+        Assert.assertSame(updateThread, Thread.currentThread());
+        frames.getWrite()[0] = updates;
+        frames.publish();
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright (C) 2013-2016 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.stream;
+
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.Media;
+import com.b3dgs.lionengine.ResourceLoader;
+import com.b3dgs.lionengine.core.Medias;
+
+/**
+ * Test the XML resource class.
+ */
+public class XmlResourceTest
+{
+    /**
+     * Test type.
+     */
+    private static enum Type
+    {
+        /** First type. */
+        FIRST,
+        /** Second type. */
+        SECOND,
+        /** Third type. */
+        THIRD,
+        /** Fourth type. */
+        FOURTH;
+    }
+
+    /**
+     * Prepare test.
+     */
+    @BeforeClass
+    public static void prepare()
+    {
+        Medias.setLoadFromJar(XmlResourceTest.class);
+    }
+
+    /**
+     * Clean up test.
+     */
+    @AfterClass
+    public static void cleanUp()
+    {
+        Medias.setLoadFromJar(null);
+    }
+
+    /**
+     * Test the resource load.
+     */
+    @Test
+    public void testLoad()
+    {
+        final Media media = Medias.create("type.xml");
+        final XmlResource resource = new XmlResource(media);
+
+        Assert.assertFalse(resource.isLoaded());
+        Assert.assertEquals(media, resource.getMedia());
+
+        resource.load();
+
+        Assert.assertTrue(resource.isLoaded());
+        Assert.assertEquals("test", resource.getRoot().getChildren().iterator().next().getText());
+    }
+
+    /**
+     * Test the resources load in parallel.
+     */
+    @Test
+    public void testParallel()
+    {
+        final ResourceLoader loader = new ResourceLoader(Type.values().length);
+        for (final Type type : Type.values())
+        {
+            loader.add(type, new XmlResource(Medias.create("type.xml")));
+        }
+        loader.start();
+        loader.await();
+
+        for (final Type type : Type.values())
+        {
+            final XmlResource resource = (XmlResource) loader.get().get(type);
+            Assert.assertEquals("test", resource.getRoot().getChildren().iterator().next().getText());
+        }
+    }
+
+    /**
+     * Test the root access before load.
+     */
+    @Test(expected = LionEngineException.class)
+    public void testNotLoaded()
+    {
+        Assert.assertNull(new XmlResource(Medias.create("type.xml")).getRoot());
+    }
+
+    /**
+     * Test the resource loaded twice.
+     */
+    @Test(expected = LionEngineException.class)
+    public void testLoadedTwice()
+    {
+        final XmlResource resource = new XmlResource(Medias.create("type.xml"));
+        resource.load();
+        resource.load();
+    }
+}
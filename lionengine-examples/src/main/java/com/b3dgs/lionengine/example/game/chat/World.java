@@ -132,6 +132,18 @@ abstract class World<N extends NetworkedWorld> extends WorldGame implements Netw
         networkedWorld.addNetworkable(networkable);
     }
 
+    @Override
+    public void addNetworkableType(Networkable networkable, byte type)
+    {
+        networkedWorld.addNetworkableType(networkable, type);
+    }
+
+    @Override
+    public void addNetworkableEntity(Networkable networkable, short entityId)
+    {
+        networkedWorld.addNetworkableEntity(networkable, entityId);
+    }
+
     @Override
     public void removeNetworkable(Networkable networkable)
     {
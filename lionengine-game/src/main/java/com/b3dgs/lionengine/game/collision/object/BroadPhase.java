@@ -0,0 +1,41 @@
+/*
+ * Copyright (C) 2013-2016 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.collision.object;
+
+/**
+ * Represents the broad phase of the collision detection. It reduces the amount of {@link Collidable} to check by only
+ * reporting the pairs that may collide. Each unordered pair is reported once per update.
+ * 
+ * @see BroadPhaseGrid
+ * @see BroadPhaseSweepAndPrune
+ */
+public interface BroadPhase
+{
+    /**
+     * Update the broad phase with the current collidables, and notify each candidate pair once. Collidables that are
+     * not anymore part of the provided ones are forgotten.
+     * <p>
+     * Must be called after the {@link Collidable#update(double)}, as the bounds are computed from the
+     * {@link Collidable#getCollisionBounds()} and the owner movement.
+     * </p>
+     * 
+     * @param collidables The current collidables.
+     * @param listener The listener notified for each candidate pair.
+     */
+    void update(Iterable<Collidable> collidables, BroadPhaseListener listener);
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright (C) 2013-2016 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.collision.object;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Broad phase base implementation. Tracks the updated collidables, and forget the ones which are not provided anymore.
+ */
+abstract class BroadPhaseBase implements BroadPhase
+{
+    /** Entries by collidable. */
+    private final Map<Collidable, BroadPhaseEntry> entries = new HashMap<Collidable, BroadPhaseEntry>();
+    /** Tracked entries, in insertion order. */
+    private final List<BroadPhaseEntry> tracked = new ArrayList<BroadPhaseEntry>();
+    /** Current update stamp. */
+    private int stamp;
+    /** Next entry id. */
+    private int nextId;
+
+    /**
+     * Create broad phase.
+     */
+    BroadPhaseBase()
+    {
+        super();
+    }
+
+    /**
+     * Called before updating entries.
+     * <p>
+     * Does nothing by default.
+     * </p>
+     */
+    protected void onPrepare()
+    {
+        // Nothing by default
+    }
+
+    /**
+     * Called when entry has been updated.
+     * 
+     * @param entry The updated entry.
+     */
+    protected abstract void onUpdated(BroadPhaseEntry entry);
+
+    /**
+     * Called when entry is not tracked anymore.
+     * 
+     * @param entry The removed entry.
+     */
+    protected abstract void onRemoved(BroadPhaseEntry entry);
+
+    /**
+     * Notify the candidate pairs from the updated entries.
+     * 
+     * @param entries The tracked entries (can be reordered by implementation).
+     * @param listener The listener to notify.
+     */
+    protected abstract void computePairs(List<BroadPhaseEntry> entries, BroadPhaseListener listener);
+
+    /**
+     * Get the entry associated to the collidable, create it if not existing.
+     * 
+     * @param collidable The collidable reference.
+     * @return The associated entry.
+     */
+    private BroadPhaseEntry getEntry(Collidable collidable)
+    {
+        BroadPhaseEntry entry = entries.get(collidable);
+        if (entry == null)
+        {
+            entry = new BroadPhaseEntry(collidable, nextId);
+            nextId++;
+            entries.put(collidable, entry);
+            tracked.add(entry);
+        }
+        return entry;
+    }
+
+    /**
+     * Remove entries that have not been updated, by keeping the tracked order.
+     */
+    private void removeOutdated()
+    {
+        int kept = 0;
+        final int n = tracked.size();
+        for (int i = 0; i < n; i++)
+        {
+            final BroadPhaseEntry entry = tracked.get(i);
+            if (entry.stamp == stamp)
+            {
+                tracked.set(kept, entry);
+                kept++;
+            }
+            else
+            {
+                entries.remove(entry.collidable);
+                onRemoved(entry);
+            }
+        }
+        if (kept < n)
+        {
+            tracked.subList(kept, n).clear();
+        }
+    }
+
+    /*
+     * BroadPhase
+     */
+
+    @Override
+    public final void update(Iterable<Collidable> collidables, BroadPhaseListener listener)
+    {
+        onPrepare();
+        stamp++;
+        for (final Collidable collidable : collidables)
+        {
+            final BroadPhaseEntry entry = getEntry(collidable);
+            entry.stamp = stamp;
+            entry.update();
+            onUpdated(entry);
+        }
+        removeOutdated();
+        computePairs(tracked, listener);
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright (C) 2013-2016 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.collision.object;
+
+import com.b3dgs.lionengine.game.feature.transformable.Transformable;
+import com.b3dgs.lionengine.geom.Rectangle;
+
+/**
+ * Broad phase data of a {@link Collidable}. Keeps the area covered by its collisions during the current move.
+ */
+final class BroadPhaseEntry
+{
+    /** Mirror offset factor (offset is applied in both directions). */
+    private static final int MIRROR_FACTOR = 2;
+
+    /** The collidable reference. */
+    final Collidable collidable;
+    /** The collidable owner transformable. */
+    private final Transformable transformable;
+    /** Unique entry id, used to order pairs. */
+    final int id;
+    /** Last update stamp. */
+    int stamp;
+    /** Minimum horizontal location. */
+    double minX;
+    /** Minimum vertical location. */
+    double minY;
+    /** Maximum horizontal location. */
+    double maxX;
+    /** Maximum vertical location. */
+    double maxY;
+    /** Has bounds flag. */
+    boolean bounded;
+    /** Minimum covered horizontal cell (grid only). */
+    int cellMinX;
+    /** Minimum covered vertical cell (grid only). */
+    int cellMinY;
+    /** Maximum covered horizontal cell (grid only). */
+    int cellMaxX;
+    /** Maximum covered vertical cell (grid only). */
+    int cellMaxY;
+    /** Cells generation where entry is stored, <code>0</code> if none (grid only). */
+    int cells;
+
+    /**
+     * Create entry.
+     * 
+     * @param collidable The collidable reference.
+     * @param id The unique entry id.
+     */
+    BroadPhaseEntry(Collidable collidable, int id)
+    {
+        this.collidable = collidable;
+        this.id = id;
+        transformable = collidable.getFeature(Transformable.class);
+    }
+
+    /**
+     * Update the covered area from the current collisions bounds, extended by the last movement. The swept area
+     * includes the start and the end of the movement.
+     */
+    void update()
+    {
+        final double vx = transformable.getX() - transformable.getOldX();
+        final double vy = transformable.getY() - transformable.getOldY();
+
+        bounded = false;
+        for (final Rectangle rectangle : collidable.getCollisionBounds())
+        {
+            final double x1 = Math.min(rectangle.getMinX(), rectangle.getMinX() + vx);
+            final double y1 = Math.min(rectangle.getMinY(), rectangle.getMinY() + vy);
+            final double x2 = Math.max(rectangle.getMaxX(), rectangle.getMaxX() + vx);
+            final double y2 = Math.max(rectangle.getMaxY(), rectangle.getMaxY() + vy);
+            if (bounded)
+            {
+                minX = Math.min(minX, x1);
+                minY = Math.min(minY, y1);
+                maxX = Math.max(maxX, x2);
+                maxY = Math.max(maxY, y2);
+            }
+            else
+            {
+                minX = x1;
+                minY = y1;
+                maxX = x2;
+                maxY = y2;
+                bounded = true;
+            }
+        }
+        if (bounded)
+        {
+            extendMirror();
+        }
+    }
+
+    /**
+     * Check if entries areas overlap. Touching areas are considered as overlapping.
+     * 
+     * @param other The other entry.
+     * @return <code>true</code> if overlapping, <code>false</code> else.
+     */
+    boolean overlaps(BroadPhaseEntry other)
+    {
+        return minX <= other.maxX && other.minX <= maxX && minY <= other.maxY && other.minY <= maxY;
+    }
+
+    /**
+     * Extend area with mirrored collisions offset, as the movement end is computed without mirror.
+     */
+    private void extendMirror()
+    {
+        double offsetX = 0.0;
+        double offsetY = 0.0;
+        for (final Collision collision : collidable.getCollisions())
+        {
+            if (collision.hasMirror())
+            {
+                offsetX = Math.max(offsetX, MIRROR_FACTOR * Math.abs(collision.getOffsetX()));
+                offsetY = Math.max(offsetY, MIRROR_FACTOR * Math.abs(collision.getOffsetY()));
+            }
+        }
+        minX -= offsetX;
+        minY -= offsetY;
+        maxX += offsetX;
+        maxY += offsetY;
+    }
+}
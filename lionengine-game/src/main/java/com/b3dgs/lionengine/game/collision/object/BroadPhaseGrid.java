@@ -0,0 +1,311 @@
+/*
+ * Copyright (C) 2013-2016 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.collision.object;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.game.map.MapTile;
+import com.b3dgs.lionengine.util.UtilMath;
+
+/**
+ * Uniform grid broad phase implementation. Each collidable is stored in the cells covered by its collisions and its
+ * movement. Only collidables sharing a cell are checked against each other. A collidable moving inside its cells does
+ * not change the grid content.
+ * <p>
+ * Collidables outside the grid area are stored in the border cells.
+ * </p>
+ */
+public class BroadPhaseGrid extends BroadPhaseBase
+{
+    /** The map reference (<code>null</code> if fixed grid). */
+    private final MapTile map;
+    /** Cells content, stored by row (<code>null</code> if empty). */
+    private final List<List<BroadPhaseEntry>> cells = new ArrayList<List<BroadPhaseEntry>>();
+    /** Cell width. */
+    private int cellWidth;
+    /** Cell height. */
+    private int cellHeight;
+    /** Number of horizontal cells. */
+    private int widthInCell;
+    /** Number of vertical cells. */
+    private int heightInCell;
+    /** Cells generation, incremented on each grid resize. */
+    private int generation;
+
+    /**
+     * Create a grid broad phase, where each cell is a map tile. Grid follows the map size.
+     * 
+     * @param map The map reference.
+     */
+    public BroadPhaseGrid(MapTile map)
+    {
+        super();
+
+        Check.notNull(map);
+
+        this.map = map;
+    }
+
+    /**
+     * Create a grid broad phase with a fixed size.
+     * 
+     * @param cellWidth The cell width (must be strictly positive).
+     * @param cellHeight The cell height (must be strictly positive).
+     * @param widthInCell The number of horizontal cells (must be strictly positive).
+     * @param heightInCell The number of vertical cells (must be strictly positive).
+     * @throws LionEngineException If invalid arguments.
+     */
+    public BroadPhaseGrid(int cellWidth, int cellHeight, int widthInCell, int heightInCell)
+    {
+        super();
+
+        Check.superiorStrict(cellWidth, 0);
+        Check.superiorStrict(cellHeight, 0);
+        Check.superiorStrict(widthInCell, 0);
+        Check.superiorStrict(heightInCell, 0);
+
+        map = null;
+        resize(cellWidth, cellHeight, widthInCell, heightInCell);
+    }
+
+    /**
+     * Update grid size from map if changed.
+     */
+    private void checkMapSize()
+    {
+        final int tw = Math.max(1, map.getTileWidth());
+        final int th = Math.max(1, map.getTileHeight());
+        final int wt = Math.max(1, map.getInTileWidth());
+        final int ht = Math.max(1, map.getInTileHeight());
+        if (tw != cellWidth || th != cellHeight || wt != widthInCell || ht != heightInCell)
+        {
+            resize(tw, th, wt, ht);
+        }
+    }
+
+    /**
+     * Resize grid. All entries will be stored again on their next update.
+     * 
+     * @param cellWidth The cell width.
+     * @param cellHeight The cell height.
+     * @param widthInCell The number of horizontal cells.
+     * @param heightInCell The number of vertical cells.
+     */
+    private void resize(int cellWidth, int cellHeight, int widthInCell, int heightInCell)
+    {
+        this.cellWidth = cellWidth;
+        this.cellHeight = cellHeight;
+        this.widthInCell = widthInCell;
+        this.heightInCell = heightInCell;
+
+        cells.clear();
+        final int count = widthInCell * heightInCell;
+        for (int i = 0; i < count; i++)
+        {
+            cells.add(null);
+        }
+        generation++;
+    }
+
+    /**
+     * Get the horizontal cell index.
+     * 
+     * @param x The horizontal location.
+     * @return The horizontal cell index, clamped to grid.
+     */
+    private int getCellX(double x)
+    {
+        return UtilMath.clamp((int) Math.floor(x / cellWidth), 0, widthInCell - 1);
+    }
+
+    /**
+     * Get the vertical cell index.
+     * 
+     * @param y The vertical location.
+     * @return The vertical cell index, clamped to grid.
+     */
+    private int getCellY(double y)
+    {
+        return UtilMath.clamp((int) Math.floor(y / cellHeight), 0, heightInCell - 1);
+    }
+
+    /**
+     * Add entry to its covered cells.
+     * 
+     * @param entry The entry to add.
+     */
+    private void add(BroadPhaseEntry entry)
+    {
+        for (int cy = entry.cellMinY; cy <= entry.cellMaxY; cy++)
+        {
+            for (int cx = entry.cellMinX; cx <= entry.cellMaxX; cx++)
+            {
+                final int index = cy * widthInCell + cx;
+                List<BroadPhaseEntry> cell = cells.get(index);
+                if (cell == null)
+                {
+                    cell = new ArrayList<BroadPhaseEntry>();
+                    cells.set(index, cell);
+                }
+                cell.add(entry);
+            }
+        }
+        entry.cells = generation;
+    }
+
+    /**
+     * Remove entry from its covered cells.
+     * 
+     * @param entry The entry to remove.
+     */
+    private void remove(BroadPhaseEntry entry)
+    {
+        if (entry.cells == generation)
+        {
+            for (int cy = entry.cellMinY; cy <= entry.cellMaxY; cy++)
+            {
+                for (int cx = entry.cellMinX; cx <= entry.cellMaxX; cx++)
+                {
+                    cells.get(cy * widthInCell + cx).remove(entry);
+                }
+            }
+        }
+        entry.cells = 0;
+    }
+
+    /**
+     * Notify the candidates of an entry from its covered cells.
+     * 
+     * @param entry The entry reference.
+     * @param listener The listener to notify.
+     */
+    private void check(BroadPhaseEntry entry, BroadPhaseListener listener)
+    {
+        for (int cy = entry.cellMinY; cy <= entry.cellMaxY; cy++)
+        {
+            for (int cx = entry.cellMinX; cx <= entry.cellMaxX; cx++)
+            {
+                check(entry, cx, cy, listener);
+            }
+        }
+    }
+
+    /**
+     * Notify the candidates of an entry in a cell. A pair is only notified by its lowest entry id, in the first cell
+     * shared by the two entries, so each pair is notified once.
+     * 
+     * @param entry The entry reference.
+     * @param cx The horizontal cell index.
+     * @param cy The vertical cell index.
+     * @param listener The listener to notify.
+     */
+    private void check(BroadPhaseEntry entry, int cx, int cy, BroadPhaseListener listener)
+    {
+        final List<BroadPhaseEntry> cell = cells.get(cy * widthInCell + cx);
+        final int n = cell.size();
+        for (int i = 0; i < n; i++)
+        {
+            final BroadPhaseEntry other = cell.get(i);
+            if (other.id > entry.id
+                && cx == Math.max(entry.cellMinX, other.cellMinX)
+                && cy == Math.max(entry.cellMinY, other.cellMinY)
+                && entry.overlaps(other))
+            {
+                listener.notifyCandidates(entry.collidable, other.collidable);
+            }
+        }
+    }
+
+    /**
+     * Check if entry is currently stored in the cells range.
+     * 
+     * @param entry The entry to check.
+     * @param minX The minimum horizontal cell index.
+     * @param minY The minimum vertical cell index.
+     * @param maxX The maximum horizontal cell index.
+     * @param maxY The maximum vertical cell index.
+     * @return <code>true</code> if stored in this range, <code>false</code> if not stored or in another range.
+     */
+    private boolean isStored(BroadPhaseEntry entry, int minX, int minY, int maxX, int maxY)
+    {
+        final boolean sameMin = minX == entry.cellMinX && minY == entry.cellMinY;
+        final boolean sameMax = maxX == entry.cellMaxX && maxY == entry.cellMaxY;
+        return entry.cells == generation && sameMin && sameMax;
+    }
+
+    /*
+     * BroadPhaseBase
+     */
+
+    @Override
+    protected void onPrepare()
+    {
+        if (map != null)
+        {
+            checkMapSize();
+        }
+    }
+
+    @Override
+    protected void onUpdated(BroadPhaseEntry entry)
+    {
+        if (entry.bounded)
+        {
+            final int minX = getCellX(entry.minX);
+            final int minY = getCellY(entry.minY);
+            final int maxX = getCellX(entry.maxX);
+            final int maxY = getCellY(entry.maxY);
+            if (!isStored(entry, minX, minY, maxX, maxY))
+            {
+                remove(entry);
+                entry.cellMinX = minX;
+                entry.cellMinY = minY;
+                entry.cellMaxX = maxX;
+                entry.cellMaxY = maxY;
+                add(entry);
+            }
+        }
+        else
+        {
+            remove(entry);
+        }
+    }
+
+    @Override
+    protected void onRemoved(BroadPhaseEntry entry)
+    {
+        remove(entry);
+    }
+
+    @Override
+    protected void computePairs(List<BroadPhaseEntry> entries, BroadPhaseListener listener)
+    {
+        final int n = entries.size();
+        for (int i = 0; i < n; i++)
+        {
+            final BroadPhaseEntry entry = entries.get(i);
+            if (entry.cells == generation)
+            {
+                check(entry, listener);
+            }
+        }
+    }
+}
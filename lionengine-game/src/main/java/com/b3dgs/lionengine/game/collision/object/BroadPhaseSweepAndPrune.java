@@ -0,0 +1,112 @@
+/*
+ * Copyright (C) 2013-2016 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.collision.object;
+
+import java.util.List;
+
+/**
+ * Sweep and prune broad phase implementation. Collidables are kept sorted on their horizontal minimum. As their order
+ * changes only a little between two updates, the sort is incremental (insertion sort over the previous order). Then
+ * only collidables overlapping on the horizontal axis are checked against each other.
+ * <p>
+ * Best suited for collidables spread on the horizontal axis, without any map boundaries.
+ * </p>
+ */
+public class BroadPhaseSweepAndPrune extends BroadPhaseBase
+{
+    /**
+     * Sort entries on their horizontal minimum. Entries are expected to be almost sorted.
+     * 
+     * @param entries The entries to sort.
+     */
+    private static void sort(List<BroadPhaseEntry> entries)
+    {
+        final int n = entries.size();
+        for (int i = 1; i < n; i++)
+        {
+            final BroadPhaseEntry entry = entries.get(i);
+            int j = i - 1;
+            while (j >= 0 && entries.get(j).minX > entry.minX)
+            {
+                entries.set(j + 1, entries.get(j));
+                j--;
+            }
+            entries.set(j + 1, entry);
+        }
+    }
+
+    /**
+     * Notify candidates of the entry, with all next entries overlapping its horizontal range.
+     * 
+     * @param entries The sorted entries.
+     * @param index The current entry index.
+     * @param listener The listener to notify.
+     */
+    private static void sweep(List<BroadPhaseEntry> entries, int index, BroadPhaseListener listener)
+    {
+        final BroadPhaseEntry entry = entries.get(index);
+        final int n = entries.size();
+        for (int i = index + 1; i < n && entries.get(i).minX <= entry.maxX; i++)
+        {
+            final BroadPhaseEntry other = entries.get(i);
+            if (other.bounded && entry.overlaps(other))
+            {
+                listener.notifyCandidates(entry.collidable, other.collidable);
+            }
+        }
+    }
+
+    /**
+     * Create a sweep and prune broad phase.
+     */
+    public BroadPhaseSweepAndPrune()
+    {
+        super();
+    }
+
+    /*
+     * BroadPhaseBase
+     */
+
+    @Override
+    protected void onUpdated(BroadPhaseEntry entry)
+    {
+        // Nothing to do, order is updated before sweep
+    }
+
+    @Override
+    protected void onRemoved(BroadPhaseEntry entry)
+    {
+        // Nothing to do, entry is removed from the tracked ones
+    }
+
+    @Override
+    protected void computePairs(List<BroadPhaseEntry> entries, BroadPhaseListener listener)
+    {
+        sort(entries);
+
+        final int n = entries.size();
+        for (int i = 0; i < n; i++)
+        {
+            if (entries.get(i).bounded)
+            {
+                sweep(entries, i, listener);
+            }
+        }
+    }
+}
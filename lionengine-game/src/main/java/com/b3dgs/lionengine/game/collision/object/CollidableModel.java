@@ -69,6 +69,8 @@ public class CollidableModel extends FeatureModel implements Collidable
     private final Collection<Collidable> ignored = new HashSet<Collidable>();
     /** Temp bounding box from polygon. */
     private final Map<Collision, Rectangle> boxs = new HashMap<Collision, Rectangle>();
+    /** Swept bounding box, to keep boxes untouched by collision checks. */
+    private final Rectangle sweep = Geom.createRectangle();
     /** Transformable owning this model. */
     private Transformable transformable;
     /** The viewer reference. */
@@ -129,13 +131,14 @@ public class CollidableModel extends FeatureModel implements Collidable
         final double sx = dh / norm;
         final double sy = dv / norm;
 
+        sweep.set(sh, sv, rectangle.getWidthReal(), rectangle.getHeightReal());
         for (int count = 0; count < norm; count++)
         {
-            if (checkCollide(rectangle, other))
+            if (checkCollide(sweep, other))
             {
                 return collision;
             }
-            rectangle.translate(sx, sy);
+            sweep.translate(sx, sy);
         }
         return null;
     }
@@ -17,15 +17,21 @@
  */
 package com.b3dgs.lionengine.game.collision.object;
 
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.LionEngineException;
 import com.b3dgs.lionengine.game.handler.ComponentUpdater;
 import com.b3dgs.lionengine.game.handler.Handlables;
 
 /**
  * Default collision component implementation. Designed to check collision between {@link Collidable}.
  * Collision events are notified to {@link CollidableListener}.
+ * <p>
+ * Only the candidate pairs found by the {@link BroadPhase} are checked, each one in both directions.
+ * </p>
  * 
  * @see Collidable
  * @see CollidableListener
+ * @see BroadPhase
  */
 public class ComponentCollision implements ComponentUpdater
 {
@@ -37,22 +43,47 @@ public class ComponentCollision implements ComponentUpdater
      */
     private static void checkCollision(Collidable objectA, Collidable objectB)
     {
-        if (!objectA.equals(objectB))
+        final Collision collision = objectA.collide(objectB);
+        if (collision != null)
         {
-            final Collision collision = objectA.collide(objectB);
-            if (collision != null)
-            {
-                objectB.notifyCollided(objectA);
-            }
+            objectB.notifyCollided(objectA);
         }
     }
 
+    /** Candidates checker. */
+    private final BroadPhaseListener checker = new BroadPhaseListener()
+    {
+        @Override
+        public void notifyCandidates(Collidable collidableA, Collidable collidableB)
+        {
+            checkCollision(collidableA, collidableB);
+            checkCollision(collidableB, collidableA);
+        }
+    };
+    /** The broad phase reference. */
+    private final BroadPhase broadPhase;
+
     /**
-     * Create component.
+     * Create component, using a {@link BroadPhaseSweepAndPrune}.
      */
     public ComponentCollision()
+    {
+        this(new BroadPhaseSweepAndPrune());
+    }
+
+    /**
+     * Create component.
+     * 
+     * @param broadPhase The broad phase used to find the candidate pairs.
+     * @throws LionEngineException If <code>null</code> broad phase.
+     */
+    public ComponentCollision(BroadPhase broadPhase)
     {
         super();
+
+        Check.notNull(broadPhase);
+
+        this.broadPhase = broadPhase;
     }
 
     /*
@@ -62,13 +93,6 @@ public class ComponentCollision implements ComponentUpdater
     @Override
     public void update(double extrp, Handlables objects)
     {
-        final Iterable<Collidable> collidables = objects.get(Collidable.class);
-        for (final Collidable objectA : collidables)
-        {
-            for (final Collidable objectB : collidables)
-            {
-                checkCollision(objectA, objectB);
-            }
-        }
+        broadPhase.update(objects.get(Collidable.class), checker);
     }
 }
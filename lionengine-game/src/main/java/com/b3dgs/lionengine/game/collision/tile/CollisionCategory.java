@@ -74,6 +74,10 @@ public class CollisionCategory implements Nameable
      * {@link com.b3dgs.lionengine.game.collision.tile.MapTileCollision#getCollisionFormula(String)}.
      */
     private final Collection<CollisionFormula> formulas;
+    /** Cached formulas mask. */
+    private long mask;
+    /** Index stamp of the cached mask (0 if invalid). */
+    private int maskStamp;
 
     /**
      * Constructor.
@@ -98,6 +102,23 @@ public class CollisionCategory implements Nameable
         }
     }
 
+    /**
+     * Get the formulas mask, computed once per index stamp.
+     * 
+     * @param index The formulas index.
+     * @return The formulas mask.
+     */
+    long getMask(CollisionFormulaIndex index)
+    {
+        final int stamp = index.getStamp();
+        if (maskStamp != stamp)
+        {
+            mask = index.getMask(formulas);
+            maskStamp = stamp;
+        }
+        return mask;
+    }
+
     /**
      * Get the defined groups.
      * 
@@ -0,0 +1,112 @@
+/*
+ * Copyright (C) 2013-2016 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.collision.tile;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Assign a bit to each loaded {@link CollisionFormula}, so a set of formulas is stored as a single <code>long</code>
+ * mask, and checking if a {@link TileCollision} matches a {@link CollisionCategory} is one <code>AND</code>.
+ * <p>
+ * Only the first {@link #BITS} formulas get their own bit. Any other formula sets the {@link #OVERFLOW} bit of the
+ * mask, meaning the owner must fall back to a formulas lookup when both masks have it.
+ * </p>
+ * <p>
+ * Each formulas change gives a new stamp, unique across all indexes, used by mask owners to know if their cached mask
+ * is still valid.
+ * </p>
+ */
+final class CollisionFormulaIndex
+{
+    /** Mask bit set when a formula has no assigned bit. */
+    static final long OVERFLOW = Long.MIN_VALUE;
+    /** Number of assignable bits. */
+    private static final int BITS = Long.SIZE - 1;
+    /** Stamps generator (never zero, reserved for invalid masks). */
+    private static final AtomicInteger STAMPS = new AtomicInteger();
+
+    /** Assigned bits by formula. */
+    private final Map<CollisionFormula, Long> bits = new HashMap<CollisionFormula, Long>();
+    /** Current stamp. */
+    private int stamp = STAMPS.incrementAndGet();
+
+    /**
+     * Create the index.
+     */
+    CollisionFormulaIndex()
+    {
+        super();
+    }
+
+    /**
+     * Assign the formulas bits, replacing the previous ones.
+     * 
+     * @param formulas The formulas to index.
+     */
+    void set(Collection<CollisionFormula> formulas)
+    {
+        bits.clear();
+        int bit = 0;
+        for (final CollisionFormula formula : formulas)
+        {
+            if (bit < BITS)
+            {
+                bits.put(formula, Long.valueOf(1L << bit));
+            }
+            bit++;
+        }
+        stamp = STAMPS.incrementAndGet();
+    }
+
+    /**
+     * Compute the mask of a formulas set.
+     * 
+     * @param formulas The formulas set.
+     * @return The formulas mask.
+     */
+    long getMask(Collection<CollisionFormula> formulas)
+    {
+        long mask = 0L;
+        for (final CollisionFormula formula : formulas)
+        {
+            final Long bit = bits.get(formula);
+            if (bit == null)
+            {
+                mask |= OVERFLOW;
+            }
+            else
+            {
+                mask |= bit.longValue();
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Get the current stamp.
+     * 
+     * @return The current stamp, changed on each {@link #set(Collection)}.
+     */
+    int getStamp()
+    {
+        return stamp;
+    }
+}
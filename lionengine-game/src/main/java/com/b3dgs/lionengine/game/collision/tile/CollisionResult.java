@@ -22,15 +22,32 @@ import com.b3dgs.lionengine.game.tile.Tile;
 
 /**
  * Represents the map collision results.
+ * <p>
+ * A result is mutable, so the same instance can be filled by each {@link MapTileCollision} computation without
+ * allocating anything on the update loop. The location is stored as primitive values, and {@link #hasX()} /
+ * {@link #hasY()} tell if they are defined.
+ * </p>
  */
 public class CollisionResult
 {
-    /** Horizontal collision location (<code>null</code> if none). */
-    private final Double x;
-    /** Vertical collision location (<code>null</code> if none). */
-    private final Double y;
-    /** Collided tile. */
-    private final Tile tile;
+    /** Horizontal collision location. */
+    private double x;
+    /** Vertical collision location. */
+    private double y;
+    /** Horizontal collision defined flag. */
+    private boolean hasX;
+    /** Vertical collision defined flag. */
+    private boolean hasY;
+    /** Collided tile (<code>null</code> if none). */
+    private Tile tile;
+
+    /**
+     * Create an empty collision result, ready to be filled.
+     */
+    public CollisionResult()
+    {
+        super();
+    }
 
     /**
      * Create a collision result.
@@ -40,11 +57,111 @@ public class CollisionResult
      * @param tile The collided tile.
      */
     public CollisionResult(Double x, Double y, Tile tile)
+    {
+        super();
+
+        setTile(tile);
+        if (x != null)
+        {
+            setX(x.doubleValue());
+        }
+        if (y != null)
+        {
+            setY(y.doubleValue());
+        }
+    }
+
+    /**
+     * Clear the result, as if nothing was hit.
+     */
+    public void reset()
+    {
+        hasX = false;
+        hasY = false;
+        tile = null;
+    }
+
+    /**
+     * Set the collided tile, marking the result as hit.
+     * 
+     * @param tile The collided tile.
+     */
+    public void setTile(Tile tile)
     {
         Check.notNull(tile);
+        this.tile = tile;
+    }
+
+    /**
+     * Set the horizontal collision location.
+     * 
+     * @param x The horizontal collision location.
+     */
+    public void setX(double x)
+    {
         this.x = x;
+        hasX = true;
+    }
+
+    /**
+     * Set the vertical collision location.
+     * 
+     * @param y The vertical collision location.
+     */
+    public void setY(double y)
+    {
         this.y = y;
-        this.tile = tile;
+        hasY = true;
+    }
+
+    /**
+     * Check if a tile has been hit.
+     * 
+     * @return <code>true</code> if a tile has been hit, <code>false</code> else.
+     */
+    public boolean isHit()
+    {
+        return tile != null;
+    }
+
+    /**
+     * Check if horizontal collision location is defined.
+     * 
+     * @return <code>true</code> if defined, <code>false</code> else.
+     */
+    public boolean hasX()
+    {
+        return hasX;
+    }
+
+    /**
+     * Check if vertical collision location is defined.
+     * 
+     * @return <code>true</code> if defined, <code>false</code> else.
+     */
+    public boolean hasY()
+    {
+        return hasY;
+    }
+
+    /**
+     * Get the horizontal collision location value. Only meaningful if {@link #hasX()}.
+     * 
+     * @return The horizontal collision location.
+     */
+    public double getValueX()
+    {
+        return x;
+    }
+
+    /**
+     * Get the vertical collision location value. Only meaningful if {@link #hasY()}.
+     * 
+     * @return The vertical collision location.
+     */
+    public double getValueY()
+    {
+        return y;
     }
 
     /**
@@ -54,7 +171,11 @@ public class CollisionResult
      */
     public Double getX()
     {
-        return x;
+        if (hasX)
+        {
+            return Double.valueOf(x);
+        }
+        return null;
     }
 
     /**
@@ -64,13 +185,17 @@ public class CollisionResult
      */
     public Double getY()
     {
-        return y;
+        if (hasY)
+        {
+            return Double.valueOf(y);
+        }
+        return null;
     }
 
     /**
      * Get the collided tile.
      * 
-     * @return The collided tile.
+     * @return The collided tile (<code>null</code> if none).
      */
     public Tile getTile()
     {
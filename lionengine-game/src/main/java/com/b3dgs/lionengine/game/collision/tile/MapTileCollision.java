@@ -50,6 +50,15 @@ public interface MapTileCollision extends Feature
      */
     void loadCollisions(CollisionFormulaConfig formulasConfig, CollisionGroupConfig groupsConfig);
 
+    /**
+     * Update the collisions of the tile after its change, and the constraints of its four adjacent tiles. Formulas are
+     * taken from the tile references lookup built on load, so a collision groups change requires a new load.
+     * 
+     * @param tx The horizontal tile location.
+     * @param ty The vertical tile location.
+     */
+    void updateCollisions(int tx, int ty);
+
     /**
      * Save the current collisions to the collision file.
      * 
@@ -60,6 +69,11 @@ public interface MapTileCollision extends Feature
     /**
      * Search first tile hit by the transformable that contains collision, applying a ray tracing from its old location
      * to its current. This way, the transformable can not pass through a collidable tile.
+     * <p>
+     * Tiles crossed by the movement are visited once each, in order (including both tiles around a crossed corner), and
+     * formulas are intersected with the movement segment. Cost depends of the number of tiles crossed, not of the
+     * movement speed.
+     * </p>
      * 
      * @param transformable The transformable reference.
      * @param category The collisions category to search in.
@@ -67,6 +81,18 @@ public interface MapTileCollision extends Feature
      */
     CollisionResult computeCollision(Transformable transformable, CollisionCategory category);
 
+    /**
+     * Search first tile hit by the transformable that contains collision, applying a ray tracing from its old location
+     * to its current. Same as {@link #computeCollision(Transformable, CollisionCategory)}, but filling a reusable
+     * result instead of allocating a new one, for use on each update.
+     * 
+     * @param transformable The transformable reference.
+     * @param category The collisions category to search in.
+     * @param result The result to fill (reset before search).
+     * @return <code>true</code> if a tile has been hit, <code>false</code> if nothing found.
+     */
+    boolean computeCollision(Transformable transformable, CollisionCategory category, CollisionResult result);
+
     /**
      * Get the collision formula from its name.
      * 
@@ -19,7 +19,9 @@ package com.b3dgs.lionengine.game.collision.tile;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 
@@ -32,12 +34,13 @@ import com.b3dgs.lionengine.game.feature.FeatureProvider;
 import com.b3dgs.lionengine.game.feature.Services;
 import com.b3dgs.lionengine.game.feature.transformable.Transformable;
 import com.b3dgs.lionengine.game.map.MapTile;
+import com.b3dgs.lionengine.game.map.MapTileListener;
+import com.b3dgs.lionengine.game.map.MapTileTraversal;
 import com.b3dgs.lionengine.game.map.feature.group.MapTileGroup;
 import com.b3dgs.lionengine.game.tile.Tile;
 import com.b3dgs.lionengine.game.tile.TileRef;
 import com.b3dgs.lionengine.stream.Xml;
 import com.b3dgs.lionengine.stream.XmlNode;
-import com.b3dgs.lionengine.util.UtilMath;
 
 /**
  * Map tile collision model implementation.
@@ -59,13 +62,13 @@ public class MapTileCollisionModel extends FeatureModel implements MapTileCollis
     private static final String ERROR_FORMULA = "Formula not found (may not have been loaded): ";
 
     /**
-     * Check if tile contains at least one collision from the category.
+     * Check if tile contains at least one collision from the category, by looking up each formula.
      * 
      * @param tile The tile reference.
      * @param category The category reference.
      * @return <code>true</code> if there is a formula in common between tile and category.
      */
-    private static boolean containsCollisionFormula(TileCollision tile, CollisionCategory category)
+    private static boolean containsCollisionFormulaLookup(TileCollision tile, CollisionCategory category)
     {
         final Collection<CollisionFormula> formulas = tile.getCollisionFormulas();
         for (final CollisionFormula formula : category.getFormulas())
@@ -79,59 +82,32 @@ public class MapTileCollisionModel extends FeatureModel implements MapTileCollis
     }
 
     /**
-     * Get the horizontal collision from current location.
+     * Add the formulas not already contained.
      * 
-     * @param category The collision category.
-     * @param tileCollision The current tile collision.
-     * @param ox The old horizontal location.
-     * @param oy The old vertical location.
-     * @param x The current horizontal location.
-     * @param y The current vertical location.
-     * @return The computed horizontal collision.
-     */
-    private static Double getCollisionX(CollisionCategory category,
-                                        TileCollision tileCollision,
-                                        double ox,
-                                        double oy,
-                                        double x,
-                                        double y)
-    {
-        if (category.getAxis() == Axis.X)
-        {
-            return tileCollision.getCollisionX(category, ox, oy, x, y);
-        }
-        return null;
-    }
-
-    /**
-     * Get the vertical collision from current location.
-     * 
-     * @param category The collision category.
-     * @param tileCollision The current tile collision.
-     * @param ox The old horizontal location.
-     * @param oy The old vertical location.
-     * @param x The current horizontal location.
-     * @param y The current vertical location.
-     * @return The computed vertical collision.
+     * @param current The current formulas.
+     * @param formulas The formulas to add.
      */
-    private static Double getCollisionY(CollisionCategory category,
-                                        TileCollision tileCollision,
-                                        double ox,
-                                        double oy,
-                                        double x,
-                                        double y)
-    {
-        if (category.getAxis() == Axis.Y)
+    private static void addFormulas(List<CollisionFormula> current, Collection<CollisionFormula> formulas)
+    {
+        for (final CollisionFormula formula : formulas)
         {
-            return tileCollision.getCollisionY(category, ox, oy, x, y);
+            if (!current.contains(formula))
+            {
+                current.add(formula);
+            }
         }
-        return null;
     }
 
     /** Collision formulas list. */
     private final Map<String, CollisionFormula> formulas = new HashMap<String, CollisionFormula>();
     /** Collisions groups list. */
     private final Map<String, CollisionGroup> groups = new HashMap<String, CollisionGroup>();
+    /** Formulas per tile reference, from collision groups. */
+    private final Map<TileRef, List<CollisionFormula>> tilesFormulas = new HashMap<TileRef, List<CollisionFormula>>();
+    /** Formulas bits index. */
+    private final CollisionFormulaIndex index = new CollisionFormulaIndex();
+    /** Tiles traversal, reused by each computation. */
+    private final MapTileTraversal traversal = new MapTileTraversal();
     /** Map reference. */
     private MapTile map;
     /** Map tile group. */
@@ -173,6 +149,7 @@ public class MapTileCollisionModel extends FeatureModel implements MapTileCollis
     {
         formulas.clear();
         formulas.putAll(config.getFormulas());
+        index.set(formulas.values());
     }
 
     /**
@@ -201,14 +178,66 @@ public class MapTileCollisionModel extends FeatureModel implements MapTileCollis
         groups.putAll(config.getGroups());
     }
 
+    /**
+     * Load the formulas of each tile reference from the collision groups, so tiles collisions are found by lookup.
+     */
+    private void loadTilesFormulas()
+    {
+        tilesFormulas.clear();
+        for (final CollisionGroup collision : groups.values())
+        {
+            for (final TileRef ref : mapGroup.getGroup(collision.getName()))
+            {
+                List<CollisionFormula> current = tilesFormulas.get(ref);
+                if (current == null)
+                {
+                    current = new ArrayList<CollisionFormula>();
+                    tilesFormulas.put(ref, current);
+                }
+                addFormulas(current, collision.getFormulas());
+            }
+        }
+    }
+
+    /**
+     * Get the formulas defined by the collision groups for the tile.
+     * 
+     * @param tile The tile reference.
+     * @return The tile formulas (empty if none).
+     */
+    private List<CollisionFormula> getTileFormulas(Tile tile)
+    {
+        final List<CollisionFormula> current = tilesFormulas.get(new TileRef(tile));
+        if (current == null)
+        {
+            return Collections.emptyList();
+        }
+        return current;
+    }
+
     /**
      * Load collisions for each tile. Previous collisions will be removed.
      */
     private void loadTilesCollisions()
     {
-        for (int v = 0; v < map.getInTileHeight(); v++)
+        loadTilesCollisions(0, 0, map.getInTileWidth(), map.getInTileHeight());
+    }
+
+    /**
+     * Load collisions for each tile of the area. Previous collisions will be removed.
+     * 
+     * @param tx The horizontal tile location.
+     * @param ty The vertical tile location.
+     * @param width The area width in tile.
+     * @param height The area height in tile.
+     */
+    private void loadTilesCollisions(int tx, int ty, int width, int height)
+    {
+        final int ex = Math.min(tx + width, map.getInTileWidth());
+        final int ey = Math.min(ty + height, map.getInTileHeight());
+        for (int v = Math.max(0, ty); v < ey; v++)
         {
-            for (int h = 0; h < map.getInTileWidth(); h++)
+            for (int h = Math.max(0, tx); h < ex; h++)
             {
                 final Tile tile = map.getTile(h, v);
                 if (tile != null)
@@ -249,17 +278,11 @@ public class MapTileCollisionModel extends FeatureModel implements MapTileCollis
      */
     private void addTileCollisions(TileCollision tileCollision, Tile tile)
     {
-        final TileRef ref = new TileRef(tile);
-        for (final CollisionGroup collision : getCollisionGroups())
+        final List<CollisionFormula> current = getTileFormulas(tile);
+        final int n = current.size();
+        for (int i = 0; i < n; i++)
         {
-            final Collection<TileRef> group = mapGroup.getGroup(collision.getName());
-            if (group.contains(ref))
-            {
-                for (final CollisionFormula formula : collision.getFormulas())
-                {
-                    tileCollision.addCollisionFormula(formula);
-                }
-            }
+            tileCollision.addCollisionFormula(current.get(i));
         }
     }
 
@@ -268,10 +291,26 @@ public class MapTileCollisionModel extends FeatureModel implements MapTileCollis
      */
     private void applyConstraints()
     {
+        applyConstraints(0, 0, map.getInTileWidth(), map.getInTileHeight());
+    }
+
+    /**
+     * Apply tile constraints of the area depending of their adjacent collisions. Constraints are checked against the
+     * adjacent tiles formulas from configuration, so the result does not depend of the area.
+     * 
+     * @param tx The horizontal tile location.
+     * @param ty The vertical tile location.
+     * @param width The area width in tile.
+     * @param height The area height in tile.
+     */
+    private void applyConstraints(int tx, int ty, int width, int height)
+    {
+        final int ex = Math.min(tx + width, map.getInTileWidth());
+        final int ey = Math.min(ty + height, map.getInTileHeight());
         final Map<Tile, Collection<CollisionFormula>> toRemove = new HashMap<Tile, Collection<CollisionFormula>>();
-        for (int v = 0; v < map.getInTileHeight(); v++)
+        for (int v = Math.max(0, ty); v < ey; v++)
         {
-            for (int h = 0; h < map.getInTileWidth(); h++)
+            for (int h = Math.max(0, tx); h < ex; h++)
             {
                 final Tile tile = map.getTile(h, v);
                 if (tile != null)
@@ -331,60 +370,78 @@ public class MapTileCollisionModel extends FeatureModel implements MapTileCollis
      */
     private boolean checkConstraint(Collection<String> constraints, Tile tile)
     {
-        return tile != null
-               && constraints.contains(mapGroup.getGroup(tile))
-               && !tile.getFeature(TileCollision.class).getCollisionFormulas().isEmpty();
+        return tile != null && constraints.contains(mapGroup.getGroup(tile)) && !getTileFormulas(tile).isEmpty();
     }
 
     /**
-     * Compute the collision from current location.
+     * Update the collisions of the area, and the constraints of the area and its adjacent tiles.
      * 
-     * @param category The collision category.
-     * @param ox The old horizontal location.
-     * @param oy The old vertical location.
-     * @param x The current horizontal location.
-     * @param y The current vertical location.
-     * @return The computed collision result, <code>null</code> if none.
+     * @param tx The horizontal tile location.
+     * @param ty The vertical tile location.
+     * @param width The area width in tile.
+     * @param height The area height in tile.
      */
-    private CollisionResult computeCollision(CollisionCategory category, double ox, double oy, double x, double y)
+    private void updateTilesCollisions(int tx, int ty, int width, int height)
     {
-        final Tile tile = map.getTile((int) Math.floor(x / map.getTileWidth()),
-                                      (int) Math.floor(y / map.getTileHeight()));
-        if (tile != null)
+        final int border = 2;
+        loadTilesCollisions(tx - 1, ty - 1, width + border, height + border);
+        applyConstraints(tx - 1, ty - 1, width + border, height + border);
+    }
+
+    /**
+     * Check if tile contains at least one collision from the category. Uses the formulas masks when they are enough to
+     * decide, else looks up each formula.
+     * 
+     * @param tileCollision The tile reference.
+     * @param category The category reference.
+     * @return <code>true</code> if there is a formula in common between tile and category.
+     */
+    private boolean containsCollisionFormula(TileCollision tileCollision, CollisionCategory category)
+    {
+        long tileMask = CollisionFormulaIndex.OVERFLOW;
+        if (tileCollision instanceof TileCollisionModel)
         {
-            final TileCollision tileCollision = tile.getFeature(TileCollision.class);
-            if (containsCollisionFormula(tileCollision, category))
-            {
-                final Double cx = getCollisionX(category, tileCollision, ox, oy, x, y);
-                final Double cy = getCollisionY(category, tileCollision, ox, oy, x, y);
-                return new CollisionResult(cx, cy, tile);
-            }
+            tileMask = ((TileCollisionModel) tileCollision).getMask(index);
         }
-        return null;
+        final long shared = tileMask & category.getMask(index);
+        if ((shared & CollisionFormulaIndex.OVERFLOW) == 0L)
+        {
+            return shared != 0L;
+        }
+        return containsCollisionFormulaLookup(tileCollision, category);
     }
 
     /**
-     * Get the collision result from current sub location.
+     * Compute the collision in a tile.
      * 
      * @param category The collision category.
-     * @param sx The horizontal speed.
-     * @param sy The vertical speed.
-     * @param h The current horizontal location.
-     * @param v The current vertical location.
-     * @return The collision found, <code>null</code> if none.
+     * @param tile The tile to check (can be <code>null</code>).
+     * @param ox The old horizontal location.
+     * @param oy The old vertical location.
+     * @param x The current horizontal location.
+     * @param y The current vertical location.
+     * @param result The result to fill.
+     * @return <code>true</code> if the tile has been hit, <code>false</code> if none.
      */
-    private CollisionResult getResult(CollisionCategory category, double sx, double sy, double h, double v)
+    private boolean computeCollision(CollisionCategory category,
+                                     Tile tile,
+                                     double ox,
+                                     double oy,
+                                     double x,
+                                     double y,
+                                     CollisionResult result)
     {
-        final double oh = UtilMath.getRound(sx, h);
-        final double ov = UtilMath.getRound(sy, v);
-
-        final CollisionResult result;
-        result = computeCollision(category, oh, ov, UtilMath.getRound(sx, h), UtilMath.getRound(sy, v + sy));
-        if (result == null)
+        if (tile != null)
         {
-            return computeCollision(category, oh, ov, UtilMath.getRound(sx, h + sx), UtilMath.getRound(sy, v + sy));
+            final TileCollision tileCollision = tile.getFeature(TileCollision.class);
+            if (containsCollisionFormula(tileCollision, category)
+                && tileCollision.computeCollision(category, ox, oy, x, y, result))
+            {
+                result.setTile(tile);
+                return true;
+            }
         }
-        return result;
+        return false;
     }
 
     /*
@@ -399,6 +456,17 @@ public class MapTileCollisionModel extends FeatureModel implements MapTileCollis
         this.services = services;
         map = services.get(MapTile.class);
         mapGroup = map.getFeature(MapTileGroup.class);
+        map.addListener(new MapTileListener()
+        {
+            @Override
+            public void notifyTilesChanged(int tx, int ty, int width, int height)
+            {
+                if (!groups.isEmpty())
+                {
+                    updateTilesCollisions(tx, ty, width, height);
+                }
+            }
+        });
     }
 
     @Override
@@ -412,6 +480,7 @@ public class MapTileCollisionModel extends FeatureModel implements MapTileCollis
         {
             loadCollisionGroups(collisionGroups);
         }
+        loadTilesFormulas();
         loadTilesCollisions();
         applyConstraints();
     }
@@ -421,10 +490,17 @@ public class MapTileCollisionModel extends FeatureModel implements MapTileCollis
     {
         loadCollisionFormulas(formulasConfig);
         loadCollisionGroups(groupsConfig);
+        loadTilesFormulas();
         loadTilesCollisions();
         applyConstraints();
     }
 
+    @Override
+    public void updateCollisions(int tx, int ty)
+    {
+        updateTilesCollisions(tx, ty, 1, 1);
+    }
+
     @Override
     public void saveCollisions()
     {
@@ -455,32 +531,37 @@ public class MapTileCollisionModel extends FeatureModel implements MapTileCollis
     @Override
     public CollisionResult computeCollision(Transformable transformable, CollisionCategory category)
     {
-        // Distance calculation
-        final double sh = transformable.getOldX() + category.getOffsetX();
-        final double sv = transformable.getOldY() + category.getOffsetY();
-
-        final double dh = transformable.getX() + category.getOffsetX() - sh;
-        final double dv = transformable.getY() + category.getOffsetY() - sv;
+        final CollisionResult result = new CollisionResult();
+        if (computeCollision(transformable, category, result))
+        {
+            return result;
+        }
+        return null;
+    }
 
-        // Search vector and number of search steps
-        final double norm = Math.sqrt(dh * dh + dv * dv);
-        final double sx = dh / norm;
-        final double sy = dv / norm;
+    @Override
+    public boolean computeCollision(Transformable transformable, CollisionCategory category, CollisionResult result)
+    {
+        result.reset();
 
-        double h = sh;
-        double v = sv;
+        final double ox = transformable.getOldX() + category.getOffsetX();
+        final double oy = transformable.getOldY() + category.getOffsetY();
+        final double x = transformable.getX() + category.getOffsetX();
+        final double y = transformable.getY() + category.getOffsetY();
 
-        for (int count = 0; count < norm; count++)
+        if (Double.compare(ox, x) != 0 || Double.compare(oy, y) != 0)
         {
-            final CollisionResult found = getResult(category, sx, sy, h, v);
-            if (found != null)
+            traversal.start(ox, oy, x, y, map.getTileWidth(), map.getTileHeight());
+            while (traversal.next())
             {
-                return found;
+                final Tile tile = map.getTile(traversal.getInTileX(), traversal.getInTileY());
+                if (computeCollision(category, tile, ox, oy, x, y, result))
+                {
+                    return true;
+                }
             }
-            v += sy;
-            h += sx;
         }
-        return null;
+        return false;
     }
 
     @Override
@@ -17,8 +17,9 @@
  */
 package com.b3dgs.lionengine.game.collision.tile;
 
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashSet;
+import java.util.List;
 
 import com.b3dgs.lionengine.game.feature.Configurer;
 import com.b3dgs.lionengine.game.feature.Featurable;
@@ -35,14 +36,16 @@ import com.b3dgs.lionengine.game.tile.Tile;
  */
 public class TileCollidableModel extends FeatureModel implements TileCollidable
 {
-    /** Launcher listeners. */
-    private final Collection<TileCollidableListener> listeners = new HashSet<TileCollidableListener>();
+    /** Launcher listeners (unique, iterated by index). */
+    private final List<TileCollidableListener> listeners = new ArrayList<TileCollidableListener>();
+    /** Collision result, reused on each update. */
+    private final CollisionResult result = new CollisionResult();
     /** Configurer reference. */
     private final Configurer configurer;
     /** Transformable owning this model. */
     private Transformable transformable;
-    /** The collisions used. */
-    private Collection<CollisionCategory> categories;
+    /** The collisions used (iterated by index). */
+    private List<CollisionCategory> categories;
     /** Map tile reference. */
     private MapTileCollision map;
     /** Collision enabled. */
@@ -86,18 +89,17 @@ public class TileCollidableModel extends FeatureModel implements TileCollidable
      */
     private void update(CollisionCategory category)
     {
-        final CollisionResult result = map.computeCollision(transformable, category);
-        if (result != null)
+        if (map.computeCollision(transformable, category, result))
         {
-            if (result.getX() != null)
+            if (result.hasX())
             {
                 onCollided(result.getTile(), category.getAxis());
-                transformable.teleportX(result.getX().doubleValue());
+                transformable.teleportX(result.getValueX());
             }
-            if (result.getY() != null)
+            if (result.hasY())
             {
                 onCollided(result.getTile(), category.getAxis());
-                transformable.teleportY(result.getY().doubleValue());
+                transformable.teleportY(result.getValueY());
             }
         }
     }
@@ -110,9 +112,10 @@ public class TileCollidableModel extends FeatureModel implements TileCollidable
      */
     private void onCollided(Tile tile, Axis axis)
     {
-        for (final TileCollidableListener listener : listeners)
+        final int n = listeners.size();
+        for (int i = 0; i < n; i++)
         {
-            listener.notifyTileCollided(tile, axis);
+            listeners.get(i).notifyTileCollided(tile, axis);
         }
     }
 
@@ -125,7 +128,7 @@ public class TileCollidableModel extends FeatureModel implements TileCollidable
     {
         transformable = provider.getFeature(Transformable.class);
         map = services.get(MapTile.class).getFeature(MapTileCollision.class);
-        categories = CollisionCategoryConfig.imports(configurer, map);
+        categories = new ArrayList<CollisionCategory>(CollisionCategoryConfig.imports(configurer, map));
 
         if (provider instanceof TileCollidableListener)
         {
@@ -147,7 +150,10 @@ public class TileCollidableModel extends FeatureModel implements TileCollidable
     @Override
     public void addListener(TileCollidableListener listener)
     {
-        listeners.add(listener);
+        if (!listeners.contains(listener))
+        {
+            listeners.add(listener);
+        }
     }
 
     @Override
@@ -161,9 +167,10 @@ public class TileCollidableModel extends FeatureModel implements TileCollidable
     {
         if (enabled)
         {
-            for (final CollisionCategory category : categories)
+            final int n = categories.size();
+            for (int i = 0; i < n; i++)
             {
-                update(category);
+                update(categories.get(i));
             }
         }
     }
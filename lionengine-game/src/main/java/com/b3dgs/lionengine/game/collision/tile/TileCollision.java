@@ -54,6 +54,28 @@ public interface TileCollision extends Feature
      */
     void removeCollisionFormulas();
 
+    /**
+     * Compute the collision location between the tile and the movement vector, on the category axis, without
+     * allocation. The location is stored in the result as horizontal or vertical depending of the category axis.
+     * <p>
+     * The first formula crossed by the movement segment is used, whatever the movement length.
+     * </p>
+     * 
+     * @param category The collision category.
+     * @param ox The old horizontal location.
+     * @param oy The old vertical location.
+     * @param x The current horizontal location.
+     * @param y The current vertical location.
+     * @param result The result to fill (left unchanged if no collision).
+     * @return <code>true</code> if collision location found, <code>false</code> else.
+     */
+    boolean computeCollision(CollisionCategory category,
+                             double ox,
+                             double oy,
+                             double x,
+                             double y,
+                             CollisionResult result);
+
     /**
      * Get the horizontal collision location between the tile and the movement vector.
      * 
@@ -17,23 +17,26 @@
  */
 package com.b3dgs.lionengine.game.collision.tile;
 
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashSet;
+import java.util.List;
 
-import com.b3dgs.lionengine.LionEngineException;
 import com.b3dgs.lionengine.game.feature.FeatureModel;
 import com.b3dgs.lionengine.game.tile.Tile;
-import com.b3dgs.lionengine.util.UtilMath;
 
 /**
  * Tile collision implementation.
  */
 public class TileCollisionModel extends FeatureModel implements TileCollision
 {
-    /** The collision formulas used. */
-    private final Collection<CollisionFormula> formulas = new HashSet<CollisionFormula>();
+    /** The collision formulas used (unique, few per tile, iterated by index). */
+    private final List<CollisionFormula> formulas = new ArrayList<CollisionFormula>();
     /** Tile reference. */
     private final Tile tile;
+    /** Cached formulas mask. */
+    private long mask;
+    /** Index stamp of the cached mask (0 if invalid). */
+    private int maskStamp;
 
     /**
      * Create a tile collision.
@@ -47,134 +50,282 @@ public class TileCollisionModel extends FeatureModel implements TileCollision
     }
 
     /**
-     * Get the input value relative to tile.
+     * Narrow the lower progress bound so <code>start + t * delta</code> stays in <code>[min, max]</code>.
      * 
-     * @param input The input used.
-     * @param x The horizontal location.
-     * @param y The vertical location.
-     * @return The input value.
+     * @param lower The current lower bound.
+     * @param start The value at progress <code>0</code>.
+     * @param delta The value change from progress <code>0</code> to <code>1</code>.
+     * @param min The minimum value.
+     * @param max The maximum value.
+     * @return The narrowed lower bound ({@link Double#POSITIVE_INFINITY} if never in range).
      */
-    private int getInputValue(Axis input, double x, double y)
+    private static double clipLower(double lower, double start, double delta, double min, double max)
     {
-        switch (input)
+        final double bound;
+        if (delta > 0.0)
         {
-            case X:
-                return (int) (x - tile.getX());
-            case Y:
-                return (int) (y - tile.getY());
-            default:
-                throw new LionEngineException(input);
+            bound = (min - start) / delta;
         }
+        else if (delta < 0.0)
+        {
+            bound = (max - start) / delta;
+        }
+        else if (start < min || start > max)
+        {
+            bound = Double.POSITIVE_INFINITY;
+        }
+        else
+        {
+            bound = lower;
+        }
+        return Math.max(lower, bound);
+    }
+
+    /**
+     * Narrow the upper progress bound so <code>start + t * delta</code> stays in <code>[min, max]</code>.
+     * 
+     * @param upper The current upper bound.
+     * @param start The value at progress <code>0</code>.
+     * @param delta The value change from progress <code>0</code> to <code>1</code>.
+     * @param min The minimum value.
+     * @param max The maximum value.
+     * @return The narrowed upper bound ({@link Double#NEGATIVE_INFINITY} if never in range).
+     */
+    private static double clipUpper(double upper, double start, double delta, double min, double max)
+    {
+        final double bound;
+        if (delta > 0.0)
+        {
+            bound = (max - start) / delta;
+        }
+        else if (delta < 0.0)
+        {
+            bound = (min - start) / delta;
+        }
+        else if (start < min || start > max)
+        {
+            bound = Double.NEGATIVE_INFINITY;
+        }
+        else
+        {
+            bound = upper;
+        }
+        return Math.min(upper, bound);
     }
 
     /**
-     * Get the horizontal collision location between the tile and the movement vector.
+     * Check if value is inside a pixel range (maximum excluded).
+     * 
+     * @param value The value to check.
+     * @param min The range minimum.
+     * @param max The range maximum (excluded).
+     * @return <code>true</code> if inside, <code>false</code> else.
+     */
+    private static boolean isInside(double value, double min, double max)
+    {
+        return value >= min && value < max;
+    }
+
+    /**
+     * Get the movement progress where the formula is first entered.
+     * <p>
+     * The formula output is a one pixel thick band <code>[f(input), f(input) + 1]</code>, limited by the formula range
+     * (range maximum excluded, as pixels). The function is taken as <code>a * input + b</code>, exact for
+     * {@link CollisionFunctionLinear}. As the movement is linear, each constraint is a progress interval, and the hit
+     * is the lowest progress of their intersection.
+     * </p>
+     * <p>
+     * A movement starting inside the formula is leaving it, and a movement entering the input range after the band
+     * comes through the tile side: both do not hit.
+     * </p>
      * 
      * @param formula The collision formula.
+     * @param in The input value relative to tile at movement start.
+     * @param dIn The input movement.
+     * @param out The output value relative to tile at movement start.
+     * @param dOut The output movement.
+     * @param minIn The input range minimum.
+     * @param maxIn The input range maximum.
+     * @param minOut The output range minimum.
+     * @param maxOut The output range maximum.
+     * @return The hit progress in <code>[0, 1]</code>, {@link Double#POSITIVE_INFINITY} if not hit.
+     */
+    private static double getProgress(CollisionFormula formula,
+                                      double in,
+                                      double dIn,
+                                      double out,
+                                      double dOut,
+                                      int minIn,
+                                      int maxIn,
+                                      int minOut,
+                                      int maxOut)
+    {
+        final CollisionFunction function = formula.getFunction();
+        final double b = function.compute(0.0);
+        final double a = function.compute(1.0) - b;
+        final double band = out - a * in - b;
+        final double dBand = dOut - a * dIn;
+        final double endIn = maxIn + 1.0;
+        final double endOut = maxOut + 1.0;
+        final boolean leaving = isInside(in, minIn, endIn)
+                                && isInside(out, minOut, endOut)
+                                && isInside(band, 0.0, 1.0);
+
+        double progress = Double.POSITIVE_INFINITY;
+        if (!leaving)
+        {
+            final double lowerIn = clipLower(0.0, in, dIn, minIn, endIn);
+            final double lowerBand = clipLower(clipLower(0.0, out, dOut, minOut, endOut), band, dBand, 0.0, 1.0);
+            double upper = clipUpper(1.0, in, dIn, minIn, endIn);
+            upper = clipUpper(upper, out, dOut, minOut, endOut);
+            upper = clipUpper(upper, band, dBand, 0.0, 1.0);
+
+            final double middle = (lowerBand + upper) / 2.0;
+            if (lowerIn <= lowerBand
+                && lowerBand <= upper
+                && in + middle * dIn < endIn
+                && out + middle * dOut < endOut)
+            {
+                progress = lowerBand;
+            }
+        }
+        return progress;
+    }
+
+    /**
+     * Get the movement progress where the formula is first hit.
+     * 
+     * @param axis The formula output axis.
+     * @param formula The collision formula.
      * @param ox The old horizontal location.
      * @param oy The old vertical location.
      * @param x The current horizontal location.
      * @param y The current vertical location.
-     * @param offsetX The horizontal offset.
-     * @return The horizontal collision (<code>null</code> if none).
+     * @return The hit progress in <code>[0, 1]</code>, {@link Double#POSITIVE_INFINITY} if not hit.
      */
-    private Double getCollisionX(CollisionFormula formula, double ox, double oy, double x, double y, int offsetX)
+    private double getProgress(Axis axis, CollisionFormula formula, double ox, double oy, double x, double y)
     {
         final CollisionRange range = formula.getRange();
-        if (range.getOutput() == Axis.X)
+        final double rx = ox - tile.getX();
+        final double ry = oy - tile.getY();
+        if (axis == Axis.X)
         {
-            final int value = getInputValue(Axis.Y, x, y);
-            if (UtilMath.isBetween(value, range.getMinY(), range.getMaxY()))
-            {
-                final int current = getInputValue(Axis.X, x, y);
-                final int previous = getInputValue(Axis.X, ox, oy);
-                final double result = formula.getFunction().compute(previous);
-                if (UtilMath.isBetween(current, range.getMinX(), range.getMaxX()))
-                {
-                    return getCollisionX(ox, x, result, offsetX);
-                }
-            }
+            return getProgress(formula,
+                               ry,
+                               y - oy,
+                               rx,
+                               x - ox,
+                               range.getMinY(),
+                               range.getMaxY(),
+                               range.getMinX(),
+                               range.getMaxX());
         }
-        return null;
+        return getProgress(formula,
+                           rx,
+                           x - ox,
+                           ry,
+                           y - oy,
+                           range.getMinX(),
+                           range.getMaxX(),
+                           range.getMinY(),
+                           range.getMaxY());
     }
 
     /**
-     * Get the horizontal collision location between the tile and the movement vector.
+     * Get the collision location on an axis at the hit progress, just before the formula band.
      * 
-     * @param ox The old horizontal location.
-     * @param x The current horizontal location.
-     * @param result The computed horizontal location.
-     * @param offsetX The horizontal offset.
-     * @return The horizontal collision (<code>null</code> if none).
+     * @param axis The collision axis.
+     * @param formula The hit formula.
+     * @param offset The category offset on axis.
+     * @param delta The movement on axis.
+     * @param input The input location relative to tile at hit.
+     * @return The collision location.
      */
-    private Double getCollisionX(double ox, double x, double result, int offsetX)
+    private double getLocation(Axis axis, CollisionFormula formula, int offset, double delta, double input)
     {
-        final double coll = tile.getX() + result - offsetX;
-        final Double collisionX;
-        if (x > ox)
+        final double start;
+        if (axis == Axis.X)
         {
-            collisionX = Double.valueOf(coll - 1);
+            start = tile.getX();
         }
         else
         {
-            collisionX = Double.valueOf(coll + 1);
+            start = tile.getY();
         }
-        return collisionX;
+        final double coll = start + formula.getFunction().compute(input) - offset;
+        final double location;
+        if (delta > 0.0)
+        {
+            location = coll - 1;
+        }
+        else
+        {
+            location = coll + 1;
+        }
+        return location;
     }
 
     /**
-     * Get the vertical collision location between the tile and the movement vector.
+     * Get the collision location on an axis between the tile and the movement vector, on the first hit formula.
      * 
-     * @param formula The collision formula.
+     * @param axis The collision axis.
+     * @param category The collision category.
      * @param ox The old horizontal location.
      * @param oy The old vertical location.
      * @param x The current horizontal location.
      * @param y The current vertical location.
-     * @param offsetY The vertical offset.
-     * @return The vertical collision (<code>null</code> if none).
+     * @return The collision location ({@link Double#NaN} if none).
      */
-    private Double getCollisionY(CollisionFormula formula, double ox, double oy, double x, double y, int offsetY)
+    private double getCollision(Axis axis, CollisionCategory category, double ox, double oy, double x, double y)
     {
-        final CollisionRange range = formula.getRange();
-        if (range.getOutput() == Axis.Y && ox >= tile.getX() + range.getMinX() && ox <= tile.getX() + range.getMaxX())
+        final Collection<CollisionFormula> accepted = category.getFormulas();
+        CollisionFormula hit = null;
+        double first = Double.POSITIVE_INFINITY;
+        final int n = formulas.size();
+        for (int i = 0; i < n; i++)
         {
-            final int value = getInputValue(Axis.X, x, y);
-            if (UtilMath.isBetween(value, range.getMinX(), range.getMaxX()))
+            final CollisionFormula formula = formulas.get(i);
+            if (axis == formula.getRange().getOutput() && accepted.contains(formula))
             {
-                final int current = getInputValue(Axis.Y, x, y);
-                final int previous = getInputValue(Axis.Y, ox, oy);
-                final double result = formula.getFunction().compute(previous);
-                if (UtilMath.isBetween(current, range.getMinY(), range.getMaxY()))
+                final double progress = getProgress(axis, formula, ox, oy, x, y);
+                if (progress < first)
                 {
-                    return getCollisionY(oy, y, result, offsetY);
+                    first = progress;
+                    hit = formula;
                 }
             }
         }
-        return null;
+        final double location;
+        if (hit == null)
+        {
+            location = Double.NaN;
+        }
+        else if (axis == Axis.X)
+        {
+            location = getLocation(axis, hit, category.getOffsetX(), x - ox, oy + first * (y - oy) - tile.getY());
+        }
+        else
+        {
+            location = getLocation(axis, hit, category.getOffsetY(), y - oy, ox + first * (x - ox) - tile.getX());
+        }
+        return location;
     }
 
     /**
-     * Get the vertical collision location between the tile and the movement vector.
+     * Get the formulas mask, computed once per index stamp and formulas change.
      * 
-     * @param oy The old vertical location.
-     * @param y The current vertical location.
-     * @param result The computed vertical location.
-     * @param offsetY The vertical offset.
-     * @return The vertical collision (<code>null</code> if none).
+     * @param index The formulas index.
+     * @return The formulas mask.
      */
-    private Double getCollisionY(double oy, double y, double result, int offsetY)
+    long getMask(CollisionFormulaIndex index)
     {
-        final double coll = tile.getY() + result - offsetY;
-        final Double collisionY;
-        if (y > oy)
-        {
-            collisionY = Double.valueOf(coll - 1);
-        }
-        else
+        final int stamp = index.getStamp();
+        if (maskStamp != stamp)
         {
-            collisionY = Double.valueOf(coll + 1);
+            mask = index.getMask(formulas);
+            maskStamp = stamp;
         }
-        return collisionY;
+        return mask;
     }
 
     /*
@@ -184,33 +335,61 @@ public class TileCollisionModel extends FeatureModel implements TileCollision
     @Override
     public void addCollisionFormula(CollisionFormula formula)
     {
-        formulas.add(formula);
+        if (!formulas.contains(formula))
+        {
+            formulas.add(formula);
+            maskStamp = 0;
+        }
     }
 
     @Override
     public void removeCollisionFormula(CollisionFormula formula)
     {
         formulas.remove(formula);
+        maskStamp = 0;
     }
 
     @Override
     public void removeCollisionFormulas()
     {
         formulas.clear();
+        maskStamp = 0;
+    }
+
+    @Override
+    public boolean computeCollision(CollisionCategory category,
+                                    double ox,
+                                    double oy,
+                                    double x,
+                                    double y,
+                                    CollisionResult result)
+    {
+        final Axis axis = category.getAxis();
+        final double collision = getCollision(axis, category, ox, oy, x, y);
+        if (Double.isNaN(collision))
+        {
+            return false;
+        }
+        if (axis == Axis.X)
+        {
+            result.setX(collision);
+        }
+        else
+        {
+            result.setY(collision);
+        }
+        return true;
     }
 
     @Override
     public Double getCollisionX(CollisionCategory category, double ox, double oy, double x, double y)
     {
-        for (final CollisionFormula formula : category.getFormulas())
+        if (category.getAxis() == Axis.X)
         {
-            if (formulas.contains(formula) && category.getAxis() == formula.getRange().getOutput())
+            final double collision = getCollision(Axis.X, category, ox, oy, x, y);
+            if (!Double.isNaN(collision))
             {
-                final Double collisionX = getCollisionX(formula, ox, oy, x, y, category.getOffsetX());
-                if (collisionX != null)
-                {
-                    return collisionX;
-                }
+                return Double.valueOf(collision);
             }
         }
         return null;
@@ -219,15 +398,12 @@ public class TileCollisionModel extends FeatureModel implements TileCollision
     @Override
     public Double getCollisionY(CollisionCategory category, double ox, double oy, double x, double y)
     {
-        for (final CollisionFormula formula : category.getFormulas())
+        if (category.getAxis() == Axis.Y)
         {
-            if (formulas.contains(formula) && category.getAxis() == formula.getRange().getOutput())
+            final double collision = getCollision(Axis.Y, category, ox, oy, x, y);
+            if (!Double.isNaN(collision))
             {
-                final Double collisionY = getCollisionY(formula, ox, oy, x, y, category.getOffsetY());
-                if (collisionY != null)
-                {
-                    return collisionY;
-                }
+                return Double.valueOf(collision);
             }
         }
         return null;
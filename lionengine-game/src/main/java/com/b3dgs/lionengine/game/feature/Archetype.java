@@ -0,0 +1,317 @@
+/*
+ * Copyright (C) 2013-2016 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Table of featurables sharing the same features set, where each feature class is stored in a dense column.
+ * <p>
+ * Rows are kept dense: removing a row moves the last one in place. Requested types are resolved once to their column
+ * (exact feature class, or first assignable one), and cached by type identifier.
+ * </p>
+ * 
+ * @see Archetypes
+ */
+public final class Archetype
+{
+    /** Unresolved column. */
+    private static final int UNRESOLVED = -2;
+    /** No column. */
+    private static final int NONE = -1;
+    /** Initial rows capacity. */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /** Archetypes owner. */
+    private final Archetypes archetypes;
+    /** Features class identifiers. */
+    private final BitSet signature;
+    /** Features class by column. */
+    private final Class<?>[] classes;
+    /** Features types (classes and their features interfaces). */
+    private final Collection<Class<? extends Feature>> types;
+    /** Next archetypes by added feature class. */
+    private final Map<Class<?>, Archetype> nexts = new IdentityHashMap<Class<?>, Archetype>();
+    /** Features columns. */
+    private final Feature[][] columns;
+    /** Rows owner. */
+    private FeaturesArchetype[] owners = new FeaturesArchetype[INITIAL_CAPACITY];
+    /** Resolved column by type identifier. */
+    private int[] resolved = new int[0];
+    /** Rows number. */
+    private int size;
+
+    /**
+     * Create archetype.
+     * 
+     * @param archetypes The archetypes owner.
+     * @param signature The features class identifiers.
+     * @param classes The features class, in identifier order.
+     */
+    Archetype(Archetypes archetypes, BitSet signature, List<Class<? extends Feature>> classes)
+    {
+        this.archetypes = archetypes;
+        this.signature = signature;
+        this.classes = classes.toArray(new Class<?>[classes.size()]);
+        columns = new Feature[classes.size()][INITIAL_CAPACITY];
+
+        final Collection<Class<? extends Feature>> keys = new ArrayList<Class<? extends Feature>>();
+        for (final Class<? extends Feature> type : classes)
+        {
+            keys.add(type);
+            for (final Class<?> current : type.getInterfaces())
+            {
+                if (Feature.class.isAssignableFrom(current) && !keys.contains(current))
+                {
+                    keys.add(current.asSubclass(Feature.class));
+                }
+            }
+        }
+        types = Collections.unmodifiableCollection(keys);
+    }
+
+    /**
+     * Get the rows number.
+     * 
+     * @return The rows number.
+     */
+    public int getSize()
+    {
+        return size;
+    }
+
+    /**
+     * Get the column storing the feature type.
+     * 
+     * @param id The feature type identifier (see {@link Archetypes#getId(Class)}).
+     * @return The column, valid from <code>0</code> to {@link #getSize()} excluded, <code>null</code> if none.
+     */
+    public Feature[] getColumn(int id)
+    {
+        final int column = getColumnIndex(id);
+        if (column > NONE)
+        {
+            return columns[column];
+        }
+        return null;
+    }
+
+    /**
+     * Get the column index of the feature type.
+     * 
+     * @param id The feature type identifier.
+     * @return The column index, {@link #NONE} if none.
+     */
+    int getColumnIndex(int id)
+    {
+        if (id >= resolved.length)
+        {
+            final int old = resolved.length;
+            resolved = Arrays.copyOf(resolved, Math.max(id + 1, archetypes.getTypesNumber()));
+            Arrays.fill(resolved, old, resolved.length, UNRESOLVED);
+        }
+        if (resolved[id] == UNRESOLVED)
+        {
+            resolved[id] = resolve(archetypes.getType(id));
+        }
+        return resolved[id];
+    }
+
+    /**
+     * Get the column index of the feature class.
+     * 
+     * @param type The feature class.
+     * @return The column index, {@link #NONE} if none.
+     */
+    int getClassIndex(Class<?> type)
+    {
+        for (int i = 0; i < classes.length; i++)
+        {
+            if (classes[i] == type)
+            {
+                return i;
+            }
+        }
+        return NONE;
+    }
+
+    /**
+     * Get the columns number.
+     * 
+     * @return The columns number.
+     */
+    int getColumns()
+    {
+        return classes.length;
+    }
+
+    /**
+     * Get the feature class of the column.
+     * 
+     * @param column The column index.
+     * @return The feature class.
+     */
+    Class<?> getFeatureClass(int column)
+    {
+        return classes[column];
+    }
+
+    /**
+     * Get the features types.
+     * 
+     * @return The features types.
+     */
+    Collection<Class<? extends Feature>> getTypes()
+    {
+        return types;
+    }
+
+    /**
+     * Get a copy of the features class identifiers.
+     * 
+     * @return The features class identifiers.
+     */
+    BitSet getSignature()
+    {
+        return (BitSet) signature.clone();
+    }
+
+    /**
+     * Get the next archetype when adding a feature class.
+     * 
+     * @param added The added feature class.
+     * @return The next archetype, <code>null</code> if not yet known.
+     */
+    Archetype getNext(Class<?> added)
+    {
+        return nexts.get(added);
+    }
+
+    /**
+     * Set the next archetype when adding a feature class.
+     * 
+     * @param added The added feature class.
+     * @param next The next archetype.
+     */
+    void setNext(Class<?> added, Archetype next)
+    {
+        nexts.put(added, next);
+    }
+
+    /**
+     * Get a feature.
+     * 
+     * @param row The row index.
+     * @param column The column index.
+     * @return The feature.
+     */
+    Feature get(int row, int column)
+    {
+        return columns[column][row];
+    }
+
+    /**
+     * Set a feature.
+     * 
+     * @param row The row index.
+     * @param column The column index.
+     * @param feature The feature.
+     */
+    void set(int row, int column, Feature feature)
+    {
+        columns[column][row] = feature;
+    }
+
+    /**
+     * Add a row.
+     * 
+     * @param owner The row owner.
+     * @return The row index, features to be set.
+     */
+    int add(FeaturesArchetype owner)
+    {
+        if (size == owners.length)
+        {
+            final int capacity = size * 2;
+            owners = Arrays.copyOf(owners, capacity);
+            for (int i = 0; i < columns.length; i++)
+            {
+                columns[i] = Arrays.copyOf(columns[i], capacity);
+            }
+        }
+        owners[size] = owner;
+        size++;
+        return size - 1;
+    }
+
+    /**
+     * Remove a row, moving the last one in place.
+     * 
+     * @param row The row index.
+     */
+    void remove(int row)
+    {
+        final int last = size - 1;
+        for (final Feature[] column : columns)
+        {
+            column[row] = column[last];
+            column[last] = null;
+        }
+        owners[row] = owners[last];
+        owners[last] = null;
+        if (row < last)
+        {
+            owners[row].setRow(row);
+        }
+        size--;
+    }
+
+    /**
+     * Resolve the column of a feature type: the exact feature class, else the last one declaring it as interface, else
+     * the first assignable one.
+     * 
+     * @param type The feature type.
+     * @return The column index, {@link #NONE} if none.
+     */
+    private int resolve(Class<?> type)
+    {
+        int column = getClassIndex(type);
+        for (int i = classes.length - 1; column == NONE && i >= 0; i--)
+        {
+            if (Arrays.asList(classes[i].getInterfaces()).contains(type))
+            {
+                column = i;
+            }
+        }
+        for (int i = 0; column == NONE && i < classes.length; i++)
+        {
+            if (type.isAssignableFrom(classes[i]))
+            {
+                column = i;
+            }
+        }
+        return column;
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright (C) 2013-2016 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Archetypes storage, shared by featurables using {@link FeaturesArchetype}.
+ * <p>
+ * Each feature type gets a dense identifier on registration, and featurables with the same set of features share the
+ * same {@link Archetype}, where each feature is stored in a dense column. Systems can then iterate a feature column
+ * contiguously:
+ * </p>
+ * 
+ * <pre>
+ * final int id = archetypes.getId(Transformable.class);
+ * for (final Archetype archetype : archetypes.getArchetypes())
+ * {
+ *     final Feature[] column = archetype.getColumn(id);
+ *     for (int row = 0; column != null &amp;&amp; row &lt; archetype.getSize(); row++)
+ *     {
+ *         final Transformable transformable = (Transformable) column[row];
+ *     }
+ * }
+ * </pre>
+ */
+public final class Archetypes
+{
+    /** Features type identifiers. */
+    private final Map<Class<?>, Integer> ids = new IdentityHashMap<Class<?>, Integer>();
+    /** Features type by identifier. */
+    private final List<Class<? extends Feature>> types = new ArrayList<Class<? extends Feature>>();
+    /** Archetypes by features class identifier set. */
+    private final Map<BitSet, Archetype> archetypes = new HashMap<BitSet, Archetype>();
+    /** Archetypes in creation order. */
+    private final List<Archetype> values = new ArrayList<Archetype>();
+    /** Archetype without feature. */
+    private final Archetype root;
+
+    /**
+     * Create archetypes storage.
+     */
+    public Archetypes()
+    {
+        super();
+        root = create(new BitSet());
+    }
+
+    /**
+     * Get the feature type identifier, registering it on first call.
+     * 
+     * @param type The feature type (class or interface).
+     * @return The feature type identifier.
+     */
+    public int getId(Class<? extends Feature> type)
+    {
+        final Integer id = ids.get(type);
+        if (id != null)
+        {
+            return id.intValue();
+        }
+        final int next = types.size();
+        ids.put(type, Integer.valueOf(next));
+        types.add(type);
+        return next;
+    }
+
+    /**
+     * Get the registered feature types number.
+     * 
+     * @return The feature types number.
+     */
+    public int getTypesNumber()
+    {
+        return types.size();
+    }
+
+    /**
+     * Get all archetypes.
+     * 
+     * @return The archetypes.
+     */
+    public Collection<Archetype> getArchetypes()
+    {
+        return Collections.unmodifiableCollection(values);
+    }
+
+    /**
+     * Get the feature type from its identifier.
+     * 
+     * @param id The feature type identifier.
+     * @return The feature type.
+     */
+    Class<? extends Feature> getType(int id)
+    {
+        return types.get(id);
+    }
+
+    /**
+     * Get the archetype without feature.
+     * 
+     * @return The root archetype.
+     */
+    Archetype getRoot()
+    {
+        return root;
+    }
+
+    /**
+     * Get the archetype with the features of the current one, plus the added feature class.
+     * 
+     * @param current The current archetype.
+     * @param added The added feature class.
+     * @return The archetype found or created.
+     */
+    Archetype getArchetype(Archetype current, Class<? extends Feature> added)
+    {
+        Archetype next = current.getNext(added);
+        if (next == null)
+        {
+            final BitSet signature = current.getSignature();
+            signature.set(getId(added));
+            next = archetypes.get(signature);
+            if (next == null)
+            {
+                next = create(signature);
+            }
+            current.setNext(added, next);
+        }
+        return next;
+    }
+
+    /**
+     * Create the archetype of features class set.
+     * 
+     * @param signature The features class identifiers.
+     * @return The created archetype.
+     */
+    private Archetype create(BitSet signature)
+    {
+        final List<Class<? extends Feature>> classes = new ArrayList<Class<? extends Feature>>();
+        for (int id = signature.nextSetBit(0); id >= 0; id = signature.nextSetBit(id + 1))
+        {
+            classes.add(types.get(id));
+        }
+        final Archetype archetype = new Archetype(this, signature, classes);
+        archetypes.put(signature, archetype);
+        values.add(archetype);
+        return archetype;
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (C) 2013-2016 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature;
+
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.game.feature.identifiable.Identifiable;
+import com.b3dgs.lionengine.game.feature.identifiable.IdentifiableListener;
+
+/**
+ * Featurable model storing its features in shared {@link Archetypes}.
+ * <p>
+ * Features are released from their archetype when the {@link Identifiable} feature is destroyed.
+ * </p>
+ * 
+ * @see FeaturesArchetype
+ */
+public class FeaturableArchetype extends FeaturableModel implements IdentifiableListener
+{
+    /** Archetype features. */
+    private final FeaturesArchetype features;
+    /** Listening identifiable. */
+    private boolean listening;
+
+    /**
+     * Create model.
+     * 
+     * @param archetypes The archetypes storage.
+     * @throws LionEngineException If <code>null</code> argument.
+     */
+    public FeaturableArchetype(Archetypes archetypes)
+    {
+        this(new FeaturesArchetype(archetypes));
+    }
+
+    /**
+     * Create model.
+     * 
+     * @param features The archetype features.
+     */
+    private FeaturableArchetype(FeaturesArchetype features)
+    {
+        super(features);
+
+        this.features = features;
+    }
+
+    /**
+     * Get the archetype features.
+     * 
+     * @return The archetype features.
+     */
+    public FeaturesArchetype getArchetypeFeatures()
+    {
+        return features;
+    }
+
+    /*
+     * Featurable
+     */
+
+    @Override
+    public void prepareFeatures(Services services)
+    {
+        super.prepareFeatures(services);
+
+        if (!listening && hasFeature(Identifiable.class))
+        {
+            getFeature(Identifiable.class).addListener(this);
+            listening = true;
+        }
+    }
+
+    /*
+     * IdentifiableListener
+     */
+
+    @Override
+    public void notifyDestroyed(Integer id)
+    {
+        features.release();
+    }
+}
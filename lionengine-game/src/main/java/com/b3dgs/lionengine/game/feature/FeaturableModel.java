@@ -22,6 +22,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
 
+import com.b3dgs.lionengine.Check;
 import com.b3dgs.lionengine.Constant;
 import com.b3dgs.lionengine.LionEngineException;
 import com.b3dgs.lionengine.util.UtilReflection;
@@ -37,7 +38,7 @@ public class FeaturableModel implements Featurable
     /** Features to prepare. */
     private final Collection<Feature> featuresToPrepare = new ArrayList<Feature>();
     /** Features provider. */
-    private final Features features = new Features();
+    private final Features features;
     /** Services filled. */
     private boolean filled;
 
@@ -45,8 +46,22 @@ public class FeaturableModel implements Featurable
      * Create model.
      */
     public FeaturableModel()
+    {
+        this(new Features());
+    }
+
+    /**
+     * Create model with a custom features storage.
+     * 
+     * @param features The features storage.
+     * @throws LionEngineException If <code>null</code> argument.
+     */
+    public FeaturableModel(Features features)
     {
         super();
+        Check.notNull(features);
+
+        this.features = features;
     }
 
     /**
@@ -99,6 +114,27 @@ public class FeaturableModel implements Featurable
         return toInject;
     }
 
+    /**
+     * Get the service to inject, looking first for a feature of this type.
+     * 
+     * @param services The services reference.
+     * @param type The service type.
+     * @return The feature if available, the service else.
+     * @throws LionEngineException If service not found.
+     */
+    private Object getService(Services services, Class<?> type)
+    {
+        if (Feature.class.isAssignableFrom(type))
+        {
+            final Class<? extends Feature> clazz = type.asSubclass(Feature.class);
+            if (hasFeature(clazz))
+            {
+                return getFeature(clazz);
+            }
+        }
+        return services.get(type);
+    }
+
     /**
      * Set the field service only if currently <code>null</code>.
      * 
@@ -114,15 +150,7 @@ public class FeaturableModel implements Featurable
         {
             if (field.get(object) == null)
             {
-                final Class<? extends Feature> clazz;
-                if (Feature.class.isAssignableFrom(type) && hasFeature(clazz = type.asSubclass(Feature.class)))
-                {
-                    field.set(object, getFeature(clazz));
-                }
-                else
-                {
-                    field.set(object, services.get(type));
-                }
+                field.set(object, getService(services, type));
             }
         }
         catch (final IllegalAccessException exception)
@@ -0,0 +1,216 @@
+/*
+ * Copyright (C) 2013-2016 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature;
+
+import java.util.ArrayList;
+import java.util.Collection;
+
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.LionEngineException;
+
+/**
+ * Features stored as a row of an {@link Archetype}, shared with the featurables having the same features set.
+ * <p>
+ * Adding a feature moves the row to the archetype with this feature. Once {@link #release()}, the row is removed from
+ * its archetype, and features remain accessible from a detached copy.
+ * </p>
+ * 
+ * @see Archetypes
+ */
+public class FeaturesArchetype extends Features
+{
+    /** Feature not found error. */
+    private static final String ERROR_FEATURE_NOT_FOUND = "Feature not found: ";
+    /** Released error. */
+    private static final String ERROR_RELEASED = "Features released, cannot add: ";
+
+    /** Archetypes storage. */
+    private final Archetypes archetypes;
+    /** Current archetype. */
+    private Archetype archetype;
+    /** Row in current archetype. */
+    private int row;
+    /** Detached features once released (<code>null</code> if stored). */
+    private Feature[] detached;
+
+    /**
+     * Create features stored in archetypes.
+     * 
+     * @param archetypes The archetypes storage.
+     * @throws LionEngineException If <code>null</code> argument.
+     */
+    public FeaturesArchetype(Archetypes archetypes)
+    {
+        super();
+        Check.notNull(archetypes);
+
+        this.archetypes = archetypes;
+        archetype = archetypes.getRoot();
+        row = archetype.add(this);
+    }
+
+    /**
+     * Get a feature from its type identifier, without any type lookup.
+     * 
+     * @param id The feature type identifier (see {@link Archetypes#getId(Class)}).
+     * @return The feature instance.
+     * @throws LionEngineException If the feature was not found.
+     */
+    public Feature get(int id)
+    {
+        final int column = archetype.getColumnIndex(id);
+        if (column < 0)
+        {
+            throw new LionEngineException(ERROR_FEATURE_NOT_FOUND, archetypes.getType(id).getName());
+        }
+        return get(row, column);
+    }
+
+    /**
+     * Get the current archetype.
+     * 
+     * @return The archetype.
+     */
+    public Archetype getArchetype()
+    {
+        return archetype;
+    }
+
+    /**
+     * Remove the features from their archetype. Features remain accessible, but adding a feature is not allowed.
+     */
+    public void release()
+    {
+        if (detached == null)
+        {
+            final Feature[] features = new Feature[archetype.getColumns()];
+            for (int i = 0; i < features.length; i++)
+            {
+                features[i] = archetype.get(row, i);
+            }
+            archetype.remove(row);
+            detached = features;
+        }
+    }
+
+    /**
+     * Set the row index, when moved in its archetype.
+     * 
+     * @param row The row index.
+     */
+    void setRow(int row)
+    {
+        this.row = row;
+    }
+
+    /**
+     * Get the feature at column.
+     * 
+     * @param row The row index.
+     * @param column The column index.
+     * @return The feature.
+     */
+    private Feature get(int row, int column)
+    {
+        if (detached == null)
+        {
+            return archetype.get(row, column);
+        }
+        return detached[column];
+    }
+
+    /*
+     * Features
+     */
+
+    /**
+     * {@inheritDoc}
+     * 
+     * @throws LionEngineException If released.
+     */
+    @Override
+    public void add(Feature feature)
+    {
+        Check.notNull(feature);
+        if (detached != null)
+        {
+            throw new LionEngineException(ERROR_RELEASED, feature.getClass().getName());
+        }
+
+        final Class<? extends Feature> type = feature.getClass();
+        final int column = archetype.getClassIndex(type);
+        if (column > -1)
+        {
+            archetype.set(row, column, feature);
+        }
+        else
+        {
+            final Archetype next = archetypes.getArchetype(archetype, type);
+            final int nextRow = next.add(this);
+            for (int i = 0; i < next.getColumns(); i++)
+            {
+                final Class<?> current = next.getFeatureClass(i);
+                if (current == type)
+                {
+                    next.set(nextRow, i, feature);
+                }
+                else
+                {
+                    next.set(nextRow, i, archetype.get(row, archetype.getClassIndex(current)));
+                }
+            }
+            archetype.remove(row);
+            archetype = next;
+            row = nextRow;
+        }
+    }
+
+    @Override
+    public <C extends Feature> C get(Class<C> feature)
+    {
+        final int column = archetype.getColumnIndex(archetypes.getId(feature));
+        if (column < 0)
+        {
+            throw new LionEngineException(ERROR_FEATURE_NOT_FOUND, feature.getName());
+        }
+        return feature.cast(get(row, column));
+    }
+
+    @Override
+    public <C extends Feature> boolean contains(Class<C> feature)
+    {
+        return archetype.getColumnIndex(archetypes.getId(feature)) > -1;
+    }
+
+    @Override
+    public Iterable<Feature> getFeatures()
+    {
+        final Collection<Feature> features = new ArrayList<Feature>(archetype.getColumns());
+        for (int i = 0; i < archetype.getColumns(); i++)
+        {
+            features.add(get(row, i));
+        }
+        return features;
+    }
+
+    @Override
+    public Iterable<Class<? extends Feature>> getFeaturesType()
+    {
+        return archetype.getTypes();
+    }
+}
@@ -20,9 +20,9 @@ package com.b3dgs.lionengine.game.handler;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
 import java.util.Map;
-import java.util.Set;
 
 import com.b3dgs.lionengine.LionEngineException;
 import com.b3dgs.lionengine.game.feature.Featurable;
@@ -32,16 +32,58 @@ import com.b3dgs.lionengine.util.UtilReflection;
 
 /**
  * Handlables implementation.
+ * <p>
+ * The types of each featurable class and feature type are computed once by reflection, and cached. Items of a type are
+ * stored in an identity set, preserving insertion order.
+ * </p>
  */
 final class HandlablesImpl implements Handlables
 {
     /** Featurable not found error. */
     private static final String ERROR_FEATURABLE_NOT_FOUND = "Featurable not found: ";
 
+    /**
+     * Get the featurable class types (interfaces, class and super class interfaces).
+     * 
+     * @param type The featurable class.
+     * @return The types.
+     */
+    private static Class<?>[] computeFeaturableTypes(Class<?> type)
+    {
+        final Collection<Class<?>> types = new LinkedHashSet<Class<?>>();
+        Collections.addAll(types, type.getInterfaces());
+        types.add(type);
+        Class<?> current = type;
+        while (current != null)
+        {
+            Collections.addAll(types, current.getInterfaces());
+            current = current.getSuperclass();
+        }
+        return types.toArray(new Class<?>[types.size()]);
+    }
+
+    /**
+     * Get the feature types (feature type and its feature interfaces).
+     * 
+     * @param feature The feature type.
+     * @return The types.
+     */
+    private static Class<?>[] computeFeatureTypes(Class<? extends Feature> feature)
+    {
+        final Collection<Class<?>> types = new LinkedHashSet<Class<?>>();
+        types.add(feature);
+        types.addAll(UtilReflection.getInterfaces(feature, Feature.class));
+        return types.toArray(new Class<?>[types.size()]);
+    }
+
     /** List of featurables (key is the featurable ID). */
     private final Map<Integer, Featurable> featurables;
     /** List of typed items (key is the feature type). */
-    private final Map<Class<?>, Set<Object>> items;
+    private final Map<Class<?>, HandlablesSet> items;
+    /** Cached featurable class types. */
+    private final Map<Class<?>, Class<?>[]> featurablesTypes;
+    /** Cached feature types. */
+    private final Map<Class<?>, Class<?>[]> featuresTypes;
 
     /**
      * Create the handlables.
@@ -49,7 +91,9 @@ final class HandlablesImpl implements Handlables
     HandlablesImpl()
     {
         featurables = new HashMap<Integer, Featurable>();
-        items = new HashMap<Class<?>, Set<Object>>();
+        items = new IdentityHashMap<Class<?>, HandlablesSet>();
+        featurablesTypes = new IdentityHashMap<Class<?>, Class<?>[]>();
+        featuresTypes = new IdentityHashMap<Class<?>, Class<?>[]>();
     }
 
     /**
@@ -61,22 +105,18 @@ final class HandlablesImpl implements Handlables
     {
         featurables.put(featurable.getFeature(Identifiable.class).getId(), featurable);
 
-        for (final Class<?> type : featurable.getClass().getInterfaces())
-        {
-            addType(type, featurable);
-        }
-
         for (final Class<? extends Feature> feature : featurable.getFeaturesType())
         {
             final Feature object = featurable.getFeature(feature);
-            addType(feature, object);
-            for (final Class<?> other : UtilReflection.getInterfaces(feature, Feature.class))
+            for (final Class<?> type : getFeatureTypes(feature))
             {
-                addType(other, object);
+                addType(type, object);
             }
         }
-        addType(featurable.getClass(), featurable);
-        addSuperClass(featurable, featurable.getClass());
+        for (final Class<?> type : getFeaturableTypes(featurable.getClass()))
+        {
+            addType(type, featurable);
+        }
     }
 
     /**
@@ -86,23 +126,18 @@ final class HandlablesImpl implements Handlables
      */
     public void remove(Featurable featurable)
     {
-        for (final Class<?> type : featurable.getClass().getInterfaces())
-        {
-            remove(type, featurable);
-        }
-
         for (final Class<? extends Feature> feature : featurable.getFeaturesType())
         {
             final Feature object = featurable.getFeature(feature);
-            remove(feature, object);
-            for (final Class<?> other : UtilReflection.getInterfaces(feature, Feature.class))
+            for (final Class<?> type : getFeatureTypes(feature))
             {
-                remove(other, object);
+                remove(type, object);
             }
-
         }
-        remove(featurable.getClass(), featurable);
-        removeSuperClass(featurable, featurable.getClass());
+        for (final Class<?> type : getFeaturableTypes(featurable.getClass()))
+        {
+            remove(type, featurable);
+        }
 
         featurables.remove(featurable.getFeature(Identifiable.class).getId());
     }
@@ -118,56 +153,54 @@ final class HandlablesImpl implements Handlables
     }
 
     /**
-     * Add a type from its interface.
+     * Get the cached featurable class types, computed on first call.
      * 
-     * @param type The type interface.
-     * @param object The type value.
+     * @param featurable The featurable class.
+     * @return The types.
      */
-    private void addType(Class<?> type, Object object)
+    private Class<?>[] getFeaturableTypes(Class<?> featurable)
     {
-        if (!items.containsKey(type))
+        Class<?>[] types = featurablesTypes.get(featurable);
+        if (types == null)
         {
-            items.put(type, new HashSet<Object>());
+            types = computeFeaturableTypes(featurable);
+            featurablesTypes.put(featurable, types);
         }
-        items.get(type).add(object);
+        return types;
     }
 
     /**
-     * Add object parent super type.
+     * Get the cached feature types, computed on first call.
      * 
-     * @param object The current object to check.
-     * @param type The current class level to check.
+     * @param feature The feature type.
+     * @return The types.
      */
-    private void addSuperClass(Object object, Class<?> type)
+    private Class<?>[] getFeatureTypes(Class<? extends Feature> feature)
     {
-        for (final Class<?> types : type.getInterfaces())
-        {
-            addType(types, object);
-        }
-        final Class<?> parent = type.getSuperclass();
-        if (parent != null)
+        Class<?>[] types = featuresTypes.get(feature);
+        if (types == null)
         {
-            addSuperClass(object, parent);
+            types = computeFeatureTypes(feature);
+            featuresTypes.put(feature, types);
         }
+        return types;
     }
 
     /**
-     * Remove object parent super type.
+     * Add a type from its interface.
      * 
-     * @param object The current object to check.
-     * @param type The current class level to check.
+     * @param type The type interface.
+     * @param object The type value.
      */
-    private void removeSuperClass(Object object, Class<?> type)
+    private void addType(Class<?> type, Object object)
     {
-        for (final Class<?> types : type.getInterfaces())
+        HandlablesSet set = items.get(type);
+        if (set == null)
         {
-            remove(types, object);
-        }
-        final Class<?> parent = type.getSuperclass();
-        if (parent != null)
-        {
-            removeSuperClass(object, parent);
+            set = new HandlablesSet();
+            items.put(type, set);
         }
+        set.add(object);
     }
 
     /**
@@ -178,7 +211,7 @@ final class HandlablesImpl implements Handlables
      */
     private void remove(Class<?> type, Object object)
     {
-        final Set<?> set = items.get(type);
+        final HandlablesSet set = items.get(type);
         if (set != null)
         {
             set.remove(object);
@@ -204,10 +237,10 @@ final class HandlablesImpl implements Handlables
     @SuppressWarnings("unchecked")
     public <I> Iterable<I> get(Class<I> type)
     {
-        final Set<?> featurables = items.get(type);
-        if (featurables != null)
+        final HandlablesSet set = items.get(type);
+        if (set != null)
         {
-            return (Iterable<I>) featurables;
+            return (Iterable<I>) set;
         }
         return Collections.emptySet();
     }
@@ -0,0 +1,368 @@
+/*
+ * Copyright (C) 2013-2016 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.handler;
+
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Identity based set, keeping insertion order, backed by arrays.
+ * <p>
+ * Values are stored in an ordered array, where removed values leave a hole until compacted, and indexed by an open
+ * addressing identity table. Iteration only walks the values array, without any entry allocation.
+ * </p>
+ * <p>
+ * Must not be modified while iterating (iterators fail fast). Removed values holes are compacted once they represent
+ * half of the values.
+ * </p>
+ * <p>
+ * The same iterator instance is returned again once fully iterated, to avoid an allocation per loop. Nested loops, or
+ * loops left before their end, get a new instance instead. An iterator must not be used anymore once it has reached
+ * its end. This class is not Thread-Safe.
+ * </p>
+ */
+final class HandlablesSet implements Iterable<Object>
+{
+    /** Initial capacity. */
+    private static final int INITIAL_CAPACITY = 8;
+    /** Hash spreading factor (golden ratio). */
+    private static final int HASH_SPREAD = 0x9E3779B9;
+
+    /** Values in insertion order (<code>null</code> if removed). */
+    private Object[] values = new Object[INITIAL_CAPACITY];
+    /** Identity table of values (<code>null</code> if free). */
+    private Object[] keys = new Object[INITIAL_CAPACITY * 2];
+    /** Index in values of each key. */
+    private int[] positions = new int[INITIAL_CAPACITY * 2];
+    /** Number of values slots used, including removed ones. */
+    private int count;
+    /** Number of values. */
+    private int size;
+    /** Modifications count, checked by iterators. */
+    private int modCount;
+    /** Reusable iterator, <code>null</code> if none yet. */
+    private Values cursor;
+
+    /**
+     * Create set.
+     */
+    HandlablesSet()
+    {
+        super();
+    }
+
+    /**
+     * Add a value if not already contained.
+     * 
+     * @param value The value to add (must not be <code>null</code>).
+     * @return <code>true</code> if added, <code>false</code> if already contained.
+     */
+    boolean add(Object value)
+    {
+        if (find(value) > -1)
+        {
+            return false;
+        }
+        if (count == values.length)
+        {
+            if (size < count / 2)
+            {
+                compact();
+            }
+            else
+            {
+                final Object[] grown = new Object[values.length * 2];
+                System.arraycopy(values, 0, grown, 0, count);
+                values = grown;
+            }
+        }
+        if ((size + 1) * 2 > keys.length)
+        {
+            rehash(keys.length * 2);
+        }
+        values[count] = value;
+        insert(value, count);
+        count++;
+        size++;
+        modCount++;
+        return true;
+    }
+
+    /**
+     * Remove a value.
+     * 
+     * @param value The value to remove.
+     * @return <code>true</code> if removed, <code>false</code> if not contained.
+     */
+    boolean remove(Object value)
+    {
+        final int slot = find(value);
+        if (slot < 0)
+        {
+            return false;
+        }
+        values[positions[slot]] = null;
+        delete(slot);
+        size--;
+        modCount++;
+        if (size == 0)
+        {
+            count = 0;
+        }
+        else if (count > INITIAL_CAPACITY && size < count / 2)
+        {
+            compact();
+        }
+        return true;
+    }
+
+    /**
+     * Check if value is contained.
+     * 
+     * @param value The value to check.
+     * @return <code>true</code> if contained, <code>false</code> else.
+     */
+    boolean contains(Object value)
+    {
+        return find(value) > -1;
+    }
+
+    /**
+     * Get the number of values.
+     * 
+     * @return The number of values.
+     */
+    int size()
+    {
+        return size;
+    }
+
+    /**
+     * Get the table slot of the value.
+     * 
+     * @param value The value to find.
+     * @return The slot index, <code>-1</code> if not found.
+     */
+    private int find(Object value)
+    {
+        final int mask = keys.length - 1;
+        int slot = hash(value, mask);
+        while (keys[slot] != null)
+        {
+            if (keys[slot] == value)
+            {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Insert value in table.
+     * 
+     * @param value The value to insert (must not be contained).
+     * @param position The value index.
+     */
+    private void insert(Object value, int position)
+    {
+        final int mask = keys.length - 1;
+        int slot = hash(value, mask);
+        while (keys[slot] != null)
+        {
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = value;
+        positions[slot] = position;
+    }
+
+    /**
+     * Delete the table slot, shifting back the following colliding keys.
+     * 
+     * @param slot The slot to delete.
+     */
+    private void delete(int slot)
+    {
+        final int mask = keys.length - 1;
+        int free = slot;
+        int next = (free + 1) & mask;
+        while (keys[next] != null)
+        {
+            final int home = hash(keys[next], mask);
+            if (((next - home) & mask) >= ((next - free) & mask))
+            {
+                keys[free] = keys[next];
+                positions[free] = positions[next];
+                free = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[free] = null;
+    }
+
+    /**
+     * Remove holes from values, keeping order.
+     */
+    private void compact()
+    {
+        int index = 0;
+        for (int i = 0; i < count; i++)
+        {
+            if (values[i] != null)
+            {
+                values[index] = values[i];
+                index++;
+            }
+        }
+        for (int i = index; i < count; i++)
+        {
+            values[i] = null;
+        }
+        count = index;
+        rehash(keys.length);
+    }
+
+    /**
+     * Rebuild the table from values.
+     * 
+     * @param capacity The table capacity (power of two).
+     */
+    private void rehash(int capacity)
+    {
+        keys = new Object[capacity];
+        positions = new int[capacity];
+        for (int i = 0; i < count; i++)
+        {
+            if (values[i] != null)
+            {
+                insert(values[i], i);
+            }
+        }
+    }
+
+    /**
+     * Get the value home slot.
+     * 
+     * @param value The value reference.
+     * @param mask The table mask.
+     * @return The home slot.
+     */
+    private static int hash(Object value, int mask)
+    {
+        return System.identityHashCode(value) * HASH_SPREAD & mask;
+    }
+
+    /*
+     * Iterable
+     */
+
+    @Override
+    public Iterator<Object> iterator()
+    {
+        if (cursor != null && cursor.isDone())
+        {
+            cursor.reset();
+            return cursor;
+        }
+        final Values iterator = new Values();
+        if (cursor == null)
+        {
+            cursor = iterator;
+        }
+        return iterator;
+    }
+
+    /**
+     * Values iterator, skipping removed values.
+     */
+    private final class Values implements Iterator<Object>
+    {
+        /** Next value index. */
+        private int index;
+        /** Expected modifications count. */
+        private int expectedModCount = modCount;
+        /** End reached flag. */
+        private boolean done;
+
+        /**
+         * Create iterator.
+         */
+        Values()
+        {
+            super();
+        }
+
+        /**
+         * Check if end has been reached, the iterator being free for reuse.
+         * 
+         * @return <code>true</code> if end reached, <code>false</code> else.
+         */
+        boolean isDone()
+        {
+            return done;
+        }
+
+        /**
+         * Restart iteration from first value.
+         */
+        void reset()
+        {
+            index = 0;
+            expectedModCount = modCount;
+            done = false;
+        }
+
+        /*
+         * Iterator
+         */
+
+        @Override
+        public boolean hasNext()
+        {
+            while (index < count && values[index] == null)
+            {
+                index++;
+            }
+            done = index >= count;
+            return !done;
+        }
+
+        @Override
+        public Object next()
+        {
+            if (modCount != expectedModCount)
+            {
+                throw new ConcurrentModificationException();
+            }
+            if (!hasNext())
+            {
+                throw new NoSuchElementException();
+            }
+            final Object value = values[index];
+            index++;
+            return value;
+        }
+
+        @Override
+        public void remove()
+        {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -17,12 +17,22 @@
  */
 package com.b3dgs.lionengine.game.map;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
 import com.b3dgs.lionengine.LionEngineException;
 import com.b3dgs.lionengine.Media;
 import com.b3dgs.lionengine.drawable.Drawable;
 import com.b3dgs.lionengine.drawable.Sprite;
 import com.b3dgs.lionengine.drawable.SpriteTiled;
-import com.b3dgs.lionengine.game.tile.Tile;
+import com.b3dgs.lionengine.game.tile.TileImageIndex;
+import com.b3dgs.lionengine.game.tile.TileRef;
 import com.b3dgs.lionengine.game.tile.TilesExtractor;
 import com.b3dgs.lionengine.graphic.ImageBuffer;
 
@@ -30,6 +40,10 @@ import com.b3dgs.lionengine.graphic.ImageBuffer;
  * This class allows to convert a map image to a map level format.
  * The color [0-128-128] ({@link TilesExtractor#IGNORED_COLOR_VALUE}) is ignored (can be used to skip tile, in order to
  * improve performance).
+ * <p>
+ * Sheets tiles are indexed once by {@link TileImageIndex}, then image tiles rows are searched in parallel. Map is
+ * filled and progress notified in rows order.
+ * </p>
  */
 public final class LevelRipConverter
 {
@@ -86,128 +100,169 @@ public final class LevelRipConverter
         int errors = 0;
 
         final ImageBuffer tileRef = imageMap.getSurface();
-        for (int progressTileY = 0; progressTileY < imageTilesInY; progressTileY++)
+        final ExecutorService executor = createExecutor();
+        try
         {
-            for (int progressTileX = 0; progressTileX < imageTilesInX; progressTileX++)
+            final List<Future<TileRef[]>> rows = search(executor, createIndex(map), tileRef, map, imageTilesInY);
+            for (int progressTileY = 0; progressTileY < imageTilesInY; progressTileY++)
             {
-                if (!checkPixel(map, tileRef, progressTileX, progressTileY))
+                final TileRef[] row = getRow(rows.get(progressTileY));
+                for (int progressTileX = 0; progressTileX < imageTilesInX; progressTileX++)
                 {
-                    errors++;
-                }
+                    if (!setTile(map, tileRef, row[progressTileX], progressTileX, progressTileY))
+                    {
+                        errors++;
+                    }
 
-                final int percent = (int) Math.round(progress / progressMax * 100);
-                if (listener != null && percent != lastPercent)
-                {
-                    listener.notifyProgress(percent, progressTileX, progressTileY);
-                }
-                lastPercent = percent;
-                progress++;
+                    final int percent = (int) Math.round(progress / progressMax * 100);
+                    if (listener != null && percent != lastPercent)
+                    {
+                        listener.notifyProgress(percent, progressTileX, progressTileY);
+                    }
+                    lastPercent = percent;
+                    progress++;
 
-                if (canceler != null && canceler.isCanceled())
-                {
-                    tileRef.dispose();
-                    return errors;
+                    if (canceler != null && canceler.isCanceled())
+                    {
+                        return errors;
+                    }
                 }
             }
         }
-
-        tileRef.dispose();
+        finally
+        {
+            executor.shutdownNow();
+            tileRef.dispose();
+        }
         return errors;
     }
 
     /**
-     * Check the pixel by searching tile on sheet.
+     * Create the rows search executor, using all available processors.
      * 
-     * @param map The destination map reference.
-     * @param tileRef The tile sheet.
-     * @param progressTileX The progress on horizontal tiles.
-     * @param progressTileY The progress on vertical tiles.
-     * @return <code>true</code> if tile found, <code>false</code> else.
+     * @return The created executor.
      */
-    private static boolean checkPixel(MapTile map, ImageBuffer tileRef, int progressTileX, int progressTileY)
+    private static ExecutorService createExecutor()
     {
-        final int x = progressTileX * map.getTileWidth();
-        final int y = progressTileY * map.getTileHeight();
-        final int pixel = tileRef.getRgb(x, y);
-
-        // Skip blank tile of image map
-        if (TilesExtractor.IGNORED_COLOR_VALUE != pixel)
+        final int threads = Runtime.getRuntime().availableProcessors();
+        return Executors.newFixedThreadPool(threads, new ThreadFactory()
         {
-            // Search if tile is on sheet and get it
-            final Tile tile = searchForTile(map, tileRef, progressTileX, progressTileY);
-            if (tile == null)
+            @Override
+            public Thread newThread(Runnable runnable)
             {
-                return false;
+                final Thread thread = new Thread(runnable, LevelRipConverter.class.getSimpleName());
+                thread.setDaemon(true);
+                return thread;
             }
-            map.setTile(tile);
-        }
-        return true;
+        });
     }
 
     /**
-     * Search current tile of image map by checking all surfaces.
+     * Index all tiles of each sheet, in sheets order. The first tile is kept for equal tiles.
      * 
      * @param map The destination map reference.
-     * @param tileSprite The tiled sprite
-     * @param x The location x.
-     * @param y The location y.
-     * @return The tile found.
+     * @return The sheets tiles index.
      */
-    private static Tile searchForTile(MapTile map, ImageBuffer tileSprite, int x, int y)
+    private static TileImageIndex<TileRef> createIndex(MapTile map)
     {
-        // Check each tile on each sheet
+        final int tw = map.getTileWidth();
+        final int th = map.getTileHeight();
+        final TileImageIndex<TileRef> index = new TileImageIndex<TileRef>(tw, th);
+        final int[] pixels = index.createBuffer();
         for (final Integer sheet : map.getSheets())
         {
-            final Tile tile = checkTile(map, tileSprite, sheet, x, y);
-            if (tile != null)
+            final SpriteTiled tileSheet = map.getSheet(sheet);
+            final ImageBuffer sheetImage = tileSheet.getSurface();
+            final int tilesInX = tileSheet.getWidth() / tw;
+            final int tilesInY = tileSheet.getHeight() / th;
+            for (int number = 0; number < tilesInX * tilesInY; number++)
             {
-                return tile;
+                final int x = number % tilesInX * tw;
+                final int y = number / tilesInX * th;
+                index.add(index.read(sheetImage, x, y, pixels), new TileRef(sheet, number));
             }
         }
-
-        // No tile found
-        return null;
+        return index;
     }
 
     /**
-     * Check tile of sheet.
+     * Search all rows tiles.
      * 
+     * @param executor The search executor.
+     * @param index The sheets tiles index.
+     * @param image The map image.
      * @param map The destination map reference.
-     * @param tileSprite The tiled sprite
-     * @param sheet The sheet number.
-     * @param x The location x.
-     * @param y The location y.
-     * @return The tile found.
+     * @param rows The rows number.
+     * @return The rows search result.
      */
-    private static Tile checkTile(MapTile map, ImageBuffer tileSprite, Integer sheet, int x, int y)
+    private static List<Future<TileRef[]>> search(ExecutorService executor,
+                                                  TileImageIndex<TileRef> index,
+                                                  ImageBuffer image,
+                                                  MapTile map,
+                                                  int rows)
     {
-        final int tw = map.getTileWidth();
-        final int th = map.getTileHeight();
-        final SpriteTiled tileSheet = map.getSheet(sheet);
-        final ImageBuffer sheetImage = tileSheet.getSurface();
-        final int tilesInX = tileSheet.getWidth() / tw;
-        final int tilesInY = tileSheet.getHeight() / th;
-
-        for (int surfaceCurrentTileY = 0; surfaceCurrentTileY < tilesInY; surfaceCurrentTileY++)
+        final List<Future<TileRef[]>> futures = new ArrayList<Future<TileRef[]>>(rows);
+        for (int ty = 0; ty < rows; ty++)
         {
-            for (int surfaceCurrentTileX = 0; surfaceCurrentTileX < tilesInX; surfaceCurrentTileX++)
-            {
-                // Tile number on tile sheet
-                final int number = surfaceCurrentTileX + surfaceCurrentTileY * tilesInX;
+            futures.add(executor.submit(new RowSearch(index, image, map, ty)));
+        }
+        return futures;
+    }
 
-                // Compare tiles between sheet and image map
-                final int xa = x * tw;
-                final int ya = y * th;
-                final int xb = surfaceCurrentTileX * tw;
-                final int yb = surfaceCurrentTileY * th;
+    /**
+     * Wait for the row search result.
+     * 
+     * @param row The row search.
+     * @return The tiles found on row.
+     * @throws LionEngineException If search failed.
+     */
+    private static TileRef[] getRow(Future<TileRef[]> row)
+    {
+        try
+        {
+            return row.get();
+        }
+        catch (final InterruptedException exception)
+        {
+            Thread.currentThread().interrupt();
+            throw new LionEngineException(exception);
+        }
+        catch (final ExecutionException exception)
+        {
+            throw new LionEngineException(exception.getCause());
+        }
+    }
 
-                if (TilesExtractor.compareTile(tw, th, tileSprite, xa, ya, sheetImage, xb, yb))
-                {
-                    return map.createTile(sheet, number, xa, (map.getInTileHeight() - 1.0 - y) * th);
-                }
-            }
+    /**
+     * Set the tile found on map.
+     * 
+     * @param map The destination map reference.
+     * @param image The map image.
+     * @param ref The tile found (<code>null</code> if none).
+     * @param tx The horizontal tile location.
+     * @param ty The vertical tile location.
+     * @return <code>true</code> if tile found or ignored, <code>false</code> else.
+     */
+    private static boolean setTile(MapTile map, ImageBuffer image, TileRef ref, int tx, int ty)
+    {
+        final int x = tx * map.getTileWidth();
+        final int y = ty * map.getTileHeight();
+        final boolean found;
+        if (TilesExtractor.IGNORED_COLOR_VALUE == image.getRgb(x, y))
+        {
+            found = true;
+        }
+        else if (ref == null)
+        {
+            found = false;
+        }
+        else
+        {
+            final double ry = (map.getInTileHeight() - 1.0 - ty) * map.getTileHeight();
+            map.setTile(map.createTile(ref.getSheet(), ref.getNumber(), x, ry));
+            found = true;
         }
-        return null;
+        return found;
     }
 
     /**
@@ -245,4 +300,58 @@ public final class LevelRipConverter
          */
         boolean isCanceled();
     }
+
+    /**
+     * Search tiles of an image row.
+     */
+    private static final class RowSearch implements Callable<TileRef[]>
+    {
+        /** Sheets tiles index. */
+        private final TileImageIndex<TileRef> index;
+        /** Map image. */
+        private final ImageBuffer image;
+        /** Tile width. */
+        private final int tw;
+        /** Tile height. */
+        private final int th;
+        /** Tiles on row. */
+        private final int tiles;
+        /** Vertical tile location. */
+        private final int ty;
+
+        /**
+         * Create row search.
+         * 
+         * @param index The sheets tiles index.
+         * @param image The map image.
+         * @param map The destination map reference.
+         * @param ty The vertical tile location.
+         */
+        RowSearch(TileImageIndex<TileRef> index, ImageBuffer image, MapTile map, int ty)
+        {
+            this.index = index;
+            this.image = image;
+            this.ty = ty;
+            tw = map.getTileWidth();
+            th = map.getTileHeight();
+            tiles = map.getInTileWidth();
+        }
+
+        @Override
+        public TileRef[] call()
+        {
+            final TileRef[] found = new TileRef[tiles];
+            final int[] pixels = index.createBuffer();
+            final int y = ty * th;
+            for (int tx = 0; tx < tiles; tx++)
+            {
+                final int x = tx * tw;
+                if (TilesExtractor.IGNORED_COLOR_VALUE != image.getRgb(x, y))
+                {
+                    found[tx] = index.get(index.read(image, x, y, pixels));
+                }
+            }
+            return found;
+        }
+    }
 }
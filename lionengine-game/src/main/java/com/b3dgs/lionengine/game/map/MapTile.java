@@ -42,6 +42,20 @@ import com.b3dgs.lionengine.game.tile.TilesExtractor;
  */
 public interface MapTile extends Surface, Featurable
 {
+    /**
+     * Add a listener notified on tiles change.
+     * 
+     * @param listener The listener to add.
+     */
+    void addListener(MapTileListener listener);
+
+    /**
+     * Remove a listener.
+     * 
+     * @param listener The listener to remove.
+     */
+    void removeListener(MapTileListener listener);
+
     /**
      * Create and prepare map memory area. Must be called before assigning tiles ({@link #setTile(Tile)}).
      * Previous map data (if existing) will be cleared ({@link #clear()}).
@@ -164,6 +178,15 @@ public interface MapTile extends Surface, Featurable
      */
     void setTile(Tile tile);
 
+    /**
+     * Remove the tile at specified map location. Nothing is done if there is no tile.
+     * 
+     * @param tx The horizontal tile location.
+     * @param ty The vertical tile location.
+     * @throws LionEngineException If outside map range.
+     */
+    void removeTile(int tx, int ty);
+
     /**
      * Get tile from specified map location (in tile index). If the returned tile is equal to <code>null</code>, this
      * means that there is not tile at this location. It is not an error, just a way to avoid useless tile storage.
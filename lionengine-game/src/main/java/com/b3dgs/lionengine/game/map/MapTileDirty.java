@@ -0,0 +1,219 @@
+/*
+ * Copyright (C) 2013-2016 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.map;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.geom.Geom;
+import com.b3dgs.lionengine.geom.Rectangle;
+
+/**
+ * Accumulate map tiles changes as dirty blocks of tiles, to be read and cleared once per frame.
+ * <p>
+ * Must be added to the map with {@link MapTile#addListener(MapTileListener)}. Dirty blocks are coalesced to the fewest
+ * rectangles by merging adjacent blocks of a row, then identical spans of consecutive rows.
+ * </p>
+ */
+public class MapTileDirty implements MapTileListener
+{
+    /** Default block size in tile. */
+    public static final int DEFAULT_BLOCK_SIZE = 16;
+
+    /** Dirty blocks. */
+    private final BitSet blocks = new BitSet();
+    /** Map reference. */
+    private final MapTile map;
+    /** Block size in tile. */
+    private final int blockSize;
+    /** Number of horizontal blocks. */
+    private int blocksX;
+    /** Number of vertical blocks. */
+    private int blocksY;
+
+    /**
+     * Create dirty tracker with {@link #DEFAULT_BLOCK_SIZE}.
+     * 
+     * @param map The map reference.
+     * @throws LionEngineException If invalid argument.
+     */
+    public MapTileDirty(MapTile map)
+    {
+        this(map, DEFAULT_BLOCK_SIZE);
+    }
+
+    /**
+     * Create dirty tracker.
+     * 
+     * @param map The map reference.
+     * @param blockSize The block size in tile (must be strictly positive).
+     * @throws LionEngineException If invalid argument.
+     */
+    public MapTileDirty(MapTile map, int blockSize)
+    {
+        super();
+        Check.notNull(map);
+        Check.superiorStrict(blockSize, 0);
+
+        this.map = map;
+        this.blockSize = blockSize;
+    }
+
+    /**
+     * Check if no tile changed since last clear.
+     * 
+     * @return <code>true</code> if no change, <code>false</code> else.
+     */
+    public boolean isEmpty()
+    {
+        return blocks.isEmpty();
+    }
+
+    /**
+     * Get the coalesced dirty regions, in tile, limited to map size.
+     * 
+     * @return The dirty regions.
+     */
+    public Collection<Rectangle> getRegions()
+    {
+        final Collection<Rectangle> regions = new ArrayList<Rectangle>();
+        final List<Rectangle> open = new ArrayList<Rectangle>();
+        for (int by = 0; by < blocksY; by++)
+        {
+            final List<Rectangle> spans = new ArrayList<Rectangle>();
+            int bx = blocks.nextSetBit(by * blocksX);
+            while (bx >= 0 && bx < (by + 1) * blocksX)
+            {
+                final int end = Math.min(blocks.nextClearBit(bx), (by + 1) * blocksX);
+                spans.add(createRegion(bx - by * blocksX, by, end - bx));
+                bx = blocks.nextSetBit(end);
+            }
+            regions.addAll(merge(open, spans));
+        }
+        regions.addAll(open);
+        return regions;
+    }
+
+    /**
+     * Clear all dirty blocks.
+     */
+    public void clear()
+    {
+        blocks.clear();
+    }
+
+    /**
+     * Create the region of blocks span.
+     * 
+     * @param bx The first horizontal block.
+     * @param by The vertical block.
+     * @param count The number of blocks.
+     * @return The region in tile.
+     */
+    private Rectangle createRegion(int bx, int by, int count)
+    {
+        final int tx = bx * blockSize;
+        final int ty = by * blockSize;
+        final int width = Math.min(tx + count * blockSize, map.getInTileWidth()) - tx;
+        final int height = Math.min(ty + blockSize, map.getInTileHeight()) - ty;
+        return Geom.createRectangle(tx, ty, width, height);
+    }
+
+    /**
+     * Extend open regions with spans of the same horizontal range, and keep others open.
+     * 
+     * @param open The open regions, updated with the row spans.
+     * @param spans The row spans.
+     * @return The regions closed, without span on this row.
+     */
+    private static Collection<Rectangle> merge(List<Rectangle> open, List<Rectangle> spans)
+    {
+        final Collection<Rectangle> closed = new ArrayList<Rectangle>();
+        final Iterator<Rectangle> iterator = open.iterator();
+        while (iterator.hasNext())
+        {
+            final Rectangle region = iterator.next();
+            final Rectangle span = find(spans, region);
+            if (span == null)
+            {
+                closed.add(region);
+                iterator.remove();
+            }
+            else
+            {
+                region.set(region.getX(),
+                           region.getY(),
+                           region.getWidthReal(),
+                           region.getHeightReal() + span.getHeightReal());
+                spans.remove(span);
+            }
+        }
+        open.addAll(spans);
+        return closed;
+    }
+
+    /**
+     * Find the span with the same horizontal range as the region.
+     * 
+     * @param spans The spans.
+     * @param region The region.
+     * @return The span found, <code>null</code> if none.
+     */
+    private static Rectangle find(List<Rectangle> spans, Rectangle region)
+    {
+        for (final Rectangle span : spans)
+        {
+            if (Double.compare(span.getX(), region.getX()) == 0
+                && Double.compare(span.getWidthReal(), region.getWidthReal()) == 0)
+            {
+                return span;
+            }
+        }
+        return null;
+    }
+
+    /*
+     * MapTileListener
+     */
+
+    @Override
+    public void notifyTilesChanged(int tx, int ty, int width, int height)
+    {
+        final int horizontal = (map.getInTileWidth() + blockSize - 1) / blockSize;
+        final int vertical = (map.getInTileHeight() + blockSize - 1) / blockSize;
+        if (horizontal != blocksX || vertical != blocksY)
+        {
+            blocks.clear();
+            blocksX = horizontal;
+            blocksY = vertical;
+        }
+
+        final int sx = Math.max(0, tx / blockSize);
+        final int ex = Math.min(blocksX - 1, (tx + width - 1) / blockSize);
+        final int endY = Math.min(blocksY - 1, (ty + height - 1) / blockSize);
+        for (int by = Math.max(0, ty / blockSize); by <= endY && sx <= ex; by++)
+        {
+            blocks.set(by * blocksX + sx, by * blocksX + ex + 1);
+        }
+    }
+}
@@ -22,7 +22,6 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.List;
 import java.util.Map;
 
 import com.b3dgs.lionengine.Check;
@@ -33,7 +32,6 @@ import com.b3dgs.lionengine.Verbose;
 import com.b3dgs.lionengine.core.Medias;
 import com.b3dgs.lionengine.drawable.Drawable;
 import com.b3dgs.lionengine.drawable.SpriteTiled;
-import com.b3dgs.lionengine.game.Force;
 import com.b3dgs.lionengine.game.feature.FeaturableModel;
 import com.b3dgs.lionengine.game.tile.Tile;
 import com.b3dgs.lionengine.game.tile.TileGame;
@@ -42,8 +40,13 @@ import com.b3dgs.lionengine.graphic.ImageBuffer;
 import com.b3dgs.lionengine.util.UtilMath;
 
 /**
- * Abstract representation of a standard tile based map. This class uses a List of List to store tiles, a TreeMap to
- * store sheets references ({@link SpriteTiled}), and collisions.
+ * Abstract representation of a standard tile based map. This class uses a flat array to store tiles, indexed by
+ * <code>ty * width + tx</code>, and a HashMap to store sheets references ({@link SpriteTiled}).
+ * <p>
+ * In compact mode (see {@link #MapTileGame(boolean)}), only tile sheet and number are stored, in primitive arrays,
+ * and tile features in one array per feature type. {@link #getTile(int, int)} then returns a lightweight view
+ * created on each call, which must be compared with {@link Object#equals(Object)} instead of reference.
+ * </p>
  * <p>
  * The way to prepare a map is the following:
  * </p>
@@ -66,6 +69,8 @@ public class MapTileGame extends FeaturableModel implements MapTile
     /** Inconsistent tile size. */
     private static final String ERROR_TILE_SIZE = "Tile size is inconsistent between sheets !";
 
+    /** Tiles listeners. */
+    private final Collection<MapTileListener> listeners = new ArrayList<MapTileListener>();
     /** Sheets list. */
     private final Map<Integer, SpriteTiled> sheets = new HashMap<Integer, SpriteTiled>();
     /** Sheet configuration file. */
@@ -80,15 +85,33 @@ public class MapTileGame extends FeaturableModel implements MapTile
     private int heightInTile;
     /** Map radius. */
     private int radius;
-    /** Tiles map. */
-    private List<List<Tile>> tiles;
+    /** Tiles storage. */
+    private final MapTileStorage tiles;
 
     /**
      * Create a map tile.
      */
     public MapTileGame()
+    {
+        this(false);
+    }
+
+    /**
+     * Create a map tile.
+     * 
+     * @param compact <code>true</code> to store tiles in compact mode, <code>false</code> to store tile instances.
+     */
+    public MapTileGame(boolean compact)
     {
         super();
+        if (compact)
+        {
+            tiles = new MapTileStorageCompact(this);
+        }
+        else
+        {
+            tiles = new MapTileStorageObject();
+        }
     }
 
     /**
@@ -99,41 +122,45 @@ public class MapTileGame extends FeaturableModel implements MapTile
      */
     private void resize(int newWidth, int newHeight)
     {
-        final int oldWidth = widthInTile;
-        final int oldheight = heightInTile;
-
-        // Adjust height
-        for (int v = 0; v < newHeight - oldheight; v++)
-        {
-            tiles.add(new ArrayList<Tile>(newWidth));
-        }
-        // Adjust width
-        for (int v = 0; v < newHeight; v++)
-        {
-            final int width;
-            if (v < oldheight)
-            {
-                width = newWidth - oldWidth;
-            }
-            else
-            {
-                width = newWidth;
-            }
-            for (int h = 0; h < width; h++)
-            {
-                tiles.get(v).add(null);
-            }
-        }
+        tiles.resize(newWidth, newHeight);
 
         widthInTile = newWidth;
         heightInTile = newHeight;
         radius = (int) Math.ceil(StrictMath.sqrt(newWidth * (double) newWidth + newHeight * (double) newHeight));
     }
 
+    /**
+     * Notify listeners of tiles change.
+     * 
+     * @param tx The horizontal tile location.
+     * @param ty The vertical tile location.
+     * @param width The area width in tile.
+     * @param height The area height in tile.
+     */
+    private void notifyTilesChanged(int tx, int ty, int width, int height)
+    {
+        for (final MapTileListener listener : listeners)
+        {
+            listener.notifyTilesChanged(tx, ty, width, height);
+        }
+    }
+
     /*
      * MapTile
      */
 
+    @Override
+    public void addListener(MapTileListener listener)
+    {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void removeListener(MapTileListener listener)
+    {
+        listeners.remove(listener);
+    }
+
     @Override
     public void create(int tileWidth, int tileHeight, int widthInTile, int heightInTile)
     {
@@ -148,17 +175,8 @@ public class MapTileGame extends FeaturableModel implements MapTile
         this.heightInTile = heightInTile;
 
         radius = (int) Math.ceil(StrictMath.sqrt(widthInTile * widthInTile + heightInTile * (double) heightInTile));
-        clear();
-        tiles = new ArrayList<List<Tile>>(heightInTile);
-
-        for (int v = 0; v < heightInTile; v++)
-        {
-            tiles.add(v, new ArrayList<Tile>(widthInTile));
-            for (int h = 0; h < widthInTile; h++)
-            {
-                tiles.get(v).add(h, null);
-            }
-        }
+        tiles.create(widthInTile, heightInTile);
+        notifyTilesChanged(0, 0, widthInTile, heightInTile);
     }
 
     @Override
@@ -277,17 +295,8 @@ public class MapTileGame extends FeaturableModel implements MapTile
     @Override
     public void clear()
     {
-        if (tiles != null)
-        {
-            for (final List<Tile> list : tiles)
-            {
-                if (list != null)
-                {
-                    list.clear();
-                }
-            }
-            tiles.clear();
-        }
+        tiles.clear();
+        notifyTilesChanged(0, 0, widthInTile, heightInTile);
     }
 
     @Override
@@ -295,10 +304,25 @@ public class MapTileGame extends FeaturableModel implements MapTile
     {
         final int tx = tile.getInTileX();
         final int ty = tile.getInTileY();
+        Check.superiorOrEqual(tx, 0);
+        Check.superiorOrEqual(ty, 0);
         Check.inferiorStrict(tx, getInTileWidth());
         Check.inferiorStrict(ty, getInTileHeight());
 
-        tiles.get(ty).set(tx, tile);
+        tiles.setTile(tx, ty, tile);
+        notifyTilesChanged(tx, ty, 1, 1);
+    }
+
+    @Override
+    public void removeTile(int tx, int ty)
+    {
+        Check.superiorOrEqual(tx, 0);
+        Check.superiorOrEqual(ty, 0);
+        Check.inferiorStrict(tx, getInTileWidth());
+        Check.inferiorStrict(ty, getInTileHeight());
+
+        tiles.removeTile(tx, ty);
+        notifyTilesChanged(tx, ty, 1, 1);
     }
 
     @Override
@@ -308,7 +332,7 @@ public class MapTileGame extends FeaturableModel implements MapTile
         {
             return null;
         }
-        return tiles.get(ty).get(tx);
+        return tiles.getTile(tx, ty);
     }
 
     @Override
@@ -348,26 +372,14 @@ public class MapTileGame extends FeaturableModel implements MapTile
     @Override
     public Collection<Tile> getTilesHit(double ox, double oy, double x, double y)
     {
-        final Force force = Force.fromVector(ox, oy, x, y);
-        final double sx = force.getDirectionHorizontal();
-        final double sy = force.getDirectionVertical();
-
-        double h = ox;
-        double v = oy;
+        final MapTileTraversal traversal = new MapTileTraversal();
+        traversal.start(ox, oy, x, y, tileWidth, tileHeight);
 
         final Collection<Tile> found = new ArrayList<Tile>();
-        for (int count = 0; count < force.getVelocity(); count++)
+        while (traversal.next())
         {
-            v += sy;
-            Tile tile = getTileAt(UtilMath.getRound(sx, h), UtilMath.getRound(sy, v));
-            if (tile != null && !found.contains(tile))
-            {
-                found.add(tile);
-            }
-
-            h += sx;
-            tile = getTileAt(UtilMath.getRound(sx, h), UtilMath.getRound(sy, v));
-            if (tile != null && !found.contains(tile))
+            final Tile tile = getTile(traversal.getInTileX(), traversal.getInTileY());
+            if (tile != null)
             {
                 found.add(tile);
             }
@@ -418,19 +430,7 @@ public class MapTileGame extends FeaturableModel implements MapTile
     @Override
     public int getTilesNumber()
     {
-        int tilesNumber = 0;
-        for (int ty = 0; ty < heightInTile; ty++)
-        {
-            for (int tx = 0; tx < widthInTile; tx++)
-            {
-                final Tile tile = getTile(tx, ty);
-                if (tile != null)
-                {
-                    tilesNumber++;
-                }
-            }
-        }
-        return tilesNumber;
+        return tiles.getTilesNumber();
     }
 
     @Override
@@ -466,7 +466,7 @@ public class MapTileGame extends FeaturableModel implements MapTile
     @Override
     public boolean isCreated()
     {
-        return tiles != null;
+        return tiles.isCreated();
     }
 
     /*
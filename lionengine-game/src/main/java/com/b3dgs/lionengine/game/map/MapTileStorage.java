@@ -0,0 +1,88 @@
+/*
+ * Copyright (C) 2013-2016 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.map;
+
+import com.b3dgs.lionengine.game.tile.Tile;
+
+/**
+ * Tiles storage used by {@link MapTileGame}. Tiles are indexed by <code>ty * width + tx</code>, bounds are checked by
+ * the map before any call.
+ */
+interface MapTileStorage
+{
+    /**
+     * Allocate storage for the specified size. Previous tiles are lost.
+     * 
+     * @param widthInTile The number of horizontal tiles.
+     * @param heightInTile The number of vertical tiles.
+     */
+    void create(int widthInTile, int heightInTile);
+
+    /**
+     * Resize storage, keeping existing tiles at their location.
+     * 
+     * @param widthInTile The new number of horizontal tiles.
+     * @param heightInTile The new number of vertical tiles.
+     */
+    void resize(int widthInTile, int heightInTile);
+
+    /**
+     * Set a tile at the specified location.
+     * 
+     * @param tx The horizontal location.
+     * @param ty The vertical location.
+     * @param tile The tile reference.
+     */
+    void setTile(int tx, int ty, Tile tile);
+
+    /**
+     * Remove the tile at the specified location.
+     * 
+     * @param tx The horizontal location.
+     * @param ty The vertical location.
+     */
+    void removeTile(int tx, int ty);
+
+    /**
+     * Get the tile at the specified location.
+     * 
+     * @param tx The horizontal location.
+     * @param ty The vertical location.
+     * @return The tile reference, <code>null</code> if none.
+     */
+    Tile getTile(int tx, int ty);
+
+    /**
+     * Get the number of defined tiles.
+     * 
+     * @return The number of defined tiles.
+     */
+    int getTilesNumber();
+
+    /**
+     * Remove all tiles, keeping current size.
+     */
+    void clear();
+
+    /**
+     * Check if storage has been created.
+     * 
+     * @return <code>true</code> if created, <code>false</code> else.
+     */
+    boolean isCreated();
+}
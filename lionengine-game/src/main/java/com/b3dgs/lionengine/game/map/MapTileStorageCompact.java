@@ -0,0 +1,449 @@
+/*
+ * Copyright (C) 2013-2016 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.map;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.game.feature.Feature;
+import com.b3dgs.lionengine.game.feature.FeatureProvider;
+import com.b3dgs.lionengine.game.feature.Services;
+import com.b3dgs.lionengine.game.tile.Tile;
+
+/**
+ * Compact tiles storage. Sheet and number are stored in flat primitive arrays, and tile features in one column per
+ * feature type. {@link Tile} instances are lightweight views created on demand by {@link #getTile(int, int)}, reading
+ * and writing their features to the columns.
+ */
+final class MapTileStorageCompact implements MapTileStorage
+{
+    /** Feature not found error. */
+    private static final String ERROR_FEATURE_NOT_FOUND = "Feature not found: ";
+    /** Empty cell value. */
+    private static final short NONE = -1;
+
+    /**
+     * Copy rows of a flat array to a wider or higher flat array.
+     * 
+     * @param source The source array.
+     * @param destination The destination array.
+     * @param oldWidth The source width.
+     * @param oldHeight The source height.
+     * @param newWidth The destination width.
+     */
+    private static void copy(Object source, Object destination, int oldWidth, int oldHeight, int newWidth)
+    {
+        for (int ty = 0; ty < oldHeight; ty++)
+        {
+            System.arraycopy(source, ty * oldWidth, destination, ty * newWidth, oldWidth);
+        }
+    }
+
+    /** Features columns, by feature class and feature interface. */
+    private final Map<Class<? extends Feature>, FeatureColumn> columns;
+    /** Features columns by feature class only, tracking features to prepare. */
+    private final Collection<FeatureColumn> owners = new ArrayList<FeatureColumn>();
+    /** Map owner, providing tile size. */
+    private final MapTile map;
+    /** Tiles sheet, {@link #NONE} if no tile. */
+    private short[] sheets;
+    /** Tiles number. */
+    private int[] numbers;
+    /** Number of horizontal tiles. */
+    private int width;
+    /** Number of vertical tiles. */
+    private int height;
+
+    /**
+     * Create storage.
+     * 
+     * @param map The map owner.
+     */
+    MapTileStorageCompact(MapTile map)
+    {
+        super();
+        this.map = map;
+        columns = new HashMap<Class<? extends Feature>, FeatureColumn>();
+    }
+
+    /**
+     * Get the column of the specified feature type, created if needed.
+     * 
+     * @param type The feature type.
+     * @param owner <code>true</code> if type is the feature class, <code>false</code> if one of its interfaces.
+     * @return The column.
+     */
+    private FeatureColumn getColumn(Class<? extends Feature> type, boolean owner)
+    {
+        FeatureColumn column = columns.get(type);
+        if (column == null)
+        {
+            column = new FeatureColumn(width * height, owner);
+            columns.put(type, column);
+            if (owner)
+            {
+                owners.add(column);
+            }
+        }
+        return column;
+    }
+
+    /**
+     * Remove all features of a tile.
+     * 
+     * @param index The tile index.
+     */
+    private void removeFeatures(int index)
+    {
+        for (final FeatureColumn column : columns.values())
+        {
+            column.values[index] = null;
+            column.pending.clear(index);
+        }
+    }
+
+    /**
+     * Find the feature of a tile.
+     * 
+     * @param <C> The feature type.
+     * @param index The tile index.
+     * @param type The feature type.
+     * @return The feature found, <code>null</code> if none.
+     */
+    private <C extends Feature> C find(int index, Class<C> type)
+    {
+        final FeatureColumn column = columns.get(type);
+        Feature found = null;
+        if (column != null)
+        {
+            found = column.values[index];
+        }
+        if (found == null)
+        {
+            for (final FeatureColumn current : owners)
+            {
+                final Feature feature = current.values[index];
+                if (feature != null && type.isAssignableFrom(feature.getClass()))
+                {
+                    found = feature;
+                    break;
+                }
+            }
+        }
+        return type.cast(found);
+    }
+
+    /**
+     * Add a feature to a tile. Feature is prepared on next {@link #prepareFeatures(int, FeatureProvider, Services)}.
+     * 
+     * @param index The tile index.
+     * @param feature The feature to add.
+     */
+    void addFeature(int index, Feature feature)
+    {
+        final FeatureColumn owner = getColumn(feature.getClass(), true);
+        owner.values[index] = feature;
+        owner.pending.set(index);
+        for (final Class<?> type : feature.getClass().getInterfaces())
+        {
+            if (Feature.class.isAssignableFrom(type))
+            {
+                getColumn(type.asSubclass(Feature.class), false).values[index] = feature;
+            }
+        }
+    }
+
+    /**
+     * Prepare the pending features of a tile.
+     * 
+     * @param index The tile index.
+     * @param provider The tile view.
+     * @param services The services reference.
+     */
+    void prepareFeatures(int index, FeatureProvider provider, Services services)
+    {
+        final List<Feature> prepared = new ArrayList<Feature>();
+        for (final FeatureColumn column : owners)
+        {
+            if (column.pending.get(index))
+            {
+                column.pending.clear(index);
+                final Feature feature = column.values[index];
+                feature.prepare(provider, services);
+                for (final Feature current : prepared)
+                {
+                    current.checkListener(feature);
+                    feature.checkListener(current);
+                }
+                prepared.add(feature);
+            }
+        }
+    }
+
+    /**
+     * Check if tile has no pending features.
+     * 
+     * @param index The tile index.
+     * @return <code>true</code> if all features prepared, <code>false</code> else.
+     */
+    boolean isPrepared(int index)
+    {
+        for (final FeatureColumn column : owners)
+        {
+            if (column.pending.get(index))
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Get a tile feature.
+     * 
+     * @param <C> The feature type.
+     * @param index The tile index.
+     * @param type The feature type.
+     * @return The feature found.
+     * @throws LionEngineException If feature not found.
+     */
+    <C extends Feature> C getFeature(int index, Class<C> type)
+    {
+        final C feature = find(index, type);
+        if (feature == null)
+        {
+            throw new LionEngineException(ERROR_FEATURE_NOT_FOUND, type.getName());
+        }
+        return feature;
+    }
+
+    /**
+     * Check if tile has feature.
+     * 
+     * @param index The tile index.
+     * @param type The feature type.
+     * @return <code>true</code> if has feature, <code>false</code> else.
+     */
+    boolean hasFeature(int index, Class<? extends Feature> type)
+    {
+        return find(index, type) != null;
+    }
+
+    /**
+     * Get the tile features.
+     * 
+     * @param index The tile index.
+     * @return The tile features.
+     */
+    Collection<Feature> getFeatures(int index)
+    {
+        final Collection<Feature> features = new ArrayList<Feature>();
+        for (final FeatureColumn column : owners)
+        {
+            final Feature feature = column.values[index];
+            if (feature != null)
+            {
+                features.add(feature);
+            }
+        }
+        return features;
+    }
+
+    /**
+     * Get the tile features type.
+     * 
+     * @param index The tile index.
+     * @return The tile features type.
+     */
+    Collection<Class<? extends Feature>> getFeaturesType(int index)
+    {
+        final Collection<Class<? extends Feature>> types = new ArrayList<Class<? extends Feature>>();
+        for (final Map.Entry<Class<? extends Feature>, FeatureColumn> entry : columns.entrySet())
+        {
+            if (entry.getValue().values[index] != null)
+            {
+                types.add(entry.getKey());
+            }
+        }
+        return types;
+    }
+
+    /*
+     * MapTileStorage
+     */
+
+    @Override
+    public void create(int widthInTile, int heightInTile)
+    {
+        width = widthInTile;
+        height = heightInTile;
+        sheets = new short[widthInTile * heightInTile];
+        numbers = new int[widthInTile * heightInTile];
+        Arrays.fill(sheets, NONE);
+        columns.clear();
+        owners.clear();
+    }
+
+    @Override
+    public void resize(int widthInTile, int heightInTile)
+    {
+        final int oldWidth = width;
+        final int oldHeight = height;
+        final short[] oldSheets = sheets;
+        final int[] oldNumbers = numbers;
+        final Map<Class<? extends Feature>, FeatureColumn> oldColumns;
+        oldColumns = new HashMap<Class<? extends Feature>, FeatureColumn>(columns);
+
+        create(widthInTile, heightInTile);
+        if (oldSheets != null)
+        {
+            copy(oldSheets, sheets, oldWidth, oldHeight, widthInTile);
+            copy(oldNumbers, numbers, oldWidth, oldHeight, widthInTile);
+        }
+        for (final Map.Entry<Class<? extends Feature>, FeatureColumn> entry : oldColumns.entrySet())
+        {
+            final FeatureColumn old = entry.getValue();
+            final FeatureColumn column = getColumn(entry.getKey(), old.owner);
+            copy(old.values, column.values, oldWidth, oldHeight, widthInTile);
+            for (int i = old.pending.nextSetBit(0); i >= 0; i = old.pending.nextSetBit(i + 1))
+            {
+                column.pending.set(i / oldWidth * widthInTile + i % oldWidth);
+            }
+        }
+    }
+
+    @Override
+    public void setTile(int tx, int ty, Tile tile)
+    {
+        final int sheet = tile.getSheet().intValue();
+        Check.inferiorOrEqual(sheet, Short.MAX_VALUE);
+
+        final Collection<Feature> features = new ArrayList<Feature>();
+        for (final Feature feature : tile.getFeatures())
+        {
+            if (!features.contains(feature))
+            {
+                features.add(feature);
+            }
+        }
+
+        final int index = ty * width + tx;
+        sheets[index] = (short) sheet;
+        numbers[index] = tile.getNumber();
+        removeFeatures(index);
+        for (final Feature feature : features)
+        {
+            addFeature(index, feature);
+        }
+    }
+
+    @Override
+    public void removeTile(int tx, int ty)
+    {
+        final int index = ty * width + tx;
+        sheets[index] = NONE;
+        removeFeatures(index);
+    }
+
+    @Override
+    public Tile getTile(int tx, int ty)
+    {
+        final int index = ty * width + tx;
+        final short sheet = sheets[index];
+        if (sheet == NONE)
+        {
+            return null;
+        }
+        return new TileCompact(this,
+                               index,
+                               Integer.valueOf(sheet),
+                               numbers[index],
+                               tx,
+                               ty,
+                               map.getTileWidth(),
+                               map.getTileHeight());
+    }
+
+    @Override
+    public int getTilesNumber()
+    {
+        int number = 0;
+        for (final short sheet : sheets)
+        {
+            if (sheet != NONE)
+            {
+                number++;
+            }
+        }
+        return number;
+    }
+
+    @Override
+    public void clear()
+    {
+        if (sheets != null)
+        {
+            Arrays.fill(sheets, NONE);
+            for (final FeatureColumn column : columns.values())
+            {
+                Arrays.fill(column.values, null);
+                column.pending.clear();
+            }
+        }
+    }
+
+    @Override
+    public boolean isCreated()
+    {
+        return sheets != null;
+    }
+
+    /**
+     * Features of one type, indexed as tiles.
+     */
+    private static final class FeatureColumn
+    {
+        /** Features, <code>null</code> if none. */
+        final Feature[] values;
+        /** Features added and not yet prepared. */
+        final BitSet pending;
+        /** <code>true</code> if column is keyed by the feature class, <code>false</code> if by an interface. */
+        final boolean owner;
+
+        /**
+         * Create column.
+         * 
+         * @param size The number of tiles.
+         * @param owner <code>true</code> if keyed by the feature class, <code>false</code> if by an interface.
+         */
+        FeatureColumn(int size, boolean owner)
+        {
+            super();
+            values = new Feature[size];
+            pending = new BitSet();
+            this.owner = owner;
+        }
+    }
+}
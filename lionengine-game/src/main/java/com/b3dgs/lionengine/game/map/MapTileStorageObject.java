@@ -0,0 +1,118 @@
+/*
+ * Copyright (C) 2013-2016 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.map;
+
+import java.util.Arrays;
+
+import com.b3dgs.lionengine.game.tile.Tile;
+
+/**
+ * Tiles storage keeping each {@link Tile} instance in a flat array.
+ */
+final class MapTileStorageObject implements MapTileStorage
+{
+    /** Tiles. */
+    private Tile[] tiles;
+    /** Number of horizontal tiles. */
+    private int width;
+    /** Number of vertical tiles. */
+    private int height;
+
+    /**
+     * Create storage.
+     */
+    MapTileStorageObject()
+    {
+        super();
+    }
+
+    /*
+     * MapTileStorage
+     */
+
+    @Override
+    public void create(int widthInTile, int heightInTile)
+    {
+        width = widthInTile;
+        height = heightInTile;
+        tiles = new Tile[widthInTile * heightInTile];
+    }
+
+    @Override
+    public void resize(int widthInTile, int heightInTile)
+    {
+        final Tile[] old = tiles;
+        final int oldWidth = width;
+        final int oldHeight = height;
+        create(widthInTile, heightInTile);
+        if (old != null)
+        {
+            for (int ty = 0; ty < oldHeight; ty++)
+            {
+                System.arraycopy(old, ty * oldWidth, tiles, ty * widthInTile, oldWidth);
+            }
+        }
+    }
+
+    @Override
+    public void setTile(int tx, int ty, Tile tile)
+    {
+        tiles[ty * width + tx] = tile;
+    }
+
+    @Override
+    public void removeTile(int tx, int ty)
+    {
+        tiles[ty * width + tx] = null;
+    }
+
+    @Override
+    public Tile getTile(int tx, int ty)
+    {
+        return tiles[ty * width + tx];
+    }
+
+    @Override
+    public int getTilesNumber()
+    {
+        int number = 0;
+        for (final Tile tile : tiles)
+        {
+            if (tile != null)
+            {
+                number++;
+            }
+        }
+        return number;
+    }
+
+    @Override
+    public void clear()
+    {
+        if (tiles != null)
+        {
+            Arrays.fill(tiles, null);
+        }
+    }
+
+    @Override
+    public boolean isCreated()
+    {
+        return tiles != null;
+    }
+}
@@ -0,0 +1,273 @@
+/*
+ * Copyright (C) 2013-2016 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.map;
+
+/**
+ * Grid traversal of the tiles crossed by a segment (Amanatides and Woo), visiting each crossed tile once, in order,
+ * whatever the segment length in pixels. Cost only depends of the number of tiles crossed.
+ * <p>
+ * When the segment passes exactly through a tiles corner, the two tiles sharing this corner are also visited before
+ * the diagonal one, so a mover can not pass between two diagonal tiles.
+ * </p>
+ * <p>
+ * The instance is reusable and does not allocate:
+ * </p>
+ * 
+ * <pre>
+ * traversal.start(ox, oy, x, y, map.getTileWidth(), map.getTileHeight());
+ * while (traversal.next())
+ * {
+ *     final Tile tile = map.getTile(traversal.getInTileX(), traversal.getInTileY());
+ *     ...
+ * }
+ * </pre>
+ */
+public final class MapTileTraversal
+{
+    /** Current horizontal tile index (along the segment). */
+    private int tx;
+    /** Current vertical tile index (along the segment). */
+    private int ty;
+    /** Last horizontal tile index. */
+    private int ex;
+    /** Last vertical tile index. */
+    private int ey;
+    /** Horizontal step (-1, 0 or 1). */
+    private int stepX;
+    /** Vertical step (-1, 0 or 1). */
+    private int stepY;
+    /** Segment progress to next horizontal tile border. */
+    private double nextX;
+    /** Segment progress to next vertical tile border. */
+    private double nextY;
+    /** Segment progress to cross a whole tile horizontally. */
+    private double deltaX;
+    /** Segment progress to cross a whole tile vertically. */
+    private double deltaY;
+    /** Visited horizontal tile index. */
+    private int visitedX;
+    /** Visited vertical tile index. */
+    private int visitedY;
+    /** Segment progress when entering visited tile. */
+    private double enter;
+    /** Remaining tiles to visit around a crossed corner (0 if none). */
+    private int corner;
+    /** Started flag (first tile not visited yet). */
+    private boolean started;
+    /** Finished flag. */
+    private boolean finished;
+
+    /**
+     * Create a traversal.
+     */
+    public MapTileTraversal()
+    {
+        super();
+    }
+
+    /**
+     * Get the segment progress to the first border on an axis.
+     * 
+     * @param origin The segment origin on axis.
+     * @param delta The segment delta on axis.
+     * @param index The origin tile index on axis.
+     * @param size The tile size on axis.
+     * @return The segment progress ({@link Double#POSITIVE_INFINITY} if never crossed).
+     */
+    private static double getFirstBorder(double origin, double delta, int index, int size)
+    {
+        final double border;
+        if (delta > 0.0)
+        {
+            border = ((index + 1) * (double) size - origin) / delta;
+        }
+        else if (delta < 0.0)
+        {
+            border = (index * (double) size - origin) / delta;
+        }
+        else
+        {
+            border = Double.POSITIVE_INFINITY;
+        }
+        return border;
+    }
+
+    /**
+     * Get the segment progress to cross a whole tile on an axis.
+     * 
+     * @param delta The segment delta on axis.
+     * @param size The tile size on axis.
+     * @return The segment progress ({@link Double#POSITIVE_INFINITY} if never crossed).
+     */
+    private static double getDelta(double delta, int size)
+    {
+        if (delta == 0.0)
+        {
+            return Double.POSITIVE_INFINITY;
+        }
+        return size / Math.abs(delta);
+    }
+
+    /**
+     * Start the traversal of a new segment. First tile is visited on first {@link #next()}.
+     * 
+     * @param ox The segment start horizontal location.
+     * @param oy The segment start vertical location.
+     * @param x The segment end horizontal location.
+     * @param y The segment end vertical location.
+     * @param tileWidth The tile width (strictly positive).
+     * @param tileHeight The tile height (strictly positive).
+     */
+    public void start(double ox, double oy, double x, double y, int tileWidth, int tileHeight)
+    {
+        final double dx = x - ox;
+        final double dy = y - oy;
+
+        tx = (int) Math.floor(ox / tileWidth);
+        ty = (int) Math.floor(oy / tileHeight);
+        ex = (int) Math.floor(x / tileWidth);
+        ey = (int) Math.floor(y / tileHeight);
+        stepX = (int) Math.signum(dx);
+        stepY = (int) Math.signum(dy);
+        nextX = getFirstBorder(ox, dx, tx, tileWidth);
+        nextY = getFirstBorder(oy, dy, ty, tileHeight);
+        deltaX = getDelta(dx, tileWidth);
+        deltaY = getDelta(dy, tileHeight);
+        enter = 0.0;
+        corner = 0;
+        started = false;
+        finished = false;
+    }
+
+    /**
+     * Visit the next crossed tile.
+     * 
+     * @return <code>true</code> if a tile is visited, <code>false</code> if traversal is finished.
+     */
+    public boolean next()
+    {
+        if (!started)
+        {
+            started = true;
+            visit(tx, ty);
+        }
+        else if (corner > 0)
+        {
+            nextCorner();
+        }
+        else if (tx == ex && ty == ey || Math.min(nextX, nextY) > 1.0)
+        {
+            finished = true;
+        }
+        else
+        {
+            step();
+        }
+        return !finished;
+    }
+
+    /**
+     * Get the visited horizontal tile index.
+     * 
+     * @return The visited horizontal tile index.
+     */
+    public int getInTileX()
+    {
+        return visitedX;
+    }
+
+    /**
+     * Get the visited vertical tile index.
+     * 
+     * @return The visited vertical tile index.
+     */
+    public int getInTileY()
+    {
+        return visitedY;
+    }
+
+    /**
+     * Get the segment progress when entering the visited tile.
+     * 
+     * @return The segment progress in <code>[0, 1]</code>.
+     */
+    public double getEnter()
+    {
+        return enter;
+    }
+
+    /**
+     * Step to the next tile along the segment. If the border crossed is a corner, step diagonally and visit first the
+     * horizontal neighbor, then the vertical one on the next visits, and finally the diagonal tile.
+     */
+    private void step()
+    {
+        if (nextX < nextY)
+        {
+            enter = nextX;
+            nextX += deltaX;
+            tx += stepX;
+            visit(tx, ty);
+        }
+        else if (nextY < nextX)
+        {
+            enter = nextY;
+            nextY += deltaY;
+            ty += stepY;
+            visit(tx, ty);
+        }
+        else
+        {
+            enter = nextX;
+            nextX += deltaX;
+            nextY += deltaY;
+            tx += stepX;
+            ty += stepY;
+            corner = 2;
+            visit(tx, ty - stepY);
+        }
+    }
+
+    /**
+     * Visit the vertical neighbor of the crossed corner, then the diagonal tile.
+     */
+    private void nextCorner()
+    {
+        if (corner == 2)
+        {
+            visit(tx - stepX, ty);
+        }
+        else
+        {
+            visit(tx, ty);
+        }
+        corner--;
+    }
+
+    /**
+     * Set the visited tile.
+     * 
+     * @param x The horizontal tile index.
+     * @param y The vertical tile index.
+     */
+    private void visit(int x, int y)
+    {
+        visitedX = x;
+        visitedY = y;
+    }
+}
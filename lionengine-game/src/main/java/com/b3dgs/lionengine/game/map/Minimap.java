@@ -30,6 +30,7 @@ import com.b3dgs.lionengine.drawable.Image;
 import com.b3dgs.lionengine.drawable.SpriteTiled;
 import com.b3dgs.lionengine.game.tile.Tile;
 import com.b3dgs.lionengine.game.tile.TileRef;
+import com.b3dgs.lionengine.geom.Rectangle;
 import com.b3dgs.lionengine.graphic.ColorRgba;
 import com.b3dgs.lionengine.graphic.Graphic;
 import com.b3dgs.lionengine.graphic.ImageBuffer;
@@ -49,6 +50,9 @@ import com.b3dgs.lionengine.graphic.Viewer;
  * <li>3. Or load from configuration: {@link #loadPixelConfig(Media)}</li>
  * <li>4. Prepare surface : {@link #prepare()}</li>
  * </ul>
+ * <p>
+ * Once prepared, tiles changed on the map are redrawn on next {@link #render(Graphic)}, only over the changed regions.
+ * </p>
  * 
  * @see MapTile
  */
@@ -65,6 +69,8 @@ public class Minimap implements Image
     private Map<TileRef, ColorRgba> pixels = new HashMap<TileRef, ColorRgba>();
     /** Map reference. */
     private final MapTile map;
+    /** Tiles changed since last prepare or render. */
+    private final MapTileDirty dirty;
     /** Minimap image reference. */
     private ImageBuffer surface;
     /** Origin reference. */
@@ -86,6 +92,8 @@ public class Minimap implements Image
 
         this.map = map;
         origin = Origin.TOP_LEFT;
+        dirty = new MapTileDirty(map);
+        map.addListener(dirty);
     }
 
     /**
@@ -230,11 +238,49 @@ public class Minimap implements Image
             }
         }
         g.dispose();
+        dirty.clear();
+    }
+
+    /**
+     * Redraw the tiles changed since last prepare or render.
+     */
+    private void updateDirty()
+    {
+        for (final Rectangle region : dirty.getRegions())
+        {
+            updateRegion(region);
+        }
+        dirty.clear();
+    }
+
+    /**
+     * Redraw the tiles of a region.
+     * 
+     * @param region The region in tile.
+     */
+    private void updateRegion(Rectangle region)
+    {
+        final int v = map.getInTileHeight();
+        final int sx = (int) region.getX();
+        final int sy = (int) region.getY();
+        final int ex = Math.min(sx + region.getWidth(), surface.getWidth());
+        final int ey = Math.min(sy + region.getHeight(), v);
+        for (int ty = sy; ty < ey; ty++)
+        {
+            for (int tx = sx; tx < ex; tx++)
+            {
+                surface.setRgb(tx, v - ty - 1, getTileColor(map.getTile(tx, ty)).getRgba());
+            }
+        }
     }
 
     @Override
     public void render(Graphic g)
     {
+        if (surface != null && !dirty.isEmpty() && map.getInTileHeight() == surface.getHeight())
+        {
+            updateDirty();
+        }
         g.drawImage(surface, (int) x, (int) y);
     }
 
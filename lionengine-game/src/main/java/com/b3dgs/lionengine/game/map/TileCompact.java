@@ -0,0 +1,233 @@
+/*
+ * Copyright (C) 2013-2016 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.map;
+
+import com.b3dgs.lionengine.game.feature.Feature;
+import com.b3dgs.lionengine.game.feature.Services;
+import com.b3dgs.lionengine.game.tile.Tile;
+
+/**
+ * Tile view over a {@link MapTileStorageCompact} cell. Features are stored by the storage, so views of the same cell
+ * share them and can be discarded at any time.
+ */
+final class TileCompact implements Tile
+{
+    /** Storage reference. */
+    private final MapTileStorageCompact storage;
+    /** Tile index in storage. */
+    private final int index;
+    /** Tile sheet number where tile is contained. */
+    private final Integer sheet;
+    /** Position number in the tilesheet. */
+    private final int number;
+    /** In tile x. */
+    private final int inTileX;
+    /** In tile y. */
+    private final int inTileY;
+    /** Tile width. */
+    private final int width;
+    /** Tile height. */
+    private final int height;
+
+    /**
+     * Create a tile view.
+     * 
+     * @param storage The storage reference.
+     * @param index The tile index in storage.
+     * @param sheet The sheet number.
+     * @param number The tile number on sheet.
+     * @param inTileX The horizontal location in tile.
+     * @param inTileY The vertical location in tile.
+     * @param width The tile width.
+     * @param height The tile height.
+     */
+    TileCompact(MapTileStorageCompact storage,
+                int index,
+                Integer sheet,
+                int number,
+                int inTileX,
+                int inTileY,
+                int width,
+                int height)
+    {
+        super();
+        this.storage = storage;
+        this.index = index;
+        this.sheet = sheet;
+        this.number = number;
+        this.inTileX = inTileX;
+        this.inTileY = inTileY;
+        this.width = width;
+        this.height = height;
+    }
+
+    /*
+     * Tile
+     */
+
+    @Override
+    public Integer getSheet()
+    {
+        return sheet;
+    }
+
+    @Override
+    public int getNumber()
+    {
+        return number;
+    }
+
+    @Override
+    public double getX()
+    {
+        return inTileX * (double) width;
+    }
+
+    @Override
+    public double getY()
+    {
+        return inTileY * (double) height;
+    }
+
+    @Override
+    public int getWidth()
+    {
+        return width;
+    }
+
+    @Override
+    public int getHeight()
+    {
+        return height;
+    }
+
+    @Override
+    public int getInTileX()
+    {
+        return inTileX;
+    }
+
+    @Override
+    public int getInTileY()
+    {
+        return inTileY;
+    }
+
+    @Override
+    public int getInTileWidth()
+    {
+        return 1;
+    }
+
+    @Override
+    public int getInTileHeight()
+    {
+        return 1;
+    }
+
+    /*
+     * Featurable
+     */
+
+    @Override
+    public void prepareFeatures(Services services)
+    {
+        storage.prepareFeatures(index, this, services);
+    }
+
+    @Override
+    public void addFeature(Feature feature)
+    {
+        storage.addFeature(index, feature);
+    }
+
+    @Override
+    public <T extends Feature> T addFeatureAndGet(T feature)
+    {
+        addFeature(feature);
+        return feature;
+    }
+
+    @Override
+    public <C extends Feature> C getFeature(Class<C> feature)
+    {
+        return storage.getFeature(index, feature);
+    }
+
+    @Override
+    public Iterable<Feature> getFeatures()
+    {
+        return storage.getFeatures(index);
+    }
+
+    @Override
+    public Iterable<Class<? extends Feature>> getFeaturesType()
+    {
+        return storage.getFeaturesType(index);
+    }
+
+    @Override
+    public boolean hasFeature(Class<? extends Feature> feature)
+    {
+        return storage.hasFeature(index, feature);
+    }
+
+    @Override
+    public boolean isPrepared()
+    {
+        return storage.isPrepared(index);
+    }
+
+    /*
+     * Object
+     */
+
+    @Override
+    public int hashCode()
+    {
+        final int prime = 31;
+        int result = 1;
+        result = prime * result + width;
+        result = prime * result + height;
+        result = prime * result + inTileX;
+        result = prime * result + inTileY;
+        result = prime * result + sheet.hashCode();
+        result = prime * result + number;
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object obj)
+    {
+        if (this == obj)
+        {
+            return true;
+        }
+        if (!(obj instanceof TileCompact))
+        {
+            return false;
+        }
+        final TileCompact other = (TileCompact) obj;
+        return sheet.equals(other.sheet)
+               && number == other.number
+               && width == other.width
+               && height == other.height
+               && inTileX == other.inTileX
+               && inTileY == other.inTileY;
+    }
+}
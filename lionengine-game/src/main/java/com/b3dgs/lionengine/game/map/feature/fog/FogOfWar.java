@@ -23,6 +23,7 @@ import com.b3dgs.lionengine.Media;
 import com.b3dgs.lionengine.drawable.SpriteTiled;
 import com.b3dgs.lionengine.game.feature.FeatureModel;
 import com.b3dgs.lionengine.game.map.MapTile;
+import com.b3dgs.lionengine.game.map.MapTileListener;
 import com.b3dgs.lionengine.game.map.MapTileRenderer;
 import com.b3dgs.lionengine.game.tile.Tile;
 import com.b3dgs.lionengine.game.tile.Tiled;
@@ -74,6 +75,17 @@ public class FogOfWar extends FeatureModel implements MapTileRenderer
         mapFogged.create(map, config, fogTiles);
     }
 
+    /**
+     * Add a listener notified on hidden and fogged tiles change, to only update the affected regions.
+     * 
+     * @param listener The listener to add.
+     */
+    public void addListener(MapTileListener listener)
+    {
+        mapHidden.addListener(listener);
+        mapFogged.addListener(listener);
+    }
+
     /**
      * Update fovable field of view (fog of war).
      * 
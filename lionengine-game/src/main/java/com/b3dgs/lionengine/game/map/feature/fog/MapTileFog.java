@@ -26,6 +26,7 @@ import com.b3dgs.lionengine.drawable.SpriteTiled;
 import com.b3dgs.lionengine.game.feature.Services;
 import com.b3dgs.lionengine.game.map.MapTile;
 import com.b3dgs.lionengine.game.map.MapTileGame;
+import com.b3dgs.lionengine.game.map.MapTileListener;
 import com.b3dgs.lionengine.game.map.feature.group.MapTileGroup;
 import com.b3dgs.lionengine.game.map.feature.group.MapTileGroupModel;
 import com.b3dgs.lionengine.game.map.feature.transition.MapTileTransition;
@@ -116,6 +117,16 @@ public class MapTileFog
         }
     }
 
+    /**
+     * Add a listener notified on fog tiles change.
+     * 
+     * @param listener The listener to add.
+     */
+    public void addListener(MapTileListener listener)
+    {
+        map.addListener(listener);
+    }
+
     /**
      * Update fovable field of view (fog of war).
      * 
@@ -0,0 +1,99 @@
+/*
+ * Copyright (C) 2013-2016 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.map.feature.persister;
+
+import java.io.IOException;
+
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.Media;
+import com.b3dgs.lionengine.Updatable;
+import com.b3dgs.lionengine.game.feature.Feature;
+
+/**
+ * Map persister using a chunked file format, where tiles are loaded on demand.
+ * <p>
+ * Map is split in square chunks, indexed in file header. On {@link #load(Media)}, only the header is read and the map
+ * is created empty. Chunks are then loaded from the memory mapped file when {@link #update(double)} finds them near
+ * the viewer, or on {@link #loadRegion(int, int, int, int)}, and chunks far from the viewer are removed from the map.
+ * </p>
+ */
+public interface MapTilePersisterChunked extends Feature, Updatable
+{
+    /**
+     * Save the whole map to the chunked format.
+     * 
+     * @param media The output file.
+     * @throws IOException If error on writing.
+     */
+    void save(Media media) throws IOException;
+
+    /**
+     * Load the map header and create an empty map of the saved size. Tiles are loaded on demand.
+     * 
+     * @param media The input file, must be a chunked map file.
+     * @throws IOException If error on reading or invalid format.
+     */
+    void load(Media media) throws IOException;
+
+    /**
+     * Load all chunks covering the area, if not already loaded.
+     * 
+     * @param tx The horizontal tile location.
+     * @param ty The vertical tile location.
+     * @param width The area width in tile.
+     * @param height The area height in tile.
+     * @throws LionEngineException If no map loaded or invalid chunk data.
+     */
+    void loadRegion(int tx, int ty, int width, int height);
+
+    /**
+     * Release the loaded file. Loaded tiles are kept, others will not be loaded anymore.
+     */
+    void close();
+
+    /**
+     * Set the number of chunks kept around the viewer. Chunks further than one more chunk are removed.
+     * 
+     * @param margin The margin in chunks (must be positive or equal to 0).
+     * @throws LionEngineException If invalid argument.
+     */
+    void setMargin(int margin);
+
+    /**
+     * Get the chunk size used on save.
+     * 
+     * @return The chunk size in tile.
+     */
+    int getChunkSize();
+
+    /**
+     * Get the number of loaded chunks.
+     * 
+     * @return The number of loaded chunks.
+     */
+    int getLoadedChunks();
+
+    /**
+     * Check if chunk containing the tile is loaded.
+     * 
+     * @param tx The horizontal tile location.
+     * @param ty The vertical tile location.
+     * @return <code>true</code> if loaded, <code>false</code> else.
+     */
+    boolean isLoaded(int tx, int ty);
+}
@@ -0,0 +1,623 @@
+/*
+ * Copyright (C) 2013-2016 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.map.feature.persister;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.BitSet;
+
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.Constant;
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.Media;
+import com.b3dgs.lionengine.core.Medias;
+import com.b3dgs.lionengine.game.feature.FeatureModel;
+import com.b3dgs.lionengine.game.feature.FeatureProvider;
+import com.b3dgs.lionengine.game.feature.Services;
+import com.b3dgs.lionengine.game.map.MapTile;
+import com.b3dgs.lionengine.game.tile.Tile;
+import com.b3dgs.lionengine.graphic.Viewer;
+
+/**
+ * Chunked map persister implementation. File is stored this way (big endian):
+ * 
+ * <pre>
+ * <code>(int)</code> magic number
+ * <code>(short)</code> format version
+ * <code>(int)</code> tile width
+ * <code>(int)</code> tile height
+ * <code>(int)</code> width in tiles
+ * <code>(int)</code> height in tiles
+ * <code>(int)</code> chunk size in tiles
+ * <code>(boolean)</code> has sheets configuration
+ *   <code>(int)</code> sheets configuration path length
+ *   <code>(byte[])</code> sheets configuration path (UTF-8)
+ * for each chunk, row by row
+ *   <code>(int)</code> chunk data offset, from end of index
+ *   <code>(int)</code> chunk data length
+ * for each chunk, row by row
+ *   for each run of identical tiles, tiles being read row by row inside chunk
+ *     <code>(varint)</code> number of tiles in run
+ *     <code>(varint)</code> sheet + 1, 0 if no tile
+ *     <code>(varint)</code> number in sheet, only if there is a tile
+ * </pre>
+ * <p>
+ * The {@link Services} must provide:
+ * </p>
+ * <ul>
+ * <li>{@link MapTile}</li>
+ * <li>{@link Viewer}</li>
+ * </ul>
+ */
+public class MapTilePersisterChunkedModel extends FeatureModel implements MapTilePersisterChunked
+{
+    /** Default chunk size in tile. */
+    public static final int DEFAULT_CHUNK_SIZE = 64;
+    /** Format magic number. */
+    private static final int MAGIC = 0x4C4D4348;
+    /** Format version. */
+    private static final short VERSION = 1;
+    /** Index entry size in bytes. */
+    private static final int INDEX_ENTRY = Integer.SIZE / Byte.SIZE * 2;
+    /** Varint value bits per byte. */
+    private static final int VARINT_BITS = 7;
+    /** Varint value mask. */
+    private static final int VARINT_MASK = 0x7F;
+    /** Varint continuation flag. */
+    private static final int VARINT_MORE = 0x80;
+    /** Error format message. */
+    private static final String ERROR_FORMAT = "Invalid chunked map file: ";
+    /** Error version message. */
+    private static final String ERROR_VERSION = "Unsupported chunked map version: ";
+    /** Error sheet missing message. */
+    private static final String ERROR_SHEET_MISSING = "Sheet missing: ";
+    /** Error chunk message. */
+    private static final String ERROR_CHUNK = "Invalid chunk: ";
+    /** Error not loaded message. */
+    private static final String ERROR_NOT_LOADED = "No chunked map loaded !";
+    /** Read only mode. */
+    private static final String READ_ONLY = "r";
+
+    /**
+     * Write a positive variable length integer.
+     * 
+     * @param output The output stream.
+     * @param value The value to write.
+     * @throws IOException If error on writing.
+     */
+    private static void writeVarInt(OutputStream output, int value) throws IOException
+    {
+        int remaining = value;
+        while ((remaining & ~VARINT_MASK) != 0)
+        {
+            output.write(remaining & VARINT_MASK | VARINT_MORE);
+            remaining >>>= VARINT_BITS;
+        }
+        output.write(remaining);
+    }
+
+    /**
+     * Read a positive variable length integer.
+     * 
+     * @param buffer The buffer to read from.
+     * @return The value read.
+     */
+    private static int readVarInt(ByteBuffer buffer)
+    {
+        int value = 0;
+        int shift = 0;
+        int current;
+        do
+        {
+            current = buffer.get();
+            value |= (current & VARINT_MASK) << shift;
+            shift += VARINT_BITS;
+        }
+        while ((current & VARINT_MORE) != 0);
+        return value;
+    }
+
+    /**
+     * Get the number of chunks needed to cover the length.
+     * 
+     * @param length The length in tile.
+     * @param size The chunk size in tile.
+     * @return The number of chunks.
+     */
+    private static int getChunks(int length, int size)
+    {
+        return (length + size - 1) / size;
+    }
+
+    /** Loaded chunks. */
+    private final BitSet loaded = new BitSet();
+    /** Chunk size used on save. */
+    private final int chunkSize;
+    /** Chunks kept around the viewer. */
+    private int margin = 1;
+    /** Map reference. */
+    private MapTile map;
+    /** Viewer reference. */
+    private Viewer viewer;
+    /** Mapped file, <code>null</code> if none. */
+    private ByteBuffer buffer;
+    /** Chunk size of the loaded file. */
+    private int size;
+    /** Number of horizontal chunks of the loaded file. */
+    private int chunksX;
+    /** Number of vertical chunks of the loaded file. */
+    private int chunksY;
+    /** Index position in file. */
+    private int indexStart;
+    /** Chunks data position in file. */
+    private int dataStart;
+
+    /**
+     * Create the persister with {@link #DEFAULT_CHUNK_SIZE}.
+     * <p>
+     * The {@link Services} must provide:
+     * </p>
+     * <ul>
+     * <li>{@link MapTile}</li>
+     * <li>{@link Viewer}</li>
+     * </ul>
+     */
+    public MapTilePersisterChunkedModel()
+    {
+        this(DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Create the persister.
+     * <p>
+     * The {@link Services} must provide:
+     * </p>
+     * <ul>
+     * <li>{@link MapTile}</li>
+     * <li>{@link Viewer}</li>
+     * </ul>
+     * 
+     * @param chunkSize The chunk size in tile used on save (must be strictly positive).
+     * @throws LionEngineException If invalid argument.
+     */
+    public MapTilePersisterChunkedModel(int chunkSize)
+    {
+        super();
+        Check.superiorStrict(chunkSize, 0);
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Write the chunk tiles as runs.
+     * 
+     * @param output The output stream.
+     * @param cx The horizontal chunk index.
+     * @param cy The vertical chunk index.
+     * @throws IOException If error on writing.
+     */
+    private void writeChunk(OutputStream output, int cx, int cy) throws IOException
+    {
+        final int sx = cx * chunkSize;
+        final int sy = cy * chunkSize;
+        final int ex = Math.min(sx + chunkSize, map.getInTileWidth());
+        final int ey = Math.min(sy + chunkSize, map.getInTileHeight());
+
+        int count = 0;
+        int runSheet = 0;
+        int runNumber = 0;
+        for (int ty = sy; ty < ey; ty++)
+        {
+            for (int tx = sx; tx < ex; tx++)
+            {
+                final Tile tile = map.getTile(tx, ty);
+                int sheet = 0;
+                int number = 0;
+                if (tile != null)
+                {
+                    sheet = tile.getSheet().intValue() + 1;
+                    number = tile.getNumber();
+                }
+                if (count > 0 && (sheet != runSheet || number != runNumber))
+                {
+                    writeRun(output, count, runSheet, runNumber);
+                    count = 0;
+                }
+                runSheet = sheet;
+                runNumber = number;
+                count++;
+            }
+        }
+        writeRun(output, count, runSheet, runNumber);
+    }
+
+    /**
+     * Write a run of identical tiles.
+     * 
+     * @param output The output stream.
+     * @param count The number of tiles.
+     * @param sheet The sheet + 1, 0 if no tile.
+     * @param number The number in sheet.
+     * @throws IOException If error on writing.
+     */
+    private static void writeRun(OutputStream output, int count, int sheet, int number) throws IOException
+    {
+        writeVarInt(output, count);
+        writeVarInt(output, sheet);
+        if (sheet > 0)
+        {
+            writeVarInt(output, number);
+        }
+    }
+
+    /**
+     * Read the file header and create the map.
+     * 
+     * @param media The file media.
+     * @throws IOException If invalid header.
+     */
+    private void readHeader(Media media) throws IOException
+    {
+        if (buffer.remaining() < Integer.SIZE / Byte.SIZE || buffer.getInt() != MAGIC)
+        {
+            throw new IOException(ERROR_FORMAT + media.getPath());
+        }
+        final short version = buffer.getShort();
+        if (version != VERSION)
+        {
+            throw new IOException(ERROR_VERSION + version);
+        }
+        final int tileWidth = buffer.getInt();
+        final int tileHeight = buffer.getInt();
+        final int widthInTile = buffer.getInt();
+        final int heightInTile = buffer.getInt();
+        size = buffer.getInt();
+        map.create(tileWidth, tileHeight, widthInTile, heightInTile);
+
+        if (buffer.get() != 0)
+        {
+            final int length = buffer.getInt();
+            if (length < 0 || length > buffer.remaining())
+            {
+                throw new IOException(ERROR_FORMAT + media.getPath());
+            }
+            final byte[] path = new byte[length];
+            buffer.get(path);
+            map.loadSheets(Medias.create(new String(path, Constant.UTF_8)));
+        }
+
+        chunksX = getChunks(widthInTile, size);
+        chunksY = getChunks(heightInTile, size);
+        indexStart = buffer.position();
+        dataStart = indexStart + chunksX * chunksY * INDEX_ENTRY;
+    }
+
+    /**
+     * Load the chunk tiles.
+     * 
+     * @param cx The horizontal chunk index.
+     * @param cy The vertical chunk index.
+     * @throws LionEngineException If invalid chunk data.
+     */
+    private void loadChunk(int cx, int cy)
+    {
+        final int index = cy * chunksX + cx;
+        final int offset = buffer.getInt(indexStart + index * INDEX_ENTRY);
+        final int length = buffer.getInt(indexStart + index * INDEX_ENTRY + INDEX_ENTRY / 2);
+        if (offset < 0 || length < 0 || dataStart + offset + length > buffer.limit())
+        {
+            throw new LionEngineException(ERROR_CHUNK, String.valueOf(cx), Constant.SPACE, String.valueOf(cy));
+        }
+
+        final ByteBuffer chunk = buffer.duplicate();
+        chunk.position(dataStart + offset);
+        chunk.limit(dataStart + offset + length);
+
+        final int sx = cx * size;
+        final int sy = cy * size;
+        final int width = Math.min(sx + size, map.getInTileWidth()) - sx;
+        final int cells = width * (Math.min(sy + size, map.getInTileHeight()) - sy);
+        int cell = 0;
+        while (cell < cells && chunk.hasRemaining())
+        {
+            final int count = Math.min(readVarInt(chunk), cells - cell);
+            final int sheet = readVarInt(chunk);
+            int number = 0;
+            if (sheet > 0)
+            {
+                number = readVarInt(chunk);
+            }
+            for (int i = 0; i < count; i++)
+            {
+                setTile(sx + cell % width, sy + cell / width, sheet, number);
+                cell++;
+            }
+        }
+        loaded.set(index);
+    }
+
+    /**
+     * Set a loaded tile.
+     * 
+     * @param tx The horizontal tile location.
+     * @param ty The vertical tile location.
+     * @param sheet The sheet + 1, 0 if no tile.
+     * @param number The number in sheet.
+     * @throws LionEngineException If sheet is missing.
+     */
+    private void setTile(int tx, int ty, int sheet, int number)
+    {
+        if (sheet > 0)
+        {
+            if (sheet - 1 >= map.getSheetsNumber())
+            {
+                throw new LionEngineException(ERROR_SHEET_MISSING, String.valueOf(sheet - 1));
+            }
+            final Integer id = Integer.valueOf(sheet - 1);
+            final double x = tx * (double) map.getTileWidth();
+            final double y = ty * (double) map.getTileHeight();
+            map.setTile(map.createTile(id, number, x, y));
+        }
+    }
+
+    /**
+     * Check if tile location is inside the loaded map chunks.
+     * 
+     * @param tx The horizontal tile location.
+     * @param ty The vertical tile location.
+     * @return <code>true</code> if inside, <code>false</code> else.
+     */
+    private boolean isInside(int tx, int ty)
+    {
+        return tx >= 0 && ty >= 0 && tx / size < chunksX && ty / size < chunksY;
+    }
+
+    /**
+     * Remove the chunk tiles from map.
+     * 
+     * @param index The chunk index.
+     */
+    private void unloadChunk(int index)
+    {
+        final int sx = index % chunksX * size;
+        final int sy = index / chunksX * size;
+        final int ex = Math.min(sx + size, map.getInTileWidth());
+        final int ey = Math.min(sy + size, map.getInTileHeight());
+        for (int ty = sy; ty < ey; ty++)
+        {
+            for (int tx = sx; tx < ex; tx++)
+            {
+                map.removeTile(tx, ty);
+            }
+        }
+        loaded.clear(index);
+    }
+
+    /**
+     * Load chunks in range, and remove loaded chunks beyond one more chunk.
+     * 
+     * @param cx The first horizontal chunk index.
+     * @param cy The first vertical chunk index.
+     * @param ex The last horizontal chunk index, included.
+     * @param ey The last vertical chunk index, included.
+     */
+    private void updateChunks(int cx, int cy, int ex, int ey)
+    {
+        for (int index = loaded.nextSetBit(0); index >= 0; index = loaded.nextSetBit(index + 1))
+        {
+            final int x = index % chunksX;
+            final int y = index / chunksX;
+            if (x < cx - 1 || x > ex + 1 || y < cy - 1 || y > ey + 1)
+            {
+                unloadChunk(index);
+            }
+        }
+        loadChunks(cx, cy, ex, ey);
+    }
+
+    /**
+     * Load chunks in range, if not already loaded.
+     * 
+     * @param cx The first horizontal chunk index.
+     * @param cy The first vertical chunk index.
+     * @param ex The last horizontal chunk index, included.
+     * @param ey The last vertical chunk index, included.
+     */
+    private void loadChunks(int cx, int cy, int ex, int ey)
+    {
+        final int endX = Math.min(ex, chunksX - 1);
+        final int endY = Math.min(ey, chunksY - 1);
+        for (int y = Math.max(0, cy); y <= endY; y++)
+        {
+            for (int x = Math.max(0, cx); x <= endX; x++)
+            {
+                if (!loaded.get(y * chunksX + x))
+                {
+                    loadChunk(x, y);
+                }
+            }
+        }
+    }
+
+    /*
+     * MapTilePersisterChunked
+     */
+
+    @Override
+    public void prepare(FeatureProvider provider, Services services)
+    {
+        super.prepare(provider, services);
+
+        map = services.get(MapTile.class);
+        viewer = services.get(Viewer.class);
+    }
+
+    @Override
+    public void save(Media media) throws IOException
+    {
+        final int widthInTile = map.getInTileWidth();
+        final int heightInTile = map.getInTileHeight();
+        final int horizontal = getChunks(widthInTile, chunkSize);
+        final int vertical = getChunks(heightInTile, chunkSize);
+
+        final ByteArrayOutputStream data = new ByteArrayOutputStream();
+        final int[] offsets = new int[horizontal * vertical + 1];
+        for (int cy = 0; cy < vertical; cy++)
+        {
+            for (int cx = 0; cx < horizontal; cx++)
+            {
+                writeChunk(data, cx, cy);
+                offsets[cy * horizontal + cx + 1] = data.size();
+            }
+        }
+
+        final DataOutputStream output = new DataOutputStream(new BufferedOutputStream(media.getOutputStream()));
+        try
+        {
+            output.writeInt(MAGIC);
+            output.writeShort(VERSION);
+            output.writeInt(map.getTileWidth());
+            output.writeInt(map.getTileHeight());
+            output.writeInt(widthInTile);
+            output.writeInt(heightInTile);
+            output.writeInt(chunkSize);
+
+            final boolean hasConfig = map.getSheetsConfig() != null;
+            output.writeBoolean(hasConfig);
+            if (hasConfig)
+            {
+                final byte[] path = map.getSheetsConfig().getPath().getBytes(Constant.UTF_8);
+                output.writeInt(path.length);
+                output.write(path);
+            }
+            for (int i = 0; i < offsets.length - 1; i++)
+            {
+                output.writeInt(offsets[i]);
+                output.writeInt(offsets[i + 1] - offsets[i]);
+            }
+            data.writeTo(output);
+        }
+        finally
+        {
+            output.close();
+        }
+    }
+
+    @Override
+    public void load(Media media) throws IOException
+    {
+        close();
+
+        final RandomAccessFile file = new RandomAccessFile(media.getFile(), READ_ONLY);
+        try
+        {
+            final FileChannel channel = file.getChannel();
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0L, channel.size());
+        }
+        finally
+        {
+            file.close();
+        }
+        try
+        {
+            readHeader(media);
+        }
+        catch (final BufferUnderflowException exception)
+        {
+            buffer = null;
+            throw new IOException(ERROR_FORMAT + media.getPath(), exception);
+        }
+        catch (final LionEngineException exception)
+        {
+            buffer = null;
+            throw new IOException(ERROR_FORMAT + media.getPath(), exception);
+        }
+    }
+
+    @Override
+    public void loadRegion(int tx, int ty, int width, int height)
+    {
+        if (buffer == null)
+        {
+            throw new LionEngineException(ERROR_NOT_LOADED);
+        }
+        final int cx = (int) Math.floor(tx / (double) size);
+        final int cy = (int) Math.floor(ty / (double) size);
+        loadChunks(cx, cy, (tx + width - 1) / size, (ty + height - 1) / size);
+    }
+
+    @Override
+    public void close()
+    {
+        buffer = null;
+        loaded.clear();
+    }
+
+    @Override
+    public void setMargin(int margin)
+    {
+        Check.superiorOrEqual(margin, 0);
+        this.margin = margin;
+    }
+
+    @Override
+    public int getChunkSize()
+    {
+        return chunkSize;
+    }
+
+    @Override
+    public int getLoadedChunks()
+    {
+        return loaded.cardinality();
+    }
+
+    @Override
+    public boolean isLoaded(int tx, int ty)
+    {
+        return buffer != null && isInside(tx, ty) && loaded.get(ty / size * chunksX + tx / size);
+    }
+
+    /*
+     * Updatable
+     */
+
+    @Override
+    public void update(double extrp)
+    {
+        if (buffer != null)
+        {
+            final double chunkWidth = map.getTileWidth() * (double) size;
+            final double chunkHeight = map.getTileHeight() * (double) size;
+            final double x = viewer.getX();
+            final double y = viewer.getY() - viewer.getViewY();
+
+            final int cx = (int) Math.floor(x / chunkWidth) - margin;
+            final int cy = (int) Math.floor(y / chunkHeight) - margin;
+            final int ex = (int) Math.floor((x + viewer.getWidth()) / chunkWidth) + margin;
+            final int ey = (int) Math.floor((y + viewer.getHeight()) / chunkHeight) + margin;
+            updateChunks(cx, cy, ex, ey);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright (C) 2013-2016 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.map.feature.viewer;
+
+import com.b3dgs.lionengine.game.map.MapTile;
+import com.b3dgs.lionengine.game.map.MapTileListener;
+
+/**
+ * Map viewer rendering tiles by chunks, cached as images. Each visible chunk is rendered once with all renderers, and
+ * only drawn on next frames. A chunk is rendered again only after being invalidated, or after map sheets or map size
+ * change. Renderers output must then only depend on the tile.
+ * <p>
+ * Viewer listens to its {@link MapTile} and invalidates changed tiles. It can be added as listener to other tiles
+ * sources used by renderers, such as fog of war.
+ * </p>
+ */
+public interface MapTileViewerCached extends MapTileViewer, MapTileListener
+{
+    /**
+     * Invalidate the chunk containing the tile, which will be rendered again on next render.
+     * 
+     * @param tx The horizontal tile location.
+     * @param ty The vertical tile location.
+     */
+    void invalidate(int tx, int ty);
+
+    /**
+     * Invalidate all chunks.
+     */
+    void invalidate();
+
+    /**
+     * Get the chunk size.
+     * 
+     * @return The chunk size in tile.
+     */
+    int getChunkSize();
+}
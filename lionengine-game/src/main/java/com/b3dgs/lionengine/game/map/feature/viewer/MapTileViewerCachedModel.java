@@ -0,0 +1,448 @@
+/*
+ * Copyright (C) 2013-2016 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.map.feature.viewer;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.core.Graphics;
+import com.b3dgs.lionengine.drawable.SpriteTiled;
+import com.b3dgs.lionengine.game.feature.FeatureModel;
+import com.b3dgs.lionengine.game.feature.FeatureProvider;
+import com.b3dgs.lionengine.game.feature.Services;
+import com.b3dgs.lionengine.game.map.MapTile;
+import com.b3dgs.lionengine.game.map.MapTileRenderer;
+import com.b3dgs.lionengine.game.map.MapTileRendererModel;
+import com.b3dgs.lionengine.game.tile.Tile;
+import com.b3dgs.lionengine.graphic.Graphic;
+import com.b3dgs.lionengine.graphic.ImageBuffer;
+import com.b3dgs.lionengine.graphic.Transparency;
+import com.b3dgs.lionengine.graphic.Viewer;
+
+/**
+ * Map tile viewer cached implementation. Only chunks visible on last render are kept, others are released to a pool
+ * of images reused for next visible chunks.
+ * <p>
+ * The {@link Services} must provide:
+ * </p>
+ * <ul>
+ * <li>{@link MapTile}</li>
+ * <li>{@link Viewer}</li>
+ * </ul>
+ */
+public class MapTileViewerCachedModel extends FeatureModel implements MapTileViewerCached
+{
+    /** Default chunk size in tile. */
+    public static final int DEFAULT_CHUNK_SIZE = 16;
+
+    /** Map tile renderers. */
+    private final Collection<MapTileRenderer> renderers = new ArrayList<MapTileRenderer>();
+    /** Sheets used by cached chunks. */
+    private final List<SpriteTiled> sheets = new ArrayList<SpriteTiled>();
+    /** Released chunk images. */
+    private final List<ImageBuffer> pool = new ArrayList<ImageBuffer>();
+    /** Chunks with an image. */
+    private final BitSet resident = new BitSet();
+    /** Chunks to render again. */
+    private final BitSet dirty = new BitSet();
+    /** Chunks drawn on current render. */
+    private final BitSet used = new BitSet();
+    /** Chunk size in tile. */
+    private final int chunkSize;
+    /** Chunk images, <code>null</code> if not resident. */
+    private ImageBuffer[] chunks = new ImageBuffer[0];
+    /** Transparent pixels used to clear a reused image. */
+    private int[] empty;
+    /** Tile width used by chunks. */
+    private int tileWidth;
+    /** Tile height used by chunks. */
+    private int tileHeight;
+    /** Number of horizontal chunks. */
+    private int chunksX;
+    /** Number of vertical chunks. */
+    private int chunksY;
+    /** Map reference. */
+    private MapTile map;
+    /** Viewer reference. */
+    private Viewer viewer;
+
+    /**
+     * Create a map tile viewer with {@link #DEFAULT_CHUNK_SIZE}.
+     * <p>
+     * The {@link Services} must provide:
+     * </p>
+     * <ul>
+     * <li>{@link MapTile}</li>
+     * <li>{@link Viewer}</li>
+     * </ul>
+     */
+    public MapTileViewerCachedModel()
+    {
+        this(DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Create a map tile viewer.
+     * <p>
+     * The {@link Services} must provide:
+     * </p>
+     * <ul>
+     * <li>{@link MapTile}</li>
+     * <li>{@link Viewer}</li>
+     * </ul>
+     * 
+     * @param chunkSize The chunk size in tile (must be strictly positive).
+     * @throws LionEngineException If invalid argument.
+     */
+    public MapTileViewerCachedModel(int chunkSize)
+    {
+        super();
+        Check.superiorStrict(chunkSize, 0);
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Release all chunks if map size or sheets changed since last render.
+     */
+    private void checkMap()
+    {
+        final int horizontal = (map.getInTileWidth() + chunkSize - 1) / chunkSize;
+        final int vertical = (map.getInTileHeight() + chunkSize - 1) / chunkSize;
+        if (tileWidth != map.getTileWidth()
+            || tileHeight != map.getTileHeight()
+            || chunksX != horizontal
+            || chunksY != vertical)
+        {
+            dispose();
+            tileWidth = map.getTileWidth();
+            tileHeight = map.getTileHeight();
+            chunksX = horizontal;
+            chunksY = vertical;
+            chunks = new ImageBuffer[horizontal * vertical];
+            empty = null;
+        }
+        if (hasSheetsChanged())
+        {
+            invalidate();
+        }
+    }
+
+    /**
+     * Check if map sheets changed since last call.
+     * 
+     * @return <code>true</code> if changed, <code>false</code> else.
+     */
+    private boolean hasSheetsChanged()
+    {
+        boolean changed = sheets.size() != map.getSheetsNumber();
+        int i = 0;
+        for (final Integer sheet : map.getSheets())
+        {
+            final SpriteTiled sprite = map.getSheet(sheet);
+            changed = changed || i >= sheets.size() || sheets.get(i) != sprite;
+            i++;
+        }
+        if (changed)
+        {
+            sheets.clear();
+            for (final Integer sheet : map.getSheets())
+            {
+                sheets.add(map.getSheet(sheet));
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Dispose all chunk images.
+     */
+    private void dispose()
+    {
+        for (int index = resident.nextSetBit(0); index >= 0; index = resident.nextSetBit(index + 1))
+        {
+            chunks[index].dispose();
+            chunks[index] = null;
+        }
+        for (final ImageBuffer buffer : pool)
+        {
+            buffer.dispose();
+        }
+        pool.clear();
+        resident.clear();
+        dirty.clear();
+    }
+
+    /**
+     * Render chunk if needed and draw it.
+     * 
+     * @param g The graphic output.
+     * @param cx The horizontal chunk index.
+     * @param cy The vertical chunk index.
+     * @param viewX The horizontal view offset.
+     * @param viewY The vertical view offset.
+     */
+    private void renderChunk(Graphic g, int cx, int cy, double viewX, double viewY)
+    {
+        final int index = cy * chunksX + cx;
+        ImageBuffer buffer = chunks[index];
+        if (buffer == null)
+        {
+            buffer = acquire();
+            chunks[index] = buffer;
+            resident.set(index);
+            drawChunk(buffer, cx, cy);
+        }
+        else if (dirty.get(index))
+        {
+            clear(buffer);
+            drawChunk(buffer, cx, cy);
+        }
+        dirty.clear(index);
+        used.set(index);
+
+        final int x = (int) Math.floor(cx * chunkSize * (double) tileWidth - viewX);
+        final int y = (int) Math.floor(viewY - (cy + 1) * chunkSize * (double) tileHeight);
+        g.drawImage(buffer, x, y);
+    }
+
+    /**
+     * Get an image from pool, or create a new one.
+     * 
+     * @return The chunk image, transparent.
+     */
+    private ImageBuffer acquire()
+    {
+        final ImageBuffer buffer;
+        if (pool.isEmpty())
+        {
+            buffer = Graphics.createImageBuffer(chunkSize * tileWidth,
+                                                chunkSize * tileHeight,
+                                                Transparency.TRANSLUCENT);
+        }
+        else
+        {
+            buffer = pool.remove(pool.size() - 1);
+            clear(buffer);
+        }
+        return buffer;
+    }
+
+    /**
+     * Clear the image content.
+     * 
+     * @param buffer The image to clear.
+     */
+    private void clear(ImageBuffer buffer)
+    {
+        final int width = buffer.getWidth();
+        final int height = buffer.getHeight();
+        if (empty == null)
+        {
+            empty = new int[width * height];
+        }
+        buffer.setRgb(0, 0, width, height, empty, 0, width);
+    }
+
+    /**
+     * Render all chunk tiles on image.
+     * 
+     * @param buffer The chunk image.
+     * @param cx The horizontal chunk index.
+     * @param cy The vertical chunk index.
+     */
+    private void drawChunk(ImageBuffer buffer, int cx, int cy)
+    {
+        final Graphic g = buffer.createGraphic();
+        final int sx = cx * chunkSize;
+        final int sy = cy * chunkSize;
+        final int ey = Math.min(sy + chunkSize, map.getInTileHeight());
+        for (int ty = sy; ty < ey; ty++)
+        {
+            drawRow(g, sx, ty, (sy + chunkSize - 1 - ty) * tileHeight);
+        }
+        g.dispose();
+    }
+
+    /**
+     * Render the chunk tiles of a row.
+     * 
+     * @param g The chunk graphic.
+     * @param sx The first horizontal tile of chunk.
+     * @param ty The vertical tile location.
+     * @param y The row location on chunk.
+     */
+    private void drawRow(Graphic g, int sx, int ty, int y)
+    {
+        final int ex = Math.min(sx + chunkSize, map.getInTileWidth());
+        for (int tx = sx; tx < ex; tx++)
+        {
+            final Tile tile = map.getTile(tx, ty);
+            if (tile != null)
+            {
+                drawTile(g, tile, (tx - sx) * tileWidth, y);
+            }
+        }
+    }
+
+    /**
+     * Render tile with all renderers.
+     * 
+     * @param g The chunk graphic.
+     * @param tile The tile to render.
+     * @param x The location x on chunk.
+     * @param y The location y on chunk.
+     */
+    private void drawTile(Graphic g, Tile tile, int x, int y)
+    {
+        for (final MapTileRenderer renderer : renderers)
+        {
+            renderer.renderTile(g, map, tile, x, y);
+        }
+    }
+
+    /**
+     * Release images of chunks not drawn on last render.
+     */
+    private void releaseUnused()
+    {
+        for (int index = resident.nextSetBit(0); index >= 0; index = resident.nextSetBit(index + 1))
+        {
+            if (!used.get(index))
+            {
+                final ImageBuffer buffer = chunks[index];
+                chunks[index] = null;
+                resident.clear(index);
+                dirty.clear(index);
+                if (pool.size() < used.cardinality())
+                {
+                    pool.add(buffer);
+                }
+                else
+                {
+                    buffer.dispose();
+                }
+            }
+        }
+    }
+
+    /*
+     * MapTileViewerCached
+     */
+
+    @Override
+    public void prepare(FeatureProvider provider, Services services)
+    {
+        super.prepare(provider, services);
+
+        map = services.get(MapTile.class);
+        viewer = services.get(Viewer.class);
+        map.addListener(this);
+        if (renderers.isEmpty())
+        {
+            renderers.add(new MapTileRendererModel());
+        }
+    }
+
+    @Override
+    public void addRenderer(MapTileRenderer renderer)
+    {
+        renderers.add(renderer);
+        invalidate();
+    }
+
+    @Override
+    public void removeRenderer(MapTileRenderer renderer)
+    {
+        renderers.remove(renderer);
+        invalidate();
+    }
+
+    @Override
+    public void clear()
+    {
+        renderers.clear();
+        invalidate();
+    }
+
+    @Override
+    public void invalidate(int tx, int ty)
+    {
+        if (tx >= 0 && ty >= 0 && tx / chunkSize < chunksX && ty / chunkSize < chunksY)
+        {
+            dirty.set(ty / chunkSize * chunksX + tx / chunkSize);
+        }
+    }
+
+    @Override
+    public void notifyTilesChanged(int tx, int ty, int width, int height)
+    {
+        final int endX = Math.min((tx + width - 1) / chunkSize, chunksX - 1);
+        final int endY = Math.min((ty + height - 1) / chunkSize, chunksY - 1);
+        for (int cy = Math.max(0, ty / chunkSize); cy <= endY; cy++)
+        {
+            for (int cx = Math.max(0, tx / chunkSize); cx <= endX; cx++)
+            {
+                dirty.set(cy * chunksX + cx);
+            }
+        }
+    }
+
+    @Override
+    public void invalidate()
+    {
+        dirty.or(resident);
+    }
+
+    @Override
+    public int getChunkSize()
+    {
+        return chunkSize;
+    }
+
+    @Override
+    public void render(Graphic g)
+    {
+        checkMap();
+
+        final int sx = (int) Math.floor((viewer.getX() + viewer.getViewX()) / tileWidth);
+        final int sy = (int) Math.floor((viewer.getY() - viewer.getViewY()) / tileHeight);
+        final int ex = sx + (int) Math.ceil(viewer.getWidth() / (double) tileWidth);
+        final int ey = sy + (int) Math.ceil(viewer.getHeight() / (double) tileHeight);
+        final double viewX = viewer.getX();
+        final double viewY = viewer.getY() - viewer.getViewY() + viewer.getScreenHeight() - viewer.getViewY();
+
+        final int startX = Math.max(0, (int) Math.floor(sx / (double) chunkSize));
+        final int startY = Math.max(0, (int) Math.floor(sy / (double) chunkSize));
+        final int endX = Math.min(chunksX - 1, (int) Math.floor(ex / (double) chunkSize));
+        final int endY = Math.min(chunksY - 1, (int) Math.floor(ey / (double) chunkSize));
+
+        used.clear();
+        for (int cy = startY; cy <= endY; cy++)
+        {
+            for (int cx = startX; cx <= endX; cx++)
+            {
+                renderChunk(g, cx, cy, viewX, viewY);
+            }
+        }
+        releaseUnused();
+    }
+}
@@ -26,7 +26,8 @@ import com.b3dgs.lionengine.game.map.MapTile;
 public final class Astar
 {
     /**
-     * Create a path finder.
+     * Create a path finder. If the map has the {@link MapTilePathHierarchy} feature, it is used for long distance
+     * searches.
      * 
      * @param map The map to be searched. Must have the {@link com.b3dgs.lionengine.game.pathfinding.MapTilePath}
      *            feature.
@@ -36,7 +37,33 @@ public final class Astar
      */
     public static PathFinder createPathFinder(MapTile map, int maxSearchDistance, Heuristic heuristic)
     {
-        return new PathFinderImpl(map, maxSearchDistance, heuristic);
+        final PathFinderImpl finder = new PathFinderImpl(map, maxSearchDistance, heuristic);
+        if (map.hasFeature(MapTilePathHierarchy.class))
+        {
+            return new PathFinderHierarchical(map, finder);
+        }
+        return finder;
+    }
+
+    /**
+     * Create a path finder batch, searching requests in parallel. Each worker thread uses its own nodes.
+     * 
+     * @param map The map to be searched. Must have the {@link com.b3dgs.lionengine.game.pathfinding.MapTilePath}
+     *            feature.
+     * @param maxSearchDistance The maximum depth we'll search before giving up.
+     * @param heuristic The heuristic used to determine the search order of the map.
+     * @param threads The number of worker threads (strictly positive).
+     * @param budget The search time budget per update in milli (strictly positive).
+     * @return The path finder batch instance.
+     * @throws LionEngineException If invalid arguments.
+     */
+    public static PathFinderBatch createPathFinderBatch(MapTile map,
+                                                        int maxSearchDistance,
+                                                        Heuristic heuristic,
+                                                        int threads,
+                                                        double budget)
+    {
+        return new PathFinderBatchImpl(map, maxSearchDistance, heuristic, threads, budget);
     }
 
     /**
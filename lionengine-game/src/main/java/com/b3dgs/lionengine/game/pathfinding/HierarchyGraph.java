@@ -0,0 +1,667 @@
+/*
+ * Copyright (C) 2013-2016 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.pathfinding;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+import com.b3dgs.lionengine.game.map.MapTile;
+import com.b3dgs.lionengine.game.tile.Tile;
+
+/**
+ * Hierarchical graph of a map, for a set of blocking categories. The map is split into square clusters, and each
+ * couple of adjacent clusters is linked by entrances on their common border (or corner). Entrances of the same cluster
+ * are linked by their inner distance. Invalidated clusters are rebuilt on next search, with their neighbors links.
+ */
+final class HierarchyGraph
+{
+    /** Minimum free border length where two entrances are created, at each side. */
+    private static final int ENTRANCE_SPLIT = 6;
+    /** Unreached distance. */
+    private static final int UNREACHED = -1;
+
+    /**
+     * Get the distance in steps between two locations, moving in eight directions.
+     * 
+     * @param sx The starting horizontal location.
+     * @param sy The starting vertical location.
+     * @param dx The ending horizontal location.
+     * @param dy The ending vertical location.
+     * @return The distance in steps.
+     */
+    private static int getDistance(int sx, int sy, int dx, int dy)
+    {
+        return Math.max(Math.abs(dx - sx), Math.abs(dy - sy));
+    }
+
+    /** Borders nodes with right cluster, by cluster index. */
+    private final List<List<HierarchyNode>> right = new ArrayList<List<HierarchyNode>>();
+    /** Borders nodes with bottom cluster, by cluster index. */
+    private final List<List<HierarchyNode>> bottom = new ArrayList<List<HierarchyNode>>();
+    /** Corners nodes with diagonal clusters (bottom right corner), by cluster index. */
+    private final List<List<HierarchyNode>> corner = new ArrayList<List<HierarchyNode>>();
+    /** Cluster nodes cache. */
+    private final List<HierarchyNode> nodes = new ArrayList<HierarchyNode>();
+    /** Map reference. */
+    private final MapTile map;
+    /** Blocking categories. */
+    private final Collection<String> blocking;
+    /** Cluster size in tile. */
+    private final int size;
+    /** Number of horizontal clusters. */
+    private final int clustersX;
+    /** Number of vertical clusters. */
+    private final int clustersY;
+    /** Dirty clusters. */
+    private final boolean[] dirty;
+    /** Clusters to link. */
+    private final boolean[] unlinked;
+    /** Cluster passable tiles. */
+    private final boolean[] passable;
+    /** Cluster distances from the current source. */
+    private final int[] distances;
+    /** Cluster locations queue. */
+    private final int[] queue;
+    /** Cluster of the passable tiles cache, {@link #UNREACHED} if none. */
+    private int passableCluster = UNREACHED;
+    /** Search insertion counter. */
+    private int inserted;
+    /** Dirty flag. */
+    private boolean invalid = true;
+
+    /**
+     * Create graph. All clusters are dirty.
+     * 
+     * @param map The map reference.
+     * @param blocking The blocking categories.
+     * @param size The cluster size in tile.
+     */
+    HierarchyGraph(MapTile map, Collection<String> blocking, int size)
+    {
+        this.map = map;
+        this.blocking = blocking;
+        this.size = size;
+        clustersX = (map.getInTileWidth() + size - 1) / size;
+        clustersY = (map.getInTileHeight() + size - 1) / size;
+        dirty = new boolean[clustersX * clustersY];
+        unlinked = new boolean[dirty.length];
+        passable = new boolean[size * size];
+        distances = new int[size * size];
+        queue = new int[size * size];
+        Arrays.fill(dirty, true);
+        for (int i = 0; i < dirty.length; i++)
+        {
+            right.add(new ArrayList<HierarchyNode>());
+            bottom.add(new ArrayList<HierarchyNode>());
+            corner.add(new ArrayList<HierarchyNode>());
+        }
+    }
+
+    /**
+     * Invalidate the cluster containing the location.
+     * 
+     * @param tx The horizontal location in tile.
+     * @param ty The vertical location in tile.
+     */
+    synchronized void invalidate(int tx, int ty)
+    {
+        if (tx >= 0 && ty >= 0 && tx < map.getInTileWidth() && ty < map.getInTileHeight())
+        {
+            dirty[ty / size * clustersX + tx / size] = true;
+            invalid = true;
+        }
+    }
+
+    /**
+     * Search the entrances to cross from start to destination. Dirty clusters are rebuilt before.
+     * 
+     * @param stx The starting horizontal location.
+     * @param sty The starting vertical location.
+     * @param dtx The destination horizontal location.
+     * @param dty The destination vertical location.
+     * @return The locations to cross, including start and destination, <code>null</code> if unreachable.
+     */
+    synchronized List<CoordTile> search(int stx, int sty, int dtx, int dty)
+    {
+        if (invalid)
+        {
+            rebuild();
+        }
+        final HierarchyNode start = new HierarchyNode(stx, sty, getCluster(stx, sty));
+        final HierarchyNode destination = new HierarchyNode(dtx, dty, getCluster(dtx, dty));
+
+        computeDistances(destination);
+        final Map<HierarchyNode, Integer> toDestination = new HashMap<HierarchyNode, Integer>();
+        for (final HierarchyNode node : getNodes(destination.getCluster()))
+        {
+            final int distance = getDistance(node);
+            if (distance != UNREACHED)
+            {
+                toDestination.put(node, Integer.valueOf(distance));
+            }
+        }
+        computeDistances(start);
+        if (start.getCluster() == destination.getCluster() && getDistance(destination) != UNREACHED)
+        {
+            start.addLink(destination, getDistance(destination));
+        }
+        for (final HierarchyNode node : getNodes(start.getCluster()))
+        {
+            final int distance = getDistance(node);
+            if (distance != UNREACHED)
+            {
+                start.addLink(node, distance);
+            }
+        }
+        return search(start, destination, toDestination);
+    }
+
+    /**
+     * Search the shortest entrances sequence.
+     * 
+     * @param start The start node, linked to its cluster entrances.
+     * @param destination The destination node.
+     * @param toDestination The destination cluster entrances distance to destination.
+     * @return The locations to cross, including start and destination, <code>null</code> if unreachable.
+     */
+    private List<CoordTile> search(HierarchyNode start,
+                                   HierarchyNode destination,
+                                   Map<HierarchyNode, Integer> toDestination)
+    {
+        final PriorityQueue<Candidate> open = new PriorityQueue<Candidate>();
+        final Map<HierarchyNode, Integer> costs = new HashMap<HierarchyNode, Integer>();
+        final Map<HierarchyNode, HierarchyNode> parents = new HashMap<HierarchyNode, HierarchyNode>();
+        final Collection<HierarchyNode> closed = new HashSet<HierarchyNode>();
+        costs.put(start, Integer.valueOf(0));
+        inserted = 0;
+        open.add(new Candidate(start, 0, 0, inserted));
+
+        while (!open.isEmpty() && !closed.contains(destination))
+        {
+            final Candidate current = open.poll();
+            if (closed.add(current.node))
+            {
+                final Integer cost = toDestination.get(current.node);
+                if (cost != null)
+                {
+                    relax(open, costs, parents, current, destination, cost.intValue(), destination);
+                }
+                if (current.node.getPartner() != null)
+                {
+                    relax(open, costs, parents, current, current.node.getPartner(), 1, destination);
+                }
+                final Iterator<Integer> links = current.node.getCosts().iterator();
+                for (final HierarchyNode link : current.node.getLinks())
+                {
+                    relax(open, costs, parents, current, link, links.next().intValue(), destination);
+                }
+            }
+        }
+        if (!closed.contains(destination))
+        {
+            return null;
+        }
+        final List<CoordTile> path = new ArrayList<CoordTile>();
+        HierarchyNode node = destination;
+        while (node != null)
+        {
+            path.add(0, new CoordTile(node.getX(), node.getY()));
+            node = parents.get(node);
+        }
+        return path;
+    }
+
+    /**
+     * Update the node cost if a shorter way has been found.
+     * 
+     * @param open The open candidates.
+     * @param costs The nodes best cost.
+     * @param parents The nodes parent.
+     * @param current The current candidate.
+     * @param next The next node.
+     * @param step The cost from current to next.
+     * @param destination The destination node.
+     */
+    private void relax(PriorityQueue<Candidate> open,
+                       Map<HierarchyNode, Integer> costs,
+                       Map<HierarchyNode, HierarchyNode> parents,
+                       Candidate current,
+                       HierarchyNode next,
+                       int step,
+                       HierarchyNode destination)
+    {
+        final int cost = current.cost + step;
+        final Integer old = costs.get(next);
+        if (old == null || cost < old.intValue())
+        {
+            costs.put(next, Integer.valueOf(cost));
+            parents.put(next, current.node);
+            final int heuristic = getDistance(next.getX(), next.getY(), destination.getX(), destination.getY());
+            inserted++;
+            open.add(new Candidate(next, cost, cost + heuristic, inserted));
+        }
+    }
+
+    /**
+     * Rebuild dirty clusters entrances, and link entrances of them and their neighbors.
+     */
+    private void rebuild()
+    {
+        passableCluster = UNREACHED;
+        for (int cluster = 0; cluster < dirty.length; cluster++)
+        {
+            if (dirty[cluster])
+            {
+                rebuildBorders(cluster % clustersX, cluster / clustersX);
+                dirty[cluster] = false;
+            }
+        }
+        for (int cluster = 0; cluster < unlinked.length; cluster++)
+        {
+            if (unlinked[cluster])
+            {
+                link(cluster);
+                unlinked[cluster] = false;
+            }
+        }
+        invalid = false;
+    }
+
+    /**
+     * Rebuild all borders and corners of cluster. Cluster and its neighbors are marked as unlinked.
+     * 
+     * @param cx The horizontal cluster index.
+     * @param cy The vertical cluster index.
+     */
+    private void rebuildBorders(int cx, int cy)
+    {
+        for (int oy = -1; oy < 1; oy++)
+        {
+            for (int ox = -1; ox < 1; ox++)
+            {
+                final int kx = cx + ox;
+                final int ky = cy + oy;
+                if (kx >= 0 && ky >= 0)
+                {
+                    rebuildBorders(kx, ky, ox == 0, oy == 0);
+                }
+            }
+        }
+        for (int ny = Math.max(0, cy - 1); ny <= Math.min(clustersY - 1, cy + 1); ny++)
+        {
+            for (int nx = Math.max(0, cx - 1); nx <= Math.min(clustersX - 1, cx + 1); nx++)
+            {
+                unlinked[ny * clustersX + nx] = true;
+            }
+        }
+    }
+
+    /**
+     * Rebuild the borders owned by cluster.
+     * 
+     * @param kx The horizontal owner cluster index.
+     * @param ky The vertical owner cluster index.
+     * @param bottomBorder <code>true</code> to rebuild the bottom border.
+     * @param rightBorder <code>true</code> to rebuild the right border.
+     */
+    private void rebuildBorders(int kx, int ky, boolean bottomBorder, boolean rightBorder)
+    {
+        final int cluster = ky * clustersX + kx;
+        final boolean hasRight = kx + 1 < clustersX;
+        final boolean hasBottom = ky + 1 < clustersY;
+        if (rightBorder && hasRight)
+        {
+            rebuildBorder(right.get(cluster), kx, ky, 1, 0);
+        }
+        if (bottomBorder && hasBottom)
+        {
+            rebuildBorder(bottom.get(cluster), kx, ky, 0, 1);
+        }
+        if (hasRight && hasBottom)
+        {
+            rebuildCorner(corner.get(cluster), kx, ky);
+        }
+    }
+
+    /**
+     * Rebuild entrances of the border between cluster and its next one.
+     * 
+     * @param border The border nodes.
+     * @param kx The horizontal cluster index.
+     * @param ky The vertical cluster index.
+     * @param ox The horizontal next cluster offset (1 for right border).
+     * @param oy The vertical next cluster offset (1 for bottom border).
+     */
+    private void rebuildBorder(List<HierarchyNode> border, int kx, int ky, int ox, int oy)
+    {
+        border.clear();
+        final int sx = (kx + ox) * size - ox;
+        final int sy = (ky + oy) * size - oy;
+        final int length = getBorderLength(kx * oy + ky * ox, oy * map.getInTileWidth() + ox * map.getInTileHeight());
+        int run = 0;
+        for (int i = 0; i <= length; i++)
+        {
+            final int tx = sx + oy * i;
+            final int ty = sy + ox * i;
+            if (i < length && isPassable(tx, ty) && isPassable(tx + ox, ty + oy))
+            {
+                run++;
+            }
+            else if (run > 0)
+            {
+                addEntrances(border, tx - oy * run, ty - ox * run, ox, oy, run);
+                run = 0;
+            }
+        }
+    }
+
+    /**
+     * Get the border length.
+     * 
+     * @param index The cluster index along the border.
+     * @param max The map size along the border.
+     * @return The border length in tile.
+     */
+    private int getBorderLength(int index, int max)
+    {
+        return Math.min(size, max - index * size);
+    }
+
+    /**
+     * Add the entrances of a free border part.
+     * 
+     * @param border The border nodes.
+     * @param tx The first free horizontal location.
+     * @param ty The first free vertical location.
+     * @param ox The horizontal next cluster offset.
+     * @param oy The vertical next cluster offset.
+     * @param run The free part length.
+     */
+    private void addEntrances(List<HierarchyNode> border, int tx, int ty, int ox, int oy, int run)
+    {
+        if (run < ENTRANCE_SPLIT)
+        {
+            final int middle = (run - 1) / 2;
+            addEntrance(border, tx + oy * middle, ty + ox * middle, tx + oy * middle + ox, ty + ox * middle + oy);
+        }
+        else
+        {
+            final int last = run - 1;
+            addEntrance(border, tx, ty, tx + ox, ty + oy);
+            addEntrance(border, tx + oy * last, ty + ox * last, tx + oy * last + ox, ty + ox * last + oy);
+        }
+    }
+
+    /**
+     * Rebuild the corner entrances between cluster and its diagonal neighbors (bottom right corner).
+     * 
+     * @param border The corner nodes.
+     * @param kx The horizontal cluster index.
+     * @param ky The vertical cluster index.
+     */
+    private void rebuildCorner(List<HierarchyNode> border, int kx, int ky)
+    {
+        border.clear();
+        final int tx = (kx + 1) * size - 1;
+        final int ty = (ky + 1) * size - 1;
+        if (isPassable(tx, ty) && isPassable(tx + 1, ty + 1))
+        {
+            addEntrance(border, tx, ty, tx + 1, ty + 1);
+        }
+        if (isPassable(tx + 1, ty) && isPassable(tx, ty + 1))
+        {
+            addEntrance(border, tx + 1, ty, tx, ty + 1);
+        }
+    }
+
+    /**
+     * Add an entrance, as two linked nodes.
+     * 
+     * @param border The border nodes.
+     * @param tx The first horizontal location.
+     * @param ty The first vertical location.
+     * @param nx The second horizontal location.
+     * @param ny The second vertical location.
+     */
+    private void addEntrance(List<HierarchyNode> border, int tx, int ty, int nx, int ny)
+    {
+        final HierarchyNode node = new HierarchyNode(tx, ty, getCluster(tx, ty));
+        final HierarchyNode next = new HierarchyNode(nx, ny, getCluster(nx, ny));
+        node.setPartner(next);
+        next.setPartner(node);
+        border.add(node);
+        border.add(next);
+    }
+
+    /**
+     * Link all entrances of the cluster with their inner distance.
+     * 
+     * @param cluster The cluster index.
+     */
+    private void link(int cluster)
+    {
+        final List<HierarchyNode> entrances = new ArrayList<HierarchyNode>(getNodes(cluster));
+        for (final HierarchyNode node : entrances)
+        {
+            node.clearLinks();
+            computeDistances(node);
+            for (final HierarchyNode other : entrances)
+            {
+                final int distance = getDistance(other);
+                if (other != node && distance != UNREACHED)
+                {
+                    node.addLink(other, distance);
+                }
+            }
+        }
+    }
+
+    /**
+     * Get all entrances of the cluster.
+     * 
+     * @param cluster The cluster index.
+     * @return The cluster entrances (shared cache).
+     */
+    private List<HierarchyNode> getNodes(int cluster)
+    {
+        nodes.clear();
+        final int cx = cluster % clustersX;
+        final int cy = cluster / clustersX;
+        for (int ny = Math.max(0, cy - 1); ny <= cy; ny++)
+        {
+            for (int nx = Math.max(0, cx - 1); nx <= cx; nx++)
+            {
+                final int owner = ny * clustersX + nx;
+                addNodes(right.get(owner), cluster);
+                addNodes(bottom.get(owner), cluster);
+                addNodes(corner.get(owner), cluster);
+            }
+        }
+        return nodes;
+    }
+
+    /**
+     * Add the border nodes belonging to cluster to the nodes cache.
+     * 
+     * @param border The border nodes.
+     * @param cluster The cluster index.
+     */
+    private void addNodes(List<HierarchyNode> border, int cluster)
+    {
+        for (final HierarchyNode node : border)
+        {
+            if (node.getCluster() == cluster)
+            {
+                nodes.add(node);
+            }
+        }
+    }
+
+    /**
+     * Compute the distance of each cluster location from the source, moving in eight directions.
+     * 
+     * @param source The source node.
+     */
+    private void computeDistances(HierarchyNode source)
+    {
+        final int x0 = source.getCluster() % clustersX * size;
+        final int y0 = source.getCluster() / clustersX * size;
+        final int width = Math.min(size, map.getInTileWidth() - x0);
+        final int height = Math.min(size, map.getInTileHeight() - y0);
+        if (passableCluster != source.getCluster())
+        {
+            computePassable(x0, y0, width, height);
+            passableCluster = source.getCluster();
+        }
+        Arrays.fill(distances, UNREACHED);
+        int first = 0;
+        int last = 0;
+        queue[last++] = (source.getY() - y0) * size + source.getX() - x0;
+        distances[queue[0]] = 0;
+        while (first < last)
+        {
+            final int index = queue[first++];
+            final int distance = distances[index] + 1;
+            for (int y = Math.max(0, index / size - 1); y <= Math.min(height - 1, index / size + 1); y++)
+            {
+                for (int x = Math.max(0, index % size - 1); x <= Math.min(width - 1, index % size + 1); x++)
+                {
+                    final int next = y * size + x;
+                    if (passable[next] && distances[next] == UNREACHED)
+                    {
+                        distances[next] = distance;
+                        queue[last++] = next;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Compute the passable cache of a cluster.
+     * 
+     * @param x0 The cluster horizontal location in tile.
+     * @param y0 The cluster vertical location in tile.
+     * @param width The cluster width in tile.
+     * @param height The cluster height in tile.
+     */
+    private void computePassable(int x0, int y0, int width, int height)
+    {
+        for (int y = 0; y < height; y++)
+        {
+            for (int x = 0; x < width; x++)
+            {
+                passable[y * size + x] = isPassable(x0 + x, y0 + y);
+            }
+        }
+    }
+
+    /**
+     * Get the distance computed by {@link #computeDistances(HierarchyNode)}.
+     * 
+     * @param node The node, in the same cluster as source.
+     * @return The distance from source, {@link #UNREACHED} if unreachable.
+     */
+    private int getDistance(HierarchyNode node)
+    {
+        final int x0 = node.getCluster() % clustersX * size;
+        final int y0 = node.getCluster() / clustersX * size;
+        return distances[(node.getY() - y0) * size + node.getX() - x0];
+    }
+
+    /**
+     * Get the cluster index of location.
+     * 
+     * @param tx The horizontal location in tile.
+     * @param ty The vertical location in tile.
+     * @return The cluster index.
+     */
+    private int getCluster(int tx, int ty)
+    {
+        return ty / size * clustersX + tx / size;
+    }
+
+    /**
+     * Check if location can be crossed.
+     * 
+     * @param tx The horizontal location in tile.
+     * @param ty The vertical location in tile.
+     * @return <code>true</code> if passable, <code>false</code> else.
+     */
+    private boolean isPassable(int tx, int ty)
+    {
+        final Tile tile = map.getTile(tx, ty);
+        if (tile != null)
+        {
+            return !blocking.contains(tile.getFeature(TilePath.class).getCategory());
+        }
+        return false;
+    }
+
+    /**
+     * Search candidate, ordered by estimated total cost, then by insertion.
+     */
+    private static final class Candidate implements Comparable<Candidate>
+    {
+        /** The node reference. */
+        final HierarchyNode node;
+        /** The cost from start. */
+        final int cost;
+        /** The estimated total cost. */
+        private final int total;
+        /** The insertion order. */
+        private final int order;
+
+        /**
+         * Internal constructor.
+         * 
+         * @param node The node reference.
+         * @param cost The cost from start.
+         * @param total The estimated total cost.
+         * @param order The insertion order.
+         */
+        Candidate(HierarchyNode node, int cost, int total, int order)
+        {
+            this.node = node;
+            this.cost = cost;
+            this.total = total;
+            this.order = order;
+        }
+
+        /*
+         * Comparable
+         */
+
+        @Override
+        public int compareTo(Candidate other)
+        {
+            if (total != other.total)
+            {
+                return total - other.total;
+            }
+            return order - other.order;
+        }
+    }
+}
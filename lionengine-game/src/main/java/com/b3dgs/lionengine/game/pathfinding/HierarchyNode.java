@@ -0,0 +1,146 @@
+/*
+ * Copyright (C) 2013-2016 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.pathfinding;
+
+import java.util.ArrayList;
+import java.util.Collection;
+
+/**
+ * Hierarchical graph node, representing a cluster entrance location. Each node is linked to the node on the other side
+ * of its cluster border, and to the other entrances reachable inside its cluster.
+ */
+final class HierarchyNode
+{
+    /** Linked nodes. */
+    private final Collection<HierarchyNode> links = new ArrayList<HierarchyNode>();
+    /** Linked nodes cost, in the same order as links. */
+    private final Collection<Integer> costs = new ArrayList<Integer>();
+    /** Horizontal location in tile. */
+    private final int tx;
+    /** Vertical location in tile. */
+    private final int ty;
+    /** Cluster index. */
+    private final int cluster;
+    /** Node on the other side of the border. */
+    private HierarchyNode partner;
+
+    /**
+     * Create a node.
+     * 
+     * @param tx The horizontal location in tile.
+     * @param ty The vertical location in tile.
+     * @param cluster The owner cluster index.
+     */
+    HierarchyNode(int tx, int ty, int cluster)
+    {
+        this.tx = tx;
+        this.ty = ty;
+        this.cluster = cluster;
+    }
+
+    /**
+     * Set the node on the other side of the border.
+     * 
+     * @param partner The partner node.
+     */
+    void setPartner(HierarchyNode partner)
+    {
+        this.partner = partner;
+    }
+
+    /**
+     * Remove all links inside cluster.
+     */
+    void clearLinks()
+    {
+        links.clear();
+        costs.clear();
+    }
+
+    /**
+     * Link node inside cluster.
+     * 
+     * @param node The reachable node.
+     * @param cost The cost to reach node.
+     */
+    void addLink(HierarchyNode node, int cost)
+    {
+        links.add(node);
+        costs.add(Integer.valueOf(cost));
+    }
+
+    /**
+     * Get the nodes reachable inside cluster.
+     * 
+     * @return The linked nodes.
+     */
+    Collection<HierarchyNode> getLinks()
+    {
+        return links;
+    }
+
+    /**
+     * Get the linked nodes cost, in the same order as {@link #getLinks()}.
+     * 
+     * @return The linked nodes cost.
+     */
+    Collection<Integer> getCosts()
+    {
+        return costs;
+    }
+
+    /**
+     * Get the node on the other side of the border.
+     * 
+     * @return The partner node.
+     */
+    HierarchyNode getPartner()
+    {
+        return partner;
+    }
+
+    /**
+     * Get the horizontal location.
+     * 
+     * @return The horizontal location in tile.
+     */
+    int getX()
+    {
+        return tx;
+    }
+
+    /**
+     * Get the vertical location.
+     * 
+     * @return The vertical location in tile.
+     */
+    int getY()
+    {
+        return ty;
+    }
+
+    /**
+     * Get the owner cluster index.
+     * 
+     * @return The cluster index.
+     */
+    int getCluster()
+    {
+        return cluster;
+    }
+}
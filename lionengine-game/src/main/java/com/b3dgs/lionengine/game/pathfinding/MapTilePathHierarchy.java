@@ -0,0 +1,66 @@
+/*
+ * Copyright (C) 2013-2016 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.pathfinding;
+
+import java.util.List;
+
+import com.b3dgs.lionengine.game.feature.Feature;
+
+/**
+ * Represents the hierarchical pathfinding layer of a map tile, on top of {@link MapTilePath}. The map is split into
+ * clusters linked by their entrances, so long distance searches only refine the entrances path. Graphs are built on
+ * demand for each set of blocking {@link PathCategory}, and invalidated clusters are rebuilt on next search.
+ * <p>
+ * When a map has this feature, path finders created by {@link Astar} use it for long distance searches.
+ * </p>
+ */
+public interface MapTilePathHierarchy extends Feature
+{
+    /**
+     * Invalidate the cluster containing the location, as its tiles have changed. Cluster will be rebuilt on next
+     * search.
+     * 
+     * @param tx The horizontal location in tile.
+     * @param ty The vertical location in tile.
+     */
+    void invalidate(int tx, int ty);
+
+    /**
+     * Invalidate all clusters, as map has changed.
+     */
+    void invalidate();
+
+    /**
+     * Get the entrances to cross from start to destination, on the clusters level. Objects id are not considered.
+     * 
+     * @param mover The entity that will be moving along the path.
+     * @param stx The x coordinate of the start location.
+     * @param sty The y coordinate of the start location.
+     * @param dtx The x coordinate of the destination location.
+     * @param dty The y coordinate of the destination location.
+     * @return The locations to cross, including start and destination, <code>null</code> if unreachable.
+     */
+    List<CoordTile> getEntrances(Pathfindable mover, int stx, int sty, int dtx, int dty);
+
+    /**
+     * Get the cluster size.
+     * 
+     * @return The cluster size in tile.
+     */
+    int getClusterSize();
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright (C) 2013-2016 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.pathfinding;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.game.feature.FeatureModel;
+import com.b3dgs.lionengine.game.feature.FeatureProvider;
+import com.b3dgs.lionengine.game.feature.Services;
+import com.b3dgs.lionengine.game.map.MapTile;
+import com.b3dgs.lionengine.game.map.MapTileListener;
+
+/**
+ * Map tile path hierarchy model implementation.
+ */
+public class MapTilePathHierarchyModel extends FeatureModel implements MapTilePathHierarchy
+{
+    /** Default cluster size. */
+    public static final int DEFAULT_CLUSTER_SIZE = 16;
+
+    /** Graphs by blocking categories. */
+    private final Map<Collection<String>, HierarchyGraph> graphs = new HashMap<Collection<String>, HierarchyGraph>();
+    /** Cluster size in tile. */
+    private final int clusterSize;
+    /** Map reference. */
+    private MapTile map;
+    /** Map path reference. */
+    private MapTilePath mapPath;
+
+    /**
+     * Create a map tile path hierarchy, with {@link #DEFAULT_CLUSTER_SIZE}.
+     * <p>
+     * The {@link Services} must provide the following services:
+     * </p>
+     * <ul>
+     * <li>{@link MapTile}, with {@link MapTilePath} feature</li>
+     * </ul>
+     * 
+     * @throws LionEngineException If services not found.
+     */
+    public MapTilePathHierarchyModel()
+    {
+        this(DEFAULT_CLUSTER_SIZE);
+    }
+
+    /**
+     * Create a map tile path hierarchy.
+     * <p>
+     * The {@link Services} must provide the following services:
+     * </p>
+     * <ul>
+     * <li>{@link MapTile}, with {@link MapTilePath} feature</li>
+     * </ul>
+     * 
+     * @param clusterSize The cluster size in tile (superior to 1).
+     * @throws LionEngineException If invalid cluster size or services not found.
+     */
+    public MapTilePathHierarchyModel(int clusterSize)
+    {
+        super();
+        Check.superiorStrict(clusterSize, 1);
+        this.clusterSize = clusterSize;
+    }
+
+    /**
+     * Get the blocking categories of the mover.
+     * 
+     * @param mover The mover reference.
+     * @return The blocking categories.
+     */
+    private Collection<String> getBlocking(Pathfindable mover)
+    {
+        final Collection<String> blocking = new HashSet<String>();
+        for (final String category : mapPath.getCategories())
+        {
+            if (mover.isBlocking(category))
+            {
+                blocking.add(category);
+            }
+        }
+        return blocking;
+    }
+
+    /*
+     * MapTilePathHierarchy
+     */
+
+    @Override
+    public void prepare(FeatureProvider provider, Services services)
+    {
+        super.prepare(provider, services);
+
+        map = services.get(MapTile.class);
+        mapPath = map.getFeature(MapTilePath.class);
+        map.addListener(new MapTileListener()
+        {
+            @Override
+            public void notifyTilesChanged(int tx, int ty, int width, int height)
+            {
+                invalidate(tx, ty, width, height);
+            }
+        });
+    }
+
+    /**
+     * Invalidate clusters covering the area, or all graphs if the area is the whole map.
+     * 
+     * @param tx The horizontal tile location.
+     * @param ty The vertical tile location.
+     * @param width The area width in tile.
+     * @param height The area height in tile.
+     */
+    private void invalidate(int tx, int ty, int width, int height)
+    {
+        if (width >= map.getInTileWidth() && height >= map.getInTileHeight())
+        {
+            invalidate();
+        }
+        else
+        {
+            final int ex = tx + width - 1;
+            final int ey = ty + height - 1;
+            for (int y = ty; y < ey + clusterSize; y += clusterSize)
+            {
+                for (int x = tx; x < ex + clusterSize; x += clusterSize)
+                {
+                    invalidate(Math.min(x, ex), Math.min(y, ey));
+                }
+            }
+        }
+    }
+
+    @Override
+    public void invalidate(int tx, int ty)
+    {
+        synchronized (graphs)
+        {
+            for (final HierarchyGraph graph : graphs.values())
+            {
+                graph.invalidate(tx, ty);
+            }
+        }
+    }
+
+    @Override
+    public void invalidate()
+    {
+        synchronized (graphs)
+        {
+            graphs.clear();
+        }
+    }
+
+    @Override
+    public List<CoordTile> getEntrances(Pathfindable mover, int stx, int sty, int dtx, int dty)
+    {
+        final Collection<String> blocking = getBlocking(mover);
+        final HierarchyGraph graph;
+        synchronized (graphs)
+        {
+            if (!graphs.containsKey(blocking))
+            {
+                graphs.put(blocking, new HierarchyGraph(map, blocking, clusterSize));
+            }
+            graph = graphs.get(blocking);
+        }
+        return graph.search(stx, sty, dtx, dty);
+    }
+
+    @Override
+    public int getClusterSize()
+    {
+        return clusterSize;
+    }
+}
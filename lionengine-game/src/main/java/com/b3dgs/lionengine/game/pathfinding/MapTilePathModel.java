@@ -28,6 +28,7 @@ import com.b3dgs.lionengine.game.feature.FeatureModel;
 import com.b3dgs.lionengine.game.feature.FeatureProvider;
 import com.b3dgs.lionengine.game.feature.Services;
 import com.b3dgs.lionengine.game.map.MapTile;
+import com.b3dgs.lionengine.game.map.MapTileListener;
 import com.b3dgs.lionengine.game.map.feature.group.MapTileGroup;
 import com.b3dgs.lionengine.game.map.feature.group.MapTileGroupModel;
 import com.b3dgs.lionengine.game.tile.Tile;
@@ -97,18 +98,17 @@ public class MapTilePathModel extends FeatureModel implements MapTilePath
         {
             for (int tx = stx - size; tx <= stx + size; tx++)
             {
-                for (int ty = sty - size; ty <= sty + size; ty++)
+                // Inner square has already been checked, only the ring remains
+                final int step = getRingStep(tx, stx, size);
+                for (int ty = sty - size; ty <= sty + size; ty += step)
                 {
-                    if (isAreaAvailable(mover, tx, ty, stw, sth, null))
+                    final double d = getAvailableDistance(mover, tx, ty, stw, sth, dtx, dty, dtw, dth);
+                    if (d < dist)
                     {
-                        final double d = UtilMath.getDistance(tx, ty, stw, sth, dtx, dty, dtw, dth);
-                        if (d < dist)
-                        {
-                            dist = d;
-                            closestX = tx;
-                            closestY = ty;
-                            found = true;
-                        }
+                        dist = d;
+                        closestX = tx;
+                        closestY = ty;
+                        found = true;
                     }
                 }
             }
@@ -121,6 +121,95 @@ public class MapTilePathModel extends FeatureModel implements MapTilePath
         return new CoordTile(closestX, closestY);
     }
 
+    /**
+     * Check if at least one object at location is not ignored by the mover.
+     * 
+     * @param mover The mover.
+     * @param tx The horizontal tile index.
+     * @param ty The vertical tile index.
+     * @return <code>true</code> if blocked by an object, <code>false</code> if all objects are ignored.
+     */
+    private boolean isBlockedByObjects(Pathfindable mover, int tx, int ty)
+    {
+        final Collection<Integer> ids = getObjectsId(tx, ty);
+        int ignoredCount = 0;
+        for (final Integer id : ids)
+        {
+            if (mover.isIgnoredId(id))
+            {
+                ignoredCount++;
+            }
+        }
+        return ignoredCount < ids.size();
+    }
+
+    /**
+     * Check if the tile at location is blocking for the mover.
+     * 
+     * @param mover The mover.
+     * @param tx The horizontal tile index.
+     * @param ty The vertical tile index.
+     * @return <code>true</code> if blocking or no tile, <code>false</code> else.
+     */
+    private boolean isBlockedByTile(Pathfindable mover, int tx, int ty)
+    {
+        final Tile tile = map.getTile(tx, ty);
+        if (tile != null)
+        {
+            final TilePath tilePath = tile.getFeature(TilePath.class);
+            return mover.isBlocking(tilePath.getCategory());
+        }
+        return true;
+    }
+
+    /**
+     * Get the vertical step to iterate the ring column, as the inner square has already been checked.
+     * 
+     * @param tx The current column.
+     * @param stx The ring center column.
+     * @param size The ring size.
+     * @return <code>1</code> for the ring first and last columns (and the center on first ring), else column height.
+     */
+    private static int getRingStep(int tx, int stx, int size)
+    {
+        if (size == 1 || tx == stx - size || tx == stx + size)
+        {
+            return 1;
+        }
+        return size * 2;
+    }
+
+    /**
+     * Get the distance between area and destination, if area is available.
+     * 
+     * @param mover The object moving on map.
+     * @param tx The area horizontal tile index.
+     * @param ty The area vertical tile index.
+     * @param tw The area width in tile.
+     * @param th The area height in tile.
+     * @param dtx The destination horizontal tile index.
+     * @param dty The destination vertical tile index.
+     * @param dtw The destination width in tile.
+     * @param dth The destination height in tile.
+     * @return The distance, {@link Double#MAX_VALUE} if area is not available.
+     */
+    private double getAvailableDistance(Pathfindable mover,
+                                        int tx,
+                                        int ty,
+                                        int tw,
+                                        int th,
+                                        int dtx,
+                                        int dty,
+                                        int dtw,
+                                        int dth)
+    {
+        if (isAreaAvailable(mover, tx, ty, tw, th, null))
+        {
+            return UtilMath.getDistance(tx, ty, tw, th, dtx, dty, dtw, dth);
+        }
+        return Double.MAX_VALUE;
+    }
+
     /**
      * Get the group category.
      * 
@@ -139,6 +228,32 @@ public class MapTilePathModel extends FeatureModel implements MapTilePath
         return null;
     }
 
+    /**
+     * Add the path feature to the area tiles which have none.
+     * 
+     * @param tx The horizontal tile location.
+     * @param ty The vertical tile location.
+     * @param width The area width in tile.
+     * @param height The area height in tile.
+     */
+    private void loadTilesPath(int tx, int ty, int width, int height)
+    {
+        final int ex = Math.min(tx + width, map.getInTileWidth());
+        final int ey = Math.min(ty + height, map.getInTileHeight());
+        for (int y = Math.max(0, ty); y < ey; y++)
+        {
+            for (int x = Math.max(0, tx); x < ex; x++)
+            {
+                final Tile tile = map.getTile(x, y);
+                if (tile != null && !tile.hasFeature(TilePath.class))
+                {
+                    final String group = mapGroup.getGroup(tile);
+                    tile.addFeature(new TilePathModel(getCategory(group)));
+                }
+            }
+        }
+    }
+
     /*
      * MapTilePath
      */
@@ -150,6 +265,17 @@ public class MapTilePathModel extends FeatureModel implements MapTilePath
 
         map = services.get(MapTile.class);
         mapGroup = map.getFeature(MapTileGroupModel.class);
+        map.addListener(new MapTileListener()
+        {
+            @Override
+            public void notifyTilesChanged(int tx, int ty, int width, int height)
+            {
+                if (!categories.isEmpty())
+                {
+                    loadTilesPath(tx, ty, width, height);
+                }
+            }
+        });
     }
 
     @Override
@@ -175,6 +301,10 @@ public class MapTilePathModel extends FeatureModel implements MapTilePath
                 }
             }
         }
+        if (map.hasFeature(MapTilePathHierarchy.class))
+        {
+            map.getFeature(MapTilePathHierarchy.class).invalidate();
+        }
     }
 
     @Override
@@ -221,34 +351,12 @@ public class MapTilePathModel extends FeatureModel implements MapTilePath
     public boolean isBlocked(Pathfindable mover, int tx, int ty, boolean ignoreObjectsId)
     {
         // Blocked if outside map range
+        boolean blocked = true;
         if (ty >= 0 && tx >= 0 && ty < map.getInTileHeight() && tx < map.getInTileWidth())
         {
-            // Check if all objects id are non blocking
-            if (!ignoreObjectsId)
-            {
-                final Collection<Integer> ids = getObjectsId(tx, ty);
-                int ignoredCount = 0;
-                for (final Integer id : ids)
-                {
-                    if (mover.isIgnoredId(id))
-                    {
-                        ignoredCount++;
-                    }
-                }
-                if (ignoredCount < ids.size())
-                {
-                    return true;
-                }
-            }
-            // Check if tile is blocking
-            final Tile tile = map.getTile(tx, ty);
-            if (tile != null)
-            {
-                final TilePath tilePath = tile.getFeature(TilePath.class);
-                return mover.isBlocking(tilePath.getCategory());
-            }
+            blocked = !ignoreObjectsId && isBlockedByObjects(mover, tx, ty) || isBlockedByTile(mover, tx, ty);
         }
-        return true;
+        return blocked;
     }
 
     @Override
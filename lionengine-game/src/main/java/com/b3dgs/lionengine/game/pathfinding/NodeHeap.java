@@ -0,0 +1,253 @@
+/*
+ * Copyright (C) 2013-2016 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.pathfinding;
+
+/**
+ * Indexed binary heap of nodes, ordered by their total cost (cost and heuristic). Nodes with the same total cost are
+ * ordered by insertion, so the search order does not depend on the heap layout. The heap position of each node is
+ * indexed by its location, allowing constant time {@link #contains(Node)}, and logarithmic {@link #remove(Node)} and
+ * {@link #update(Node)}.
+ */
+final class NodeHeap
+{
+    /** Not in heap position. */
+    private static final int NONE = -1;
+
+    /** Heap nodes. */
+    private final Node[] nodes;
+    /** Heap nodes insertion order. */
+    private final int[] orders;
+    /** Heap position by node location (ty * width + tx), {@link #NONE} if not in heap. */
+    private final int[] positions;
+    /** Locations width. */
+    private final int width;
+    /** Heap size. */
+    private int size;
+    /** Next insertion order. */
+    private int order;
+
+    /**
+     * Create the heap.
+     * 
+     * @param width The locations width.
+     * @param height The locations height.
+     */
+    NodeHeap(int width, int height)
+    {
+        this.width = width;
+        nodes = new Node[width * height];
+        orders = new int[width * height];
+        positions = new int[width * height];
+        for (int i = 0; i < positions.length; i++)
+        {
+            positions[i] = NONE;
+        }
+    }
+
+    /**
+     * Get first element.
+     * 
+     * @return The first element.
+     */
+    public Node first()
+    {
+        return nodes[0];
+    }
+
+    /**
+     * Clear all elements.
+     */
+    public void clear()
+    {
+        for (int i = 0; i < size; i++)
+        {
+            positions[getIndex(nodes[i])] = NONE;
+            nodes[i] = null;
+        }
+        size = 0;
+        order = 0;
+    }
+
+    /**
+     * Add an element to the heap.
+     * 
+     * @param node The element to add.
+     */
+    public void add(Node node)
+    {
+        final int position = size;
+        size++;
+        set(position, node, order);
+        order++;
+        siftUp(position);
+    }
+
+    /**
+     * Remove an element from the heap.
+     * 
+     * @param node The element to remove.
+     */
+    public void remove(Node node)
+    {
+        final int position = positions[getIndex(node)];
+        if (position != NONE)
+        {
+            positions[getIndex(node)] = NONE;
+            size--;
+            if (position < size)
+            {
+                set(position, nodes[size], orders[size]);
+                siftUp(position);
+                siftDown(positions[getIndex(nodes[position])]);
+            }
+            nodes[size] = null;
+        }
+    }
+
+    /**
+     * Update the element position after its cost changed. The element is considered as inserted again.
+     * 
+     * @param node The element to update.
+     */
+    public void update(Node node)
+    {
+        final int position = positions[getIndex(node)];
+        orders[position] = order;
+        order++;
+        siftUp(position);
+        siftDown(positions[getIndex(node)]);
+    }
+
+    /**
+     * Get the heap size.
+     * 
+     * @return The heap size.
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * Check if the heap contains this element.
+     * 
+     * @param node The element to check.
+     * @return <code>true</code> if element is contained, <code>false</code> else.
+     */
+    public boolean contains(Node node)
+    {
+        return positions[getIndex(node)] != NONE;
+    }
+
+    /**
+     * Get the node location index.
+     * 
+     * @param node The node reference.
+     * @return The location index.
+     */
+    private int getIndex(Node node)
+    {
+        return node.getY() * width + node.getX();
+    }
+
+    /**
+     * Store node at heap position.
+     * 
+     * @param position The heap position.
+     * @param node The node to store.
+     * @param nodeOrder The node insertion order.
+     */
+    private void set(int position, Node node, int nodeOrder)
+    {
+        nodes[position] = node;
+        orders[position] = nodeOrder;
+        positions[getIndex(node)] = position;
+    }
+
+    /**
+     * Check if first position is ordered before the second one.
+     * 
+     * @param a The first heap position.
+     * @param b The second heap position.
+     * @return <code>true</code> if first is before second, <code>false</code> else.
+     */
+    private boolean isBefore(int a, int b)
+    {
+        final int compare = nodes[a].compareTo(nodes[b]);
+        return compare < 0 || compare == 0 && orders[a] < orders[b];
+    }
+
+    /**
+     * Swap two heap positions.
+     * 
+     * @param a The first heap position.
+     * @param b The second heap position.
+     */
+    private void swap(int a, int b)
+    {
+        final Node node = nodes[a];
+        final int nodeOrder = orders[a];
+        set(a, nodes[b], orders[b]);
+        set(b, node, nodeOrder);
+    }
+
+    /**
+     * Move element up until its parent is before it.
+     * 
+     * @param start The element heap position.
+     */
+    private void siftUp(int start)
+    {
+        int position = start;
+        while (position > 0)
+        {
+            final int parent = (position - 1) / 2;
+            if (!isBefore(position, parent))
+            {
+                break;
+            }
+            swap(position, parent);
+            position = parent;
+        }
+    }
+
+    /**
+     * Move element down until it is before its children.
+     * 
+     * @param start The element heap position.
+     */
+    private void siftDown(int start)
+    {
+        int position = start;
+        int child = 2 * position + 1;
+        while (child < size)
+        {
+            if (child + 1 < size && isBefore(child + 1, child))
+            {
+                child++;
+            }
+            if (!isBefore(child, position))
+            {
+                break;
+            }
+            swap(position, child);
+            position = child;
+            child = 2 * position + 1;
+        }
+    }
+}
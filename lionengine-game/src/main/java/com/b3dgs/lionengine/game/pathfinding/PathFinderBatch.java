@@ -0,0 +1,66 @@
+/*
+ * Copyright (C) 2013-2016 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.pathfinding;
+
+import com.b3dgs.lionengine.Updatable;
+
+/**
+ * Path finder able to run many path requests in parallel. Requests are searched on worker threads, each one using its
+ * own nodes, only while the batch is updated, and up to the frame time budget. Remaining searches are resumed on next
+ * update. As workers never run outside {@link #update(double)}, the map can be safely modified by the update thread.
+ * <p>
+ * Results are delivered on the update thread with {@link PathFinderBatchListener#notifyPathFound(Path)}.
+ * {@link #findPath(Pathfindable, int, int, boolean)} is still available to search immediately on the caller thread.
+ * </p>
+ * <p>
+ * Don't forget to call {@link #terminate()} once batch is not used anymore.
+ * </p>
+ */
+public interface PathFinderBatch extends PathFinder, Updatable
+{
+    /**
+     * Request a path search from the current mover location to the destination location. Any pending request of the
+     * same mover is cancelled.
+     * 
+     * @param mover The entity that will be moving along the path.
+     * @param dtx The x coordinate of the destination location.
+     * @param dty The y coordinate of the destination location.
+     * @param ignoreRef The ignore map array reference checking (<code>true</code> to ignore references).
+     * @param listener The listener notified when path search is finished.
+     */
+    void request(Pathfindable mover, int dtx, int dty, boolean ignoreRef, PathFinderBatchListener listener);
+
+    /**
+     * Cancel the pending request of the mover. Its listener will not be notified.
+     * 
+     * @param mover The mover reference.
+     */
+    void cancel(Pathfindable mover);
+
+    /**
+     * Stop worker threads.
+     */
+    void terminate();
+
+    /**
+     * Get the number of pending requests.
+     * 
+     * @return The pending requests number.
+     */
+    int getPending();
+}
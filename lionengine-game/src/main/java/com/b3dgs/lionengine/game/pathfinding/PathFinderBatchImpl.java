@@ -0,0 +1,333 @@
+/*
+ * Copyright (C) 2013-2016 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.pathfinding;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.game.map.MapTile;
+
+/**
+ * Path finder batch implementation, using a fixed pool of workers, each one owning its own {@link PathFinderImpl}.
+ */
+final class PathFinderBatchImpl implements PathFinderBatch
+{
+    /** Expanded nodes between two deadline checks. */
+    private static final int CHECK_STEPS = 64;
+    /** Milli to nano. */
+    private static final double MILLI_TO_NANO = 1000000.0;
+
+    /** Requests waiting for a worker (accessed by workers). */
+    private final Queue<Request> waiting = new ConcurrentLinkedQueue<Request>();
+    /** Finished requests (filled by workers). */
+    private final Queue<Request> finished = new ConcurrentLinkedQueue<Request>();
+    /** Pending requests by mover (accessed by update thread only). */
+    private final Map<Pathfindable, Request> pending = new HashMap<Pathfindable, Request>();
+    /** Workers list. */
+    private final List<Worker> workers = new ArrayList<Worker>();
+    /** Running workers. */
+    private final List<Future<?>> running = new ArrayList<Future<?>>();
+    /** Path finder used for immediate searches. */
+    private final PathFinder pathfinder;
+    /** Workers executor. */
+    private final ExecutorService executor;
+    /** Search time budget per update in nano. */
+    private final long budget;
+
+    /**
+     * Internal constructor.
+     * 
+     * @param map The map to be searched. Must have the {@link MapTilePath} feature.
+     * @param maxSearchDistance The maximum depth we'll search before giving up.
+     * @param heuristic The heuristic used to determine the search order of the map.
+     * @param threads The number of worker threads (strictly positive).
+     * @param budget The search time budget per update in milli (strictly positive).
+     * @throws LionEngineException If invalid arguments.
+     */
+    PathFinderBatchImpl(MapTile map, int maxSearchDistance, Heuristic heuristic, int threads, double budget)
+    {
+        Check.superiorStrict(threads, 0);
+        Check.superiorStrict(budget, 0.0);
+
+        this.budget = (long) (budget * MILLI_TO_NANO);
+        pathfinder = Astar.createPathFinder(map, maxSearchDistance, heuristic);
+        for (int i = 0; i < threads; i++)
+        {
+            workers.add(new Worker(new PathFinderImpl(map, maxSearchDistance, heuristic)));
+        }
+        executor = Executors.newFixedThreadPool(threads, new ThreadFactory()
+        {
+            @Override
+            public Thread newThread(Runnable runnable)
+            {
+                final Thread thread = new Thread(runnable, PathFinderBatch.class.getSimpleName());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+
+    /**
+     * Wait for all running workers.
+     * 
+     * @throws LionEngineException If a worker failed.
+     */
+    private void await()
+    {
+        try
+        {
+            for (final Future<?> future : running)
+            {
+                future.get();
+            }
+        }
+        catch (final InterruptedException exception)
+        {
+            Thread.currentThread().interrupt();
+            throw new LionEngineException(exception);
+        }
+        catch (final ExecutionException exception)
+        {
+            throw new LionEngineException(exception.getCause());
+        }
+        finally
+        {
+            running.clear();
+        }
+    }
+
+    /**
+     * Notify finished requests which have not been cancelled.
+     */
+    private void deliver()
+    {
+        Request request = finished.poll();
+        while (request != null)
+        {
+            if (pending.get(request.mover) == request)
+            {
+                pending.remove(request.mover);
+                request.listener.notifyPathFound(request.path);
+            }
+            request = finished.poll();
+        }
+    }
+
+    /*
+     * PathFinderBatch
+     */
+
+    @Override
+    public void request(Pathfindable mover, int dtx, int dty, boolean ignoreRef, PathFinderBatchListener listener)
+    {
+        Check.notNull(mover);
+        Check.notNull(listener);
+
+        cancel(mover);
+        final Request request = new Request(mover, dtx, dty, ignoreRef, listener);
+        pending.put(mover, request);
+        waiting.add(request);
+    }
+
+    @Override
+    public void cancel(Pathfindable mover)
+    {
+        final Request request = pending.remove(mover);
+        if (request != null)
+        {
+            request.cancelled = true;
+        }
+    }
+
+    @Override
+    public void terminate()
+    {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public int getPending()
+    {
+        return pending.size();
+    }
+
+    @Override
+    public Path findPath(Pathfindable mover, int dtx, int dty, boolean ignoreRef)
+    {
+        return pathfinder.findPath(mover, dtx, dty, ignoreRef);
+    }
+
+    @Override
+    public void update(double extrp)
+    {
+        if (!pending.isEmpty())
+        {
+            final long deadline = System.nanoTime() + budget;
+            for (final Worker worker : workers)
+            {
+                worker.deadline = deadline;
+                running.add(executor.submit(worker));
+            }
+            await();
+            deliver();
+        }
+    }
+
+    /**
+     * Path request data.
+     */
+    private static final class Request
+    {
+        /** The mover reference. */
+        final Pathfindable mover;
+        /** The start horizontal location. */
+        final int stx;
+        /** The start vertical location. */
+        final int sty;
+        /** The destination horizontal location. */
+        final int dtx;
+        /** The destination vertical location. */
+        final int dty;
+        /** The ignore map array reference checking. */
+        final boolean ignoreRef;
+        /** The listener reference. */
+        final PathFinderBatchListener listener;
+        /** The path found. */
+        Path path;
+        /** Cancelled flag. */
+        boolean cancelled;
+
+        /**
+         * Internal constructor. Start location is the current mover location.
+         * 
+         * @param mover The mover reference.
+         * @param dtx The destination horizontal location.
+         * @param dty The destination vertical location.
+         * @param ignoreRef The ignore map array reference checking.
+         * @param listener The listener reference.
+         */
+        Request(Pathfindable mover, int dtx, int dty, boolean ignoreRef, PathFinderBatchListener listener)
+        {
+            this.mover = mover;
+            this.dtx = dtx;
+            this.dty = dty;
+            this.ignoreRef = ignoreRef;
+            this.listener = listener;
+            stx = mover.getInTileX();
+            sty = mover.getInTileY();
+        }
+    }
+
+    /**
+     * Worker searching waiting requests until deadline, keeping its unfinished request for the next update.
+     */
+    private final class Worker implements Runnable
+    {
+        /** The worker path finder. */
+        private final PathFinderImpl finder;
+        /** The current request, <code>null</code> if none. */
+        private Request current;
+        /** The current update deadline. */
+        long deadline;
+
+        /**
+         * Internal constructor.
+         * 
+         * @param finder The worker path finder.
+         */
+        Worker(PathFinderImpl finder)
+        {
+            this.finder = finder;
+        }
+
+        /**
+         * Take the next waiting request not cancelled and start its search.
+         * 
+         * @return <code>true</code> if a search has been started, <code>false</code> if no more waiting request.
+         */
+        private boolean next()
+        {
+            current = waiting.poll();
+            while (current != null)
+            {
+                if (!current.cancelled)
+                {
+                    if (finder.start(current.mover, current.stx, current.sty, current.dtx, current.dty,
+                                     current.ignoreRef))
+                    {
+                        return true;
+                    }
+                    finished.add(current);
+                }
+                current = waiting.poll();
+            }
+            return false;
+        }
+
+        /**
+         * Search the current request until deadline.
+         * 
+         * @return <code>true</code> if search is finished, <code>false</code> if deadline has been reached.
+         */
+        private boolean search()
+        {
+            int steps = 0;
+            while (!finder.expand())
+            {
+                steps++;
+                if (steps % CHECK_STEPS == 0 && System.nanoTime() - deadline >= 0)
+                {
+                    return false;
+                }
+            }
+            current.path = finder.getPath();
+            finished.add(current);
+            current = null;
+            return true;
+        }
+
+        /*
+         * Runnable
+         */
+
+        @Override
+        public void run()
+        {
+            if (current != null && current.cancelled)
+            {
+                current = null;
+            }
+            boolean searching = current != null || next();
+            while (searching && search())
+            {
+                searching = System.nanoTime() - deadline < 0 && next();
+            }
+        }
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright (C) 2013-2016 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.pathfinding;
+
+import java.util.List;
+
+import com.b3dgs.lionengine.game.map.MapTile;
+
+/**
+ * A path finder implementation using the {@link MapTilePathHierarchy} for long distance searches. The entrances path is
+ * searched first, and then refined by searching each part with {@link PathFinderImpl}. Short distance searches, blocked
+ * destinations and failed refinements are directly searched with {@link PathFinderImpl}.
+ */
+final class PathFinderHierarchical implements PathFinder
+{
+    /** Path finder used for refinement. */
+    private final PathFinderImpl finder;
+    /** Map path reference. */
+    private final MapTilePath mapPath;
+    /** Map path hierarchy reference. */
+    private final MapTilePathHierarchy hierarchy;
+
+    /**
+     * Internal constructor.
+     * 
+     * @param map The map to be searched. Must have the {@link MapTilePath} and {@link MapTilePathHierarchy} features.
+     * @param finder The path finder used for refinement.
+     */
+    PathFinderHierarchical(MapTile map, PathFinderImpl finder)
+    {
+        this.finder = finder;
+        mapPath = map.getFeature(MapTilePath.class);
+        hierarchy = map.getFeature(MapTilePathHierarchy.class);
+    }
+
+    /**
+     * Refine the entrances path.
+     * 
+     * @param mover The entity that will be moving along the path.
+     * @param entrances The entrances to cross, including start and destination.
+     * @param ignoreRef The ignore map array reference checking (<code>true</code> to ignore references).
+     * @return The refined path, <code>null</code> if a part has not been found.
+     */
+    private Path refine(Pathfindable mover, List<CoordTile> entrances, boolean ignoreRef)
+    {
+        final Path path = new Path();
+        path.appendStep(entrances.get(0).getX(), entrances.get(0).getY());
+        boolean found = true;
+        for (int i = 1; found && i < entrances.size(); i++)
+        {
+            final CoordTile from = entrances.get(i - 1);
+            final CoordTile to = entrances.get(i);
+            if (from.getX() != to.getX() || from.getY() != to.getY())
+            {
+                final Path part = finder.findPath(mover, from.getX(), from.getY(), to.getX(), to.getY(), ignoreRef);
+                found = append(path, part, to);
+            }
+        }
+        if (found)
+        {
+            return path;
+        }
+        return null;
+    }
+
+    /**
+     * Append the path part, without its first step (which is the last path step).
+     * 
+     * @param path The current path.
+     * @param part The part to append (can be <code>null</code>).
+     * @param to The expected part destination.
+     * @return <code>true</code> if part reaches its destination and has been appended, <code>false</code> else.
+     */
+    private static boolean append(Path path, Path part, CoordTile to)
+    {
+        final boolean reached = part != null
+                                && part.getX(part.getLength() - 1) == to.getX()
+                                && part.getY(part.getLength() - 1) == to.getY();
+        if (reached)
+        {
+            for (int i = 1; i < part.getLength(); i++)
+            {
+                path.appendStep(part.getX(i), part.getY(i));
+            }
+        }
+        return reached;
+    }
+
+    /*
+     * PathFinder
+     */
+
+    @Override
+    public Path findPath(Pathfindable mover, int dtx, int dty, boolean ignoreRef)
+    {
+        final int stx = mover.getInTileX();
+        final int sty = mover.getInTileY();
+        final int distance = Math.max(Math.abs(dtx - stx), Math.abs(dty - sty));
+
+        Path path = null;
+        if (distance > hierarchy.getClusterSize() && !mapPath.isBlocked(mover, dtx, dty, ignoreRef))
+        {
+            final List<CoordTile> entrances = hierarchy.getEntrances(mover, stx, sty, dtx, dty);
+            if (entrances == null)
+            {
+                return null;
+            }
+            path = refine(mover, entrances, ignoreRef);
+        }
+        if (path == null)
+        {
+            path = finder.findPath(mover, stx, sty, dtx, dty, ignoreRef);
+        }
+        return path;
+    }
+}
@@ -17,8 +17,7 @@
  */
 package com.b3dgs.lionengine.game.pathfinding;
 
-import java.util.ArrayList;
-import java.util.Collection;
+import java.util.Arrays;
 
 import com.b3dgs.lionengine.game.map.MapTile;
 import com.b3dgs.lionengine.game.tile.Tile;
@@ -29,10 +28,10 @@ import com.b3dgs.lionengine.util.UtilMath;
  */
 final class PathFinderImpl implements PathFinder
 {
-    /** Closed list. */
-    private final Collection<Node> closed = new ArrayList<Node>(8);
+    /** Closed list, storing the search index of closed locations (ty * width + tx). */
+    private final int[] closed;
     /** Open list. */
-    private final SortedList<Node> open = new SortedList<Node>();
+    private final NodeHeap open;
     /** Map reference. */
     private final MapTile map;
     /** Map path reference. */
@@ -43,6 +42,22 @@ final class PathFinderImpl implements PathFinder
     private final Node[][] nodes;
     /** Heuristic used. */
     private final Heuristic heuristic;
+    /** Current search index, used to mark closed locations without clearing them. */
+    private int search;
+    /** Current search mover. */
+    private Pathfindable mover;
+    /** Current search horizontal start location. */
+    private int stx;
+    /** Current search vertical start location. */
+    private int sty;
+    /** Current search horizontal destination location. */
+    private int dtx;
+    /** Current search vertical destination location. */
+    private int dty;
+    /** Current search ignore map array reference checking. */
+    private boolean ignoreRef;
+    /** Current search max depth. */
+    private int maxDepth;
 
     /**
      * Internal constructor.
@@ -58,6 +73,8 @@ final class PathFinderImpl implements PathFinder
         this.maxSearchDistance = maxSearchDistance;
         mapPath = map.getFeature(MapTilePath.class);
         nodes = new Node[map.getInTileHeight()][map.getInTileWidth()];
+        closed = new int[map.getInTileWidth() * map.getInTileHeight()];
+        open = new NodeHeap(map.getInTileWidth(), map.getInTileHeight());
 
         for (int ty = 0; ty < map.getInTileHeight(); ty++)
         {
@@ -149,6 +166,24 @@ final class PathFinderImpl implements PathFinder
         return open.contains(node);
     }
 
+    /**
+     * Add a node to the open list, or update its order if already opened, as its cost has changed.
+     * 
+     * @param node The node to add or update.
+     * @param opened <code>true</code> if node is already in the open list, <code>false</code> else.
+     */
+    private void updateOpen(Node node, boolean opened)
+    {
+        if (opened)
+        {
+            open.update(node);
+        }
+        else
+        {
+            addToOpen(node);
+        }
+    }
+
     /**
      * Remove a node from the open list.
      * 
@@ -166,7 +201,7 @@ final class PathFinderImpl implements PathFinder
      */
     private void addToClosed(Node node)
     {
-        closed.add(node);
+        closed[getIndex(node)] = search;
     }
 
     /**
@@ -177,7 +212,7 @@ final class PathFinderImpl implements PathFinder
      */
     private boolean inClosedList(Node node)
     {
-        return closed.contains(node);
+        return closed[getIndex(node)] == search;
     }
 
     /**
@@ -187,7 +222,31 @@ final class PathFinderImpl implements PathFinder
      */
     private void removeFromClosed(Node node)
     {
-        closed.remove(node);
+        closed[getIndex(node)] = 0;
+    }
+
+    /**
+     * Get the node location index.
+     * 
+     * @param node The node reference.
+     * @return The location index.
+     */
+    private int getIndex(Node node)
+    {
+        return node.getY() * map.getInTileWidth() + node.getX();
+    }
+
+    /**
+     * Start a new search by invalidating the closed list in constant time.
+     */
+    private void clearClosed()
+    {
+        if (search == Integer.MAX_VALUE)
+        {
+            Arrays.fill(closed, 0);
+            search = 0;
+        }
+        search++;
     }
 
     /**
@@ -290,70 +349,97 @@ final class PathFinderImpl implements PathFinder
         final double nextStepCost = current.getCost() + getMovementCost(mover, current.getX(), current.getY());
         final Node neighbour = nodes[yp][xp];
 
-        if (nextStepCost < neighbour.getCost())
+        final boolean better = nextStepCost < neighbour.getCost();
+
+        if (better && inClosedList(neighbour))
         {
-            if (inOpenList(neighbour))
-            {
-                removeFromOpen(neighbour);
-            }
-            if (inClosedList(neighbour))
-            {
-                removeFromClosed(neighbour);
-            }
+            removeFromClosed(neighbour);
         }
-        if (!inOpenList(neighbour) && !inClosedList(neighbour))
+        final boolean opened = inOpenList(neighbour);
+        if (better && opened || !opened && !inClosedList(neighbour))
         {
             neighbour.setCost(nextStepCost);
             neighbour.setHeuristic(getHeuristicCost(xp, yp, dtx, dty));
             nextDepth = Math.max(maxDepth, neighbour.setParent(current));
-            addToOpen(neighbour);
+            updateOpen(neighbour, opened);
         }
         return nextDepth;
     }
 
-    /*
-     * PathFinder
+    /**
+     * Start a new search from the starting location to the destination location. Search is then performed with
+     * {@link #expand()} until it returns <code>true</code>, and the result retrieved with {@link #getPath()}.
+     * 
+     * @param mover The entity that will be moving along the path.
+     * @param stx The x coordinate of the start location.
+     * @param sty The y coordinate of the start location.
+     * @param dtx The x coordinate of the destination location.
+     * @param dty The y coordinate of the destination location.
+     * @param ignoreRef The ignore map array reference checking (<code>true</code> to ignore references).
+     * @return <code>true</code> if search started, <code>false</code> if no path can be found.
      */
-
-    @Override
-    public Path findPath(Pathfindable mover, int dtx, int dty, boolean ignoreRef)
+    boolean start(Pathfindable mover, int stx, int sty, int dtx, int dty, boolean ignoreRef)
     {
-        final int stx = mover.getInTileX();
-        final int sty = mover.getInTileY();
-
+        final boolean started;
         if (mapPath.isBlocked(mover, dtx, dty, false) && UtilMath.getDistance(stx, sty, dtx, dty) <= 1)
         {
-            return null;
+            started = false;
         }
-        if (mapPath.isBlocked(mover, dtx, dty, ignoreRef))
+        else if (mapPath.isBlocked(mover, dtx, dty, ignoreRef))
         {
             final CoordTile tile = mapPath.getClosestAvailableTile(mover, dtx, dty, stx, sty, map.getInTileRadius());
-            if (tile == null)
-            {
-                return null;
-            }
-            return findPath(mover, tile.getX(), tile.getY(), ignoreRef);
+            started = tile != null && start(mover, stx, sty, tile.getX(), tile.getY(), ignoreRef);
         }
+        else
+        {
+            this.mover = mover;
+            this.stx = stx;
+            this.sty = sty;
+            this.dtx = dtx;
+            this.dty = dty;
+            this.ignoreRef = ignoreRef;
+            maxDepth = 0;
 
-        nodes[sty][stx].setCost(0);
-        nodes[sty][stx].setDepth(0);
-        closed.clear();
-        open.clear();
-        open.add(nodes[sty][stx]);
-        nodes[dty][dtx].setParent(null);
+            nodes[sty][stx].setCost(0);
+            nodes[sty][stx].setDepth(0);
+            clearClosed();
+            open.clear();
+            open.add(nodes[sty][stx]);
+            nodes[dty][dtx].setParent(null);
+            started = true;
+        }
+        return started;
+    }
 
-        int maxDepth = 0;
-        while (maxDepth < maxSearchDistance && open.size() != 0)
+    /**
+     * Expand the next node of the current search.
+     * 
+     * @return <code>true</code> if search is finished, <code>false</code> if there are remaining nodes to expand.
+     */
+    boolean expand()
+    {
+        if (maxDepth < maxSearchDistance && open.size() != 0)
         {
             final Node current = getFirstInOpen();
-            if (current == nodes[dty][dtx])
+            if (current != nodes[dty][dtx])
             {
-                break;
+                removeFromOpen(current);
+                addToClosed(current);
+                maxDepth = updateList(mover, stx, sty, dtx, dty, ignoreRef, current, maxDepth);
+                return false;
             }
-            removeFromOpen(current);
-            addToClosed(current);
-            maxDepth = updateList(mover, stx, sty, dtx, dty, ignoreRef, current, maxDepth);
         }
+        return true;
+    }
+
+    /**
+     * Get the path found by the last finished search.
+     * 
+     * @return The path found from start to end, or <code>null</code> if no path has been found.
+     */
+    Path getPath()
+    {
+        mover = null;
         if (nodes[dty][dtx].getParent() == null)
         {
             return null;
@@ -370,4 +456,39 @@ final class PathFinderImpl implements PathFinder
 
         return path;
     }
+
+    /**
+     * Find a path from the starting location to the destination location.
+     * 
+     * @param mover The entity that will be moving along the path.
+     * @param stx The x coordinate of the start location.
+     * @param sty The y coordinate of the start location.
+     * @param dtx The x coordinate of the destination location.
+     * @param dty The y coordinate of the destination location.
+     * @param ignoreRef The ignore map array reference checking (<code>true</code> to ignore references).
+     * @return The path found from start to end, or <code>null</code> if no path can be found.
+     */
+    Path findPath(Pathfindable mover, int stx, int sty, int dtx, int dty, boolean ignoreRef)
+    {
+        if (start(mover, stx, sty, dtx, dty, ignoreRef))
+        {
+            boolean finished = false;
+            while (!finished)
+            {
+                finished = expand();
+            }
+            return getPath();
+        }
+        return null;
+    }
+
+    /*
+     * PathFinder
+     */
+
+    @Override
+    public Path findPath(Pathfindable mover, int dtx, int dty, boolean ignoreRef)
+    {
+        return findPath(mover, mover.getInTileX(), mover.getInTileY(), dtx, dty, ignoreRef);
+    }
 }
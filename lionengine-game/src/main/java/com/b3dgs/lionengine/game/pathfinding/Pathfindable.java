@@ -111,6 +111,15 @@ public interface Pathfindable extends Feature, Tiled, Orientable, Updatable, Ren
      */
     boolean setDestination(int tx, int ty);
 
+    /**
+     * Set the batch used to search the path of a new destination, and the path changes while moving. Until its result
+     * is delivered, the mover stays on its current location, or on its current step when moving. A pending request is
+     * submitted again to the new batch, or searched immediately if none.
+     * 
+     * @param batch The batch reference, <code>null</code> to search immediately (default).
+     */
+    void setPathFinderBatch(PathFinderBatch batch);
+
     /**
      * Set specified location in tile.
      * 
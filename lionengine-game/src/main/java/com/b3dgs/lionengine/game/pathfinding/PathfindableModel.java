@@ -59,6 +59,21 @@ public class PathfindableModel extends FeatureModel implements Pathfindable
 
     /** Pathfindable listeners. */
     private final Collection<PathfindableListener> listeners = new ArrayList<PathfindableListener>();
+    /** Path requests, to the batch if defined. */
+    private final PathfindableRequests requests = new PathfindableRequests(this)
+    {
+        @Override
+        void onPathFound(Path found)
+        {
+            PathfindableModel.this.onPathFound(found);
+        }
+
+        @Override
+        void onRepathFound(Path found)
+        {
+            PathfindableModel.this.onRepathFound(found);
+        }
+    };
     /** List of shared path id. */
     private final Collection<Integer> sharedPathIds = new HashSet<Integer>(0);
     /** List of ignored id. */
@@ -71,8 +86,6 @@ public class PathfindableModel extends FeatureModel implements Pathfindable
     private MapTile map;
     /** Map path reference. */
     private MapTilePath mapPath;
-    /** Pathfinder reference. */
-    private PathFinder pathfinder;
     /** List of categories. */
     private final Map<String, PathData> categories;
     /** Transformable model. */
@@ -387,21 +400,57 @@ public class PathfindableModel extends FeatureModel implements Pathfindable
     {
         if (pathFoundChanged)
         {
-            if (currentStep < getMaxStep())
-            {
-                removeObjectId(path.getX(currentStep), path.getY(currentStep));
-            }
-            path = pathfinder.findPath(this, destX, destY, false);
             pathFoundChanged = false;
-            currentStep = 0;
-            skip = false;
-            reCheckRef = false;
+            requests.requestRepath(destX, destY);
+        }
+        if (requests.isRepathPending())
+        {
+            moving = false;
+            moveX = 0.0;
+            moveY = 0.0;
+        }
+        checkPathStopped();
+    }
 
-            if (path == null)
-            {
-                pathStoppedRequested = true;
-            }
+    /**
+     * Replace the current path by the new one, from the current step point.
+     * 
+     * @param found The new path, <code>null</code> if none.
+     */
+    private void changePath(Path found)
+    {
+        if (currentStep < getMaxStep())
+        {
+            removeObjectId(path.getX(currentStep), path.getY(currentStep));
         }
+        path = found;
+        pathFoundChanged = false;
+        currentStep = 0;
+        skip = false;
+        reCheckRef = false;
+
+        if (path == null)
+        {
+            pathStoppedRequested = true;
+        }
+    }
+
+    /**
+     * Called when the path requested while moving has been found. Current step is kept until then.
+     * 
+     * @param found The path found, <code>null</code> if none.
+     */
+    private void onRepathFound(Path found)
+    {
+        changePath(found);
+        checkPathStopped();
+    }
+
+    /**
+     * Stop moves if requested.
+     */
+    private void checkPathStopped()
+    {
         if (pathStoppedRequested)
         {
             pathStopped = true;
@@ -435,6 +484,22 @@ public class PathfindableModel extends FeatureModel implements Pathfindable
         return mapPath.isAreaAvailable(this, dtx, dty, tw, th, id);
     }
 
+    /**
+     * Called when the path of a new destination has been found, and start moving.
+     * 
+     * @param found The path found, <code>null</code> if none.
+     */
+    private void onPathFound(Path found)
+    {
+        currentStep = 0;
+        path = found;
+        pathFoundChanged = false;
+        for (final PathfindableListener listener : listeners)
+        {
+            listener.notifyStartMove();
+        }
+    }
+
     /**
      * Called when destination has been reached and any movement are done.
      */
@@ -527,12 +592,10 @@ public class PathfindableModel extends FeatureModel implements Pathfindable
         super.prepare(provider, services);
 
         map = services.get(MapTile.class);
+        requests.prepare(map);
         viewer = services.get(Viewer.class);
         mapPath = map.getFeature(MapTilePath.class);
         id = provider.getFeature(Identifiable.class).getId();
-        final int range = (int) Math.sqrt(map.getInTileWidth() * map.getInTileWidth()
-                                          + map.getInTileHeight() * (double) map.getInTileHeight());
-        pathfinder = Astar.createPathFinder(map, range, Astar.createHeuristicClosest());
 
         transformable = provider.getFeature(Transformable.class);
         final OrientableModel orientableModel = new OrientableModel();
@@ -566,7 +629,14 @@ public class PathfindableModel extends FeatureModel implements Pathfindable
     @Override
     public void stopMoves()
     {
+        final boolean repath = requests.isRepathPending();
+        requests.cancel();
         pathStoppedRequested = true;
+        if (repath)
+        {
+            changePath(null);
+            checkPathStopped();
+        }
     }
 
     @Override
@@ -583,7 +653,8 @@ public class PathfindableModel extends FeatureModel implements Pathfindable
             reCheckRef = true;
             return;
         }
-        if (path != null)
+        // Wait on current step until the batch delivers the new path
+        if (path != null && !requests.isRepathPending())
         {
             // Continue until max step
             if (currentStep < getMaxStep())
@@ -684,26 +755,25 @@ public class PathfindableModel extends FeatureModel implements Pathfindable
     {
         if (getInTileX() != tx || getInTileY() != ty)
         {
+            prepareDestination(tx, ty);
             // New first path, when object is not moving
             if (path == null)
             {
-                currentStep = 0;
-                path = pathfinder.findPath(this, tx, ty, true);
-                pathFoundChanged = false;
-                for (final PathfindableListener listener : listeners)
-                {
-                    listener.notifyStartMove();
-                }
-                prepareDestination(tx, ty);
+                requests.request(tx, ty);
                 return true;
             }
             // Next path, while object is moving, change takes effect when the object reached a step point
-            prepareDestination(tx, ty);
-            pathFoundChanged = true;
+            pathFoundChanged = !requests.replaceRepath(tx, ty);
         }
         return false;
     }
 
+    @Override
+    public void setPathFinderBatch(PathFinderBatch batch)
+    {
+        requests.setBatch(batch);
+    }
+
     @Override
     public void setLocation(int tx, int ty)
     {
@@ -809,7 +879,7 @@ public class PathfindableModel extends FeatureModel implements Pathfindable
     @Override
     public boolean isPathAvailable(int tx, int ty)
     {
-        return pathfinder.findPath(this, tx, ty, false) != null;
+        return requests.findPath(tx, ty, false) != null;
     }
 
     @Override
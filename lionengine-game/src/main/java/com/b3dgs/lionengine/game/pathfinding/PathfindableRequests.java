@@ -0,0 +1,251 @@
+/*
+ * Copyright (C) 2013-2016 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.pathfinding;
+
+import com.b3dgs.lionengine.game.map.MapTile;
+
+/**
+ * Path requests of a pathfindable. Paths are searched by the batch if defined, and delivered on its update, else they
+ * are searched immediately by a dedicated path finder.
+ * <p>
+ * Two requests are handled: the first path of a new destination, when not moving, and the path change of a moving
+ * pathfindable. Pending requests are submitted again when the batch is changed.
+ * </p>
+ */
+abstract class PathfindableRequests
+{
+    /** Path found listener. */
+    private final PathFinderBatchListener foundListener = new PathFinderBatchListener()
+    {
+        @Override
+        public void notifyPathFound(Path path)
+        {
+            foundPending = false;
+            onPathFound(path);
+        }
+    };
+    /** Path change found listener. */
+    private final PathFinderBatchListener repathListener = new PathFinderBatchListener()
+    {
+        @Override
+        public void notifyPathFound(Path path)
+        {
+            repathPending = false;
+            onRepathFound(path);
+        }
+    };
+    /** The mover reference. */
+    private final Pathfindable mover;
+    /** Map reference. */
+    private MapTile map;
+    /** Pathfinder reference, created on first use if no batch. */
+    private PathFinder pathfinder;
+    /** Path finder batch reference, <code>null</code> if none. */
+    private PathFinderBatch batch;
+    /** Requested destination location x. */
+    private int destX;
+    /** Requested destination location y. */
+    private int destY;
+    /** First path request pending flag. */
+    private boolean foundPending;
+    /** Path change request pending flag. */
+    private boolean repathPending;
+
+    /**
+     * Create requests.
+     * 
+     * @param mover The mover reference.
+     */
+    PathfindableRequests(Pathfindable mover)
+    {
+        super();
+
+        this.mover = mover;
+    }
+
+    /**
+     * Called when the path of a new destination has been found.
+     * 
+     * @param found The path found, <code>null</code> if none.
+     */
+    abstract void onPathFound(Path found);
+
+    /**
+     * Called when the path requested while moving has been found.
+     * 
+     * @param found The path found, <code>null</code> if none.
+     */
+    abstract void onRepathFound(Path found);
+
+    /**
+     * Set the map used by the immediate searches.
+     * 
+     * @param map The map reference.
+     */
+    void prepare(MapTile map)
+    {
+        this.map = map;
+    }
+
+    /**
+     * Request the path of a new destination, when not moving. Replaces the pending request if any.
+     * 
+     * @param dtx The horizontal destination tile.
+     * @param dty The vertical destination tile.
+     */
+    void request(int dtx, int dty)
+    {
+        destX = dtx;
+        destY = dty;
+        foundPending = true;
+        repathPending = false;
+        submit();
+    }
+
+    /**
+     * Request the path to a new destination while moving. Replaces the pending request if any.
+     * 
+     * @param dtx The horizontal destination tile.
+     * @param dty The vertical destination tile.
+     */
+    void requestRepath(int dtx, int dty)
+    {
+        destX = dtx;
+        destY = dty;
+        foundPending = false;
+        repathPending = true;
+        submit();
+    }
+
+    /**
+     * Replace the pending path change destination.
+     * 
+     * @param dtx The horizontal destination tile.
+     * @param dty The vertical destination tile.
+     * @return <code>true</code> if replaced, <code>false</code> if no path change pending.
+     */
+    boolean replaceRepath(int dtx, int dty)
+    {
+        if (repathPending)
+        {
+            requestRepath(dtx, dty);
+        }
+        return repathPending;
+    }
+
+    /**
+     * Cancel the pending request.
+     */
+    void cancel()
+    {
+        if (batch != null)
+        {
+            batch.cancel(mover);
+        }
+        foundPending = false;
+        repathPending = false;
+    }
+
+    /**
+     * Set the batch used for requests. A pending request is submitted again to the new batch, or searched immediately
+     * if none.
+     * 
+     * @param batch The batch reference, <code>null</code> to search immediately.
+     */
+    void setBatch(PathFinderBatch batch)
+    {
+        if (this.batch != null)
+        {
+            this.batch.cancel(mover);
+        }
+        this.batch = batch;
+        if (foundPending || repathPending)
+        {
+            submit();
+        }
+    }
+
+    /**
+     * Search the path immediately.
+     * 
+     * @param dtx The horizontal destination tile.
+     * @param dty The vertical destination tile.
+     * @param ignoreRef The ignore map array reference checking (<code>true</code> to ignore references).
+     * @return The path found, <code>null</code> if none.
+     */
+    Path findPath(int dtx, int dty, boolean ignoreRef)
+    {
+        return getPathFinder().findPath(mover, dtx, dty, ignoreRef);
+    }
+
+    /**
+     * Check if a path change is pending.
+     * 
+     * @return <code>true</code> if pending, <code>false</code> else.
+     */
+    boolean isRepathPending()
+    {
+        return repathPending;
+    }
+
+    /**
+     * Submit the pending request, to the batch if defined, else search it immediately. The first path ignores the
+     * map references, unlike the path change.
+     */
+    private void submit()
+    {
+        final PathFinderBatchListener listener;
+        if (repathPending)
+        {
+            listener = repathListener;
+        }
+        else
+        {
+            listener = foundListener;
+        }
+        if (batch == null)
+        {
+            listener.notifyPathFound(findPath(destX, destY, !repathPending));
+        }
+        else
+        {
+            batch.request(mover, destX, destY, !repathPending, listener);
+        }
+    }
+
+    /**
+     * Get the path finder used for immediate searches. The batch is used if defined, else a dedicated path finder is
+     * created on first call.
+     * 
+     * @return The path finder reference.
+     */
+    private PathFinder getPathFinder()
+    {
+        if (batch != null)
+        {
+            return batch;
+        }
+        if (pathfinder == null)
+        {
+            final int range = (int) Math.sqrt(map.getInTileWidth() * map.getInTileWidth()
+                                              + map.getInTileHeight() * (double) map.getInTileHeight());
+            pathfinder = Astar.createPathFinder(map, range, Astar.createHeuristicClosest());
+        }
+        return pathfinder;
+    }
+}
@@ -18,6 +18,7 @@
 package com.b3dgs.lionengine.game.pathfinding;
 
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -28,8 +29,8 @@ import com.b3dgs.lionengine.game.feature.FeatureModel;
  */
 public class TilePathModel extends FeatureModel implements TilePath
 {
-    /** Object id reference. */
-    private final Set<Integer> objectsId = new HashSet<Integer>();
+    /** Object id reference, created on first add as most tiles never hold objects. */
+    private Set<Integer> objectsId;
     /** Category name. */
     private final String category;
 
@@ -51,18 +52,29 @@ public class TilePathModel extends FeatureModel implements TilePath
     @Override
     public void addObjectId(Integer id)
     {
+        if (objectsId == null)
+        {
+            objectsId = new HashSet<Integer>();
+        }
         objectsId.add(id);
     }
 
     @Override
     public void removeObjectId(Integer id)
     {
-        objectsId.remove(id);
+        if (objectsId != null)
+        {
+            objectsId.remove(id);
+        }
     }
 
     @Override
     public Collection<Integer> getObjectsId()
     {
+        if (objectsId == null)
+        {
+            return Collections.emptySet();
+        }
         return objectsId;
     }
 
@@ -33,6 +33,10 @@ import com.b3dgs.lionengine.game.map.MapTileRenderer;
  * <pre>
  * {@link #loadSheets(Media, boolean)}
  * </pre>
+ * <p>
+ * Rastered sheets can be packed in shared atlas pages with {@link #loadSheets(Media, boolean, Media)}, or built lazily
+ * per tile with {@link #loadSheets(Media, boolean, int)}.
+ * </p>
  */
 public interface MapTileRastered extends Feature, MapTileRenderer
 {
@@ -45,6 +49,29 @@ public interface MapTileRastered extends Feature, MapTileRenderer
      */
     void loadSheets(Media rasterConfig, boolean smooth);
 
+    /**
+     * Load tile sheets as rastered, packed in shared atlas pages. The packing layout is read from the layout media if
+     * it matches, or saved to it, in order to skip packing on next load.
+     * 
+     * @param rasterConfig The raster file that define the colors.
+     * @param smooth <code>true</code> for a smoothed raster (may be slower), <code>false</code> else.
+     * @param layout The atlas layout media.
+     * @throws LionEngineException If error when reading sheets or layout.
+     * @see com.b3dgs.lionengine.drawable.Atlas
+     */
+    void loadSheets(Media rasterConfig, boolean smooth, Media layout);
+
+    /**
+     * Load tile sheets as lazily rastered. Rastered tiles are built on first rendering, and kept in a least recently
+     * used cache. Full rastered sheets are only built if requested with {@link #getRasterSheet(Integer, int)}.
+     * 
+     * @param rasterConfig The raster file that define the colors.
+     * @param smooth <code>true</code> for a smoothed raster, <code>false</code> else.
+     * @param cacheSize The maximum number of cached rastered tiles (must be strictly positive).
+     * @throws LionEngineException If error when reading raster or invalid cache size.
+     */
+    void loadSheets(Media rasterConfig, boolean smooth, int cacheSize);
+
     /**
      * Get raster index from input tile (depending of its height).
      * 
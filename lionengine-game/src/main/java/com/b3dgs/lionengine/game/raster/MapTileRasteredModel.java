@@ -24,9 +24,11 @@ import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
 
+import com.b3dgs.lionengine.Check;
 import com.b3dgs.lionengine.LionEngineException;
 import com.b3dgs.lionengine.Media;
 import com.b3dgs.lionengine.core.Graphics;
+import com.b3dgs.lionengine.drawable.Atlas;
 import com.b3dgs.lionengine.drawable.Drawable;
 import com.b3dgs.lionengine.drawable.SpriteTiled;
 import com.b3dgs.lionengine.game.feature.FeatureModel;
@@ -44,12 +46,19 @@ import com.b3dgs.lionengine.util.UtilConversion;
  */
 public class MapTileRasteredModel extends FeatureModel implements MapTileRastered
 {
+    /** Atlas page size. */
+    private static final int ATLAS_PAGE_SIZE = 2048;
+    /** Atlas image name separator. */
+    private static final String ATLAS_SEPARATOR = "_";
+
     /** List of rastered sheets. */
     private final Map<Integer, List<SpriteTiled>> rasterSheets = new TreeMap<Integer, List<SpriteTiled>>();
     /** Map tile reference. */
     private MapTile map;
     /** Rasters smooth flag. */
     private boolean smooth;
+    /** Lazy rastered tiles cache, <code>null</code> if rastered sheets are pre-built. */
+    private RasterCache cache;
 
     /**
      * Create a map tile rastered.
@@ -66,15 +75,29 @@ public class MapTileRasteredModel extends FeatureModel implements MapTileRastere
     }
 
     /**
-     * Load raster from data.
+     * Get the atlas image name of a raster sheet.
+     * 
+     * @param sheet The sheet number.
+     * @param rasterIndex The raster index.
+     * @return The image name.
+     */
+    private static String getAtlasName(Integer sheet, int rasterIndex)
+    {
+        return sheet + ATLAS_SEPARATOR + rasterIndex;
+    }
+
+    /**
+     * Load raster buffers from data.
      * 
      * @param sheet The current sheet.
      * @param raster The raster data.
+     * @return The raster buffers, in raster index order.
      * @throws LionEngineException If arguments are invalid.
      */
-    private void loadRaster(Integer sheet, Raster raster)
+    private List<ImageBuffer> loadRaster(Integer sheet, Raster raster)
     {
         final int max = UtilConversion.boolToInt(smooth) + 1;
+        final List<ImageBuffer> buffers = new ArrayList<ImageBuffer>(Rasterable.MAX_RASTERS * max);
         for (int m = 0; m < max; m++)
         {
             for (int i = 1; i <= Rasterable.MAX_RASTERS; i++)
@@ -83,40 +106,93 @@ public class MapTileRasteredModel extends FeatureModel implements MapTileRastere
                 final RasterColor green = RasterColor.load(raster.getGreen(), m, i, smooth);
                 final RasterColor blue = RasterColor.load(raster.getBlue(), m, i, smooth);
 
-                addRasterSheet(sheet, red, green, blue);
+                buffers.add(createRasterBuffer(sheet, red, green, blue));
             }
         }
+        return buffers;
     }
 
     /**
-     * Add a raster sheet.
+     * Create a raster buffer.
      * 
      * @param sheet The current sheet.
      * @param red The red color transition.
      * @param green The green color transition.
      * @param blue The blue color transition.
+     * @return The raster buffer.
      * @throws LionEngineException If arguments are invalid.
      */
-    private void addRasterSheet(Integer sheet, RasterColor red, RasterColor green, RasterColor blue)
+    private ImageBuffer createRasterBuffer(Integer sheet, RasterColor red, RasterColor green, RasterColor blue)
     {
         final SpriteTiled original = map.getSheet(sheet);
         final ImageBuffer buf = original.getSurface();
-        final ImageBuffer rasterBuf = Graphics.getRasterBuffer(buf,
-                                                               red.getStart(),
-                                                               green.getStart(),
-                                                               blue.getStart(),
-                                                               red.getEnd(),
-                                                               green.getEnd(),
-                                                               blue.getEnd(),
-                                                               map.getTileHeight());
+        return Graphics.getRasterBuffer(buf,
+                                        red.getStart(),
+                                        green.getStart(),
+                                        blue.getStart(),
+                                        red.getEnd(),
+                                        green.getEnd(),
+                                        blue.getEnd(),
+                                        map.getTileHeight());
+    }
 
+    /**
+     * Get the lazily built raster sheet, built on first call.
+     * 
+     * @param sheet The sheet number
+     * @param rasterIndex The raster index.
+     * @return The tilesheet reference.
+     */
+    private SpriteTiled getLazyRasterSheet(Integer sheet, int rasterIndex)
+    {
+        List<SpriteTiled> rasters = rasterSheets.get(sheet);
+        if (rasters == null)
+        {
+            final int count = Rasterable.MAX_RASTERS * (UtilConversion.boolToInt(smooth) + 1);
+            rasters = new ArrayList<SpriteTiled>(count);
+            for (int i = 0; i < count; i++)
+            {
+                rasters.add(null);
+            }
+            rasterSheets.put(sheet, rasters);
+        }
+        SpriteTiled raster = rasters.get(rasterIndex);
+        if (raster == null)
+        {
+            final ImageBuffer buffer = cache.buildSheet(map.getSheet(sheet), rasterIndex);
+            raster = Drawable.loadSpriteTiled(buffer, map.getTileWidth(), map.getTileHeight());
+            rasters.set(rasterIndex, raster);
+        }
+        return raster;
+    }
+
+    /**
+     * Clear the lazy cache and its sheets if any.
+     */
+    private void clearCache()
+    {
+        if (cache != null)
+        {
+            cache.clear();
+            cache = null;
+            rasterSheets.clear();
+        }
+    }
+
+    /**
+     * Add a raster sheet.
+     * 
+     * @param sheet The current sheet.
+     * @param raster The raster sheet.
+     */
+    private void addRasterSheet(Integer sheet, SpriteTiled raster)
+    {
         List<SpriteTiled> rasters = rasterSheets.get(sheet);
         if (rasters == null)
         {
             rasters = new ArrayList<SpriteTiled>(Rasterable.MAX_RASTERS);
             rasterSheets.put(sheet, rasters);
         }
-        final SpriteTiled raster = Drawable.loadSpriteTiled(rasterBuf, map.getTileWidth(), map.getTileHeight());
         rasters.add(raster);
     }
 
@@ -135,6 +211,7 @@ public class MapTileRasteredModel extends FeatureModel implements MapTileRastere
     @Override
     public void loadSheets(Media rasterConfig, boolean smooth)
     {
+        clearCache();
         this.smooth = smooth;
 
         final Raster raster = Raster.load(rasterConfig);
@@ -144,7 +221,68 @@ public class MapTileRasteredModel extends FeatureModel implements MapTileRastere
         while (itr.hasNext())
         {
             final Integer sheet = itr.next();
-            loadRaster(sheet, raster);
+            for (final ImageBuffer buffer : loadRaster(sheet, raster))
+            {
+                addRasterSheet(sheet, Drawable.loadSpriteTiled(buffer, map.getTileWidth(), map.getTileHeight()));
+            }
+        }
+    }
+
+    @Override
+    public void loadSheets(Media rasterConfig, boolean smooth, Media layout)
+    {
+        Check.notNull(layout);
+
+        clearCache();
+        this.smooth = smooth;
+
+        final Raster raster = Raster.load(rasterConfig);
+        final Atlas atlas = new Atlas(ATLAS_PAGE_SIZE, ATLAS_PAGE_SIZE);
+        final Map<Integer, List<ImageBuffer>> buffers = new TreeMap<Integer, List<ImageBuffer>>();
+        for (final Integer sheet : map.getSheets())
+        {
+            final List<ImageBuffer> rasters = loadRaster(sheet, raster);
+            for (int i = 0; i < rasters.size(); i++)
+            {
+                atlas.add(getAtlasName(sheet, i), rasters.get(i));
+            }
+            buffers.put(sheet, rasters);
+        }
+        atlas.pack(layout);
+
+        for (final Map.Entry<Integer, List<ImageBuffer>> entry : buffers.entrySet())
+        {
+            final Integer sheet = entry.getKey();
+            final List<ImageBuffer> rasters = entry.getValue();
+            for (int i = 0; i < rasters.size(); i++)
+            {
+                final String name = getAtlasName(sheet, i);
+                addRasterSheet(sheet, Drawable.loadSpriteTiled(atlas, name, map.getTileWidth(), map.getTileHeight()));
+                rasters.get(i).dispose();
+            }
+        }
+    }
+
+    @Override
+    public void loadSheets(Media rasterConfig, boolean smooth, int cacheSize)
+    {
+        Check.superiorStrict(cacheSize, 0);
+
+        clearCache();
+        this.smooth = smooth;
+        rasterSheets.clear();
+
+        final Raster raster = Raster.load(rasterConfig);
+        cache = new RasterCache(cacheSize, map.getTileHeight());
+        final int max = UtilConversion.boolToInt(smooth) + 1;
+        for (int m = 0; m < max; m++)
+        {
+            for (int i = 1; i <= Rasterable.MAX_RASTERS; i++)
+            {
+                cache.addShade(RasterColor.load(raster.getRed(), m, i, smooth),
+                               RasterColor.load(raster.getGreen(), m, i, smooth),
+                               RasterColor.load(raster.getBlue(), m, i, smooth));
+            }
         }
     }
 
@@ -153,10 +291,18 @@ public class MapTileRasteredModel extends FeatureModel implements MapTileRastere
     {
         final Integer sheet = tile.getSheet();
         final int number = tile.getNumber();
-        final SpriteTiled raster = getRasterSheet(sheet, getRasterIndex(tile.getInTileY()));
-        raster.setLocation(x, y);
-        raster.setTile(number);
-        raster.render(g);
+        final int rasterIndex = getRasterIndex(tile.getInTileY());
+        if (cache == null)
+        {
+            final SpriteTiled raster = getRasterSheet(sheet, rasterIndex);
+            raster.setLocation(x, y);
+            raster.setTile(number);
+            raster.render(g);
+        }
+        else
+        {
+            g.drawImage(cache.get(sheet.intValue(), map.getSheet(sheet), number, rasterIndex), x, y);
+        }
     }
 
     @Override
@@ -173,6 +319,10 @@ public class MapTileRasteredModel extends FeatureModel implements MapTileRastere
     @Override
     public SpriteTiled getRasterSheet(Integer sheet, int rasterIndex)
     {
-        return rasterSheets.get(sheet).get(rasterIndex);
+        if (cache == null)
+        {
+            return rasterSheets.get(sheet).get(rasterIndex);
+        }
+        return getLazyRasterSheet(sheet, rasterIndex);
     }
 }
@@ -0,0 +1,345 @@
+/*
+ * Copyright (C) 2013-2016 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.raster;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.b3dgs.lionengine.core.Graphics;
+import com.b3dgs.lionengine.drawable.SpriteTiled;
+import com.b3dgs.lionengine.graphic.ImageBuffer;
+import com.b3dgs.lionengine.graphic.UtilColor;
+
+/**
+ * Lazy rastered tiles cache. Each rastered tile is built on first use from the original sheet pixels, and kept in a
+ * least recently used cache of bounded size, the oldest tile being disposed when full.
+ * <p>
+ * Shading is computed on raw pixels, the same way as {@link Graphics#getRasterBuffer}, so a cached tile is identical
+ * to the tile of a pre-built rastered sheet.
+ * </p>
+ */
+final class RasterCache
+{
+    /** Red divisor. */
+    private static final int DIVISOR_RED = 0x010000;
+    /** Green divisor. */
+    private static final int DIVISOR_GREEN = 0x000100;
+    /** Blue divisor. */
+    private static final int DIVISOR_BLUE = 0x000001;
+    /** Cache initial capacity. */
+    private static final int INITIAL_CAPACITY = 16;
+    /** Cache load factor. */
+    private static final float LOAD_FACTOR = 0.75F;
+
+    /**
+     * Apply shade on raw pixels area. Shade varies on rows, depending of their location modulo reference size.
+     * 
+     * @param rgb The pixels to shade.
+     * @param width The area width.
+     * @param height The area height.
+     * @param startRow The area first row in sheet.
+     * @param size The reference size.
+     * @param shade The shade to apply.
+     */
+    static void shade(int[] rgb, int width, int height, int startRow, int size, Shade shade)
+    {
+        final double sr = -((shade.er - shade.fr) / DIVISOR_RED) / (double) size;
+        final double sg = -((shade.eg - shade.fg) / DIVISOR_GREEN) / (double) size;
+        final double sb = -((shade.eb - shade.fb) / DIVISOR_BLUE) / (double) size;
+
+        for (int j = 0; j < height; j++)
+        {
+            final int row = (startRow + j) % size;
+            final int r = shade.fr + (int) (sr * row) * DIVISOR_RED;
+            final int g = shade.fg + (int) (sg * row) * DIVISOR_GREEN;
+            final int b = shade.fb + (int) (sb * row) * DIVISOR_BLUE;
+            final int offset = j * width;
+            for (int i = 0; i < width; i++)
+            {
+                rgb[offset + i] = UtilColor.filterRgb(rgb[offset + i], r, g, b);
+            }
+        }
+    }
+
+    /** Shades by raster index. */
+    private final List<Shade> shades = new ArrayList<Shade>();
+    /** Cached tiles, in access order. */
+    private final Map<Key, ImageBuffer> tiles = new LinkedHashMap<Key, ImageBuffer>(INITIAL_CAPACITY,
+                                                                                        LOAD_FACTOR,
+                                                                                        true);
+    /** Lookup key, reused to avoid allocation. */
+    private final Key probe = new Key();
+    /** Maximum cached tiles. */
+    private final int max;
+    /** Reference size (tile height). */
+    private final int size;
+    /** Pixels buffer, reused between builds. */
+    private int[] rgb = new int[0];
+    /** Built tiles count. */
+    private int built;
+
+    /**
+     * Create cache.
+     * 
+     * @param max The maximum cached tiles.
+     * @param size The reference size (tile height).
+     */
+    RasterCache(int max, int size)
+    {
+        super();
+
+        this.max = max;
+        this.size = size;
+    }
+
+    /**
+     * Add shade of next raster index.
+     * 
+     * @param red The red color transition.
+     * @param green The green color transition.
+     * @param blue The blue color transition.
+     */
+    void addShade(RasterColor red, RasterColor green, RasterColor blue)
+    {
+        shades.add(new Shade(red, green, blue));
+    }
+
+    /**
+     * Get the rastered tile, built if not cached.
+     * 
+     * @param sheetId The sheet id.
+     * @param sheet The original sheet.
+     * @param number The tile number in sheet.
+     * @param rasterIndex The raster index.
+     * @return The rastered tile surface.
+     */
+    ImageBuffer get(int sheetId, SpriteTiled sheet, int number, int rasterIndex)
+    {
+        probe.set(sheetId, number, rasterIndex);
+        ImageBuffer tile = tiles.get(probe);
+        if (tile == null)
+        {
+            tile = build(sheet, number, shades.get(rasterIndex));
+            final Key key = new Key();
+            key.set(sheetId, number, rasterIndex);
+            tiles.put(key, tile);
+            if (tiles.size() > max)
+            {
+                final Iterator<ImageBuffer> eldest = tiles.values().iterator();
+                eldest.next().dispose();
+                eldest.remove();
+            }
+        }
+        return tile;
+    }
+
+    /**
+     * Build a full rastered sheet.
+     * 
+     * @param sheet The original sheet.
+     * @param rasterIndex The raster index.
+     * @return The rastered sheet surface.
+     */
+    ImageBuffer buildSheet(SpriteTiled sheet, int rasterIndex)
+    {
+        final ImageBuffer surface = sheet.getSurface();
+        return build(surface, 0, 0, surface.getWidth(), surface.getHeight(), shades.get(rasterIndex));
+    }
+
+    /**
+     * Get the number of cached tiles.
+     * 
+     * @return The cached tiles number.
+     */
+    int getSize()
+    {
+        return tiles.size();
+    }
+
+    /**
+     * Get the number of built tiles since creation.
+     * 
+     * @return The built tiles number.
+     */
+    int getBuilt()
+    {
+        return built;
+    }
+
+    /**
+     * Dispose cached tiles.
+     */
+    void clear()
+    {
+        for (final ImageBuffer tile : tiles.values())
+        {
+            tile.dispose();
+        }
+        tiles.clear();
+    }
+
+    /**
+     * Build a rastered tile.
+     * 
+     * @param sheet The original sheet.
+     * @param number The tile number in sheet.
+     * @param shade The shade to apply.
+     * @return The rastered tile surface.
+     */
+    private ImageBuffer build(SpriteTiled sheet, int number, Shade shade)
+    {
+        final int tw = sheet.getTileWidth();
+        final int th = sheet.getTileHeight();
+        final int x = number % sheet.getTilesHorizontal() * tw;
+        final int y = number / sheet.getTilesHorizontal() * th;
+        built++;
+        return build(sheet.getSurface(), x, y, tw, th, shade);
+    }
+
+    /**
+     * Build a rastered area.
+     * 
+     * @param surface The original surface.
+     * @param x The area horizontal location.
+     * @param y The area vertical location.
+     * @param width The area width.
+     * @param height The area height.
+     * @param shade The shade to apply.
+     * @return The rastered area surface.
+     */
+    private ImageBuffer build(ImageBuffer surface, int x, int y, int width, int height, Shade shade)
+    {
+        final int length = width * height;
+        if (rgb.length < length)
+        {
+            rgb = new int[length];
+        }
+        surface.getRgb(x, y, width, height, rgb, 0, width);
+        shade(rgb, width, height, y, size, shade);
+
+        final ImageBuffer area = Graphics.createImageBuffer(width, height, surface.getTransparency());
+        area.setRgb(0, 0, width, height, rgb, 0, width);
+        return area;
+    }
+
+    /**
+     * Raster shade, transition from start to end colors.
+     */
+    static final class Shade
+    {
+        /** Red start. */
+        private final int fr;
+        /** Green start. */
+        private final int fg;
+        /** Blue start. */
+        private final int fb;
+        /** Red end. */
+        private final int er;
+        /** Green end. */
+        private final int eg;
+        /** Blue end. */
+        private final int eb;
+
+        /**
+         * Create shade.
+         * 
+         * @param red The red color transition.
+         * @param green The green color transition.
+         * @param blue The blue color transition.
+         */
+        Shade(RasterColor red, RasterColor green, RasterColor blue)
+        {
+            super();
+
+            fr = red.getStart();
+            fg = green.getStart();
+            fb = blue.getStart();
+            er = red.getEnd();
+            eg = green.getEnd();
+            eb = blue.getEnd();
+        }
+    }
+
+    /**
+     * Cached tile key.
+     */
+    private static final class Key
+    {
+        /** Sheet id. */
+        private int sheet;
+        /** Tile number. */
+        private int number;
+        /** Raster index. */
+        private int raster;
+
+        /**
+         * Create key.
+         */
+        Key()
+        {
+            super();
+        }
+
+        /**
+         * Set key values.
+         * 
+         * @param sheet The sheet id.
+         * @param number The tile number.
+         * @param raster The raster index.
+         */
+        void set(int sheet, int number, int raster)
+        {
+            this.sheet = sheet;
+            this.number = number;
+            this.raster = raster;
+        }
+
+        /*
+         * Object
+         */
+
+        @Override
+        public int hashCode()
+        {
+            final int prime = 31;
+            int result = 1;
+            result = prime * result + sheet;
+            result = prime * result + number;
+            result = prime * result + raster;
+            return result;
+        }
+
+        @Override
+        public boolean equals(Object object)
+        {
+            if (object == this)
+            {
+                return true;
+            }
+            if (object == null || object.getClass() != getClass())
+            {
+                return false;
+            }
+            final Key other = (Key) object;
+            return other.sheet == sheet && other.number == number && other.raster == raster;
+        }
+    }
+}
@@ -0,0 +1,224 @@
+/*
+ * Copyright (C) 2013-2016 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.tile;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.graphic.ColorRgba;
+import com.b3dgs.lionengine.graphic.ImageBuffer;
+
+/**
+ * Index of tile images by their pixels, allowing to find an equal tile without comparing it to all others.
+ * <p>
+ * Pixels are read by rows and normalized, {@link ColorRgba#OPAQUE} being considered as {@link ColorRgba#TRANSPARENT}
+ * as in {@link TilesExtractor#compareTile(int, int, ImageBuffer, int, int, ImageBuffer, int, int)}. Tiles are indexed
+ * by the hash of their normalized pixels, and pixels are fully compared only on hash hit.
+ * </p>
+ * <p>
+ * Once filled, reading the index is thread safe, as long as each thread uses its own pixels buffer.
+ * </p>
+ * 
+ * @param <T> The indexed value type.
+ */
+public final class TileImageIndex<T>
+{
+    /** Hash multiplier. */
+    private static final int HASH_MULTIPLIER = 31;
+
+    /**
+     * Normalize the pixel transparency.
+     * 
+     * @param pixel The pixel value.
+     * @return The normalized pixel value.
+     */
+    private static int normalize(int pixel)
+    {
+        if (pixel == ColorRgba.OPAQUE.getRgba())
+        {
+            return ColorRgba.TRANSPARENT.getRgba();
+        }
+        return pixel;
+    }
+
+    /**
+     * Compute the pixels hash.
+     * 
+     * @param pixels The normalized pixels.
+     * @return The pixels hash.
+     */
+    private static int hash(int[] pixels)
+    {
+        int hash = 1;
+        for (final int pixel : pixels)
+        {
+            hash = HASH_MULTIPLIER * hash + pixel;
+        }
+        return hash;
+    }
+
+    /** Indexed tiles by hash. */
+    private final Map<Integer, Entry<T>> entries = new HashMap<Integer, Entry<T>>();
+    /** Tile width. */
+    private final int tw;
+    /** Tile height. */
+    private final int th;
+    /** Indexed tiles number. */
+    private int size;
+
+    /**
+     * Create index.
+     * 
+     * @param tw The tile width (must be strictly positive).
+     * @param th The tile height (must be strictly positive).
+     * @throws LionEngineException If invalid arguments.
+     */
+    public TileImageIndex(int tw, int th)
+    {
+        super();
+        Check.superiorStrict(tw, 0);
+        Check.superiorStrict(th, 0);
+
+        this.tw = tw;
+        this.th = th;
+    }
+
+    /**
+     * Create a pixels buffer for {@link #read(ImageBuffer, int, int, int[])}.
+     * 
+     * @return The pixels buffer.
+     */
+    public int[] createBuffer()
+    {
+        return new int[tw * th];
+    }
+
+    /**
+     * Read the normalized tile pixels.
+     * 
+     * @param image The image to read from.
+     * @param x The tile horizontal location in image.
+     * @param y The tile vertical location in image.
+     * @param pixels The pixels buffer (see {@link #createBuffer()}).
+     * @return The pixels buffer.
+     */
+    public int[] read(ImageBuffer image, int x, int y, int[] pixels)
+    {
+        image.getRgb(x, y, tw, th, pixels, 0, tw);
+        for (int i = 0; i < pixels.length; i++)
+        {
+            pixels[i] = normalize(pixels[i]);
+        }
+        return pixels;
+    }
+
+    /**
+     * Add a tile if not already indexed. The first value is kept for equal tiles.
+     * 
+     * @param pixels The tile normalized pixels (see {@link #read(ImageBuffer, int, int, int[])}), copied.
+     * @param value The tile value.
+     * @return <code>true</code> if added, <code>false</code> if an equal tile was already indexed.
+     */
+    public boolean add(int[] pixels, T value)
+    {
+        final Integer hash = Integer.valueOf(hash(pixels));
+        final Entry<T> first = entries.get(hash);
+        if (find(first, pixels) != null)
+        {
+            return false;
+        }
+        entries.put(hash, new Entry<T>(pixels.clone(), value, first));
+        size++;
+        return true;
+    }
+
+    /**
+     * Get the value of the equal indexed tile.
+     * 
+     * @param pixels The tile normalized pixels (see {@link #read(ImageBuffer, int, int, int[])}).
+     * @return The value of the equal tile, <code>null</code> if none.
+     */
+    public T get(int[] pixels)
+    {
+        final Entry<T> entry = find(entries.get(Integer.valueOf(hash(pixels))), pixels);
+        if (entry != null)
+        {
+            return entry.value;
+        }
+        return null;
+    }
+
+    /**
+     * Get the indexed tiles number.
+     * 
+     * @return The indexed tiles number.
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * Find the entry with equal pixels.
+     * 
+     * @param first The first entry of the hash.
+     * @param pixels The pixels to find.
+     * @return The entry found, <code>null</code> if none.
+     */
+    private Entry<T> find(Entry<T> first, int[] pixels)
+    {
+        Entry<T> entry = first;
+        while (entry != null && !Arrays.equals(entry.pixels, pixels))
+        {
+            entry = entry.next;
+        }
+        return entry;
+    }
+
+    /**
+     * Indexed tile.
+     * 
+     * @param <T> The indexed value type.
+     */
+    private static final class Entry<T>
+    {
+        /** Normalized pixels. */
+        final int[] pixels;
+        /** Tile value. */
+        final T value;
+        /** Next entry with the same hash. */
+        final Entry<T> next;
+
+        /**
+         * Create entry.
+         * 
+         * @param pixels The normalized pixels.
+         * @param value The tile value.
+         * @param next The next entry with the same hash.
+         */
+        Entry(int[] pixels, T value, Entry<T> next)
+        {
+            this.pixels = pixels;
+            this.value = value;
+            this.next = next;
+        }
+    }
+}
@@ -36,7 +36,7 @@ import com.b3dgs.lionengine.graphic.UtilColor;
 /**
  * This class allows to extract unique tiles from a level rip.
  * The color [0-128-128] ({@link #IGNORED_COLOR_VALUE}) is ignored (can be used to skip tile, in order to improve
- * performance).
+ * performance). Extracted tiles are indexed by {@link TileImageIndex}, to find already extracted ones by hash.
  */
 public final class TilesExtractor
 {
@@ -76,32 +76,6 @@ public final class TilesExtractor
         return true;
     }
 
-    /**
-     * Check if tile has already been extracted regarding the current tile on level rip.
-     * 
-     * @param level The level rip reference.
-     * @param x The current level rip horizontal location.
-     * @param y The current level rip vertical location.
-     * @param tiles The current extracted tiles.
-     * @return <code>true</code> if already extracted, <code>false</code> else.
-     */
-    private static boolean isExtracted(SpriteTiled level, int x, int y, Collection<ImageBuffer> tiles)
-    {
-        final int tw = level.getTileWidth();
-        final int th = level.getTileHeight();
-        final ImageBuffer surface = level.getSurface();
-
-        for (final ImageBuffer tile : tiles)
-        {
-
-            if (compareTile(tw, th, surface, x, y, tile, 0, 0))
-            {
-                return true;
-            }
-        }
-        return false;
-    }
-
     /**
      * Extract the tile from level.
      * 
@@ -202,6 +176,7 @@ public final class TilesExtractor
     {
         final int tilesNumber = getTilesNumber(tw, th, levelRips);
         final Collection<ImageBuffer> tiles = new ArrayList<ImageBuffer>();
+        final TileImageIndex<ImageBuffer> index = new TileImageIndex<ImageBuffer>(tw, th);
         int checkedTiles = 0;
         for (final Media levelRip : levelRips)
         {
@@ -209,7 +184,7 @@ public final class TilesExtractor
             level.load();
             level.prepare();
 
-            checkedTiles = extract(canceler, level, tilesNumber, tiles, checkedTiles);
+            checkedTiles = extract(canceler, level, tilesNumber, tiles, index, checkedTiles);
             level.getSurface().dispose();
             if (checkedTiles < 0)
             {
@@ -228,6 +203,7 @@ public final class TilesExtractor
      * @param level The level rip.
      * @param tilesNumber The total tiles number to extract.
      * @param tiles The current extracted tiles.
+     * @param index The current extracted tiles index.
      * @param checkedTiles The last number of checked tiles.
      * @return The current number of checked tiles, or -1 if canceled.
      * @throws LionEngineException If an error occurred when proceeding the image.
@@ -236,6 +212,7 @@ public final class TilesExtractor
                         SpriteTiled level,
                         int tilesNumber,
                         Collection<ImageBuffer> tiles,
+                        TileImageIndex<ImageBuffer> index,
                         int checkedTiles)
     {
         final int horizontalTiles = level.getTilesHorizontal();
@@ -244,6 +221,7 @@ public final class TilesExtractor
 
         final int tw = level.getTileWidth();
         final int th = level.getTileHeight();
+        final int[] pixels = index.createBuffer();
         int checked = checkedTiles;
         int oldPercent = 0;
         for (int v = 0; v < verticalTiles; v++)
@@ -252,10 +230,12 @@ public final class TilesExtractor
             {
                 final int x = h * tw;
                 final int y = v * th;
-                if (IGNORED_COLOR_VALUE != surface.getRgb(x, y) && !isExtracted(level, x, y, tiles))
+                if (IGNORED_COLOR_VALUE != surface.getRgb(x, y)
+                    && index.get(index.read(surface, x, y, pixels)) == null)
                 {
                     final ImageBuffer tile = extract(level, h + v * horizontalTiles);
                     tiles.add(tile);
+                    index.add(pixels, tile);
                 }
                 checked++;
                 oldPercent = updateProgress(checked, tilesNumber, oldPercent, tiles);
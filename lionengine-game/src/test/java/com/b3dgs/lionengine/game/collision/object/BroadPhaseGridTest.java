@@ -0,0 +1,149 @@
+/*
+ * Copyright (C) 2013-2016 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.collision.object;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.b3dgs.lionengine.Constant;
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.Media;
+import com.b3dgs.lionengine.core.Graphics;
+import com.b3dgs.lionengine.core.Medias;
+import com.b3dgs.lionengine.game.camera.Camera;
+import com.b3dgs.lionengine.game.feature.Services;
+import com.b3dgs.lionengine.game.feature.UtilSetup;
+import com.b3dgs.lionengine.game.map.MapTile;
+import com.b3dgs.lionengine.game.map.MapTileGame;
+import com.b3dgs.lionengine.mock.FactoryGraphicMock;
+
+/**
+ * Test the grid broad phase class.
+ */
+public class BroadPhaseGridTest
+{
+    /** Test configuration. */
+    private static Media config;
+
+    /**
+     * Prepare test.
+     */
+    @BeforeClass
+    public static void setUp()
+    {
+        Graphics.setFactoryGraphic(new FactoryGraphicMock());
+        Medias.setResourcesDirectory(System.getProperty("java.io.tmpdir"));
+        config = UtilSetup.createConfig();
+    }
+
+    /**
+     * Clean up test.
+     */
+    @AfterClass
+    public static void cleanUp()
+    {
+        Assert.assertTrue(config.getFile().delete());
+        Graphics.setFactoryGraphic(null);
+        Medias.setResourcesDirectory(Constant.EMPTY_STRING);
+    }
+
+    /** Services reference. */
+    private final Services services = new Services();
+
+    /**
+     * Create test.
+     */
+    public BroadPhaseGridTest()
+    {
+        services.add(new Camera());
+    }
+
+    /**
+     * Test the candidates on a fixed grid.
+     */
+    @Test
+    public void testCandidates()
+    {
+        final Collidable collidable1 = UtilBroadPhase.createCollidable(config, services, 0.0, 0.0, 4);
+        final Collidable collidable2 = UtilBroadPhase.createCollidable(config, services, 2.0, 2.0, 4);
+        final Collidable collidable3 = UtilBroadPhase.createCollidable(config, services, 40.0, 40.0, 4);
+        final Collidable collidable4 = UtilBroadPhase.createCollidable(config, services, 14.0, 14.0, 4);
+        final Collection<Collidable> collidables = new ArrayList<Collidable>();
+        collidables.add(collidable1);
+        collidables.add(collidable2);
+        collidables.add(collidable3);
+        collidables.add(collidable4);
+
+        final BroadPhase broadPhase = new BroadPhaseGrid(16, 16, 4, 4);
+        List<Collidable[]> pairs = UtilBroadPhase.update(broadPhase, collidables);
+
+        Assert.assertEquals(1, pairs.size());
+        UtilBroadPhase.assertPair(pairs, collidable1, collidable2);
+
+        UtilBroadPhase.move(collidable3, -24.0, -24.0);
+        pairs = UtilBroadPhase.update(broadPhase, collidables);
+
+        Assert.assertEquals(2, pairs.size());
+        UtilBroadPhase.assertPair(pairs, collidable1, collidable2);
+        UtilBroadPhase.assertPair(pairs, collidable3, collidable4);
+
+        collidables.remove(collidable1);
+        pairs = UtilBroadPhase.update(broadPhase, collidables);
+
+        Assert.assertEquals(1, pairs.size());
+        UtilBroadPhase.assertPair(pairs, collidable3, collidable4);
+    }
+
+    /**
+     * Test the candidates with a grid following the map size.
+     */
+    @Test
+    public void testMap()
+    {
+        final MapTile map = new MapTileGame();
+        final Collidable collidable1 = UtilBroadPhase.createCollidable(config, services, -10.0, -10.0, 4);
+        final Collidable collidable2 = UtilBroadPhase.createCollidable(config, services, 200.0, 200.0, 4);
+        final Collection<Collidable> collidables = new ArrayList<Collidable>();
+        collidables.add(collidable1);
+        collidables.add(collidable2);
+
+        final BroadPhase broadPhase = new BroadPhaseGrid(map);
+        Assert.assertTrue(UtilBroadPhase.update(broadPhase, collidables).isEmpty());
+
+        map.create(16, 16, 4, 4);
+        Assert.assertTrue(UtilBroadPhase.update(broadPhase, collidables).isEmpty());
+
+        UtilBroadPhase.move(collidable1, 208.0, 208.0);
+        UtilBroadPhase.assertPair(UtilBroadPhase.update(broadPhase, collidables), collidable1, collidable2);
+    }
+
+    /**
+     * Test the grid with wrong size.
+     */
+    @Test(expected = LionEngineException.class)
+    public void testWrongSize()
+    {
+        Assert.assertNotNull(new BroadPhaseGrid(0, 16, 4, 4));
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright (C) 2013-2016 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.collision.object;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.junit.Assert;
+
+import com.b3dgs.lionengine.Media;
+import com.b3dgs.lionengine.game.feature.Featurable;
+import com.b3dgs.lionengine.game.feature.Services;
+import com.b3dgs.lionengine.game.feature.transformable.Transformable;
+
+/**
+ * Broad phase test utility.
+ */
+public class UtilBroadPhase
+{
+    /**
+     * Create a collidable with a collision box of the specified size.
+     * 
+     * @param config The configuration reference.
+     * @param services The services reference.
+     * @param x The horizontal location.
+     * @param y The vertical location.
+     * @param size The collision size.
+     * @return The collidable.
+     */
+    public static Collidable createCollidable(Media config, Services services, double x, double y, int size)
+    {
+        final Featurable featurable = CollidableModelTest.createFeaturable(config, services);
+        featurable.getFeature(Transformable.class).teleport(x, y);
+
+        final Collidable collidable = featurable.getFeature(Collidable.class);
+        collidable.addCollision(new Collision("test", 0, 0, size, size, false));
+        collidable.update(1.0);
+
+        return collidable;
+    }
+
+    /**
+     * Move a collidable and update it.
+     * 
+     * @param collidable The collidable to move.
+     * @param vx The horizontal move.
+     * @param vy The vertical move.
+     */
+    public static void move(Collidable collidable, double vx, double vy)
+    {
+        final Transformable transformable = collidable.getFeature(Transformable.class);
+        transformable.teleport(transformable.getX(), transformable.getY());
+        transformable.moveLocation(1.0, vx, vy);
+        collidable.update(1.0);
+    }
+
+    /**
+     * Update the broad phase and get the reported pairs.
+     * 
+     * @param broadPhase The broad phase to update.
+     * @param collidables The collidables to provide.
+     * @return The reported pairs.
+     */
+    public static List<Collidable[]> update(BroadPhase broadPhase, Collection<Collidable> collidables)
+    {
+        final List<Collidable[]> pairs = new ArrayList<Collidable[]>();
+        broadPhase.update(collidables, new BroadPhaseListener()
+        {
+            @Override
+            public void notifyCandidates(Collidable collidableA, Collidable collidableB)
+            {
+                pairs.add(new Collidable[]
+                {
+                    collidableA, collidableB
+                });
+            }
+        });
+        return pairs;
+    }
+
+    /**
+     * Check that the pair has been reported once.
+     * 
+     * @param pairs The reported pairs.
+     * @param collidableA The first collidable.
+     * @param collidableB The second collidable.
+     */
+    public static void assertPair(List<Collidable[]> pairs, Collidable collidableA, Collidable collidableB)
+    {
+        int count = 0;
+        for (final Collidable[] pair : pairs)
+        {
+            if (pair[0] == collidableA && pair[1] == collidableB || pair[0] == collidableB && pair[1] == collidableA)
+            {
+                count++;
+            }
+        }
+        Assert.assertEquals(1, count);
+    }
+}
@@ -0,0 +1,209 @@
+/*
+ * Copyright (C) 2013-2016 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.collision.object.it;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.b3dgs.lionengine.Constant;
+import com.b3dgs.lionengine.Media;
+import com.b3dgs.lionengine.Verbose;
+import com.b3dgs.lionengine.core.Graphics;
+import com.b3dgs.lionengine.core.Medias;
+import com.b3dgs.lionengine.game.camera.Camera;
+import com.b3dgs.lionengine.game.collision.object.BroadPhase;
+import com.b3dgs.lionengine.game.collision.object.BroadPhaseGrid;
+import com.b3dgs.lionengine.game.collision.object.BroadPhaseSweepAndPrune;
+import com.b3dgs.lionengine.game.collision.object.Collidable;
+import com.b3dgs.lionengine.game.collision.object.CollidableModelTest;
+import com.b3dgs.lionengine.game.collision.object.Collision;
+import com.b3dgs.lionengine.game.collision.object.ComponentCollision;
+import com.b3dgs.lionengine.game.feature.Featurable;
+import com.b3dgs.lionengine.game.feature.Services;
+import com.b3dgs.lionengine.game.feature.UtilSetup;
+import com.b3dgs.lionengine.game.feature.transformable.Transformable;
+import com.b3dgs.lionengine.game.handler.ComponentUpdater;
+import com.b3dgs.lionengine.game.handler.Handlables;
+import com.b3dgs.lionengine.game.handler.Handler;
+import com.b3dgs.lionengine.mock.FactoryGraphicMock;
+
+/**
+ * Benchmark the collision component frame cost with the different broad phases.
+ */
+public class ComponentCollisionIT
+{
+    /** World size. */
+    private static final int WORLD = 4096;
+    /** Grid cell size. */
+    private static final int CELL = 32;
+    /** Collision size. */
+    private static final int SIZE = 8;
+    /** Maximum speed. */
+    private static final double SPEED = 4.0;
+    /** Warm up frames. */
+    private static final int WARMUP = 20;
+    /** Measured frames. */
+    private static final int FRAMES = 50;
+    /** Maximum collidables for brute force checking. */
+    private static final int BRUTE_FORCE_MAX = 1000;
+    /** Nano to milli. */
+    private static final double NANO_TO_MILLI = 1000000.0;
+
+    /** Test configuration. */
+    private static Media config;
+
+    /**
+     * Prepare test.
+     */
+    @BeforeClass
+    public static void setUp()
+    {
+        Graphics.setFactoryGraphic(new FactoryGraphicMock());
+        Medias.setResourcesDirectory(System.getProperty("java.io.tmpdir"));
+        config = UtilSetup.createConfig();
+    }
+
+    /**
+     * Clean up test.
+     */
+    @AfterClass
+    public static void cleanUp()
+    {
+        Assert.assertTrue(config.getFile().delete());
+        Graphics.setFactoryGraphic(null);
+        Medias.setResourcesDirectory(Constant.EMPTY_STRING);
+    }
+
+    /**
+     * Measure the average frame cost in milliseconds.
+     * 
+     * @param count The number of collidables.
+     * @param component The collision component to measure.
+     * @return The average frame cost.
+     */
+    private static double measure(int count, ComponentUpdater component)
+    {
+        final Services services = new Services();
+        services.add(new Camera());
+        final Handler handler = new Handler(services);
+        final Random random = new Random(count);
+        final List<Transformable> transformables = new ArrayList<Transformable>(count);
+        final List<Collidable> collidables = new ArrayList<Collidable>(count);
+        for (int i = 0; i < count; i++)
+        {
+            final Featurable featurable = CollidableModelTest.createFeaturable(config, services);
+            final Transformable transformable = featurable.getFeature(Transformable.class);
+            transformable.teleport(random.nextInt(WORLD), random.nextInt(WORLD));
+            final Collidable collidable = featurable.getFeature(Collidable.class);
+            collidable.addCollision(new Collision("test", 0, 0, SIZE, SIZE, false));
+            transformables.add(transformable);
+            collidables.add(collidable);
+            handler.add(featurable);
+        }
+        handler.update(1.0);
+
+        long total = 0L;
+        for (int frame = 0; frame < WARMUP + FRAMES; frame++)
+        {
+            for (int i = 0; i < count; i++)
+            {
+                final double vx = (random.nextDouble() - 0.5) * SPEED;
+                final double vy = (random.nextDouble() - 0.5) * SPEED;
+                transformables.get(i).moveLocation(1.0, vx, vy);
+                collidables.get(i).update(1.0);
+            }
+            final long start = System.nanoTime();
+            component.update(1.0, handler);
+            if (frame >= WARMUP)
+            {
+                total += System.nanoTime() - start;
+            }
+        }
+        return total / (double) FRAMES / NANO_TO_MILLI;
+    }
+
+    /**
+     * Log the measure.
+     * 
+     * @param name The measure name.
+     * @param count The number of collidables.
+     * @param cost The frame cost.
+     */
+    private static void log(String name, int count, double cost)
+    {
+        Verbose.info(String.format(Locale.ENGLISH, "%-20s %6d collidables: %10.3f ms/frame", name, count, cost));
+    }
+
+    /**
+     * Benchmark frame cost at 100, 1000 and 10000 collidables.
+     */
+    @Test
+    public void testBenchmark()
+    {
+        for (final int count : new int[]
+        {
+            100, 1000, 10000
+        })
+        {
+            if (count <= BRUTE_FORCE_MAX)
+            {
+                log("Brute force", count, measure(count, new BruteForce()));
+            }
+            final BroadPhase grid = new BroadPhaseGrid(CELL, CELL, WORLD / CELL, WORLD / CELL);
+            log("Grid", count, measure(count, new ComponentCollision(grid)));
+            log("Sweep and prune", count, measure(count, new ComponentCollision(new BroadPhaseSweepAndPrune())));
+        }
+    }
+
+    /**
+     * Previous collision component, checking each collidable against all others.
+     */
+    private static final class BruteForce implements ComponentUpdater
+    {
+        /**
+         * Create component.
+         */
+        BruteForce()
+        {
+            super();
+        }
+
+        @Override
+        public void update(double extrp, Handlables objects)
+        {
+            final Iterable<Collidable> collidables = objects.get(Collidable.class);
+            for (final Collidable objectA : collidables)
+            {
+                for (final Collidable objectB : collidables)
+                {
+                    if (objectA != objectB && objectA.collide(objectB) != null)
+                    {
+                        objectB.notifyCollided(objectA);
+                    }
+                }
+            }
+        }
+    }
+}
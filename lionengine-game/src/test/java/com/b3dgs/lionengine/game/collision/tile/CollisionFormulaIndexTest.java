@@ -0,0 +1,104 @@
+/*
+ * Copyright (C) 2013-2016 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.collision.tile;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test the collision formula index class.
+ */
+public class CollisionFormulaIndexTest
+{
+    /**
+     * Create a formula.
+     * 
+     * @param name The formula name.
+     * @return The created formula.
+     */
+    private static CollisionFormula createFormula(String name)
+    {
+        return new CollisionFormula(name,
+                                    new CollisionRange(Axis.Y, 0, 1, 0, 1),
+                                    new CollisionFunctionLinear(0.0, 0.0),
+                                    new CollisionConstraint());
+    }
+
+    /**
+     * Test the formulas masks.
+     */
+    @Test
+    public void testMask()
+    {
+        final CollisionFormula formula1 = createFormula("a");
+        final CollisionFormula formula2 = createFormula("b");
+        final CollisionFormulaIndex index = new CollisionFormulaIndex();
+
+        Assert.assertEquals(0L, index.getMask(new ArrayList<CollisionFormula>()));
+        Assert.assertEquals(CollisionFormulaIndex.OVERFLOW, index.getMask(Arrays.asList(formula1)));
+
+        final int stamp = index.getStamp();
+        index.set(Arrays.asList(formula1, formula2));
+
+        Assert.assertNotEquals(stamp, index.getStamp());
+
+        final long mask1 = index.getMask(Arrays.asList(formula1));
+        final long mask2 = index.getMask(Arrays.asList(createFormula("b")));
+
+        Assert.assertEquals(1, Long.bitCount(mask1));
+        Assert.assertEquals(1, Long.bitCount(mask2));
+        Assert.assertEquals(0L, mask1 & mask2);
+        Assert.assertEquals(mask1 | mask2, index.getMask(Arrays.asList(formula1, formula2)));
+    }
+
+    /**
+     * Test the formulas masks when there are more formulas than bits.
+     */
+    @Test
+    public void testOverflow()
+    {
+        final Collection<CollisionFormula> formulas = new ArrayList<CollisionFormula>();
+        for (int i = 0; i < Long.SIZE; i++)
+        {
+            formulas.add(createFormula(String.valueOf(i)));
+        }
+        final CollisionFormulaIndex index = new CollisionFormulaIndex();
+        index.set(formulas);
+
+        final Collection<Long> masks = new HashSet<Long>();
+        int overflow = 0;
+        for (final CollisionFormula formula : formulas)
+        {
+            final long mask = index.getMask(Arrays.asList(formula));
+            if (mask == CollisionFormulaIndex.OVERFLOW)
+            {
+                overflow++;
+            }
+            masks.add(Long.valueOf(mask));
+        }
+
+        Assert.assertEquals(1, overflow);
+        Assert.assertEquals(Long.SIZE, masks.size());
+        Assert.assertEquals(-1L, index.getMask(formulas));
+    }
+}
@@ -43,4 +43,37 @@ public class CollisionResultTest
         Assert.assertEquals(y, result.getY());
         Assert.assertEquals(tile, result.getTile());
     }
+
+    /**
+     * Test the reusable collision result.
+     */
+    @Test
+    public void testReusable()
+    {
+        final Tile tile = new TileGame(Integer.valueOf(0), 1, 3.0, 4.0, 1, 1);
+        final CollisionResult result = new CollisionResult();
+
+        Assert.assertFalse(result.isHit());
+        Assert.assertFalse(result.hasX());
+        Assert.assertFalse(result.hasY());
+        Assert.assertNull(result.getX());
+        Assert.assertNull(result.getY());
+        Assert.assertNull(result.getTile());
+
+        result.setTile(tile);
+        result.setY(2.0);
+
+        Assert.assertTrue(result.isHit());
+        Assert.assertFalse(result.hasX());
+        Assert.assertTrue(result.hasY());
+        Assert.assertEquals(2.0, result.getValueY(), 0.0);
+        Assert.assertEquals(Double.valueOf(2.0), result.getY());
+        Assert.assertEquals(tile, result.getTile());
+
+        result.reset();
+
+        Assert.assertFalse(result.isHit());
+        Assert.assertFalse(result.hasY());
+        Assert.assertNull(result.getTile());
+    }
 }
@@ -30,6 +30,7 @@ import com.b3dgs.lionengine.Constant;
 import com.b3dgs.lionengine.LionEngineException;
 import com.b3dgs.lionengine.Media;
 import com.b3dgs.lionengine.core.Medias;
+import com.b3dgs.lionengine.game.Orientation;
 import com.b3dgs.lionengine.game.camera.Camera;
 import com.b3dgs.lionengine.game.feature.FeaturableModel;
 import com.b3dgs.lionengine.game.feature.Services;
@@ -200,6 +201,128 @@ public class MapTileCollisionModelTest
         Assert.assertNull(result);
     }
 
+    /**
+     * Test the map tile collision with a fast movement.
+     */
+    @Test
+    public void testFast()
+    {
+        transformable.teleport(0.0, 1000.0);
+        transformable.moveLocation(1.0, 0.0, -2000.0);
+        final CollisionResult result = mapCollision.computeCollision(transformable, categoryY);
+
+        Assert.assertEquals(map.getTile(0, 2), result.getTile());
+        Assert.assertEquals(Double.valueOf(3.0), result.getY());
+    }
+
+    /**
+     * Test the map tile collision with a fast diagonal movement entering by a tile corner.
+     */
+    @Test
+    public void testFastCorner()
+    {
+        transformable.teleport(-500.0, 503.0);
+        transformable.moveLocation(1.0, 1000.0, -1000.0);
+        final CollisionResult result = mapCollision.computeCollision(transformable, categoryY);
+
+        Assert.assertEquals(map.getTile(0, 2), result.getTile());
+        Assert.assertEquals(Double.valueOf(3.0), result.getY());
+    }
+
+    /**
+     * Test the map tile collision with a reused result.
+     */
+    @Test
+    public void testReusedResult()
+    {
+        final CollisionResult result = new CollisionResult();
+
+        transformable.teleport(0.0, 6.0);
+        transformable.moveLocation(1.0, 0.0, -5.0);
+        Assert.assertTrue(mapCollision.computeCollision(transformable, categoryY, result));
+        Assert.assertTrue(result.isHit());
+        Assert.assertFalse(result.hasX());
+        Assert.assertTrue(result.hasY());
+        Assert.assertEquals(3.0, result.getValueY(), 0.0);
+
+        transformable.teleport(6.0, 0.0);
+        transformable.moveLocation(1.0, -5.0, 0.0);
+        Assert.assertTrue(mapCollision.computeCollision(transformable, categoryX, result));
+        Assert.assertTrue(result.hasX());
+        Assert.assertFalse(result.hasY());
+        Assert.assertEquals(3.0, result.getValueX(), 0.0);
+
+        transformable.teleport(6.0, 6.0);
+        transformable.moveLocation(1.0, 1.0, 1.0);
+        Assert.assertFalse(mapCollision.computeCollision(transformable, categoryX, result));
+        Assert.assertFalse(result.isHit());
+        Assert.assertFalse(result.hasX());
+        Assert.assertNull(result.getTile());
+    }
+
+    /**
+     * Test the map tile collision with a category formula not loaded by the map.
+     */
+    @Test
+    public void testUnloadedFormula()
+    {
+        final CollisionFormula formula = new CollisionFormula("other",
+                                                              new CollisionRange(Axis.Y, 0, 1, 0, 1),
+                                                              new CollisionFunctionLinear(0.0, 0.0),
+                                                              new CollisionConstraint());
+        final CollisionGroup other = new CollisionGroup("other", Arrays.asList(formula));
+        final CollisionCategory category = new CollisionCategory("other", Axis.Y, 0, 0, Arrays.asList(other));
+
+        transformable.teleport(0.0, 6.0);
+        transformable.moveLocation(1.0, 0.0, -8.0);
+        Assert.assertNull(mapCollision.computeCollision(transformable, category));
+
+        map.getTile(0, 0).getFeature(TileCollision.class).addCollisionFormula(formula);
+        final CollisionResult result = mapCollision.computeCollision(transformable, category);
+
+        Assert.assertEquals(map.getTile(0, 0), result.getTile());
+        Assert.assertEquals(Double.valueOf(1.0), result.getY());
+    }
+
+    /**
+     * Test the map tile collisions update with constraints, on tile change.
+     */
+    @Test
+    public void testUpdateConstraints()
+    {
+        final CollisionConstraint constraint = new CollisionConstraint();
+        constraint.add(Orientation.NORTH, UtilMap.GROUND);
+        final CollisionFormula surface = new CollisionFormula("surface",
+                                                              new CollisionRange(Axis.Y, 0, 1, 0, 1),
+                                                              new CollisionFunctionLinear(0.0, 0.0),
+                                                              constraint);
+        final CollisionGroup ground = new CollisionGroup(UtilMap.GROUND, Arrays.asList(surface));
+        final Media formulas = UtilConfig.createFormulaConfig(surface);
+        final Media groups = UtilConfig.createGroupsConfig(ground);
+        mapCollision.loadCollisions(formulas, groups);
+
+        Assert.assertTrue(hasFormula(1, 2, surface));
+        Assert.assertFalse(hasFormula(1, 1, surface));
+        Assert.assertFalse(hasFormula(1, 0, surface));
+
+        map.setTile(map.createTile(UtilMap.SHEET, UtilMap.TILE_TREE, 1.0, 2.0));
+
+        Assert.assertFalse(hasFormula(1, 2, surface));
+        Assert.assertTrue(hasFormula(1, 1, surface));
+        Assert.assertFalse(hasFormula(1, 0, surface));
+        Assert.assertTrue(hasFormula(0, 2, surface));
+        Assert.assertFalse(hasFormula(0, 1, surface));
+
+        map.setTile(map.createTile(UtilMap.SHEET, UtilMap.TILE_GROUND, 1.0, 2.0));
+        mapCollision.updateCollisions(1, 2);
+
+        Assert.assertTrue(hasFormula(1, 2, surface));
+        Assert.assertFalse(hasFormula(1, 1, surface));
+
+        mapCollision.updateCollisions(-1, -1);
+        mapCollision.updateCollisions(3, 3);
+    }
+
     /**
      * Test the map tile collision getters.
      */
@@ -262,6 +385,19 @@ public class MapTileCollisionModelTest
         Assert.assertNull(mapCollision.getCollisionGroup("void"));
     }
 
+    /**
+     * Check if tile has the formula.
+     * 
+     * @param tx The horizontal tile location.
+     * @param ty The vertical tile location.
+     * @param formula The formula to check.
+     * @return <code>true</code> if tile has formula, <code>false</code> else.
+     */
+    private boolean hasFormula(int tx, int ty, CollisionFormula formula)
+    {
+        return map.getTile(tx, ty).getFeature(TileCollision.class).getCollisionFormulas().contains(formula);
+    }
+
     /**
      * Create object test.
      * 
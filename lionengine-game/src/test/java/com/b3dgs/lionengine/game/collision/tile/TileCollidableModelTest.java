@@ -218,7 +218,8 @@ public class TileCollidableModelTest
         transformable.moveLocation(1.0, -2.0, 0.0);
         collidable.update(1.0);
 
-        Assert.assertEquals(map.getTile(2, 1), collided.get());
+        // Starts inside (2, 1) formula, so leaving it, first entered is (1, 1)
+        Assert.assertEquals(map.getTile(1, 1), collided.get());
     }
 
     /**
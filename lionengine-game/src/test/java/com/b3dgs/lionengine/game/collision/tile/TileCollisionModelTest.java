@@ -123,4 +123,56 @@ public class TileCollisionModelTest
         Assert.assertNull(model.getCollisionX(categoryX, -1.0, 2.0, 1.0, 2.0));
         Assert.assertNull(model.getCollisionX(categoryX, 1.0, 2.0, 0.0, 2.0));
     }
+
+    /**
+     * Test the tile collision computed in a result.
+     */
+    @Test
+    public void testComputeCollision()
+    {
+        model.addCollisionFormula(formulaV);
+        model.addCollisionFormula(formulaH);
+        model.addCollisionFormula(formulaV);
+
+        Assert.assertEquals(2, model.getCollisionFormulas().size());
+
+        final CollisionResult result = new CollisionResult();
+        Assert.assertTrue(model.computeCollision(categoryY, 0.0, -1.0, 0.0, 1.0, result));
+        Assert.assertFalse(result.hasX());
+        Assert.assertEquals(-1.0, result.getValueY(), PRECISION);
+
+        result.reset();
+        Assert.assertTrue(model.computeCollision(categoryX, 1.0, 0.0, 0.0, 0.0, result));
+        Assert.assertFalse(result.hasY());
+        Assert.assertEquals(1.0, result.getValueX(), PRECISION);
+
+        result.reset();
+        Assert.assertFalse(model.computeCollision(categoryX, 1.0, 2.0, 0.0, 2.0, result));
+        Assert.assertFalse(result.hasX());
+    }
+
+    /**
+     * Test the tile collision mask.
+     */
+    @Test
+    public void testMask()
+    {
+        final CollisionFormulaIndex index = new CollisionFormulaIndex();
+        index.set(Arrays.asList(formulaV));
+
+        Assert.assertEquals(0L, model.getMask(index));
+
+        model.addCollisionFormula(formulaV);
+        final long maskV = model.getMask(index);
+        Assert.assertEquals(maskV | CollisionFormulaIndex.OVERFLOW, categoryY.getMask(index));
+
+        model.addCollisionFormula(formulaH);
+        Assert.assertEquals(maskV | CollisionFormulaIndex.OVERFLOW, model.getMask(index));
+
+        index.set(Arrays.asList(formulaV, formulaH));
+        Assert.assertEquals(categoryY.getMask(index), model.getMask(index));
+
+        model.removeCollisionFormulas();
+        Assert.assertEquals(0L, model.getMask(index));
+    }
 }
@@ -0,0 +1,391 @@
+/*
+ * Copyright (C) 2013-2016 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.collision.tile.it;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.b3dgs.lionengine.Constant;
+import com.b3dgs.lionengine.Media;
+import com.b3dgs.lionengine.Verbose;
+import com.b3dgs.lionengine.core.Medias;
+import com.b3dgs.lionengine.game.camera.Camera;
+import com.b3dgs.lionengine.game.collision.tile.Axis;
+import com.b3dgs.lionengine.game.collision.tile.CollisionCategory;
+import com.b3dgs.lionengine.game.collision.tile.CollisionCategoryConfig;
+import com.b3dgs.lionengine.game.collision.tile.CollisionConstraint;
+import com.b3dgs.lionengine.game.collision.tile.CollisionFormula;
+import com.b3dgs.lionengine.game.collision.tile.CollisionFunctionLinear;
+import com.b3dgs.lionengine.game.collision.tile.CollisionGroup;
+import com.b3dgs.lionengine.game.collision.tile.CollisionRange;
+import com.b3dgs.lionengine.game.collision.tile.CollisionResult;
+import com.b3dgs.lionengine.game.collision.tile.MapTileCollision;
+import com.b3dgs.lionengine.game.collision.tile.MapTileCollisionModel;
+import com.b3dgs.lionengine.game.collision.tile.TileCollidable;
+import com.b3dgs.lionengine.game.collision.tile.TileCollidableListener;
+import com.b3dgs.lionengine.game.collision.tile.TileCollidableModel;
+import com.b3dgs.lionengine.game.collision.tile.UtilConfig;
+import com.b3dgs.lionengine.game.feature.FeaturableModel;
+import com.b3dgs.lionengine.game.feature.Services;
+import com.b3dgs.lionengine.game.feature.Setup;
+import com.b3dgs.lionengine.game.feature.UtilSetup;
+import com.b3dgs.lionengine.game.feature.transformable.Transformable;
+import com.b3dgs.lionengine.game.feature.transformable.TransformableModel;
+import com.b3dgs.lionengine.game.map.MapTile;
+import com.b3dgs.lionengine.game.map.MapTileGame;
+import com.b3dgs.lionengine.game.map.UtilMap;
+import com.b3dgs.lionengine.game.map.feature.group.MapTileGroupModel;
+import com.b3dgs.lionengine.game.tile.Tile;
+
+/**
+ * Measure the allocation rate and frame time of many moving tile collidables, falling on a ground.
+ */
+public class TileCollidableIT
+{
+    /** Collidables number. */
+    private static final int COLLIDABLES = 1000;
+    /** Map size in tile. */
+    private static final int MAP_SIZE = 64;
+    /** Tile size. */
+    private static final int TILE_SIZE = 16;
+    /** Ground height in tile. */
+    private static final int GROUND = 4;
+    /** Fall speed. */
+    private static final double FALL = -3.0;
+    /** Fast horizontal speed (more than 12 tiles per frame). */
+    private static final double FAST = 200.0;
+    /** Warm up frames. */
+    private static final int WARMUP = 500;
+    /** Measured frames. */
+    private static final int FRAMES = 500;
+    /** Nano to milli. */
+    private static final double NANO_TO_MILLI = 1000000.0;
+    /** Setup configuration. */
+    private static Media config;
+
+    /**
+     * Prepare test.
+     */
+    @BeforeClass
+    public static void setUp()
+    {
+        Medias.setResourcesDirectory(System.getProperty("java.io.tmpdir"));
+        config = UtilSetup.createConfig();
+    }
+
+    /**
+     * Clean up test.
+     */
+    @AfterClass
+    public static void cleanUp()
+    {
+        Assert.assertTrue(config.getFile().delete());
+        Medias.setResourcesDirectory(Constant.EMPTY_STRING);
+    }
+
+    /**
+     * Get the allocated bytes by current thread.
+     * 
+     * @return The allocated bytes, <code>-1</code> if not supported.
+     */
+    private static long getAllocatedBytes()
+    {
+        final ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean)
+        {
+            final long id = Thread.currentThread().getId();
+            return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(id);
+        }
+        return -1L;
+    }
+
+    /** Formula test, ground surface on tile top. */
+    private final CollisionFormula formula = new CollisionFormula("ground",
+                                                                  new CollisionRange(Axis.Y,
+                                                                                     0,
+                                                                                     TILE_SIZE - 1,
+                                                                                     0,
+                                                                                     TILE_SIZE - 1),
+                                                                  new CollisionFunctionLinear(0.0, TILE_SIZE - 1),
+                                                                  new CollisionConstraint());
+    /** Group test. */
+    private final CollisionGroup group = new CollisionGroup(UtilMap.GROUND, Arrays.asList(formula));
+    /** Category test. */
+    private final CollisionCategory category = new CollisionCategory("ground", Axis.Y, 0, 0, Arrays.asList(group));
+    /** Services reference. */
+    private final Services services = new Services();
+    /** Collidables. */
+    private final List<TileCollidable> collidables = new ArrayList<TileCollidable>();
+    /** Collidables transformables. */
+    private final List<Transformable> transformables = new ArrayList<Transformable>();
+    /** Collidables horizontal speeds. */
+    private final double[] speeds = new double[COLLIDABLES];
+    /** Collided listener, counting hits. */
+    private final TileCollidableListener listener = new TileCollidableListener()
+    {
+        @Override
+        public void notifyTileCollided(Tile tile, Axis axis)
+        {
+            collided++;
+        }
+    };
+    /** Reused result. */
+    private final CollisionResult result = new CollisionResult();
+    /** Map collision. */
+    private MapTileCollision mapCollision;
+    /** Collided notifications number. */
+    private int collided;
+    /** Vertical speed. */
+    private double fall;
+
+    /**
+     * Create the map with a ground at bottom and the moving collidables.
+     * 
+     * @param speed The maximum horizontal speed.
+     * @param fall The vertical speed.
+     */
+    private void create(double speed, double fall)
+    {
+        this.fall = fall;
+        services.add(new Camera());
+        final MapTile map = services.create(MapTileGame.class);
+        map.addFeature(new MapTileGroupModel());
+        map.prepareFeatures(services);
+        map.create(TILE_SIZE, TILE_SIZE, MAP_SIZE, MAP_SIZE);
+        UtilMap.setGroups(map);
+        for (int tx = 0; tx < MAP_SIZE; tx++)
+        {
+            for (int ty = 0; ty < GROUND; ty++)
+            {
+                final Tile tile = map.createTile(UtilMap.SHEET,
+                                                 UtilMap.TILE_GROUND,
+                                                 tx * (double) TILE_SIZE,
+                                                 ty * (double) TILE_SIZE);
+                map.setTile(tile);
+            }
+        }
+        mapCollision = map.addFeatureAndGet(new MapTileCollisionModel());
+        mapCollision.prepare(map, services);
+
+        final Media formulasConfig = UtilConfig.createFormulaConfig(formula);
+        final Media groupsConfig = UtilConfig.createGroupsConfig(group);
+        mapCollision.loadCollisions(formulasConfig, groupsConfig);
+        Assert.assertTrue(formulasConfig.getFile().delete());
+        Assert.assertTrue(groupsConfig.getFile().delete());
+
+        final Setup setup = new Setup(config);
+        CollisionCategoryConfig.exports(setup.getRoot(), category);
+        final Random random = new Random(COLLIDABLES);
+        final int width = MAP_SIZE * TILE_SIZE;
+        for (int i = 0; i < COLLIDABLES; i++)
+        {
+            final FeaturableModel object = new FeaturableModel();
+            final Transformable transformable = object.addFeatureAndGet(new TransformableModel(setup));
+            transformable.setSize(1, 1);
+            transformable.teleport(random.nextInt(width), GROUND * TILE_SIZE + random.nextInt(width));
+            final TileCollidable collidable = object.addFeatureAndGet(new TileCollidableModel(setup));
+            object.prepareFeatures(services);
+            collidable.addListener(listener);
+
+            speeds[i] = (random.nextDouble() * 2.0 - 1.0) * speed;
+            transformables.add(transformable);
+            collidables.add(collidable);
+        }
+    }
+
+    /**
+     * Move all collidables.
+     */
+    private void move()
+    {
+        final double max = MAP_SIZE * TILE_SIZE - 1.0;
+        for (int i = 0; i < COLLIDABLES; i++)
+        {
+            final Transformable transformable = transformables.get(i);
+            if (transformable.getX() < 0.0 || transformable.getX() > max)
+            {
+                speeds[i] = -speeds[i];
+            }
+            transformable.moveLocation(1.0, speeds[i], fall);
+        }
+    }
+
+    /**
+     * Update all collidables, resolving their collisions.
+     * 
+     * @return The hits number.
+     */
+    private int update()
+    {
+        collided = 0;
+        for (int i = 0; i < COLLIDABLES; i++)
+        {
+            collidables.get(i).update(1.0);
+        }
+        return collided;
+    }
+
+    /**
+     * Compute collision of all collidables, with a new result for each.
+     * 
+     * @return The hits number.
+     */
+    private int computeAllocating()
+    {
+        int hits = 0;
+        for (int i = 0; i < COLLIDABLES; i++)
+        {
+            if (mapCollision.computeCollision(transformables.get(i), category) != null)
+            {
+                hits++;
+            }
+        }
+        return hits;
+    }
+
+    /**
+     * Compute collision of all collidables, with a reused result.
+     * 
+     * @return The hits number.
+     */
+    private int computeReused()
+    {
+        int hits = 0;
+        for (int i = 0; i < COLLIDABLES; i++)
+        {
+            if (mapCollision.computeCollision(transformables.get(i), category, result))
+            {
+                hits++;
+            }
+        }
+        return hits;
+    }
+
+    /**
+     * Run frames, each one moving all collidables, running the measured section, and resolving collisions.
+     * 
+     * @param name The measure name (<code>null</code> to not log).
+     * @param mode The section to measure (0: update, 1: allocating result, 2: reused result).
+     * @param frames The frames number.
+     */
+    private void run(String name, int mode, int frames)
+    {
+        final long probe = getAllocatedBytes();
+        final long overhead = getAllocatedBytes() - probe;
+        long bytes = 0L;
+        long time = 0L;
+        long hits = 0L;
+        for (int i = 0; i < frames; i++)
+        {
+            move();
+            final long startBytes = getAllocatedBytes();
+            final long start = System.nanoTime();
+            hits += compute(mode);
+            time += System.nanoTime() - start;
+            bytes += getAllocatedBytes() - startBytes - overhead;
+            if (mode > 0)
+            {
+                update();
+            }
+        }
+        if (name != null)
+        {
+            log(name, bytes, time, hits);
+        }
+    }
+
+    /**
+     * Run the measured section.
+     * 
+     * @param mode The section to measure (0: update, 1: allocating result, 2: reused result).
+     * @return The hits number.
+     */
+    private int compute(int mode)
+    {
+        final int hits;
+        if (mode == 0)
+        {
+            hits = update();
+        }
+        else if (mode == 1)
+        {
+            hits = computeAllocating();
+        }
+        else
+        {
+            hits = computeReused();
+        }
+        return hits;
+    }
+
+    /**
+     * Log the measure.
+     * 
+     * @param name The measure name.
+     * @param bytes The allocated bytes.
+     * @param time The elapsed nano time.
+     * @param hits The total hits number.
+     */
+    private void log(String name, long bytes, long time, long hits)
+    {
+        Verbose.info(String.format(Locale.ENGLISH,
+                                   "%s %d collidables: %.1f bytes/frame, %.3f ms/frame, %.1f hits/frame",
+                                   name,
+                                   Integer.valueOf(COLLIDABLES),
+                                   Double.valueOf(bytes / (double) FRAMES),
+                                   Double.valueOf(time / NANO_TO_MILLI / FRAMES),
+                                   Double.valueOf(hits / (double) FRAMES)));
+    }
+
+    /**
+     * Measure the collidables update, then the map computation with a new or a reused result, on the same moves.
+     */
+    @Test
+    public void testAllocation()
+    {
+        create(1.0, FALL);
+        for (int mode = 0; mode < 3; mode++)
+        {
+            run(null, mode, WARMUP);
+        }
+        run("TileCollidable.update", 0, FRAMES);
+        run("Allocating result", 1, FRAMES);
+        run("Reused result", 2, FRAMES);
+    }
+
+    /**
+     * Measure the collidables update with fast movers in the air, crossing many tiles without hit.
+     */
+    @Test
+    public void testFast()
+    {
+        create(FAST, 0.0);
+        run(null, 0, WARMUP);
+        run("Fast TileCollidable.update", 0, FRAMES);
+    }
+}
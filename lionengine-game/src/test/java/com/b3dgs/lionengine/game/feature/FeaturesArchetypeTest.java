@@ -0,0 +1,214 @@
+/*
+ * Copyright (C) 2013-2016 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature;
+
+import java.util.ArrayList;
+import java.util.Collection;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.game.feature.identifiable.Identifiable;
+import com.b3dgs.lionengine.game.feature.identifiable.IdentifiableModel;
+import com.b3dgs.lionengine.game.feature.mirrorable.Mirrorable;
+import com.b3dgs.lionengine.game.feature.mirrorable.MirrorableModel;
+import com.b3dgs.lionengine.game.feature.refreshable.Refreshable;
+import com.b3dgs.lionengine.game.feature.transformable.Transformable;
+import com.b3dgs.lionengine.game.feature.transformable.TransformableModel;
+
+/**
+ * Test the archetype features storage.
+ */
+public class FeaturesArchetypeTest
+{
+    private final Archetypes archetypes = new Archetypes();
+
+    /**
+     * Test the features access.
+     */
+    @Test
+    public void testFeatures()
+    {
+        final FeaturesArchetype features = new FeaturesArchetype(archetypes);
+
+        Assert.assertFalse(features.contains(Feature.class));
+
+        final Mirrorable mirrorable = new MirrorableModel();
+        final FeatureLevel2 level2 = new FeatureLevel2();
+        features.add(mirrorable);
+        features.add(level2);
+
+        Assert.assertTrue(features.contains(Feature.class));
+        Assert.assertTrue(features.contains(Mirrorable.class));
+        Assert.assertTrue(features.contains(FeatureLevel1.class));
+        Assert.assertTrue(features.contains(Refreshable.class));
+        Assert.assertFalse(features.contains(Transformable.class));
+        Assert.assertSame(mirrorable, features.get(Mirrorable.class));
+        Assert.assertSame(mirrorable, features.get(MirrorableModel.class));
+        Assert.assertSame(level2, features.get(FeatureLevel1.class));
+        Assert.assertSame(level2, features.get(Refreshable.class));
+        Assert.assertSame(mirrorable, features.get(archetypes.getId(Mirrorable.class)));
+
+        final Collection<Feature> all = new ArrayList<Feature>();
+        for (final Feature feature : features.getFeatures())
+        {
+            all.add(feature);
+        }
+        Assert.assertEquals(2, all.size());
+        Assert.assertTrue(all.contains(mirrorable));
+        Assert.assertTrue(all.contains(level2));
+
+        final Collection<Class<? extends Feature>> types = new ArrayList<Class<? extends Feature>>();
+        for (final Class<? extends Feature> type : features.getFeaturesType())
+        {
+            types.add(type);
+        }
+        Assert.assertTrue(types.contains(Mirrorable.class));
+        Assert.assertTrue(types.contains(MirrorableModel.class));
+        Assert.assertTrue(types.contains(FeatureLevel2.class));
+    }
+
+    /**
+     * Test the feature not found.
+     */
+    @Test(expected = LionEngineException.class)
+    public void testFeatureNotFound()
+    {
+        final FeaturesArchetype features = new FeaturesArchetype(archetypes);
+        Assert.assertNotNull(features.get(Mirrorable.class));
+    }
+
+    /**
+     * Test the same features set share the same archetype, whatever the adding order.
+     */
+    @Test
+    public void testShared()
+    {
+        final FeaturesArchetype first = new FeaturesArchetype(archetypes);
+        first.add(new MirrorableModel());
+        first.add(new TransformableModel());
+
+        final FeaturesArchetype second = new FeaturesArchetype(archetypes);
+        second.add(new TransformableModel());
+        second.add(new MirrorableModel());
+
+        final FeaturesArchetype other = new FeaturesArchetype(archetypes);
+        other.add(new MirrorableModel());
+
+        Assert.assertSame(first.getArchetype(), second.getArchetype());
+        Assert.assertNotSame(first.getArchetype(), other.getArchetype());
+        Assert.assertEquals(2, first.getArchetype().getSize());
+        Assert.assertEquals(1, other.getArchetype().getSize());
+
+        final Feature[] column = first.getArchetype().getColumn(archetypes.getId(Transformable.class));
+        Assert.assertSame(first.get(Transformable.class), column[0]);
+        Assert.assertSame(second.get(Transformable.class), column[1]);
+        Assert.assertNull(other.getArchetype().getColumn(archetypes.getId(Transformable.class)));
+    }
+
+    /**
+     * Test replacing a feature of the same class.
+     */
+    @Test
+    public void testReplace()
+    {
+        final FeaturesArchetype features = new FeaturesArchetype(archetypes);
+        features.add(new MirrorableModel());
+        final Archetype archetype = features.getArchetype();
+        final Mirrorable mirrorable = new MirrorableModel();
+        features.add(mirrorable);
+
+        Assert.assertSame(archetype, features.getArchetype());
+        Assert.assertSame(mirrorable, features.get(Mirrorable.class));
+    }
+
+    /**
+     * Test release keeps rows dense and features accessible.
+     */
+    @Test
+    public void testRelease()
+    {
+        final FeaturesArchetype first = new FeaturesArchetype(archetypes);
+        final Mirrorable mirrorable = new MirrorableModel();
+        first.add(mirrorable);
+        final FeaturesArchetype second = new FeaturesArchetype(archetypes);
+        second.add(new MirrorableModel());
+        final Archetype archetype = first.getArchetype();
+
+        first.release();
+        first.release();
+
+        Assert.assertEquals(1, archetype.getSize());
+        Assert.assertSame(second.get(Mirrorable.class), archetype.getColumn(archetypes.getId(Mirrorable.class))[0]);
+        Assert.assertSame(mirrorable, first.get(Mirrorable.class));
+        Assert.assertSame(second.get(Mirrorable.class), second.get(MirrorableModel.class));
+
+        try
+        {
+            first.add(new TransformableModel());
+            Assert.fail();
+        }
+        catch (final LionEngineException exception)
+        {
+            // Success
+        }
+    }
+
+    /**
+     * Test the featurable released on destroy.
+     */
+    @Test
+    public void testFeaturable()
+    {
+        final FeaturableArchetype featurable = new FeaturableArchetype(archetypes);
+        featurable.addFeature(new IdentifiableModel());
+        final Mirrorable mirrorable = featurable.addFeatureAndGet(new MirrorableModel());
+        featurable.prepareFeatures(new Services());
+
+        final Archetype archetype = featurable.getArchetypeFeatures().getArchetype();
+        Assert.assertEquals(1, archetype.getSize());
+        Assert.assertSame(mirrorable, featurable.getFeature(Mirrorable.class));
+
+        featurable.getFeature(Identifiable.class).destroy();
+
+        Assert.assertEquals(0, archetype.getSize());
+        Assert.assertSame(mirrorable, featurable.getFeature(Mirrorable.class));
+        featurable.getFeature(Identifiable.class).notifyDestroyed();
+    }
+
+    /**
+     * Mock feature.
+     */
+    private static class FeatureLevel1 extends FeatureModel implements Refreshable
+    {
+        @Override
+        public void update(double extrp)
+        {
+            // Mock
+        }
+    }
+
+    /**
+     * Mock feature.
+     */
+    private static class FeatureLevel2 extends FeatureLevel1
+    {
+        // Mock
+    }
+}
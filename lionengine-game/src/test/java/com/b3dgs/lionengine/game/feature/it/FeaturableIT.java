@@ -0,0 +1,166 @@
+/*
+ * Copyright (C) 2013-2016 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature.it;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.b3dgs.lionengine.Verbose;
+import com.b3dgs.lionengine.game.feature.Archetype;
+import com.b3dgs.lionengine.game.feature.Archetypes;
+import com.b3dgs.lionengine.game.feature.Featurable;
+import com.b3dgs.lionengine.game.feature.FeaturableArchetype;
+import com.b3dgs.lionengine.game.feature.FeaturableModel;
+import com.b3dgs.lionengine.game.feature.Feature;
+import com.b3dgs.lionengine.game.feature.body.BodyModel;
+import com.b3dgs.lionengine.game.feature.identifiable.IdentifiableModel;
+import com.b3dgs.lionengine.game.feature.mirrorable.MirrorableModel;
+import com.b3dgs.lionengine.game.feature.transformable.Transformable;
+import com.b3dgs.lionengine.game.feature.transformable.TransformableModel;
+
+/**
+ * Compare feature access of the default features storage and the archetype storage.
+ */
+public class FeaturableIT
+{
+    /** Featurables number. */
+    private static final int COUNT = 10000;
+    /** Warm up passes. */
+    private static final int WARMUP = 20;
+    /** Measured passes. */
+    private static final int PASSES = 50;
+    /** Nano to milli. */
+    private static final double NANO_TO_MILLI = 1000000.0;
+
+    /**
+     * Add the features.
+     * 
+     * @param featurable The featurable reference.
+     * @return The featurable.
+     */
+    private static Featurable fill(Featurable featurable)
+    {
+        featurable.addFeature(new IdentifiableModel());
+        featurable.addFeature(new TransformableModel());
+        featurable.addFeature(new MirrorableModel());
+        featurable.addFeature(new BodyModel());
+        return featurable;
+    }
+
+    /**
+     * Access transformable of each featurable.
+     * 
+     * @param featurables The featurables.
+     * @return The moved sum.
+     */
+    private static double access(List<Featurable> featurables)
+    {
+        double sum = 0.0;
+        for (final Featurable featurable : featurables)
+        {
+            final Transformable transformable = featurable.getFeature(Transformable.class);
+            transformable.moveLocation(1.0, 1.0, 0.0);
+            sum += transformable.getX();
+        }
+        return sum;
+    }
+
+    /**
+     * Iterate transformable column of each archetype.
+     * 
+     * @param archetypes The archetypes.
+     * @param id The transformable identifier.
+     * @return The moved sum.
+     */
+    private static double iterate(Archetypes archetypes, int id)
+    {
+        double sum = 0.0;
+        for (final Archetype archetype : archetypes.getArchetypes())
+        {
+            final Feature[] column = archetype.getColumn(id);
+            for (int row = 0; column != null && row < archetype.getSize(); row++)
+            {
+                final Transformable transformable = (Transformable) column[row];
+                transformable.moveLocation(1.0, 1.0, 0.0);
+                sum += transformable.getX();
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Log pass duration.
+     * 
+     * @param name The measure name.
+     * @param total The total duration in nano.
+     */
+    private static void log(String name, long total)
+    {
+        Verbose.info(String.format(Locale.ENGLISH,
+                                   "%s %d featurables: %.3f ms/pass",
+                                   name,
+                                   Integer.valueOf(COUNT),
+                                   Double.valueOf(total / NANO_TO_MILLI / PASSES)));
+    }
+
+    /**
+     * Measure feature access.
+     */
+    @Test
+    public void testAccess()
+    {
+        final Archetypes archetypes = new Archetypes();
+        final List<Featurable> models = new ArrayList<Featurable>();
+        final List<Featurable> stored = new ArrayList<Featurable>();
+        for (int i = 0; i < COUNT; i++)
+        {
+            models.add(fill(new FeaturableModel()));
+            stored.add(fill(new FeaturableArchetype(archetypes)));
+        }
+        final int id = archetypes.getId(Transformable.class);
+
+        long model = 0L;
+        long archetype = 0L;
+        long column = 0L;
+        double sum = 0.0;
+        for (int i = 0; i < WARMUP + PASSES; i++)
+        {
+            final long start = System.nanoTime();
+            sum += access(models);
+            final long middle = System.nanoTime();
+            sum += access(stored);
+            final long end = System.nanoTime();
+            sum += iterate(archetypes, id);
+            if (i >= WARMUP)
+            {
+                model += middle - start;
+                archetype += end - middle;
+                column += System.nanoTime() - end;
+            }
+        }
+        Assert.assertTrue(sum > 0.0);
+
+        log("getFeature default", model);
+        log("getFeature archetype", archetype);
+        log("column archetype", column);
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright (C) 2013-2016 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.handler;
+
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test the handlables identity set.
+ */
+public class HandlablesSetTest
+{
+    /**
+     * Get the set values.
+     * 
+     * @param set The set reference.
+     * @return The values in iteration order.
+     */
+    private static List<Object> values(HandlablesSet set)
+    {
+        final List<Object> values = new ArrayList<Object>();
+        for (final Object value : set)
+        {
+            values.add(value);
+        }
+        return values;
+    }
+
+    private final HandlablesSet set = new HandlablesSet();
+
+    /**
+     * Test add and remove keeping insertion order.
+     */
+    @Test
+    public void testAddRemove()
+    {
+        final List<Object> expected = new ArrayList<Object>();
+        for (int i = 0; i < 100; i++)
+        {
+            final Object value = new Object();
+            Assert.assertTrue(set.add(value));
+            Assert.assertFalse(set.add(value));
+            expected.add(value);
+        }
+        Assert.assertEquals(100, set.size());
+        Assert.assertEquals(expected, values(set));
+
+        for (int i = 0; i < expected.size(); i += 3)
+        {
+            Assert.assertTrue(set.remove(expected.get(i)));
+            Assert.assertFalse(set.remove(expected.get(i)));
+            Assert.assertFalse(set.contains(expected.get(i)));
+        }
+        final List<Object> remaining = new ArrayList<Object>();
+        for (int i = 0; i < expected.size(); i++)
+        {
+            if (i % 3 != 0)
+            {
+                remaining.add(expected.get(i));
+                Assert.assertTrue(set.contains(expected.get(i)));
+            }
+        }
+        Assert.assertEquals(remaining.size(), set.size());
+        Assert.assertEquals(remaining, values(set));
+    }
+
+    /**
+     * Test identity, not equality.
+     */
+    @Test
+    public void testIdentity()
+    {
+        final String first = new String("a");
+        final String second = new String("a");
+
+        Assert.assertTrue(set.add(first));
+        Assert.assertTrue(set.add(second));
+        Assert.assertEquals(2, set.size());
+    }
+
+    /**
+     * Test remove all then add.
+     */
+    @Test
+    public void testClearedReuse()
+    {
+        final Object value = new Object();
+        set.add(value);
+        set.remove(value);
+
+        Assert.assertEquals(0, set.size());
+        Assert.assertFalse(set.iterator().hasNext());
+
+        set.add(value);
+
+        Assert.assertEquals(1, set.size());
+        Assert.assertSame(value, set.iterator().next());
+    }
+
+    /**
+     * Test iterator end.
+     */
+    @Test(expected = NoSuchElementException.class)
+    public void testIteratorEnd()
+    {
+        Assert.assertNull(set.iterator().next());
+    }
+
+    /**
+     * Test iterator reused once fully iterated, and distinct when nested.
+     */
+    @Test
+    public void testIteratorReuse()
+    {
+        final Object first = new Object();
+        final Object second = new Object();
+        set.add(first);
+        set.add(second);
+
+        final Iterator<Object> iterator = set.iterator();
+        Assert.assertSame(first, iterator.next());
+
+        final Iterator<Object> nested = set.iterator();
+        Assert.assertNotSame(iterator, nested);
+        Assert.assertSame(first, nested.next());
+
+        Assert.assertSame(second, iterator.next());
+        Assert.assertFalse(iterator.hasNext());
+
+        final Iterator<Object> reused = set.iterator();
+        Assert.assertSame(iterator, reused);
+        Assert.assertSame(first, reused.next());
+        Assert.assertSame(second, reused.next());
+        Assert.assertFalse(reused.hasNext());
+    }
+
+    /**
+     * Test iterator fail fast on modification.
+     */
+    @Test(expected = ConcurrentModificationException.class)
+    public void testIteratorModified()
+    {
+        set.add(new Object());
+        set.add(new Object());
+        for (final Object value : set)
+        {
+            set.remove(value);
+        }
+    }
+
+    /**
+     * Test iterator remove unsupported.
+     */
+    @Test(expected = UnsupportedOperationException.class)
+    public void testIteratorRemove()
+    {
+        set.add(new Object());
+        final Iterator<Object> iterator = set.iterator();
+        iterator.next();
+        iterator.remove();
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright (C) 2013-2016 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.handler.it;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.b3dgs.lionengine.Updatable;
+import com.b3dgs.lionengine.Verbose;
+import com.b3dgs.lionengine.game.feature.Featurable;
+import com.b3dgs.lionengine.game.feature.FeaturableModel;
+import com.b3dgs.lionengine.game.feature.Services;
+import com.b3dgs.lionengine.game.feature.body.BodyModel;
+import com.b3dgs.lionengine.game.feature.identifiable.IdentifiableModel;
+import com.b3dgs.lionengine.game.feature.mirrorable.MirrorableModel;
+import com.b3dgs.lionengine.game.feature.transformable.Transformable;
+import com.b3dgs.lionengine.game.feature.transformable.TransformableModel;
+import com.b3dgs.lionengine.game.handler.Handler;
+
+/**
+ * Measure the handler spawn and despawn throughput, by bursts of short living featurables.
+ */
+public class HandlerIT
+{
+    /** Featurables spawned per burst. */
+    private static final int BURST = 1000;
+    /** Spawn and despawn cycles per pass. */
+    private static final int CYCLES = 10000;
+    /** Warm up passes. */
+    private static final int WARMUP = 5;
+    /** Measured passes. */
+    private static final int PASSES = 10;
+    /** Nano to second. */
+    private static final double NANO_TO_SECOND = 1000000000.0;
+
+    /**
+     * Spawn and despawn cycles.
+     * 
+     * @param handler The handler reference.
+     * @return The number of transformable seen.
+     */
+    private static int cycle(Handler handler)
+    {
+        final List<Featurable> spawned = new ArrayList<Featurable>(BURST);
+        int seen = 0;
+        for (int i = 0; i < CYCLES / BURST; i++)
+        {
+            for (int j = 0; j < BURST; j++)
+            {
+                final Featurable bullet = new Bullet();
+                handler.add(bullet);
+                spawned.add(bullet);
+            }
+            handler.update(1.0);
+            for (final Transformable transformable : handler.get(Transformable.class))
+            {
+                if (transformable != null)
+                {
+                    seen++;
+                }
+            }
+            for (final Featurable bullet : spawned)
+            {
+                handler.remove(bullet);
+            }
+            spawned.clear();
+            handler.update(1.0);
+        }
+        return seen;
+    }
+
+    /**
+     * Measure spawn and despawn cycles per second.
+     */
+    @Test
+    public void testSpawnDespawn()
+    {
+        final Handler handler = new Handler(new Services());
+        long total = 0L;
+        for (int i = 0; i < WARMUP + PASSES; i++)
+        {
+            final long start = System.nanoTime();
+            Assert.assertEquals(CYCLES, cycle(handler));
+            if (i >= WARMUP)
+            {
+                total += System.nanoTime() - start;
+            }
+        }
+        Assert.assertEquals(0, handler.size());
+
+        final double seconds = total / NANO_TO_SECOND / PASSES;
+        Verbose.info(String.format(Locale.ENGLISH,
+                                   "%d spawn/despawn cycles by burst of %d: %.2f ms (%.0f cycles/s)",
+                                   Integer.valueOf(CYCLES),
+                                   Integer.valueOf(BURST),
+                                   Double.valueOf(seconds * 1000.0),
+                                   Double.valueOf(CYCLES / seconds)));
+    }
+
+    /**
+     * Short living featurable.
+     */
+    private static final class Bullet extends FeaturableModel implements Updatable
+    {
+        /**
+         * Create bullet.
+         */
+        Bullet()
+        {
+            super();
+            addFeature(new IdentifiableModel());
+            addFeature(new TransformableModel());
+            addFeature(new MirrorableModel());
+            addFeature(new BodyModel());
+        }
+
+        @Override
+        public void update(double extrp)
+        {
+            // Nothing to do
+        }
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright (C) 2013-2016 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.map;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.geom.Rectangle;
+
+/**
+ * Test the map tile dirty regions.
+ */
+public class MapTileDirtyTest
+{
+    private final MapTileGame map = new MapTileGame();
+    private MapTileDirty dirty;
+
+    /**
+     * Get regions as text for comparison.
+     * 
+     * @param regions The regions.
+     * @return The regions as text.
+     */
+    private static List<String> toString(Collection<Rectangle> regions)
+    {
+        final List<String> texts = new ArrayList<String>();
+        for (final Rectangle region : regions)
+        {
+            texts.add((int) region.getX()
+                      + " "
+                      + (int) region.getY()
+                      + " "
+                      + region.getWidth()
+                      + " "
+                      + region.getHeight());
+        }
+        return texts;
+    }
+
+    /**
+     * Prepare test.
+     */
+    @Before
+    public void prepare()
+    {
+        map.create(16, 16, 10, 10);
+        dirty = new MapTileDirty(map, 4);
+        map.addListener(dirty);
+    }
+
+    /**
+     * Test creation with wrong block size.
+     */
+    @Test(expected = LionEngineException.class)
+    public void testWrongBlockSize()
+    {
+        Assert.assertNotNull(new MapTileDirty(map, 0));
+    }
+
+    /**
+     * Test no change.
+     */
+    @Test
+    public void testEmpty()
+    {
+        Assert.assertTrue(dirty.isEmpty());
+        Assert.assertTrue(dirty.getRegions().isEmpty());
+    }
+
+    /**
+     * Test single tile change.
+     */
+    @Test
+    public void testSingle()
+    {
+        map.setTile(map.createTile(Integer.valueOf(0), 0, 80.0, 16.0));
+
+        Assert.assertFalse(dirty.isEmpty());
+        Assert.assertEquals(Arrays.asList("4 0 4 4"), toString(dirty.getRegions()));
+
+        dirty.clear();
+
+        Assert.assertTrue(dirty.isEmpty());
+    }
+
+    /**
+     * Test adjacent changes coalesced.
+     */
+    @Test
+    public void testCoalesced()
+    {
+        dirty.notifyTilesChanged(0, 0, 1, 1);
+        dirty.notifyTilesChanged(5, 0, 1, 1);
+        dirty.notifyTilesChanged(1, 5, 6, 1);
+        dirty.notifyTilesChanged(9, 9, 1, 1);
+
+        Assert.assertEquals(Arrays.asList("0 0 8 8", "8 8 2 2"), toString(dirty.getRegions()));
+    }
+
+    /**
+     * Test whole map change limited to map size.
+     */
+    @Test
+    public void testWhole()
+    {
+        map.clear();
+
+        Assert.assertEquals(Arrays.asList("0 0 10 10"), toString(dirty.getRegions()));
+    }
+
+    /**
+     * Test change outside map is ignored.
+     */
+    @Test
+    public void testOutside()
+    {
+        dirty.notifyTilesChanged(20, 20, 2, 2);
+
+        Assert.assertTrue(dirty.isEmpty());
+    }
+}
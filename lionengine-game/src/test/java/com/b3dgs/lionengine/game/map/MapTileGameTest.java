@@ -18,6 +18,8 @@
 package com.b3dgs.lionengine.game.map;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 import org.junit.Assert;
 import org.junit.Rule;
@@ -26,6 +28,9 @@ import org.junit.rules.TemporaryFolder;
 
 import com.b3dgs.lionengine.LionEngineException;
 import com.b3dgs.lionengine.drawable.SpriteTiled;
+import com.b3dgs.lionengine.game.feature.Services;
+import com.b3dgs.lionengine.game.pathfinding.TilePath;
+import com.b3dgs.lionengine.game.pathfinding.TilePathModel;
 import com.b3dgs.lionengine.game.tile.Tile;
 import com.b3dgs.lionengine.test.UtilTests;
 
@@ -135,4 +140,156 @@ public class MapTileGameTest
         Assert.assertNotNull(map.getTile(0, 0));
         Assert.assertNotNull(map.getTileAt(3.0, 6.0));
     }
+
+    /**
+     * Test compact map set and get tile.
+     */
+    @Test
+    public void testCompactSetGetTile()
+    {
+        final MapTileGame compact = new MapTileGame(true);
+        compact.create(16, 32, 3, 3);
+
+        Assert.assertTrue(compact.isCreated());
+        Assert.assertEquals(0, compact.getTilesNumber());
+        Assert.assertNull(compact.getTile(1, 2));
+
+        compact.setTile(compact.createTile(Integer.valueOf(1), 4, 16.0, 64.0));
+
+        final Tile tile = compact.getTile(1, 2);
+        Assert.assertEquals(1, compact.getTilesNumber());
+        Assert.assertEquals(1, tile.getSheet().intValue());
+        Assert.assertEquals(4, tile.getNumber());
+        Assert.assertEquals(16.0, tile.getX(), UtilTests.PRECISION);
+        Assert.assertEquals(64.0, tile.getY(), UtilTests.PRECISION);
+        Assert.assertEquals(1, tile.getInTileX());
+        Assert.assertEquals(2, tile.getInTileY());
+        Assert.assertEquals(16, tile.getWidth());
+        Assert.assertEquals(32, tile.getHeight());
+        Assert.assertEquals(tile, compact.getTile(1, 2));
+        Assert.assertEquals(tile.hashCode(), compact.getTile(1, 2).hashCode());
+        Assert.assertEquals(tile, compact.getTileAt(20.0, 70.0));
+
+        compact.clear();
+        Assert.assertEquals(0, compact.getTilesNumber());
+        Assert.assertNull(compact.getTile(1, 2));
+    }
+
+    /**
+     * Test compact map features are shared by tile views.
+     */
+    @Test
+    public void testCompactFeatures()
+    {
+        final MapTileGame compact = new MapTileGame(true);
+        compact.create(16, 16, 2, 2);
+        compact.setTile(compact.createTile(Integer.valueOf(0), 0, 0.0, 0.0));
+        compact.setTile(compact.createTile(Integer.valueOf(0), 1, 16.0, 0.0));
+
+        final Tile tile = compact.getTile(0, 0);
+        Assert.assertFalse(tile.hasFeature(TilePath.class));
+
+        final TilePath path = tile.addFeatureAndGet(new TilePathModel("ground"));
+        Assert.assertFalse(compact.getTile(0, 0).isPrepared());
+        compact.getTile(0, 0).prepareFeatures(new Services());
+        Assert.assertTrue(tile.isPrepared());
+
+        Assert.assertTrue(compact.getTile(0, 0).hasFeature(TilePath.class));
+        Assert.assertEquals(path, compact.getTile(0, 0).getFeature(TilePath.class));
+        Assert.assertEquals(path, compact.getTile(0, 0).getFeature(TilePathModel.class));
+        Assert.assertEquals(path, compact.getTile(0, 0).getFeatures().iterator().next());
+        Assert.assertFalse(compact.getTile(1, 0).hasFeature(TilePath.class));
+
+        compact.setTile(compact.createTile(Integer.valueOf(0), 2, 0.0, 0.0));
+        Assert.assertFalse(compact.getTile(0, 0).hasFeature(TilePath.class));
+    }
+
+    /**
+     * Test compact map feature not found.
+     */
+    @Test(expected = LionEngineException.class)
+    public void testCompactFeatureNotFound()
+    {
+        final MapTileGame compact = new MapTileGame(true);
+        compact.create(16, 16, 1, 1);
+        compact.setTile(compact.createTile(Integer.valueOf(0), 0, 0.0, 0.0));
+
+        Assert.assertNull(compact.getTile(0, 0).getFeature(TilePath.class));
+    }
+
+    /**
+     * Test compact map append keeps tiles and features.
+     */
+    @Test
+    public void testCompactAppend()
+    {
+        final MapTileGame compact = new MapTileGame(true);
+        compact.create(16, 16, 2, 2);
+        compact.setTile(compact.createTile(Integer.valueOf(0), 3, 16.0, 16.0));
+        compact.getTile(1, 1).addFeature(new TilePathModel("ground"));
+
+        final MapTileGame other = new MapTileGame();
+        other.create(16, 16, 2, 2);
+        other.setTile(other.createTile(Integer.valueOf(0), 5, 0.0, 0.0));
+
+        compact.append(other, 2, 2);
+
+        Assert.assertEquals(4, compact.getInTileWidth());
+        Assert.assertEquals(4, compact.getInTileHeight());
+        Assert.assertEquals(2, compact.getTilesNumber());
+        Assert.assertEquals(3, compact.getTile(1, 1).getNumber());
+        Assert.assertTrue(compact.getTile(1, 1).hasFeature(TilePath.class));
+        Assert.assertFalse(compact.getTile(1, 1).isPrepared());
+        Assert.assertEquals(5, compact.getTile(2, 2).getNumber());
+    }
+
+    /**
+     * Test map listener notified on tiles change.
+     */
+    @Test
+    public void testListener()
+    {
+        final List<String> changes = new ArrayList<String>();
+        final MapTileListener listener = new MapTileListener()
+        {
+            @Override
+            public void notifyTilesChanged(int tx, int ty, int width, int height)
+            {
+                changes.add(tx + " " + ty + " " + width + " " + height);
+            }
+        };
+        map.addListener(listener);
+
+        map.create(16, 16, 3, 2);
+        map.setTile(map.createTile(Integer.valueOf(0), 1, 32.0, 16.0));
+        map.removeTile(2, 1);
+        map.clear();
+
+        Assert.assertEquals(Arrays.asList("0 0 3 2", "2 1 1 1", "2 1 1 1", "0 0 3 2"), changes);
+
+        map.removeListener(listener);
+        map.create(16, 16, 3, 2);
+
+        Assert.assertEquals(4, changes.size());
+    }
+
+    /**
+     * Test the tiles hit, in crossing order.
+     */
+    @Test
+    public void testTilesHit()
+    {
+        map.create(16, 16, 4, 4);
+        map.loadSheets(new ArrayList<SpriteTiled>());
+        for (int tx = 0; tx < 4; tx++)
+        {
+            map.setTile(map.createTile(Integer.valueOf(0), 0, tx * 16.0, 16.0));
+        }
+
+        final List<Tile> hit = new ArrayList<Tile>(map.getTilesHit(-100.0, 20.0, 1000.0, 20.0));
+
+        Assert.assertEquals(Arrays.asList(map.getTile(0, 1), map.getTile(1, 1), map.getTile(2, 1), map.getTile(3, 1)),
+                            hit);
+        Assert.assertTrue(map.getTilesHit(1.0, 1.0, 60.0, 1.0).isEmpty());
+    }
 }
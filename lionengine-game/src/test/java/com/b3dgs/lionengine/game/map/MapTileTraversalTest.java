@@ -0,0 +1,129 @@
+/*
+ * Copyright (C) 2013-2016 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.map;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.b3dgs.lionengine.test.UtilTests;
+
+/**
+ * Test the map tile traversal class.
+ */
+public class MapTileTraversalTest
+{
+    /** Traversal test. */
+    private final MapTileTraversal traversal = new MapTileTraversal();
+
+    /**
+     * Get the visited tiles as <code>"x,y"</code>.
+     * 
+     * @param ox The segment start horizontal location.
+     * @param oy The segment start vertical location.
+     * @param x The segment end horizontal location.
+     * @param y The segment end vertical location.
+     * @return The visited tiles.
+     */
+    private List<String> visit(double ox, double oy, double x, double y)
+    {
+        final List<String> visited = new ArrayList<String>();
+        traversal.start(ox, oy, x, y, 16, 8);
+        while (traversal.next())
+        {
+            visited.add(traversal.getInTileX() + "," + traversal.getInTileY());
+        }
+        return visited;
+    }
+
+    /**
+     * Test the traversal without movement.
+     */
+    @Test
+    public void testPoint()
+    {
+        Assert.assertEquals(Arrays.asList("1,2"), visit(20.0, 20.0, 20.0, 20.0));
+        Assert.assertFalse(traversal.next());
+    }
+
+    /**
+     * Test the traversal on axis, in both directions.
+     */
+    @Test
+    public void testAxis()
+    {
+        Assert.assertEquals(Arrays.asList("0,0", "1,0", "2,0"), visit(1.0, 1.0, 40.0, 1.0));
+        Assert.assertEquals(Arrays.asList("2,0", "1,0", "0,0"), visit(40.0, 1.0, 1.0, 1.0));
+        Assert.assertEquals(Arrays.asList("0,0", "0,1", "0,2"), visit(1.0, 1.0, 1.0, 20.0));
+        Assert.assertEquals(Arrays.asList("0,-1", "0,-2"), visit(1.0, -1.0, 1.0, -9.0));
+    }
+
+    /**
+     * Test the traversal on a diagonal, visiting only crossed tiles.
+     */
+    @Test
+    public void testDiagonal()
+    {
+        Assert.assertEquals(Arrays.asList("0,0", "0,1", "1,1"), visit(1.0, 1.0, 20.0, 14.0));
+    }
+
+    /**
+     * Test the traversal through a corner, visiting the tiles around.
+     */
+    @Test
+    public void testCorner()
+    {
+        Assert.assertEquals(Arrays.asList("0,0", "1,0", "0,1", "1,1"), visit(8.0, 4.0, 24.0, 12.0));
+        Assert.assertEquals(Arrays.asList("1,1", "0,1", "1,0", "0,0"), visit(24.0, 12.0, 8.0, 4.0));
+    }
+
+    /**
+     * Test the traversal enter progress.
+     */
+    @Test
+    public void testEnter()
+    {
+        traversal.start(0.0, 1.0, 64.0, 1.0, 16, 16);
+
+        for (int i = 0; i < 4; i++)
+        {
+            Assert.assertTrue(traversal.next());
+            Assert.assertEquals(i, traversal.getInTileX());
+            Assert.assertEquals(i / 4.0, traversal.getEnter(), UtilTests.PRECISION);
+        }
+        Assert.assertTrue(traversal.next());
+        Assert.assertEquals(4, traversal.getInTileX());
+        Assert.assertEquals(1.0, traversal.getEnter(), UtilTests.PRECISION);
+        Assert.assertFalse(traversal.next());
+    }
+
+    /**
+     * Test the traversal cost on a long segment, depending of the tiles crossed only.
+     */
+    @Test
+    public void testLong()
+    {
+        final List<String> visited = visit(0.5, 0.5, 100000.5, 0.5);
+
+        Assert.assertEquals(100000 / 16 + 1, visited.size());
+        Assert.assertEquals("6250,0", visited.get(visited.size() - 1));
+    }
+}
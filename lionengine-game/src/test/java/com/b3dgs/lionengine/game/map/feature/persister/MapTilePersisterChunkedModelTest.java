@@ -0,0 +1,273 @@
+/*
+ * Copyright (C) 2013-2016 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.map.feature.persister;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.Media;
+import com.b3dgs.lionengine.core.Graphics;
+import com.b3dgs.lionengine.core.Medias;
+import com.b3dgs.lionengine.drawable.Drawable;
+import com.b3dgs.lionengine.game.camera.Camera;
+import com.b3dgs.lionengine.game.feature.Services;
+import com.b3dgs.lionengine.game.map.MapTile;
+import com.b3dgs.lionengine.game.map.MapTileGame;
+import com.b3dgs.lionengine.graphic.ImageBuffer;
+import com.b3dgs.lionengine.graphic.Transparency;
+import com.b3dgs.lionengine.mock.FactoryGraphicMock;
+
+/**
+ * Test the chunked map persister.
+ */
+public class MapTilePersisterChunkedModelTest
+{
+    /** Tile size. */
+    private static final int TILE = 16;
+    /** Chunk size. */
+    private static final int CHUNK = 64;
+    /** Map width in tile. */
+    private static final int WIDTH = 200;
+    /** Map height in tile. */
+    private static final int HEIGHT = 150;
+
+    /**
+     * Prepare test.
+     */
+    @BeforeClass
+    public static void setUp()
+    {
+        Graphics.setFactoryGraphic(new FactoryGraphicMock());
+    }
+
+    /**
+     * Clean up test.
+     */
+    @AfterClass
+    public static void cleanUp()
+    {
+        Medias.setResourcesDirectory(null);
+        Graphics.setFactoryGraphic(null);
+    }
+
+    /**
+     * Create a map with its chunked persister.
+     * 
+     * @param camera The camera reference.
+     * @return The created map.
+     */
+    private static MapTile createMap(Camera camera)
+    {
+        final Services services = new Services();
+        services.add(camera);
+        final MapTile map = services.create(MapTileGame.class);
+        map.addFeature(new MapTilePersisterChunkedModel(CHUNK));
+        map.prepareFeatures(services);
+
+        final ImageBuffer sheet = Graphics.createImageBuffer(TILE * 4, TILE * 4, Transparency.OPAQUE);
+        map.loadSheets(Arrays.asList(Drawable.loadSpriteTiled(sheet, TILE, TILE),
+                                     Drawable.loadSpriteTiled(sheet, TILE, TILE)));
+        return map;
+    }
+
+    /** Temp folder. */
+    @Rule public final TemporaryFolder folder = new TemporaryFolder();
+    /** Camera reference. */
+    private final Camera camera = new Camera();
+    /** Saved map. */
+    private MapTile map;
+    /** Saved level. */
+    private Media level;
+
+    /**
+     * Prepare test.
+     * 
+     * @throws IOException If error.
+     */
+    @Before
+    public void prepare() throws IOException
+    {
+        Medias.setResourcesDirectory(folder.getRoot().getAbsolutePath());
+        camera.setView(0, 0, TILE * 20, TILE * 15, TILE * 15);
+
+        map = createMap(camera);
+        map.create(TILE, TILE, WIDTH, HEIGHT);
+        for (int ty = 1; ty < HEIGHT; ty++)
+        {
+            for (int tx = 0; tx < WIDTH; tx++)
+            {
+                map.setTile(map.createTile(Integer.valueOf(0), tx / 5 + ty % 2, tx * TILE, ty * TILE));
+            }
+        }
+        level = Medias.get(folder.newFile());
+        map.getFeature(MapTilePersisterChunked.class).save(level);
+    }
+
+    /**
+     * Test the save and load region.
+     * 
+     * @throws IOException If error.
+     */
+    @Test
+    public void testSaveLoadRegion() throws IOException
+    {
+        final MapTile loaded = createMap(camera);
+        final MapTilePersisterChunked persister = loaded.getFeature(MapTilePersisterChunked.class);
+        persister.load(level);
+
+        Assert.assertEquals(CHUNK, persister.getChunkSize());
+        Assert.assertEquals(map.getTileWidth(), loaded.getTileWidth());
+        Assert.assertEquals(map.getTileHeight(), loaded.getTileHeight());
+        Assert.assertEquals(WIDTH, loaded.getInTileWidth());
+        Assert.assertEquals(HEIGHT, loaded.getInTileHeight());
+        Assert.assertEquals(0, loaded.getTilesNumber());
+        Assert.assertEquals(0, persister.getLoadedChunks());
+
+        persister.loadRegion(0, 0, WIDTH, HEIGHT);
+
+        Assert.assertEquals(12, persister.getLoadedChunks());
+        Assert.assertEquals(map.getTilesNumber(), loaded.getTilesNumber());
+        for (int ty = 0; ty < HEIGHT; ty++)
+        {
+            for (int tx = 0; tx < WIDTH; tx++)
+            {
+                Assert.assertEquals(map.getTile(tx, ty), loaded.getTile(tx, ty));
+            }
+        }
+        Assert.assertTrue(level.getFile().length() < WIDTH * HEIGHT);
+    }
+
+    /**
+     * Test the chunks loaded and removed around the viewer.
+     * 
+     * @throws IOException If error.
+     */
+    @Test
+    public void testUpdateViewer() throws IOException
+    {
+        final MapTile loaded = createMap(camera);
+        final MapTilePersisterChunked persister = loaded.getFeature(MapTilePersisterChunked.class);
+        persister.load(level);
+        persister.setMargin(0);
+
+        camera.teleport(0.0, 0.0);
+        persister.update(1.0);
+
+        Assert.assertEquals(1, persister.getLoadedChunks());
+        Assert.assertTrue(persister.isLoaded(0, 1));
+        Assert.assertFalse(persister.isLoaded(CHUNK, 1));
+        Assert.assertNotNull(loaded.getTile(0, 1));
+        Assert.assertNull(loaded.getTile(CHUNK, 1));
+
+        camera.teleport(CHUNK * 2 * TILE, 0.0);
+        persister.update(1.0);
+
+        Assert.assertEquals(1, persister.getLoadedChunks());
+        Assert.assertFalse(persister.isLoaded(0, 1));
+        Assert.assertNull(loaded.getTile(0, 1));
+        Assert.assertEquals(map.getTile(CHUNK * 2, 1), loaded.getTile(CHUNK * 2, 1));
+
+        persister.close();
+        persister.update(1.0);
+        Assert.assertEquals(0, persister.getLoadedChunks());
+        Assert.assertNotNull(loaded.getTile(CHUNK * 2, 1));
+    }
+
+    /**
+     * Test the last valid sheet saved and loaded.
+     * 
+     * @throws IOException If error.
+     */
+    @Test
+    public void testLastSheet() throws IOException
+    {
+        final Integer last = Integer.valueOf(map.getSheetsNumber() - 1);
+        map.setTile(map.createTile(last, 1, 0.0, 0.0));
+        map.getFeature(MapTilePersisterChunked.class).save(level);
+
+        final MapTile loaded = createMap(camera);
+        final MapTilePersisterChunked persister = loaded.getFeature(MapTilePersisterChunked.class);
+        persister.load(level);
+        persister.loadRegion(0, 0, 1, 1);
+
+        Assert.assertEquals(last, loaded.getTile(0, 0).getSheet());
+        Assert.assertEquals(1, loaded.getTile(0, 0).getNumber());
+    }
+
+    /**
+     * Test the first invalid sheet saved and loaded.
+     * 
+     * @throws IOException If error.
+     */
+    @Test(expected = LionEngineException.class)
+    public void testInvalidSheet() throws IOException
+    {
+        map.setTile(map.createTile(Integer.valueOf(map.getSheetsNumber()), 1, 0.0, 0.0));
+        map.getFeature(MapTilePersisterChunked.class).save(level);
+
+        final MapTile loaded = createMap(camera);
+        final MapTilePersisterChunked persister = loaded.getFeature(MapTilePersisterChunked.class);
+        persister.load(level);
+        persister.loadRegion(0, 0, 1, 1);
+    }
+
+    /**
+     * Test load invalid file.
+     * 
+     * @throws IOException If error.
+     */
+    @Test(expected = IOException.class)
+    public void testInvalidFile() throws IOException
+    {
+        final File file = folder.newFile();
+        final OutputStream output = new FileOutputStream(file);
+        try
+        {
+            output.write(new byte[]
+            {
+                1, 2, 3, 4, 5
+            });
+        }
+        finally
+        {
+            output.close();
+        }
+        createMap(camera).getFeature(MapTilePersisterChunked.class).load(Medias.get(file));
+    }
+
+    /**
+     * Test load region without loaded file.
+     */
+    @Test(expected = LionEngineException.class)
+    public void testNotLoaded()
+    {
+        map.getFeature(MapTilePersisterChunked.class).loadRegion(0, 0, 1, 1);
+    }
+}
@@ -0,0 +1,203 @@
+/*
+ * Copyright (C) 2013-2016 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.map.feature.persister.it;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Locale;
+
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.b3dgs.lionengine.Media;
+import com.b3dgs.lionengine.Verbose;
+import com.b3dgs.lionengine.core.Medias;
+import com.b3dgs.lionengine.drawable.SpriteTiled;
+import com.b3dgs.lionengine.game.camera.Camera;
+import com.b3dgs.lionengine.game.feature.Services;
+import com.b3dgs.lionengine.game.map.MapTile;
+import com.b3dgs.lionengine.game.map.MapTileGame;
+import com.b3dgs.lionengine.game.map.feature.persister.MapTilePersister;
+import com.b3dgs.lionengine.game.map.feature.persister.MapTilePersisterChunked;
+import com.b3dgs.lionengine.game.map.feature.persister.MapTilePersisterChunkedModel;
+import com.b3dgs.lionengine.game.map.feature.persister.MapTilePersisterModel;
+import com.b3dgs.lionengine.stream.FileReading;
+import com.b3dgs.lionengine.stream.FileWriting;
+import com.b3dgs.lionengine.stream.Stream;
+import com.b3dgs.lionengine.util.UtilStream;
+
+/**
+ * Compare the stream map persister with the chunked one on a large map.
+ */
+public class MapTilePersisterIT
+{
+    /** Map width in tile. */
+    private static final int WIDTH = 8192;
+    /** Map height in tile, stream format stores bloc tiles count as short. */
+    private static final int HEIGHT = 120;
+    /** Tile size. */
+    private static final int TILE = 16;
+    /** Screen width. */
+    private static final int SCREEN_WIDTH = 640;
+    /** Screen height. */
+    private static final int SCREEN_HEIGHT = 480;
+    /** Tiles number run length. */
+    private static final int RUN = 8;
+    /** Nano to milli. */
+    private static final double NANO_TO_MILLI = 1000000.0;
+    /** Bytes to kilo bytes. */
+    private static final double KILO = 1024.0;
+
+    /** Temp folder. */
+    private static File folder;
+
+    /**
+     * Prepare test.
+     */
+    @BeforeClass
+    public static void setUp()
+    {
+        folder = new File(System.getProperty("java.io.tmpdir"));
+        Medias.setResourcesDirectory(folder.getAbsolutePath());
+    }
+
+    /**
+     * Clean up test.
+     */
+    @AfterClass
+    public static void cleanUp()
+    {
+        Medias.setResourcesDirectory(null);
+    }
+
+    /**
+     * Create a map with both persisters.
+     * 
+     * @param camera The camera reference.
+     * @return The created map.
+     */
+    private static MapTile createMap(Camera camera)
+    {
+        final Services services = new Services();
+        services.add(camera);
+        final MapTile map = services.add(new MapTileGame(true));
+        map.addFeature(new MapTilePersisterModel());
+        map.addFeature(new MapTilePersisterChunkedModel());
+        map.prepareFeatures(services);
+        return map;
+    }
+
+    /**
+     * Log a measure.
+     * 
+     * @param name The measure name.
+     * @param start The start time in nano.
+     */
+    private static void log(String name, long start)
+    {
+        final double time = (System.nanoTime() - start) / NANO_TO_MILLI;
+        Verbose.info(String.format(Locale.ENGLISH, "%s: %.2f ms", name, Double.valueOf(time)));
+    }
+
+    /**
+     * Compare persisters.
+     * 
+     * @throws IOException If error.
+     */
+    @Test
+    public void testPersisters() throws IOException
+    {
+        final Camera camera = new Camera();
+        camera.setView(0, 0, SCREEN_WIDTH, SCREEN_HEIGHT, SCREEN_HEIGHT);
+
+        final MapTile map = createMap(camera);
+        map.create(TILE, TILE, WIDTH, HEIGHT);
+        map.loadSheets(new ArrayList<SpriteTiled>());
+        for (int ty = 0; ty < HEIGHT; ty++)
+        {
+            for (int tx = 0; tx < WIDTH; tx++)
+            {
+                map.setTile(map.createTile(Integer.valueOf(0), (tx / RUN + ty) % TILE, tx * TILE, ty * TILE));
+            }
+        }
+
+        final Media stream = Medias.create("persister-stream.lvl");
+        final Media chunked = Medias.create("persister-chunked.lvl");
+        long start = System.nanoTime();
+        final FileWriting output = Stream.createFileWriting(stream);
+        try
+        {
+            map.getFeature(MapTilePersister.class).save(output);
+        }
+        finally
+        {
+            UtilStream.close(output);
+        }
+        log("stream save", start);
+
+        start = System.nanoTime();
+        map.getFeature(MapTilePersisterChunked.class).save(chunked);
+        log("chunked save", start);
+
+        Verbose.info(String.format(Locale.ENGLISH,
+                                   "file size: stream %.0f KB, chunked %.0f KB",
+                                   Double.valueOf(stream.getFile().length() / KILO),
+                                   Double.valueOf(chunked.getFile().length() / KILO)));
+
+        final MapTile streamMap = createMap(camera);
+        start = System.nanoTime();
+        final FileReading input = Stream.createFileReading(stream);
+        try
+        {
+            streamMap.getFeature(MapTilePersister.class).load(input);
+        }
+        finally
+        {
+            UtilStream.close(input);
+        }
+        log("stream load", start);
+
+        final MapTile chunkedMap = createMap(camera);
+        final MapTilePersisterChunked persister = chunkedMap.getFeature(MapTilePersisterChunked.class);
+        start = System.nanoTime();
+        persister.load(chunked);
+        log("chunked load header", start);
+
+        start = System.nanoTime();
+        persister.update(1.0);
+        log("chunked first view (" + persister.getLoadedChunks() + " chunks)", start);
+
+        camera.teleport(WIDTH * TILE / 2.0, HEIGHT * TILE / 2.0);
+        start = System.nanoTime();
+        persister.update(1.0);
+        log("chunked view move (" + persister.getLoadedChunks() + " chunks resident)", start);
+        Assert.assertEquals(map.getTile(WIDTH / 2, HEIGHT / 2), chunkedMap.getTile(WIDTH / 2, HEIGHT / 2));
+
+        start = System.nanoTime();
+        persister.loadRegion(0, 0, WIDTH, HEIGHT);
+        log("chunked full load", start);
+        Assert.assertEquals(streamMap.getTilesNumber(), chunkedMap.getTilesNumber());
+
+        persister.close();
+        Assert.assertTrue(stream.getFile().delete());
+        Assert.assertTrue(chunked.getFile().delete());
+    }
+}
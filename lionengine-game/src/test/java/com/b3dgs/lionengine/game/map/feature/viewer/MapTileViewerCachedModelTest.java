@@ -0,0 +1,179 @@
+/*
+ * Copyright (C) 2013-2016 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.map.feature.viewer;
+
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.b3dgs.lionengine.core.Graphics;
+import com.b3dgs.lionengine.drawable.SpriteTiled;
+import com.b3dgs.lionengine.game.camera.Camera;
+import com.b3dgs.lionengine.game.feature.Services;
+import com.b3dgs.lionengine.game.map.MapTile;
+import com.b3dgs.lionengine.game.map.MapTileGame;
+import com.b3dgs.lionengine.game.map.MapTileRenderer;
+import com.b3dgs.lionengine.game.tile.Tile;
+import com.b3dgs.lionengine.graphic.Graphic;
+import com.b3dgs.lionengine.mock.FactoryGraphicMock;
+
+/**
+ * Test the cached map tile viewer.
+ */
+public class MapTileViewerCachedModelTest
+{
+    /** Tile size. */
+    private static final int TILE = 16;
+    /** Chunk size. */
+    private static final int SIZE = MapTileViewerCachedModel.DEFAULT_CHUNK_SIZE;
+    /** Chunk tiles. */
+    private static final int CHUNK = SIZE * SIZE;
+
+    /**
+     * Prepare test.
+     */
+    @BeforeClass
+    public static void setUp()
+    {
+        Graphics.setFactoryGraphic(new FactoryGraphicMock());
+    }
+
+    /**
+     * Clean up test.
+     */
+    @AfterClass
+    public static void cleanUp()
+    {
+        Graphics.setFactoryGraphic(null);
+    }
+
+    /** Rendered tiles counter. */
+    private final AtomicInteger rendered = new AtomicInteger();
+    /** Camera reference. */
+    private final Camera camera = new Camera();
+    /** Graphic output. */
+    private Graphic g;
+    /** Map reference. */
+    private MapTile map;
+    /** Viewer reference. */
+    private MapTileViewerCached viewer;
+
+    /**
+     * Prepare map.
+     */
+    @Before
+    public void prepare()
+    {
+        g = Graphics.createGraphic();
+        camera.setView(0, 0, TILE * 20, TILE * 15, TILE * 15);
+
+        final Services services = new Services();
+        services.add(camera);
+        map = services.create(MapTileGame.class);
+        map.create(TILE, TILE, 64, 64);
+        map.loadSheets(new ArrayList<SpriteTiled>());
+        for (int ty = 0; ty < map.getInTileHeight(); ty++)
+        {
+            for (int tx = 0; tx < map.getInTileWidth(); tx++)
+            {
+                map.setTile(map.createTile(Integer.valueOf(0), 0, tx * TILE, ty * TILE));
+            }
+        }
+        viewer = map.addFeatureAndGet(new MapTileViewerCachedModel());
+        map.prepareFeatures(services);
+        viewer.clear();
+        viewer.addRenderer(new MapTileRenderer()
+        {
+            @Override
+            public void renderTile(Graphic g, MapTile map, Tile tile, int x, int y)
+            {
+                Assert.assertTrue(x >= 0 && x < SIZE * TILE);
+                Assert.assertTrue(y >= 0 && y < SIZE * TILE);
+                rendered.incrementAndGet();
+            }
+        });
+    }
+
+    /**
+     * Test chunks are rendered once while visible.
+     */
+    @Test
+    public void testCache()
+    {
+        viewer.render(g);
+        Assert.assertEquals(2 * CHUNK, rendered.get());
+
+        viewer.render(g);
+        Assert.assertEquals(2 * CHUNK, rendered.get());
+    }
+
+    /**
+     * Test chunk rendered again after invalidation.
+     */
+    @Test
+    public void testInvalidate()
+    {
+        viewer.render(g);
+        viewer.invalidate(1, 1);
+        viewer.render(g);
+        Assert.assertEquals(3 * CHUNK, rendered.get());
+
+        viewer.invalidate();
+        viewer.render(g);
+        Assert.assertEquals(5 * CHUNK, rendered.get());
+
+        viewer.invalidate(-1, 0);
+        viewer.invalidate(0, map.getInTileHeight());
+        viewer.render(g);
+        Assert.assertEquals(5 * CHUNK, rendered.get());
+    }
+
+    /**
+     * Test only new chunks are rendered on scrolling.
+     */
+    @Test
+    public void testScroll()
+    {
+        viewer.render(g);
+        camera.moveLocation(1.0, TILE * SIZE, 0.0);
+        viewer.render(g);
+        Assert.assertEquals(3 * CHUNK, rendered.get());
+
+        camera.moveLocation(1.0, -TILE * SIZE, 0.0);
+        viewer.render(g);
+        Assert.assertEquals(4 * CHUNK, rendered.get());
+    }
+
+    /**
+     * Test map size change.
+     */
+    @Test
+    public void testMapChanged()
+    {
+        viewer.render(g);
+        map.create(TILE, TILE, 32, 32);
+        map.setTile(map.createTile(Integer.valueOf(0), 0, 0.0, 0.0));
+        viewer.render(g);
+        Assert.assertEquals(2 * CHUNK + 1, rendered.get());
+    }
+}
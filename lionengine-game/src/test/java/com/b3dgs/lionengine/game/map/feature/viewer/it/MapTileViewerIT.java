@@ -0,0 +1,173 @@
+/*
+ * Copyright (C) 2013-2016 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.map.feature.viewer.it;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Random;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.b3dgs.lionengine.Verbose;
+import com.b3dgs.lionengine.core.Graphics;
+import com.b3dgs.lionengine.core.awt.FactoryGraphicAwt;
+import com.b3dgs.lionengine.drawable.Drawable;
+import com.b3dgs.lionengine.drawable.SpriteTiled;
+import com.b3dgs.lionengine.game.camera.Camera;
+import com.b3dgs.lionengine.game.feature.Services;
+import com.b3dgs.lionengine.game.map.MapTile;
+import com.b3dgs.lionengine.game.map.MapTileGame;
+import com.b3dgs.lionengine.game.map.feature.viewer.MapTileViewer;
+import com.b3dgs.lionengine.game.map.feature.viewer.MapTileViewerCachedModel;
+import com.b3dgs.lionengine.game.map.feature.viewer.MapTileViewerModel;
+import com.b3dgs.lionengine.graphic.Graphic;
+import com.b3dgs.lionengine.graphic.ImageBuffer;
+import com.b3dgs.lionengine.graphic.Transparency;
+
+/**
+ * Fill rate benchmark of the map viewers, while scrolling.
+ */
+public class MapTileViewerIT
+{
+    /** Tile size. */
+    private static final int TILE = 16;
+    /** Sheet size in tile. */
+    private static final int SHEET = 16;
+    /** Map size in tile. */
+    private static final int SIZE = 512;
+    /** Warm up frames. */
+    private static final int WARMUP = 100;
+    /** Measured frames. */
+    private static final int FRAMES = 300;
+    /** Pixels to mega pixels. */
+    private static final double MEGA = 1000000.0;
+    /** Nano to milli. */
+    private static final double NANO_TO_MILLI = 1000000.0;
+    /** Milli to second. */
+    private static final double MILLI_TO_SECOND = 1000.0;
+
+    /** Sheet reference. */
+    private static SpriteTiled sheet;
+
+    /**
+     * Prepare test.
+     */
+    @BeforeClass
+    public static void setUp()
+    {
+        Graphics.setFactoryGraphic(new FactoryGraphicAwt());
+
+        final Random random = new Random(0L);
+        final ImageBuffer image = Graphics.createImageBuffer(TILE * SHEET, TILE * SHEET, Transparency.BITMASK);
+        for (int y = 0; y < image.getHeight(); y++)
+        {
+            for (int x = 0; x < image.getWidth(); x++)
+            {
+                image.setRgb(x, y, random.nextInt() | 0xFF000000);
+            }
+        }
+        image.prepare();
+        sheet = Drawable.loadSpriteTiled(image, TILE, TILE);
+    }
+
+    /**
+     * Clean up test.
+     */
+    @AfterClass
+    public static void cleanUp()
+    {
+        Graphics.setFactoryGraphic(null);
+    }
+
+    /**
+     * Measure viewer fill rate while scrolling one pixel per frame.
+     * 
+     * @param name The viewer name.
+     * @param viewer The viewer to measure.
+     * @param width The screen width.
+     * @param height The screen height.
+     */
+    private static void measure(String name, MapTileViewer viewer, int width, int height)
+    {
+        final Camera camera = new Camera();
+        camera.setView(0, 0, width, height, height);
+
+        final Services services = new Services();
+        services.add(camera);
+        final MapTile map = services.create(MapTileGame.class);
+        map.create(TILE, TILE, SIZE, SIZE);
+        map.loadSheets(Arrays.asList(sheet));
+
+        final Random random = new Random(0L);
+        for (int ty = 0; ty < SIZE; ty++)
+        {
+            for (int tx = 0; tx < SIZE; tx++)
+            {
+                map.setTile(map.createTile(Integer.valueOf(0), random.nextInt(SHEET * SHEET), tx * TILE, ty * TILE));
+            }
+        }
+        map.addFeature(viewer);
+        map.prepareFeatures(services);
+
+        final ImageBuffer screen = Graphics.createImageBuffer(width, height, Transparency.OPAQUE);
+        final Graphic g = screen.createGraphic();
+        long start = 0L;
+        for (int i = 0; i < WARMUP + FRAMES; i++)
+        {
+            if (i == WARMUP)
+            {
+                start = System.nanoTime();
+            }
+            camera.moveLocation(1.0, 1.0, 1.0);
+            viewer.render(g);
+        }
+        final double frame = (System.nanoTime() - start) / NANO_TO_MILLI / FRAMES;
+        g.dispose();
+        screen.dispose();
+
+        Verbose.info(String.format(Locale.ENGLISH,
+                                   "%s %dx%d: %.3f ms/frame, %.1f Mpixel/s",
+                                   name,
+                                   Integer.valueOf(width),
+                                   Integer.valueOf(height),
+                                   Double.valueOf(frame),
+                                   Double.valueOf(width * height / frame * MILLI_TO_SECOND / MEGA)));
+    }
+
+    /**
+     * Measure at low resolution.
+     */
+    @Test
+    public void testLow()
+    {
+        measure("tiles", new MapTileViewerModel(), 320, 240);
+        measure("cached", new MapTileViewerCachedModel(), 320, 240);
+    }
+
+    /**
+     * Measure at high resolution.
+     */
+    @Test
+    public void testHigh()
+    {
+        measure("tiles", new MapTileViewerModel(), 1920, 1080);
+        measure("cached", new MapTileViewerCachedModel(), 1920, 1080);
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright (C) 2013-2016 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.map.it;
+
+import java.util.Locale;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.b3dgs.lionengine.Verbose;
+import com.b3dgs.lionengine.game.map.MapTileGame;
+import com.b3dgs.lionengine.game.pathfinding.TilePath;
+import com.b3dgs.lionengine.game.pathfinding.TilePathModel;
+import com.b3dgs.lionengine.game.tile.Tile;
+
+/**
+ * Compare heap footprint and tile access throughput of the default and compact map storage.
+ */
+public class MapTileGameIT
+{
+    /** Map size in tile. */
+    private static final int SIZE = 1024;
+    /** Tile size. */
+    private static final int TILE = 16;
+    /** Warm up passes. */
+    private static final int WARMUP = 3;
+    /** Measured passes. */
+    private static final int PASSES = 10;
+    /** Bytes to mega bytes. */
+    private static final double MEGA = 1024.0 * 1024.0;
+    /** Tiles per milli to millions per second. */
+    private static final double MEGA_PER_SECOND = 1000.0;
+    /** Nano to milli. */
+    private static final double NANO_TO_MILLI = 1000000.0;
+
+    /**
+     * Get the used heap after garbage collection.
+     * 
+     * @return The used heap in bytes.
+     */
+    private static long getUsedHeap()
+    {
+        final Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < WARMUP; i++)
+        {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * Create a full map, with a path feature on each tile.
+     * 
+     * @param compact <code>true</code> for compact storage.
+     * @return The created map.
+     */
+    private static MapTileGame createMap(boolean compact)
+    {
+        final MapTileGame map = new MapTileGame(compact);
+        map.create(TILE, TILE, SIZE, SIZE);
+        for (int ty = 0; ty < SIZE; ty++)
+        {
+            for (int tx = 0; tx < SIZE; tx++)
+            {
+                map.setTile(map.createTile(Integer.valueOf(0), (tx + ty) % TILE, tx * TILE, ty * TILE));
+                map.getTile(tx, ty).addFeature(new TilePathModel("ground"));
+            }
+        }
+        return map;
+    }
+
+    /**
+     * Read all tiles and their path feature.
+     * 
+     * @param map The map reference.
+     * @return The tiles number sum.
+     */
+    private static long read(MapTileGame map)
+    {
+        long sum = 0L;
+        for (int ty = 0; ty < SIZE; ty++)
+        {
+            for (int tx = 0; tx < SIZE; tx++)
+            {
+                final Tile tile = map.getTile(tx, ty);
+                sum += tile.getNumber() + tile.getFeature(TilePath.class).getCategory().length();
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Measure the storage.
+     * 
+     * @param compact <code>true</code> for compact storage.
+     */
+    private static void measure(boolean compact)
+    {
+        final long before = getUsedHeap();
+        final MapTileGame map = createMap(compact);
+        final long footprint = getUsedHeap() - before;
+
+        long total = 0L;
+        long sum = 0L;
+        for (int i = 0; i < WARMUP + PASSES; i++)
+        {
+            final long start = System.nanoTime();
+            sum += read(map);
+            if (i >= WARMUP)
+            {
+                total += System.nanoTime() - start;
+            }
+        }
+        Assert.assertTrue(sum > 0L);
+
+        final double pass = total / NANO_TO_MILLI / PASSES;
+        final String name;
+        if (compact)
+        {
+            name = "compact";
+        }
+        else
+        {
+            name = "default";
+        }
+        Verbose.info(String.format(Locale.ENGLISH,
+                                   "%s %dx%d: heap %.1f MB (%.1f bytes/tile), getTile pass %.2f ms (%.1f M/s)",
+                                   name,
+                                   Integer.valueOf(SIZE),
+                                   Integer.valueOf(SIZE),
+                                   Double.valueOf(footprint / MEGA),
+                                   Double.valueOf(footprint / (double) (SIZE * SIZE)),
+                                   Double.valueOf(pass),
+                                   Double.valueOf(SIZE * SIZE / pass / MEGA_PER_SECOND)));
+        Assert.assertEquals(SIZE * SIZE, map.getTilesNumber());
+    }
+
+    /**
+     * Measure default storage.
+     */
+    @Test
+    public void testDefault()
+    {
+        measure(false);
+    }
+
+    /**
+     * Measure compact storage.
+     */
+    @Test
+    public void testCompact()
+    {
+        measure(true);
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright (C) 2013-2016 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.pathfinding;
+
+import java.util.List;
+
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.b3dgs.lionengine.Constant;
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.core.Graphics;
+import com.b3dgs.lionengine.core.Medias;
+import com.b3dgs.lionengine.game.camera.Camera;
+import com.b3dgs.lionengine.game.feature.Services;
+import com.b3dgs.lionengine.game.map.MapTile;
+import com.b3dgs.lionengine.game.tile.Tile;
+import com.b3dgs.lionengine.mock.FactoryGraphicMock;
+
+/**
+ * Test the map tile path hierarchy model class.
+ */
+public class MapTilePathHierarchyModelTest
+{
+    /** Map size. */
+    private static final int SIZE = 40;
+    /** Cluster size. */
+    private static final int CLUSTER = 8;
+    /** Wall location. */
+    private static final int WALL = 20;
+
+    /**
+     * Prepare test.
+     */
+    @BeforeClass
+    public static void setUp()
+    {
+        Graphics.setFactoryGraphic(new FactoryGraphicMock());
+        Medias.setResourcesDirectory(System.getProperty("java.io.tmpdir"));
+    }
+
+    /**
+     * Clean up test.
+     */
+    @AfterClass
+    public static void cleanUp()
+    {
+        Graphics.setFactoryGraphic(null);
+        Medias.setResourcesDirectory(Constant.EMPTY_STRING);
+    }
+
+    /**
+     * Check the path is continuous from start to destination.
+     * 
+     * @param path The path to check.
+     * @param stx The start horizontal location.
+     * @param sty The start vertical location.
+     * @param dtx The destination horizontal location.
+     * @param dty The destination vertical location.
+     */
+    private static void assertPath(Path path, int stx, int sty, int dtx, int dty)
+    {
+        Assert.assertNotNull(path);
+        Assert.assertEquals(stx, path.getX(0));
+        Assert.assertEquals(sty, path.getY(0));
+        Assert.assertEquals(dtx, path.getX(path.getLength() - 1));
+        Assert.assertEquals(dty, path.getY(path.getLength() - 1));
+        for (int i = 1; i < path.getLength(); i++)
+        {
+            final int dx = Math.abs(path.getX(i) - path.getX(i - 1));
+            final int dy = Math.abs(path.getY(i) - path.getY(i - 1));
+            Assert.assertTrue(dx <= 1 && dy <= 1 && dx + dy > 0);
+        }
+    }
+
+    /** Services reference. */
+    private final Services services = new Services();
+    /** Map reference. */
+    private MapTile map;
+    /** Hierarchy reference. */
+    private MapTilePathHierarchy hierarchy;
+
+    /**
+     * Prepare test.
+     */
+    @Before
+    public void prepare()
+    {
+        services.add(new Camera());
+        map = UtilPathfinding.createMap(services, SIZE, SIZE);
+        hierarchy = map.addFeatureAndGet(new MapTilePathHierarchyModel(CLUSTER));
+        hierarchy.prepare(map, services);
+        for (int ty = 0; ty < SIZE; ty++)
+        {
+            UtilPathfinding.setBlock(map, WALL, ty);
+        }
+        UtilPathfinding.loadPathfinding(map);
+    }
+
+    /**
+     * Open a gap in the wall.
+     * 
+     * @param ty The gap vertical location.
+     */
+    private void openWall(int ty)
+    {
+        final Tile tile = map.createTile(UtilPathfinding.SHEET, UtilPathfinding.TILE_GROUND, WALL, ty);
+        tile.addFeature(new TilePathModel(UtilPathfinding.GROUND));
+        map.setTile(tile);
+        hierarchy.invalidate(WALL, ty);
+    }
+
+    /**
+     * Test the hierarchical search, with cluster rebuild.
+     */
+    @Test
+    public void testFindPath()
+    {
+        final Pathfindable mover = UtilPathfinding.createMover(services, 1, 1);
+        final PathFinder pathfinder = Astar.createPathFinder(map, SIZE * SIZE, Astar.createHeuristicClosest());
+        final PathFinder flat = new PathFinderImpl(map, SIZE * SIZE, Astar.createHeuristicClosest());
+        Assert.assertTrue(pathfinder instanceof PathFinderHierarchical);
+
+        Assert.assertNull(hierarchy.getEntrances(mover, 1, 1, SIZE - 2, SIZE - 2));
+        Assert.assertNull(pathfinder.findPath(mover, SIZE - 2, SIZE - 2, true));
+
+        openWall(SIZE - 3);
+        final List<CoordTile> entrances = hierarchy.getEntrances(mover, 1, 1, SIZE - 2, SIZE - 2);
+        Assert.assertTrue(entrances.size() > 2);
+
+        final Path path = pathfinder.findPath(mover, SIZE - 2, SIZE - 2, true);
+        assertPath(path, 1, 1, SIZE - 2, SIZE - 2);
+        Assert.assertTrue(path.contains(WALL, SIZE - 3));
+        Assert.assertTrue(path.getLength() <= flat.findPath(mover, SIZE - 2, SIZE - 2, true).getLength() + CLUSTER);
+
+        final Path near = pathfinder.findPath(mover, 3, 3, true);
+        assertPath(near, 1, 1, 3, 3);
+        Assert.assertEquals(3, near.getLength());
+    }
+
+    /**
+     * Test the hierarchical search in the same cluster, around an obstacle.
+     */
+    @Test
+    public void testSameCluster()
+    {
+        final Pathfindable mover = UtilPathfinding.createMover(services, WALL - 1, 0);
+        openWall(0);
+
+        final List<CoordTile> entrances = hierarchy.getEntrances(mover, WALL - 1, 0, WALL + 1, 0);
+        Assert.assertEquals(2, entrances.size());
+
+        hierarchy.invalidate();
+        Assert.assertEquals(2, hierarchy.getEntrances(mover, WALL - 1, 0, WALL + 1, 0).size());
+        Assert.assertEquals(CLUSTER, hierarchy.getClusterSize());
+    }
+
+    /**
+     * Test the invalid cluster size.
+     */
+    @Test(expected = LionEngineException.class)
+    public void testInvalidClusterSize()
+    {
+        Assert.assertNotNull(new MapTilePathHierarchyModel(1));
+    }
+}
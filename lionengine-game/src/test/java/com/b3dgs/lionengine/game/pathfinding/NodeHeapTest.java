@@ -0,0 +1,107 @@
+/*
+ * Copyright (C) 2013-2016 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.pathfinding;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test the node heap class.
+ */
+public class NodeHeapTest
+{
+    /**
+     * Create a node.
+     * 
+     * @param x The horizontal location.
+     * @param y The vertical location.
+     * @param cost The node cost.
+     * @return The created node.
+     */
+    private static Node create(int x, int y, double cost)
+    {
+        final Node node = new Node(x, y);
+        node.setCost(cost);
+        return node;
+    }
+
+    /**
+     * Test the heap order, with insertion order on same cost.
+     */
+    @Test
+    public void testOrder()
+    {
+        final NodeHeap heap = new NodeHeap(3, 2);
+        final Node node1 = create(0, 0, 3.0);
+        final Node node2 = create(1, 0, 1.0);
+        final Node node3 = create(2, 0, 2.0);
+        final Node node4 = create(0, 1, 1.0);
+
+        heap.add(node1);
+        heap.add(node2);
+        heap.add(node3);
+        heap.add(node4);
+
+        Assert.assertEquals(4, heap.size());
+        Assert.assertTrue(heap.contains(node4));
+        Assert.assertFalse(heap.contains(create(1, 1, 0.0)));
+
+        Assert.assertEquals(node2, heap.first());
+        heap.remove(node2);
+        Assert.assertFalse(heap.contains(node2));
+        Assert.assertEquals(node4, heap.first());
+        heap.remove(node4);
+        Assert.assertEquals(node3, heap.first());
+        heap.remove(node3);
+        Assert.assertEquals(node1, heap.first());
+        heap.remove(node1);
+        Assert.assertEquals(0, heap.size());
+    }
+
+    /**
+     * Test the heap update on cost change and removal in the middle.
+     */
+    @Test
+    public void testUpdate()
+    {
+        final NodeHeap heap = new NodeHeap(3, 1);
+        final Node node1 = create(0, 0, 1.0);
+        final Node node2 = create(1, 0, 2.0);
+        final Node node3 = create(2, 0, 3.0);
+
+        heap.add(node1);
+        heap.add(node2);
+        heap.add(node3);
+
+        node3.setCost(1.0);
+        heap.update(node3);
+        Assert.assertEquals(node1, heap.first());
+
+        node3.setCost(0.0);
+        heap.update(node3);
+        Assert.assertEquals(node3, heap.first());
+
+        heap.remove(node1);
+        heap.remove(node3);
+        Assert.assertEquals(node2, heap.first());
+
+        heap.clear();
+        Assert.assertEquals(0, heap.size());
+        Assert.assertFalse(heap.contains(node2));
+    }
+}
@@ -0,0 +1,294 @@
+/*
+ * Copyright (C) 2013-2016 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.pathfinding;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.b3dgs.lionengine.Constant;
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.core.Graphics;
+import com.b3dgs.lionengine.core.Medias;
+import com.b3dgs.lionengine.game.camera.Camera;
+import com.b3dgs.lionengine.game.feature.Services;
+import com.b3dgs.lionengine.game.map.MapTile;
+import com.b3dgs.lionengine.mock.FactoryGraphicMock;
+
+/**
+ * Test the path finder batch class.
+ */
+public class PathFinderBatchTest
+{
+    /** Map size. */
+    private static final int SIZE = 16;
+    /** Wall location. */
+    private static final int WALL = 8;
+
+    /**
+     * Prepare test.
+     */
+    @BeforeClass
+    public static void setUp()
+    {
+        Graphics.setFactoryGraphic(new FactoryGraphicMock());
+        Medias.setResourcesDirectory(System.getProperty("java.io.tmpdir"));
+    }
+
+    /**
+     * Clean up test.
+     */
+    @AfterClass
+    public static void cleanUp()
+    {
+        Graphics.setFactoryGraphic(null);
+        Medias.setResourcesDirectory(Constant.EMPTY_STRING);
+    }
+
+    /** Services reference. */
+    private final Services services = new Services();
+    /** Map reference. */
+    private MapTile map;
+    /** Batch reference. */
+    private PathFinderBatch batch;
+
+    /**
+     * Prepare test.
+     */
+    @Before
+    public void prepare()
+    {
+        services.add(new Camera());
+        map = UtilPathfinding.createMap(services, SIZE, SIZE);
+        for (int ty = 0; ty < SIZE - 1; ty++)
+        {
+            UtilPathfinding.setBlock(map, WALL, ty);
+        }
+        UtilPathfinding.loadPathfinding(map);
+        batch = Astar.createPathFinderBatch(map, SIZE * SIZE, Astar.createHeuristicClosest(), 2, 1.0);
+    }
+
+    /**
+     * Clean test.
+     */
+    @After
+    public void clean()
+    {
+        batch.terminate();
+    }
+
+    /**
+     * Update batch until all requests have been delivered.
+     */
+    private void updateAll()
+    {
+        while (batch.getPending() > 0)
+        {
+            batch.update(1.0);
+        }
+    }
+
+    /**
+     * Test the batch results are the same as the immediate ones.
+     */
+    @Test
+    public void testRequest()
+    {
+        final PathFinder pathfinder = Astar.createPathFinder(map, SIZE * SIZE, Astar.createHeuristicClosest());
+        final List<Pathfindable> movers = new ArrayList<Pathfindable>();
+        final List<Path> found = new ArrayList<Path>();
+        for (int ty = 0; ty < SIZE; ty++)
+        {
+            final Pathfindable mover = UtilPathfinding.createMover(services, 0, ty);
+            movers.add(mover);
+            found.add(null);
+            final int index = ty;
+            batch.request(mover, SIZE - 1, SIZE - 1 - ty, true, new PathFinderBatchListener()
+            {
+                @Override
+                public void notifyPathFound(Path path)
+                {
+                    found.set(index, path);
+                }
+            });
+        }
+        Assert.assertEquals(SIZE, batch.getPending());
+
+        updateAll();
+
+        for (int ty = 0; ty < SIZE; ty++)
+        {
+            final Path expected = pathfinder.findPath(movers.get(ty), SIZE - 1, SIZE - 1 - ty, true);
+            final Path path = found.get(ty);
+            Assert.assertEquals(expected.getLength(), path.getLength());
+            for (int i = 0; i < path.getLength(); i++)
+            {
+                Assert.assertEquals(expected.getX(i), path.getX(i));
+                Assert.assertEquals(expected.getY(i), path.getY(i));
+            }
+            Assert.assertEquals(expected.getLength(), batch.findPath(movers.get(ty), SIZE - 1, SIZE - 1 - ty, true)
+                                                           .getLength());
+        }
+    }
+
+    /**
+     * Test the request cancellation, and replacement of the pending request.
+     */
+    @Test
+    public void testCancel()
+    {
+        final Pathfindable mover = UtilPathfinding.createMover(services, 0, 0);
+        final List<Path> found = new ArrayList<Path>();
+        final PathFinderBatchListener listener = new PathFinderBatchListener()
+        {
+            @Override
+            public void notifyPathFound(Path path)
+            {
+                found.add(path);
+            }
+        };
+
+        batch.request(mover, SIZE - 1, 0, true, listener);
+        batch.cancel(mover);
+        Assert.assertEquals(0, batch.getPending());
+        batch.update(1.0);
+        Assert.assertTrue(found.isEmpty());
+
+        batch.request(mover, SIZE - 1, 0, true, listener);
+        batch.request(mover, 1, 0, true, listener);
+        Assert.assertEquals(1, batch.getPending());
+        updateAll();
+
+        Assert.assertEquals(1, found.size());
+        Assert.assertEquals(2, found.get(0).getLength());
+    }
+
+    /**
+     * Test the pathfindable waiting for the batch result.
+     */
+    @Test
+    public void testPathfindable()
+    {
+        final Pathfindable mover = UtilPathfinding.createMover(services, 0, 0);
+        mover.setPathFinderBatch(batch);
+
+        Assert.assertTrue(mover.setDestination(2, 0));
+        mover.update(1.0);
+        Assert.assertFalse(mover.isMoving());
+        Assert.assertEquals(1, batch.getPending());
+
+        updateAll();
+        mover.update(1.0);
+        Assert.assertTrue(mover.isMoving());
+    }
+
+    /**
+     * Test the pending pathfindable request submitted again on batch change, or searched immediately without batch.
+     */
+    @Test
+    public void testPathfindableBatchChanged()
+    {
+        final PathFinderBatch other = Astar.createPathFinderBatch(map,
+                                                                  SIZE * SIZE,
+                                                                  Astar.createHeuristicClosest(),
+                                                                  1,
+                                                                  1.0);
+        try
+        {
+            final Pathfindable mover = UtilPathfinding.createMover(services, 0, 0);
+            mover.setPathFinderBatch(batch);
+            Assert.assertTrue(mover.setDestination(2, 0));
+            Assert.assertEquals(1, batch.getPending());
+
+            mover.setPathFinderBatch(other);
+            Assert.assertEquals(0, batch.getPending());
+            Assert.assertEquals(1, other.getPending());
+            while (other.getPending() > 0)
+            {
+                other.update(1.0);
+            }
+            mover.update(1.0);
+            Assert.assertTrue(mover.isMoving());
+
+            final Pathfindable immediate = UtilPathfinding.createMover(services, 0, 2);
+            immediate.setPathFinderBatch(batch);
+            Assert.assertTrue(immediate.setDestination(2, 2));
+            immediate.setPathFinderBatch(null);
+            Assert.assertEquals(0, batch.getPending());
+            immediate.update(1.0);
+            Assert.assertTrue(immediate.isMoving());
+        }
+        finally
+        {
+            other.terminate();
+        }
+    }
+
+    /**
+     * Test the moving pathfindable path change requested to the batch, current step kept until result.
+     */
+    @Test
+    public void testPathfindableRepath()
+    {
+        final Pathfindable mover = UtilPathfinding.createMover(services, 0, 0);
+        mover.setPathFinderBatch(batch);
+        mover.setSpeed(1.0, 1.0);
+
+        Assert.assertTrue(mover.setDestination(4, 0));
+        updateAll();
+        Assert.assertFalse(mover.setDestination(0, 2));
+        int updates = 0;
+        while (batch.getPending() == 0 && updates < 100)
+        {
+            mover.update(1.0);
+            updates++;
+        }
+        Assert.assertEquals(1, batch.getPending());
+        final int tx = mover.getInTileX();
+        final int ty = mover.getInTileY();
+        mover.update(1.0);
+        mover.update(1.0);
+        Assert.assertEquals(tx, mover.getInTileX());
+        Assert.assertEquals(ty, mover.getInTileY());
+
+        updateAll();
+        updates = 0;
+        while (!mover.isDestinationReached() && updates < 100)
+        {
+            mover.update(1.0);
+            updates++;
+        }
+        Assert.assertEquals(0, mover.getInTileX());
+        Assert.assertEquals(2, mover.getInTileY());
+    }
+
+    /**
+     * Test the invalid threads number.
+     */
+    @Test(expected = LionEngineException.class)
+    public void testInvalidThreads()
+    {
+        Assert.assertNull(Astar.createPathFinderBatch(map, 1, Astar.createHeuristicClosest(), 0, 1.0));
+    }
+}
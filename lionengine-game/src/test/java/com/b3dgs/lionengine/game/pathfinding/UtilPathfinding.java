@@ -0,0 +1,164 @@
+/*
+ * Copyright (C) 2013-2016 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.pathfinding;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Assert;
+
+import com.b3dgs.lionengine.Media;
+import com.b3dgs.lionengine.core.Medias;
+import com.b3dgs.lionengine.game.feature.FeaturableConfig;
+import com.b3dgs.lionengine.game.feature.FeaturableModel;
+import com.b3dgs.lionengine.game.feature.Services;
+import com.b3dgs.lionengine.game.feature.Setup;
+import com.b3dgs.lionengine.game.feature.identifiable.IdentifiableModel;
+import com.b3dgs.lionengine.game.feature.transformable.TransformableModel;
+import com.b3dgs.lionengine.game.map.MapTile;
+import com.b3dgs.lionengine.game.map.MapTileGame;
+import com.b3dgs.lionengine.game.map.feature.group.MapTileGroup;
+import com.b3dgs.lionengine.game.map.feature.group.MapTileGroupModel;
+import com.b3dgs.lionengine.game.tile.TileGroup;
+import com.b3dgs.lionengine.game.tile.TileGroupType;
+import com.b3dgs.lionengine.game.tile.TileGroupsConfig;
+import com.b3dgs.lionengine.game.tile.TileRef;
+import com.b3dgs.lionengine.stream.Xml;
+import com.b3dgs.lionengine.stream.XmlNode;
+
+/**
+ * Pathfinding test utility.
+ */
+public class UtilPathfinding
+{
+    /** Ground tile number. */
+    public static final int TILE_GROUND = 0;
+    /** Block tile number. */
+    public static final int TILE_BLOCK = 1;
+    /** Ground group and category name. */
+    public static final String GROUND = "ground";
+    /** Block group and category name. */
+    public static final String BLOCK = "block";
+    /** Sheet ID. */
+    public static final Integer SHEET = Integer.valueOf(0);
+
+    /**
+     * Create a map filled with ground, without pathfinding loaded.
+     * The {@link Services} must provide a {@link com.b3dgs.lionengine.graphic.Viewer} for the movers.
+     * 
+     * @param services The services reference.
+     * @param widthInTile The map width in tile.
+     * @param heightInTile The map height in tile.
+     * @return The created map.
+     */
+    public static MapTile createMap(Services services, int widthInTile, int heightInTile)
+    {
+        final MapTileGame map = services.add(new MapTileGame());
+        map.addFeature(new MapTileGroupModel());
+        map.addFeature(new MapTilePathModel());
+        map.prepareFeatures(services);
+        map.create(1, 1, widthInTile, heightInTile);
+
+        final Collection<TileGroup> groups = new ArrayList<TileGroup>();
+        groups.add(new TileGroup(GROUND, TileGroupType.NONE, Arrays.asList(new TileRef(SHEET, TILE_GROUND))));
+        groups.add(new TileGroup(BLOCK, TileGroupType.NONE, Arrays.asList(new TileRef(SHEET, TILE_BLOCK))));
+
+        final Media config = Medias.create(TileGroupsConfig.FILENAME);
+        TileGroupsConfig.exports(config, groups);
+        map.getFeature(MapTileGroup.class).loadGroups(config);
+        Assert.assertTrue(config.getFile().delete());
+
+        for (int ty = 0; ty < heightInTile; ty++)
+        {
+            for (int tx = 0; tx < widthInTile; tx++)
+            {
+                map.setTile(map.createTile(SHEET, TILE_GROUND, tx, ty));
+            }
+        }
+        return map;
+    }
+
+    /**
+     * Set a blocking tile. Must be called before {@link #loadPathfinding(MapTile)}.
+     * 
+     * @param map The map reference.
+     * @param tx The horizontal tile index.
+     * @param ty The vertical tile index.
+     */
+    public static void setBlock(MapTile map, int tx, int ty)
+    {
+        map.setTile(map.createTile(SHEET, TILE_BLOCK, tx, ty));
+    }
+
+    /**
+     * Load the ground and block categories.
+     * 
+     * @param map The map reference.
+     */
+    public static void loadPathfinding(MapTile map)
+    {
+        final XmlNode root = Xml.create(PathfindingConfig.PATHFINDING);
+        for (final String category : Arrays.asList(GROUND, BLOCK))
+        {
+            final XmlNode node = root.createChild(PathfindingConfig.TILE_PATH);
+            node.writeString(PathfindingConfig.CATEGORY, category);
+            node.createChild(TileGroupsConfig.NODE_GROUP).setText(category);
+        }
+        final Media config = Medias.create(PathfindingConfig.FILENAME);
+        Xml.save(root, config);
+        map.getFeature(MapTilePath.class).loadPathfinding(config);
+        Assert.assertTrue(config.getFile().delete());
+    }
+
+    /**
+     * Create a mover walking on ground in all directions, blocked by blocks.
+     * 
+     * @param services The services reference.
+     * @param tx The horizontal tile location.
+     * @param ty The vertical tile location.
+     * @return The created mover.
+     */
+    public static Pathfindable createMover(Services services, int tx, int ty)
+    {
+        final Map<String, PathData> categories = new HashMap<String, PathData>();
+        categories.put(GROUND, new PathData(GROUND, 1.0, false, Arrays.asList(MovementTile.values())));
+        categories.put(BLOCK, new PathData(BLOCK, 0.0, true, new ArrayList<MovementTile>()));
+
+        final Media media = Medias.create("mover.xml");
+        final XmlNode root = Xml.create("test");
+        root.add(FeaturableConfig.exportClass(FeaturableModel.class.getName()));
+        root.add(FeaturableConfig.exportSetup(Setup.class.getName()));
+        root.add(PathfindableConfig.exports(categories));
+        Xml.save(root, media);
+
+        final Setup setup = new Setup(media);
+        final FeaturableModel featurable = new FeaturableModel();
+        featurable.addFeature(new IdentifiableModel());
+        featurable.addFeature(new TransformableModel(setup));
+        final Pathfindable pathfindable = featurable.addFeatureAndGet(new PathfindableModel(setup));
+        featurable.prepareFeatures(services);
+        pathfindable.setLocation(tx, ty);
+
+        Assert.assertTrue(media.getFile().delete());
+
+        return pathfindable;
+    }
+}
@@ -0,0 +1,287 @@
+/*
+ * Copyright (C) 2013-2016 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.pathfinding.it;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.b3dgs.lionengine.Constant;
+import com.b3dgs.lionengine.Verbose;
+import com.b3dgs.lionengine.core.Graphics;
+import com.b3dgs.lionengine.core.Medias;
+import com.b3dgs.lionengine.game.camera.Camera;
+import com.b3dgs.lionengine.game.feature.Services;
+import com.b3dgs.lionengine.game.map.MapTile;
+import com.b3dgs.lionengine.game.pathfinding.Astar;
+import com.b3dgs.lionengine.game.pathfinding.MapTilePathHierarchy;
+import com.b3dgs.lionengine.game.pathfinding.MapTilePathHierarchyModel;
+import com.b3dgs.lionengine.game.pathfinding.Path;
+import com.b3dgs.lionengine.game.pathfinding.PathFinder;
+import com.b3dgs.lionengine.game.pathfinding.PathFinderBatch;
+import com.b3dgs.lionengine.game.pathfinding.Pathfindable;
+import com.b3dgs.lionengine.game.pathfinding.UtilPathfinding;
+import com.b3dgs.lionengine.mock.FactoryGraphicMock;
+
+/**
+ * Benchmark the path finder on large open and maze maps.
+ */
+public class PathFinderIT
+{
+    /** Map size in tile. */
+    private static final int SIZE = 256;
+    /** Maze wall spacing. */
+    private static final int WALL = 8;
+    /** Warm up searches. */
+    private static final int WARMUP = 2;
+    /** Measured searches. */
+    private static final int SEARCHES = 5;
+    /** Large map size in tile. */
+    private static final int LARGE = 1024;
+    /** Large map wall spacing. */
+    private static final int LARGE_WALL = 64;
+    /** Units receiving a move order at once. */
+    private static final int UNITS = 200;
+    /** Batch time budget per frame in milli. */
+    private static final double BUDGET = 2.0;
+    /** Nano to milli. */
+    private static final double NANO_TO_MILLI = 1000000.0;
+
+    /**
+     * Prepare test.
+     */
+    @BeforeClass
+    public static void setUp()
+    {
+        Graphics.setFactoryGraphic(new FactoryGraphicMock());
+        Medias.setResourcesDirectory(System.getProperty("java.io.tmpdir"));
+    }
+
+    /**
+     * Clean up test.
+     */
+    @AfterClass
+    public static void cleanUp()
+    {
+        Graphics.setFactoryGraphic(null);
+        Medias.setResourcesDirectory(Constant.EMPTY_STRING);
+    }
+
+    /**
+     * Create a maze map, with vertical walls opened alternatively at the top and at the bottom.
+     * 
+     * @param services The services reference.
+     * @param size The map size in tile.
+     * @param wall The wall spacing in tile.
+     * @return The maze map.
+     */
+    private static MapTile createMaze(Services services, int size, int wall)
+    {
+        final MapTile map = UtilPathfinding.createMap(services, size, size);
+        for (int tx = wall; tx < size; tx += wall)
+        {
+            final int gap;
+            if (tx / wall % 2 == 0)
+            {
+                gap = 0;
+            }
+            else
+            {
+                gap = size - 1;
+            }
+            for (int ty = 0; ty < size; ty++)
+            {
+                if (ty != gap)
+                {
+                    UtilPathfinding.setBlock(map, tx, ty);
+                }
+            }
+        }
+        UtilPathfinding.loadPathfinding(map);
+        return map;
+    }
+
+    /**
+     * Measure the average search time in milliseconds.
+     * 
+     * @param name The map name.
+     * @param services The services reference.
+     * @param map The map reference.
+     */
+    private static void measure(String name, Services services, MapTile map)
+    {
+        final Pathfindable mover = UtilPathfinding.createMover(services, 0, 0);
+        final PathFinder finder = Astar.createPathFinder(map, SIZE * SIZE, Astar.createHeuristicClosest());
+
+        long total = 0L;
+        Path path = null;
+        for (int i = 0; i < WARMUP + SEARCHES; i++)
+        {
+            final long start = System.nanoTime();
+            path = finder.findPath(mover, SIZE - 1, SIZE - 1, true);
+            if (i >= WARMUP)
+            {
+                total += System.nanoTime() - start;
+            }
+        }
+        Assert.assertNotNull(path);
+
+        final double cost = total / (double) SEARCHES / NANO_TO_MILLI;
+        Verbose.info(String.format(Locale.ENGLISH,
+                                   "%-5s %dx%d: %10.3f ms/search (path length %d)",
+                                   name,
+                                   Integer.valueOf(SIZE),
+                                   Integer.valueOf(SIZE),
+                                   Double.valueOf(cost),
+                                   Integer.valueOf(path.getLength())));
+    }
+
+    /**
+     * Benchmark corner to corner searches.
+     */
+    @Test
+    public void testBenchmark()
+    {
+        final Services services = new Services();
+        services.add(new Camera());
+        final MapTile open = UtilPathfinding.createMap(services, SIZE, SIZE);
+        UtilPathfinding.loadPathfinding(open);
+        measure("Open", services, open);
+
+        final Services servicesMaze = new Services();
+        servicesMaze.add(new Camera());
+        measure("Maze", servicesMaze, createMaze(servicesMaze, SIZE, WALL));
+    }
+
+    /**
+     * Benchmark a move order given to many units at once, searched immediately, and searched by a batch.
+     */
+    @Test
+    public void testBatch()
+    {
+        final Services services = new Services();
+        services.add(new Camera());
+        final MapTile map = createMaze(services, SIZE, WALL);
+        final List<Pathfindable> movers = new ArrayList<Pathfindable>();
+        for (int i = 0; i < UNITS; i++)
+        {
+            movers.add(UtilPathfinding.createMover(services, i % WALL, i / WALL));
+        }
+
+        final PathFinder finder = Astar.createPathFinder(map, SIZE * SIZE, Astar.createHeuristicClosest());
+        final long start = System.nanoTime();
+        for (final Pathfindable mover : movers)
+        {
+            Assert.assertNotNull(finder.findPath(mover, SIZE - 1, SIZE - 1, true));
+        }
+        final double serial = (System.nanoTime() - start) / NANO_TO_MILLI;
+
+        final int threads = Runtime.getRuntime().availableProcessors();
+        final PathFinderBatch batch = Astar.createPathFinderBatch(map,
+                                                                  SIZE * SIZE,
+                                                                  Astar.createHeuristicClosest(),
+                                                                  threads,
+                                                                  BUDGET);
+        for (final Pathfindable mover : movers)
+        {
+            mover.setPathFinderBatch(batch);
+            mover.setDestination(SIZE - 1, SIZE - 1);
+        }
+        int frames = 0;
+        long worst = 0L;
+        long total = 0L;
+        while (batch.getPending() > 0)
+        {
+            final long frame = System.nanoTime();
+            batch.update(1.0);
+            final long elapsed = System.nanoTime() - frame;
+            worst = Math.max(worst, elapsed);
+            total += elapsed;
+            frames++;
+        }
+        batch.terminate();
+
+        Verbose.info(String.format(Locale.ENGLISH,
+                                   "%d units, immediate: %10.3f ms in one frame",
+                                   Integer.valueOf(UNITS),
+                                   Double.valueOf(serial)));
+        Verbose.info(String.format(Locale.ENGLISH,
+                                   "%d units, batch (%d threads, %.1f ms budget): %d frames, %.3f ms/frame (max %.3f)",
+                                   Integer.valueOf(UNITS),
+                                   Integer.valueOf(threads),
+                                   Double.valueOf(BUDGET),
+                                   Integer.valueOf(frames),
+                                   Double.valueOf(total / (double) frames / NANO_TO_MILLI),
+                                   Double.valueOf(worst / NANO_TO_MILLI)));
+    }
+
+    /**
+     * Measure a search time in milliseconds.
+     * 
+     * @param finder The path finder.
+     * @param mover The mover.
+     * @return The search time.
+     */
+    private static double measure(PathFinder finder, Pathfindable mover)
+    {
+        final long start = System.nanoTime();
+        final Path path = finder.findPath(mover, LARGE - 1, LARGE - 1, true);
+        final double time = (System.nanoTime() - start) / NANO_TO_MILLI;
+        Assert.assertNotNull(path);
+        Verbose.info(String.format(Locale.ENGLISH, "  path length %d", Integer.valueOf(path.getLength())));
+        return time;
+    }
+
+    /**
+     * Benchmark corner to corner search on a large maze, with flat and hierarchical search.
+     */
+    @Test
+    public void testHierarchy()
+    {
+        final Services services = new Services();
+        services.add(new Camera());
+        final MapTile map = createMaze(services, LARGE, LARGE_WALL);
+        final Pathfindable mover = UtilPathfinding.createMover(services, 0, 0);
+        final PathFinder flat = Astar.createPathFinder(map, LARGE * LARGE, Astar.createHeuristicClosest());
+
+        final MapTilePathHierarchy hierarchy = map.addFeatureAndGet(new MapTilePathHierarchyModel());
+        hierarchy.prepare(map, services);
+        final PathFinder hierarchical = Astar.createPathFinder(map, LARGE * LARGE, Astar.createHeuristicClosest());
+
+        final double flatTime = measure(flat, mover);
+        final double buildTime = measure(hierarchical, mover);
+        final double searchTime = measure(hierarchical, mover);
+        hierarchy.invalidate(LARGE / 2, LARGE / 2);
+        final double rebuildTime = measure(hierarchical, mover);
+
+        Verbose.info(String.format(Locale.ENGLISH,
+                                   "Maze %dx%d flat: %.3f ms, hierarchical: %.3f ms (first with graph build %.3f ms, "
+                                                   + "after cluster invalidation %.3f ms)",
+                                   Integer.valueOf(LARGE),
+                                   Integer.valueOf(LARGE),
+                                   Double.valueOf(flatTime),
+                                   Double.valueOf(searchTime),
+                                   Double.valueOf(buildTime),
+                                   Double.valueOf(rebuildTime)));
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright (C) 2013-2016 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.raster;
+
+import java.util.Arrays;
+
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.b3dgs.lionengine.Constant;
+import com.b3dgs.lionengine.Media;
+import com.b3dgs.lionengine.core.Graphics;
+import com.b3dgs.lionengine.core.Medias;
+import com.b3dgs.lionengine.drawable.Drawable;
+import com.b3dgs.lionengine.drawable.SpriteTiled;
+import com.b3dgs.lionengine.game.feature.Services;
+import com.b3dgs.lionengine.game.map.MapTile;
+import com.b3dgs.lionengine.game.map.MapTileGame;
+import com.b3dgs.lionengine.game.tile.Tile;
+import com.b3dgs.lionengine.graphic.Graphic;
+import com.b3dgs.lionengine.graphic.ImageBuffer;
+import com.b3dgs.lionengine.graphic.Transparency;
+import com.b3dgs.lionengine.mock.FactoryGraphicMock;
+
+/**
+ * Test the map tile rastered model class.
+ */
+public class MapTileRasteredModelTest
+{
+    /** Raster configuration. */
+    private static Media raster;
+    /** Atlas layout. */
+    private static Media layout;
+
+    /**
+     * Prepare test.
+     */
+    @BeforeClass
+    public static void setUp()
+    {
+        Graphics.setFactoryGraphic(new FactoryGraphicMock());
+        Medias.setLoadFromJar(MapTileRasteredModelTest.class);
+        raster = Medias.create("raster.xml");
+        Medias.setLoadFromJar(null);
+        Medias.setResourcesDirectory(System.getProperty("java.io.tmpdir"));
+        layout = Medias.create("raster_atlas.xml");
+    }
+
+    /**
+     * Clean up test.
+     */
+    @AfterClass
+    public static void cleanUp()
+    {
+        if (layout.exists())
+        {
+            Assert.assertTrue(layout.getFile().delete());
+        }
+        Medias.setResourcesDirectory(Constant.EMPTY_STRING);
+        Graphics.setFactoryGraphic(null);
+    }
+
+    /**
+     * Create a map.
+     * 
+     * @param services The services reference.
+     * @return The created map.
+     */
+    private static MapTile createMap(Services services)
+    {
+        final MapTile map = services.create(MapTileGame.class);
+        map.create(16, 16, 4, 4);
+        final ImageBuffer sheet = Graphics.createImageBuffer(32, 32, Transparency.OPAQUE);
+        map.loadSheets(Arrays.asList(Drawable.loadSpriteTiled(sheet, 16, 16)));
+        return map;
+    }
+
+    /**
+     * Create a rastered map.
+     * 
+     * @param smooth <code>true</code> for smoothed raster, <code>false</code> else.
+     * @param atlas <code>true</code> to pack rasters in atlas, <code>false</code> else.
+     * @return The rastered map.
+     */
+    private static MapTileRastered createRastered(boolean smooth, boolean atlas)
+    {
+        final Services services = new Services();
+        final MapTile map = createMap(services);
+        final MapTileRastered rastered = map.addFeatureAndGet(new MapTileRasteredModel());
+        map.prepareFeatures(services);
+        if (atlas)
+        {
+            rastered.loadSheets(raster, smooth, layout);
+        }
+        else
+        {
+            rastered.loadSheets(raster, smooth);
+        }
+        return rastered;
+    }
+
+    /**
+     * Test rasters loading with and without atlas.
+     */
+    @Test
+    public void testLoadSheets()
+    {
+        final Integer sheet = Integer.valueOf(0);
+        final MapTileRastered direct = createRastered(false, false);
+        final MapTileRastered packed = createRastered(false, true);
+
+        Assert.assertTrue(layout.exists());
+
+        for (int i = 0; i < Rasterable.MAX_RASTERS; i++)
+        {
+            final SpriteTiled directRaster = direct.getRasterSheet(sheet, i);
+            final SpriteTiled packedRaster = packed.getRasterSheet(sheet, i);
+
+            Assert.assertEquals(directRaster.getWidth(), packedRaster.getWidth());
+            Assert.assertEquals(directRaster.getHeight(), packedRaster.getHeight());
+            Assert.assertEquals(directRaster.getTilesHorizontal(), packedRaster.getTilesHorizontal());
+            Assert.assertEquals(directRaster.getTilesVertical(), packedRaster.getTilesVertical());
+            Assert.assertSame(packed.getRasterSheet(sheet, 0).getSurface(), packedRaster.getSurface());
+        }
+
+        final MapTileRastered smooth = createRastered(true, true);
+        for (int i = 0; i < Rasterable.MAX_RASTERS_R; i++)
+        {
+            Assert.assertSame(smooth.getRasterSheet(sheet, 0).getSurface(),
+                              smooth.getRasterSheet(sheet, i).getSurface());
+        }
+    }
+
+    /**
+     * Test lazy rasters, built per tile on rendering and per sheet on request.
+     */
+    @Test
+    public void testLoadSheetsLazy()
+    {
+        final Services services = new Services();
+        final MapTile map = createMap(services);
+        final MapTileRastered rastered = map.addFeatureAndGet(new MapTileRasteredModel());
+        map.prepareFeatures(services);
+        rastered.loadSheets(raster, true, 8);
+
+        final Graphic g = Graphics.createGraphic();
+        final Tile tile = map.createTile(Integer.valueOf(0), 3, 16.0, 16.0);
+        rastered.renderTile(g, map, tile, 0, 0);
+
+        final Integer sheet = Integer.valueOf(0);
+        final SpriteTiled rasterSheet = rastered.getRasterSheet(sheet, 1);
+
+        Assert.assertSame(rasterSheet, rastered.getRasterSheet(sheet, 1));
+        Assert.assertNotSame(rasterSheet, rastered.getRasterSheet(sheet, 2));
+        Assert.assertEquals(32, rasterSheet.getWidth());
+        Assert.assertEquals(2, rasterSheet.getTilesHorizontal());
+
+        rastered.loadSheets(raster, false);
+
+        Assert.assertNotSame(rasterSheet, rastered.getRasterSheet(sheet, 1));
+        rastered.renderTile(g, map, tile, 0, 0);
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright (C) 2013-2016 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.raster;
+
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.b3dgs.lionengine.core.Graphics;
+import com.b3dgs.lionengine.core.Medias;
+import com.b3dgs.lionengine.drawable.Drawable;
+import com.b3dgs.lionengine.drawable.SpriteTiled;
+import com.b3dgs.lionengine.graphic.ImageBuffer;
+import com.b3dgs.lionengine.graphic.Raster;
+import com.b3dgs.lionengine.graphic.Transparency;
+import com.b3dgs.lionengine.graphic.UtilColor;
+import com.b3dgs.lionengine.mock.FactoryGraphicMock;
+
+/**
+ * Test the raster cache class.
+ */
+public class RasterCacheTest
+{
+    /** Raster data. */
+    private static Raster raster;
+
+    /**
+     * Prepare test.
+     */
+    @BeforeClass
+    public static void setUp()
+    {
+        Graphics.setFactoryGraphic(new FactoryGraphicMock());
+        Medias.setLoadFromJar(RasterCacheTest.class);
+        raster = Raster.load(Medias.create("raster.xml"));
+    }
+
+    /**
+     * Clean up test.
+     */
+    @AfterClass
+    public static void cleanUp()
+    {
+        Medias.setLoadFromJar(null);
+        Graphics.setFactoryGraphic(null);
+    }
+
+    /**
+     * Create a sheet with a different color per pixel.
+     * 
+     * @return The created sheet.
+     */
+    private static SpriteTiled createSheet()
+    {
+        final ImageBuffer surface = Graphics.createImageBuffer(8, 8, Transparency.OPAQUE);
+        for (int x = 0; x < 8; x++)
+        {
+            for (int y = 0; y < 8; y++)
+            {
+                surface.setRgb(x, y, 0xFF101010 + x * 8 + y);
+            }
+        }
+        return Drawable.loadSpriteTiled(surface, 4, 4);
+    }
+
+    /**
+     * Create a cache with all shades.
+     * 
+     * @param max The maximum cached tiles.
+     * @return The created cache.
+     */
+    private static RasterCache createCache(int max)
+    {
+        final RasterCache cache = new RasterCache(max, 4);
+        for (int m = 0; m < 2; m++)
+        {
+            for (int i = 1; i <= Rasterable.MAX_RASTERS; i++)
+            {
+                cache.addShade(RasterColor.load(raster.getRed(), m, i, true),
+                               RasterColor.load(raster.getGreen(), m, i, true),
+                               RasterColor.load(raster.getBlue(), m, i, true));
+            }
+        }
+        return cache;
+    }
+
+    /**
+     * Test the tile built from sheet pixels.
+     */
+    @Test
+    public void testBuild()
+    {
+        final SpriteTiled sheet = createSheet();
+        final RasterCache cache = createCache(4);
+        final RasterColor red = RasterColor.load(raster.getRed(), 0, 1, true);
+        final RasterColor green = RasterColor.load(raster.getGreen(), 0, 1, true);
+        final RasterColor blue = RasterColor.load(raster.getBlue(), 0, 1, true);
+        final int[] expected = new int[4 * 4];
+        sheet.getSurface().getRgb(4, 4, 4, 4, expected, 0, 4);
+        RasterCache.shade(expected, 4, 4, 4, 4, new RasterCache.Shade(red, green, blue));
+
+        final ImageBuffer tile = cache.get(0, sheet, 3, 0);
+
+        Assert.assertEquals(4, tile.getWidth());
+        Assert.assertEquals(4, tile.getHeight());
+        for (int y = 0; y < 4; y++)
+        {
+            for (int x = 0; x < 4; x++)
+            {
+                Assert.assertEquals(expected[x + y * 4], tile.getRgb(x, y));
+            }
+        }
+        final int first = sheet.getSurface().getRgb(4, 4);
+        Assert.assertEquals(UtilColor.filterRgb(first, red.getStart(), green.getStart(), blue.getStart()),
+                            tile.getRgb(0, 0));
+
+        final ImageBuffer full = cache.buildSheet(sheet, 0);
+        Assert.assertEquals(tile.getRgb(0, 0), full.getRgb(4, 4));
+        Assert.assertEquals(tile.getRgb(3, 3), full.getRgb(7, 7));
+    }
+
+    /**
+     * Test the least recently used eviction.
+     */
+    @Test
+    public void testEviction()
+    {
+        final SpriteTiled sheet = createSheet();
+        final RasterCache cache = createCache(2);
+
+        final ImageBuffer tile0 = cache.get(0, sheet, 0, 0);
+        final ImageBuffer tile1 = cache.get(0, sheet, 1, 0);
+
+        Assert.assertSame(tile0, cache.get(0, sheet, 0, 0));
+        Assert.assertEquals(2, cache.getBuilt());
+
+        cache.get(0, sheet, 2, 0);
+
+        Assert.assertEquals(2, cache.getSize());
+        Assert.assertEquals(3, cache.getBuilt());
+        Assert.assertSame(tile0, cache.get(0, sheet, 0, 0));
+        Assert.assertNotSame(tile1, cache.get(0, sheet, 1, 0));
+        Assert.assertEquals(4, cache.getBuilt());
+        Assert.assertNotSame(cache.get(0, sheet, 1, 0), cache.get(0, sheet, 1, 1));
+        Assert.assertNotSame(cache.get(1, sheet, 1, 1), cache.get(0, sheet, 1, 1));
+
+        cache.clear();
+
+        Assert.assertEquals(0, cache.getSize());
+    }
+}
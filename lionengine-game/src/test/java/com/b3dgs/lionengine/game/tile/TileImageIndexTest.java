@@ -0,0 +1,121 @@
+/*
+ * Copyright (C) 2013-2016 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.tile;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.graphic.ColorRgba;
+import com.b3dgs.lionengine.graphic.ImageBuffer;
+import com.b3dgs.lionengine.graphic.Transparency;
+import com.b3dgs.lionengine.mock.ImageBufferMock;
+
+/**
+ * Test the tile image index.
+ */
+public class TileImageIndexTest
+{
+    private final TileImageIndex<String> index = new TileImageIndex<String>(2, 1);
+
+    /**
+     * Test creation with wrong tile size.
+     */
+    @Test(expected = LionEngineException.class)
+    public void testWrongSize()
+    {
+        Assert.assertNotNull(new TileImageIndex<String>(0, 1));
+    }
+
+    /**
+     * Test add and get.
+     */
+    @Test
+    public void testAddGet()
+    {
+        Assert.assertNull(index.get(new int[]
+        {
+            1, 2
+        }));
+        Assert.assertTrue(index.add(new int[]
+        {
+            1, 2
+        }, "a"));
+        Assert.assertFalse(index.add(new int[]
+        {
+            1, 2
+        }, "b"));
+
+        Assert.assertEquals(1, index.size());
+        Assert.assertEquals("a", index.get(new int[]
+        {
+            1, 2
+        }));
+        Assert.assertNull(index.get(new int[]
+        {
+            2, 1
+        }));
+    }
+
+    /**
+     * Test tiles with same hash are fully compared.
+     */
+    @Test
+    public void testCollision()
+    {
+        index.add(new int[]
+        {
+            0, 31
+        }, "a");
+        index.add(new int[]
+        {
+            1, 0
+        }, "b");
+
+        Assert.assertEquals(2, index.size());
+        Assert.assertEquals("a", index.get(new int[]
+        {
+            0, 31
+        }));
+        Assert.assertEquals("b", index.get(new int[]
+        {
+            1, 0
+        }));
+    }
+
+    /**
+     * Test read normalize opaque and transparent pixels, as tiles comparison.
+     */
+    @Test
+    public void testRead()
+    {
+        final ImageBuffer transparent = new ImageBufferMock(2, 1, Transparency.TRANSLUCENT);
+        transparent.setRgb(0, 0, ColorRgba.TRANSPARENT.getRgba());
+        transparent.setRgb(1, 0, ColorRgba.RED.getRgba());
+        final ImageBuffer opaque = new ImageBufferMock(2, 1, Transparency.TRANSLUCENT);
+        opaque.setRgb(0, 0, ColorRgba.OPAQUE.getRgba());
+        opaque.setRgb(1, 0, ColorRgba.RED.getRgba());
+
+        Assert.assertTrue(TilesExtractor.compareTile(2, 1, transparent, 0, 0, opaque, 0, 0));
+
+        final int[] pixels = index.createBuffer();
+        index.add(index.read(transparent, 0, 0, pixels), "transparent");
+
+        Assert.assertEquals("transparent", index.get(index.read(opaque, 0, 0, pixels)));
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (C) 2013-2016 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.network;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import com.b3dgs.lionengine.Check;
+
+/**
+ * Pool of direct byte buffers of same capacity, reused by connections instead of being allocated for each one.
+ * <p>
+ * This class is not Thread-Safe.
+ * </p>
+ */
+final class BufferPool
+{
+    /** Free buffers. */
+    private final Deque<ByteBuffer> free = new ArrayDeque<ByteBuffer>();
+    /** Buffers capacity. */
+    private final int capacity;
+
+    /**
+     * Internal constructor.
+     * 
+     * @param capacity The buffers capacity in bytes (must be strictly positive).
+     * @throws com.b3dgs.lionengine.LionEngineException If invalid capacity.
+     */
+    BufferPool(int capacity)
+    {
+        Check.superiorStrict(capacity, 0);
+
+        this.capacity = capacity;
+    }
+
+    /**
+     * Get a cleared buffer, reused if available, else allocated.
+     * 
+     * @return The buffer.
+     */
+    ByteBuffer acquire()
+    {
+        final ByteBuffer buffer = free.poll();
+        if (buffer == null)
+        {
+            return ByteBuffer.allocateDirect(capacity);
+        }
+        buffer.clear();
+        return buffer;
+    }
+
+    /**
+     * Give back a buffer to the pool. Must not be used anymore by the caller.
+     * 
+     * @param buffer The buffer to release.
+     */
+    void release(ByteBuffer buffer)
+    {
+        free.push(buffer);
+    }
+
+    /**
+     * Get the buffers capacity.
+     * 
+     * @return The buffers capacity in bytes.
+     */
+    int getCapacity()
+    {
+        return capacity;
+    }
+
+    /**
+     * Get the number of free buffers.
+     * 
+     * @return The free buffers number.
+     */
+    int getFree()
+    {
+        return free.size();
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (C) 2013-2016 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.network;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Input stream reading the remaining bytes of a byte buffer, which can be changed to read another one without creating
+ * a new stream.
+ * <p>
+ * This class is not Thread-Safe.
+ * </p>
+ */
+final class ByteBufferInputStream extends InputStream
+{
+    /** Byte mask. */
+    private static final int MASK = 0xFF;
+
+    /** Current buffer. */
+    private ByteBuffer buffer;
+
+    /**
+     * Internal constructor.
+     */
+    ByteBufferInputStream()
+    {
+        super();
+    }
+
+    /**
+     * Set the buffer to read, from its position to its limit.
+     * 
+     * @param buffer The buffer to read.
+     */
+    void set(ByteBuffer buffer)
+    {
+        this.buffer = buffer;
+    }
+
+    /*
+     * InputStream
+     */
+
+    @Override
+    public int read()
+    {
+        if (!buffer.hasRemaining())
+        {
+            return -1;
+        }
+        return buffer.get() & MASK;
+    }
+
+    @Override
+    public int read(byte[] data, int offset, int length)
+    {
+        if (!buffer.hasRemaining())
+        {
+            return -1;
+        }
+        final int read = Math.min(length, buffer.remaining());
+        buffer.get(data, offset, read);
+        return read;
+    }
+
+    @Override
+    public int available()
+    {
+        return buffer.remaining();
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright (C) 2013-2016 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.network;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+
+/**
+ * Server channel selector, accepting non blocking client channels and polling their readiness without blocking.
+ * <p>
+ * This class is not Thread-Safe.
+ * </p>
+ */
+final class ChannelSelector
+{
+    /** Selector. */
+    private Selector selector;
+    /** Server channel. */
+    private ServerSocketChannel serverChannel;
+
+    /**
+     * Internal constructor.
+     */
+    ChannelSelector()
+    {
+        super();
+    }
+
+    /**
+     * Open the selector and bind the server channel.
+     * 
+     * @param port The server port.
+     * @throws IOException If unable to bind.
+     */
+    void open(int port) throws IOException
+    {
+        selector = Selector.open();
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.configureBlocking(false);
+        serverChannel.socket().bind(new InetSocketAddress(port));
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+    }
+
+    /**
+     * Accept the next pending client channel, configured as non blocking and without delay.
+     * 
+     * @return The client channel, <code>null</code> if none pending.
+     * @throws IOException If error on accepting.
+     */
+    SocketChannel accept() throws IOException
+    {
+        final SocketChannel channel = serverChannel.accept();
+        if (channel != null)
+        {
+            channel.configureBlocking(false);
+            channel.socket().setTcpNoDelay(true);
+        }
+        return channel;
+    }
+
+    /**
+     * Register a client channel for reading.
+     * 
+     * @param channel The client channel.
+     * @param client The client attached to the selection key.
+     * @return The selection key.
+     * @throws IOException If channel is closed.
+     */
+    SelectionKey register(SocketChannel channel, ClientConnection client) throws IOException
+    {
+        return channel.register(selector, SelectionKey.OP_READ, client);
+    }
+
+    /**
+     * Poll the ready keys without blocking. Keys must be removed from the iterator once handled.
+     * 
+     * @return The ready keys.
+     * @throws IOException If error on polling.
+     */
+    Iterator<SelectionKey> select() throws IOException
+    {
+        selector.selectNow();
+        return selector.selectedKeys().iterator();
+    }
+
+    /**
+     * Close the server channel and the selector.
+     * 
+     * @throws IOException If error on closing.
+     */
+    void close() throws IOException
+    {
+        serverChannel.close();
+        selector.close();
+    }
+}
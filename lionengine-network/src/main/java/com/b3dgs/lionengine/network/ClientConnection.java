@@ -0,0 +1,154 @@
+/*
+ * Copyright (C) 2013-2016 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.network;
+
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+
+/**
+ * Client connection on a non blocking server (bridge between server and client).
+ */
+final class ClientConnection
+{
+    /** Framed channel. */
+    private final FramedChannel channel;
+    /** Client id. */
+    private final byte clientId;
+    /** Selection key. */
+    private SelectionKey key;
+    /** State. */
+    private StateConnection state;
+    /** Name. */
+    private String name;
+
+    /**
+     * Internal constructor.
+     * 
+     * @param id The client id.
+     * @param channel The non blocking channel.
+     * @param pool The buffers pool.
+     */
+    ClientConnection(byte id, SocketChannel channel, BufferPool pool)
+    {
+        clientId = id;
+        this.channel = new FramedChannel(channel, pool);
+    }
+
+    /**
+     * Set the selection key.
+     * 
+     * @param key The selection key.
+     */
+    void setKey(SelectionKey key)
+    {
+        this.key = key;
+    }
+
+    /**
+     * Update the selection interest depending of data waiting to be written.
+     * 
+     * @param writing <code>true</code> to be notified when writing is possible, <code>false</code> else.
+     */
+    void setWriting(boolean writing)
+    {
+        if (key.isValid())
+        {
+            if (writing)
+            {
+                key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+            }
+            else
+            {
+                key.interestOps(SelectionKey.OP_READ);
+            }
+        }
+    }
+
+    /**
+     * Set the connection state.
+     * 
+     * @param state The connection state.
+     */
+    void setState(StateConnection state)
+    {
+        this.state = state;
+    }
+
+    /**
+     * Set the client name.
+     * 
+     * @param name The client name.
+     */
+    void setName(String name)
+    {
+        this.name = name;
+    }
+
+    /**
+     * Terminate client.
+     */
+    void terminate()
+    {
+        if (key != null)
+        {
+            key.cancel();
+        }
+        channel.close();
+        state = StateConnection.DISCONNECTED;
+    }
+
+    /**
+     * Get the framed channel.
+     * 
+     * @return The framed channel.
+     */
+    FramedChannel getChannel()
+    {
+        return channel;
+    }
+
+    /**
+     * Get the current connection state.
+     * 
+     * @return The connection state.
+     */
+    StateConnection getState()
+    {
+        return state;
+    }
+
+    /**
+     * Get the client name.
+     * 
+     * @return The client name.
+     */
+    String getName()
+    {
+        return name;
+    }
+
+    /**
+     * Get the client id.
+     * 
+     * @return The client id.
+     */
+    byte getId()
+    {
+        return clientId;
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (C) 2013-2016 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.network;
+
+/**
+ * Client connection on a datagram server (bridge between server and client).
+ */
+final class ClientDatagram
+{
+    /** Datagram reliability. */
+    private final DatagramPeer peer;
+    /** Client id. */
+    private final byte clientId;
+    /** State. */
+    private StateConnection state;
+    /** Name. */
+    private String name;
+
+    /**
+     * Internal constructor.
+     * 
+     * @param id The client id.
+     * @param peer The datagram reliability.
+     */
+    ClientDatagram(byte id, DatagramPeer peer)
+    {
+        clientId = id;
+        this.peer = peer;
+    }
+
+    /**
+     * Set the client name.
+     * 
+     * @param name The client name.
+     */
+    void setName(String name)
+    {
+        this.name = name;
+    }
+
+    /**
+     * Set the current client state.
+     * 
+     * @param state The current client state.
+     */
+    void setState(StateConnection state)
+    {
+        this.state = state;
+    }
+
+    /**
+     * Get the datagram reliability.
+     * 
+     * @return The datagram reliability.
+     */
+    DatagramPeer getPeer()
+    {
+        return peer;
+    }
+
+    /**
+     * Get the client id.
+     * 
+     * @return The client id.
+     */
+    byte getId()
+    {
+        return clientId;
+    }
+
+    /**
+     * Get the client name.
+     * 
+     * @return The client name.
+     */
+    String getName()
+    {
+        return name;
+    }
+
+    /**
+     * Get the current client state.
+     * 
+     * @return The current client state.
+     */
+    StateConnection getState()
+    {
+        return state;
+    }
+}
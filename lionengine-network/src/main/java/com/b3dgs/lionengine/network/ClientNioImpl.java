@@ -0,0 +1,503 @@
+/*
+ * Copyright (C) 2013-2016 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.network;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.Constant;
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.Timing;
+import com.b3dgs.lionengine.Verbose;
+import com.b3dgs.lionengine.network.message.NetworkMessage;
+import com.b3dgs.lionengine.network.message.NetworkMessageDecoder;
+
+/**
+ * Client implementation on a non blocking channel, with length prefixed frames (to be used with {@link ServerNioImpl}).
+ * <p>
+ * Each call to {@link #receiveMessages()} reads all available frames, and each call to {@link #sendMessages()} writes
+ * all messages together.
+ * </p>
+ */
+final class ClientNioImpl extends NetworkModel<ConnectionListener> implements Client
+{
+    /** Connection buffers size, which is also the maximum frame size. */
+    private static final int BUFFER_SIZE = ServerNioImpl.BUFFER_SIZE;
+    /** Ping period in milli. */
+    private static final long PING_MILLI = 1000L;
+    /** Bandwidth period in milli. */
+    private static final long BANDWIDTH_MILLI = 1000L;
+    /** User message header size. */
+    private static final int HEADER_SIZE = 8;
+
+    /**
+     * Read a string with its size.
+     * 
+     * @param in The input frame.
+     * @return The read string.
+     * @throws IOException In case of error.
+     */
+    private static String readString(DataInputStream in) throws IOException
+    {
+        final byte[] data = new byte[in.readByte()];
+        in.readFully(data);
+        return new String(data, NetworkMessage.CHARSET);
+    }
+
+    /** Ping timer. */
+    private final Timing pingTimer = new Timing();
+    /** Ping request timer. */
+    private final Timing pingRequestTimer = new Timing();
+    /** Average bandwidth. */
+    private final Timing bandwidthTimer = new Timing();
+    /** Connection buffers. */
+    private final BufferPool pool = new BufferPool(BUFFER_SIZE);
+    /** Frame encoder. */
+    private final FrameEncoder encoder = new FrameEncoder(BUFFER_SIZE);
+    /** Frame input. */
+    private final FrameInput input = new FrameInput();
+    /** Frame reader. */
+    private final DataInputStream in = input.getReader();
+    /** Framed channel. */
+    private FramedChannel channel;
+    /** Client id. */
+    private byte clientId = -1;
+    /** Client name. */
+    private String clientName;
+    /** Connected flag. */
+    private boolean connected;
+    /** Ping. */
+    private int ping;
+    /** Bandwidth size. */
+    private int bandwidth;
+    /** Bandwidth per second. */
+    private int bandwidthPerSecond;
+
+    /**
+     * Internal constructor.
+     * 
+     * @param decoder The message decoder.
+     */
+    ClientNioImpl(NetworkMessageDecoder decoder)
+    {
+        super(decoder);
+    }
+
+    /**
+     * Terminate connection.
+     */
+    private void kick()
+    {
+        if (!connected)
+        {
+            return;
+        }
+        messagesIn.clear();
+        messagesOut.clear();
+        channel.close();
+        for (final ConnectionListener listener : listeners)
+        {
+            listener.notifyConnectionTerminated(Byte.valueOf(getId()));
+        }
+        listeners.clear();
+        connected = false;
+        Verbose.info("Disconnected from the server !");
+    }
+
+    /**
+     * Add the current frame to the frames to send.
+     * 
+     * @throws IOException If frame is too large.
+     */
+    private void send() throws IOException
+    {
+        channel.write(encoder.end());
+    }
+
+    /**
+     * Send the pending frames.
+     * 
+     * @throws IOException If error on writing.
+     */
+    private void flush() throws IOException
+    {
+        if (channel.hasPending())
+        {
+            channel.flush();
+        }
+    }
+
+    /**
+     * Update the message from its id.
+     * 
+     * @param messageSystemId The message system ID.
+     * @throws IOException If error when reading or writing data.
+     */
+    private void updateMessage(byte messageSystemId) throws IOException
+    {
+        switch (messageSystemId)
+        {
+            case NetworkMessageSystemId.CONNECTING:
+                updateConnecting();
+                break;
+            case NetworkMessageSystemId.CONNECTED:
+                updateConnected();
+                break;
+            case NetworkMessageSystemId.PING:
+                ping = (int) pingTimer.elapsed();
+                break;
+            case NetworkMessageSystemId.KICKED:
+                kick();
+                break;
+            case NetworkMessageSystemId.OTHER_CLIENT_CONNECTED:
+                updateOtherClient(messageSystemId);
+                break;
+            case NetworkMessageSystemId.OTHER_CLIENT_DISCONNECTED:
+                updateOtherClient(messageSystemId);
+                break;
+            case NetworkMessageSystemId.OTHER_CLIENT_RENAMED:
+                updateOtherClient(messageSystemId);
+                break;
+            case NetworkMessageSystemId.USER_MESSAGE:
+                updateUserMessage();
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Update the connecting case.
+     * 
+     * @throws IOException If error when writing data.
+     */
+    private void updateConnecting() throws IOException
+    {
+        if (clientId == -1)
+        {
+            clientId = in.readByte();
+            final DataOutputStream out = encoder.begin();
+            out.writeByte(NetworkMessageSystemId.CONNECTING);
+            out.writeByte(clientId);
+            final byte[] data = clientName.getBytes(NetworkMessage.CHARSET);
+            out.writeByte(data.length);
+            out.write(data);
+            send();
+            Verbose.info("Client: Performing connection to the server...");
+        }
+    }
+
+    /**
+     * Update the connected case.
+     *
+     * @throws IOException If error when reading or writing data.
+     */
+    private void updateConnected() throws IOException
+    {
+        if (in.readByte() != clientId)
+        {
+            return;
+        }
+        for (final ConnectionListener listener : listeners)
+        {
+            listener.notifyConnectionEstablished(Byte.valueOf(clientId), clientName);
+        }
+        final int clientsNumber = in.readByte();
+        for (int i = 0; i < clientsNumber; i++)
+        {
+            final byte cid = in.readByte();
+            final String cname = readString(in);
+            for (final ConnectionListener listener : listeners)
+            {
+                listener.notifyClientConnected(Byte.valueOf(cid), cname);
+            }
+        }
+        if (in.available() > 0)
+        {
+            final String motd = readString(in);
+            for (final ConnectionListener listener : listeners)
+            {
+                listener.notifyMessageOfTheDay(motd);
+            }
+        }
+        final DataOutputStream out = encoder.begin();
+        out.writeByte(NetworkMessageSystemId.CONNECTED);
+        out.writeByte(clientId);
+        send();
+        Verbose.info("Client: Connected to the server !");
+    }
+
+    /**
+     * Update the other client cases.
+     * 
+     * @param messageSystemId The message system ID.
+     * @throws IOException If error when reading data.
+     */
+    private void updateOtherClient(byte messageSystemId) throws IOException
+    {
+        final Byte cid = Byte.valueOf(in.readByte());
+        final String cname = readString(in);
+        for (final ConnectionListener listener : listeners)
+        {
+            if (messageSystemId == NetworkMessageSystemId.OTHER_CLIENT_CONNECTED)
+            {
+                listener.notifyClientConnected(cid, cname);
+            }
+            else if (messageSystemId == NetworkMessageSystemId.OTHER_CLIENT_DISCONNECTED)
+            {
+                listener.notifyClientDisconnected(cid, cname);
+            }
+            else
+            {
+                listener.notifyClientNameChanged(cid, cname);
+            }
+        }
+    }
+
+    /**
+     * Update the user message case.
+     * 
+     * @throws IOException If error when reading data.
+     */
+    private void updateUserMessage() throws IOException
+    {
+        final byte from = in.readByte();
+        final byte dest = in.readByte();
+        final byte type = in.readByte();
+        final int size = in.readInt();
+        if (size > 0)
+        {
+            decodeMessage(type, from, dest, in);
+        }
+        bandwidth += HEADER_SIZE + size;
+    }
+
+    /**
+     * Add message to the frames to send.
+     * 
+     * @param message The message to send.
+     * @throws IOException If error when encoding.
+     */
+    private void sendMessage(NetworkMessage message) throws IOException
+    {
+        final byte[] encoded = message.encode().toByteArray();
+        final DataOutputStream out = encoder.begin();
+        out.writeByte(NetworkMessageSystemId.USER_MESSAGE);
+        out.writeByte(message.getClientId());
+        out.writeByte(message.getClientDestId());
+        out.writeByte(message.getType());
+        out.writeInt(encoded.length);
+        out.write(encoded);
+        send();
+        bandwidth += HEADER_SIZE + encoded.length;
+    }
+
+    /*
+     * Client
+     */
+
+    @Override
+    public void connect(String ip, int port)
+    {
+        Check.notNull(ip);
+        Check.superiorOrEqual(port, 0);
+        Check.inferiorOrEqual(port, Constant.MAX_PORT);
+
+        try
+        {
+            final SocketChannel socket = SocketChannel.open(new InetSocketAddress(InetAddress.getByName(ip), port));
+            socket.configureBlocking(false);
+            socket.socket().setTcpNoDelay(true);
+            channel = new FramedChannel(socket, pool);
+            connected = true;
+            clientId = -1;
+            pingRequestTimer.start();
+            bandwidthTimer.start();
+        }
+        catch (final IOException exception)
+        {
+            throw new LionEngineException(exception, "Cannot connect to the server !");
+        }
+    }
+
+    @Override
+    public boolean isConnected()
+    {
+        return connected;
+    }
+
+    @Override
+    public void setName(String name)
+    {
+        clientName = name;
+        if (!connected)
+        {
+            return;
+        }
+        try
+        {
+            final DataOutputStream out = encoder.begin();
+            out.writeByte(NetworkMessageSystemId.OTHER_CLIENT_RENAMED);
+            out.writeByte(clientId);
+            final byte[] data = clientName.getBytes(NetworkMessage.CHARSET);
+            out.writeByte(data.length);
+            out.write(data);
+            send();
+            flush();
+        }
+        catch (final IOException exception)
+        {
+            Verbose.exception(exception, "Unable to set a new client name !");
+        }
+    }
+
+    @Override
+    public String getName()
+    {
+        return clientName;
+    }
+
+    @Override
+    public int getPing()
+    {
+        return ping;
+    }
+
+    @Override
+    public int getBandwidth()
+    {
+        return bandwidthPerSecond;
+    }
+
+    @Override
+    public byte getId()
+    {
+        return clientId;
+    }
+
+    /*
+     * Networker
+     */
+
+    @Override
+    public void disconnect()
+    {
+        if (!connected)
+        {
+            return;
+        }
+        try
+        {
+            final DataOutputStream out = encoder.begin();
+            out.writeByte(NetworkMessageSystemId.OTHER_CLIENT_DISCONNECTED);
+            out.writeByte(clientId);
+            send();
+            flush();
+        }
+        catch (final IOException exception)
+        {
+            Verbose.exception(exception);
+        }
+        kick();
+    }
+
+    @Override
+    public void sendMessages()
+    {
+        if (!connected)
+        {
+            return;
+        }
+        try
+        {
+            if (pingRequestTimer.elapsed(PING_MILLI))
+            {
+                final DataOutputStream out = encoder.begin();
+                out.writeByte(NetworkMessageSystemId.PING);
+                out.writeByte(clientId);
+                send();
+                pingTimer.restart();
+                pingRequestTimer.restart();
+                bandwidth += 2;
+            }
+            for (final NetworkMessage message : messagesOut)
+            {
+                sendMessage(message);
+            }
+            flush();
+        }
+        catch (final IOException exception)
+        {
+            Verbose.exception(exception, "Unable to send the messages for client: ", String.valueOf(clientId));
+        }
+        if (bandwidthTimer.elapsed(BANDWIDTH_MILLI))
+        {
+            bandwidthPerSecond = bandwidth;
+            bandwidth = 0;
+            bandwidthTimer.restart();
+        }
+        messagesOut.clear();
+    }
+
+    @Override
+    public void receiveMessages()
+    {
+        if (!connected)
+        {
+            return;
+        }
+        messagesIn.clear();
+        try
+        {
+            int read;
+            do
+            {
+                read = channel.read();
+                ByteBuffer frame = channel.nextFrame();
+                while (frame != null && connected)
+                {
+                    input.set(frame);
+                    updateMessage(in.readByte());
+                    channel.endFrame();
+                    frame = channel.nextFrame();
+                }
+                channel.compact();
+            }
+            while (read > 0 && connected);
+
+            if (read < 0)
+            {
+                kick();
+            }
+            else if (connected)
+            {
+                flush();
+            }
+        }
+        catch (final IOException exception)
+        {
+            Verbose.exception(exception, "Unable to receive the messages for client: ", String.valueOf(clientId));
+        }
+    }
+}
@@ -17,6 +17,7 @@
  */
 package com.b3dgs.lionengine.network;
 
+import java.io.BufferedOutputStream;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
@@ -30,6 +31,9 @@ import com.b3dgs.lionengine.Verbose;
  */
 final class ClientSocket
 {
+    /** Output buffer size, holding all messages written during a tick. */
+    private static final int BUFFER_SIZE = 65536;
+
     /** Client socket. */
     private final Socket socket;
     /** Output stream. */
@@ -57,7 +61,8 @@ final class ClientSocket
         name = null;
         try
         {
-            out = new ObjectOutputStream(socket.getOutputStream());
+            out = new ObjectOutputStream(new BufferedOutputStream(socket.getOutputStream(), BUFFER_SIZE));
+            out.flush();
             in = new ObjectInputStream(socket.getInputStream());
         }
         catch (final IOException exception)
@@ -203,6 +208,21 @@ final class ClientSocket
         }
     }
 
+    /**
+     * Write all pending output data to the client.
+     */
+    public void flush()
+    {
+        try
+        {
+            out.flush();
+        }
+        catch (final IOException exception)
+        {
+            Verbose.exception(exception);
+        }
+    }
+
     /**
      * Get the output stream.
      * 
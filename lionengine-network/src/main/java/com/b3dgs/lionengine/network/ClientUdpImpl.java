@@ -0,0 +1,547 @@
+/*
+ * Copyright (C) 2013-2016 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.network;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.Constant;
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.Timing;
+import com.b3dgs.lionengine.Verbose;
+import com.b3dgs.lionengine.network.message.Delivery;
+import com.b3dgs.lionengine.network.message.NetworkMessage;
+import com.b3dgs.lionengine.network.message.NetworkMessageDecoder;
+
+/**
+ * Client implementation on a non blocking datagram channel, with sequenced and acknowledged datagrams (to be used with
+ * {@link ServerUdpImpl}).
+ * <p>
+ * User messages are sent following their {@link NetworkMessage#getDelivery()}, system messages are reliable and
+ * ordered, except ping. Connection is terminated when nothing is received from the server for too long.
+ * </p>
+ */
+final class ClientUdpImpl extends NetworkModel<ConnectionListener> implements Client
+{
+    /** Ping period in milli. */
+    private static final long PING_MILLI = 1000L;
+    /** Bandwidth period in milli. */
+    private static final long BANDWIDTH_MILLI = 1000L;
+
+    /**
+     * Read a string with its size.
+     * 
+     * @param in The input frame.
+     * @return The read string.
+     * @throws IOException In case of error.
+     */
+    private static String readString(DataInputStream in) throws IOException
+    {
+        final byte[] data = new byte[in.readByte()];
+        in.readFully(data);
+        return new String(data, NetworkMessage.CHARSET);
+    }
+
+    /** Ping timer. */
+    private final Timing pingTimer = new Timing();
+    /** Ping request timer. */
+    private final Timing pingRequestTimer = new Timing();
+    /** Average bandwidth. */
+    private final Timing bandwidthTimer = new Timing();
+    /** Datagram link factory. */
+    private final DatagramLinkFactory factory;
+    /** Received datagram. */
+    private final ByteBuffer packet = ByteBuffer.allocate(DatagramPeer.MAX_DATAGRAM);
+    /** Sent datagram. */
+    private final ByteBuffer datagram = ByteBuffer.allocate(DatagramPeer.MAX_DATAGRAM);
+    /** Received frames. */
+    private final List<byte[]> frames = new ArrayList<byte[]>();
+    /** Frame output. */
+    private final FrameOutput output = new FrameOutput();
+    /** Frame writer. */
+    private final DataOutputStream out = output.getWriter();
+    /** Frame input. */
+    private final FrameInput input = new FrameInput();
+    /** Frame reader. */
+    private final DataInputStream in = input.getReader();
+    /** Datagram link. */
+    private DatagramLink link;
+    /** Server reliability. */
+    private DatagramPeer peer;
+    /** Server address. */
+    private SocketAddress server;
+    /** Client id. */
+    private byte clientId = -1;
+    /** Client name. */
+    private String clientName;
+    /** Connected flag. */
+    private boolean connected;
+    /** Ping. */
+    private int ping;
+    /** Bandwidth size. */
+    private int bandwidth;
+    /** Bandwidth per second. */
+    private int bandwidthPerSecond;
+
+    /**
+     * Internal constructor.
+     * 
+     * @param decoder The message decoder.
+     */
+    ClientUdpImpl(NetworkMessageDecoder decoder)
+    {
+        this(decoder, DatagramLinkFactory.DIRECT);
+    }
+
+    /**
+     * Internal constructor.
+     * 
+     * @param decoder The message decoder.
+     * @param factory The datagram link factory.
+     */
+    ClientUdpImpl(NetworkMessageDecoder decoder, DatagramLinkFactory factory)
+    {
+        super(decoder);
+        this.factory = factory;
+    }
+
+    /**
+     * Terminate connection.
+     */
+    private void kick()
+    {
+        if (!connected)
+        {
+            return;
+        }
+        messagesIn.clear();
+        messagesOut.clear();
+        link.close();
+        for (final ConnectionListener listener : listeners)
+        {
+            listener.notifyConnectionTerminated(Byte.valueOf(getId()));
+        }
+        listeners.clear();
+        connected = false;
+        Verbose.info("Disconnected from the server !");
+    }
+
+    /**
+     * Start a new frame.
+     * 
+     * @return The frame writer.
+     */
+    private DataOutputStream begin()
+    {
+        return output.begin();
+    }
+
+    /**
+     * Add the current system frame to the frames to send.
+     * 
+     * @param delivery The frame delivery.
+     * @throws IOException If frame is too large.
+     */
+    private void send(Delivery delivery) throws IOException
+    {
+        peer.queue(output.end(), delivery, DatagramPeer.SYSTEM_STREAM);
+    }
+
+    /**
+     * Send the pending frames and acknowledges.
+     * 
+     * @throws IOException If error on writing.
+     */
+    private void flush() throws IOException
+    {
+        bandwidth += peer.send(link, datagram, System.currentTimeMillis());
+    }
+
+    /**
+     * Read the delivered frames.
+     * 
+     * @throws IOException If error when reading or writing data.
+     */
+    private void read() throws IOException
+    {
+        for (int i = 0; i < frames.size() && connected; i++)
+        {
+            input.set(ByteBuffer.wrap(frames.get(i)));
+            updateMessage(in.readByte());
+        }
+        frames.clear();
+    }
+
+    /**
+     * Update the message from its id.
+     * 
+     * @param messageSystemId The message system ID.
+     * @throws IOException If error when reading or writing data.
+     */
+    private void updateMessage(byte messageSystemId) throws IOException
+    {
+        switch (messageSystemId)
+        {
+            case NetworkMessageSystemId.CONNECTING:
+                updateConnecting();
+                break;
+            case NetworkMessageSystemId.CONNECTED:
+                updateConnected();
+                break;
+            case NetworkMessageSystemId.PING:
+                ping = (int) pingTimer.elapsed();
+                break;
+            case NetworkMessageSystemId.KICKED:
+                kick();
+                break;
+            case NetworkMessageSystemId.OTHER_CLIENT_CONNECTED:
+                updateOtherClient(messageSystemId);
+                break;
+            case NetworkMessageSystemId.OTHER_CLIENT_DISCONNECTED:
+                updateOtherClient(messageSystemId);
+                break;
+            case NetworkMessageSystemId.OTHER_CLIENT_RENAMED:
+                updateOtherClient(messageSystemId);
+                break;
+            case NetworkMessageSystemId.USER_MESSAGE:
+                updateUserMessage();
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Update the connecting case.
+     * 
+     * @throws IOException If error when writing data.
+     */
+    private void updateConnecting() throws IOException
+    {
+        if (clientId == -1)
+        {
+            clientId = in.readByte();
+            begin().writeByte(NetworkMessageSystemId.CONNECTING);
+            out.writeByte(clientId);
+            final byte[] data = clientName.getBytes(NetworkMessage.CHARSET);
+            out.writeByte(data.length);
+            out.write(data);
+            send(Delivery.RELIABLE_ORDERED);
+            Verbose.info("Client: Performing connection to the server...");
+        }
+    }
+
+    /**
+     * Update the connected case.
+     *
+     * @throws IOException If error when reading or writing data.
+     */
+    private void updateConnected() throws IOException
+    {
+        if (in.readByte() != clientId)
+        {
+            return;
+        }
+        for (final ConnectionListener listener : listeners)
+        {
+            listener.notifyConnectionEstablished(Byte.valueOf(clientId), clientName);
+        }
+        final int clientsNumber = in.readByte();
+        for (int i = 0; i < clientsNumber; i++)
+        {
+            final byte cid = in.readByte();
+            final String cname = readString(in);
+            for (final ConnectionListener listener : listeners)
+            {
+                listener.notifyClientConnected(Byte.valueOf(cid), cname);
+            }
+        }
+        if (in.available() > 0)
+        {
+            final String motd = readString(in);
+            for (final ConnectionListener listener : listeners)
+            {
+                listener.notifyMessageOfTheDay(motd);
+            }
+        }
+        begin().writeByte(NetworkMessageSystemId.CONNECTED);
+        out.writeByte(clientId);
+        send(Delivery.RELIABLE_ORDERED);
+        Verbose.info("Client: Connected to the server !");
+    }
+
+    /**
+     * Update the other client cases.
+     * 
+     * @param messageSystemId The message system ID.
+     * @throws IOException If error when reading data.
+     */
+    private void updateOtherClient(byte messageSystemId) throws IOException
+    {
+        final Byte cid = Byte.valueOf(in.readByte());
+        final String cname = readString(in);
+        for (final ConnectionListener listener : listeners)
+        {
+            if (messageSystemId == NetworkMessageSystemId.OTHER_CLIENT_CONNECTED)
+            {
+                listener.notifyClientConnected(cid, cname);
+            }
+            else if (messageSystemId == NetworkMessageSystemId.OTHER_CLIENT_DISCONNECTED)
+            {
+                listener.notifyClientDisconnected(cid, cname);
+            }
+            else
+            {
+                listener.notifyClientNameChanged(cid, cname);
+            }
+        }
+    }
+
+    /**
+     * Update the user message case.
+     * 
+     * @throws IOException If error when reading data.
+     */
+    private void updateUserMessage() throws IOException
+    {
+        final byte from = in.readByte();
+        final byte dest = in.readByte();
+        final byte type = in.readByte();
+        final int size = in.readInt();
+        if (size > 0)
+        {
+            decodeMessage(type, from, dest, in);
+        }
+    }
+
+    /**
+     * Add message to the frames to send.
+     * 
+     * @param message The message to send.
+     * @throws IOException If error when encoding.
+     */
+    private void sendMessage(NetworkMessage message) throws IOException
+    {
+        final byte[] encoded = message.encode().toByteArray();
+        begin().writeByte(NetworkMessageSystemId.USER_MESSAGE);
+        out.writeByte(message.getClientId());
+        out.writeByte(message.getClientDestId());
+        out.writeByte(message.getType());
+        out.writeInt(encoded.length);
+        out.write(encoded);
+        peer.queue(output.end(), message.getDelivery(), message.getType());
+    }
+
+    /*
+     * Client
+     */
+
+    @Override
+    public void connect(String ip, int port)
+    {
+        Check.notNull(ip);
+        Check.superiorOrEqual(port, 0);
+        Check.inferiorOrEqual(port, Constant.MAX_PORT);
+
+        try
+        {
+            server = new InetSocketAddress(InetAddress.getByName(ip), port);
+            final DatagramChannel channel = DatagramChannel.open();
+            channel.configureBlocking(false);
+            channel.socket().setReceiveBufferSize(DatagramPeer.SOCKET_BUFFER);
+            link = factory.create(channel);
+            peer = new DatagramPeer(server, System.currentTimeMillis());
+            connected = true;
+            clientId = -1;
+
+            begin().writeByte(NetworkMessageSystemId.CONNECTING);
+            out.writeByte(clientId);
+            send(Delivery.RELIABLE_ORDERED);
+            flush();
+            pingRequestTimer.start();
+            bandwidthTimer.start();
+        }
+        catch (final IOException exception)
+        {
+            throw new LionEngineException(exception, "Cannot connect to the server !");
+        }
+    }
+
+    @Override
+    public boolean isConnected()
+    {
+        return connected;
+    }
+
+    @Override
+    public void setName(String name)
+    {
+        clientName = name;
+        if (!connected)
+        {
+            return;
+        }
+        try
+        {
+            begin().writeByte(NetworkMessageSystemId.OTHER_CLIENT_RENAMED);
+            out.writeByte(clientId);
+            final byte[] data = clientName.getBytes(NetworkMessage.CHARSET);
+            out.writeByte(data.length);
+            out.write(data);
+            send(Delivery.RELIABLE_ORDERED);
+            flush();
+        }
+        catch (final IOException exception)
+        {
+            Verbose.exception(exception, "Unable to set a new client name !");
+        }
+    }
+
+    @Override
+    public String getName()
+    {
+        return clientName;
+    }
+
+    @Override
+    public int getPing()
+    {
+        return ping;
+    }
+
+    @Override
+    public int getBandwidth()
+    {
+        return bandwidthPerSecond;
+    }
+
+    @Override
+    public byte getId()
+    {
+        return clientId;
+    }
+
+    /*
+     * Networker
+     */
+
+    @Override
+    public void disconnect()
+    {
+        if (!connected)
+        {
+            return;
+        }
+        try
+        {
+            begin().writeByte(NetworkMessageSystemId.OTHER_CLIENT_DISCONNECTED);
+            out.writeByte(clientId);
+            send(Delivery.RELIABLE_ORDERED);
+            flush();
+        }
+        catch (final IOException exception)
+        {
+            Verbose.exception(exception);
+        }
+        kick();
+    }
+
+    @Override
+    public void sendMessages()
+    {
+        if (!connected)
+        {
+            return;
+        }
+        try
+        {
+            if (pingRequestTimer.elapsed(PING_MILLI))
+            {
+                begin().writeByte(NetworkMessageSystemId.PING);
+                out.writeByte(clientId);
+                send(Delivery.UNRELIABLE_SEQUENCED);
+                pingTimer.restart();
+                pingRequestTimer.restart();
+            }
+            for (final NetworkMessage message : messagesOut)
+            {
+                sendMessage(message);
+            }
+            flush();
+        }
+        catch (final IOException exception)
+        {
+            Verbose.exception(exception, "Unable to send the messages for client: ", String.valueOf(clientId));
+        }
+        if (bandwidthTimer.elapsed(BANDWIDTH_MILLI))
+        {
+            bandwidthPerSecond = bandwidth;
+            bandwidth = 0;
+            bandwidthTimer.restart();
+        }
+        messagesOut.clear();
+    }
+
+    @Override
+    public void receiveMessages()
+    {
+        if (!connected)
+        {
+            return;
+        }
+        messagesIn.clear();
+        final long now = System.currentTimeMillis();
+        try
+        {
+            SocketAddress address = link.receive(packet);
+            while (address != null && connected)
+            {
+                if (server.equals(address) && DatagramPeer.isValid(packet))
+                {
+                    bandwidth += packet.remaining();
+                    peer.receive(packet, now, frames);
+                    read();
+                }
+                address = link.receive(packet);
+            }
+
+            if (connected && peer.isTimeout(now))
+            {
+                kick();
+            }
+            else if (connected)
+            {
+                flush();
+            }
+        }
+        catch (final IOException exception)
+        {
+            Verbose.exception(exception, "Unable to receive the messages for client: ", String.valueOf(clientId));
+        }
+        frames.clear();
+    }
+}
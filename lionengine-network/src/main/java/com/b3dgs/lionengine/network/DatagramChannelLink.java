@@ -0,0 +1,76 @@
+/*
+ * Copyright (C) 2013-2016 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.network;
+
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+
+import com.b3dgs.lionengine.Verbose;
+
+/**
+ * Datagram link on a non blocking datagram channel.
+ */
+final class DatagramChannelLink implements DatagramLink
+{
+    /** Datagram channel. */
+    private final DatagramChannel channel;
+
+    /**
+     * Internal constructor.
+     * 
+     * @param channel The non blocking datagram channel.
+     */
+    DatagramChannelLink(DatagramChannel channel)
+    {
+        this.channel = channel;
+    }
+
+    /*
+     * DatagramLink
+     */
+
+    @Override
+    public void send(ByteBuffer packet, SocketAddress address) throws IOException
+    {
+        channel.send(packet, address);
+    }
+
+    @Override
+    public SocketAddress receive(ByteBuffer packet) throws IOException
+    {
+        packet.clear();
+        final SocketAddress address = channel.receive(packet);
+        packet.flip();
+        return address;
+    }
+
+    @Override
+    public void close()
+    {
+        try
+        {
+            channel.close();
+        }
+        catch (final IOException exception)
+        {
+            Verbose.exception(exception);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright (C) 2013-2016 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.network;
+
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+
+/**
+ * Datagrams sending and receiving, without blocking.
+ */
+interface DatagramLink
+{
+    /**
+     * Send a datagram. It may be lost.
+     * 
+     * @param packet The datagram data, from its position to its limit.
+     * @param address The destination address.
+     * @throws IOException If error on sending.
+     */
+    void send(ByteBuffer packet, SocketAddress address) throws IOException;
+
+    /**
+     * Receive the next datagram if has.
+     * 
+     * @param packet The buffer receiving the datagram, ready to be read.
+     * @return The source address, <code>null</code> if no datagram available.
+     * @throws IOException If error on receiving.
+     */
+    SocketAddress receive(ByteBuffer packet) throws IOException;
+
+    /**
+     * Close the link.
+     */
+    void close();
+}
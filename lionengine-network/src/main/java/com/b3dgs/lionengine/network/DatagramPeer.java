@@ -0,0 +1,675 @@
+/*
+ * Copyright (C) 2013-2016 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.network;
+
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.b3dgs.lionengine.network.message.Delivery;
+
+/**
+ * Reliability of a datagram connection with a remote address. Frames are sent in datagrams with a sequence number,
+ * which also acknowledge the last received remote sequence and a bit field of the previous ones:
+ * 
+ * <pre>
+ * protocol (4 bytes), sequence (4 bytes), ack (4 bytes), ack bits (4 bytes)
+ * for each frame: delivery (1 byte), stream (2 bytes), id (4 bytes), size (4 bytes), data
+ * </pre>
+ * <p>
+ * Reliable frames are resent until a datagram carrying them is acknowledged. On reception, ordered frames are kept
+ * until the previous ones are received, and unordered frames are delivered once. Sequenced frames id is their sending
+ * tick (see {@link #send(DatagramLink, ByteBuffer, long)}): frames of a tick split in several datagrams are all
+ * delivered, whereas frames of an older tick than the last delivered one of their stream are dropped.
+ * </p>
+ * <p>
+ * This class is not Thread-Safe.
+ * </p>
+ */
+final class DatagramPeer
+{
+    /** Maximum datagram size. */
+    static final int MAX_DATAGRAM = 65507;
+    /** Socket receive buffer size, so bursts are not dropped before being read. */
+    static final int SOCKET_BUFFER = 1048576;
+    /** Protocol identifier. */
+    private static final int PROTOCOL = 0x4C450001;
+    /** Datagram header size. */
+    private static final int HEADER = 16;
+    /** Sequenced stream of system frames, apart from user messages types. */
+    static final int SYSTEM_STREAM = 256;
+    /** Frame header size. */
+    private static final int FRAME_HEADER = 11;
+    /** Datagram size above which next frames are sent in a new datagram. */
+    private static final int MTU = 1200;
+    /** Number of previous sequences acknowledged with the last one. */
+    private static final int ACK_BITS = 32;
+    /** Acknowledge bits mask. */
+    private static final long ACK_MASK = 0xFFFFFFFFL;
+    /** Number of sent datagrams remembered for acknowledges (power of 2). */
+    private static final int WINDOW = 1024;
+    /** Delay before resending a reliable frame in milli. */
+    private static final long RESEND_MILLI = 100L;
+    /** Delay without reception before timeout in milli. */
+    private static final long TIMEOUT_MILLI = 5000L;
+    /** Deliveries by ordinal. */
+    private static final Delivery[] DELIVERIES = Delivery.values();
+
+    /**
+     * Check if the datagram belongs to the protocol.
+     * 
+     * @param packet The datagram, ready to be read.
+     * @return <code>true</code> if valid, <code>false</code> else.
+     */
+    static boolean isValid(ByteBuffer packet)
+    {
+        return packet.remaining() >= HEADER && packet.getInt(packet.position()) == PROTOCOL;
+    }
+
+    /** Remote address. */
+    private final SocketAddress address;
+    /** Reliable ordered frames waiting for acknowledge, by id. */
+    private final Map<Integer, Outgoing> ordered = new LinkedHashMap<Integer, Outgoing>();
+    /** Reliable unordered frames waiting for acknowledge, by id. */
+    private final Map<Integer, Outgoing> unordered = new LinkedHashMap<Integer, Outgoing>();
+    /** Unreliable frames to send. */
+    private final List<Outgoing> sequenced = new ArrayList<Outgoing>();
+    /** Sent datagrams reliable frames. */
+    private final Sent[] sent = new Sent[WINDOW];
+    /** Next frame id by delivery. */
+    private final int[] ids = new int[DELIVERIES.length];
+    /** Received ordered frames waiting for previous ones. */
+    private final Map<Integer, byte[]> orderedReceived = new HashMap<Integer, byte[]>();
+    /** Received unordered frames ids after the next expected. */
+    private final Collection<Integer> unorderedReceived = new HashSet<Integer>();
+    /** Last delivered sequenced frames tick by stream. */
+    private final Map<Integer, Integer> lastSequenced = new HashMap<Integer, Integer>();
+    /** Datagram being written. */
+    private Sent current;
+    /** Next local sequence. */
+    private int sequence;
+    /** Last received remote sequence. */
+    private int remoteSequence = -1;
+    /** Received previous remote sequences bits. */
+    private long remoteBits;
+    /** Received datagrams not acknowledged yet. */
+    private boolean ackPending;
+    /** Current sending tick. */
+    private int tick;
+    /** Next expected ordered frame id. */
+    private int orderedNext;
+    /** Next expected unordered frame id. */
+    private int unorderedNext;
+    /** Last reception time in milli. */
+    private long lastReceived;
+
+    /**
+     * Internal constructor.
+     * 
+     * @param address The remote address.
+     * @param now The current time in milli.
+     */
+    DatagramPeer(SocketAddress address, long now)
+    {
+        this.address = address;
+        lastReceived = now;
+    }
+
+    /**
+     * Add a frame to send.
+     * 
+     * @param data The frame data (not copied, must not be modified after).
+     * @param delivery The frame delivery.
+     * @param stream The frame stream, only used by sequenced frames (user message type, or {@link #SYSTEM_STREAM}).
+     * @throws IOException If frame is too large.
+     */
+    void queue(byte[] data, Delivery delivery, int stream) throws IOException
+    {
+        if (HEADER + FRAME_HEADER + data.length > MAX_DATAGRAM)
+        {
+            throw new IOException("Frame too large: " + data.length);
+        }
+        if (delivery == Delivery.UNRELIABLE_SEQUENCED)
+        {
+            sequenced.add(new Outgoing(delivery, stream, tick, data));
+        }
+        else
+        {
+            final int id = ids[delivery.ordinal()]++;
+            final Outgoing outgoing = new Outgoing(delivery, 0, id, data);
+            if (delivery == Delivery.RELIABLE_ORDERED)
+            {
+                ordered.put(Integer.valueOf(id), outgoing);
+            }
+            else
+            {
+                unordered.put(Integer.valueOf(id), outgoing);
+            }
+        }
+    }
+
+    /**
+     * Send the queued frames, the reliable frames to resend, and the pending acknowledges. Each call is a new tick.
+     * 
+     * @param link The datagram link.
+     * @param buffer The datagram buffer.
+     * @param now The current time in milli.
+     * @return The number of bytes sent.
+     * @throws IOException If error on sending.
+     */
+    int send(DatagramLink link, ByteBuffer buffer, long now) throws IOException
+    {
+        int bytes = 0;
+        begin(buffer);
+        for (final Outgoing outgoing : ordered.values())
+        {
+            bytes += addReliable(link, buffer, outgoing, now);
+        }
+        for (final Outgoing outgoing : unordered.values())
+        {
+            bytes += addReliable(link, buffer, outgoing, now);
+        }
+        for (final Outgoing outgoing : sequenced)
+        {
+            bytes += add(link, buffer, outgoing);
+        }
+        sequenced.clear();
+        if (buffer.position() > HEADER || ackPending)
+        {
+            bytes += end(link, buffer);
+        }
+        tick++;
+        return bytes;
+    }
+
+    /**
+     * Receive a datagram and get its delivered frames.
+     * 
+     * @param packet The datagram, ready to be read.
+     * @param now The current time in milli.
+     * @param frames The delivered frames output.
+     * @throws IOException If invalid datagram.
+     */
+    void receive(ByteBuffer packet, long now, Collection<byte[]> frames) throws IOException
+    {
+        if (!isValid(packet))
+        {
+            throw new IOException("Invalid datagram");
+        }
+        packet.getInt();
+        final boolean duplicate = !received(packet.getInt());
+        final int ack = packet.getInt();
+        final int bits = packet.getInt();
+        acknowledge(ack);
+        for (int i = 0; i < ACK_BITS; i++)
+        {
+            if ((bits >>> i & 1) == 1)
+            {
+                acknowledge(ack - 1 - i);
+            }
+        }
+        lastReceived = now;
+        ackPending = true;
+
+        while (!duplicate && packet.remaining() >= FRAME_HEADER)
+        {
+            final int delivery = packet.get();
+            final int stream = packet.getShort();
+            final int id = packet.getInt();
+            final int size = packet.getInt();
+            if (delivery < 0 || delivery >= DELIVERIES.length || size < 0 || size > packet.remaining())
+            {
+                throw new IOException("Invalid datagram frame");
+            }
+            final byte[] data = new byte[size];
+            packet.get(data);
+            deliver(DELIVERIES[delivery], stream, id, data, frames);
+        }
+    }
+
+    /**
+     * Check if nothing has been received for too long.
+     * 
+     * @param now The current time in milli.
+     * @return <code>true</code> if connection is lost, <code>false</code> else.
+     */
+    boolean isTimeout(long now)
+    {
+        return now - lastReceived > TIMEOUT_MILLI;
+    }
+
+    /**
+     * Check if reliable frames are waiting for acknowledge.
+     * 
+     * @return <code>true</code> if reliable frames are not acknowledged, <code>false</code> else.
+     */
+    boolean hasPending()
+    {
+        return !ordered.isEmpty() || !unordered.isEmpty();
+    }
+
+    /**
+     * Get the remote address.
+     * 
+     * @return The remote address.
+     */
+    SocketAddress getAddress()
+    {
+        return address;
+    }
+
+    /**
+     * Start a new datagram.
+     * 
+     * @param buffer The datagram buffer.
+     */
+    private void begin(ByteBuffer buffer)
+    {
+        buffer.clear();
+        buffer.putInt(PROTOCOL);
+        buffer.putInt(sequence);
+        buffer.putInt(remoteSequence);
+        buffer.putInt((int) remoteBits);
+
+        final int index = sequence & WINDOW - 1;
+        if (sent[index] == null)
+        {
+            sent[index] = new Sent();
+        }
+        current = sent[index];
+        current.reset(sequence);
+    }
+
+    /**
+     * Send the current datagram.
+     * 
+     * @param link The datagram link.
+     * @param buffer The datagram buffer.
+     * @return The number of bytes sent.
+     * @throws IOException If error on sending.
+     */
+    private int end(DatagramLink link, ByteBuffer buffer) throws IOException
+    {
+        buffer.flip();
+        final int size = buffer.remaining();
+        link.send(buffer, address);
+        sequence++;
+        ackPending = false;
+        return size;
+    }
+
+    /**
+     * Add the reliable frame to the datagram if not sent yet or not acknowledged in time.
+     * 
+     * @param link The datagram link.
+     * @param buffer The datagram buffer.
+     * @param outgoing The frame to send.
+     * @param now The current time in milli.
+     * @return The number of bytes sent.
+     * @throws IOException If error on sending.
+     */
+    private int addReliable(DatagramLink link, ByteBuffer buffer, Outgoing outgoing, long now) throws IOException
+    {
+        if (outgoing.getSent() < 0 || now - outgoing.getSent() >= RESEND_MILLI)
+        {
+            final int bytes = add(link, buffer, outgoing);
+            outgoing.setSent(now);
+            current.add(outgoing);
+            return bytes;
+        }
+        return 0;
+    }
+
+    /**
+     * Add the frame to the datagram, sending the current datagram first if it would become too large.
+     * 
+     * @param link The datagram link.
+     * @param buffer The datagram buffer.
+     * @param outgoing The frame to send.
+     * @return The number of bytes sent.
+     * @throws IOException If error on sending.
+     */
+    private int add(DatagramLink link, ByteBuffer buffer, Outgoing outgoing) throws IOException
+    {
+        int bytes = 0;
+        final byte[] data = outgoing.getData();
+        if (buffer.position() > HEADER && buffer.position() + FRAME_HEADER + data.length > MTU)
+        {
+            bytes = end(link, buffer);
+            begin(buffer);
+        }
+        buffer.put((byte) outgoing.getDelivery().ordinal());
+        buffer.putShort((short) outgoing.getStream());
+        buffer.putInt(outgoing.getId());
+        buffer.putInt(data.length);
+        buffer.put(data);
+        return bytes;
+    }
+
+    /**
+     * Store the received remote sequence for next acknowledges.
+     * 
+     * @param received The received remote sequence.
+     * @return <code>true</code> if first reception, <code>false</code> if already received.
+     */
+    private boolean received(int received)
+    {
+        boolean first = true;
+        if (received > remoteSequence)
+        {
+            final int shift = received - remoteSequence;
+            if (shift > ACK_BITS)
+            {
+                remoteBits = 0L;
+            }
+            else
+            {
+                remoteBits = (remoteBits << shift | 1L << shift - 1) & ACK_MASK;
+            }
+            remoteSequence = received;
+        }
+        else if (received == remoteSequence)
+        {
+            first = false;
+        }
+        else if (remoteSequence - received <= ACK_BITS)
+        {
+            final long bit = 1L << remoteSequence - received - 1;
+            first = (remoteBits & bit) == 0L;
+            remoteBits |= bit;
+        }
+        return first;
+    }
+
+    /**
+     * Acknowledge the reliable frames sent in the datagram.
+     * 
+     * @param acknowledged The acknowledged local sequence.
+     */
+    private void acknowledge(int acknowledged)
+    {
+        if (acknowledged >= 0)
+        {
+            final Sent datagram = sent[acknowledged & WINDOW - 1];
+            if (datagram != null && datagram.getSequence() == acknowledged)
+            {
+                acknowledge(datagram);
+            }
+        }
+    }
+
+    /**
+     * Remove the acknowledged datagram reliable frames from the frames to resend.
+     * 
+     * @param datagram The acknowledged datagram.
+     */
+    private void acknowledge(Sent datagram)
+    {
+        for (final Outgoing outgoing : datagram.getFrames())
+        {
+            final Integer id = Integer.valueOf(outgoing.getId());
+            if (outgoing.getDelivery() == Delivery.RELIABLE_ORDERED)
+            {
+                ordered.remove(id);
+            }
+            else
+            {
+                unordered.remove(id);
+            }
+        }
+        datagram.reset(-1);
+    }
+
+    /**
+     * Deliver the received frame depending of its delivery.
+     * 
+     * @param delivery The frame delivery.
+     * @param stream The frame stream.
+     * @param id The frame id.
+     * @param data The frame data.
+     * @param frames The delivered frames output.
+     */
+    private void deliver(Delivery delivery, int stream, int id, byte[] data, Collection<byte[]> frames)
+    {
+        switch (delivery)
+        {
+            case UNRELIABLE_SEQUENCED:
+                deliverSequenced(stream, id, data, frames);
+                break;
+            case RELIABLE_UNORDERED:
+                if (id >= unorderedNext && unorderedReceived.add(Integer.valueOf(id)))
+                {
+                    frames.add(data);
+                    while (unorderedReceived.remove(Integer.valueOf(unorderedNext)))
+                    {
+                        unorderedNext++;
+                    }
+                }
+                break;
+            case RELIABLE_ORDERED:
+                deliverOrdered(id, data, frames);
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Deliver the sequenced frame if not older than the last delivered tick of its stream.
+     * 
+     * @param stream The frame stream.
+     * @param frameTick The frame tick.
+     * @param data The frame data.
+     * @param frames The delivered frames output.
+     */
+    private void deliverSequenced(int stream, int frameTick, byte[] data, Collection<byte[]> frames)
+    {
+        final Integer key = Integer.valueOf(stream);
+        final Integer last = lastSequenced.get(key);
+        if (last == null || frameTick >= last.intValue())
+        {
+            lastSequenced.put(key, Integer.valueOf(frameTick));
+            frames.add(data);
+        }
+    }
+
+    /**
+     * Deliver the ordered frame and the following ones received before, or keep it until previous ones are received.
+     * 
+     * @param id The frame id.
+     * @param data The frame data.
+     * @param frames The delivered frames output.
+     */
+    private void deliverOrdered(int id, byte[] data, Collection<byte[]> frames)
+    {
+        if (id == orderedNext)
+        {
+            byte[] next = data;
+            while (next != null)
+            {
+                frames.add(next);
+                orderedNext++;
+                next = orderedReceived.remove(Integer.valueOf(orderedNext));
+            }
+        }
+        else if (id > orderedNext)
+        {
+            orderedReceived.put(Integer.valueOf(id), data);
+        }
+    }
+
+    /**
+     * Frame to send.
+     */
+    private static final class Outgoing
+    {
+        /** Frame delivery. */
+        private final Delivery delivery;
+        /** Frame stream. */
+        private final int stream;
+        /** Frame id in its delivery, tick if sequenced. */
+        private final int id;
+        /** Frame data. */
+        private final byte[] data;
+        /** Last sending time in milli, negative if never sent. */
+        private long sent = -1L;
+
+        /**
+         * Create frame.
+         * 
+         * @param delivery The frame delivery.
+         * @param stream The frame stream.
+         * @param id The frame id.
+         * @param data The frame data.
+         */
+        Outgoing(Delivery delivery, int stream, int id, byte[] data)
+        {
+            this.delivery = delivery;
+            this.stream = stream;
+            this.id = id;
+            this.data = data;
+        }
+
+        /**
+         * Set the last sending time.
+         * 
+         * @param sent The last sending time in milli.
+         */
+        void setSent(long sent)
+        {
+            this.sent = sent;
+        }
+
+        /**
+         * Get the frame delivery.
+         * 
+         * @return The frame delivery.
+         */
+        Delivery getDelivery()
+        {
+            return delivery;
+        }
+
+        /**
+         * Get the frame stream.
+         * 
+         * @return The frame stream.
+         */
+        int getStream()
+        {
+            return stream;
+        }
+
+        /**
+         * Get the frame id.
+         * 
+         * @return The frame id in its delivery.
+         */
+        int getId()
+        {
+            return id;
+        }
+
+        /**
+         * Get the frame data.
+         * 
+         * @return The frame data.
+         */
+        byte[] getData()
+        {
+            return data;
+        }
+
+        /**
+         * Get the last sending time.
+         * 
+         * @return The last sending time in milli, negative if never sent.
+         */
+        long getSent()
+        {
+            return sent;
+        }
+    }
+
+    /**
+     * Reliable frames carried by a sent datagram.
+     */
+    private static final class Sent
+    {
+        /** Reliable frames. */
+        private final List<Outgoing> frames = new ArrayList<Outgoing>();
+        /** Datagram sequence. */
+        private int sequence = -1;
+
+        /**
+         * Create record.
+         */
+        Sent()
+        {
+            super();
+        }
+
+        /**
+         * Reuse for a new datagram.
+         * 
+         * @param sequence The datagram sequence (-1 if unused).
+         */
+        void reset(int sequence)
+        {
+            this.sequence = sequence;
+            frames.clear();
+        }
+
+        /**
+         * Add a reliable frame.
+         * 
+         * @param frame The reliable frame.
+         */
+        void add(Outgoing frame)
+        {
+            frames.add(frame);
+        }
+
+        /**
+         * Get the datagram sequence.
+         * 
+         * @return The datagram sequence.
+         */
+        int getSequence()
+        {
+            return sequence;
+        }
+
+        /**
+         * Get the reliable frames.
+         * 
+         * @return The reliable frames.
+         */
+        List<Outgoing> getFrames()
+        {
+            return frames;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (C) 2013-2016 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.network;
+
+import java.io.DataOutputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Encode frames in a reused buffer: a payload length on {@link FramedChannel#HEADER} bytes, followed by the payload.
+ * <p>
+ * Payload is written with the stream returned by {@link #begin()}, and the frame is got with {@link #end()}, valid
+ * until next {@link #begin()}.
+ * </p>
+ * <p>
+ * This class is not Thread-Safe.
+ * </p>
+ */
+final class FrameEncoder
+{
+    /** Payload stream. */
+    private final DataOutputStream out = new DataOutputStream(new OutputStream()
+    {
+        @Override
+        public void write(int data)
+        {
+            ensureRemaining(1);
+            buffer.put((byte) data);
+        }
+
+        @Override
+        public void write(byte[] data, int offset, int length)
+        {
+            ensureRemaining(length);
+            buffer.put(data, offset, length);
+        }
+    });
+    /** Frame buffer, grown when needed. */
+    private ByteBuffer buffer;
+
+    /**
+     * Internal constructor.
+     * 
+     * @param capacity The initial buffer capacity.
+     */
+    FrameEncoder(int capacity)
+    {
+        buffer = ByteBuffer.allocate(capacity);
+    }
+
+    /**
+     * Start a new frame.
+     * 
+     * @return The payload stream.
+     */
+    DataOutputStream begin()
+    {
+        buffer.clear();
+        buffer.position(FramedChannel.HEADER);
+        return out;
+    }
+
+    /**
+     * End the current frame.
+     * 
+     * @return The frame, ready to be read.
+     */
+    ByteBuffer end()
+    {
+        buffer.flip();
+        buffer.putInt(0, buffer.limit() - FramedChannel.HEADER);
+        return buffer;
+    }
+
+    /**
+     * Grow buffer if there is not enough remaining space.
+     * 
+     * @param size The needed space.
+     */
+    void ensureRemaining(int size)
+    {
+        if (buffer.remaining() < size)
+        {
+            final ByteBuffer grown = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + size));
+            buffer.flip();
+            grown.put(buffer);
+            buffer = grown;
+        }
+    }
+}
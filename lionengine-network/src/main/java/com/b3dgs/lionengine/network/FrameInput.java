@@ -0,0 +1,63 @@
+/*
+ * Copyright (C) 2013-2016 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.network;
+
+import java.io.DataInputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Frame input, reading byte buffer frames with the same data stream instead of creating one per frame.
+ * <p>
+ * This class is not Thread-Safe.
+ * </p>
+ */
+final class FrameInput
+{
+    /** Frame buffer input. */
+    private final ByteBufferInputStream input = new ByteBufferInputStream();
+    /** Frame reader. */
+    private final DataInputStream in = new DataInputStream(input);
+
+    /**
+     * Internal constructor.
+     */
+    FrameInput()
+    {
+        super();
+    }
+
+    /**
+     * Set the frame to read, from its position to its limit.
+     * 
+     * @param frame The frame to read.
+     */
+    void set(ByteBuffer frame)
+    {
+        input.set(frame);
+    }
+
+    /**
+     * Get the frame reader.
+     * 
+     * @return The frame reader.
+     */
+    DataInputStream getReader()
+    {
+        return in;
+    }
+}
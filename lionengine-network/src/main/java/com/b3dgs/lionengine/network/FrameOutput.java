@@ -0,0 +1,77 @@
+/*
+ * Copyright (C) 2013-2016 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.network;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+
+/**
+ * Frame output, writing frames with the same data stream instead of creating one per frame.
+ * <p>
+ * Frame is written with the stream returned by {@link #begin()}, and its data is got with {@link #end()}.
+ * </p>
+ * <p>
+ * This class is not Thread-Safe.
+ * </p>
+ */
+final class FrameOutput
+{
+    /** Frame data. */
+    private final ByteArrayOutputStream frame = new ByteArrayOutputStream();
+    /** Frame writer. */
+    private final DataOutputStream out = new DataOutputStream(frame);
+
+    /**
+     * Internal constructor.
+     */
+    FrameOutput()
+    {
+        super();
+    }
+
+    /**
+     * Start a new frame.
+     * 
+     * @return The frame writer.
+     */
+    DataOutputStream begin()
+    {
+        frame.reset();
+        return out;
+    }
+
+    /**
+     * End the current frame.
+     * 
+     * @return The frame data.
+     */
+    byte[] end()
+    {
+        return frame.toByteArray();
+    }
+
+    /**
+     * Get the frame writer.
+     * 
+     * @return The frame writer.
+     */
+    DataOutputStream getWriter()
+    {
+        return out;
+    }
+}
@@ -0,0 +1,228 @@
+/*
+ * Copyright (C) 2013-2016 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.network;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import com.b3dgs.lionengine.Verbose;
+
+/**
+ * Non blocking socket channel exchanging length prefixed frames, with pooled direct buffers.
+ * <p>
+ * Received data is accumulated in the input buffer until complete frames are available with {@link #nextFrame()}.
+ * Frames to send are accumulated in the output buffer (or in a pending queue if full) until {@link #flush()}, so
+ * several frames are sent with one write.
+ * </p>
+ * <p>
+ * This class is not Thread-Safe.
+ * </p>
+ */
+final class FramedChannel
+{
+    /** Frame header size, the payload length. */
+    static final int HEADER = 4;
+    /** Error frame size. */
+    private static final String ERROR_FRAME = "Invalid frame size: ";
+
+    /** Frames not fitting in output buffer. */
+    private final Deque<ByteBuffer> pending = new ArrayDeque<ByteBuffer>();
+    /** The channel. */
+    private final SocketChannel channel;
+    /** The buffers pool. */
+    private final BufferPool pool;
+    /** Input buffer. */
+    private final ByteBuffer in;
+    /** Output buffer. */
+    private final ByteBuffer out;
+    /** Input limit before current frame. */
+    private int limit;
+    /** Current frame end. */
+    private int end;
+    /** Closed flag. */
+    private boolean closed;
+
+    /**
+     * Internal constructor.
+     * 
+     * @param channel The non blocking channel.
+     * @param pool The buffers pool.
+     */
+    FramedChannel(SocketChannel channel, BufferPool pool)
+    {
+        this.channel = channel;
+        this.pool = pool;
+        in = pool.acquire();
+        out = pool.acquire();
+    }
+
+    /**
+     * Read available data. Must be followed by frames reading and {@link #compact()}.
+     * 
+     * @return The number of bytes read, <code>-1</code> if end of stream reached.
+     * @throws IOException If error on reading.
+     */
+    int read() throws IOException
+    {
+        final int read = channel.read(in);
+        in.flip();
+        return read;
+    }
+
+    /**
+     * Get the next complete frame payload, as the input buffer limited to the frame. {@link #endFrame()} must be
+     * called once frame read.
+     * 
+     * @return The frame payload, <code>null</code> if no more complete frame.
+     * @throws IOException If invalid frame size.
+     */
+    ByteBuffer nextFrame() throws IOException
+    {
+        ByteBuffer frame = null;
+        if (in.remaining() >= HEADER)
+        {
+            final int size = in.getInt(in.position());
+            if (size < 0 || size > in.capacity() - HEADER)
+            {
+                throw new IOException(ERROR_FRAME + size);
+            }
+            if (in.remaining() >= HEADER + size)
+            {
+                limit = in.limit();
+                end = in.position() + HEADER + size;
+                in.position(in.position() + HEADER);
+                in.limit(end);
+                frame = in;
+            }
+        }
+        return frame;
+    }
+
+    /**
+     * End the current frame, skipping its unread data.
+     */
+    void endFrame()
+    {
+        in.limit(limit);
+        in.position(end);
+    }
+
+    /**
+     * Keep incomplete frame data for next read.
+     */
+    void compact()
+    {
+        in.compact();
+    }
+
+    /**
+     * Add a frame to send on next {@link #flush()}.
+     * 
+     * @param frame The frame, from its position to its limit.
+     * @throws IOException If frame is larger than buffers.
+     */
+    void write(ByteBuffer frame) throws IOException
+    {
+        final int size = frame.remaining();
+        if (size > out.capacity())
+        {
+            throw new IOException(ERROR_FRAME + size);
+        }
+        if (pending.isEmpty() && out.remaining() >= size)
+        {
+            out.put(frame);
+        }
+        else
+        {
+            final ByteBuffer copy = ByteBuffer.allocate(size);
+            copy.put(frame);
+            copy.flip();
+            pending.add(copy);
+        }
+    }
+
+    /**
+     * Write as much added frames as possible without blocking.
+     * 
+     * @return <code>true</code> if all has been written, <code>false</code> if channel is full.
+     * @throws IOException If error on writing.
+     */
+    boolean flush() throws IOException
+    {
+        boolean flushed = false;
+        boolean full = false;
+        while (!flushed && !full)
+        {
+            out.flip();
+            channel.write(out);
+            full = out.hasRemaining();
+            out.compact();
+            flushed = !full && pending.isEmpty();
+            while (!pending.isEmpty() && out.remaining() >= pending.peek().remaining())
+            {
+                out.put(pending.poll());
+            }
+        }
+        return flushed;
+    }
+
+    /**
+     * Check if there is data waiting to be written.
+     * 
+     * @return <code>true</code> if data to write, <code>false</code> else.
+     */
+    boolean hasPending()
+    {
+        return out.position() > 0 || !pending.isEmpty();
+    }
+
+    /**
+     * Close channel and give back buffers to pool.
+     */
+    void close()
+    {
+        if (!closed)
+        {
+            closed = true;
+            try
+            {
+                channel.close();
+            }
+            catch (final IOException exception)
+            {
+                Verbose.exception(exception);
+            }
+            pending.clear();
+            pool.release(in);
+            pool.release(out);
+        }
+    }
+
+    /**
+     * Get the channel.
+     * 
+     * @return The channel.
+     */
+    SocketChannel getChannel()
+    {
+        return channel;
+    }
+}
@@ -0,0 +1,302 @@
+/*
+ * Copyright (C) 2013-2016 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.network;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+
+import com.b3dgs.lionengine.network.message.NetworkMessage;
+import com.b3dgs.lionengine.network.message.NetworkMessageEntity;
+import com.b3dgs.lionengine.network.purview.Networkable;
+
+/**
+ * Dispatch received messages to the networkables subscribed to them. Networkables can receive all messages, only the
+ * messages of a type, or only the entity messages of an entity id. Each message is routed with a lookup by type and
+ * entity id, instead of being applied to every networkable.
+ * <p>
+ * Subscriptions are applied on next {@link #update()}, so networkables can subscribe while applying a message. A
+ * networkable subscribed to several keys matching the same message receives it once per matching key.
+ * </p>
+ */
+final class NetworkableRouter
+{
+    /**
+     * Add the networkable to the subscribers of the key.
+     * 
+     * @param <K> The key type.
+     * @param subscribers The subscribers by key.
+     * @param key The subscribed key.
+     * @param networkable The networkable to add.
+     */
+    private static <K> void subscribe(Map<K, Collection<Networkable>> subscribers, K key, Networkable networkable)
+    {
+        Collection<Networkable> networkables = subscribers.get(key);
+        if (networkables == null)
+        {
+            networkables = new ArrayList<Networkable>(1);
+            subscribers.put(key, networkables);
+        }
+        networkables.add(networkable);
+    }
+
+    /**
+     * Remove the networkable from the subscribers of its keys.
+     * 
+     * @param <K> The key type.
+     * @param subscribers The subscribers by key.
+     * @param keys The networkable subscribed keys (can be <code>null</code>).
+     * @param networkable The networkable to remove.
+     */
+    private static <K> void unsubscribe(Map<K, Collection<Networkable>> subscribers,
+                                        Collection<K> keys,
+                                        Networkable networkable)
+    {
+        if (keys != null)
+        {
+            for (final K key : keys)
+            {
+                final Collection<Networkable> networkables = subscribers.get(key);
+                networkables.remove(networkable);
+                if (networkables.isEmpty())
+                {
+                    subscribers.remove(key);
+                }
+            }
+        }
+    }
+
+    /**
+     * Add the key to the networkable subscribed keys.
+     * 
+     * @param <K> The key type.
+     * @param subscribed The subscribed keys by networkable.
+     * @param networkable The subscribed networkable.
+     * @param key The subscribed key.
+     */
+    private static <K> void keep(Map<Networkable, Collection<K>> subscribed, Networkable networkable, K key)
+    {
+        Collection<K> keys = subscribed.get(networkable);
+        if (keys == null)
+        {
+            keys = new ArrayList<K>(1);
+            subscribed.put(networkable, keys);
+        }
+        keys.add(key);
+    }
+
+    /**
+     * Apply the message to the networkables.
+     * 
+     * @param networkables The networkables (can be <code>null</code>).
+     * @param message The message to apply.
+     */
+    private static void apply(Collection<Networkable> networkables, NetworkMessage message)
+    {
+        if (networkables != null)
+        {
+            for (final Networkable networkable : networkables)
+            {
+                networkable.applyMessage(message);
+            }
+        }
+    }
+
+    /** Subscriptions to apply. */
+    private final Collection<Subscription> toAdd;
+    /** Networkables receiving all messages. */
+    private final Collection<Networkable> all;
+    /** Networkables by message type. */
+    private final Map<Byte, Collection<Networkable>> types;
+    /** Networkables by entity id. */
+    private final Map<Short, Collection<Networkable>> entities;
+    /** Subscribed types by networkable. */
+    private final Map<Networkable, Collection<Byte>> subscribedTypes;
+    /** Subscribed entities by networkable. */
+    private final Map<Networkable, Collection<Short>> subscribedEntities;
+
+    /**
+     * Internal constructor.
+     */
+    NetworkableRouter()
+    {
+        toAdd = new ArrayList<Subscription>(1);
+        all = new HashSet<Networkable>(1);
+        types = new HashMap<Byte, Collection<Networkable>>();
+        entities = new HashMap<Short, Collection<Networkable>>();
+        subscribedTypes = new HashMap<Networkable, Collection<Byte>>();
+        subscribedEntities = new HashMap<Networkable, Collection<Short>>();
+    }
+
+    /**
+     * Subscribe the networkable to all messages.
+     * 
+     * @param networkable The networkable.
+     */
+    public void add(Networkable networkable)
+    {
+        toAdd.add(new Subscription(networkable, null, null));
+    }
+
+    /**
+     * Subscribe the networkable to the messages of a type.
+     * 
+     * @param networkable The networkable.
+     * @param type The message type.
+     */
+    public void addType(Networkable networkable, byte type)
+    {
+        toAdd.add(new Subscription(networkable, Byte.valueOf(type), null));
+    }
+
+    /**
+     * Subscribe the networkable to the entity messages of an entity id.
+     * 
+     * @param networkable The networkable.
+     * @param entityId The entity id.
+     */
+    public void addEntity(Networkable networkable, short entityId)
+    {
+        toAdd.add(new Subscription(networkable, null, Short.valueOf(entityId)));
+    }
+
+    /**
+     * Apply the pending subscriptions.
+     */
+    public void update()
+    {
+        for (final Subscription subscription : toAdd)
+        {
+            final Networkable networkable = subscription.getNetworkable();
+            if (subscription.getType() != null)
+            {
+                subscribe(types, subscription.getType(), networkable);
+                keep(subscribedTypes, networkable, subscription.getType());
+            }
+            else if (subscription.getEntity() != null)
+            {
+                subscribe(entities, subscription.getEntity(), networkable);
+                keep(subscribedEntities, networkable, subscription.getEntity());
+            }
+            else
+            {
+                all.add(networkable);
+            }
+        }
+        toAdd.clear();
+    }
+
+    /**
+     * Remove all networkable subscriptions.
+     * 
+     * @param networkable The networkable.
+     */
+    public void remove(Networkable networkable)
+    {
+        final Iterator<Subscription> iterator = toAdd.iterator();
+        while (iterator.hasNext())
+        {
+            if (iterator.next().getNetworkable() == networkable)
+            {
+                iterator.remove();
+            }
+        }
+        all.remove(networkable);
+        unsubscribe(types, subscribedTypes.remove(networkable), networkable);
+        unsubscribe(entities, subscribedEntities.remove(networkable), networkable);
+    }
+
+    /**
+     * Apply the message to its subscribed networkables.
+     * 
+     * @param message The message to dispatch.
+     */
+    public void dispatch(NetworkMessage message)
+    {
+        apply(all, message);
+        if (!types.isEmpty())
+        {
+            apply(types.get(Byte.valueOf(message.getType())), message);
+        }
+        if (!entities.isEmpty() && message instanceof NetworkMessageEntity)
+        {
+            final short entityId = ((NetworkMessageEntity<?>) message).getEntityId();
+            apply(entities.get(Short.valueOf(entityId)), message);
+        }
+    }
+
+    /**
+     * Pending subscription.
+     */
+    private static final class Subscription
+    {
+        /** The subscribed networkable. */
+        private final Networkable networkable;
+        /** The subscribed message type (<code>null</code> if none). */
+        private final Byte type;
+        /** The subscribed entity id (<code>null</code> if none). */
+        private final Short entity;
+
+        /**
+         * Create subscription. Networkable receives all messages if it has no type and no entity.
+         * 
+         * @param networkable The subscribed networkable.
+         * @param type The subscribed message type (<code>null</code> if none).
+         * @param entity The subscribed entity id (<code>null</code> if none).
+         */
+        Subscription(Networkable networkable, Byte type, Short entity)
+        {
+            this.networkable = networkable;
+            this.type = type;
+            this.entity = entity;
+        }
+
+        /**
+         * Get the subscribed networkable.
+         * 
+         * @return The subscribed networkable.
+         */
+        Networkable getNetworkable()
+        {
+            return networkable;
+        }
+
+        /**
+         * Get the subscribed message type.
+         * 
+         * @return The subscribed message type (<code>null</code> if none).
+         */
+        Byte getType()
+        {
+            return type;
+        }
+
+        /**
+         * Get the subscribed entity id.
+         * 
+         * @return The subscribed entity id (<code>null</code> if none).
+         */
+        Short getEntity()
+        {
+            return entity;
+        }
+    }
+}
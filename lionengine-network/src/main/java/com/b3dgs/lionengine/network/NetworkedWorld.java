@@ -33,12 +33,31 @@ public interface NetworkedWorld extends ClientListener
     void disconnect();
 
     /**
-     * Add a networkable entity to the world.
+     * Add a networkable entity to the world. It receives all messages.
      * 
      * @param networkable The networkable entity.
      */
     void addNetworkable(Networkable networkable);
 
+    /**
+     * Add a networkable entity to the world. It receives only the messages of the type. Can be called once per type to
+     * receive.
+     * 
+     * @param networkable The networkable entity.
+     * @param type The message type received.
+     */
+    void addNetworkableType(Networkable networkable, byte type);
+
+    /**
+     * Add a networkable entity to the world. It receives only the
+     * {@link com.b3dgs.lionengine.network.message.NetworkMessageEntity} of the entity id. Can be called once per entity
+     * id to receive.
+     * 
+     * @param networkable The networkable entity.
+     * @param entityId The entity id received.
+     */
+    void addNetworkableEntity(Networkable networkable, short entityId);
+
     /**
      * Remove a networkable entity to the world.
      * 
@@ -19,6 +19,7 @@ package com.b3dgs.lionengine.network;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
 
 import com.b3dgs.lionengine.network.message.NetworkMessage;
@@ -30,7 +31,7 @@ import com.b3dgs.lionengine.network.purview.Networkable;
  * @param <L> Listener type.
  * @param <N> Network implementation.
  */
-abstract class NetworkedWorldModel<L extends ClientListener, N extends NetworkModel<L>> implements NetworkedWorld
+abstract class NetworkedWorldModel<L extends ClientListener, N extends Networker<L>> implements NetworkedWorld
 {
     /** List of networkable objects. */
     protected final Collection<Networkable> networkables;
@@ -40,6 +41,8 @@ abstract class NetworkedWorldModel<L extends ClientListener, N extends NetworkMo
     protected final Collection<L> listeners;
     /** The network. */
     protected final N network;
+    /** Received messages router. */
+    private final NetworkableRouter router;
     /** Will add. */
     private boolean willAdd;
 
@@ -54,6 +57,7 @@ abstract class NetworkedWorldModel<L extends ClientListener, N extends NetworkMo
         networkables = new HashSet<Networkable>(1);
         toAdd = new ArrayList<Networkable>(1);
         listeners = new ArrayList<L>(1);
+        router = new NetworkableRouter();
         willAdd = false;
     }
 
@@ -96,13 +100,33 @@ abstract class NetworkedWorldModel<L extends ClientListener, N extends NetworkMo
     public void addNetworkable(Networkable networkable)
     {
         toAdd.add(networkable);
+        router.add(networkable);
+        willAdd = true;
+    }
+
+    @Override
+    public void addNetworkableType(Networkable networkable, byte type)
+    {
+        toAdd.add(networkable);
+        router.addType(networkable, type);
+        willAdd = true;
+    }
+
+    @Override
+    public void addNetworkableEntity(Networkable networkable, short entityId)
+    {
+        toAdd.add(networkable);
+        router.addEntity(networkable, entityId);
         willAdd = true;
     }
 
     @Override
     public void removeNetworkable(Networkable networkable)
     {
+        // Added once per subscription
+        toAdd.removeAll(Collections.singleton(networkable));
         networkables.remove(networkable);
+        router.remove(networkable);
     }
 
     @Override
@@ -138,15 +162,13 @@ abstract class NetworkedWorldModel<L extends ClientListener, N extends NetworkMo
                 networkables.add(networkable);
             }
             toAdd.clear();
+            router.update();
             willAdd = false;
         }
         network.receiveMessages();
         for (final NetworkMessage message : network.getMessages())
         {
-            for (final Networkable networkable : networkables)
-            {
-                networkable.applyMessage(message);
-            }
+            router.dispatch(message);
         }
     }
 
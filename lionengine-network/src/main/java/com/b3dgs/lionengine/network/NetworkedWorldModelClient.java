@@ -22,17 +22,28 @@ import com.b3dgs.lionengine.network.message.NetworkMessageDecoder;
 /**
  * Networkable world implementation client side.
  */
-public class NetworkedWorldModelClient extends NetworkedWorldModel<ConnectionListener, ClientImpl>
+public class NetworkedWorldModelClient extends NetworkedWorldModel<ConnectionListener, Client>
                                        implements NetworkedWorldClient
 {
     /**
-     * Constructor.
+     * Constructor, using {@link Transport#STREAM}.
      * 
      * @param decoder The decoder reference.
      */
     public NetworkedWorldModelClient(NetworkMessageDecoder decoder)
     {
-        super(new ClientImpl(decoder));
+        this(decoder, Transport.STREAM);
+    }
+
+    /**
+     * Constructor.
+     * 
+     * @param decoder The decoder reference.
+     * @param transport The network transport (must be the same as the server one).
+     */
+    public NetworkedWorldModelClient(NetworkMessageDecoder decoder, Transport transport)
+    {
+        super(transport.createClient(decoder));
     }
 
     /*
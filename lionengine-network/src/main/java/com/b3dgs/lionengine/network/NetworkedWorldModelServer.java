@@ -22,17 +22,28 @@ import com.b3dgs.lionengine.network.message.NetworkMessageDecoder;
 /**
  * Networkable world implementation server side.
  */
-public class NetworkedWorldModelServer extends NetworkedWorldModel<ClientListener, ServerImpl>
+public class NetworkedWorldModelServer extends NetworkedWorldModel<ClientListener, Server>
                                        implements NetworkedWorldServer
 {
     /**
-     * Constructor.
+     * Constructor, using {@link Transport#STREAM}.
      * 
      * @param decoder The decoder reference.
      */
     public NetworkedWorldModelServer(NetworkMessageDecoder decoder)
     {
-        super(new ServerImpl(decoder));
+        this(decoder, Transport.STREAM);
+    }
+
+    /**
+     * Constructor.
+     * 
+     * @param decoder The decoder reference.
+     * @param transport The network transport.
+     */
+    public NetworkedWorldModelServer(NetworkMessageDecoder decoder, Transport transport)
+    {
+        super(transport.createServer(decoder));
     }
 
     /*
@@ -20,6 +20,7 @@ package com.b3dgs.lionengine.network;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.IOException;
 import java.net.ServerSocket;
 import java.net.Socket;
@@ -41,6 +42,9 @@ import com.b3dgs.lionengine.util.UtilStream;
  */
 final class ServerImpl extends NetworkModel<ClientListener> implements Server
 {
+    /** Server log prefix. */
+    private static final String SERVER = "Server: ";
+
     /**
      * Send the id and the name to the client.
      * 
@@ -78,6 +82,10 @@ final class ServerImpl extends NetworkModel<ClientListener> implements Server
     private final Collection<ClientSocket> toRemove;
     /** Average bandwidth. */
     private final Timing bandwidthTimer;
+    /** Current encoded message, shared by all its destinations. */
+    private final ByteArrayOutputStream frame;
+    /** Current encoded message writer. */
+    private final DataOutputStream frameOut;
     /** Connection listener. */
     private ClientConnecter clientConnectionListener;
     /** Server socket. */
@@ -110,6 +118,8 @@ final class ServerImpl extends NetworkModel<ClientListener> implements Server
         clients = new HashMap<Byte, ClientSocket>(1);
         toRemove = new HashSet<ClientSocket>(1);
         bandwidthTimer = new Timing();
+        frame = new ByteArrayOutputStream();
+        frameOut = new DataOutputStream(frame);
         willRemove = false;
         clientsNumber = 0;
         messageOfTheDay = null;
@@ -173,7 +183,7 @@ final class ServerImpl extends NetworkModel<ClientListener> implements Server
             client.terminate();
             clientsNumber--;
             willRemove = true;
-            Verbose.info("Server: ", client.getName(), " disconnected");
+            Verbose.info(SERVER, client.getName(), " disconnected");
         }
     }
 
@@ -215,14 +225,22 @@ final class ServerImpl extends NetworkModel<ClientListener> implements Server
 
             // Send new state
             client.setState(StateConnection.CONNECTED);
+            int others = 0;
+            for (final ClientSocket other : clients.values())
+            {
+                if (other.getId() != from && other.getState() == StateConnection.CONNECTED)
+                {
+                    others++;
+                }
+            }
             client.getOut().writeByte(NetworkMessageSystemId.CONNECTED);
             client.getOut().writeByte(client.getId());
-            client.getOut().writeByte(clientsNumber - 1);
+            client.getOut().writeByte(others);
 
-            // Send the list of other clients
+            // Send the list of other named clients
             for (final ClientSocket other : clients.values())
             {
-                if (other.getId() != from)
+                if (other.getId() != from && other.getState() == StateConnection.CONNECTED)
                 {
                     ServerImpl.writeIdAndName(client, other.getId(), other.getName());
                 }
@@ -252,7 +270,7 @@ final class ServerImpl extends NetworkModel<ClientListener> implements Server
         if (ServerImpl.checkValidity(client, from, expected))
         {
             // Terminate last connection step and accept it
-            Verbose.info("Server: ", client.getName(), " connected");
+            Verbose.info(SERVER, client.getName(), " connected");
             for (final ClientListener listener : listeners)
             {
                 listener.notifyClientConnected(Byte.valueOf(client.getId()), client.getName());
@@ -327,7 +345,7 @@ final class ServerImpl extends NetworkModel<ClientListener> implements Server
                 throw new IOException("Unable to read client name on rename !");
             }
             final String newName = new String(name, NetworkMessage.CHARSET);
-            Verbose.info("Server: ", client.getName(), " rennamed to ", newName);
+            Verbose.info(SERVER, client.getName(), " rennamed to ", newName);
             client.setName(newName);
 
             for (final ClientListener listener : listeners)
@@ -364,18 +382,33 @@ final class ServerImpl extends NetworkModel<ClientListener> implements Server
             final int size = buffer.readInt();
             if (size > 0)
             {
-                final byte[] clientData = new byte[size];
-                if (buffer.read(clientData) != -1)
-                {
-                    final DataInputStream clientBuffer = new DataInputStream(new ByteArrayInputStream(clientData));
-                    decodeMessage(type, from, dest, clientBuffer);
-                }
+                receiveData(buffer, from, dest, type, size);
             }
             final int headerSize = 4;
             bandwidth += headerSize + size;
         }
     }
 
+    /**
+     * Read the message data and decode it.
+     * 
+     * @param buffer The data buffer.
+     * @param from The id from.
+     * @param dest The destination id.
+     * @param type The message type.
+     * @param size The data size.
+     * @throws IOException If error.
+     */
+    private void receiveData(DataInputStream buffer, byte from, byte dest, byte type, int size) throws IOException
+    {
+        final byte[] clientData = new byte[size];
+        if (buffer.read(clientData) != -1)
+        {
+            final DataInputStream clientBuffer = new DataInputStream(new ByteArrayInputStream(clientData));
+            decodeMessage(type, from, dest, clientBuffer);
+        }
+    }
+
     /**
      * Update the message depending of its ID.
      * 
@@ -533,6 +566,10 @@ final class ServerImpl extends NetworkModel<ClientListener> implements Server
         {
             // Get client data from socket
             final byte[] data = client.receiveMessages();
+            if (data == null)
+            {
+                continue;
+            }
             final DataInputStream buffer = new DataInputStream(new ByteArrayInputStream(data));
             try
             {
@@ -568,49 +605,88 @@ final class ServerImpl extends NetworkModel<ClientListener> implements Server
         }
     }
 
+    /**
+     * Encode the message once with its header, ready to be written to each destination.
+     * 
+     * @param message The message to encode.
+     * @throws IOException If error when encoding.
+     */
+    private void encodeFrame(NetworkMessage message) throws IOException
+    {
+        final ByteArrayOutputStream encode = message.encode();
+        try
+        {
+            frame.reset();
+            // Message header
+            frameOut.writeByte(NetworkMessageSystemId.USER_MESSAGE);
+            frameOut.writeByte(message.getClientId());
+            frameOut.writeByte(message.getClientDestId());
+            frameOut.writeByte(message.getType());
+            // Message content
+            frameOut.writeInt(encode.size());
+            encode.writeTo(frameOut);
+        }
+        finally
+        {
+            UtilStream.safeClose(encode);
+        }
+    }
+
+    /**
+     * Write the current encoded frame to the client, without flushing.
+     * 
+     * @param client The destination client.
+     */
+    private void writeFrame(ClientSocket client)
+    {
+        try
+        {
+            frame.writeTo(client.getOut());
+            bandwidth += frame.size();
+        }
+        catch (final IOException exception)
+        {
+            Verbose.exception(exception, "Unable to send the messages for client: ", String.valueOf(client.getId()));
+        }
+    }
+
     @Override
     public void sendMessages()
     {
-        // Send messages
+        // Send messages, each one encoded once for all its destinations
         messagesOut.addAll(messagesIn);
         for (final NetworkMessage message : messagesOut)
         {
-            for (final ClientSocket client : clients.values())
+            try
             {
-                if (!(message.getClientDestId() == client.getId() || message.getClientDestId() == -1))
-                {
-                    continue;
-                }
-                ByteArrayOutputStream encode = null;
-                try
-                {
-                    encode = message.encode();
-                    final byte[] encoded = encode.toByteArray();
-                    // Message header
-                    client.getOut().writeByte(NetworkMessageSystemId.USER_MESSAGE);
-                    client.getOut().writeByte(message.getClientId());
-                    client.getOut().writeByte(message.getClientDestId());
-                    client.getOut().writeByte(message.getType());
-                    // Message content
-                    client.getOut().writeInt(encoded.length);
-                    client.getOut().write(encoded);
-                    client.getOut().flush();
-
-                    final int headerSize = 4;
-                    bandwidth += headerSize + encoded.length;
-                }
-                catch (final IOException exception)
+                encodeFrame(message);
+            }
+            catch (final IOException exception)
+            {
+                Verbose.exception(exception, "Unable to encode message type: ", String.valueOf(message.getType()));
+                continue;
+            }
+            if (message.getClientDestId() == -1)
+            {
+                for (final ClientSocket client : clients.values())
                 {
-                    Verbose.exception(exception,
-                                      "Unable to send the messages for client: ",
-                                      String.valueOf(client.getId()));
+                    writeFrame(client);
                 }
-                finally
+            }
+            else
+            {
+                final ClientSocket client = clients.get(Byte.valueOf(message.getClientDestId()));
+                if (client != null)
                 {
-                    UtilStream.safeClose(encode);
+                    writeFrame(client);
                 }
             }
         }
+        // Single flush per client for the whole tick
+        for (final ClientSocket client : clients.values())
+        {
+            client.flush();
+        }
         final long bandwidthMilli = 1000L;
         if (bandwidthTimer.elapsed(bandwidthMilli))
         {
@@ -0,0 +1,744 @@
+/*
+ * Copyright (C) 2013-2016 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.network;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.Timing;
+import com.b3dgs.lionengine.Verbose;
+import com.b3dgs.lionengine.network.message.NetworkMessage;
+import com.b3dgs.lionengine.network.message.NetworkMessageDecoder;
+
+/**
+ * Server implementation on non blocking channels, with length prefixed frames.
+ * <p>
+ * Connections, reception and sending are all handled by the thread calling {@link #receiveMessages()} and
+ * {@link #sendMessages()}, with a selector polled without blocking: there is no thread nor stream per client. Frames
+ * sent to a client during one call are written together.
+ * </p>
+ */
+final class ServerNioImpl extends NetworkModel<ClientListener> implements Server
+{
+    /** Connection buffers size, which is also the maximum frame size. */
+    static final int BUFFER_SIZE = 65536;
+    /** Maximum clients number (client id is a positive byte). */
+    private static final int MAX_CLIENTS = 128;
+    /** Bandwidth period in milli. */
+    private static final long BANDWIDTH_MILLI = 1000L;
+    /** User message header size. */
+    private static final int HEADER_SIZE = 4;
+    /** Server log prefix. */
+    private static final String SERVER = "Server: ";
+
+    /**
+     * Write the id and the name.
+     * 
+     * @param out The output frame.
+     * @param id The id to write.
+     * @param name The name to write.
+     * @throws IOException In case of error.
+     */
+    private static void writeIdAndName(DataOutputStream out, byte id, String name) throws IOException
+    {
+        out.writeByte(id);
+        writeString(out, name);
+    }
+
+    /**
+     * Write a string with its size.
+     * 
+     * @param out The output frame.
+     * @param value The string to write.
+     * @throws IOException In case of error.
+     */
+    private static void writeString(DataOutputStream out, String value) throws IOException
+    {
+        final byte[] data = value.getBytes(NetworkMessage.CHARSET);
+        out.writeByte(data.length);
+        out.write(data);
+    }
+
+    /**
+     * Read a string with its size.
+     * 
+     * @param in The input frame.
+     * @return The read string.
+     * @throws IOException In case of error.
+     */
+    private static String readString(DataInputStream in) throws IOException
+    {
+        final byte[] data = new byte[in.readByte()];
+        in.readFully(data);
+        return new String(data, NetworkMessage.CHARSET);
+    }
+
+    /**
+     * Check if the client is in a valid state.
+     * 
+     * @param client The client to test.
+     * @param from The client id.
+     * @param expected The expected client state.
+     * @return <code>true</code> if valid, <code>false</code> else.
+     */
+    private static boolean checkValidity(ClientConnection client, byte from, StateConnection expected)
+    {
+        return from >= 0 && client.getState() == expected;
+    }
+
+    /** Client list. */
+    private final Map<Byte, ClientConnection> clients = new HashMap<Byte, ClientConnection>();
+    /** Remove list. */
+    private final Collection<ClientConnection> toRemove = new ArrayList<ClientConnection>();
+    /** Connection buffers. */
+    private final BufferPool pool = new BufferPool(BUFFER_SIZE);
+    /** Frame encoder. */
+    private final FrameEncoder encoder = new FrameEncoder(BUFFER_SIZE);
+    /** Frame input. */
+    private final FrameInput input = new FrameInput();
+    /** Frame reader. */
+    private final DataInputStream in = input.getReader();
+    /** Average bandwidth. */
+    private final Timing bandwidthTimer = new Timing();
+    /** Channel selector. */
+    private final ChannelSelector selector = new ChannelSelector();
+    /** Current port. */
+    private int port = -1;
+    /** Message of the day. */
+    private String messageOfTheDay;
+    /** Started flag. */
+    private boolean started;
+    /** Bandwidth size. */
+    private int bandwidth;
+    /** Bandwidth per second. */
+    private int bandwidthPerSecond;
+
+    /**
+     * Internal constructor.
+     * 
+     * @param decoder The message decoder.
+     */
+    ServerNioImpl(NetworkMessageDecoder decoder)
+    {
+        super(decoder);
+    }
+
+    /**
+     * Accept all pending connections.
+     */
+    private void accept()
+    {
+        try
+        {
+            SocketChannel channel = selector.accept();
+            while (channel != null)
+            {
+                accept(channel);
+                channel = selector.accept();
+            }
+        }
+        catch (final IOException exception)
+        {
+            Verbose.exception(exception, "Error on accepting client");
+        }
+    }
+
+    /**
+     * Accept a new connection and send its id.
+     * 
+     * @param channel The client channel.
+     * @throws IOException If error on channel.
+     */
+    private void accept(SocketChannel channel) throws IOException
+    {
+        final byte id = getFreeId();
+        if (id < 0)
+        {
+            Verbose.warning(Server.class, "accept", "Too many clients, connection refused");
+            channel.close();
+        }
+        else
+        {
+            final ClientConnection client = new ClientConnection(id, channel, pool);
+            client.setKey(selector.register(channel, client));
+            client.setState(StateConnection.CONNECTING);
+            clients.put(Byte.valueOf(id), client);
+
+            final DataOutputStream out = encoder.begin();
+            out.writeByte(NetworkMessageSystemId.CONNECTING);
+            out.writeByte(id);
+            send(client);
+        }
+    }
+
+    /**
+     * Get the first free client id.
+     * 
+     * @return The free id, <code>-1</code> if none.
+     */
+    private byte getFreeId()
+    {
+        for (int id = 0; id < MAX_CLIENTS; id++)
+        {
+            if (!clients.containsKey(Byte.valueOf((byte) id)))
+            {
+                return (byte) id;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Add the current frame to the client frames to send.
+     * 
+     * @param client The client to send to.
+     * @throws IOException If frame is too large.
+     */
+    private void send(ClientConnection client) throws IOException
+    {
+        client.getChannel().write(encoder.end());
+    }
+
+    /**
+     * Add the current frame to all connected clients frames to send, except one.
+     * 
+     * @param except The client id to skip.
+     * @throws IOException If frame is too large.
+     */
+    private void sendOthers(byte except) throws IOException
+    {
+        final ByteBuffer frame = encoder.end();
+        for (final ClientConnection other : clients.values())
+        {
+            if (other.getId() != except && other.getState() == StateConnection.CONNECTED)
+            {
+                frame.rewind();
+                other.getChannel().write(frame);
+            }
+        }
+    }
+
+    /**
+     * Read client available frames.
+     * 
+     * @param client The client to read from.
+     */
+    private void read(ClientConnection client)
+    {
+        final FramedChannel channel = client.getChannel();
+        try
+        {
+            int read;
+            do
+            {
+                read = channel.read();
+                ByteBuffer frame = channel.nextFrame();
+                while (frame != null && client.getState() != StateConnection.DISCONNECTED)
+                {
+                    input.set(frame);
+                    final byte messageSystemId = in.readByte();
+                    final byte from = in.readByte();
+                    if (from == client.getId())
+                    {
+                        updateMessage(client, messageSystemId, from);
+                    }
+                    channel.endFrame();
+                    frame = channel.nextFrame();
+                }
+                channel.compact();
+            }
+            while (read > 0 && client.getState() != StateConnection.DISCONNECTED);
+
+            if (read < 0)
+            {
+                disconnected(client);
+            }
+        }
+        catch (final IOException exception)
+        {
+            Verbose.exception(exception, "Error on reading client: ", String.valueOf(client.getId()));
+            disconnected(client);
+        }
+    }
+
+    /**
+     * Write client pending frames.
+     * 
+     * @param client The client to write to.
+     */
+    private void flush(ClientConnection client)
+    {
+        try
+        {
+            client.setWriting(!client.getChannel().flush());
+        }
+        catch (final IOException exception)
+        {
+            Verbose.exception(exception, "Error on writing client: ", String.valueOf(client.getId()));
+            disconnected(client);
+        }
+    }
+
+    /**
+     * Write all clients pending frames.
+     */
+    private void flushAll()
+    {
+        for (final ClientConnection client : clients.values())
+        {
+            if (client.getState() != StateConnection.DISCONNECTED && client.getChannel().hasPending())
+            {
+                flush(client);
+            }
+        }
+    }
+
+    /**
+     * Client connection lost, notify others if it was connected and remove it.
+     * 
+     * @param client The client lost.
+     */
+    private void disconnected(ClientConnection client)
+    {
+        if (client.getState() == StateConnection.CONNECTED)
+        {
+            try
+            {
+                notifyDisconnected(client);
+            }
+            catch (final IOException exception)
+            {
+                Verbose.exception(exception);
+            }
+        }
+        removeClient(client);
+    }
+
+    /**
+     * Notify listeners and other clients of a client disconnection.
+     * 
+     * @param client The disconnected client.
+     * @throws IOException If error on writing.
+     */
+    private void notifyDisconnected(ClientConnection client) throws IOException
+    {
+        client.setState(StateConnection.DISCONNECTED);
+        for (final ClientListener listener : listeners)
+        {
+            listener.notifyClientDisconnected(Byte.valueOf(client.getId()), client.getName());
+        }
+        final DataOutputStream out = encoder.begin();
+        out.writeByte(NetworkMessageSystemId.OTHER_CLIENT_DISCONNECTED);
+        writeIdAndName(out, client.getId(), client.getName());
+        sendOthers(client.getId());
+    }
+
+    /**
+     * Mark a client as removed. It is terminated on next {@link #removeClients()}, so its buffers are not released
+     * while reading it.
+     * 
+     * @param client The client to remove.
+     */
+    private void removeClient(ClientConnection client)
+    {
+        if (client != null && !toRemove.contains(client))
+        {
+            toRemove.add(client);
+            client.setState(StateConnection.DISCONNECTED);
+            Verbose.info(SERVER, client.getName(), " disconnected");
+        }
+    }
+
+    /**
+     * Terminate and remove the clients marked as removed.
+     */
+    private void removeClients()
+    {
+        for (final ClientConnection client : toRemove)
+        {
+            client.terminate();
+            clients.remove(Byte.valueOf(client.getId()));
+        }
+        toRemove.clear();
+    }
+
+    /**
+     * Update the receive connecting state.
+     * 
+     * @param client The current client.
+     * @param from The id from.
+     * @throws IOException If error.
+     */
+    private void receiveConnecting(ClientConnection client, byte from) throws IOException
+    {
+        if (checkValidity(client, from, StateConnection.CONNECTING))
+        {
+            client.setName(readString(in));
+            client.setState(StateConnection.CONNECTED);
+
+            int others = 0;
+            for (final ClientConnection other : clients.values())
+            {
+                if (other.getId() != from && other.getState() == StateConnection.CONNECTED)
+                {
+                    others++;
+                }
+            }
+            final DataOutputStream out = encoder.begin();
+            out.writeByte(NetworkMessageSystemId.CONNECTED);
+            out.writeByte(client.getId());
+            out.writeByte(others);
+            for (final ClientConnection other : clients.values())
+            {
+                if (other.getId() != from && other.getState() == StateConnection.CONNECTED)
+                {
+                    writeIdAndName(out, other.getId(), other.getName());
+                }
+            }
+            if (messageOfTheDay != null)
+            {
+                writeString(out, messageOfTheDay);
+            }
+            send(client);
+        }
+    }
+
+    /**
+     * Update the receive connected state.
+     * 
+     * @param client The current client.
+     * @param from The id from.
+     * @throws IOException If error.
+     */
+    private void receiveConnected(ClientConnection client, byte from) throws IOException
+    {
+        if (checkValidity(client, from, StateConnection.CONNECTED))
+        {
+            Verbose.info(SERVER, client.getName(), " connected");
+            for (final ClientListener listener : listeners)
+            {
+                listener.notifyClientConnected(Byte.valueOf(client.getId()), client.getName());
+            }
+            final DataOutputStream out = encoder.begin();
+            out.writeByte(NetworkMessageSystemId.OTHER_CLIENT_CONNECTED);
+            writeIdAndName(out, client.getId(), client.getName());
+            sendOthers(from);
+        }
+    }
+
+    /**
+     * Update the receive renamed state.
+     * 
+     * @param client The current client.
+     * @param from The id from.
+     * @throws IOException If error.
+     */
+    private void receiveRenamed(ClientConnection client, byte from) throws IOException
+    {
+        if (checkValidity(client, from, StateConnection.CONNECTED))
+        {
+            final String newName = readString(in);
+            Verbose.info(SERVER, client.getName(), " rennamed to ", newName);
+            client.setName(newName);
+
+            for (final ClientListener listener : listeners)
+            {
+                listener.notifyClientNameChanged(Byte.valueOf(client.getId()), client.getName());
+            }
+            final DataOutputStream out = encoder.begin();
+            out.writeByte(NetworkMessageSystemId.OTHER_CLIENT_RENAMED);
+            writeIdAndName(out, client.getId(), client.getName());
+            sendOthers((byte) -1);
+        }
+    }
+
+    /**
+     * Update the receive standard message state.
+     * 
+     * @param client The current client.
+     * @param from The id from.
+     * @throws IOException If error.
+     */
+    private void receiveMessage(ClientConnection client, byte from) throws IOException
+    {
+        if (checkValidity(client, from, StateConnection.CONNECTED))
+        {
+            final byte dest = in.readByte();
+            final byte type = in.readByte();
+            final int size = in.readInt();
+            if (size > 0)
+            {
+                decodeMessage(type, from, dest, in);
+            }
+            bandwidth += HEADER_SIZE + size;
+        }
+    }
+
+    /**
+     * Update the message depending of its ID.
+     * 
+     * @param client The client connection.
+     * @param messageSystemId The message system ID.
+     * @param from The source ID.
+     * @throws IOException If error when reading.
+     */
+    private void updateMessage(ClientConnection client, byte messageSystemId, byte from) throws IOException
+    {
+        switch (messageSystemId)
+        {
+            case NetworkMessageSystemId.CONNECTING:
+                receiveConnecting(client, from);
+                break;
+            case NetworkMessageSystemId.CONNECTED:
+                receiveConnected(client, from);
+                break;
+            case NetworkMessageSystemId.PING:
+                encoder.begin().writeByte(NetworkMessageSystemId.PING);
+                send(client);
+                bandwidth += 1;
+                break;
+            case NetworkMessageSystemId.OTHER_CLIENT_DISCONNECTED:
+                if (checkValidity(client, from, StateConnection.CONNECTED))
+                {
+                    notifyDisconnected(client);
+                    removeClient(client);
+                }
+                break;
+            case NetworkMessageSystemId.OTHER_CLIENT_RENAMED:
+                receiveRenamed(client, from);
+                break;
+            case NetworkMessageSystemId.USER_MESSAGE:
+                receiveMessage(client, from);
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Handle a ready selection key.
+     * 
+     * @param key The selection key.
+     */
+    private void select(SelectionKey key)
+    {
+        if (key.isAcceptable())
+        {
+            accept();
+        }
+        else
+        {
+            final ClientConnection client = (ClientConnection) key.attachment();
+            if (key.isReadable() && client.getState() != StateConnection.DISCONNECTED)
+            {
+                read(client);
+            }
+            if (key.isWritable() && client.getState() != StateConnection.DISCONNECTED)
+            {
+                flush(client);
+            }
+        }
+    }
+
+    /**
+     * Encode a user message.
+     * 
+     * @param message The message to encode.
+     * @return The frame.
+     * @throws IOException If error when encoding.
+     */
+    private ByteBuffer encode(NetworkMessage message) throws IOException
+    {
+        final byte[] encoded = message.encode().toByteArray();
+        final DataOutputStream out = encoder.begin();
+        out.writeByte(NetworkMessageSystemId.USER_MESSAGE);
+        out.writeByte(message.getClientId());
+        out.writeByte(message.getClientDestId());
+        out.writeByte(message.getType());
+        out.writeInt(encoded.length);
+        out.write(encoded);
+        return encoder.end();
+    }
+
+    /*
+     * Server
+     */
+
+    @Override
+    public void setMessageOfTheDay(String message)
+    {
+        messageOfTheDay = message;
+    }
+
+    @Override
+    public void start(String name, int port)
+    {
+        if (!started)
+        {
+            try
+            {
+                selector.open(port);
+                this.port = port;
+                bandwidthTimer.start();
+                started = true;
+            }
+            catch (final IOException exception)
+            {
+                throw new LionEngineException(exception, "Cannot create the server !");
+            }
+        }
+    }
+
+    @Override
+    public void removeClient(Byte clientId)
+    {
+        removeClient(clients.get(clientId));
+    }
+
+    @Override
+    public int getNumberOfClients()
+    {
+        return clients.size() - toRemove.size();
+    }
+
+    @Override
+    public int getBandwidth()
+    {
+        return bandwidthPerSecond;
+    }
+
+    @Override
+    public int getPort()
+    {
+        return port;
+    }
+
+    /*
+     * Networker
+     */
+
+    @Override
+    public void disconnect()
+    {
+        if (!started)
+        {
+            return;
+        }
+        receiveMessages();
+        for (final ClientConnection client : clients.values())
+        {
+            try
+            {
+                encoder.begin().writeByte(NetworkMessageSystemId.KICKED);
+                send(client);
+                client.getChannel().flush();
+            }
+            catch (final IOException exception)
+            {
+                Verbose.exception(exception);
+            }
+            removeClient(client);
+        }
+        removeClients();
+        try
+        {
+            selector.close();
+        }
+        catch (final IOException exception)
+        {
+            Verbose.exception(exception, "Error on closing server");
+        }
+        started = false;
+    }
+
+    @Override
+    public void receiveMessages()
+    {
+        messagesIn.clear();
+        if (!started)
+        {
+            return;
+        }
+        try
+        {
+            final Iterator<SelectionKey> keys = selector.select();
+            while (keys.hasNext())
+            {
+                final SelectionKey key = keys.next();
+                keys.remove();
+                if (key.isValid())
+                {
+                    select(key);
+                }
+            }
+        }
+        catch (final IOException exception)
+        {
+            Verbose.exception(exception, "Error on updating server");
+        }
+        flushAll();
+        removeClients();
+    }
+
+    @Override
+    public void sendMessages()
+    {
+        messagesOut.addAll(messagesIn);
+        for (final NetworkMessage message : messagesOut)
+        {
+            try
+            {
+                final ByteBuffer frame = encode(message);
+                for (final ClientConnection client : clients.values())
+                {
+                    final byte dest = message.getClientDestId();
+                    if (client.getState() == StateConnection.CONNECTED && (dest == -1 || dest == client.getId()))
+                    {
+                        frame.rewind();
+                        client.getChannel().write(frame);
+                        bandwidth += frame.limit();
+                    }
+                }
+            }
+            catch (final IOException exception)
+            {
+                Verbose.exception(exception, "Unable to send the message");
+            }
+        }
+        messagesOut.clear();
+        flushAll();
+        removeClients();
+
+        if (bandwidthTimer.elapsed(BANDWIDTH_MILLI))
+        {
+            bandwidthPerSecond = bandwidth;
+            bandwidth = 0;
+            bandwidthTimer.restart();
+        }
+    }
+}
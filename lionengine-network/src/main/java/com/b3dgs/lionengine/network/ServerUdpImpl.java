@@ -0,0 +1,743 @@
+/*
+ * Copyright (C) 2013-2016 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.network;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.Timing;
+import com.b3dgs.lionengine.Verbose;
+import com.b3dgs.lionengine.network.message.Delivery;
+import com.b3dgs.lionengine.network.message.NetworkMessage;
+import com.b3dgs.lionengine.network.message.NetworkMessageDecoder;
+
+/**
+ * Server implementation on a non blocking datagram channel, with sequenced and acknowledged datagrams.
+ * <p>
+ * As {@link ServerNioImpl}, all clients are handled by the thread calling {@link #receiveMessages()} and
+ * {@link #sendMessages()}. User messages are sent following their {@link NetworkMessage#getDelivery()}, system
+ * messages are reliable and ordered. A client is accepted on its first datagram requesting connection, and removed
+ * when nothing is received from it for too long.
+ * </p>
+ */
+final class ServerUdpImpl extends NetworkModel<ClientListener> implements Server
+{
+    /** Maximum clients number (client id is a positive byte). */
+    private static final int MAX_CLIENTS = 128;
+    /** Bandwidth period in milli. */
+    private static final long BANDWIDTH_MILLI = 1000L;
+    /** Server log prefix. */
+    private static final String SERVER = "Server: ";
+
+    /**
+     * Write the id and the name.
+     * 
+     * @param out The output frame.
+     * @param id The id to write.
+     * @param name The name to write.
+     * @throws IOException In case of error.
+     */
+    private static void writeIdAndName(DataOutputStream out, byte id, String name) throws IOException
+    {
+        out.writeByte(id);
+        writeString(out, name);
+    }
+
+    /**
+     * Write a string with its size.
+     * 
+     * @param out The output frame.
+     * @param value The string to write.
+     * @throws IOException In case of error.
+     */
+    private static void writeString(DataOutputStream out, String value) throws IOException
+    {
+        final byte[] data = value.getBytes(NetworkMessage.CHARSET);
+        out.writeByte(data.length);
+        out.write(data);
+    }
+
+    /**
+     * Read a string with its size.
+     * 
+     * @param in The input frame.
+     * @return The read string.
+     * @throws IOException In case of error.
+     */
+    private static String readString(DataInputStream in) throws IOException
+    {
+        final byte[] data = new byte[in.readByte()];
+        in.readFully(data);
+        return new String(data, NetworkMessage.CHARSET);
+    }
+
+    /**
+     * Check if the client is in a valid state.
+     * 
+     * @param client The client to test.
+     * @param from The client id.
+     * @param expected The expected client state.
+     * @return <code>true</code> if valid, <code>false</code> else.
+     */
+    private static boolean checkValidity(ClientDatagram client, byte from, StateConnection expected)
+    {
+        return from >= 0 && client.getState() == expected;
+    }
+
+    /** Client list. */
+    private final Map<Byte, ClientDatagram> clients = new HashMap<Byte, ClientDatagram>();
+    /** Clients by address. */
+    private final Map<SocketAddress, ClientDatagram> addresses = new HashMap<SocketAddress, ClientDatagram>();
+    /** Remove list. */
+    private final Collection<ClientDatagram> toRemove = new ArrayList<ClientDatagram>();
+    /** Datagram link factory. */
+    private final DatagramLinkFactory factory;
+    /** Received datagram. */
+    private final ByteBuffer packet = ByteBuffer.allocate(DatagramPeer.MAX_DATAGRAM);
+    /** Sent datagram. */
+    private final ByteBuffer datagram = ByteBuffer.allocate(DatagramPeer.MAX_DATAGRAM);
+    /** Received frames. */
+    private final List<byte[]> frames = new ArrayList<byte[]>();
+    /** Frame output. */
+    private final FrameOutput output = new FrameOutput();
+    /** Frame writer. */
+    private final DataOutputStream out = output.getWriter();
+    /** Frame input. */
+    private final FrameInput input = new FrameInput();
+    /** Frame reader. */
+    private final DataInputStream in = input.getReader();
+    /** Average bandwidth. */
+    private final Timing bandwidthTimer = new Timing();
+    /** Datagram link. */
+    private DatagramLink link;
+    /** Current port. */
+    private int port = -1;
+    /** Message of the day. */
+    private String messageOfTheDay;
+    /** Started flag. */
+    private boolean started;
+    /** Bandwidth size. */
+    private int bandwidth;
+    /** Bandwidth per second. */
+    private int bandwidthPerSecond;
+
+    /**
+     * Internal constructor.
+     * 
+     * @param decoder The message decoder.
+     */
+    ServerUdpImpl(NetworkMessageDecoder decoder)
+    {
+        this(decoder, DatagramLinkFactory.DIRECT);
+    }
+
+    /**
+     * Internal constructor.
+     * 
+     * @param decoder The message decoder.
+     * @param factory The datagram link factory.
+     */
+    ServerUdpImpl(NetworkMessageDecoder decoder, DatagramLinkFactory factory)
+    {
+        super(decoder);
+        this.factory = factory;
+    }
+
+    /**
+     * Receive the current datagram.
+     * 
+     * @param address The source address.
+     * @param now The current time in milli.
+     */
+    private void receive(SocketAddress address, long now)
+    {
+        final ClientDatagram client = addresses.get(address);
+        try
+        {
+            if (client == null)
+            {
+                accept(address, now);
+            }
+            else
+            {
+                client.getPeer().receive(packet, now, frames);
+                read(client);
+            }
+        }
+        catch (final IOException exception)
+        {
+            Verbose.exception(exception, "Error on reading client: ", String.valueOf(address));
+            if (client != null)
+            {
+                disconnected(client);
+            }
+        }
+        frames.clear();
+    }
+
+    /**
+     * Accept a new connection if its datagram requests it, and send its id.
+     * 
+     * @param address The client address.
+     * @param now The current time in milli.
+     * @throws IOException If error on datagram.
+     */
+    private void accept(SocketAddress address, long now) throws IOException
+    {
+        final DatagramPeer peer = new DatagramPeer(address, now);
+        peer.receive(packet, now, frames);
+        final boolean request = !frames.isEmpty() && frames.get(0)[0] == NetworkMessageSystemId.CONNECTING;
+        final byte id = getFreeId();
+        if (request && id < 0)
+        {
+            Verbose.warning(Server.class, "accept", "Too many clients, connection refused");
+        }
+        else if (request)
+        {
+            final ClientDatagram client = new ClientDatagram(id, peer);
+            client.setState(StateConnection.CONNECTING);
+            clients.put(Byte.valueOf(id), client);
+            addresses.put(address, client);
+
+            begin().writeByte(NetworkMessageSystemId.CONNECTING);
+            out.writeByte(id);
+            send(client, Delivery.RELIABLE_ORDERED);
+        }
+    }
+
+    /**
+     * Get the first free client id.
+     * 
+     * @return The free id, <code>-1</code> if none.
+     */
+    private byte getFreeId()
+    {
+        for (int id = 0; id < MAX_CLIENTS; id++)
+        {
+            if (!clients.containsKey(Byte.valueOf((byte) id)))
+            {
+                return (byte) id;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Start a new frame.
+     * 
+     * @return The frame writer.
+     */
+    private DataOutputStream begin()
+    {
+        return output.begin();
+    }
+
+    /**
+     * Add the current system frame to the client frames to send.
+     * 
+     * @param client The client to send to.
+     * @param delivery The frame delivery.
+     * @throws IOException If frame is too large.
+     */
+    private void send(ClientDatagram client, Delivery delivery) throws IOException
+    {
+        client.getPeer().queue(output.end(), delivery, DatagramPeer.SYSTEM_STREAM);
+    }
+
+    /**
+     * Add the current system frame to all connected clients frames to send, except one.
+     * 
+     * @param except The client id to skip.
+     * @throws IOException If frame is too large.
+     */
+    private void sendOthers(byte except) throws IOException
+    {
+        final byte[] data = output.end();
+        for (final ClientDatagram other : clients.values())
+        {
+            if (other.getId() != except && other.getState() == StateConnection.CONNECTED)
+            {
+                other.getPeer().queue(data, Delivery.RELIABLE_ORDERED, DatagramPeer.SYSTEM_STREAM);
+            }
+        }
+    }
+
+    /**
+     * Read the client delivered frames.
+     * 
+     * @param client The client to read from.
+     * @throws IOException If error on reading.
+     */
+    private void read(ClientDatagram client) throws IOException
+    {
+        for (int i = 0; i < frames.size() && client.getState() != StateConnection.DISCONNECTED; i++)
+        {
+            input.set(ByteBuffer.wrap(frames.get(i)));
+            final byte messageSystemId = in.readByte();
+            final byte from = in.readByte();
+            if (from == client.getId())
+            {
+                updateMessage(client, messageSystemId, from);
+            }
+        }
+    }
+
+    /**
+     * Send all clients pending frames and acknowledges, and disconnect the timed out clients.
+     * 
+     * @param now The current time in milli.
+     */
+    private void flushAll(long now)
+    {
+        for (final ClientDatagram client : clients.values())
+        {
+            if (client.getState() != StateConnection.DISCONNECTED && client.getPeer().isTimeout(now))
+            {
+                Verbose.info(SERVER, client.getName(), " timed out");
+                disconnected(client);
+            }
+            else if (client.getState() != StateConnection.DISCONNECTED)
+            {
+                flush(client, now);
+            }
+        }
+    }
+
+    /**
+     * Send the client pending frames and acknowledges.
+     * 
+     * @param client The client to send to.
+     * @param now The current time in milli.
+     */
+    private void flush(ClientDatagram client, long now)
+    {
+        try
+        {
+            bandwidth += client.getPeer().send(link, datagram, now);
+        }
+        catch (final IOException exception)
+        {
+            Verbose.exception(exception, "Error on writing client: ", String.valueOf(client.getId()));
+            disconnected(client);
+        }
+    }
+
+    /**
+     * Client connection lost, notify others if it was connected and remove it.
+     * 
+     * @param client The client lost.
+     */
+    private void disconnected(ClientDatagram client)
+    {
+        if (client.getState() == StateConnection.CONNECTED)
+        {
+            try
+            {
+                notifyDisconnected(client);
+            }
+            catch (final IOException exception)
+            {
+                Verbose.exception(exception);
+            }
+        }
+        removeClient(client);
+    }
+
+    /**
+     * Notify listeners and other clients of a client disconnection.
+     * 
+     * @param client The disconnected client.
+     * @throws IOException If error on writing.
+     */
+    private void notifyDisconnected(ClientDatagram client) throws IOException
+    {
+        client.setState(StateConnection.DISCONNECTED);
+        for (final ClientListener listener : listeners)
+        {
+            listener.notifyClientDisconnected(Byte.valueOf(client.getId()), client.getName());
+        }
+        begin().writeByte(NetworkMessageSystemId.OTHER_CLIENT_DISCONNECTED);
+        writeIdAndName(out, client.getId(), client.getName());
+        sendOthers(client.getId());
+    }
+
+    /**
+     * Mark a client as removed. It is removed on next {@link #removeClients()}, so clients are not removed while
+     * iterating them.
+     * 
+     * @param client The client to remove.
+     */
+    private void removeClient(ClientDatagram client)
+    {
+        if (client != null && !toRemove.contains(client))
+        {
+            toRemove.add(client);
+            client.setState(StateConnection.DISCONNECTED);
+            Verbose.info(SERVER, client.getName(), " disconnected");
+        }
+    }
+
+    /**
+     * Remove the clients marked as removed.
+     */
+    private void removeClients()
+    {
+        for (final ClientDatagram client : toRemove)
+        {
+            clients.remove(Byte.valueOf(client.getId()));
+            addresses.remove(client.getPeer().getAddress());
+        }
+        toRemove.clear();
+    }
+
+    /**
+     * Update the receive connecting state.
+     * 
+     * @param client The current client.
+     * @param from The id from.
+     * @throws IOException If error.
+     */
+    private void receiveConnecting(ClientDatagram client, byte from) throws IOException
+    {
+        if (checkValidity(client, from, StateConnection.CONNECTING))
+        {
+            client.setName(readString(in));
+            client.setState(StateConnection.CONNECTED);
+
+            int others = 0;
+            for (final ClientDatagram other : clients.values())
+            {
+                if (other.getId() != from && other.getState() == StateConnection.CONNECTED)
+                {
+                    others++;
+                }
+            }
+            begin().writeByte(NetworkMessageSystemId.CONNECTED);
+            out.writeByte(client.getId());
+            out.writeByte(others);
+            for (final ClientDatagram other : clients.values())
+            {
+                if (other.getId() != from && other.getState() == StateConnection.CONNECTED)
+                {
+                    writeIdAndName(out, other.getId(), other.getName());
+                }
+            }
+            if (messageOfTheDay != null)
+            {
+                writeString(out, messageOfTheDay);
+            }
+            send(client, Delivery.RELIABLE_ORDERED);
+        }
+    }
+
+    /**
+     * Update the receive connected state.
+     * 
+     * @param client The current client.
+     * @param from The id from.
+     * @throws IOException If error.
+     */
+    private void receiveConnected(ClientDatagram client, byte from) throws IOException
+    {
+        if (checkValidity(client, from, StateConnection.CONNECTED))
+        {
+            Verbose.info(SERVER, client.getName(), " connected");
+            for (final ClientListener listener : listeners)
+            {
+                listener.notifyClientConnected(Byte.valueOf(client.getId()), client.getName());
+            }
+            begin().writeByte(NetworkMessageSystemId.OTHER_CLIENT_CONNECTED);
+            writeIdAndName(out, client.getId(), client.getName());
+            sendOthers(from);
+        }
+    }
+
+    /**
+     * Update the receive renamed state.
+     * 
+     * @param client The current client.
+     * @param from The id from.
+     * @throws IOException If error.
+     */
+    private void receiveRenamed(ClientDatagram client, byte from) throws IOException
+    {
+        if (checkValidity(client, from, StateConnection.CONNECTED))
+        {
+            final String newName = readString(in);
+            Verbose.info(SERVER, client.getName(), " rennamed to ", newName);
+            client.setName(newName);
+
+            for (final ClientListener listener : listeners)
+            {
+                listener.notifyClientNameChanged(Byte.valueOf(client.getId()), client.getName());
+            }
+            begin().writeByte(NetworkMessageSystemId.OTHER_CLIENT_RENAMED);
+            writeIdAndName(out, client.getId(), client.getName());
+            sendOthers((byte) -1);
+        }
+    }
+
+    /**
+     * Update the receive standard message state.
+     * 
+     * @param client The current client.
+     * @param from The id from.
+     * @throws IOException If error.
+     */
+    private void receiveMessage(ClientDatagram client, byte from) throws IOException
+    {
+        if (checkValidity(client, from, StateConnection.CONNECTED))
+        {
+            final byte dest = in.readByte();
+            final byte type = in.readByte();
+            final int size = in.readInt();
+            if (size > 0)
+            {
+                decodeMessage(type, from, dest, in);
+            }
+        }
+    }
+
+    /**
+     * Update the message depending of its ID.
+     * 
+     * @param client The client connection.
+     * @param messageSystemId The message system ID.
+     * @param from The source ID.
+     * @throws IOException If error when reading.
+     */
+    private void updateMessage(ClientDatagram client, byte messageSystemId, byte from) throws IOException
+    {
+        switch (messageSystemId)
+        {
+            case NetworkMessageSystemId.CONNECTING:
+                receiveConnecting(client, from);
+                break;
+            case NetworkMessageSystemId.CONNECTED:
+                receiveConnected(client, from);
+                break;
+            case NetworkMessageSystemId.PING:
+                begin().writeByte(NetworkMessageSystemId.PING);
+                send(client, Delivery.UNRELIABLE_SEQUENCED);
+                break;
+            case NetworkMessageSystemId.OTHER_CLIENT_DISCONNECTED:
+                if (checkValidity(client, from, StateConnection.CONNECTED))
+                {
+                    notifyDisconnected(client);
+                    removeClient(client);
+                }
+                break;
+            case NetworkMessageSystemId.OTHER_CLIENT_RENAMED:
+                receiveRenamed(client, from);
+                break;
+            case NetworkMessageSystemId.USER_MESSAGE:
+                receiveMessage(client, from);
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Encode a user message.
+     * 
+     * @param message The message to encode.
+     * @return The frame data.
+     * @throws IOException If error when encoding.
+     */
+    private byte[] encode(NetworkMessage message) throws IOException
+    {
+        final byte[] encoded = message.encode().toByteArray();
+        begin().writeByte(NetworkMessageSystemId.USER_MESSAGE);
+        out.writeByte(message.getClientId());
+        out.writeByte(message.getClientDestId());
+        out.writeByte(message.getType());
+        out.writeInt(encoded.length);
+        out.write(encoded);
+        return output.end();
+    }
+
+    /*
+     * Server
+     */
+
+    @Override
+    public void setMessageOfTheDay(String message)
+    {
+        messageOfTheDay = message;
+    }
+
+    @Override
+    public void start(String name, int port)
+    {
+        if (!started)
+        {
+            try
+            {
+                final DatagramChannel channel = DatagramChannel.open();
+                channel.configureBlocking(false);
+                channel.socket().setReceiveBufferSize(DatagramPeer.SOCKET_BUFFER);
+                channel.socket().bind(new InetSocketAddress(port));
+                link = factory.create(channel);
+                this.port = port;
+                bandwidthTimer.start();
+                started = true;
+            }
+            catch (final IOException exception)
+            {
+                throw new LionEngineException(exception, "Cannot create the server !");
+            }
+        }
+    }
+
+    @Override
+    public void removeClient(Byte clientId)
+    {
+        removeClient(clients.get(clientId));
+    }
+
+    @Override
+    public int getNumberOfClients()
+    {
+        return clients.size() - toRemove.size();
+    }
+
+    @Override
+    public int getBandwidth()
+    {
+        return bandwidthPerSecond;
+    }
+
+    @Override
+    public int getPort()
+    {
+        return port;
+    }
+
+    /*
+     * Networker
+     */
+
+    @Override
+    public void disconnect()
+    {
+        if (!started)
+        {
+            return;
+        }
+        receiveMessages();
+        final long now = System.currentTimeMillis();
+        for (final ClientDatagram client : clients.values())
+        {
+            try
+            {
+                begin().writeByte(NetworkMessageSystemId.KICKED);
+                send(client, Delivery.RELIABLE_ORDERED);
+                client.getPeer().send(link, datagram, now);
+            }
+            catch (final IOException exception)
+            {
+                Verbose.exception(exception);
+            }
+            removeClient(client);
+        }
+        removeClients();
+        link.close();
+        started = false;
+    }
+
+    @Override
+    public void receiveMessages()
+    {
+        messagesIn.clear();
+        if (!started)
+        {
+            return;
+        }
+        final long now = System.currentTimeMillis();
+        try
+        {
+            SocketAddress address = link.receive(packet);
+            while (address != null)
+            {
+                bandwidth += packet.remaining();
+                if (DatagramPeer.isValid(packet))
+                {
+                    receive(address, now);
+                }
+                address = link.receive(packet);
+            }
+        }
+        catch (final IOException exception)
+        {
+            Verbose.exception(exception, "Error on updating server");
+        }
+        flushAll(now);
+        removeClients();
+    }
+
+    @Override
+    public void sendMessages()
+    {
+        messagesOut.addAll(messagesIn);
+        for (final NetworkMessage message : messagesOut)
+        {
+            try
+            {
+                final byte[] data = encode(message);
+                final Delivery delivery = message.getDelivery();
+                final byte dest = message.getClientDestId();
+                for (final ClientDatagram client : clients.values())
+                {
+                    if (client.getState() == StateConnection.CONNECTED && (dest == -1 || dest == client.getId()))
+                    {
+                        client.getPeer().queue(data, delivery, message.getType());
+                    }
+                }
+            }
+            catch (final IOException exception)
+            {
+                Verbose.exception(exception, "Unable to send the message");
+            }
+        }
+        messagesOut.clear();
+        if (started)
+        {
+            flushAll(System.currentTimeMillis());
+        }
+        removeClients();
+
+        if (bandwidthTimer.elapsed(BANDWIDTH_MILLI))
+        {
+            bandwidthPerSecond = bandwidth;
+            bandwidth = 0;
+            bandwidthTimer.restart();
+        }
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (C) 2013-2016 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.network;
+
+import com.b3dgs.lionengine.network.message.NetworkMessageDecoder;
+
+/**
+ * Network transport used by a networked world. Server and clients must use the same transport.
+ */
+public enum Transport
+{
+    /** Blocking sockets with object streams, one connection thread on server. */
+    STREAM
+    {
+        @Override
+        Server createServer(NetworkMessageDecoder decoder)
+        {
+            return new ServerImpl(decoder);
+        }
+
+        @Override
+        Client createClient(NetworkMessageDecoder decoder)
+        {
+            return new ClientImpl(decoder);
+        }
+    },
+    /** Non blocking channels with length prefixed frames, all clients handled by the server update thread. */
+    CHANNEL
+    {
+        @Override
+        Server createServer(NetworkMessageDecoder decoder)
+        {
+            return new ServerNioImpl(decoder);
+        }
+
+        @Override
+        Client createClient(NetworkMessageDecoder decoder)
+        {
+            return new ClientNioImpl(decoder);
+        }
+    },
+    /** Datagrams with sequence numbers and acknowledges, messages sent following their delivery. */
+    DATAGRAM
+    {
+        @Override
+        Server createServer(NetworkMessageDecoder decoder)
+        {
+            return new ServerUdpImpl(decoder);
+        }
+
+        @Override
+        Client createClient(NetworkMessageDecoder decoder)
+        {
+            return new ClientUdpImpl(decoder);
+        }
+    };
+
+    /**
+     * Create a server using this transport.
+     * 
+     * @param decoder The message decoder.
+     * @return The created server.
+     */
+    abstract Server createServer(NetworkMessageDecoder decoder);
+
+    /**
+     * Create a client using this transport.
+     * 
+     * @param decoder The message decoder.
+     * @return The created client.
+     */
+    abstract Client createClient(NetworkMessageDecoder decoder);
+}
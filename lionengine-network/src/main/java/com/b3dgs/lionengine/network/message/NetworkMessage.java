@@ -138,6 +138,17 @@ public abstract class NetworkMessage
         return clientDestId;
     }
 
+    /**
+     * Get the delivery guarantee of this message, only used by datagram transport. Messages are reliable and ordered
+     * by default, states overwritten by next messages should be unreliable.
+     * 
+     * @return The message delivery.
+     */
+    public Delivery getDelivery()
+    {
+        return Delivery.RELIABLE_ORDERED;
+    }
+
     /**
      * Encode the message.
      * 
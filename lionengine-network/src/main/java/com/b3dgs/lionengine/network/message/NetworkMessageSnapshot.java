@@ -0,0 +1,93 @@
+/*
+ * Copyright (C) 2013-2016 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.network.message;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+
+/**
+ * Snapshot sent by the server to a client, containing the entities changes since the client baseline.
+ * 
+ * @see com.b3dgs.lionengine.network.snapshot.SnapshotServer
+ */
+public class NetworkMessageSnapshot extends NetworkMessage
+{
+    /** The snapshot data. */
+    private byte[] data;
+
+    /**
+     * Constructor.
+     */
+    public NetworkMessageSnapshot()
+    {
+        super();
+    }
+
+    /**
+     * Constructor.
+     * 
+     * @param type The message type.
+     * @param clientDestId The client destination.
+     * @param data The snapshot data (not copied, must not be modified after).
+     */
+    public NetworkMessageSnapshot(byte type, byte clientDestId, byte[] data)
+    {
+        super(type, (byte) -1, clientDestId);
+        this.data = data;
+    }
+
+    /**
+     * Get the snapshot data.
+     * 
+     * @return The snapshot data.
+     */
+    public byte[] getData()
+    {
+        return data;
+    }
+
+    /*
+     * NetworkMessage
+     */
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Snapshots are unreliable, as each one is encoded from the last acknowledged one.
+     * </p>
+     */
+    @Override
+    public Delivery getDelivery()
+    {
+        return Delivery.UNRELIABLE_SEQUENCED;
+    }
+
+    @Override
+    protected void encode(ByteArrayOutputStream buffer) throws IOException
+    {
+        buffer.write(data);
+    }
+
+    @Override
+    protected void decode(DataInputStream buffer) throws IOException
+    {
+        data = new byte[buffer.available()];
+        buffer.readFully(data);
+    }
+}
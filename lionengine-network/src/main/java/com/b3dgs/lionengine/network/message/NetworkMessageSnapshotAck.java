@@ -0,0 +1,94 @@
+/*
+ * Copyright (C) 2013-2016 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.network.message;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * Acknowledge of a snapshot received by a client, which becomes its baseline for the next snapshots. Destination is
+ * the client itself, so the server does not forward it to the other clients.
+ * 
+ * @see com.b3dgs.lionengine.network.snapshot.SnapshotClient
+ */
+public class NetworkMessageSnapshotAck extends NetworkMessage
+{
+    /** The acknowledged snapshot tick. */
+    private int tick;
+
+    /**
+     * Constructor.
+     */
+    public NetworkMessageSnapshotAck()
+    {
+        super();
+    }
+
+    /**
+     * Constructor.
+     * 
+     * @param type The message type.
+     * @param clientId The client id.
+     * @param tick The acknowledged snapshot tick.
+     */
+    public NetworkMessageSnapshotAck(byte type, byte clientId, int tick)
+    {
+        super(type, clientId, clientId);
+        this.tick = tick;
+    }
+
+    /**
+     * Get the acknowledged snapshot tick.
+     * 
+     * @return The acknowledged snapshot tick.
+     */
+    public int getTick()
+    {
+        return tick;
+    }
+
+    /*
+     * NetworkMessage
+     */
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Acknowledges are unreliable, as only the last one is useful.
+     * </p>
+     */
+    @Override
+    public Delivery getDelivery()
+    {
+        return Delivery.UNRELIABLE_SEQUENCED;
+    }
+
+    @Override
+    protected void encode(ByteArrayOutputStream buffer) throws IOException
+    {
+        new DataOutputStream(buffer).writeInt(tick);
+    }
+
+    @Override
+    protected void decode(DataInputStream buffer) throws IOException
+    {
+        tick = buffer.readInt();
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (C) 2013-2016 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.network.snapshot;
+
+import java.io.IOException;
+
+/**
+ * Read values written by a {@link BitWriter}.
+ */
+final class BitReader
+{
+    /** Byte bit offset mask. */
+    private static final int OFFSET_MASK = BitWriter.BYTE_BITS - 1;
+    /** Byte index shift. */
+    private static final int INDEX_SHIFT = 3;
+    /** Byte mask. */
+    private static final int BYTE_MASK = 0xFF;
+
+    /** Read data. */
+    private byte[] data;
+    /** Current position in bits. */
+    private int position;
+
+    /**
+     * Internal constructor.
+     */
+    BitReader()
+    {
+        data = new byte[0];
+    }
+
+    /**
+     * Set the data to read from the beginning.
+     * 
+     * @param data The data to read.
+     */
+    public void set(byte[] data)
+    {
+        this.data = data;
+        position = 0;
+    }
+
+    /**
+     * Read a single bit.
+     * 
+     * @return The bit value.
+     * @throws IOException If no more data.
+     */
+    public boolean readBoolean() throws IOException
+    {
+        return read(1) == 1;
+    }
+
+    /**
+     * Read a value written on a number of bits.
+     * 
+     * @param bits The number of bits to read (between 1 and 32).
+     * @return The read value.
+     * @throws IOException If no more data.
+     */
+    public int read(int bits) throws IOException
+    {
+        if (position + bits > data.length * BitWriter.BYTE_BITS)
+        {
+            throw new IOException("Unexpected end of data");
+        }
+        int value = 0;
+        int remaining = bits;
+        while (remaining > 0)
+        {
+            final int index = position >> INDEX_SHIFT;
+            final int free = BitWriter.BYTE_BITS - (position & OFFSET_MASK);
+            final int count = Math.min(free, remaining);
+            final int chunk = ((data[index] & BYTE_MASK) >>> (free - count)) & ((1 << count) - 1);
+            value = (value << count) | chunk;
+            position += count;
+            remaining -= count;
+        }
+        return value;
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright (C) 2013-2016 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.network.snapshot;
+
+import java.util.Arrays;
+
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.LionEngineException;
+
+/**
+ * Write values on a number of bits, packed without alignment.
+ */
+final class BitWriter
+{
+    /** Bits per byte. */
+    static final int BYTE_BITS = 8;
+    /** Byte bit offset mask. */
+    private static final int OFFSET_MASK = BYTE_BITS - 1;
+    /** Byte index shift. */
+    private static final int INDEX_SHIFT = 3;
+    /** Maximum bits per value. */
+    private static final int MAX_BITS = 32;
+    /** Initial capacity in bytes. */
+    private static final int CAPACITY = 64;
+
+    /** Written data. */
+    private byte[] data;
+    /** Current position in bits. */
+    private int position;
+
+    /**
+     * Internal constructor.
+     */
+    BitWriter()
+    {
+        data = new byte[CAPACITY];
+    }
+
+    /**
+     * Restart writing from the beginning.
+     */
+    public void reset()
+    {
+        position = 0;
+    }
+
+    /**
+     * Write a single bit.
+     * 
+     * @param value The bit value.
+     */
+    public void write(boolean value)
+    {
+        if (value)
+        {
+            write(1, 1);
+        }
+        else
+        {
+            write(0, 1);
+        }
+    }
+
+    /**
+     * Write the lowest bits of a value, most significant first.
+     * 
+     * @param value The value to write.
+     * @param bits The number of bits to write (between 1 and 32).
+     * @throws LionEngineException If invalid bits number.
+     */
+    public void write(int value, int bits)
+    {
+        Check.superiorOrEqual(bits, 1);
+        Check.inferiorOrEqual(bits, MAX_BITS);
+        ensureCapacity(position + bits);
+        int remaining = bits;
+        while (remaining > 0)
+        {
+            final int index = position >> INDEX_SHIFT;
+            final int offset = position & OFFSET_MASK;
+            final int free = BYTE_BITS - offset;
+            final int count = Math.min(free, remaining);
+            final int chunk = (value >>> (remaining - count)) & ((1 << count) - 1);
+            if (offset == 0)
+            {
+                data[index] = 0;
+            }
+            data[index] |= chunk << (free - count);
+            position += count;
+            remaining -= count;
+        }
+    }
+
+    /**
+     * Get the written data, padded to the next byte.
+     * 
+     * @return The written data copy.
+     */
+    public byte[] toByteArray()
+    {
+        return Arrays.copyOf(data, getSize());
+    }
+
+    /**
+     * Get the written size in bytes.
+     * 
+     * @return The written size, padded to the next byte.
+     */
+    public int getSize()
+    {
+        return (position + OFFSET_MASK) >> INDEX_SHIFT;
+    }
+
+    /**
+     * Grow data if needed.
+     * 
+     * @param bits The bits capacity needed.
+     */
+    private void ensureCapacity(int bits)
+    {
+        final int size = (bits + OFFSET_MASK) >> INDEX_SHIFT;
+        if (size > data.length)
+        {
+            data = Arrays.copyOf(data, Math.max(size, data.length * 2));
+        }
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (C) 2013-2016 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.network.snapshot;
+
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.LionEngineException;
+
+/**
+ * Quantize a value of a range on a number of bits, such as a position on the map size. Values out of range are
+ * clamped. Precision is the range divided by the number of steps allowed by the bits.
+ */
+public final class Quantizer
+{
+    /** Maximum bits. */
+    private static final int MAX_BITS = 31;
+
+    /** Range minimum. */
+    private final double min;
+    /** Range maximum. */
+    private final double max;
+    /** Number of bits. */
+    private final int bits;
+    /** Steps per unit. */
+    private final double scale;
+
+    /**
+     * Create quantizer.
+     * 
+     * @param min The range minimum.
+     * @param max The range maximum (must be superior to minimum).
+     * @param bits The number of bits (between 1 and 31).
+     * @throws LionEngineException If invalid arguments.
+     */
+    public Quantizer(double min, double max, int bits)
+    {
+        Check.superiorStrict(max, min);
+        Check.superiorOrEqual(bits, 1);
+        Check.inferiorOrEqual(bits, MAX_BITS);
+
+        this.min = min;
+        this.max = max;
+        this.bits = bits;
+        scale = ((1 << bits) - 1) / (max - min);
+    }
+
+    /**
+     * Quantize the value.
+     * 
+     * @param value The value to quantize.
+     * @return The quantized value.
+     */
+    public int quantize(double value)
+    {
+        final double clamped = Math.max(min, Math.min(max, value));
+        return (int) Math.round((clamped - min) * scale);
+    }
+
+    /**
+     * Get the value from its quantized value.
+     * 
+     * @param value The quantized value.
+     * @return The value.
+     */
+    public double dequantize(int value)
+    {
+        return min + value / scale;
+    }
+
+    /**
+     * Get the number of bits.
+     * 
+     * @return The number of bits.
+     */
+    public int getBits()
+    {
+        return bits;
+    }
+}
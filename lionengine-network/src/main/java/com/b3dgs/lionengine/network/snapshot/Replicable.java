@@ -0,0 +1,46 @@
+/*
+ * Copyright (C) 2013-2016 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.network.snapshot;
+
+/**
+ * Describe an entity which state is replicated by snapshots. State is stored as fields values following the
+ * {@link SnapshotLayout}, with values kept on their field bits (see {@link Quantizer} for decimal values).
+ */
+public interface Replicable
+{
+    /**
+     * Get the entity id, shared by server and clients.
+     * 
+     * @return The entity id.
+     */
+    short getEntityId();
+
+    /**
+     * Save the current state (server side).
+     * 
+     * @param fields The fields values to fill.
+     */
+    void save(int[] fields);
+
+    /**
+     * Load the replicated state (client side).
+     * 
+     * @param fields The fields values (must not be modified).
+     */
+    void load(int[] fields);
+}
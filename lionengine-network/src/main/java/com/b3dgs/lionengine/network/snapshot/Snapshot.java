@@ -0,0 +1,119 @@
+/*
+ * Copyright (C) 2013-2016 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.network.snapshot;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Entities fields values at a tick. Fields arrays are never modified once stored, so unchanged states are shared
+ * between snapshots.
+ */
+final class Snapshot
+{
+    /** No snapshot tick. */
+    static final int NONE = -1;
+
+    /** Snapshot tick. */
+    private final int tick;
+    /** Fields values by entity id. */
+    private final Map<Short, int[]> states;
+
+    /**
+     * Create an empty snapshot.
+     * 
+     * @param tick The snapshot tick.
+     */
+    Snapshot(int tick)
+    {
+        this.tick = tick;
+        states = new HashMap<Short, int[]>();
+    }
+
+    /**
+     * Create a snapshot starting from a baseline states.
+     * 
+     * @param tick The snapshot tick.
+     * @param baseline The baseline snapshot (<code>null</code> to start empty).
+     */
+    Snapshot(int tick, Snapshot baseline)
+    {
+        this.tick = tick;
+        if (baseline == null)
+        {
+            states = new HashMap<Short, int[]>();
+        }
+        else
+        {
+            states = new HashMap<Short, int[]>(baseline.states);
+        }
+    }
+
+    /**
+     * Get the snapshot tick.
+     * 
+     * @return The snapshot tick.
+     */
+    public int getTick()
+    {
+        return tick;
+    }
+
+    /**
+     * Set the entity fields values.
+     * 
+     * @param id The entity id.
+     * @param fields The fields values (not copied, must not be modified after).
+     */
+    public void put(Short id, int[] fields)
+    {
+        states.put(id, fields);
+    }
+
+    /**
+     * Remove the entity.
+     * 
+     * @param id The entity id.
+     */
+    public void remove(Short id)
+    {
+        states.remove(id);
+    }
+
+    /**
+     * Get the entity fields values.
+     * 
+     * @param id The entity id.
+     * @return The fields values (<code>null</code> if none).
+     */
+    public int[] get(Short id)
+    {
+        return states.get(id);
+    }
+
+    /**
+     * Get all entities fields values.
+     * 
+     * @return The fields values by entity id.
+     */
+    public Collection<Map.Entry<Short, int[]>> getStates()
+    {
+        return states.entrySet();
+    }
+}
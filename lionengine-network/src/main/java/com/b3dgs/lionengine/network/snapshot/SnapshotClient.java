@@ -0,0 +1,171 @@
+/*
+ * Copyright (C) 2013-2016 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.network.snapshot;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.b3dgs.lionengine.Verbose;
+import com.b3dgs.lionengine.network.message.NetworkMessage;
+import com.b3dgs.lionengine.network.message.NetworkMessageSnapshot;
+import com.b3dgs.lionengine.network.message.NetworkMessageSnapshotAck;
+import com.b3dgs.lionengine.network.purview.NetworkableModel;
+
+/**
+ * Client side snapshots replication. Each received snapshot is rebuilt from its baseline, applied to the changed
+ * replicables, and acknowledged to the server.
+ * <p>
+ * Must be added to the networked world to receive snapshots and send acknowledges:
+ * </p>
+ * 
+ * <pre>
+ * world.addNetworkableType(snapshots, SNAPSHOT_TYPE);
+ * </pre>
+ */
+public class SnapshotClient extends NetworkableModel
+{
+    /** Acknowledge message type. */
+    private final byte ackType;
+    /** Fields layout. */
+    private final SnapshotLayout layout;
+    /** Replicables by entity id. */
+    private final Map<Short, Replicable> replicables;
+    /** Received snapshots. */
+    private final SnapshotHistory history;
+    /** Snapshot reader. */
+    private final BitReader reader;
+    /** Last applied snapshot. */
+    private Snapshot last;
+
+    /**
+     * Create client snapshots.
+     * 
+     * @param ackType The acknowledge message type.
+     * @param layout The fields layout.
+     */
+    public SnapshotClient(byte ackType, SnapshotLayout layout)
+    {
+        super();
+        this.ackType = ackType;
+        this.layout = layout;
+        replicables = new HashMap<Short, Replicable>();
+        history = new SnapshotHistory();
+        reader = new BitReader();
+    }
+
+    /**
+     * Add a replicated entity. Its last received state is loaded if has.
+     * 
+     * @param replicable The replicable to add.
+     */
+    public void addReplicable(Replicable replicable)
+    {
+        final Short id = Short.valueOf(replicable.getEntityId());
+        replicables.put(id, replicable);
+        if (last != null && last.get(id) != null)
+        {
+            replicable.load(last.get(id));
+        }
+    }
+
+    /**
+     * Remove a replicated entity.
+     * 
+     * @param replicable The replicable to remove.
+     */
+    public void removeReplicable(Replicable replicable)
+    {
+        replicables.remove(Short.valueOf(replicable.getEntityId()));
+    }
+
+    /**
+     * Get the last applied snapshot tick.
+     * 
+     * @return The last applied snapshot tick, -1 if none.
+     */
+    public int getTick()
+    {
+        if (last == null)
+        {
+            return Snapshot.NONE;
+        }
+        return last.getTick();
+    }
+
+    /**
+     * Rebuild the snapshot from its baseline, apply it and acknowledge it. Snapshots older than the last one, or with
+     * an unknown baseline, are ignored.
+     * 
+     * @param message The snapshot message.
+     * @throws IOException If invalid snapshot data.
+     */
+    private void receive(NetworkMessageSnapshot message) throws IOException
+    {
+        reader.set(message.getData());
+        final int tick = SnapshotCodec.readTick(reader);
+        final int baselineTick = SnapshotCodec.readTick(reader);
+        final Snapshot baseline = history.get(baselineTick);
+        if (tick > getTick() && (baseline != null || baselineTick == Snapshot.NONE))
+        {
+            final Snapshot snapshot = SnapshotCodec.decode(layout, tick, baseline, reader);
+            history.add(snapshot);
+            apply(snapshot);
+            last = snapshot;
+            addNetworkMessage(new NetworkMessageSnapshotAck(ackType, message.getClientDestId(), tick));
+        }
+    }
+
+    /**
+     * Load the states which changed since the last applied snapshot.
+     * 
+     * @param snapshot The snapshot to apply.
+     */
+    private void apply(Snapshot snapshot)
+    {
+        for (final Map.Entry<Short, Replicable> entry : replicables.entrySet())
+        {
+            final int[] fields = snapshot.get(entry.getKey());
+            if (fields != null && (last == null || !Arrays.equals(last.get(entry.getKey()), fields)))
+            {
+                entry.getValue().load(fields);
+            }
+        }
+    }
+
+    /*
+     * Networkable
+     */
+
+    @Override
+    public void applyMessage(NetworkMessage message)
+    {
+        if (message instanceof NetworkMessageSnapshot)
+        {
+            try
+            {
+                receive((NetworkMessageSnapshot) message);
+            }
+            catch (final IOException exception)
+            {
+                Verbose.exception(exception, "Invalid snapshot");
+            }
+        }
+    }
+}
@@ -0,0 +1,216 @@
+/*
+ * Copyright (C) 2013-2016 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.network.snapshot;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Map;
+
+import com.b3dgs.lionengine.LionEngineException;
+
+/**
+ * Encode a snapshot as delta from a baseline, and decode it back. Only entities which changed are written, with a
+ * flag per field telling if its value follows:
+ * 
+ * <pre>
+ * tick (32 bits), baseline tick (32 bits)
+ * for each changed entity: 1, id (16 bits), 0, for each field: changed (1 bit), [value (field bits)]
+ * for each removed entity: 1, id (16 bits), 1
+ * 0
+ * </pre>
+ * <p>
+ * Entities missing from the baseline are encoded from fields at zero.
+ * </p>
+ */
+final class SnapshotCodec
+{
+    /** Tick bits. */
+    private static final int TICK_BITS = 32;
+    /** Entity id bits. */
+    private static final int ID_BITS = 16;
+    /** Entity id mask. */
+    private static final int ID_MASK = 0xFFFF;
+
+    /**
+     * Write the snapshot delta from the baseline.
+     * 
+     * @param layout The fields layout.
+     * @param baseline The baseline snapshot (<code>null</code> for full snapshot).
+     * @param current The snapshot to write.
+     * @param writer The writer output.
+     */
+    public static void encode(SnapshotLayout layout, Snapshot baseline, Snapshot current, BitWriter writer)
+    {
+        writer.write(current.getTick(), TICK_BITS);
+        final int[] zero = new int[layout.getFields()];
+        if (baseline == null)
+        {
+            writer.write(Snapshot.NONE, TICK_BITS);
+        }
+        else
+        {
+            writer.write(baseline.getTick(), TICK_BITS);
+        }
+        for (final Map.Entry<Short, int[]> entry : current.getStates())
+        {
+            final int[] old = getState(baseline, entry.getKey());
+            final int[] fields = entry.getValue();
+            if (old == null)
+            {
+                writeEntity(layout, entry.getKey(), zero, fields, writer);
+            }
+            else if (!Arrays.equals(old, fields))
+            {
+                writeEntity(layout, entry.getKey(), old, fields, writer);
+            }
+        }
+        if (baseline != null)
+        {
+            for (final Map.Entry<Short, int[]> entry : baseline.getStates())
+            {
+                if (current.get(entry.getKey()) == null)
+                {
+                    writer.write(true);
+                    writer.write(entry.getKey().shortValue() & ID_MASK, ID_BITS);
+                    writer.write(true);
+                }
+            }
+        }
+        writer.write(false);
+    }
+
+    /**
+     * Read a tick, first the snapshot tick, then the baseline tick.
+     * 
+     * @param reader The reader input.
+     * @return The tick read ({@link Snapshot#NONE} for the baseline tick of a full snapshot).
+     * @throws IOException If invalid data.
+     */
+    public static int readTick(BitReader reader) throws IOException
+    {
+        return reader.read(TICK_BITS);
+    }
+
+    /**
+     * Read the snapshot delta, after its ticks.
+     * 
+     * @param layout The fields layout.
+     * @param tick The snapshot tick.
+     * @param baseline The baseline snapshot (<code>null</code> for full snapshot).
+     * @param reader The reader input.
+     * @return The snapshot read.
+     * @throws IOException If invalid data.
+     */
+    public static Snapshot decode(SnapshotLayout layout, int tick, Snapshot baseline, BitReader reader)
+            throws IOException
+    {
+        final Snapshot snapshot = new Snapshot(tick, baseline);
+        while (reader.readBoolean())
+        {
+            final Short id = Short.valueOf((short) reader.read(ID_BITS));
+            if (reader.readBoolean())
+            {
+                snapshot.remove(id);
+            }
+            else
+            {
+                snapshot.put(id, readEntity(layout, getState(baseline, id), reader));
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * Get the entity state in the snapshot.
+     * 
+     * @param snapshot The snapshot (can be <code>null</code>).
+     * @param id The entity id.
+     * @return The entity fields values, <code>null</code> if none.
+     */
+    private static int[] getState(Snapshot snapshot, Short id)
+    {
+        if (snapshot == null)
+        {
+            return null;
+        }
+        return snapshot.get(id);
+    }
+
+    /**
+     * Write the entity changed fields.
+     * 
+     * @param layout The fields layout.
+     * @param id The entity id.
+     * @param old The baseline fields values.
+     * @param fields The current fields values.
+     * @param writer The writer output.
+     */
+    private static void writeEntity(SnapshotLayout layout, Short id, int[] old, int[] fields, BitWriter writer)
+    {
+        writer.write(true);
+        writer.write(id.shortValue() & ID_MASK, ID_BITS);
+        writer.write(false);
+        for (int i = 0; i < fields.length; i++)
+        {
+            final boolean changed = old[i] != fields[i];
+            writer.write(changed);
+            if (changed)
+            {
+                writer.write(fields[i], layout.getBits(i));
+            }
+        }
+    }
+
+    /**
+     * Read the entity changed fields.
+     * 
+     * @param layout The fields layout.
+     * @param old The baseline fields values (<code>null</code> if none).
+     * @param reader The reader input.
+     * @return The entity fields values.
+     * @throws IOException If invalid data.
+     */
+    private static int[] readEntity(SnapshotLayout layout, int[] old, BitReader reader) throws IOException
+    {
+        final int[] fields;
+        if (old == null)
+        {
+            fields = new int[layout.getFields()];
+        }
+        else
+        {
+            fields = Arrays.copyOf(old, old.length);
+        }
+        for (int i = 0; i < fields.length; i++)
+        {
+            if (reader.readBoolean())
+            {
+                fields[i] = reader.read(layout.getBits(i));
+            }
+        }
+        return fields;
+    }
+
+    /**
+     * Private constructor.
+     */
+    private SnapshotCodec()
+    {
+        throw new LionEngineException(LionEngineException.ERROR_PRIVATE_CONSTRUCTOR);
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright (C) 2013-2016 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.network.snapshot;
+
+/**
+ * Last snapshots by tick, used as baselines.
+ */
+final class SnapshotHistory
+{
+    /** Number of snapshots kept. */
+    private static final int SIZE = 32;
+
+    /** Snapshots ring. */
+    private final Snapshot[] snapshots = new Snapshot[SIZE];
+
+    /**
+     * Internal constructor.
+     */
+    SnapshotHistory()
+    {
+        super();
+    }
+
+    /**
+     * Add a snapshot, replacing the oldest one.
+     * 
+     * @param snapshot The snapshot to add.
+     */
+    public void add(Snapshot snapshot)
+    {
+        snapshots[snapshot.getTick() % SIZE] = snapshot;
+    }
+
+    /**
+     * Get the snapshot of a tick.
+     * 
+     * @param tick The snapshot tick.
+     * @return The snapshot, <code>null</code> if none or no more kept.
+     */
+    public Snapshot get(int tick)
+    {
+        Snapshot snapshot = null;
+        if (tick >= 0)
+        {
+            snapshot = snapshots[tick % SIZE];
+        }
+        if (snapshot != null && snapshot.getTick() != tick)
+        {
+            snapshot = null;
+        }
+        return snapshot;
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (C) 2013-2016 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.network.snapshot;
+
+import java.util.Arrays;
+
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.LionEngineException;
+
+/**
+ * Describe the replicated fields of entities, with the number of bits of each field. Server and clients must use the
+ * same layout.
+ */
+public final class SnapshotLayout
+{
+    /** Maximum bits per field. */
+    private static final int MAX_BITS = 32;
+
+    /** Bits per field. */
+    private final int[] bits;
+    /** Value mask per field. */
+    private final int[] masks;
+
+    /**
+     * Create layout.
+     * 
+     * @param bits The bits of each field (between 1 and 32), in fields order.
+     * @throws LionEngineException If invalid bits.
+     */
+    public SnapshotLayout(int... bits)
+    {
+        Check.superiorOrEqual(bits.length, 1);
+
+        this.bits = Arrays.copyOf(bits, bits.length);
+        masks = new int[bits.length];
+        for (int i = 0; i < bits.length; i++)
+        {
+            Check.superiorOrEqual(bits[i], 1);
+            Check.inferiorOrEqual(bits[i], MAX_BITS);
+            if (bits[i] == MAX_BITS)
+            {
+                masks[i] = -1;
+            }
+            else
+            {
+                masks[i] = (1 << bits[i]) - 1;
+            }
+        }
+    }
+
+    /**
+     * Get the number of fields.
+     * 
+     * @return The number of fields.
+     */
+    public int getFields()
+    {
+        return bits.length;
+    }
+
+    /**
+     * Get the number of bits of a field.
+     * 
+     * @param field The field index.
+     * @return The number of bits.
+     */
+    public int getBits(int field)
+    {
+        return bits[field];
+    }
+
+    /**
+     * Keep only the value bits of a field.
+     * 
+     * @param field The field index.
+     * @param value The field value.
+     * @return The value as replicated.
+     */
+    int mask(int field, int value)
+    {
+        return value & masks[field];
+    }
+}
@@ -0,0 +1,213 @@
+/*
+ * Copyright (C) 2013-2016 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.network.snapshot;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.b3dgs.lionengine.network.ClientListener;
+import com.b3dgs.lionengine.network.message.NetworkMessage;
+import com.b3dgs.lionengine.network.message.NetworkMessageSnapshot;
+import com.b3dgs.lionengine.network.message.NetworkMessageSnapshotAck;
+import com.b3dgs.lionengine.network.purview.NetworkableModel;
+
+/**
+ * Server side snapshots replication. On each {@link #update()}, the replicables state is saved as a new snapshot, and
+ * each client receives the delta from its last acknowledged snapshot. Entities without changes are not sent, so
+ * bandwidth depends on changes rate instead of entities number.
+ * <p>
+ * Must be added to the networked world to send snapshots and receive acknowledges, and as its client listener to know
+ * the clients:
+ * </p>
+ * 
+ * <pre>
+ * world.addNetworkableType(snapshots, ACK_TYPE);
+ * world.addListener(snapshots);
+ * </pre>
+ */
+public class SnapshotServer extends NetworkableModel implements ClientListener
+{
+    /** Snapshot message type. */
+    private final byte type;
+    /** Fields layout. */
+    private final SnapshotLayout layout;
+    /** Replicables by entity id. */
+    private final Map<Short, Replicable> replicables;
+    /** Acknowledged snapshot tick by client id. */
+    private final Map<Byte, Integer> acknowledged;
+    /** Snapshots history. */
+    private final SnapshotHistory history;
+    /** Snapshot writer. */
+    private final BitWriter writer;
+    /** Encoded snapshot by baseline tick, for the current update. */
+    private final Map<Integer, byte[]> encoded;
+    /** Saved fields buffer. */
+    private final int[] fields;
+    /** Last snapshot. */
+    private Snapshot last;
+    /** Current tick. */
+    private int tick;
+
+    /**
+     * Create server snapshots.
+     * 
+     * @param type The snapshot message type.
+     * @param layout The fields layout.
+     */
+    public SnapshotServer(byte type, SnapshotLayout layout)
+    {
+        super();
+        this.type = type;
+        this.layout = layout;
+        replicables = new HashMap<Short, Replicable>();
+        acknowledged = new HashMap<Byte, Integer>();
+        history = new SnapshotHistory();
+        writer = new BitWriter();
+        encoded = new HashMap<Integer, byte[]>();
+        fields = new int[layout.getFields()];
+        tick = 0;
+    }
+
+    /**
+     * Add a replicated entity.
+     * 
+     * @param replicable The replicable to add.
+     */
+    public void addReplicable(Replicable replicable)
+    {
+        replicables.put(Short.valueOf(replicable.getEntityId()), replicable);
+    }
+
+    /**
+     * Remove a replicated entity.
+     * 
+     * @param replicable The replicable to remove.
+     */
+    public void removeReplicable(Replicable replicable)
+    {
+        replicables.remove(Short.valueOf(replicable.getEntityId()));
+    }
+
+    /**
+     * Save the replicables state and add the snapshot message of each client.
+     */
+    public void update()
+    {
+        final Snapshot snapshot = save();
+        history.add(snapshot);
+        last = snapshot;
+        tick++;
+
+        encoded.clear();
+        for (final Map.Entry<Byte, Integer> client : acknowledged.entrySet())
+        {
+            final Integer baselineTick = client.getValue();
+            byte[] data = encoded.get(baselineTick);
+            if (data == null)
+            {
+                writer.reset();
+                SnapshotCodec.encode(layout, history.get(baselineTick.intValue()), snapshot, writer);
+                data = writer.toByteArray();
+                encoded.put(baselineTick, data);
+            }
+            addNetworkMessage(new NetworkMessageSnapshot(type, client.getKey().byteValue(), data));
+        }
+    }
+
+    /**
+     * Get the current tick.
+     * 
+     * @return The tick of the next snapshot.
+     */
+    public int getTick()
+    {
+        return tick;
+    }
+
+    /**
+     * Save the replicables state. Unchanged states share the last snapshot fields.
+     * 
+     * @return The snapshot saved.
+     */
+    private Snapshot save()
+    {
+        final Snapshot snapshot = new Snapshot(tick);
+        for (final Map.Entry<Short, Replicable> entry : replicables.entrySet())
+        {
+            Arrays.fill(fields, 0);
+            entry.getValue().save(fields);
+            for (int i = 0; i < fields.length; i++)
+            {
+                fields[i] = layout.mask(i, fields[i]);
+            }
+            int[] state = null;
+            if (last != null)
+            {
+                state = last.get(entry.getKey());
+            }
+            if (!Arrays.equals(state, fields))
+            {
+                state = Arrays.copyOf(fields, fields.length);
+            }
+            snapshot.put(entry.getKey(), state);
+        }
+        return snapshot;
+    }
+
+    /*
+     * Networkable
+     */
+
+    @Override
+    public void applyMessage(NetworkMessage message)
+    {
+        if (message instanceof NetworkMessageSnapshotAck)
+        {
+            final Byte client = Byte.valueOf(message.getClientId());
+            final Integer current = acknowledged.get(client);
+            final int acked = ((NetworkMessageSnapshotAck) message).getTick();
+            if (current != null && acked > current.intValue())
+            {
+                acknowledged.put(client, Integer.valueOf(acked));
+            }
+        }
+    }
+
+    /*
+     * ClientListener
+     */
+
+    @Override
+    public void notifyClientConnected(Byte id, String name)
+    {
+        acknowledged.put(id, Integer.valueOf(Snapshot.NONE));
+    }
+
+    @Override
+    public void notifyClientDisconnected(Byte id, String name)
+    {
+        acknowledged.remove(id);
+    }
+
+    @Override
+    public void notifyClientNameChanged(Byte id, String name)
+    {
+        // Nothing to do
+    }
+}
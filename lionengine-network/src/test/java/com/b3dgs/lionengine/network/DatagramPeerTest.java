@@ -0,0 +1,298 @@
+/*
+ * Copyright (C) 2013-2016 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.network;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.b3dgs.lionengine.network.message.Delivery;
+
+/**
+ * Test the datagram peer class on a lossy loopback.
+ */
+public class DatagramPeerTest
+{
+    /** Loopback address. */
+    private static final String LOCALHOST = "127.0.0.1";
+    /** Drop probability. */
+    private static final double DROP = 0.3;
+    /** Delay in milli. */
+    private static final long DELAY = 5L;
+    /** Jitter in milli. */
+    private static final long JITTER = 20L;
+    /** Random seed. */
+    private static final long SEED = 42L;
+    /** Frames number. */
+    private static final int FRAMES = 200;
+    /** Frames number sent in one tick, split in several datagrams. */
+    private static final int SPLIT_FRAMES = 600;
+    /** Sequenced streams number. */
+    private static final int STREAMS = 2;
+    /** Frame size. */
+    private static final int FRAME_SIZE = 4;
+    /** Invalid datagram size. */
+    private static final int INVALID_SIZE = 32;
+    /** Exchange timeout in milli. */
+    private static final long TIMEOUT_MILLI = 10000L;
+
+    /** Sent datagram. */
+    private final ByteBuffer buffer = ByteBuffer.allocate(DatagramPeer.MAX_DATAGRAM);
+    /** Received datagram. */
+    private final ByteBuffer packet = ByteBuffer.allocate(DatagramPeer.MAX_DATAGRAM);
+    /** Sender link. */
+    private LossyLink senderLink;
+    /** Receiver link. */
+    private LossyLink receiverLink;
+    /** Sender peer. */
+    private DatagramPeer sender;
+    /** Receiver peer. */
+    private DatagramPeer receiver;
+
+    /**
+     * Open the lossy links.
+     * 
+     * @throws IOException If error.
+     */
+    @Before
+    public void open() throws IOException
+    {
+        final DatagramChannel senderChannel = DatagramChannel.open();
+        senderChannel.configureBlocking(false);
+        senderChannel.socket().bind(new InetSocketAddress(LOCALHOST, 0));
+        final DatagramChannel receiverChannel = DatagramChannel.open();
+        receiverChannel.configureBlocking(false);
+        receiverChannel.socket().bind(new InetSocketAddress(LOCALHOST, 0));
+
+        senderLink = new LossyLink(new DatagramChannelLink(senderChannel), DROP, DELAY, JITTER, SEED);
+        receiverLink = new LossyLink(new DatagramChannelLink(receiverChannel), DROP, DELAY, JITTER, SEED + 1);
+        final long now = System.currentTimeMillis();
+        sender = new DatagramPeer(receiverChannel.socket().getLocalSocketAddress(), now);
+        receiver = new DatagramPeer(senderChannel.socket().getLocalSocketAddress(), now);
+    }
+
+    /**
+     * Close the lossy links.
+     */
+    @After
+    public void close()
+    {
+        senderLink.close();
+        receiverLink.close();
+    }
+
+    /**
+     * Test reliable ordered frames all received in order.
+     * 
+     * @throws IOException If error.
+     * @throws InterruptedException If interrupted.
+     */
+    @Test
+    public void testReliableOrdered() throws IOException, InterruptedException
+    {
+        final List<Integer> received = exchange(Delivery.RELIABLE_ORDERED);
+
+        Assert.assertEquals(getExpected(FRAMES), received);
+        Assert.assertTrue(senderLink.getDropped() > 0);
+    }
+
+    /**
+     * Test reliable unordered frames all received once.
+     * 
+     * @throws IOException If error.
+     * @throws InterruptedException If interrupted.
+     */
+    @Test
+    public void testReliableUnordered() throws IOException, InterruptedException
+    {
+        final List<Integer> received = exchange(Delivery.RELIABLE_UNORDERED);
+        Collections.sort(received);
+
+        Assert.assertEquals(getExpected(FRAMES), received);
+    }
+
+    /**
+     * Test unreliable sequenced frames received in increasing order, lost ones not resent.
+     * 
+     * @throws IOException If error.
+     * @throws InterruptedException If interrupted.
+     */
+    @Test
+    public void testUnreliableSequenced() throws IOException, InterruptedException
+    {
+        final List<Integer> received = exchange(Delivery.UNRELIABLE_SEQUENCED);
+
+        Assert.assertFalse(received.isEmpty());
+        Assert.assertTrue(received.size() < FRAMES);
+        for (int i = 1; i < received.size(); i++)
+        {
+            Assert.assertTrue(received.get(i).intValue() > received.get(i - 1).intValue());
+        }
+        Assert.assertFalse(sender.hasPending());
+    }
+
+    /**
+     * Test sequenced frames of a tick split in several datagrams all received, even if datagrams are reordered, and
+     * streams not dropping each other frames.
+     * 
+     * @throws IOException If error.
+     * @throws InterruptedException If interrupted.
+     */
+    @Test
+    public void testUnreliableSequencedSplitTick() throws IOException, InterruptedException
+    {
+        senderLink.setDrop(0.0);
+        for (int i = 0; i < SPLIT_FRAMES; i++)
+        {
+            sender.queue(createFrame(i), Delivery.UNRELIABLE_SEQUENCED, i % STREAMS);
+        }
+        final List<byte[]> frames = new ArrayList<byte[]>();
+        final long settle = System.currentTimeMillis() + DELAY + JITTER;
+        while (System.currentTimeMillis() <= settle)
+        {
+            update(frames);
+        }
+        final List<Integer> received = getValues(frames);
+        Collections.sort(received);
+
+        Assert.assertEquals(getExpected(SPLIT_FRAMES), received);
+        Assert.assertTrue(senderLink.getReordered() > 0);
+    }
+
+    /**
+     * Test invalid datagram.
+     * 
+     * @throws IOException If error.
+     */
+    @Test(expected = IOException.class)
+    public void testInvalid() throws IOException
+    {
+        final ByteBuffer invalid = ByteBuffer.wrap(new byte[INVALID_SIZE]);
+
+        Assert.assertFalse(DatagramPeer.isValid(invalid));
+        receiver.receive(invalid, System.currentTimeMillis(), new ArrayList<byte[]>());
+    }
+
+    /**
+     * Get the expected frames.
+     * 
+     * @param count The frames number.
+     * @return The frames values.
+     */
+    private static List<Integer> getExpected(int count)
+    {
+        final List<Integer> expected = new ArrayList<Integer>();
+        for (int i = 0; i < count; i++)
+        {
+            expected.add(Integer.valueOf(i));
+        }
+        return expected;
+    }
+
+    /**
+     * Create a frame.
+     * 
+     * @param value The frame value.
+     * @return The frame data.
+     */
+    private static byte[] createFrame(int value)
+    {
+        return ByteBuffer.allocate(FRAME_SIZE).putInt(value).array();
+    }
+
+    /**
+     * Get the frames values.
+     * 
+     * @param frames The frames data.
+     * @return The frames values.
+     */
+    private static List<Integer> getValues(List<byte[]> frames)
+    {
+        final List<Integer> values = new ArrayList<Integer>();
+        for (final byte[] frame : frames)
+        {
+            values.add(Integer.valueOf(ByteBuffer.wrap(frame).getInt()));
+        }
+        return values;
+    }
+
+    /**
+     * Send one frame per update until all sent and acknowledged, and get the received frames.
+     * 
+     * @param delivery The frames delivery.
+     * @return The received frames values.
+     * @throws IOException If error.
+     * @throws InterruptedException If interrupted.
+     */
+    private List<Integer> exchange(Delivery delivery) throws IOException, InterruptedException
+    {
+        final List<byte[]> frames = new ArrayList<byte[]>();
+        final long end = System.currentTimeMillis() + TIMEOUT_MILLI;
+        int queued = 0;
+        while ((queued < FRAMES || sender.hasPending()) && System.currentTimeMillis() < end)
+        {
+            if (queued < FRAMES)
+            {
+                sender.queue(createFrame(queued), delivery, 0);
+                queued++;
+            }
+            update(frames);
+        }
+        final long settle = System.currentTimeMillis() + DELAY + JITTER;
+        while (System.currentTimeMillis() <= settle)
+        {
+            update(frames);
+        }
+        return getValues(frames);
+    }
+
+    /**
+     * Send the sender frames, receive them, and send back the acknowledges.
+     * 
+     * @param frames The received frames.
+     * @throws IOException If error.
+     * @throws InterruptedException If interrupted.
+     */
+    private void update(List<byte[]> frames) throws IOException, InterruptedException
+    {
+        final long now = System.currentTimeMillis();
+        sender.send(senderLink, buffer, now);
+        while (receiverLink.receive(packet) != null)
+        {
+            receiver.receive(packet, now, frames);
+        }
+        receiver.send(receiverLink, buffer, now);
+
+        final List<byte[]> none = new ArrayList<byte[]>();
+        while (senderLink.receive(packet) != null)
+        {
+            sender.receive(packet, now, none);
+        }
+        Assert.assertTrue(none.isEmpty());
+        Thread.sleep(1L);
+    }
+}
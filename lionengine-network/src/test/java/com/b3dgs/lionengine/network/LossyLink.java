@@ -0,0 +1,262 @@
+/*
+ * Copyright (C) 2013-2016 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.network;
+
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+/**
+ * Datagram link simulating a lossy network: sent datagrams are dropped, delayed, and reordered by jitter. Delayed
+ * datagrams are sent on next link use once their delay elapsed.
+ */
+final class LossyLink implements DatagramLink
+{
+    /**
+     * Create a factory of lossy links.
+     * 
+     * @param drop The drop probability [0-1].
+     * @param delay The delay in milli.
+     * @param jitter The maximum delay added randomly in milli.
+     * @param seed The random seed.
+     * @return The links factory.
+     */
+    static DatagramLinkFactory factory(final double drop, final long delay, final long jitter, final long seed)
+    {
+        return new DatagramLinkFactory()
+        {
+            @Override
+            public DatagramLink create(DatagramChannel channel)
+            {
+                return new LossyLink(new DatagramChannelLink(channel), drop, delay, jitter, seed);
+            }
+        };
+    }
+
+    /** Delayed datagrams. */
+    private final PriorityQueue<Pending> pending = new PriorityQueue<Pending>();
+    /** Wrapped link. */
+    private final DatagramLink link;
+    /** Drop probability. */
+    private double drop;
+    /** Delay in milli. */
+    private final long delay;
+    /** Maximum jitter in milli. */
+    private final long jitter;
+    /** Random. */
+    private final Random random;
+    /** Sent datagrams number. */
+    private int order;
+    /** Dropped datagrams number. */
+    private int dropped;
+    /** Last sent datagram order. */
+    private int lastOrder = -1;
+    /** Datagrams sent after a following one. */
+    private int reordered;
+
+    /**
+     * Create link.
+     * 
+     * @param link The wrapped link.
+     * @param drop The drop probability [0-1].
+     * @param delay The delay in milli.
+     * @param jitter The maximum delay added randomly in milli.
+     * @param seed The random seed.
+     */
+    LossyLink(DatagramLink link, double drop, long delay, long jitter, long seed)
+    {
+        this.link = link;
+        this.drop = drop;
+        this.delay = delay;
+        this.jitter = jitter;
+        random = new Random(seed);
+    }
+
+    /**
+     * Set the drop probability.
+     * 
+     * @param drop The drop probability [0-1].
+     */
+    void setDrop(double drop)
+    {
+        this.drop = drop;
+    }
+
+    /**
+     * Get the number of datagrams sent after a following one.
+     * 
+     * @return The reordered datagrams number.
+     */
+    int getReordered()
+    {
+        return reordered;
+    }
+
+    /**
+     * Get the dropped datagrams number.
+     * 
+     * @return The dropped datagrams number.
+     */
+    int getDropped()
+    {
+        return dropped;
+    }
+
+    /**
+     * Send the delayed datagrams which are due.
+     * 
+     * @throws IOException If error on sending.
+     */
+    private void release() throws IOException
+    {
+        final long now = System.currentTimeMillis();
+        while (!pending.isEmpty() && pending.peek().getDue() <= now)
+        {
+            final Pending datagram = pending.poll();
+            if (datagram.getOrder() < lastOrder)
+            {
+                reordered++;
+            }
+            else
+            {
+                lastOrder = datagram.getOrder();
+            }
+            link.send(ByteBuffer.wrap(datagram.getData()), datagram.getAddress());
+        }
+    }
+
+    /*
+     * DatagramLink
+     */
+
+    @Override
+    public void send(ByteBuffer packet, SocketAddress address) throws IOException
+    {
+        release();
+        final byte[] data = new byte[packet.remaining()];
+        packet.get(data);
+        if (random.nextDouble() < drop)
+        {
+            dropped++;
+        }
+        else
+        {
+            final long due = System.currentTimeMillis() + delay + (long) (random.nextDouble() * jitter);
+            pending.add(new Pending(data, address, due, order++));
+            release();
+        }
+    }
+
+    @Override
+    public SocketAddress receive(ByteBuffer packet) throws IOException
+    {
+        release();
+        return link.receive(packet);
+    }
+
+    @Override
+    public void close()
+    {
+        pending.clear();
+        link.close();
+    }
+
+    /**
+     * Delayed datagram.
+     */
+    private static final class Pending implements Comparable<Pending>
+    {
+        /** Datagram data. */
+        private final byte[] data;
+        /** Destination address. */
+        private final SocketAddress address;
+        /** Sending time in milli. */
+        private final long due;
+        /** Sending order. */
+        private final int order;
+
+        /**
+         * Create delayed datagram.
+         * 
+         * @param data The datagram data.
+         * @param address The destination address.
+         * @param due The sending time in milli.
+         * @param order The sending order.
+         */
+        Pending(byte[] data, SocketAddress address, long due, int order)
+        {
+            this.data = data;
+            this.address = address;
+            this.due = due;
+            this.order = order;
+        }
+
+        /**
+         * Get the datagram data.
+         * 
+         * @return The datagram data.
+         */
+        byte[] getData()
+        {
+            return data;
+        }
+
+        /**
+         * Get the destination address.
+         * 
+         * @return The destination address.
+         */
+        SocketAddress getAddress()
+        {
+            return address;
+        }
+
+        /**
+         * Get the sending order.
+         * 
+         * @return The sending order.
+         */
+        int getOrder()
+        {
+            return order;
+        }
+
+        /**
+         * Get the sending time.
+         * 
+         * @return The sending time in milli.
+         */
+        long getDue()
+        {
+            return due;
+        }
+
+        @Override
+        public int compareTo(Pending other)
+        {
+            if (due == other.due)
+            {
+                return order - other.order;
+            }
+            return Long.signum(due - other.due);
+        }
+    }
+}
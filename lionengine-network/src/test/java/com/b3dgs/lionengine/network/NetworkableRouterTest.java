@@ -0,0 +1,163 @@
+/*
+ * Copyright (C) 2013-2016 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.network;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.b3dgs.lionengine.network.message.NetworkMessage;
+import com.b3dgs.lionengine.network.message.NetworkMessageEntity;
+import com.b3dgs.lionengine.network.purview.NetworkableModel;
+
+/**
+ * Test the networkable router class.
+ */
+public class NetworkableRouterTest
+{
+    /** First type. */
+    private static final byte TYPE_1 = 1;
+    /** Second type. */
+    private static final byte TYPE_2 = 2;
+    /** First entity. */
+    private static final short ENTITY_1 = 1000;
+    /** Second entity. */
+    private static final short ENTITY_2 = 2000;
+
+    /**
+     * Test messages dispatched to all, type and entity subscribers.
+     */
+    @Test
+    public void testDispatch()
+    {
+        final NetworkableRouter router = new NetworkableRouter();
+        final Recorder all = new Recorder();
+        final Recorder type = new Recorder();
+        final Recorder entity = new Recorder();
+        router.add(all);
+        router.addType(type, TYPE_1);
+        router.addEntity(entity, ENTITY_1);
+
+        final NetworkMessage message1 = new EntityMessage(TYPE_1, ENTITY_1);
+        final NetworkMessage message2 = new EntityMessage(TYPE_2, ENTITY_2);
+        router.dispatch(message1);
+        Assert.assertTrue(all.received.isEmpty());
+
+        router.update();
+        router.dispatch(message1);
+        router.dispatch(message2);
+
+        Assert.assertEquals(2, all.received.size());
+        Assert.assertEquals(1, type.received.size());
+        Assert.assertEquals(message1, type.received.get(0));
+        Assert.assertEquals(1, entity.received.size());
+        Assert.assertEquals(message1, entity.received.get(0));
+    }
+
+    /**
+     * Test networkable removal from all its subscriptions.
+     */
+    @Test
+    public void testRemove()
+    {
+        final NetworkableRouter router = new NetworkableRouter();
+        final Recorder recorder = new Recorder();
+        final Recorder pending = new Recorder();
+        router.add(recorder);
+        router.addType(recorder, TYPE_1);
+        router.addEntity(recorder, ENTITY_1);
+        router.update();
+
+        router.dispatch(new EntityMessage(TYPE_1, ENTITY_1));
+        Assert.assertEquals(3, recorder.received.size());
+
+        router.addType(pending, TYPE_1);
+        router.remove(recorder);
+        router.remove(pending);
+        router.update();
+        router.dispatch(new EntityMessage(TYPE_1, ENTITY_1));
+
+        Assert.assertEquals(3, recorder.received.size());
+        Assert.assertTrue(pending.received.isEmpty());
+    }
+
+    /**
+     * Record received messages.
+     */
+    private static final class Recorder extends NetworkableModel
+    {
+        /** Received messages. */
+        final List<NetworkMessage> received = new ArrayList<NetworkMessage>();
+
+        /**
+         * Create recorder.
+         */
+        Recorder()
+        {
+            super();
+        }
+
+        @Override
+        public void applyMessage(NetworkMessage message)
+        {
+            received.add(message);
+        }
+    }
+
+    /**
+     * Entity message without actions.
+     */
+    private static final class EntityMessage extends NetworkMessageEntity<Action>
+    {
+        /**
+         * Create message.
+         * 
+         * @param type The message type.
+         * @param entityId The entity id.
+         */
+        EntityMessage(byte type, short entityId)
+        {
+            super(type, entityId);
+        }
+
+        @Override
+        protected void encode(ByteArrayOutputStream buffer, Action key)
+        {
+            // Nothing to do
+        }
+
+        @Override
+        protected void decode(DataInputStream buffer, int i)
+        {
+            // Nothing to do
+        }
+    }
+
+    /**
+     * Entity actions.
+     */
+    private static enum Action
+    {
+        /** Unused action. */
+        NONE;
+    }
+}
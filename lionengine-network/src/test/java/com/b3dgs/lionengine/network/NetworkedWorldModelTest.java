@@ -0,0 +1,125 @@
+/*
+ * Copyright (C) 2013-2016 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.network;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.b3dgs.lionengine.network.message.NetworkMessage;
+import com.b3dgs.lionengine.network.message.NetworkMessageDecoder;
+import com.b3dgs.lionengine.network.purview.Networkable;
+import com.b3dgs.lionengine.network.purview.NetworkableModel;
+
+/**
+ * Test the networked world model class.
+ */
+public class NetworkedWorldModelTest
+{
+    /** Message type. */
+    private static final byte TYPE = 1;
+    /** Entity id. */
+    private static final short ENTITY = 1000;
+
+    /**
+     * Test networkable subscribed several times and removed before being added is never added.
+     */
+    @Test
+    public void testRemoveBeforeAdded()
+    {
+        final NetworkedWorldModelClient world = new NetworkedWorldModelClient(new Decoder(), Transport.CHANNEL);
+        final Networkable networkable = new NetworkableModel();
+        world.addNetworkableType(networkable, TYPE);
+        world.addNetworkableEntity(networkable, ENTITY);
+        world.removeNetworkable(networkable);
+        world.receiveMessages();
+
+        networkable.addNetworkMessage(new EmptyMessage());
+        world.sendMessages();
+
+        Assert.assertTrue(world.networkables.isEmpty());
+        Assert.assertEquals(1, networkable.getNetworkMessages().size());
+    }
+
+    /**
+     * Test networkable subscribed several times is added once, and its messages sent.
+     */
+    @Test
+    public void testAdded()
+    {
+        final NetworkedWorldModelClient world = new NetworkedWorldModelClient(new Decoder(), Transport.CHANNEL);
+        final Networkable networkable = new NetworkableModel();
+        world.addNetworkableType(networkable, TYPE);
+        world.addNetworkableEntity(networkable, ENTITY);
+        world.receiveMessages();
+
+        networkable.addNetworkMessage(new EmptyMessage());
+        world.sendMessages();
+
+        Assert.assertEquals(1, world.networkables.size());
+        Assert.assertTrue(networkable.getNetworkMessages().isEmpty());
+    }
+
+    /**
+     * Message without content.
+     */
+    private static final class EmptyMessage extends NetworkMessage
+    {
+        /**
+         * Create message.
+         */
+        EmptyMessage()
+        {
+            super(TYPE, (byte) 0);
+        }
+
+        @Override
+        protected void encode(ByteArrayOutputStream buffer)
+        {
+            // Nothing to do
+        }
+
+        @Override
+        protected void decode(DataInputStream buffer)
+        {
+            // Nothing to do
+        }
+    }
+
+    /**
+     * Decoder without messages.
+     */
+    private static final class Decoder implements NetworkMessageDecoder
+    {
+        /**
+         * Create decoder.
+         */
+        Decoder()
+        {
+            super();
+        }
+
+        @Override
+        public NetworkMessage getNetworkMessageFromType(int type)
+        {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,244 @@
+/*
+ * Copyright (C) 2013-2016 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.network;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.network.message.NetworkMessage;
+import com.b3dgs.lionengine.network.message.NetworkMessageDecoder;
+
+/**
+ * Test the datagram server and client on a lossy loopback.
+ */
+public class ServerUdpImplTest
+{
+    /** Loopback address. */
+    private static final String LOCALHOST = "127.0.0.1";
+    /** Drop probability. */
+    private static final double DROP = 0.2;
+    /** Delay in milli. */
+    private static final long DELAY = 5L;
+    /** Jitter in milli. */
+    private static final long JITTER = 20L;
+    /** Messages number. */
+    private static final int MESSAGES = 100;
+    /** Exchange timeout in milli. */
+    private static final long TIMEOUT_MILLI = 10000L;
+
+    /**
+     * Get a free local port.
+     * 
+     * @return The free port.
+     * @throws IOException If error.
+     */
+    private static int getFreePort() throws IOException
+    {
+        final ServerSocket socket = new ServerSocket(0);
+        try
+        {
+            return socket.getLocalPort();
+        }
+        finally
+        {
+            socket.close();
+        }
+    }
+
+    /**
+     * Update the server and the clients.
+     * 
+     * @param server The server.
+     * @param clients The clients.
+     * @throws InterruptedException If interrupted.
+     */
+    private static void update(Server server, Client... clients) throws InterruptedException
+    {
+        for (final Client client : clients)
+        {
+            client.receiveMessages();
+            client.sendMessages();
+        }
+        server.receiveMessages();
+        server.sendMessages();
+        Thread.sleep(1L);
+    }
+
+    /**
+     * Test clients connection and messages relayed in order by the server despite losses.
+     * 
+     * @throws IOException If error.
+     * @throws InterruptedException If interrupted.
+     */
+    @Test
+    public void testLossyRelay() throws IOException, InterruptedException
+    {
+        final int port = getFreePort();
+        final Server server = new ServerUdpImpl(new Decoder(), LossyLink.factory(DROP, DELAY, JITTER, 0L));
+        final Client sender = new ClientUdpImpl(new Decoder(), LossyLink.factory(DROP, DELAY, JITTER, 1L));
+        final Client receiver = new ClientUdpImpl(new Decoder(), LossyLink.factory(DROP, DELAY, JITTER, 2L));
+        final AtomicInteger connected = new AtomicInteger();
+        server.addListener(new ClientListener()
+        {
+            @Override
+            public void notifyClientConnected(Byte id, String name)
+            {
+                connected.incrementAndGet();
+            }
+
+            @Override
+            public void notifyClientDisconnected(Byte id, String name)
+            {
+                connected.decrementAndGet();
+            }
+
+            @Override
+            public void notifyClientNameChanged(Byte id, String name)
+            {
+                // Nothing to do
+            }
+        });
+        server.start("server", port);
+        sender.setName("sender");
+        receiver.setName("receiver");
+        sender.connect(LOCALHOST, port);
+        receiver.connect(LOCALHOST, port);
+
+        final long end = System.currentTimeMillis() + TIMEOUT_MILLI;
+        while (connected.get() < 2 && System.currentTimeMillis() < end)
+        {
+            update(server, sender, receiver);
+        }
+        Assert.assertEquals(2, connected.get());
+
+        for (int i = 0; i < MESSAGES; i++)
+        {
+            sender.addMessage(new ValueMessage(sender.getId(), receiver.getId(), i));
+        }
+        final List<Integer> received = new ArrayList<Integer>();
+        while (received.size() < MESSAGES && System.currentTimeMillis() < end)
+        {
+            update(server, sender, receiver);
+            for (final NetworkMessage message : receiver.getMessages())
+            {
+                received.add(Integer.valueOf(((ValueMessage) message).getValue()));
+            }
+        }
+
+        final List<Integer> expected = new ArrayList<Integer>();
+        for (int i = 0; i < MESSAGES; i++)
+        {
+            expected.add(Integer.valueOf(i));
+        }
+        Assert.assertEquals(expected, received);
+
+        sender.disconnect();
+        receiver.disconnect();
+        server.disconnect();
+        Assert.assertFalse(sender.isConnected());
+    }
+
+    /**
+     * Message containing a value.
+     */
+    private static final class ValueMessage extends NetworkMessage
+    {
+        /** Message type. */
+        static final byte TYPE = 0;
+
+        /** Value. */
+        private int value;
+
+        /**
+         * Create a message for decoding.
+         */
+        ValueMessage()
+        {
+            super();
+        }
+
+        /**
+         * Create a message.
+         * 
+         * @param from The source client id.
+         * @param dest The destination client id.
+         * @param value The value.
+         */
+        ValueMessage(byte from, byte dest, int value)
+        {
+            super(TYPE, from, dest);
+            this.value = value;
+        }
+
+        /**
+         * Get the value.
+         * 
+         * @return The value.
+         */
+        int getValue()
+        {
+            return value;
+        }
+
+        @Override
+        protected void encode(ByteArrayOutputStream buffer) throws IOException
+        {
+            new DataOutputStream(buffer).writeInt(value);
+        }
+
+        @Override
+        protected void decode(DataInputStream buffer) throws IOException
+        {
+            value = buffer.readInt();
+        }
+    }
+
+    /**
+     * Decoder of value messages.
+     */
+    private static final class Decoder implements NetworkMessageDecoder
+    {
+        /**
+         * Create decoder.
+         */
+        Decoder()
+        {
+            super();
+        }
+
+        @Override
+        public NetworkMessage getNetworkMessageFromType(int type)
+        {
+            if (type == ValueMessage.TYPE)
+            {
+                return new ValueMessage();
+            }
+            throw new LionEngineException("Unknown type: ", String.valueOf(type));
+        }
+    }
+}
@@ -0,0 +1,542 @@
+/*
+ * Copyright (C) 2013-2016 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.network.it;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.Verbose;
+import com.b3dgs.lionengine.network.NetworkedWorldModelClient;
+import com.b3dgs.lionengine.network.NetworkedWorldModelServer;
+import com.b3dgs.lionengine.network.Transport;
+import com.b3dgs.lionengine.network.message.NetworkMessage;
+import com.b3dgs.lionengine.network.message.NetworkMessageDecoder;
+import com.b3dgs.lionengine.network.purview.NetworkableModel;
+
+/**
+ * Measure the server throughput and latency on loopback, with many simulated clients sending messages to themselves
+ * through the server.
+ */
+public class NetworkIT
+{
+    /** Loopback address. */
+    private static final String LOCALHOST = "127.0.0.1";
+    /** Clients number. */
+    private static final int CLIENTS = 100;
+    /** Messages sent per client per tick. */
+    private static final int MESSAGES = 4;
+    /** Connection timeout in milli. */
+    private static final long CONNECT_MILLI = 10000L;
+    /** Warmup duration in milli. */
+    private static final long WARMUP_MILLI = 1000L;
+    /** Measure duration in milli. */
+    private static final long MEASURE_MILLI = 3000L;
+    /** Percentile measured. */
+    private static final double PERCENTILE = 0.99;
+    /** Nano to milli. */
+    private static final double NANO_TO_MILLI = 1000000.0;
+    /** Delay given to the server to register accepted clients in milli. */
+    private static final long ACCEPT_MILLI = 500L;
+    /** Broadcast clients number. */
+    private static final int BROADCAST_CLIENTS = 32;
+    /** Messages broadcast by the server per tick. */
+    private static final int BROADCAST_MESSAGES = 16;
+
+    /**
+     * Get a free local port.
+     * 
+     * @return The free port.
+     * @throws IOException If error.
+     */
+    private static int getFreePort() throws IOException
+    {
+        final ServerSocket socket = new ServerSocket(0);
+        try
+        {
+            return socket.getLocalPort();
+        }
+        finally
+        {
+            socket.close();
+        }
+    }
+
+    /** Received latencies in nano. */
+    private long[] latencies = new long[1024];
+    /** Received count. */
+    private int received;
+    /** Recording flag. */
+    private boolean recording;
+
+    /**
+     * Record a received message latency.
+     * 
+     * @param sent The sent time in nano.
+     */
+    void record(long sent)
+    {
+        if (recording)
+        {
+            if (received == latencies.length)
+            {
+                latencies = Arrays.copyOf(latencies, received * 2);
+            }
+            latencies[received] = System.nanoTime() - sent;
+            received++;
+        }
+    }
+
+    /**
+     * Start the server on its own thread, updating as fast as possible.
+     * 
+     * @param transport The transport used.
+     * @param port The server port.
+     * @param running The running flag.
+     * @return The server thread.
+     */
+    private Thread startServer(Transport transport, final int port, final AtomicBoolean running)
+    {
+        final NetworkedWorldModelServer server = new NetworkedWorldModelServer(new Decoder(), transport);
+        server.startServer("server", port, null);
+        final Thread thread = new Thread("server")
+        {
+            @Override
+            public void run()
+            {
+                while (running.get())
+                {
+                    server.receiveMessages();
+                    server.sendMessages();
+                }
+                server.disconnect();
+            }
+        };
+        thread.start();
+        return thread;
+    }
+
+    /**
+     * Update all clients, sending messages if requested.
+     * 
+     * @param clients The clients.
+     * @param send <code>true</code> to send messages, <code>false</code> else.
+     * @return The sent messages number.
+     */
+    private int update(List<NetworkedWorldModelClient> clients, boolean send)
+    {
+        int sent = 0;
+        for (int i = 0; i < CLIENTS; i++)
+        {
+            final NetworkedWorldModelClient client = clients.get(i);
+            client.receiveMessages();
+            final byte id = client.getId();
+            if (send && id >= 0)
+            {
+                for (int j = 0; j < MESSAGES; j++)
+                {
+                    client.addMessage(new TimeMessage(id, System.nanoTime()));
+                }
+                sent += MESSAGES;
+            }
+            client.sendMessages();
+        }
+        return sent;
+    }
+
+    /**
+     * Run the load on the transport and log throughput and latency.
+     * 
+     * @param transport The transport to measure.
+     * @throws IOException If error.
+     * @throws InterruptedException If interrupted.
+     */
+    private void run(Transport transport) throws IOException, InterruptedException
+    {
+        final int port = getFreePort();
+        final AtomicBoolean running = new AtomicBoolean(true);
+        final Thread server = startServer(transport, port, running);
+
+        final List<NetworkedWorldModelClient> clients = new ArrayList<NetworkedWorldModelClient>(CLIENTS);
+        for (int i = 0; i < CLIENTS; i++)
+        {
+            final NetworkedWorldModelClient client = new NetworkedWorldModelClient(new Decoder(), transport);
+            client.addNetworkable(new Recorder(client));
+            client.setName("client" + i);
+            client.connect(LOCALHOST, port);
+            clients.add(client);
+        }
+
+        final long connectEnd = System.currentTimeMillis() + CONNECT_MILLI;
+        while (!isConnected(clients) && System.currentTimeMillis() < connectEnd)
+        {
+            update(clients, false);
+        }
+        Assert.assertTrue(isConnected(clients));
+
+        final long warmupEnd = System.currentTimeMillis() + WARMUP_MILLI;
+        while (System.currentTimeMillis() < warmupEnd)
+        {
+            update(clients, true);
+        }
+
+        recording = true;
+        int sent = 0;
+        final long start = System.nanoTime();
+        final long measureEnd = System.currentTimeMillis() + MEASURE_MILLI;
+        while (System.currentTimeMillis() < measureEnd)
+        {
+            sent += update(clients, true);
+        }
+        final long elapsed = System.nanoTime() - start;
+        recording = false;
+
+        for (final NetworkedWorldModelClient client : clients)
+        {
+            client.disconnect();
+        }
+        running.set(false);
+        server.join();
+
+        final long[] sorted = Arrays.copyOf(latencies, received);
+        Arrays.sort(sorted);
+        Assert.assertTrue(sorted.length > 0);
+        final double p99 = sorted[(int) (sorted.length * PERCENTILE)] / NANO_TO_MILLI;
+        final double median = sorted[sorted.length / 2] / NANO_TO_MILLI;
+        final double perSecond = received * NANO_TO_MILLI * 1000.0 / elapsed;
+        Verbose.info(String.format(Locale.ENGLISH,
+                                   "%s %d clients: %.0f messages/s, median %.3f ms, p99 %.3f ms, %d sent, %d received",
+                                   transport.name(),
+                                   Integer.valueOf(CLIENTS),
+                                   Double.valueOf(perSecond),
+                                   Double.valueOf(median),
+                                   Double.valueOf(p99),
+                                   Integer.valueOf(sent),
+                                   Integer.valueOf(received)));
+    }
+
+    /**
+     * Start the server on its own thread, broadcasting messages on each tick and measuring the time spent to send.
+     * 
+     * @param server The started server.
+     * @param running The running flag.
+     * @param measuring The measuring flag.
+     * @param sendTime The measured send time in nano.
+     * @param ticks The measured ticks number.
+     * @return The server thread.
+     */
+    private Thread startBroadcaster(final NetworkedWorldModelServer server,
+                                    final AtomicBoolean running,
+                                    final AtomicBoolean measuring,
+                                    final AtomicLong sendTime,
+                                    final AtomicLong ticks)
+    {
+        final Thread thread = new Thread("server")
+        {
+            @Override
+            public void run()
+            {
+                while (running.get())
+                {
+                    server.receiveMessages();
+                    for (int i = 0; i < BROADCAST_MESSAGES; i++)
+                    {
+                        server.addMessage(new TimeMessage(System.nanoTime()));
+                    }
+                    final long start = System.nanoTime();
+                    server.sendMessages();
+                    if (measuring.get())
+                    {
+                        sendTime.addAndGet(System.nanoTime() - start);
+                        ticks.incrementAndGet();
+                    }
+                }
+                server.disconnect();
+            }
+        };
+        thread.start();
+        return thread;
+    }
+
+    /**
+     * Run the server broadcast load on the transport and log the server send time per tick.
+     * 
+     * @param transport The transport to measure.
+     * @throws IOException If error.
+     * @throws InterruptedException If interrupted.
+     */
+    private void broadcast(Transport transport) throws IOException, InterruptedException
+    {
+        final int port = getFreePort();
+        final AtomicBoolean running = new AtomicBoolean(true);
+        final AtomicBoolean measuring = new AtomicBoolean(false);
+        final AtomicLong sendTime = new AtomicLong();
+        final AtomicLong ticks = new AtomicLong();
+        final NetworkedWorldModelServer model = new NetworkedWorldModelServer(new Decoder(), transport);
+        model.startServer("server", port, null);
+
+        final List<NetworkedWorldModelClient> clients = new ArrayList<NetworkedWorldModelClient>(BROADCAST_CLIENTS);
+        for (int i = 0; i < BROADCAST_CLIENTS; i++)
+        {
+            final NetworkedWorldModelClient client = new NetworkedWorldModelClient(new Decoder(), transport);
+            client.setName("client" + i);
+            client.connect(LOCALHOST, port);
+            clients.add(client);
+        }
+        // Clients are registered by the server accepting thread, wait for them before updating the server
+        Thread.sleep(ACCEPT_MILLI);
+        final Thread server = startBroadcaster(model, running, measuring, sendTime, ticks);
+
+        final long connectEnd = System.currentTimeMillis() + CONNECT_MILLI;
+        while (!isConnected(clients) && System.currentTimeMillis() < connectEnd)
+        {
+            drain(clients);
+        }
+        Assert.assertTrue(isConnected(clients));
+
+        final long warmupEnd = System.currentTimeMillis() + WARMUP_MILLI;
+        while (System.currentTimeMillis() < warmupEnd)
+        {
+            drain(clients);
+        }
+        measuring.set(true);
+        final long measureEnd = System.currentTimeMillis() + MEASURE_MILLI;
+        while (System.currentTimeMillis() < measureEnd)
+        {
+            drain(clients);
+        }
+        measuring.set(false);
+
+        for (final NetworkedWorldModelClient client : clients)
+        {
+            client.disconnect();
+        }
+        running.set(false);
+        server.join();
+
+        Assert.assertTrue(ticks.get() > 0);
+        final double perTick = sendTime.get() / NANO_TO_MILLI / ticks.get();
+        Verbose.info(String.format(Locale.ENGLISH,
+                                   "%s %d clients broadcast of %d messages: %.3f ms per tick, %d ticks",
+                                   transport.name(),
+                                   Integer.valueOf(BROADCAST_CLIENTS),
+                                   Integer.valueOf(BROADCAST_MESSAGES),
+                                   Double.valueOf(perTick),
+                                   Long.valueOf(ticks.get())));
+    }
+
+    /**
+     * Receive all messages available for the clients.
+     * 
+     * @param clients The clients.
+     */
+    private static void drain(List<NetworkedWorldModelClient> clients)
+    {
+        for (final NetworkedWorldModelClient client : clients)
+        {
+            for (int i = 0; i < BROADCAST_MESSAGES; i++)
+            {
+                client.receiveMessages();
+            }
+        }
+    }
+
+    /**
+     * Check if all clients are connected.
+     * 
+     * @param clients The clients.
+     * @return <code>true</code> if all have an id, <code>false</code> else.
+     */
+    private static boolean isConnected(List<NetworkedWorldModelClient> clients)
+    {
+        for (final NetworkedWorldModelClient client : clients)
+        {
+            if (client.getId() < 0)
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Measure the channel transport.
+     * 
+     * @throws IOException If error.
+     * @throws InterruptedException If interrupted.
+     */
+    @Test
+    public void testChannel() throws IOException, InterruptedException
+    {
+        run(Transport.CHANNEL);
+    }
+
+    /**
+     * Measure the datagram transport.
+     * 
+     * @throws IOException If error.
+     * @throws InterruptedException If interrupted.
+     */
+    @Test
+    public void testDatagram() throws IOException, InterruptedException
+    {
+        run(Transport.DATAGRAM);
+    }
+
+    /**
+     * Measure the stream transport server broadcast.
+     * 
+     * @throws IOException If error.
+     * @throws InterruptedException If interrupted.
+     */
+    @Test
+    public void testBroadcastStream() throws IOException, InterruptedException
+    {
+        broadcast(Transport.STREAM);
+    }
+
+    /**
+     * Message containing its send time.
+     */
+    private static final class TimeMessage extends NetworkMessage
+    {
+        /** Message type. */
+        static final byte TYPE = 0;
+
+        /** Sent time in nano. */
+        private long time;
+
+        /**
+         * Create a message for decoding.
+         */
+        TimeMessage()
+        {
+            super();
+        }
+
+        /**
+         * Create a message sent to its own client.
+         * 
+         * @param client The client id.
+         * @param time The sent time in nano.
+         */
+        TimeMessage(byte client, long time)
+        {
+            super(TYPE, client, client);
+            this.time = time;
+        }
+
+        /**
+         * Create a message broadcast by the server.
+         * 
+         * @param time The sent time in nano.
+         */
+        TimeMessage(long time)
+        {
+            super(TYPE, (byte) -1, (byte) -1);
+            this.time = time;
+        }
+
+        /**
+         * Get the sent time.
+         * 
+         * @return The sent time in nano.
+         */
+        long getTime()
+        {
+            return time;
+        }
+
+        @Override
+        protected void encode(ByteArrayOutputStream buffer) throws IOException
+        {
+            new DataOutputStream(buffer).writeLong(time);
+        }
+
+        @Override
+        protected void decode(DataInputStream buffer) throws IOException
+        {
+            time = buffer.readLong();
+        }
+    }
+
+    /**
+     * Decoder of time messages.
+     */
+    private static final class Decoder implements NetworkMessageDecoder
+    {
+        /**
+         * Create decoder.
+         */
+        Decoder()
+        {
+            super();
+        }
+
+        @Override
+        public NetworkMessage getNetworkMessageFromType(int type)
+        {
+            if (type == TimeMessage.TYPE)
+            {
+                return new TimeMessage();
+            }
+            throw new LionEngineException("Unknown type: ", String.valueOf(type));
+        }
+    }
+
+    /**
+     * Record the latency of time messages sent by its client.
+     */
+    private final class Recorder extends NetworkableModel
+    {
+        /** The client. */
+        private final NetworkedWorldModelClient client;
+
+        /**
+         * Create recorder.
+         * 
+         * @param client The client.
+         */
+        Recorder(NetworkedWorldModelClient client)
+        {
+            super();
+            this.client = client;
+        }
+
+        @Override
+        public void applyMessage(NetworkMessage message)
+        {
+            if (message instanceof TimeMessage && message.getClientId() == client.getId())
+            {
+                record(((TimeMessage) message).getTime());
+            }
+        }
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (C) 2013-2016 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.network.snapshot;
+
+import java.io.IOException;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.b3dgs.lionengine.LionEngineException;
+
+/**
+ * Test the bit writer and reader classes.
+ */
+public class BitWriterTest
+{
+    /**
+     * Test values written and read on their bits.
+     * 
+     * @throws IOException If error.
+     */
+    @Test
+    public void testReadWrite() throws IOException
+    {
+        final BitWriter writer = new BitWriter();
+        writer.write(true);
+        writer.write(5, 3);
+        writer.write(0xABCD, 16);
+        writer.write(-1, 32);
+        writer.write(false);
+        writer.write(Integer.MIN_VALUE, 32);
+        for (int i = 0; i < 100; i++)
+        {
+            writer.write(i, 7);
+        }
+
+        Assert.assertEquals((1 + 3 + 16 + 32 + 1 + 32 + 700 + 7) / 8, writer.getSize());
+
+        final BitReader reader = new BitReader();
+        reader.set(writer.toByteArray());
+        Assert.assertTrue(reader.readBoolean());
+        Assert.assertEquals(5, reader.read(3));
+        Assert.assertEquals(0xABCD, reader.read(16));
+        Assert.assertEquals(-1, reader.read(32));
+        Assert.assertFalse(reader.readBoolean());
+        Assert.assertEquals(Integer.MIN_VALUE, reader.read(32));
+        for (int i = 0; i < 100; i++)
+        {
+            Assert.assertEquals(i, reader.read(7));
+        }
+    }
+
+    /**
+     * Test writer reset.
+     * 
+     * @throws IOException If error.
+     */
+    @Test
+    public void testReset() throws IOException
+    {
+        final BitWriter writer = new BitWriter();
+        writer.write(-1, 32);
+        writer.reset();
+        writer.write(0, 4);
+
+        Assert.assertEquals(1, writer.getSize());
+
+        final BitReader reader = new BitReader();
+        reader.set(writer.toByteArray());
+        Assert.assertEquals(0, reader.read(8));
+    }
+
+    /**
+     * Test read after end.
+     * 
+     * @throws IOException If error.
+     */
+    @Test(expected = IOException.class)
+    public void testReadEnd() throws IOException
+    {
+        final BitReader reader = new BitReader();
+        reader.set(new byte[1]);
+        reader.read(9);
+    }
+
+    /**
+     * Test invalid bits number.
+     */
+    @Test(expected = LionEngineException.class)
+    public void testInvalidBits()
+    {
+        new BitWriter().write(0, 33);
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright (C) 2013-2016 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.network.snapshot;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.b3dgs.lionengine.LionEngineException;
+
+/**
+ * Test the quantizer class.
+ */
+public class QuantizerTest
+{
+    /**
+     * Test quantization precision and clamping.
+     */
+    @Test
+    public void testQuantize()
+    {
+        final Quantizer quantizer = new Quantizer(-512.0, 512.0, 16);
+        final double precision = 1024.0 / 65535;
+
+        Assert.assertEquals(16, quantizer.getBits());
+        Assert.assertEquals(0, quantizer.quantize(-512.0));
+        Assert.assertEquals(65535, quantizer.quantize(512.0));
+        Assert.assertEquals(0, quantizer.quantize(-1000.0));
+        Assert.assertEquals(65535, quantizer.quantize(1000.0));
+        Assert.assertEquals(123.456, quantizer.dequantize(quantizer.quantize(123.456)), precision);
+        Assert.assertEquals(-0.5, quantizer.dequantize(quantizer.quantize(-0.5)), precision);
+    }
+
+    /**
+     * Test invalid range.
+     */
+    @Test(expected = LionEngineException.class)
+    public void testInvalidRange()
+    {
+        Assert.assertNotNull(new Quantizer(1.0, 1.0, 8));
+    }
+
+    /**
+     * Test invalid bits.
+     */
+    @Test(expected = LionEngineException.class)
+    public void testInvalidBits()
+    {
+        Assert.assertNotNull(new Quantizer(0.0, 1.0, 32));
+    }
+}
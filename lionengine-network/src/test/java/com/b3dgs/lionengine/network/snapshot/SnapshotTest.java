@@ -0,0 +1,290 @@
+/*
+ * Copyright (C) 2013-2016 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.network.snapshot;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.b3dgs.lionengine.network.message.NetworkMessage;
+import com.b3dgs.lionengine.network.message.NetworkMessageSnapshot;
+import com.b3dgs.lionengine.network.message.NetworkMessageSnapshotAck;
+
+/**
+ * Test the snapshots replication between server and client.
+ */
+public class SnapshotTest
+{
+    /** Snapshot type. */
+    private static final byte SNAPSHOT = 1;
+    /** Acknowledge type. */
+    private static final byte ACK = 2;
+    /** Client id. */
+    private static final Byte CLIENT = Byte.valueOf((byte) 3);
+    /** Position quantizer. */
+    private static final Quantizer POSITION = new Quantizer(-1024.0, 1024.0, 20);
+    /** Fields layout: x, y, life. */
+    private static final SnapshotLayout LAYOUT = new SnapshotLayout(POSITION.getBits(), POSITION.getBits(), 8);
+    /** Entities number. */
+    private static final int ENTITIES = 1000;
+
+    /**
+     * Transmit the networkable messages, encoded and decoded as on network.
+     * 
+     * @param <M> The message type.
+     * @param messages The messages to transmit.
+     * @param message The received message instance.
+     * @return The message received.
+     * @throws IOException If error.
+     */
+    private static <M extends NetworkMessage> M transmit(Collection<NetworkMessage> messages, M message)
+            throws IOException
+    {
+        Assert.assertEquals(1, messages.size());
+        final NetworkMessage sent = messages.iterator().next();
+        messages.clear();
+        final byte[] data = sent.encode().toByteArray();
+        final DataInputStream buffer = new DataInputStream(new ByteArrayInputStream(data, 3, data.length - 3));
+        message.decode(sent.getType(), sent.getClientId(), sent.getClientDestId(), buffer);
+        return message;
+    }
+
+    /**
+     * Send a snapshot from server to client and the acknowledge back.
+     * 
+     * @param server The server.
+     * @param client The client.
+     * @param acknowledge <code>true</code> to transmit acknowledge, <code>false</code> to lose it.
+     * @return The snapshot size in bytes.
+     * @throws IOException If error.
+     */
+    private static int send(SnapshotServer server, SnapshotClient client, boolean acknowledge) throws IOException
+    {
+        server.update();
+        final NetworkMessageSnapshot snapshot = transmit(server.getNetworkMessages(),
+                                                         new NetworkMessageSnapshot());
+        client.applyMessage(snapshot);
+        final NetworkMessageSnapshotAck ack = transmit(client.getNetworkMessages(), new NetworkMessageSnapshotAck());
+        if (acknowledge)
+        {
+            server.applyMessage(ack);
+        }
+        return snapshot.getData().length;
+    }
+
+    /**
+     * Create entities.
+     * 
+     * @param count The entities number.
+     * @return The created entities.
+     */
+    private static List<Entity> create(int count)
+    {
+        final List<Entity> entities = new ArrayList<Entity>(count);
+        for (int i = 0; i < count; i++)
+        {
+            entities.add(new Entity((short) i));
+        }
+        return entities;
+    }
+
+    /**
+     * Test the full snapshot then deltas sent with changed fields only.
+     * 
+     * @throws IOException If error.
+     */
+    @Test
+    public void testDelta() throws IOException
+    {
+        final SnapshotServer server = new SnapshotServer(SNAPSHOT, LAYOUT);
+        final SnapshotClient client = new SnapshotClient(ACK, LAYOUT);
+        final List<Entity> sources = create(ENTITIES);
+        final List<Entity> replicas = create(ENTITIES);
+        for (int i = 0; i < ENTITIES; i++)
+        {
+            final Entity entity = sources.get(i);
+            entity.x = i * 1.5 - 700.0;
+            entity.y = i * 0.25;
+            entity.life = i % 100;
+            server.addReplicable(entity);
+            client.addReplicable(replicas.get(i));
+        }
+        server.notifyClientConnected(CLIENT, "client");
+
+        final int full = send(server, client, true);
+        for (int i = 0; i < ENTITIES; i++)
+        {
+            sources.get(i).assertReplicated(replicas.get(i));
+        }
+
+        final int unchanged = send(server, client, true);
+
+        final int changes = 10;
+        for (int i = 0; i < changes; i++)
+        {
+            sources.get(i * 50).x += 3.25;
+        }
+        final int delta = send(server, client, true);
+        for (int i = 0; i < ENTITIES; i++)
+        {
+            sources.get(i).assertReplicated(replicas.get(i));
+        }
+
+        Assert.assertEquals(9, unchanged);
+        Assert.assertTrue(String.valueOf(full), full > ENTITIES * 8);
+        Assert.assertTrue(String.valueOf(delta), delta < 9 + changes * 6);
+        Assert.assertEquals(2, client.getTick());
+    }
+
+    /**
+     * Test lost acknowledges, deltas are sent from the last acknowledged snapshot.
+     * 
+     * @throws IOException If error.
+     */
+    @Test
+    public void testLostAcknowledge() throws IOException
+    {
+        final SnapshotServer server = new SnapshotServer(SNAPSHOT, LAYOUT);
+        final SnapshotClient client = new SnapshotClient(ACK, LAYOUT);
+        final Entity source = new Entity((short) 1);
+        final Entity replica = new Entity((short) 1);
+        server.addReplicable(source);
+        client.addReplicable(replica);
+        server.notifyClientConnected(CLIENT, "client");
+
+        final int full = send(server, client, false);
+        source.life = 1;
+        Assert.assertTrue(send(server, client, true) > full);
+        source.assertReplicated(replica);
+
+        source.x = 10.0;
+        send(server, client, false);
+        source.y = 20.0;
+        send(server, client, true);
+        source.assertReplicated(replica);
+    }
+
+    /**
+     * Test entities added and removed.
+     * 
+     * @throws IOException If error.
+     */
+    @Test
+    public void testAddRemove() throws IOException
+    {
+        final BitWriter writer = new BitWriter();
+        final BitReader reader = new BitReader();
+        final Snapshot baseline = new Snapshot(0);
+        baseline.put(Short.valueOf((short) 1), new int[3]);
+        baseline.put(Short.valueOf((short) 2), new int[3]);
+        final Snapshot current = new Snapshot(1);
+        current.put(Short.valueOf((short) 2), new int[3]);
+        current.put(Short.valueOf((short) 3), new int[3]);
+
+        SnapshotCodec.encode(LAYOUT, baseline, current, writer);
+        reader.set(writer.toByteArray());
+        Assert.assertEquals(1, SnapshotCodec.readTick(reader));
+        Assert.assertEquals(0, SnapshotCodec.readTick(reader));
+        final Snapshot decoded = SnapshotCodec.decode(LAYOUT, 1, baseline, reader);
+
+        Assert.assertNull(decoded.get(Short.valueOf((short) 1)));
+        Assert.assertArrayEquals(new int[3], decoded.get(Short.valueOf((short) 2)));
+        Assert.assertArrayEquals(new int[3], decoded.get(Short.valueOf((short) 3)));
+    }
+
+    /**
+     * Test client disconnection stops its snapshots.
+     */
+    @Test
+    public void testDisconnect()
+    {
+        final SnapshotServer server = new SnapshotServer(SNAPSHOT, LAYOUT);
+        server.notifyClientConnected(CLIENT, "client");
+        server.notifyClientDisconnected(CLIENT, "client");
+        server.update();
+
+        Assert.assertTrue(server.getNetworkMessages().isEmpty());
+        Assert.assertEquals(1, server.getTick());
+    }
+
+    /**
+     * Replicated entity.
+     */
+    private static final class Entity implements Replicable
+    {
+        /** Entity id. */
+        private final short id;
+        /** Horizontal position. */
+        double x;
+        /** Vertical position. */
+        double y;
+        /** Life. */
+        int life;
+
+        /**
+         * Create entity.
+         * 
+         * @param id The entity id.
+         */
+        Entity(short id)
+        {
+            this.id = id;
+        }
+
+        /**
+         * Check the replica state.
+         * 
+         * @param replica The replicated entity.
+         */
+        void assertReplicated(Entity replica)
+        {
+            final double precision = 2048.0 / ((1 << POSITION.getBits()) - 1);
+            Assert.assertEquals(x, replica.x, precision);
+            Assert.assertEquals(y, replica.y, precision);
+            Assert.assertEquals(life, replica.life);
+        }
+
+        @Override
+        public short getEntityId()
+        {
+            return id;
+        }
+
+        @Override
+        public void save(int[] fields)
+        {
+            fields[0] = POSITION.quantize(x);
+            fields[1] = POSITION.quantize(y);
+            fields[2] = life;
+        }
+
+        @Override
+        public void load(int[] fields)
+        {
+            x = POSITION.dequantize(fields[0]);
+            y = POSITION.dequantize(fields[1]);
+            life = fields[2];
+        }
+    }
+}